@@ -0,0 +1,143 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.audit.benchmark;
+
+import static org.forgerock.audit.events.AuditEventBuilder.TIMESTAMP;
+import static org.forgerock.audit.events.AuditEventBuilder.TRANSACTION_ID;
+import static org.forgerock.json.JsonValue.*;
+import static org.forgerock.json.resource.ResourceResponse.FIELD_CONTENT_ID;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.audit.handlers.csv.CsvAuditEventHandler;
+import org.forgerock.audit.handlers.csv.CsvAuditEventHandlerConfiguration;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.QueryFilters;
+import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
+import org.forgerock.json.resource.Requests;
+import org.forgerock.json.resource.ResourceResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+/**
+ * Query latency and allocation benchmarks for {@link CsvAuditEventHandler}, against a file of 5 million events.
+ * <p>
+ * The {@link GCProfiler} reports the memory allocated per query, which does not depend on the size of the file
+ * for paged queries nor for queries on the event fields stored as plain CSV cells.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CsvAuditEventHandlerQueryBenchmarkTest extends BenchmarkBase {
+
+    private static final int PRE_POPULATED_EVENT_COUNT = 5_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final String ACCESS = "access";
+
+    @State(Scope.Benchmark)
+    public static class QueryState extends CsvAuditEventHandlerWriteBenchmarkTest.DefaultState {
+
+        @Override
+        public void updateConfiguration(CsvAuditEventHandlerConfiguration configuration) {
+            configuration.getBuffering().setEnabled(true);
+            configuration.getBuffering().setAutoFlush(true);
+        }
+
+        @Override
+        protected void afterStartup() throws Exception {
+            for (int i = 0; i < PRE_POPULATED_EVENT_COUNT; ++i) {
+                final String id = String.format("%010d", i);
+                final JsonValue event = json(object(
+                        field(FIELD_CONTENT_ID, id),
+                        field(TIMESTAMP, id),
+                        field(TRANSACTION_ID, "tx-" + (i % 1000))));
+                handler.publishEvent(null, ACCESS, event).getOrThrow();
+            }
+        }
+    }
+
+    /** Counts the query results, without retaining them. */
+    private static final class CountingQueryResourceHandler implements QueryResourceHandler {
+        private int count;
+
+        @Override
+        public boolean handleResource(final ResourceResponse resource) {
+            ++count;
+            return true;
+        }
+    }
+
+    @Override
+    protected ChainedOptionsBuilder newOptionsBuilder() throws IOException {
+        return super.newOptionsBuilder().addProfiler(GCProfiler.class);
+    }
+
+    /**
+     * Reads the first page of a query matching one event in a thousand.
+     */
+    @Benchmark
+    public int queryFirstPage(final QueryState state) throws Exception {
+        final QueryRequest queryRequest = Requests.newQueryRequest(ACCESS)
+                .setQueryFilter(QueryFilters.parse("/transactionId eq \"tx-42\""))
+                .setPageSize(PAGE_SIZE);
+        return query(state, queryRequest);
+    }
+
+    /**
+     * Reads a page of a query, resuming from a paged results cookie in the middle of the file.
+     */
+    @Benchmark
+    public int queryPageFromCookie(final QueryState state) throws Exception {
+        final QueryRequest queryRequest = Requests.newQueryRequest(ACCESS)
+                .setQueryFilter(QueryFilters.parse("/transactionId eq \"tx-42\""))
+                .setPagedResultsCookie(String.valueOf(PRE_POPULATED_EVENT_COUNT / 2))
+                .setPageSize(PAGE_SIZE);
+        return query(state, queryRequest);
+    }
+
+    /**
+     * Scans the whole file for a range of timestamps, which is evaluated on the raw CSV cells.
+     */
+    @Benchmark
+    public int queryTimestampRange(final QueryState state) throws Exception {
+        final QueryRequest queryRequest = Requests.newQueryRequest(ACCESS)
+                .setQueryFilter(QueryFilters.parse("/timestamp ge \"0004000000\" and /timestamp lt \"0004000100\""));
+        return query(state, queryRequest);
+    }
+
+    /**
+     * Reads the last event of the file by identifier.
+     */
+    @Benchmark
+    public String readLastById(final QueryState state) throws Exception {
+        final String id = String.format("%010d", PRE_POPULATED_EVENT_COUNT - 1);
+        return state.handler.readEvent(null, ACCESS, id).getOrThrow().getId();
+    }
+
+    private static int query(final QueryState state, final QueryRequest queryRequest) throws Exception {
+        final CountingQueryResourceHandler queryHandler = new CountingQueryResourceHandler();
+        state.handler.queryEvents(null, ACCESS, queryRequest, queryHandler).getOrThrow();
+        return queryHandler.count;
+    }
+}
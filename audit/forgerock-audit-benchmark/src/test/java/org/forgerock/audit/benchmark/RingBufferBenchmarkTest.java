@@ -0,0 +1,125 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.audit.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.audit.events.handlers.buffering.OverflowPolicy;
+import org.forgerock.audit.events.handlers.buffering.RingBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.testng.annotations.Test;
+
+/**
+ * Offer-throughput benchmarks for the {@link RingBuffer} shared by the buffered audit event handlers, compared to
+ * the {@link ArrayBlockingQueue} it replaces, with 1 to 64 producer threads and one consumer draining batches.
+ * <p>
+ * Events are dropped when the buffer is full, so the throughput measures the cost of contended offers rather than
+ * the speed of the consumer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RingBufferBenchmarkTest extends BenchmarkBase {
+
+    private static final int[] PRODUCER_THREADS = { 1, 4, 16, 64 };
+    private static final int CAPACITY = 10_000;
+    private static final int BATCH_SIZE = 500;
+    private static final Object EVENT = new Object();
+
+    /** A buffer drained in batches by a consumer thread. */
+    @State(Scope.Benchmark)
+    public static class BufferState {
+
+        @Param({ "RingBuffer", "ArrayBlockingQueue" })
+        String implementation;
+
+        private RingBuffer<Object> ringBuffer;
+        private BlockingQueue<Object> blockingQueue;
+        private Thread consumer;
+        private volatile boolean stopped;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            ringBuffer = RingBuffer.newBuilder("benchmark")
+                    .capacity(CAPACITY)
+                    .overflowPolicy(OverflowPolicy.DROP_NEWEST)
+                    .build();
+            blockingQueue = new ArrayBlockingQueue<>(CAPACITY);
+            final boolean useRingBuffer = "RingBuffer".equals(implementation);
+            consumer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    final List<Object> batch = new ArrayList<>(BATCH_SIZE);
+                    while (!stopped) {
+                        if (useRingBuffer) {
+                            ringBuffer.drainTo(batch, BATCH_SIZE);
+                        } else {
+                            blockingQueue.drainTo(batch, BATCH_SIZE);
+                        }
+                        batch.clear();
+                    }
+                }
+            }, "benchmark-consumer");
+            consumer.start();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws InterruptedException {
+            stopped = true;
+            consumer.join();
+            ringBuffer.close();
+        }
+
+        boolean offer() {
+            return "RingBuffer".equals(implementation) ? ringBuffer.offer(EVENT) : blockingQueue.offer(EVENT);
+        }
+    }
+
+    /**
+     * Runs the benchmark once for each number of producer threads.
+     *
+     * @throws Exception when an error occurs
+     */
+    @Test
+    @Override
+    public void run() throws Exception {
+        for (final int threads : PRODUCER_THREADS) {
+            new Runner(newOptionsBuilder().threads(threads).build()).run();
+        }
+    }
+
+    /**
+     * Offers an event to the buffer.
+     */
+    @Benchmark
+    public boolean offer(final BufferState state) {
+        return state.offer();
+    }
+}
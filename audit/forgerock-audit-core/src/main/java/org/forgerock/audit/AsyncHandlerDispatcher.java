@@ -0,0 +1,225 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.audit;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.forgerock.util.Reject.checkNotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.forgerock.audit.events.handlers.AuditEventHandler;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.time.TimeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes audit events to an {@link AuditEventHandler} on an executor, so that the caller of the audit service
+ * does not wait for the handler.
+ * <p/>
+ * A publication which fails, or does not complete within the handler timeout, counts as a failure. Once the
+ * handler has failed the configured number of times in a row, events are shed without being published until the
+ * retry interval has elapsed, after which a single event is published to probe whether the handler has recovered.
+ * Events rejected by a saturated executor are dropped, and are not counted as failures of the handler.
+ * <p/>
+ * The timeout bounds how long the executor waits for the promise returned by the handler; a handler publishing
+ * synchronously cannot be interrupted, and only counts as failing once it returns late.
+ */
+final class AsyncHandlerDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncHandlerDispatcher.class);
+
+    private final AuditEventHandler handler;
+    private final Executor executor;
+    private final long timeoutMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final LongAdder shedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * Constructs a new dispatcher.
+     *
+     * @param handler the handler to publish the events to.
+     * @param executor the executor publishing the events, which may be shared with other handlers.
+     * @param timeoutMillis the time, in milliseconds, after which a publication counts as a failure.
+     * @param failureThreshold the number of failures in a row after which events are shed.
+     * @param retryIntervalMillis the time, in milliseconds, during which events are shed.
+     * @param timeService the time service.
+     */
+    AsyncHandlerDispatcher(final AuditEventHandler handler, final Executor executor, final long timeoutMillis,
+            final int failureThreshold, final long retryIntervalMillis, final TimeService timeService) {
+        this.handler = checkNotNull(handler);
+        this.executor = checkNotNull(executor);
+        this.timeoutMillis = timeoutMillis;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, retryIntervalMillis, timeService);
+    }
+
+    /**
+     * Publishes the event to the handler, unless the handler is failing or its executor is saturated, in which
+     * case the event is shed.
+     *
+     * @param context the context of the audit request.
+     * @param topic the topic of the event.
+     * @param event the event, which must not be modified by the caller afterwards.
+     */
+    void dispatch(final Context context, final String topic, final JsonValue event) {
+        if (!circuitBreaker.allowRequest()) {
+            shed(topic);
+            return;
+        }
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    publish(context, topic, event);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the handler did not fail, so this does not trip the circuit breaker, but must not keep it half-open
+            circuitBreaker.recordRejection();
+            droppedCount.increment();
+            logger.debug("Audit event of topic {} not published to {}: executor is saturated",
+                    topic, handler.getName());
+        }
+    }
+
+    private void publish(final Context context, final String topic, final JsonValue event) {
+        final long start = System.nanoTime();
+        try {
+            handler.publishEvent(context, topic, event).getOrThrow(timeoutMillis, MILLISECONDS);
+            if (System.nanoTime() - start > MILLISECONDS.toNanos(timeoutMillis)) {
+                logger.warn("Publishing audit event of topic {} to {} took longer than {} ms",
+                        topic, handler.getName(), timeoutMillis);
+                circuitBreaker.recordFailure();
+            } else {
+                circuitBreaker.recordSuccess();
+            }
+        } catch (TimeoutException e) {
+            logger.warn("Publishing audit event of topic {} to {} did not complete within {} ms",
+                    topic, handler.getName(), timeoutMillis);
+            circuitBreaker.recordFailure();
+        } catch (ResourceException | RuntimeException e) {
+            logger.warn("Failure in publishing audit event of topic {} to {}", topic, handler.getName(), e);
+            circuitBreaker.recordFailure();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void shed(final String topic) {
+        shedCount.increment();
+        logger.debug("Audit event of topic {} not published to {}", topic, handler.getName());
+    }
+
+    /**
+     * Returns the number of events which have not been published because the handler was failing.
+     *
+     * @return the number of events shed.
+     */
+    long getShedCount() {
+        return shedCount.sum();
+    }
+
+    /**
+     * Returns the number of events which have not been published because the executor was saturated.
+     *
+     * @return the number of events dropped.
+     */
+    long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Returns whether events are currently shed because the handler has been failing.
+     *
+     * @return {@code true} if events are being shed.
+     */
+    boolean isOpen() {
+        return circuitBreaker.state.get() != State.CLOSED;
+    }
+
+    /** States of the circuit breaker. */
+    private enum State {
+        /** Events are published. */
+        CLOSED,
+        /** Events are shed until the retry interval has elapsed. */
+        OPEN,
+        /** A single event is being published to probe the handler. */
+        HALF_OPEN
+    }
+
+    /**
+     * Circuit breaker counting the failures in a row of the handler.
+     */
+    private static final class CircuitBreaker {
+
+        private final int failureThreshold;
+        private final long retryIntervalMillis;
+        private final TimeService timeService;
+        private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile long openedAt;
+
+        private CircuitBreaker(final int failureThreshold, final long retryIntervalMillis,
+                final TimeService timeService) {
+            this.failureThreshold = failureThreshold;
+            this.retryIntervalMillis = retryIntervalMillis;
+            this.timeService = checkNotNull(timeService);
+        }
+
+        private boolean allowRequest() {
+            switch (state.get()) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return timeService.now() - openedAt >= retryIntervalMillis
+                        && state.compareAndSet(State.OPEN, State.HALF_OPEN);
+            default:
+                return false;
+            }
+        }
+
+        private void recordSuccess() {
+            consecutiveFailures.set(0);
+            state.set(State.CLOSED);
+        }
+
+        private void recordRejection() {
+            // a probe which could not be run leaves the handler untested, so wait for the next retry interval
+            if (state.get() == State.HALF_OPEN) {
+                openedAt = timeService.now();
+                state.compareAndSet(State.HALF_OPEN, State.OPEN);
+            }
+        }
+
+        private void recordFailure() {
+            if (failureThreshold <= 0) {
+                return;
+            }
+            if (state.get() == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                openedAt = timeService.now();
+                state.set(State.OPEN);
+            }
+        }
+    }
+}
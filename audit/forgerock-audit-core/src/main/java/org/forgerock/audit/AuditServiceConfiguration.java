@@ -12,11 +12,13 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.audit;
 
 import static java.util.Collections.emptyList;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -49,6 +51,16 @@ import org.forgerock.audit.filter.FilterPolicy;
  *                  "/access/filter/value"
  *             ]
  *         }
+ *     },
+ *     "dispatch" : {
+ *         "asynchronous" : true,
+ *         "queueSize" : 10000,
+ *         "handlerTimeout" : "10 seconds",
+ *         "failureThreshold" : 5,
+ *         "retryInterval" : "30 seconds",
+ *         "handlerGroups" : {
+ *             "files" : [ "csv", "json" ]
+ *         }
  *     }
  *   }
  * </pre>
@@ -65,6 +77,9 @@ public class AuditServiceConfiguration {
     @JsonPropertyDescription("audit.service.filter.policies")
     private Map<String, FilterPolicy> filterPolicies = new LinkedHashMap<>();
 
+    @JsonPropertyDescription("audit.service.dispatch")
+    private DispatchConfiguration dispatch = new DispatchConfiguration();
+
     /**
      * Empty constructor.
      */
@@ -80,6 +95,7 @@ public class AuditServiceConfiguration {
     public AuditServiceConfiguration(AuditServiceConfiguration config) {
         handlerForQueries = config.getHandlerForQueries();
         availableAuditEventHandlers = config.availableAuditEventHandlers;
+        dispatch = new DispatchConfiguration(config.getDispatch());
     }
 
     /**
@@ -138,4 +154,186 @@ public class AuditServiceConfiguration {
     public void setFilterPolicies(Map<String, FilterPolicy> filterPolicies) {
         this.filterPolicies.putAll(filterPolicies);
     }
+
+    /**
+     * Returns how audit events are dispatched to the handlers.
+     *
+     * @return the dispatch configuration.
+     */
+    public DispatchConfiguration getDispatch() {
+        return dispatch;
+    }
+
+    /**
+     * Sets how audit events are dispatched to the handlers.
+     *
+     * @param dispatch the dispatch configuration.
+     */
+    public void setDispatch(DispatchConfiguration dispatch) {
+        this.dispatch = dispatch != null ? dispatch : new DispatchConfiguration();
+    }
+
+    /**
+     * Configuration of the dispatch of audit events to the handlers.
+     * <p>
+     * By default, events are published to each handler in turn on the caller's thread. When dispatch is
+     * asynchronous, events are published to the handler used for queries on the caller's thread, and to each other
+     * handler on an executor of its own, or of its group, so that the caller only waits for the handler used for
+     * queries. A handler which fails, or does not complete within the handler timeout, a number of times in a row
+     * is not sent events until the retry interval has elapsed.
+     */
+    public static class DispatchConfiguration {
+
+        @JsonPropertyDescription("audit.service.dispatch.asynchronous")
+        private boolean asynchronous;
+
+        @JsonPropertyDescription("audit.service.dispatch.queueSize")
+        private int queueSize = 10_000;
+
+        @JsonPropertyDescription("audit.service.dispatch.handlerTimeout")
+        private String handlerTimeout = "10 seconds";
+
+        @JsonPropertyDescription("audit.service.dispatch.failureThreshold")
+        private int failureThreshold = 5;
+
+        @JsonPropertyDescription("audit.service.dispatch.retryInterval")
+        private String retryInterval = "30 seconds";
+
+        @JsonPropertyDescription("audit.service.dispatch.handlerGroups")
+        private Map<String, List<String>> handlerGroups = new LinkedHashMap<>();
+
+        /**
+         * Empty constructor.
+         */
+        public DispatchConfiguration() {
+            // empty constructor
+        }
+
+        /**
+         * Copy-constructor, in order to obtain a copy from an existing configuration.
+         *
+         * @param config an existing configuration
+         */
+        public DispatchConfiguration(DispatchConfiguration config) {
+            asynchronous = config.asynchronous;
+            queueSize = config.queueSize;
+            handlerTimeout = config.handlerTimeout;
+            failureThreshold = config.failureThreshold;
+            retryInterval = config.retryInterval;
+            for (Map.Entry<String, List<String>> group : config.handlerGroups.entrySet()) {
+                handlerGroups.put(group.getKey(), new ArrayList<>(group.getValue()));
+            }
+        }
+
+        /**
+         * Returns whether events are published to the handlers not used for queries asynchronously.
+         *
+         * @return {@code true} if dispatch is asynchronous.
+         */
+        public boolean isAsynchronous() {
+            return asynchronous;
+        }
+
+        /**
+         * Sets whether events are published to the handlers not used for queries asynchronously.
+         *
+         * @param asynchronous {@code true} if dispatch is asynchronous.
+         */
+        public void setAsynchronous(boolean asynchronous) {
+            this.asynchronous = asynchronous;
+        }
+
+        /**
+         * Returns the maximum number of events waiting to be published to a handler, or group of handlers, beyond
+         * which events are dropped.
+         *
+         * @return the queue size.
+         */
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        /**
+         * Sets the maximum number of events waiting to be published to a handler, or group of handlers, beyond
+         * which events are dropped.
+         *
+         * @param queueSize the queue size.
+         */
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+
+        /**
+         * Returns how long a handler may take to publish an event before it counts as a failure.
+         *
+         * @return the timeout (e.g., "10 seconds").
+         */
+        public String getHandlerTimeout() {
+            return handlerTimeout;
+        }
+
+        /**
+         * Sets how long a handler may take to publish an event before it counts as a failure.
+         *
+         * @param handlerTimeout the timeout (e.g., "10 seconds").
+         */
+        public void setHandlerTimeout(String handlerTimeout) {
+            this.handlerTimeout = handlerTimeout;
+        }
+
+        /**
+         * Returns the number of failures in a row after which a handler is not sent events for the retry interval.
+         *
+         * @return the failure threshold.
+         */
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        /**
+         * Sets the number of failures in a row after which a handler is not sent events for the retry interval.
+         *
+         * @param failureThreshold the failure threshold.
+         */
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        /**
+         * Returns how long a failing handler is not sent events before an event is sent to it again.
+         *
+         * @return the retry interval (e.g., "30 seconds").
+         */
+        public String getRetryInterval() {
+            return retryInterval;
+        }
+
+        /**
+         * Sets how long a failing handler is not sent events before an event is sent to it again.
+         *
+         * @param retryInterval the retry interval (e.g., "30 seconds").
+         */
+        public void setRetryInterval(String retryInterval) {
+            this.retryInterval = retryInterval;
+        }
+
+        /**
+         * Returns the groups of handlers sharing an executor, by group name.
+         *
+         * @return the handler names, by group name.
+         */
+        public Map<String, List<String>> getHandlerGroups() {
+            return handlerGroups;
+        }
+
+        /**
+         * Sets the groups of handlers sharing an executor, by group name.
+         *
+         * @param handlerGroups the handler names, by group name.
+         */
+        public void setHandlerGroups(Map<String, List<String>> handlerGroups) {
+            this.handlerGroups.clear();
+            this.handlerGroups.putAll(handlerGroups);
+        }
+    }
 }
@@ -12,10 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2017 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.audit;
 
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.forgerock.audit.AuditServiceProxy.ACTION_PARAM_TARGET_HANDLER;
 import static org.forgerock.audit.events.AuditEventBuilder.TIMESTAMP;
 import static org.forgerock.audit.events.AuditEventBuilder.TRANSACTION_ID;
@@ -28,10 +30,17 @@ import static org.forgerock.json.resource.Responses.newResourceResponse;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 
+import org.forgerock.audit.AuditServiceConfiguration.DispatchConfiguration;
 import org.forgerock.audit.events.EventTopicsMetaData;
 import org.forgerock.audit.events.handlers.AuditEventHandler;
 import org.forgerock.audit.filter.Filter;
@@ -55,11 +64,14 @@ import org.forgerock.json.resource.ResourceResponse;
 import org.forgerock.json.resource.ServiceUnavailableException;
 import org.forgerock.json.resource.UpdateRequest;
 import org.forgerock.services.context.Context;
+import org.forgerock.util.Utils;
 import org.forgerock.util.generator.IdGenerator;
 import org.forgerock.util.promise.ExceptionHandler;
 import org.forgerock.util.promise.Promise;
 import org.forgerock.util.promise.RuntimeExceptionHandler;
 import org.forgerock.util.query.QueryFilter;
+import org.forgerock.util.time.Duration;
+import org.forgerock.util.time.TimeService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -86,11 +98,18 @@ import org.slf4j.LoggerFactory;
  * <p/>
  * When instances are no longer needed, {@link #shutdown()} should be called to ensure that any buffered
  * audit events are flushed and that all open file handles or connections are closed.
+ * <p/>
+ * By default, events are published to each handler in turn on the caller's thread. When the dispatch is
+ * configured to be asynchronous, events are published to the handler used for queries on the caller's thread,
+ * and to each other handler by an {@link AsyncHandlerDispatcher}, on an executor of its own or shared by its
+ * group of handlers, so that a slow or failing handler does not delay the caller, nor the other handlers.
  */
 final class AuditServiceImpl implements AuditService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuditServiceImpl.class);
     private static final String PUBLISH_EXCEPTION_TEXT = "Failure in publishing audit event to {} : {}";
+    private static final Duration DEFAULT_HANDLER_TIMEOUT = Duration.duration("10 seconds");
+    private static final Duration DEFAULT_RETRY_INTERVAL = Duration.duration("30 seconds");
 
     /**
      * User-facing configuration.
@@ -120,6 +139,18 @@ final class AuditServiceImpl implements AuditService {
      * The filters to apply to the audit event.
      */
     private final Filter filters;
+    /**
+     * The dispatchers publishing events asynchronously, by handler; empty unless dispatch is asynchronous.
+     */
+    private final Map<AuditEventHandler, AsyncHandlerDispatcher> asyncDispatchers = new IdentityHashMap<>();
+    /**
+     * The executors used by the asynchronous dispatchers, by handler group or handler name.
+     */
+    private final Map<String, ExecutorService> dispatchExecutors = new LinkedHashMap<>();
+    /**
+     * The time, in milliseconds, after which publishing an event to a handler asynchronously counts as a failure.
+     */
+    private final long handlerTimeoutMillis;
 
     /**
      * Constructs a new instance.
@@ -155,6 +186,53 @@ final class AuditServiceImpl implements AuditService {
                 .withAuditTopics(eventTopicsMetaData.getTopics())
                 .withPolicies(configuration.getFilterPolicies())
                 .build();
+
+        final DispatchConfiguration dispatch = config.getDispatch();
+        this.handlerTimeoutMillis = parseDuration("handlerTimeout", dispatch.getHandlerTimeout(),
+                DEFAULT_HANDLER_TIMEOUT).to(MILLISECONDS);
+        if (dispatch.isAsynchronous()) {
+            createAsyncDispatchers(dispatch, auditEventHandlers);
+        }
+    }
+
+    private void createAsyncDispatchers(final DispatchConfiguration dispatch,
+            final Set<AuditEventHandler> handlers) {
+        final Map<String, String> groupsByHandlerName = new HashMap<>();
+        for (Map.Entry<String, List<String>> group : dispatch.getHandlerGroups().entrySet()) {
+            for (String handlerName : group.getValue()) {
+                groupsByHandlerName.put(handlerName, group.getKey());
+            }
+        }
+        final long retryIntervalMillis = parseDuration("retryInterval", dispatch.getRetryInterval(),
+                DEFAULT_RETRY_INTERVAL).to(MILLISECONDS);
+        for (AuditEventHandler handler : handlers) {
+            if (!handler.isEnabled() || handler == queryHandler) {
+                continue;
+            }
+            final String executorName = groupsByHandlerName.containsKey(handler.getName())
+                    ? groupsByHandlerName.get(handler.getName())
+                    : handler.getName();
+            ExecutorService executor = dispatchExecutors.get(executorName);
+            if (executor == null) {
+                // A single thread per executor preserves the order in which a handler receives the events
+                executor = new ThreadPoolExecutor(1, 1, 0L, MILLISECONDS,
+                        new ArrayBlockingQueue<Runnable>(Math.max(1, dispatch.getQueueSize())),
+                        Utils.newThreadFactory(null, "audit-dispatch-" + executorName + "-%d", false));
+                dispatchExecutors.put(executorName, executor);
+            }
+            asyncDispatchers.put(handler, new AsyncHandlerDispatcher(handler, executor, handlerTimeoutMillis,
+                    dispatch.getFailureThreshold(), retryIntervalMillis, TimeService.SYSTEM));
+        }
+    }
+
+    private static Duration parseDuration(final String description, final String duration,
+            final Duration defaultValue) {
+        try {
+            return Duration.duration(duration);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            logger.warn("Invalid {} value: '{}'", description, duration);
+            return defaultValue;
+        }
     }
 
     private Map<String, AuditEventHandler> getAuditEventHandlersByName(Set<AuditEventHandler> handlers) {
@@ -258,6 +336,9 @@ final class AuditServiceImpl implements AuditService {
 
     /**
      * Propagates audit event to all handlers registered to receive events for the given topic.
+     * <p/>
+     * Handlers dispatched to asynchronously share a frozen snapshot of the event, so that the caller and the
+     * synchronous handlers remain free to modify the event.
      *
      * @return The result generated by the queryHandler so that the result of handleCreate is inline with the
      *         result that would be received for a call to handleRead or handleQuery for the provided event.
@@ -275,7 +356,22 @@ final class AuditServiceImpl implements AuditService {
         // Otherwise, return the result generated by the handler used for queries or a generic response if
         // that handler isn't bound to the event's topic
         logger.debug("Cascading the event of topic {} to the handlers : {}", topic, auditEventHandlersForEvent);
+        if (!asyncDispatchers.isEmpty()) {
+            JsonValue snapshot = null;
+            for (AuditEventHandler auditEventHandler : auditEventHandlersForEvent) {
+                AsyncHandlerDispatcher dispatcher = asyncDispatchers.get(auditEventHandler);
+                if (dispatcher != null) {
+                    if (snapshot == null) {
+                        snapshot = event.freeze();
+                    }
+                    dispatcher.dispatch(context, topic, snapshot);
+                }
+            }
+        }
         for (AuditEventHandler auditEventHandler : auditEventHandlersForEvent) {
+            if (asyncDispatchers.containsKey(auditEventHandler)) {
+                continue;
+            }
             Promise<ResourceResponse, ResourceException> handlerResult;
             try {
                 handlerResult = auditEventHandler.publishEvent(context, topic, event)
@@ -434,9 +530,11 @@ final class AuditServiceImpl implements AuditService {
     public void shutdown() {
         switch (lifecycleState) {
         case STARTING:
+            shutdownDispatchExecutors();
             lifecycleState = LifecycleState.SHUTDOWN;
             break;
         case RUNNING:
+            shutdownDispatchExecutors();
             for (Map.Entry<String, AuditEventHandler> entry : auditEventHandlersByName.entrySet()) {
                 String handlerName = entry.getKey();
                 AuditEventHandler handler = entry.getValue();
@@ -456,6 +554,28 @@ final class AuditServiceImpl implements AuditService {
         }
     }
 
+    /**
+     * Lets the asynchronous dispatchers publish the events already accepted, waiting at most the handler timeout
+     * for each executor, so that the handlers are not shut down while events are still being published to them.
+     */
+    private void shutdownDispatchExecutors() {
+        for (ExecutorService executor : dispatchExecutors.values()) {
+            executor.shutdown();
+        }
+        for (Map.Entry<String, ExecutorService> entry : dispatchExecutors.entrySet()) {
+            try {
+                if (!entry.getValue().awaitTermination(handlerTimeoutMillis, MILLISECONDS)) {
+                    logger.warn("Audit events still pending for {} after {} ms, dropping them",
+                            entry.getKey(), handlerTimeoutMillis);
+                    entry.getValue().shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                entry.getValue().shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     @Override
     public boolean isRunning() {
         return lifecycleState == LifecycleState.RUNNING;
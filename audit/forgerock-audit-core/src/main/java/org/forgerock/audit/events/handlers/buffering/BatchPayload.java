@@ -0,0 +1,124 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.audit.events.handlers.buffering;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A batch payload built by a {@link StreamingBatchConsumer}, as UTF-8 bytes which may be gzip compressed.
+ * <p>
+ * Payloads are pooled by the {@link BufferedBatchPublisher}, and their bytes are only valid until the promise
+ * returned by {@link StreamingBatchConsumer#publishBatch(BatchPayload)} has completed.
+ */
+public final class BatchPayload {
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private final Buffer buffer;
+    private boolean compressed;
+
+    /**
+     * Creates an empty payload.
+     *
+     * @param initialCapacity
+     *         initial capacity, in bytes
+     */
+    BatchPayload(final int initialCapacity) {
+        buffer = new Buffer(initialCapacity);
+    }
+
+    /**
+     * Empties this payload, and returns the stream to which the batch is written. The stream must be closed once
+     * the batch has been written.
+     *
+     * @param compress
+     *         whether the batch is gzip compressed
+     * @return the stream to which the batch is written
+     * @throws IOException
+     *         if the compressed stream could not be created
+     */
+    OutputStream open(final boolean compress) throws IOException {
+        buffer.reset();
+        compressed = compress;
+        return compress ? new GZIPOutputStream(buffer, GZIP_BUFFER_SIZE) : buffer;
+    }
+
+    /**
+     * Returns the array holding the bytes of this payload, from index 0 to {@link #getLength()}. The array must not
+     * be modified.
+     *
+     * @return the array holding the bytes of this payload
+     */
+    public byte[] getBytes() {
+        return buffer.array();
+    }
+
+    /**
+     * Returns the number of bytes of this payload.
+     *
+     * @return the number of bytes of this payload
+     */
+    public int getLength() {
+        return buffer.size();
+    }
+
+    /**
+     * Returns whether this payload is gzip compressed, in which case it should be sent with a
+     * {@code Content-Encoding: gzip} header.
+     *
+     * @return {@code true} if this payload is gzip compressed
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Returns a stream reading the bytes of this payload, without copying them.
+     *
+     * @return a stream reading the bytes of this payload
+     */
+    public InputStream newInputStream() {
+        return new ByteArrayInputStream(buffer.array(), 0, buffer.size());
+    }
+
+    /**
+     * Returns the capacity of this payload, in bytes.
+     *
+     * @return the capacity of this payload
+     */
+    int capacity() {
+        return buffer.array().length;
+    }
+
+    /**
+     * A byte array output stream exposing its array.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        private Buffer(final int initialCapacity) {
+            super(initialCapacity);
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+    }
+}
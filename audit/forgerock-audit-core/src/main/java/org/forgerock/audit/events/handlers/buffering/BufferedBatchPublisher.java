@@ -12,15 +12,20 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.audit.events.handlers.buffering;
 
 import static java.lang.Math.max;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -33,24 +38,45 @@ import org.forgerock.util.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 /**
- * Buffers audit events to a bounded queue, periodically flushing the queue to a provided {@link BatchConsumer}.
- * If the bounded queue becomes full, further events are dropped until the queue is next flushed.
+ * Buffers audit events to a bounded {@link RingBuffer}, periodically flushing the buffer to a provided
+ * {@link BatchConsumer}. If the buffer becomes full, further events are handled according to the configured
+ * {@link OverflowPolicy}, which by default drops them until the buffer is next flushed.
+ * <p>
+ * When the consumer is a {@link StreamingBatchConsumer}, events are written as UTF-8, optionally gzip compressed,
+ * to pooled {@link BatchPayload}s rather than to a {@link String}.
  */
 public final class BufferedBatchPublisher implements BatchPublisher {
 
     private static final Logger logger = LoggerFactory.getLogger(BufferedBatchPublisher.class);
 
-    private final BlockingQueue<BatchEntry> queue;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory JSON_FACTORY = MAPPER.getFactory();
+
+    private final RingBuffer<BatchEntry> queue;
     private final ScheduledExecutorService scheduler;
     private final QueueConsumer queueConsumer;
     private final Duration writeInterval;
 
     private BufferedBatchPublisher(BuilderImpl builder) {
-        queue = new ArrayBlockingQueue<>(builder.capacity);
+        final RingBuffer.Builder<BatchEntry> queueBuilder = RingBuffer.<BatchEntry>newBuilder(builder.name)
+                .capacity(builder.capacity)
+                .overflowPolicy(builder.overflowPolicy)
+                .blockTimeout(builder.blockTimeout);
+        if (builder.spillDirectory != null) {
+            queueBuilder.spillTo(builder.spillDirectory, new BatchEntrySerializer());
+        }
+        if (builder.maxSpillFileSize > 0) {
+            queueBuilder.maxSpillFileSize(builder.maxSpillFileSize);
+        }
+        queue = queueBuilder.build();
         scheduler = Executors.newScheduledThreadPool(1);
         queueConsumer = new QueueConsumer(builder.maxBatchedEvents, builder.averagePerEventPayloadSize,
-                builder.autoFlush, queue, scheduler, builder.batchConsumer);
+                builder.autoFlush, builder.compressBatches, queue, scheduler, builder.batchConsumer);
         this.writeInterval = builder.writeInterval;
     }
 
@@ -73,8 +99,7 @@ public final class BufferedBatchPublisher implements BatchPublisher {
     }
 
     /**
-     * Inserts the specified element at the tail of this queue if it is possible to do so immediately without
-     * exceeding the queue's capacity, returning {@code true} upon success and {@code false} if this queue is full.
+     * Inserts the specified element at the tail of this queue, applying the overflow policy if the queue is full.
      *
      * @param topic
      *         Event topic
@@ -88,6 +113,24 @@ public final class BufferedBatchPublisher implements BatchPublisher {
         return queue.offer(new BatchEntry(topic, event));
     }
 
+    /**
+     * Returns the number of events waiting to be flushed, in memory and spilled to disk.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of events dropped because the queue was full.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        return queue.getDroppedCount();
+    }
+
     /**
      * A single audit-event batch entry.
      */
@@ -128,17 +171,45 @@ public final class BufferedBatchPublisher implements BatchPublisher {
         }
     }
 
+    /**
+     * Writes batch entries to a spill file, with the event as JSON.
+     */
+    private static final class BatchEntrySerializer implements RingBuffer.Serializer<BatchEntry> {
+
+        @Override
+        public void write(final BatchEntry entry, final DataOutput output) throws IOException {
+            output.writeUTF(entry.getTopic());
+            final byte[] event = MAPPER.writeValueAsBytes(entry.getEvent().getObject());
+            output.writeInt(event.length);
+            output.write(event);
+        }
+
+        @Override
+        public BatchEntry read(final DataInput input) throws IOException {
+            final String topic = input.readUTF();
+            final byte[] event = new byte[input.readInt()];
+            input.readFully(event);
+            return new BatchEntry(topic, new JsonValue(MAPPER.readValue(event, Object.class)));
+        }
+    }
+
     /**
      * Consumer of the audit-event batch queue, which can be scheduled to run periodically. This class is not
      * thread-safe, and is intended to be run by a single thread.
      */
     private static class QueueConsumer implements Runnable {
 
+        /** Maximum number of payloads kept for reuse, beyond those of the batches being published. */
+        private static final int MAX_POOLED_PAYLOADS = 4;
+
         private final int maxBatchedEvents;
         private final boolean flushOnShutdown;
-        private final BlockingQueue<BatchEntry> queue;
+        private final boolean compressBatches;
+        private final RingBuffer<BatchEntry> queue;
         private final List<BatchEntry> batch;
         private final StringBuilder payload;
+        private final int payloadCapacity;
+        private final Queue<BatchPayload> payloads = new ConcurrentLinkedQueue<>();
         private final BatchConsumer batchEventHandler;
         private final ScheduledExecutorService scheduler;
 
@@ -154,6 +225,8 @@ public final class BufferedBatchPublisher implements BatchPublisher {
          * @param flushOnShutdown
          *         When {@code true}, the queue will be flushed on shutdown and when {@code false},
          *         items in the queue will be dropped
+         * @param compressBatches
+         *         When {@code true}, the payloads of a {@link StreamingBatchConsumer} are gzip compressed
          * @param queue
          *         Audit-event queue
          * @param scheduler
@@ -162,15 +235,17 @@ public final class BufferedBatchPublisher implements BatchPublisher {
          *         Batch audit event handler
          */
         public QueueConsumer(final int maxBatchedEvents, final int averagePerEventPayloadSize,
-                final boolean flushOnShutdown, final BlockingQueue<BatchEntry> queue,
+                final boolean flushOnShutdown, final boolean compressBatches, final RingBuffer<BatchEntry> queue,
                 final ScheduledExecutorService scheduler, final BatchConsumer batchEventHandler) {
             this.queue = queue;
             this.flushOnShutdown = flushOnShutdown;
+            this.compressBatches = compressBatches;
             this.scheduler = scheduler;
             this.batchEventHandler = batchEventHandler;
             this.maxBatchedEvents = maxBatchedEvents;
             batch = new ArrayList<>(maxBatchedEvents);
-            payload = new StringBuilder(maxBatchedEvents * averagePerEventPayloadSize);
+            payloadCapacity = maxBatchedEvents * averagePerEventPayloadSize;
+            payload = batchEventHandler instanceof StreamingBatchConsumer ? null : new StringBuilder(payloadCapacity);
         }
 
         /**
@@ -203,7 +278,12 @@ public final class BufferedBatchPublisher implements BatchPublisher {
          */
         private void batch() {
             queue.drainTo(batch, maxBatchedEvents);
-            if (!batch.isEmpty()) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (batchEventHandler instanceof StreamingBatchConsumer) {
+                streamBatch((StreamingBatchConsumer) batchEventHandler);
+            } else {
                 try {
                     // add to batch
                     for (final BatchEntry entry : batch) {
@@ -233,6 +313,69 @@ public final class BufferedBatchPublisher implements BatchPublisher {
             }
         }
 
+        /**
+         * Performs batch operation, writing the events to a pooled payload which is released once published.
+         */
+        private void streamBatch(final StreamingBatchConsumer consumer) {
+            final BatchPayload batchPayload = acquirePayload();
+            boolean publishing = false;
+            try {
+                // add to batch
+                int added = 0;
+                try (JsonGenerator generator = JSON_FACTORY.createGenerator(batchPayload.open(compressBatches))) {
+                    // the consumer writes the separators its payload format requires
+                    generator.setRootValueSeparator(null);
+                    for (final BatchEntry entry : batch) {
+                        try {
+                            consumer.addToBatch(entry.getTopic(), entry.getEvent(), generator);
+                            added++;
+                        } catch (Exception e) {
+                            logger.error("addToBatch failed", e);
+                        }
+                    }
+                }
+
+                // send batch
+                if (added != 0) {
+                    consumer.publishBatch(batchPayload)
+                            .thenAlways(new Runnable() {
+                                @Override
+                                public void run() {
+                                    releasePayload(batchPayload);
+                                }
+                            })
+                            .thenCatch(new Function<BatchException, Void, BatchException>() {
+                                @Override
+                                public Void apply(BatchException e) throws BatchException {
+                                    logger.error("publishBatch failed", e);
+                                    return null;
+                                }
+                            });
+                    publishing = true;
+                }
+            } catch (IOException e) {
+                logger.error("Unable to write batch", e);
+            } finally {
+                // clear buffers to prepare for next batch
+                batch.clear();
+                if (!publishing) {
+                    releasePayload(batchPayload);
+                }
+            }
+        }
+
+        private BatchPayload acquirePayload() {
+            final BatchPayload batchPayload = payloads.poll();
+            return batchPayload != null ? batchPayload : new BatchPayload(payloadCapacity);
+        }
+
+        private void releasePayload(final BatchPayload batchPayload) {
+            // do not keep payloads which grew for an unusually large batch
+            if (batchPayload.capacity() <= 2 * payloadCapacity && payloads.size() < MAX_POOLED_PAYLOADS) {
+                payloads.offer(batchPayload);
+            }
+        }
+
         @Override
         public void run() {
             if (shutdown) {
@@ -244,6 +387,7 @@ public final class BufferedBatchPublisher implements BatchPublisher {
                         batch();
                     }
                 }
+                queue.close();
             }
 
             // normal run of batch operation
@@ -268,6 +412,17 @@ public final class BufferedBatchPublisher implements BatchPublisher {
      */
     public interface Builder {
 
+        /**
+         * Sets the name of the queue, usually the name of the audit event handler, used in log messages and to
+         * name its spill file. Defaults to {@code audit-batch}.
+         *
+         * @param name
+         *         queue name
+         *
+         * @return this builder
+         */
+        Builder name(String name);
+
         /**
          * Sets the maximum queue capacity. Must be &gt;= 10000.
          *
@@ -318,6 +473,60 @@ public final class BufferedBatchPublisher implements BatchPublisher {
          */
         Builder autoFlush(boolean autoFlush);
 
+        /**
+         * Sets what to do with events offered while the queue is full. Defaults to
+         * {@link OverflowPolicy#DROP_NEWEST}.
+         *
+         * @param overflowPolicy
+         *         overflow policy
+         *
+         * @return this builder
+         */
+        Builder overflowPolicy(OverflowPolicy overflowPolicy);
+
+        /**
+         * Sets how long to wait for room in the queue with the {@link OverflowPolicy#BLOCK} policy. Defaults to
+         * {@link Duration#UNLIMITED}.
+         *
+         * @param blockTimeout
+         *         block timeout
+         *
+         * @return this builder
+         */
+        Builder blockTimeout(Duration blockTimeout);
+
+        /**
+         * Sets the directory where events are spilled with the {@link OverflowPolicy#SPILL_TO_DISK} policy.
+         *
+         * @param spillDirectory
+         *         spill directory
+         *
+         * @return this builder
+         */
+        Builder spillDirectory(Path spillDirectory);
+
+        /**
+         * Sets the size, in bytes, beyond which the spill file does not grow with the
+         * {@link OverflowPolicy#SPILL_TO_DISK} policy, events which do not fit being dropped. Defaults to 1 GiB.
+         *
+         * @param maxSpillFileSize
+         *         maximum spill file size, or zero or less for the default
+         *
+         * @return this builder
+         */
+        Builder maxSpillFileSize(long maxSpillFileSize);
+
+        /**
+         * Whether the payloads of a {@link StreamingBatchConsumer} should be gzip compressed. Defaults to
+         * {@code false}. Has no effect on other consumers.
+         *
+         * @param compressBatches
+         *         whether to compress batches
+         *
+         * @return this builder
+         */
+        Builder compressBatches(boolean compressBatches);
+
         /**
          * Constructs a new {@link BatchPublisher}.
          *
@@ -331,22 +540,38 @@ public final class BufferedBatchPublisher implements BatchPublisher {
         private static final int MIN_QUEUE_SIZE = 10000;
         private static final int MIN_BATCH_SIZE = 500;
         private static final int MIN_PER_EVENT_PAYLOAD_SIZE = 32;
+        private static final String DEFAULT_NAME = "audit-batch";
 
         private final BatchConsumer batchConsumer;
 
+        private String name;
         private int capacity;
         private int maxBatchedEvents;
         private int averagePerEventPayloadSize;
         private Duration writeInterval;
         private boolean autoFlush;
+        private boolean compressBatches;
+        private OverflowPolicy overflowPolicy;
+        private Duration blockTimeout;
+        private Path spillDirectory;
+        private long maxSpillFileSize;
 
         private BuilderImpl(final BatchConsumer batchConsumer) {
             Reject.ifNull(batchConsumer, "batchConsumer must not be null");
             this.batchConsumer = batchConsumer;
+            name = DEFAULT_NAME;
             capacity = MIN_QUEUE_SIZE;
             maxBatchedEvents = MIN_BATCH_SIZE;
             averagePerEventPayloadSize = MIN_PER_EVENT_PAYLOAD_SIZE;
             writeInterval = CommonAuditBatchConfiguration.POLLING_INTERVAL;
+            overflowPolicy = OverflowPolicy.DROP_NEWEST;
+            blockTimeout = Duration.UNLIMITED;
+        }
+
+        @Override
+        public Builder name(final String name) {
+            this.name = name != null ? name : DEFAULT_NAME;
+            return this;
         }
 
         @Override
@@ -380,8 +605,41 @@ public final class BufferedBatchPublisher implements BatchPublisher {
             return this;
         }
 
+        @Override
+        public Builder compressBatches(final boolean compressBatches) {
+            this.compressBatches = compressBatches;
+            return this;
+        }
+
+        @Override
+        public Builder overflowPolicy(final OverflowPolicy overflowPolicy) {
+            Reject.ifNull(overflowPolicy, "overflowPolicy must not be null");
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        @Override
+        public Builder blockTimeout(final Duration blockTimeout) {
+            this.blockTimeout = blockTimeout != null ? blockTimeout : Duration.UNLIMITED;
+            return this;
+        }
+
+        @Override
+        public Builder spillDirectory(final Path spillDirectory) {
+            this.spillDirectory = spillDirectory;
+            return this;
+        }
+
+        @Override
+        public Builder maxSpillFileSize(final long maxSpillFileSize) {
+            this.maxSpillFileSize = maxSpillFileSize;
+            return this;
+        }
+
         @Override
         public BatchPublisher build() {
+            Reject.ifTrue(overflowPolicy == OverflowPolicy.SPILL_TO_DISK && spillDirectory == null,
+                    "spillDirectory must be set for the SPILL_TO_DISK overflow policy");
             return new BufferedBatchPublisher(this);
         }
 
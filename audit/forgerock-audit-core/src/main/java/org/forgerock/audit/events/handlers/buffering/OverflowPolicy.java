@@ -0,0 +1,45 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.audit.events.handlers.buffering;
+
+/**
+ * What a {@link RingBuffer} does with an event offered while it is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The offered event is dropped.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The oldest buffered event is dropped to make room for the offered event.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The producer waits for room in the buffer, up to the configured timeout, after which the offered event is
+     * dropped.
+     */
+    BLOCK,
+
+    /**
+     * The offered event is written to a spill file, and is drained once the events buffered in memory have been
+     * drained. The events offered after it are spilled as well until the spill file has been drained, so that
+     * events are drained in order.
+     */
+    SPILL_TO_DISK
+}
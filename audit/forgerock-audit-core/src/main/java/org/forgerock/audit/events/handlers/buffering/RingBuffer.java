@@ -0,0 +1,621 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.audit.events.handlers.buffering;
+
+import static org.forgerock.util.Reject.checkNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.forgerock.util.Reject;
+import org.forgerock.util.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded buffer of audit events, written to by any number of request threads and drained in batches by the
+ * thread of an audit event handler.
+ * <p>
+ * The buffer is a ring of slots, each with a sequence number telling whether it may be written or read next, so
+ * that neither producers nor the consumer take a lock while the buffer has room. What happens to an event offered
+ * while the buffer is full depends on the {@link OverflowPolicy}. The number of dropped and spilled events is
+ * tracked, so that handlers can report them.
+ * <p>
+ * Events are drained in the order they were offered by each producer. Once an event has been spilled to disk, the
+ * events offered after it are spilled as well until the spill file has been drained, so that they are not drained
+ * ahead of it.
+ *
+ * @param <E> The type of the buffered events.
+ */
+public final class RingBuffer<E> implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RingBuffer.class);
+
+    private final String name;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    /** The sequence number of the next slot to write. */
+    private final AtomicLong tail = new AtomicLong();
+    /** The sequence number of the next slot to read. */
+    private final AtomicLong head = new AtomicLong();
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final SpillFile<E> spillFile;
+    /** Held by producers waiting for room with the BLOCK policy, and by the consumer to signal them. */
+    private final ReentrantLock notFullLock;
+    private final Condition notFull;
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder spilledCount = new LongAdder();
+    /** The number of dropped events already logged, only accessed by the consumer. */
+    private long reportedDroppedCount;
+
+    private volatile boolean closed;
+
+    private RingBuffer(final Builder<E> builder) {
+        name = builder.name;
+        // a slot must have distinct sequence numbers when written and when read, which takes at least two slots
+        int capacity = Math.max(Integer.highestOneBit(builder.capacity), 2);
+        if (capacity < builder.capacity) {
+            capacity <<= 1;
+        }
+        elements = new Object[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+        overflowPolicy = builder.overflowPolicy;
+        blockTimeoutNanos = builder.blockTimeout.isUnlimited()
+                ? Long.MAX_VALUE
+                : builder.blockTimeout.to(TimeUnit.NANOSECONDS);
+        spillFile = overflowPolicy == OverflowPolicy.SPILL_TO_DISK
+                ? new SpillFile<>(name, builder.spillDirectory, builder.serializer, builder.maxSpillFileSize)
+                : null;
+        notFullLock = overflowPolicy == OverflowPolicy.BLOCK ? new ReentrantLock() : null;
+        notFull = notFullLock != null ? notFullLock.newCondition() : null;
+    }
+
+    /**
+     * Adds an event to the buffer, applying the overflow policy if the buffer is full.
+     * <p>
+     * With the {@link OverflowPolicy#BLOCK} policy, the wait ends without adding the event if the buffer is closed
+     * or if the calling thread is interrupted, in which case its interrupted status is left set.
+     *
+     * @param event
+     *         The event, which must not be {@code null}.
+     *
+     * @return {@code true} if the event was buffered in memory or spilled to disk, or {@code false} if it was
+     * dropped
+     */
+    public boolean offer(final E event) {
+        checkNotNull(event);
+        if (closed) {
+            droppedCount.increment();
+            return false;
+        }
+        if (spillFile != null && spillFile.size() > 0) {
+            // keeps the event behind those already spilled
+            return spill(event);
+        }
+        if (tryOffer(event)) {
+            return true;
+        }
+        switch (overflowPolicy) {
+        case DROP_OLDEST:
+            do {
+                if (poll() != null) {
+                    droppedCount.increment();
+                }
+            } while (!tryOffer(event));
+            return true;
+        case BLOCK:
+            return offerWhenNotFull(event);
+        case SPILL_TO_DISK:
+            return spill(event);
+        default:
+            droppedCount.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Removes the oldest event buffered in memory.
+     *
+     * @return The oldest event, or {@code null} if there are no events in memory.
+     */
+    public E poll() {
+        final E event = pollMemory();
+        if (event != null && notFullLock != null) {
+            signalNotFull();
+        }
+        return event;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E pollMemory() {
+        long position = head.get();
+        for (;;) {
+            final int index = (int) (position & mask);
+            final long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    final E event = (E) elements[index];
+                    elements[index] = null;
+                    // the slot may be written again once the producers have gone round the ring
+                    sequences.lazySet(index, position + elements.length);
+                    return event;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Removes up to the given number of events, the ones buffered in memory first since they were offered before
+     * the spilled ones, and adds them to the given collection.
+     *
+     * @param events
+     *         The collection to add the events to.
+     * @param maxEvents
+     *         The maximum number of events to remove.
+     *
+     * @return The number of events removed.
+     */
+    public int drainTo(final Collection<? super E> events, final int maxEvents) {
+        int count = 0;
+        while (count < maxEvents) {
+            final E event = pollMemory();
+            if (event == null) {
+                break;
+            }
+            events.add(event);
+            count++;
+        }
+        if (count < maxEvents && spillFile != null) {
+            count += spillFile.drainTo(events, maxEvents - count);
+        }
+        if (count > 0 && notFullLock != null) {
+            signalNotFull();
+        }
+        reportDroppedEvents();
+        return count;
+    }
+
+    /**
+     * Tells whether there are no events in the buffer, in memory nor spilled to disk.
+     *
+     * @return {@code true} if the buffer is empty.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the number of events in the buffer, which may be out of date as soon as it is returned.
+     *
+     * @return The number of events buffered in memory and spilled to disk.
+     */
+    public int size() {
+        final long size = Math.max(0L, Math.min(tail.get() - head.get(), elements.length));
+        return (int) size + (spillFile != null ? spillFile.size() : 0);
+    }
+
+    /**
+     * Returns the number of events which can be buffered in memory.
+     *
+     * @return The capacity of the buffer.
+     */
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Returns the number of events dropped since the buffer was created, because it or its spill file was full, or
+     * because it was closed.
+     *
+     * @return The number of dropped events.
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Returns the number of events spilled to disk since the buffer was created.
+     *
+     * @return The number of spilled events.
+     */
+    public long getSpilledCount() {
+        return spilledCount.sum();
+    }
+
+    /**
+     * Closes the buffer: events offered from now on are dropped, producers waiting for room give up, and the
+     * spill file, if any, is deleted. Events still in the buffer may be drained before closing it.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (notFullLock != null) {
+            signalNotFull();
+        }
+        if (spillFile != null) {
+            spillFile.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private void reportDroppedEvents() {
+        final long dropped = droppedCount.sum();
+        if (dropped != reportedDroppedCount) {
+            logger.warn("{} audit events were dropped by buffer {} because it or its spill file was full, or it was "
+                    + "closed",
+                    dropped - reportedDroppedCount, name);
+            reportedDroppedCount = dropped;
+        }
+    }
+
+    private boolean tryOffer(final E event) {
+        long position = tail.get();
+        for (;;) {
+            final int index = (int) (position & mask);
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = event;
+                    // publishes the event to the consumer
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // the slot has not been read yet since the previous round, so the buffer is full
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private boolean offerWhenNotFull(final E event) {
+        long remainingNanos = blockTimeoutNanos;
+        notFullLock.lock();
+        try {
+            // the consumer takes the lock after freeing slots, so a slot freed after this check is signalled
+            while (!tryOffer(event)) {
+                if (closed || remainingNanos <= 0) {
+                    droppedCount.increment();
+                    return false;
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedCount.increment();
+            return false;
+        } finally {
+            notFullLock.unlock();
+        }
+    }
+
+    private void signalNotFull() {
+        notFullLock.lock();
+        try {
+            notFull.signalAll();
+        } finally {
+            notFullLock.unlock();
+        }
+    }
+
+    private boolean spill(final E event) {
+        try {
+            if (spillFile.append(event)) {
+                spilledCount.increment();
+                return true;
+            }
+        } catch (IOException e) {
+            logger.error("Unable to spill audit event of buffer {} to disk", name, e);
+        }
+        droppedCount.increment();
+        return false;
+    }
+
+    /**
+     * Writes and reads events to and from a spill file.
+     *
+     * @param <E> The type of the events.
+     */
+    public interface Serializer<E> {
+
+        /**
+         * Writes an event.
+         *
+         * @param event
+         *         The event.
+         * @param output
+         *         The output to write the event to.
+         *
+         * @throws IOException
+         *         If the event cannot be written.
+         */
+        void write(E event, DataOutput output) throws IOException;
+
+        /**
+         * Reads an event written by {@link #write(Object, DataOutput)}.
+         *
+         * @param input
+         *         The input to read the event from.
+         *
+         * @return The event.
+         *
+         * @throws IOException
+         *         If the event cannot be read.
+         */
+        E read(DataInput input) throws IOException;
+    }
+
+    /**
+     * The events spilled to disk, as length-prefixed records appended to a temporary file which is truncated once
+     * all of them have been read. Spilling only happens while the buffer is full, so the file is locked rather
+     * than the buffer.
+     * <p>
+     * Events which would make the file grow beyond its maximum size, or which are spilled once it has been closed,
+     * are not appended, so that the file can neither fill the disk nor be left behind by a producer racing with
+     * {@link RingBuffer#close()}.
+     */
+    private static final class SpillFile<E> {
+
+        private final String name;
+        private final Path directory;
+        private final Serializer<E> serializer;
+        private final long maxSize;
+        private Path path;
+        private RandomAccessFile file;
+        private long readPosition;
+        private long writePosition;
+        private volatile int size;
+        private boolean closed;
+
+        private SpillFile(final String name, final Path directory, final Serializer<E> serializer,
+                final long maxSize) {
+            this.name = name;
+            this.directory = directory;
+            this.serializer = serializer;
+            this.maxSize = maxSize;
+        }
+
+        /** Returns {@code false} if the event was not appended because the file is full or closed. */
+        private synchronized boolean append(final E event) throws IOException {
+            if (closed) {
+                return false;
+            }
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream output = new DataOutputStream(bytes)) {
+                serializer.write(event, output);
+            }
+            if (writePosition + Integer.BYTES + bytes.size() > maxSize) {
+                return false;
+            }
+            if (file == null) {
+                // the name of the handler may contain characters not allowed in file names
+                path = Files.createTempFile(directory, name.replaceAll("[^\\w.-]", "_") + "-", ".spill");
+                file = new RandomAccessFile(path.toFile(), "rw");
+            }
+            file.seek(writePosition);
+            file.writeInt(bytes.size());
+            file.write(bytes.toByteArray());
+            writePosition = file.getFilePointer();
+            size++;
+            return true;
+        }
+
+        private synchronized int drainTo(final Collection<? super E> events, final int maxEvents) {
+            int count = 0;
+            try {
+                while (count < maxEvents && size > 0) {
+                    file.seek(readPosition);
+                    final byte[] bytes = new byte[file.readInt()];
+                    file.readFully(bytes);
+                    readPosition = file.getFilePointer();
+                    size--;
+                    events.add(serializer.read(new DataInputStream(new ByteArrayInputStream(bytes))));
+                    count++;
+                }
+                if (size == 0 && file != null) {
+                    file.setLength(0);
+                    readPosition = 0;
+                    writePosition = 0;
+                }
+            } catch (IOException e) {
+                logger.error("Unable to read spilled audit events of buffer {}, discarding {} events", name, size, e);
+                discard();
+            }
+            return count;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private synchronized void close() {
+            closed = true;
+            discard();
+            if (file != null) {
+                try {
+                    file.close();
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    logger.warn("Unable to delete spill file {}", path, e);
+                }
+                file = null;
+            }
+        }
+
+        private void discard() {
+            size = 0;
+            readPosition = 0;
+            writePosition = 0;
+        }
+    }
+
+    /**
+     * Provides a new builder.
+     *
+     * @param name
+     *         The name of the buffer, usually the name of the audit event handler, used to name its spill file.
+     * @param <E>
+     *         The type of the buffered events.
+     *
+     * @return A new builder.
+     */
+    public static <E> Builder<E> newBuilder(final String name) {
+        return new Builder<>(name);
+    }
+
+    /**
+     * Builder used to construct a new {@link RingBuffer}.
+     *
+     * @param <E> The type of the buffered events.
+     */
+    public static final class Builder<E> {
+
+        private static final int DEFAULT_CAPACITY = 10000;
+        private static final long DEFAULT_MAX_SPILL_FILE_SIZE = 1L << 30;
+
+        private final String name;
+        private int capacity = DEFAULT_CAPACITY;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+        private Duration blockTimeout = Duration.UNLIMITED;
+        private Path spillDirectory;
+        private Serializer<E> serializer;
+        private long maxSpillFileSize = DEFAULT_MAX_SPILL_FILE_SIZE;
+
+        private Builder(final String name) {
+            this.name = checkNotNull(name, "name must not be null");
+        }
+
+        /**
+         * Sets the number of events which can be buffered in memory, which is rounded up to a power of two, and
+         * to at least two.
+         *
+         * @param capacity
+         *         The capacity, which must be positive.
+         *
+         * @return This builder.
+         */
+        public Builder<E> capacity(final int capacity) {
+            Reject.ifTrue(capacity <= 0 || capacity > (1 << 30), "capacity must be positive and at most 2^30");
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * Sets what to do with events offered while the buffer is full. Defaults to
+         * {@link OverflowPolicy#DROP_NEWEST}.
+         *
+         * @param overflowPolicy
+         *         The overflow policy.
+         *
+         * @return This builder.
+         */
+        public Builder<E> overflowPolicy(final OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = checkNotNull(overflowPolicy, "overflowPolicy must not be null");
+            return this;
+        }
+
+        /**
+         * Sets how long producers wait for room in the buffer with the {@link OverflowPolicy#BLOCK} policy.
+         * Defaults to {@link Duration#UNLIMITED}.
+         *
+         * @param blockTimeout
+         *         The timeout.
+         *
+         * @return This builder.
+         */
+        public Builder<E> blockTimeout(final Duration blockTimeout) {
+            this.blockTimeout = checkNotNull(blockTimeout, "blockTimeout must not be null");
+            return this;
+        }
+
+        /**
+         * Sets where and how events are spilled with the {@link OverflowPolicy#SPILL_TO_DISK} policy.
+         *
+         * @param spillDirectory
+         *         The directory of the spill file.
+         * @param serializer
+         *         Writes and reads the events to and from the spill file.
+         *
+         * @return This builder.
+         */
+        public Builder<E> spillTo(final Path spillDirectory, final Serializer<E> serializer) {
+            this.spillDirectory = checkNotNull(spillDirectory, "spillDirectory must not be null");
+            this.serializer = checkNotNull(serializer, "serializer must not be null");
+            return this;
+        }
+
+        /**
+         * Sets the size, in bytes, beyond which the spill file does not grow with the
+         * {@link OverflowPolicy#SPILL_TO_DISK} policy: events which do not fit are dropped until the spilled events
+         * have been drained. Defaults to 1 GiB.
+         *
+         * @param maxSpillFileSize
+         *         The maximum size of the spill file, which must be positive.
+         *
+         * @return This builder.
+         */
+        public Builder<E> maxSpillFileSize(final long maxSpillFileSize) {
+            Reject.ifTrue(maxSpillFileSize <= 0, "maxSpillFileSize must be positive");
+            this.maxSpillFileSize = maxSpillFileSize;
+            return this;
+        }
+
+        /**
+         * Constructs a new {@link RingBuffer}.
+         *
+         * @return A new {@link RingBuffer}.
+         */
+        public RingBuffer<E> build() {
+            Reject.ifTrue(overflowPolicy == OverflowPolicy.SPILL_TO_DISK && serializer == null,
+                    "spillTo must be set for the SPILL_TO_DISK overflow policy");
+            return new RingBuffer<>(this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.audit.events.handlers.buffering;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.util.promise.Promise;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * A {@link BatchConsumer} which builds its batch payloads as UTF-8 bytes, written by a Jackson generator to a
+ * reusable buffer, rather than as a {@link String}.
+ * <p>
+ * A {@link BufferedBatchPublisher} uses these methods in preference to the ones of {@link BatchConsumer}, which
+ * are kept for backward compatibility.
+ */
+public interface StreamingBatchConsumer extends BatchConsumer {
+
+    /**
+     * Adds an audit event to a batch payload.
+     * <p>
+     * Root-level values are written without separators, so the consumer must write any separator its payload format
+     * requires, for example with {@link JsonGenerator#writeRaw(char)}.
+     *
+     * @param topic
+     *         event topic
+     * @param event
+     *         event JSON payload
+     * @param payload
+     *         generator writing to the batch payload
+     *
+     * @throws BatchException
+     *         indicates failure to add-to-batch
+     */
+    void addToBatch(String topic, JsonValue event, JsonGenerator payload) throws BatchException;
+
+    /**
+     * Publishes the batch payload.
+     * <p>
+     * The payload is reused for a later batch once the returned promise has completed, so it must not be accessed
+     * afterwards.
+     *
+     * @param payload
+     *         batch payload
+     *
+     * @return a simple promise encapsulating any potential batch exception
+     */
+    Promise<Void, BatchException> publishBatch(BatchPayload payload);
+
+}
@@ -0,0 +1,229 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Responses.newResourceResponse;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.forgerock.audit.events.handlers.AuditEventHandler;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.InternalServerErrorException;
+import org.forgerock.json.resource.ResourceException;
+import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
+import org.forgerock.util.time.TimeService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class AsyncHandlerDispatcherTest {
+
+    private static final Executor CALLER_RUNS = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private AuditEventHandler handler;
+    private TimeService timeService;
+
+    @BeforeMethod
+    public void setUp() {
+        handler = mock(AuditEventHandler.class);
+        given(handler.getName()).willReturn("handler");
+        timeService = mock(TimeService.class);
+        given(timeService.now()).willReturn(0L);
+    }
+
+    @Test
+    public void shouldPublishEventsToHandler() throws Exception {
+        // given
+        givenHandlerSucceeds();
+        final AsyncHandlerDispatcher dispatcher = newDispatcher(CALLER_RUNS);
+
+        // when
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+
+        // then
+        verifyPublished(1);
+        assertThat(dispatcher.getShedCount()).isZero();
+        assertThat(dispatcher.isOpen()).isFalse();
+    }
+
+    @Test
+    public void shouldShedEventsOnceHandlerHasFailedTooManyTimesInARow() throws Exception {
+        // given
+        givenHandlerFails();
+        final AsyncHandlerDispatcher dispatcher = newDispatcher(CALLER_RUNS);
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch(new RootContext(), "access", json(object()));
+        }
+
+        // then
+        verifyPublished(2);
+        assertThat(dispatcher.getShedCount()).isEqualTo(3);
+        assertThat(dispatcher.isOpen()).isTrue();
+    }
+
+    @Test
+    public void shouldCountTimedOutPublicationsAsFailures() throws Exception {
+        // given
+        given(handler.publishEvent(any(Context.class), any(String.class), any(JsonValue.class)))
+                .willReturn(PromiseImpl.<ResourceResponse, ResourceException>create());
+        final AsyncHandlerDispatcher dispatcher = newDispatcher(CALLER_RUNS);
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            dispatcher.dispatch(new RootContext(), "access", json(object()));
+        }
+
+        // then
+        verifyPublished(2);
+        assertThat(dispatcher.isOpen()).isTrue();
+    }
+
+    @Test
+    public void shouldProbeHandlerOnceRetryIntervalHasElapsed() throws Exception {
+        // given
+        givenHandlerFails();
+        final AsyncHandlerDispatcher dispatcher = newDispatcher(CALLER_RUNS);
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+        givenHandlerSucceeds();
+
+        // when
+        given(timeService.now()).willReturn(999L);
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+        given(timeService.now()).willReturn(1000L);
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+
+        // then
+        verifyPublished(4);
+        assertThat(dispatcher.getShedCount()).isEqualTo(1);
+        assertThat(dispatcher.isOpen()).isFalse();
+    }
+
+    @Test
+    public void shouldReopenWhenProbeFails() throws Exception {
+        // given
+        givenHandlerFails();
+        final AsyncHandlerDispatcher dispatcher = newDispatcher(CALLER_RUNS);
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+
+        // when
+        given(timeService.now()).willReturn(1000L);
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+
+        // then
+        verifyPublished(3);
+        assertThat(dispatcher.getShedCount()).isEqualTo(1);
+        assertThat(dispatcher.isOpen()).isTrue();
+    }
+
+    @Test
+    public void shouldDropEventsRejectedByExecutor() throws Exception {
+        // given
+        final AsyncHandlerDispatcher dispatcher = newDispatcher(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        });
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            dispatcher.dispatch(new RootContext(), "access", json(object()));
+        }
+
+        // then
+        verifyPublished(0);
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(3);
+        assertThat(dispatcher.getShedCount()).isZero();
+        assertThat(dispatcher.isOpen()).isFalse();
+    }
+
+    @Test
+    public void shouldProbeHandlerAgainWhenProbeIsRejectedByExecutor() throws Exception {
+        // given
+        givenHandlerFails();
+        final AtomicBoolean saturated = new AtomicBoolean();
+        final AsyncHandlerDispatcher dispatcher = newDispatcher(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (saturated.get()) {
+                    throw new RejectedExecutionException();
+                }
+                command.run();
+            }
+        });
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+        givenHandlerSucceeds();
+
+        // when
+        given(timeService.now()).willReturn(1000L);
+        saturated.set(true);
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+        saturated.set(false);
+        given(timeService.now()).willReturn(2000L);
+        dispatcher.dispatch(new RootContext(), "access", json(object()));
+
+        // then
+        verifyPublished(3);
+        assertThat(dispatcher.getDroppedCount()).isEqualTo(1);
+        assertThat(dispatcher.isOpen()).isFalse();
+    }
+
+    private AsyncHandlerDispatcher newDispatcher(final Executor executor) {
+        return new AsyncHandlerDispatcher(handler, executor, 10L, 2, 1000L, timeService);
+    }
+
+    private void givenHandlerSucceeds() {
+        given(handler.publishEvent(any(Context.class), any(String.class), any(JsonValue.class)))
+                .willReturn(newResourceResponse(null, null, json(object())).asPromise());
+    }
+
+    private void givenHandlerFails() {
+        final Promise<ResourceResponse, ResourceException> failure = new InternalServerErrorException("boom")
+                .asPromise();
+        given(handler.publishEvent(any(Context.class), any(String.class), any(JsonValue.class)))
+                .willReturn(failure);
+    }
+
+    private void verifyPublished(final int times) {
+        verify(handler, times(times)).publishEvent(any(Context.class), any(String.class), any(JsonValue.class));
+    }
+}
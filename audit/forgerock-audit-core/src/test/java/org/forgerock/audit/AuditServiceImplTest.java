@@ -13,6 +13,7 @@
  *
  * Copyright 2015-2017 ForgeRock AS.
  * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.audit;
@@ -36,6 +37,7 @@ import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -48,6 +50,7 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 
 import org.forgerock.audit.events.EventTopicsMetaData;
 import org.forgerock.audit.events.handlers.AuditEventHandler;
@@ -72,6 +75,8 @@ import org.forgerock.services.context.Context;
 import org.forgerock.services.context.RootContext;
 import org.forgerock.util.promise.Promise;
 import org.forgerock.util.query.QueryFilter;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -832,6 +837,97 @@ public class AuditServiceImplTest {
         assertThat(queryRequest.getQueryFilter()).isEqualTo(QueryFilter.alwaysTrue());
     }
 
+    @Test
+    public void shouldDispatchCreateRequestAsynchronouslyToHandlersNotUsedForQueries() throws Exception {
+        //given
+        final AuditServiceConfiguration config = getAuditServiceConfiguration(QUERY_HANDLER_NAME, null);
+        config.getDispatch().setAsynchronous(true);
+        final AuditEventHandler queryHandler = spyPassThroughAuditEventHandler(QUERY_HANDLER_NAME);
+        final AuditEventHandler otherHandler = spyPassThroughAuditEventHandler("other");
+        final AuditService auditService = new AuditServiceImpl(
+                config, eventTopicsMetaData, asSet(queryHandler, otherHandler));
+        auditService.startup();
+
+        //when
+        final Promise<ResourceResponse, ResourceException> promise =
+                auditService.handleCreate(new RootContext(), makeCreateRequest());
+
+        //then
+        assertThatPromise(promise).succeeded().withObject().isInstanceOf(ResourceResponse.class);
+        verify(queryHandler).publishEvent(any(Context.class), eq("access"), any(JsonValue.class));
+        verify(otherHandler, timeout(5000)).publishEvent(any(Context.class), eq("access"), any(JsonValue.class));
+        auditService.shutdown();
+    }
+
+    @Test
+    public void shouldNotWaitForSlowHandlersNotUsedForQueriesWhenDispatchIsAsynchronous() throws Exception {
+        //given
+        final AuditServiceConfiguration config = getAuditServiceConfiguration(QUERY_HANDLER_NAME, null);
+        config.getDispatch().setAsynchronous(true);
+        final AuditEventHandler queryHandler = spyPassThroughAuditEventHandler(QUERY_HANDLER_NAME);
+        final AuditEventHandler slowHandler = mockAuditEventHandler("slow");
+        final CountDownLatch slowHandlerLatch = new CountDownLatch(1);
+        given(slowHandler.publishEvent(any(Context.class), any(String.class), any(JsonValue.class))).will(
+                new Answer<Promise<ResourceResponse, ResourceException>>() {
+                    @Override
+                    public Promise<ResourceResponse, ResourceException> answer(InvocationOnMock invocationOnMock)
+                            throws Throwable {
+                        slowHandlerLatch.await();
+                        return newResourceResponse(null, null, json(object())).asPromise();
+                    }
+                });
+        final AuditService auditService = new AuditServiceImpl(
+                config, eventTopicsMetaData, asSet(queryHandler, slowHandler));
+        auditService.startup();
+
+        //when
+        final Promise<ResourceResponse, ResourceException> promise =
+                auditService.handleCreate(new RootContext(), makeCreateRequest());
+
+        //then
+        assertThatPromise(promise).succeeded().withObject().isInstanceOf(ResourceResponse.class);
+        assertThat(slowHandlerLatch.getCount()).isEqualTo(1);
+        slowHandlerLatch.countDown();
+        verify(slowHandler, timeout(5000)).publishEvent(any(Context.class), eq("access"), any(JsonValue.class));
+        auditService.shutdown();
+    }
+
+    @Test
+    public void shouldGiveAsynchronousHandlersAFrozenSnapshotOfTheEvent() throws Exception {
+        //given
+        final AuditServiceConfiguration config = getAuditServiceConfiguration(QUERY_HANDLER_NAME, null);
+        config.getDispatch().setAsynchronous(true);
+        final AuditEventHandler queryHandler = spyPassThroughAuditEventHandler(QUERY_HANDLER_NAME);
+        final AuditEventHandler otherHandler = mockAuditEventHandler("other");
+        final JsonValue[] received = new JsonValue[1];
+        final CountDownLatch published = new CountDownLatch(1);
+        given(otherHandler.publishEvent(any(Context.class), any(String.class), any(JsonValue.class))).will(
+                new Answer<Promise<ResourceResponse, ResourceException>>() {
+                    @Override
+                    public Promise<ResourceResponse, ResourceException> answer(InvocationOnMock invocationOnMock)
+                            throws Throwable {
+                        received[0] = (JsonValue) invocationOnMock.getArguments()[2];
+                        published.countDown();
+                        return newResourceResponse(null, null, json(object())).asPromise();
+                    }
+                });
+        final AuditService auditService = new AuditServiceImpl(
+                config, eventTopicsMetaData, asSet(queryHandler, otherHandler));
+        auditService.startup();
+        final CreateRequest createRequest = makeCreateRequest();
+
+        //when
+        auditService.handleCreate(new RootContext(), createRequest);
+        published.await();
+        createRequest.getContent().put("addedByCaller", true);
+
+        //then
+        assertThat(received[0]).isNotSameAs(createRequest.getContent());
+        assertThat(received[0].isFrozen()).isTrue();
+        assertThat(received[0].isDefined("addedByCaller")).isFalse();
+        auditService.shutdown();
+    }
+
     private AuditServiceConfiguration getAuditServiceConfiguration(String queryHandlerName, String topic) {
         final AuditServiceConfiguration config = new AuditServiceConfiguration();
         config.setHandlerForQueries(queryHandlerName);
@@ -887,6 +983,14 @@ public class AuditServiceImplTest {
         return spy(new PassThroughAuditEventHandler(configuration, eventTopicsMetaData));
     }
 
+    private AuditEventHandler mockAuditEventHandler(String name) {
+        AuditEventHandler handler = mock(AuditEventHandler.class);
+        given(handler.getName()).willReturn(name);
+        given(handler.isEnabled()).willReturn(true);
+        given(handler.getHandledTopics()).willReturn(eventTopicsMetaData.getTopics());
+        return handler;
+    }
+
     private Set<AuditEventHandler> asSet(AuditEventHandler... entries) {
         return new HashSet<>(Arrays.asList(entries));
 
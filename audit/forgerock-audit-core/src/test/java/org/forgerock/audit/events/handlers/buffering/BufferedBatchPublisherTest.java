@@ -0,0 +1,187 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.audit.events.handlers.buffering;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.util.promise.Promises.newResultPromise;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.time.Duration;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+@SuppressWarnings("javadoc")
+public class BufferedBatchPublisherTest {
+
+    @Test
+    public void shouldStreamEventsToStreamingConsumer() throws Exception {
+        // given
+        final RecordingConsumer consumer = new RecordingConsumer();
+        final BatchPublisher publisher = newPublisher(consumer, false);
+
+        // when
+        publisher.offer("access", json(object(field("_id", "1"))));
+        publisher.offer("access", json(object(field("_id", "2"))));
+        publisher.startup();
+        final String payload = consumer.payloads.poll(10, SECONDS);
+        publisher.shutdown();
+
+        // then
+        assertThat(payload).isEqualTo("access {\"_id\":\"1\"}\naccess {\"_id\":\"2\"}\n");
+        assertThat(consumer.stringPayloads).isEmpty();
+    }
+
+    @Test
+    public void shouldCompressStreamedBatches() throws Exception {
+        // given
+        final RecordingConsumer consumer = new RecordingConsumer();
+        final BatchPublisher publisher = newPublisher(consumer, true);
+        publisher.startup();
+
+        // when
+        publisher.offer("access", json(object(field("_id", "1"))));
+        final String payload = consumer.payloads.poll(10, SECONDS);
+        publisher.shutdown();
+
+        // then
+        assertThat(payload).isEqualTo("access {\"_id\":\"1\"}\n");
+        assertThat(consumer.compressed).containsOnly(true);
+    }
+
+    @Test
+    public void shouldReusePayloadsOncePublished() throws Exception {
+        // given
+        final RecordingConsumer consumer = new RecordingConsumer();
+        final BatchPublisher publisher = newPublisher(consumer, false);
+        publisher.startup();
+
+        // when
+        publisher.offer("access", json(object(field("_id", "1"))));
+        consumer.payloads.poll(10, SECONDS);
+        publisher.offer("access", json(object(field("_id", "2"))));
+        final String payload = consumer.payloads.poll(10, SECONDS);
+        publisher.shutdown();
+
+        // then
+        assertThat(payload).isEqualTo("access {\"_id\":\"2\"}\n");
+        assertThat(consumer.instances).hasSize(2);
+        assertThat(consumer.instances.get(1)).isSameAs(consumer.instances.get(0));
+    }
+
+    @Test
+    public void shouldPublishStringsToConsumer() throws Exception {
+        // given
+        final BlockingQueue<String> payloads = new LinkedBlockingQueue<>();
+        final BatchPublisher publisher = BufferedBatchPublisher.newBuilder(new BatchConsumer() {
+            @Override
+            public void addToBatch(String topic, JsonValue event, StringBuilder payload) {
+                payload.append(topic).append(' ').append(event.get("_id").asString()).append('\n');
+            }
+
+            @Override
+            public Promise<Void, BatchException> publishBatch(String payload) {
+                payloads.add(payload);
+                return newResultPromise(null);
+            }
+        }).writeInterval(Duration.duration(10, MILLISECONDS)).build();
+        publisher.startup();
+
+        // when
+        publisher.offer("access", json(object(field("_id", "1"))));
+        final String payload = payloads.poll(10, SECONDS);
+        publisher.shutdown();
+
+        // then
+        assertThat(payload).isEqualTo("access 1\n");
+    }
+
+    private static BatchPublisher newPublisher(final BatchConsumer consumer, final boolean compressBatches) {
+        return BufferedBatchPublisher.newBuilder(consumer)
+                .writeInterval(Duration.duration(10, MILLISECONDS))
+                .compressBatches(compressBatches)
+                .build();
+    }
+
+    /** Records the payloads it is given, decompressed. */
+    private static final class RecordingConsumer implements StreamingBatchConsumer {
+
+        private final BlockingQueue<String> payloads = new LinkedBlockingQueue<>();
+        private final List<String> stringPayloads = Collections.synchronizedList(new ArrayList<String>());
+        private final List<BatchPayload> instances = Collections.synchronizedList(new ArrayList<BatchPayload>());
+        private final List<Boolean> compressed = Collections.synchronizedList(new ArrayList<Boolean>());
+
+        @Override
+        public void addToBatch(String topic, JsonValue event, JsonGenerator payload) throws BatchException {
+            try {
+                payload.writeRaw(topic);
+                payload.writeRaw(' ');
+                payload.writeStartObject();
+                payload.writeStringField("_id", event.get("_id").asString());
+                payload.writeEndObject();
+                payload.writeRaw('\n');
+            } catch (IOException e) {
+                throw new BatchException("Unable to write event", e);
+            }
+        }
+
+        @Override
+        public Promise<Void, BatchException> publishBatch(BatchPayload payload) {
+            instances.add(payload);
+            compressed.add(payload.isCompressed());
+            try (InputStream in = payload.isCompressed()
+                    ? new GZIPInputStream(payload.newInputStream()) : payload.newInputStream()) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[1024];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, n);
+                }
+                payloads.add(out.toString("UTF-8"));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return newResultPromise(null);
+        }
+
+        @Override
+        public void addToBatch(String topic, JsonValue event, StringBuilder payload) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Promise<Void, BatchException> publishBatch(String payload) {
+            stringPayloads.add(payload);
+            return newResultPromise(null);
+        }
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.audit.events.handlers.buffering;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.forgerock.util.time.Duration;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class RingBufferTest {
+
+    private static final RingBuffer.Serializer<Integer> INTEGER_SERIALIZER = new RingBuffer.Serializer<Integer>() {
+        @Override
+        public void write(final Integer event, final DataOutput output) throws IOException {
+            output.writeInt(event);
+        }
+
+        @Override
+        public Integer read(final DataInput input) throws IOException {
+            return input.readInt();
+        }
+    };
+
+    @Test
+    public void shouldRoundCapacityUpToPowerOfTwo() {
+        assertThat(RingBuffer.<Integer>newBuilder("test").capacity(10).build().capacity()).isEqualTo(16);
+        assertThat(RingBuffer.<Integer>newBuilder("test").capacity(16).build().capacity()).isEqualTo(16);
+        assertThat(RingBuffer.<Integer>newBuilder("test").capacity(1).build().capacity()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDrainEventsInOrder() {
+        // given
+        final RingBuffer<Integer> buffer = RingBuffer.<Integer>newBuilder("test").capacity(4).build();
+        final List<Integer> events = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            buffer.offer(i);
+            buffer.drainTo(events, 1);
+        }
+
+        // then
+        assertThat(events).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void shouldDropNewestEventsWhenFull() {
+        // given
+        final RingBuffer<Integer> buffer = RingBuffer.<Integer>newBuilder("test").capacity(4).build();
+
+        // when
+        for (int i = 0; i < 6; i++) {
+            buffer.offer(i);
+        }
+
+        // then
+        assertThat(drain(buffer)).containsExactly(0, 1, 2, 3);
+        assertThat(buffer.getDroppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDropOldestEventsWhenFull() {
+        // given
+        final RingBuffer<Integer> buffer = RingBuffer.<Integer>newBuilder("test")
+                .capacity(4)
+                .overflowPolicy(OverflowPolicy.DROP_OLDEST)
+                .build();
+
+        // when
+        for (int i = 0; i < 6; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+
+        // then
+        assertThat(drain(buffer)).containsExactly(2, 3, 4, 5);
+        assertThat(buffer.getDroppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldDropEventWhenBlockTimesOut() {
+        // given
+        final RingBuffer<Integer> buffer = RingBuffer.<Integer>newBuilder("test")
+                .capacity(2)
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .blockTimeout(Duration.duration(10, MILLISECONDS))
+                .build();
+        buffer.offer(0);
+        buffer.offer(1);
+
+        // when
+        final boolean offered = buffer.offer(2);
+
+        // then
+        assertThat(offered).isFalse();
+        assertThat(buffer.getDroppedCount()).isEqualTo(1);
+        assertThat(drain(buffer)).containsExactly(0, 1);
+    }
+
+    @Test
+    public void shouldBlockUntilThereIsRoom() throws Exception {
+        // given
+        final RingBuffer<Integer> buffer = RingBuffer.<Integer>newBuilder("test")
+                .capacity(2)
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .build();
+        buffer.offer(0);
+        buffer.offer(1);
+        final CountDownLatch offered = new CountDownLatch(1);
+        final Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                buffer.offer(2);
+                offered.countDown();
+            }
+        });
+
+        // when
+        producer.start();
+        final Integer first = buffer.poll();
+        offered.await();
+
+        // then
+        assertThat(first).isEqualTo(0);
+        assertThat(drain(buffer)).containsExactly(1, 2);
+        assertThat(buffer.getDroppedCount()).isZero();
+    }
+
+    @Test
+    public void shouldSpillEventsToDiskWhenFull() throws Exception {
+        // given
+        final Path directory = Files.createTempDirectory("RingBufferTest");
+        final RingBuffer<Integer> buffer = RingBuffer.<Integer>newBuilder("test")
+                .capacity(2)
+                .overflowPolicy(OverflowPolicy.SPILL_TO_DISK)
+                .spillTo(directory, INTEGER_SERIALIZER)
+                .build();
+        try {
+            // when
+            for (int i = 0; i < 5; i++) {
+                assertThat(buffer.offer(i)).isTrue();
+            }
+
+            // then
+            assertThat(buffer.size()).isEqualTo(5);
+            assertThat(buffer.getSpilledCount()).isEqualTo(3);
+            assertThat(drain(buffer)).containsExactly(0, 1, 2, 3, 4);
+            assertThat(buffer.isEmpty()).isTrue();
+        } finally {
+            buffer.close();
+        }
+        assertThat(directory.toFile().list()).isEmpty();
+        Files.delete(directory);
+    }
+
+    @Test
+    public void shouldKeepSpillingUntilSpilledEventsAreDrained() throws Exception {
+        // given
+        final Path directory = Files.createTempDirectory("RingBufferTest");
+        final RingBuffer<Integer> buffer = RingBuffer.<Integer>newBuilder("test")
+                .capacity(2)
+                .overflowPolicy(OverflowPolicy.SPILL_TO_DISK)
+                .spillTo(directory, INTEGER_SERIALIZER)
+                .build();
+        try {
+            final List<Integer> events = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                buffer.offer(i);
+            }
+            buffer.drainTo(events, 1);
+
+            // when
+            buffer.offer(3);
+            buffer.drainTo(events, Integer.MAX_VALUE);
+            buffer.offer(4);
+
+            // then
+            assertThat(events).containsExactly(0, 1, 2, 3);
+            assertThat(buffer.getSpilledCount()).isEqualTo(2);
+            assertThat(drain(buffer)).containsExactly(4);
+        } finally {
+            buffer.close();
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void shouldDropEventsWhichDoNotFitInSpillFile() throws Exception {
+        // given
+        final Path directory = Files.createTempDirectory("RingBufferTest");
+        final RingBuffer<Integer> buffer = RingBuffer.<Integer>newBuilder("test")
+                .capacity(2)
+                .overflowPolicy(OverflowPolicy.SPILL_TO_DISK)
+                .spillTo(directory, INTEGER_SERIALIZER)
+                // room for two length-prefixed integers
+                .maxSpillFileSize(16)
+                .build();
+        try {
+            // when
+            for (int i = 0; i < 4; i++) {
+                buffer.offer(i);
+            }
+            final boolean offered = buffer.offer(4);
+
+            // then
+            assertThat(offered).isFalse();
+            assertThat(buffer.getSpilledCount()).isEqualTo(2);
+            assertThat(buffer.getDroppedCount()).isEqualTo(1);
+            assertThat(drain(buffer)).containsExactly(0, 1, 2, 3);
+        } finally {
+            buffer.close();
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void shouldNotSpillEventsOnceClosed() throws Exception {
+        // given
+        final Path directory = Files.createTempDirectory("RingBufferTest");
+        final RingBuffer<Integer> buffer = RingBuffer.<Integer>newBuilder("test")
+                .capacity(2)
+                .overflowPolicy(OverflowPolicy.SPILL_TO_DISK)
+                .spillTo(directory, INTEGER_SERIALIZER)
+                .build();
+        for (int i = 0; i < 3; i++) {
+            buffer.offer(i);
+        }
+        buffer.close();
+
+        // when
+        final boolean offered = buffer.offer(3);
+
+        // then
+        assertThat(offered).isFalse();
+        assertThat(buffer.getDroppedCount()).isEqualTo(1);
+        assertThat(directory.toFile().list()).isEmpty();
+        Files.delete(directory);
+    }
+
+    @Test
+    public void shouldStopBlockingWhenClosed() throws Exception {
+        // given
+        final RingBuffer<Integer> buffer = RingBuffer.<Integer>newBuilder("test")
+                .capacity(2)
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .build();
+        buffer.offer(0);
+        buffer.offer(1);
+        final AtomicBoolean offered = new AtomicBoolean(true);
+        final Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                offered.set(buffer.offer(2));
+            }
+        });
+        producer.start();
+
+        // when
+        while (producer.getState() != Thread.State.TIMED_WAITING && producer.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        buffer.close();
+        producer.join();
+
+        // then
+        assertThat(offered.get()).isFalse();
+        assertThat(buffer.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDropEventsOnceClosed() {
+        // given
+        final RingBuffer<Integer> buffer = RingBuffer.<Integer>newBuilder("test").build();
+        buffer.close();
+
+        // when
+        final boolean offered = buffer.offer(0);
+
+        // then
+        assertThat(offered).isFalse();
+        assertThat(buffer.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotLoseEventsOfConcurrentProducers() throws Exception {
+        // given
+        final int producerCount = 8;
+        final int eventsPerProducer = 10_000;
+        final RingBuffer<Integer> buffer = RingBuffer.<Integer>newBuilder("test")
+                .capacity(64)
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .build();
+        final List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            final int first = p * eventsPerProducer;
+            producers.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = first; i < first + eventsPerProducer; i++) {
+                        buffer.offer(i);
+                    }
+                }
+            }));
+        }
+
+        // when
+        for (final Thread producer : producers) {
+            producer.start();
+        }
+        final Set<Integer> events = new HashSet<>();
+        final List<Integer> batch = new ArrayList<>();
+        while (events.size() < producerCount * eventsPerProducer) {
+            batch.clear();
+            buffer.drainTo(batch, 100);
+            events.addAll(batch);
+        }
+
+        // then
+        assertThat(events).hasSize(producerCount * eventsPerProducer);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    private static List<Integer> drain(final RingBuffer<Integer> buffer) {
+        final List<Integer> events = new ArrayList<>();
+        buffer.drainTo(events, Integer.MAX_VALUE);
+        return events;
+    }
+}
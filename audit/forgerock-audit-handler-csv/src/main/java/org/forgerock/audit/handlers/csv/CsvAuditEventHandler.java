@@ -40,11 +40,10 @@ import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -72,7 +71,6 @@ import org.forgerock.json.resource.ActionResponse;
 import org.forgerock.json.resource.BadRequestException;
 import org.forgerock.json.resource.InternalServerErrorException;
 import org.forgerock.json.resource.NotFoundException;
-import org.forgerock.json.resource.QueryFilters;
 import org.forgerock.json.resource.QueryRequest;
 import org.forgerock.json.resource.QueryResourceHandler;
 import org.forgerock.json.resource.QueryResponse;
@@ -88,8 +86,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.supercsv.cellprocessor.Optional;
 import org.supercsv.cellprocessor.ift.CellProcessor;
-import org.supercsv.io.CsvMapReader;
-import org.supercsv.io.ICsvMapReader;
+import org.supercsv.io.CsvListReader;
+import org.supercsv.io.ICsvListReader;
 import org.supercsv.prefs.CsvPreference;
 import org.supercsv.quote.AlwaysQuoteMode;
 import org.supercsv.util.CsvContext;
@@ -350,16 +348,6 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
         }
     }
 
-    private ICsvMapReader createCsvMapReader(final File auditFile) throws IOException {
-        CsvMapReader csvReader = new CsvMapReader(new FileReader(auditFile), csvPreference);
-
-        if (configuration.getSecurity().isEnabled()) {
-            return new CsvSecureMapReader(csvReader);
-        } else {
-            return csvReader;
-        }
-    }
-
     private String[] buildHeaders(final Collection<String> fieldOrder) {
         final String[] headers = new String[fieldOrder.size()];
         fieldOrder.toArray(headers);
@@ -371,6 +359,9 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
 
     /**
      * Perform a query on the csv audit log.
+     * <p>
+     * The entries are streamed from the file, and the paged results cookie is the number of rows of the file
+     * which have been read to fill the page.
      * {@inheritDoc}
      */
     @Override
@@ -380,10 +371,14 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
             QueryRequest query,
             QueryResourceHandler handler) {
         try {
-            for (final JsonValue value : getEntries(topic, query.getQueryFilter())) {
-                handler.handleResource(newResourceResponse(value.get(FIELD_CONTENT_ID).asString(), null, value));
-            }
-            return newQueryResponse().asPromise();
+            final int rowsToSkip = query.getPagedResultsCookie() == null
+                    ? 0
+                    : Integer.parseInt(query.getPagedResultsCookie());
+            final PagedEntryHandler pagedHandler =
+                    new PagedEntryHandler(handler, query.getPagedResultsOffset(), query.getPageSize());
+            final int rowsRead = streamEntries(topic, query.getQueryFilter(), rowsToSkip, pagedHandler);
+            final String pagedResultsCookie = pagedHandler.isPageComplete() ? String.valueOf(rowsRead) : null;
+            return newQueryResponse(pagedResultsCookie).asPromise();
         } catch (Exception e) {
             return new BadRequestException(e).asPromise();
         }
@@ -396,11 +391,19 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
     @Override
     public Promise<ResourceResponse, ResourceException> readEvent(Context context, String topic, String resourceId) {
         try {
-            final Set<JsonValue> entry = getEntries(topic, QueryFilters.parse("/_id eq \"" + resourceId + "\""));
-            if (entry.isEmpty()) {
+            final JsonValue[] entry = new JsonValue[1];
+            streamEntries(topic, QueryFilter.equalTo(new JsonPointer(FIELD_CONTENT_ID), resourceId), 0,
+                    new EntryHandler() {
+                        @Override
+                        public boolean handleEntry(final JsonValue jsonEntry) {
+                            entry[0] = jsonEntry;
+                            return false;
+                        }
+                    });
+            if (entry[0] == null) {
                 throw new NotFoundException(topic + " audit log not found");
             }
-            final JsonValue resource = entry.iterator().next();
+            final JsonValue resource = entry[0];
             return newResourceResponse(resource.get(FIELD_CONTENT_ID).asString(), null, resource).asPromise();
         } catch (ResourceException e) {
             return e.asPromise();
@@ -497,37 +500,116 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
     }
 
     /**
-     * Parser the csv file corresponding the the specified audit entry type and returns a set of matching audit entries.
+     * Parses the csv file corresponding to the specified audit entry type and streams the matching audit entries
+     * to the entry handler, until the end of the file or until the entry handler does not accept any more entries.
+     * <p>
+     * The query filter is first evaluated on the raw cells of each row, so that the rows can be discarded without
+     * building their audit entry whenever the filter only involves plain string fields.
      *
      * @param auditEntryType the audit log type
      * @param queryFilter the query filter to apply to the entries
-     * @return  A audit log entry; null if no entry exists
+     * @param rowsToSkip the number of rows to skip at the start of the file
+     * @param entryHandler the handler of the matching entries
+     * @return the number of rows read when the entry handler stopped the reading, or {@code -1} if the end of the
+     *         file was reached
      * @throws IOException If unable to get an entry from the CSV file.
      */
-    private Set<JsonValue> getEntries(final String auditEntryType, QueryFilter<JsonPointer> queryFilter)
-            throws IOException {
+    private int streamEntries(final String auditEntryType, QueryFilter<JsonPointer> queryFilter, final int rowsToSkip,
+            final EntryHandler entryHandler) throws IOException {
         final File auditFile = getAuditLogFile(auditEntryType);
-        final Set<JsonValue> results = new HashSet<>();
         if (queryFilter == null) {
             queryFilter = QueryFilter.alwaysTrue();
         }
-        if (auditFile.exists()) {
-            try (ICsvMapReader reader = createCsvMapReader(auditFile)) {
-                // the header elements are used to map the values to the bean (names must match)
-                final String[] header = convertDotNotationToSlashes(reader.getHeader(true));
-                final CellProcessor[] processors = createCellProcessors(auditEntryType, header);
-                Map<String, Object> entry;
-                while ((entry = reader.read(header, processors)) != null) {
-                    entry = convertDotNotationToSlashes(entry);
-                    final JsonValue jsonEntry = expand(entry);
-                    if (queryFilter.accept(JSONVALUE_FILTER_VISITOR, jsonEntry)) {
-                        results.add(jsonEntry);
-                    }
+        if (!auditFile.exists()) {
+            return -1;
+        }
+        try (ICsvListReader reader = new CsvListReader(new FileReader(auditFile), csvPreference)) {
+            final String[] fileHeader = reader.getHeader(true);
+            if (fileHeader == null) {
+                return -1;
+            }
+            // the secure files end with the HMAC and SIGNATURE columns, which are not part of the entries
+            final int columns = configuration.getSecurity().isEnabled() ? fileHeader.length - 2 : fileHeader.length;
+            final String[] header = convertDotNotationToSlashes(Arrays.copyOf(fileHeader, columns));
+            final CellProcessor[] processors =
+                    Arrays.copyOf(createCellProcessors(auditEntryType, header), fileHeader.length);
+            final CsvQueryFilterVisitor rowFilterVisitor =
+                    new CsvQueryFilterVisitor(getStringColumnIndexes(auditEntryType, header));
+            int row = 0;
+            List<String> cells;
+            while ((cells = reader.read()) != null) {
+                if (++row <= rowsToSkip) {
+                    continue;
+                }
+                final Boolean rowMatches = queryFilter.accept(rowFilterVisitor, cells);
+                if (Boolean.FALSE.equals(rowMatches)) {
+                    continue;
+                }
+                final List<Object> values = reader.executeProcessors(processors);
+                final Map<String, Object> entry = new HashMap<>(columns);
+                for (int i = 0; i < columns; i++) {
+                    entry.put(header[i], values.get(i));
+                }
+                final JsonValue jsonEntry = expand(entry);
+                if (rowMatches == null && !queryFilter.accept(JSONVALUE_FILTER_VISITOR, jsonEntry)) {
+                    continue;
+                }
+                if (!entryHandler.handleEntry(jsonEntry)) {
+                    return row;
                 }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the index of the columns holding plain string fields, which are expanded to a single string value of
+     * the audit entry, so that they can be compared to the query filter assertions without building the entry.
+     */
+    private Map<JsonPointer, Integer> getStringColumnIndexes(final String auditEntryType, final String[] headers)
+            throws ResourceException {
+        final JsonValue auditEvent = eventTopicsMetaData.getSchema(auditEntryType);
+        final Map<JsonPointer, Integer> columnIndexes = new HashMap<>();
+        for (int i = 0; i < headers.length; i++) {
+            final JsonPointer pointer = new JsonPointer(headers[i]);
+            final String propertyType = getPropertyType(auditEvent, pointer);
+            if (!propertyType.equals(OBJECT_TYPE) && !propertyType.equals(ARRAY_TYPE)
+                    && !hasArrayIndex(pointer) && !overlapsOtherColumn(headers, i)) {
+                columnIndexes.put(pointer, i);
+            }
+        }
+        return columnIndexes;
+    }
+
+    private static boolean hasArrayIndex(final JsonPointer pointer) {
+        for (final String token : pointer) {
+            if (isArrayIndex(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isArrayIndex(final String token) {
+        if (token.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
 
+    private static boolean overlapsOtherColumn(final String[] headers, final int column) {
+        for (int i = 0; i < headers.length; i++) {
+            if (i != column && (headers[i].startsWith(headers[column] + "/")
+                    || headers[column].startsWith(headers[i] + "/"))) {
+                return true;
             }
         }
-        return results;
+        return false;
     }
 
     private CellProcessor[] createCellProcessors(final String auditEntryType, final String[] headers)
@@ -577,6 +659,58 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
 
     }
 
+    /**
+     * Receives the audit entries streamed from a CSV file.
+     */
+    private interface EntryHandler {
+
+        /**
+         * Handles an audit entry matching the query filter.
+         *
+         * @param jsonEntry the audit entry
+         * @return {@code true} if more entries should be streamed, {@code false} otherwise
+         */
+        boolean handleEntry(JsonValue jsonEntry);
+    }
+
+    /**
+     * Skips the entries before the paged results offset, then hands the entries of one page to a
+     * {@link QueryResourceHandler}.
+     */
+    private static final class PagedEntryHandler implements EntryHandler {
+
+        private final QueryResourceHandler handler;
+        private final int pageSize;
+        private int entriesToSkip;
+        private int handled;
+
+        private PagedEntryHandler(final QueryResourceHandler handler, final int offset, final int pageSize) {
+            this.handler = handler;
+            this.entriesToSkip = offset;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean handleEntry(final JsonValue jsonEntry) {
+            if (entriesToSkip > 0) {
+                entriesToSkip--;
+                return true;
+            }
+            handled++;
+            return handler.handleResource(newResourceResponse(jsonEntry.get(FIELD_CONTENT_ID).asString(), null,
+                    jsonEntry)) && !isPageComplete();
+        }
+
+        /**
+         * Returns whether a full page of entries has been handed to the query resource handler.
+         *
+         * @return {@code true} if paging is requested and the page is complete
+         */
+        private boolean isPageComplete() {
+            return pageSize > 0 && handled >= pageSize;
+        }
+    }
+
     private synchronized void cleanup() throws ResourceException {
         try {
             for (CsvWriter csvWriter : writers.values()) {
@@ -592,15 +726,6 @@ public class CsvAuditEventHandler extends AuditEventHandlerBase {
         }
     }
 
-    private Map<String, Object> convertDotNotationToSlashes(final Map<String, Object> entries) {
-        final Map<String, Object> newEntry = new LinkedHashMap<>();
-        for (Map.Entry<String, Object> entry : entries.entrySet()) {
-            final String key = dotNotationToJsonPointer(entry.getKey());
-            newEntry.put(key, entry.getValue());
-        }
-        return newEntry;
-    }
-
     private String[] convertDotNotationToSlashes(final String[] entries) {
         String[] result = new String[entries.length];
         for (int i = 0; i < entries.length; i++) {
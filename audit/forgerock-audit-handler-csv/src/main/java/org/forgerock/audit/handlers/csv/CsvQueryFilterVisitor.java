@@ -0,0 +1,180 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.audit.handlers.csv;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.util.query.QueryFilter;
+import org.forgerock.util.query.QueryFilterVisitor;
+
+/**
+ * Evaluates a query filter against the raw cells of a CSV row, without building the audit event.
+ * <p>
+ * Only the columns holding plain string values can be evaluated this way. The visitor returns {@code null}
+ * when the outcome depends on any other field, in which case the row has to be expanded to a
+ * {@link org.forgerock.json.JsonValue} and evaluated with
+ * {@link org.forgerock.audit.util.JsonValueUtils#JSONVALUE_FILTER_VISITOR}. Definite outcomes are the same
+ * as the ones of that visitor.
+ */
+class CsvQueryFilterVisitor implements QueryFilterVisitor<Boolean, List<String>, JsonPointer> {
+
+    /** Marks a cell value which can not be compared to the value assertion, so never matches. */
+    private static final int NOT_COMPARABLE = Integer.MIN_VALUE;
+
+    /** Index of the row cell holding each of the plain string fields. */
+    private final Map<JsonPointer, Integer> columnIndexByField;
+
+    /**
+     * Creates a visitor for rows of the given layout.
+     *
+     * @param columnIndexByField index of the row cell holding each plain string field
+     */
+    CsvQueryFilterVisitor(final Map<JsonPointer, Integer> columnIndexByField) {
+        this.columnIndexByField = columnIndexByField;
+    }
+
+    @Override
+    public Boolean visitAndFilter(final List<String> row, final List<QueryFilter<JsonPointer>> subFilters) {
+        Boolean result = Boolean.TRUE;
+        for (final QueryFilter<JsonPointer> subFilter : subFilters) {
+            final Boolean subResult = subFilter.accept(this, row);
+            if (Boolean.FALSE.equals(subResult)) {
+                return Boolean.FALSE;
+            } else if (subResult == null) {
+                result = null;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Boolean visitBooleanLiteralFilter(final List<String> row, final boolean value) {
+        return value;
+    }
+
+    @Override
+    public Boolean visitContainsFilter(final List<String> row, final JsonPointer field, final Object valueAssertion) {
+        if (!columnIndexByField.containsKey(field)) {
+            return null;
+        }
+        final String value = getCell(row, field);
+        return value != null && valueAssertion instanceof String
+                && value.toLowerCase(Locale.ENGLISH).contains(
+                        ((String) valueAssertion).toLowerCase(Locale.ENGLISH));
+    }
+
+    @Override
+    public Boolean visitEqualsFilter(final List<String> row, final JsonPointer field, final Object valueAssertion) {
+        final Integer comparison = compare(row, field, valueAssertion);
+        return comparison == null ? null : comparison == 0;
+    }
+
+    @Override
+    public Boolean visitExtendedMatchFilter(final List<String> row, final JsonPointer field,
+            final String matchingRuleId, final Object valueAssertion) {
+        // Extended filters are not supported
+        return Boolean.FALSE;
+    }
+
+    @Override
+    public Boolean visitGreaterThanFilter(final List<String> row, final JsonPointer field,
+            final Object valueAssertion) {
+        final Integer comparison = compare(row, field, valueAssertion);
+        return comparison == null ? null : comparison != NOT_COMPARABLE && comparison > 0;
+    }
+
+    @Override
+    public Boolean visitGreaterThanOrEqualToFilter(final List<String> row, final JsonPointer field,
+            final Object valueAssertion) {
+        final Integer comparison = compare(row, field, valueAssertion);
+        return comparison == null ? null : comparison != NOT_COMPARABLE && comparison >= 0;
+    }
+
+    @Override
+    public Boolean visitLessThanFilter(final List<String> row, final JsonPointer field, final Object valueAssertion) {
+        final Integer comparison = compare(row, field, valueAssertion);
+        return comparison == null ? null : comparison != NOT_COMPARABLE && comparison < 0;
+    }
+
+    @Override
+    public Boolean visitLessThanOrEqualToFilter(final List<String> row, final JsonPointer field,
+            final Object valueAssertion) {
+        final Integer comparison = compare(row, field, valueAssertion);
+        return comparison == null ? null : comparison != NOT_COMPARABLE && comparison <= 0;
+    }
+
+    @Override
+    public Boolean visitNotFilter(final List<String> row, final QueryFilter<JsonPointer> subFilter) {
+        final Boolean subResult = subFilter.accept(this, row);
+        return subResult == null ? null : !subResult;
+    }
+
+    @Override
+    public Boolean visitOrFilter(final List<String> row, final List<QueryFilter<JsonPointer>> subFilters) {
+        Boolean result = Boolean.FALSE;
+        for (final QueryFilter<JsonPointer> subFilter : subFilters) {
+            final Boolean subResult = subFilter.accept(this, row);
+            if (Boolean.TRUE.equals(subResult)) {
+                return Boolean.TRUE;
+            } else if (subResult == null) {
+                result = null;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Boolean visitPresentFilter(final List<String> row, final JsonPointer field) {
+        // Presence depends on how the row is expanded, leave it to the JsonValue visitor
+        return null;
+    }
+
+    @Override
+    public Boolean visitStartsWithFilter(final List<String> row, final JsonPointer field,
+            final Object valueAssertion) {
+        if (!columnIndexByField.containsKey(field)) {
+            return null;
+        }
+        final String value = getCell(row, field);
+        return value != null && valueAssertion instanceof String
+                && value.toLowerCase(Locale.ENGLISH).startsWith(
+                        ((String) valueAssertion).toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Compares the value assertion to the cell holding the field, in the same order as the JsonValue visitor.
+     *
+     * @return {@code null} if the field is not a plain string column, {@link #NOT_COMPARABLE} if the cell is
+     * empty or the assertion is not a string, otherwise the signum of the comparison of the cell to the assertion
+     */
+    private Integer compare(final List<String> row, final JsonPointer field, final Object valueAssertion) {
+        if (!columnIndexByField.containsKey(field)) {
+            return null;
+        }
+        final String value = getCell(row, field);
+        if (value == null || !(valueAssertion instanceof String)) {
+            return NOT_COMPARABLE;
+        }
+        return Integer.signum(value.compareToIgnoreCase((String) valueAssertion));
+    }
+
+    private String getCell(final List<String> row, final JsonPointer field) {
+        return row.get(columnIndexByField.get(field));
+    }
+}
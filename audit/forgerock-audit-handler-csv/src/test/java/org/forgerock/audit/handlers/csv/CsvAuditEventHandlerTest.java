@@ -33,6 +33,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -242,6 +243,78 @@ public class CsvAuditEventHandlerTest {
         assertResourceEquals(resource, event);
     }
 
+    @Test
+    public void testPagedQueryOnAuditLogEntries() throws Exception {
+        //given
+        final Path logDirectory = Files.createTempDirectory("CsvAuditEventHandlerTest");
+        logDirectory.toFile().deleteOnExit();
+        final CsvAuditEventHandler csvHandler = csvAuditEventHandler().loggingTo(logDirectory).build();
+        final Context context = new RootContext();
+        for (int i = 0; i < 10; i++) {
+            assertThatPromise(csvHandler.publishEvent(context, "access", buildEvent(i))).succeeded();
+        }
+
+        final List<String> ids = new ArrayList<>();
+        final QueryResourceHandler queryResourceHandler = new QueryResourceHandler() {
+            @Override
+            public boolean handleResource(ResourceResponse resource) {
+                ids.add(resource.getId());
+                return true;
+            }
+        };
+        final QueryRequest queryRequest = Requests.newQueryRequest("access")
+                .setQueryFilter(QueryFilters.parse("!(/_id eq \"_id4\") and /transactionId sw \"transactionId\""))
+                .setPagedResultsOffset(1)
+                .setPageSize(3);
+
+        //when
+        final QueryResponse firstPage = csvHandler.queryEvents(context, "access", queryRequest, queryResourceHandler)
+                .getOrThrow();
+        queryRequest.setPagedResultsOffset(0).setPagedResultsCookie(firstPage.getPagedResultsCookie());
+        final QueryResponse secondPage = csvHandler.queryEvents(context, "access", queryRequest, queryResourceHandler)
+                .getOrThrow();
+        queryRequest.setPagedResultsCookie(secondPage.getPagedResultsCookie());
+        final QueryResponse lastPage = csvHandler.queryEvents(context, "access", queryRequest, queryResourceHandler)
+                .getOrThrow();
+
+        //then
+        assertThat(ids).containsExactly("_id1", "_id2", "_id3", "_id5", "_id6", "_id7", "_id8", "_id9");
+        assertThat(firstPage.getPagedResultsCookie()).isNotNull();
+        assertThat(secondPage.getPagedResultsCookie()).isNotNull();
+        assertThat(lastPage.getPagedResultsCookie()).isNull();
+    }
+
+    @Test
+    public void testQueryStopsWhenHandlerRefusesMoreEntries() throws Exception {
+        //given
+        final Path logDirectory = Files.createTempDirectory("CsvAuditEventHandlerTest");
+        logDirectory.toFile().deleteOnExit();
+        final CsvAuditEventHandler csvHandler = csvAuditEventHandler().loggingTo(logDirectory).build();
+        final Context context = new RootContext();
+        for (int i = 0; i < 5; i++) {
+            assertThatPromise(csvHandler.publishEvent(context, "access", buildEvent(i))).succeeded();
+        }
+
+        final List<String> ids = new ArrayList<>();
+        final QueryResourceHandler queryResourceHandler = new QueryResourceHandler() {
+            @Override
+            public boolean handleResource(ResourceResponse resource) {
+                ids.add(resource.getId());
+                return ids.size() < 2;
+            }
+        };
+        final QueryRequest queryRequest = Requests.newQueryRequest("access")
+                .setQueryFilter(QueryFilters.parse("true"));
+
+        //when
+        final QueryResponse response = csvHandler.queryEvents(context, "access", queryRequest, queryResourceHandler)
+                .getOrThrow();
+
+        //then
+        assertThat(ids).containsExactly("_id0", "_id1");
+        assertThat(response.getPagedResultsCookie()).isNull();
+    }
+
     private CreateRequest makeCreateRequest() {
         return Requests.newCreateRequest("access", buildEvent());
     }
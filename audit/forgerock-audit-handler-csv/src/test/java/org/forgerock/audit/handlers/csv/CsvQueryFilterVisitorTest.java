@@ -0,0 +1,88 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.audit.handlers.csv;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.audit.util.JsonValueUtils.JSONVALUE_FILTER_VISITOR;
+import static org.forgerock.audit.util.JsonValueUtils.expand;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.resource.QueryFilters;
+import org.forgerock.util.query.QueryFilter;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class CsvQueryFilterVisitorTest {
+
+    @DataProvider
+    public Object[][] filters() {
+        final String[] cells = { null, "", "Value" };
+        final String[] filters = {
+            "/field eq \"\"", "/field eq \"value\"", "/field eq 1", "/field co \"\"", "/field co \"alu\"",
+            "/field sw \"\"", "/field sw \"val\"", "/field lt \"w\"", "/field le \"\"", "/field gt \"\"",
+            "/field ge \"value\"", "!(/field eq \"value\")", "/field eq \"value\" or /other eq \"x\"",
+            "/field eq \"value\" and /other eq \"x\"", "true", "false",
+        };
+        final Object[][] data = new Object[cells.length * filters.length][];
+        int i = 0;
+        for (final String cell : cells) {
+            for (final String filter : filters) {
+                data[i++] = new Object[] { cell, filter };
+            }
+        }
+        return data;
+    }
+
+    /**
+     * The raw cells must be evaluated in the same way as the rows expanded by the former CSV reader, including
+     * the empty cells.
+     */
+    @Test(dataProvider = "filters")
+    public void shouldEvaluateCellsAsExpandedRows(final String cell, final String filter) {
+        final QueryFilter<JsonPointer> queryFilter = QueryFilters.parse(filter);
+        final Map<String, Object> entry = new HashMap<>();
+        entry.put("/field", cell);
+        entry.put("/other", "x");
+        final JsonValue expanded = expand(entry);
+        final Map<JsonPointer, Integer> columns = new HashMap<>();
+        columns.put(new JsonPointer("/field"), 0);
+        columns.put(new JsonPointer("/other"), 1);
+        final List<String> row = Arrays.asList(cell, "x");
+
+        final Boolean result = queryFilter.accept(new CsvQueryFilterVisitor(columns), row);
+
+        assertThat(result).isEqualTo(queryFilter.accept(JSONVALUE_FILTER_VISITOR, expanded));
+    }
+
+    @Test
+    public void shouldLeaveOtherFieldsToExpandedRows() {
+        final Map<JsonPointer, Integer> columns = new HashMap<>();
+        columns.put(new JsonPointer("/field"), 0);
+        final List<String> row = Arrays.asList("value", "{}");
+
+        assertThat(QueryFilters.parse("/object/field eq \"value\"")
+                .accept(new CsvQueryFilterVisitor(columns), row)).isNull();
+        assertThat(QueryFilters.parse("/field pr").accept(new CsvQueryFilterVisitor(columns), row)).isNull();
+        assertThat(QueryFilters.parse("/field eq \"other\" and /object/field eq \"value\"")
+                .accept(new CsvQueryFilterVisitor(columns), row)).isFalse();
+    }
+}
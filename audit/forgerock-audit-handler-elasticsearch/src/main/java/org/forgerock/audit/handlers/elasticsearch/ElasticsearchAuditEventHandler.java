@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.audit.handlers.elasticsearch;
 
@@ -39,19 +40,24 @@ import org.forgerock.audit.events.handlers.AuditEventHandlerBase;
 import org.forgerock.audit.events.handlers.buffering.BufferedBatchPublisher;
 import org.forgerock.audit.handlers.elasticsearch.ElasticsearchAuditEventHandlerConfiguration.ConnectionConfiguration;
 import org.forgerock.audit.handlers.elasticsearch.ElasticsearchAuditEventHandlerConfiguration.EventBufferingConfiguration;
-import org.forgerock.audit.events.handlers.buffering.BatchConsumer;
 import org.forgerock.audit.events.handlers.buffering.BatchPublisher;
 import org.forgerock.audit.events.handlers.buffering.BatchException;
+import org.forgerock.audit.events.handlers.buffering.BatchPayload;
+import org.forgerock.audit.events.handlers.buffering.StreamingBatchConsumer;
 import org.forgerock.audit.util.ElasticsearchUtil;
 import org.forgerock.http.Client;
 import org.forgerock.http.HttpApplicationException;
 import org.forgerock.http.apache.async.AsyncHttpClientProvider;
 import org.forgerock.http.handler.HttpClientHandler;
+import org.forgerock.http.header.ContentEncodingHeader;
+import org.forgerock.http.header.ContentLengthHeader;
 import org.forgerock.http.header.ContentTypeHeader;
+import org.forgerock.http.io.IO;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Responses;
 import org.forgerock.http.spi.Loader;
+import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.CountPolicy;
 import org.forgerock.json.resource.InternalServerErrorException;
@@ -72,11 +78,13 @@ import org.forgerock.util.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+
 /**
  * {@link AuditEventHandler} for Elasticsearch.
  */
 public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implements
-        BatchConsumer {
+        StreamingBatchConsumer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ElasticsearchAuditEventHandler.class);
     private static final ElasticsearchQueryFilterVisitor ELASTICSEARCH_QUERY_FILTER_VISITOR =
@@ -92,6 +100,7 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
     private static final String TOTAL = "total";
     private static final String PUT = "PUT";
     private static final String POST = "POST";
+    private static final JsonPointer ID_POINTER = JsonPointer.valueOf(FIELD_CONTENT_ID);
 
     /**
      * Average number of characters, per event, for batch indexing via Elasticsearch Bulk API. This value
@@ -148,11 +157,13 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
                             ? null
                             : Duration.duration(bufferConfig.getWriteInterval());
             batchIndexer = BufferedBatchPublisher.newBuilder(this)
+                    .name(getName())
                     .capacity(bufferConfig.getMaxSize())
                     .writeInterval(writeInterval)
                     .maxBatchEvents(bufferConfig.getMaxBatchedEvents())
                     .averagePerEventPayloadSize(BATCH_INDEX_AVERAGE_PER_EVENT_PAYLOAD_SIZE)
                     .autoFlush(ALWAYS_FLUSH_BATCH_QUEUE)
+                    .compressBatches(bufferConfig.isCompressBatches())
                     .build();
         } else {
             batchIndexer = null;
@@ -181,6 +192,28 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
         }
     }
 
+    /**
+     * Returns the number of events buffered and waiting to be indexed.
+     *
+     * @return the queue depth, or {@code 0} if buffering is disabled
+     */
+    public int getQueueDepth() {
+        return batchIndexer instanceof BufferedBatchPublisher
+                ? ((BufferedBatchPublisher) batchIndexer).getQueueDepth()
+                : 0;
+    }
+
+    /**
+     * Returns the number of buffered events dropped because the buffer was full.
+     *
+     * @return the number of dropped events, or {@code 0} if buffering is disabled
+     */
+    public long getDroppedCount() {
+        return batchIndexer instanceof BufferedBatchPublisher
+                ? ((BufferedBatchPublisher) batchIndexer).getDroppedCount()
+                : 0;
+    }
+
     /**
      * Queries the Elasticsearch
      * <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/search.html">Search API</a> for
@@ -296,13 +329,9 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
      */
     protected Promise<ResourceResponse, ResourceException> publishSingleEvent(final String topic,
             final JsonValue event) {
-        // _id is a protected Elasticsearch field, so read it and remove it
         final String resourceId = event.get(FIELD_CONTENT_ID).asString();
-        event.remove(FIELD_CONTENT_ID);
-
         try {
-            final String jsonPayload = ElasticsearchUtil.normalizeJson(event);
-            event.put(FIELD_CONTENT_ID, resourceId);
+            final String jsonPayload = normalizeWithoutId(event);
 
             final Request request = createRequest(PUT, buildEventUri(topic, resourceId), jsonPayload);
 
@@ -336,11 +365,8 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
     public void addToBatch(final String topic, final JsonValue event, final StringBuilder payload)
             throws BatchException {
         try {
-            // _id is a protected Elasticsearch field
             final String resourceId = event.get(FIELD_CONTENT_ID).asString();
-            event.remove(FIELD_CONTENT_ID);
-            final String jsonPayload = ElasticsearchUtil.normalizeJson(event);
-            event.put(FIELD_CONTENT_ID, resourceId);
+            final String jsonPayload = normalizeWithoutId(event);
 
             // newlines have special significance in the Bulk API
             // https://www.elastic.co/guide/en/elasticsearch/reference/current/docs-bulk.html
@@ -356,6 +382,36 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
         }
     }
 
+    /**
+     * Adds an audit event to an Elasticsearch Bulk API payload, written by the given generator.
+     *
+     * @param topic Event topic
+     * @param event Event JSON payload
+     * @param payload Generator writing the Elasticsearch Bulk API payload
+     * @throws BatchException indicates failure to add-to-batch
+     */
+    @Override
+    public void addToBatch(final String topic, final JsonValue event, final JsonGenerator payload)
+            throws BatchException {
+        try {
+            final String resourceId = event.get(FIELD_CONTENT_ID).asString();
+            final String jsonPayload = normalizeWithoutId(event);
+
+            // newlines have special significance in the Bulk API
+            payload.writeStartObject();
+            payload.writeObjectFieldStart("index");
+            payload.writeStringField("_type", topic);
+            payload.writeStringField("_id", resourceId);
+            payload.writeEndObject();
+            payload.writeEndObject();
+            payload.writeRaw('\n');
+            payload.writeRaw(jsonPayload);
+            payload.writeRaw('\n');
+        } catch (IOException e) {
+            throw new BatchException("Unexpected error while adding to batch", e);
+        }
+    }
+
     /**
      * Publishes a <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/docs-bulk.html">Bulk API</a>
      * payload to Elasticsearch.
@@ -375,6 +431,31 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
                 .then(closeSilently(processBatchResponse()), Responses.<Void, BatchException>noopExceptionFunction());
     }
 
+    /**
+     * Publishes a <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/docs-bulk.html">Bulk API</a>
+     * payload to Elasticsearch, streaming its bytes as the request entity.
+     *
+     * @param payload Elasticsearch Bulk API payload
+     */
+    @Override
+    public Promise<Void, BatchException> publishBatch(final BatchPayload payload) {
+        final Request request;
+        try {
+            request = createRequest(POST, buildBulkUri(), null);
+        } catch (URISyntaxException e) {
+            return newExceptionPromise(new BatchException("Incorrect URI", e));
+        }
+        request.getHeaders().put(ContentTypeHeader.NAME, "application/json; charset=UTF-8");
+        if (payload.isCompressed()) {
+            request.getHeaders().put(ContentEncodingHeader.NAME, "gzip");
+        }
+        request.getHeaders().put(ContentLengthHeader.NAME, payload.getLength());
+        request.setEntity(IO.newBranchingInputStream(payload.getBytes(), 0, payload.getLength()));
+
+        return client.send(request)
+                .then(closeSilently(processBatchResponse()), Responses.<Void, BatchException>noopExceptionFunction());
+    }
+
     private Function<Response, Void, BatchException> processBatchResponse() {
         return new Function<Response, Void, BatchException>() {
             @Override
@@ -496,6 +577,27 @@ public class ElasticsearchAuditEventHandler extends AuditEventHandlerBase implem
         return newResourceException(response.getStatus().getCode(), message);
     }
 
+    /**
+     * Normalizes the event without its {@code _id}, which is a protected Elasticsearch field. Frozen events, which
+     * may be shared with other handlers, are not modified.
+     *
+     * @param event the event to normalize.
+     * @return the normalized event, without {@code _id}.
+     * @throws IOException if the event cannot be normalized.
+     */
+    private static String normalizeWithoutId(final JsonValue event) throws IOException {
+        if (event.isFrozen()) {
+            return ElasticsearchUtil.normalizeJson(event.without(ID_POINTER));
+        }
+        final Object resourceId = event.get(FIELD_CONTENT_ID).getObject();
+        event.remove(FIELD_CONTENT_ID);
+        try {
+            return ElasticsearchUtil.normalizeJson(event);
+        } finally {
+            event.put(FIELD_CONTENT_ID, resourceId);
+        }
+    }
+
     private Request createRequest(final String method, final String uri, final Object payload)
             throws URISyntaxException {
         final Request request = new Request();
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.audit.handlers.elasticsearch;
 
@@ -283,6 +284,9 @@ public class ElasticsearchAuditEventHandlerConfiguration extends EventHandlerCon
         @JsonPropertyDescription("audit.handlers.elasticsearch.buffering.maxBatchedEvents")
         private int maxBatchedEvents;
 
+        @JsonPropertyDescription("audit.handlers.elasticsearch.buffering.compressBatches")
+        private boolean compressBatches;
+
         /**
          * Indicates if event buffering is enabled.
          *
@@ -354,5 +358,23 @@ public class ElasticsearchAuditEventHandlerConfiguration extends EventHandlerCon
         public void setMaxBatchedEvents(int maxBatchedEvents) {
             this.maxBatchedEvents = maxBatchedEvents;
         }
+
+        /**
+         * Indicates if batches are gzip compressed before being sent to Elasticsearch.
+         *
+         * @return {@code true} if batches are compressed.
+         */
+        public boolean isCompressBatches() {
+            return compressBatches;
+        }
+
+        /**
+         * Sets whether batches are gzip compressed before being sent to Elasticsearch.
+         *
+         * @param compressBatches {@code true} if batches are compressed.
+         */
+        public void setCompressBatches(boolean compressBatches) {
+            this.compressBatches = compressBatches;
+        }
     }
 }
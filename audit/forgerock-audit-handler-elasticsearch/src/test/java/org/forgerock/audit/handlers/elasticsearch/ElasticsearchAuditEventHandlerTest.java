@@ -13,6 +13,7 @@
  *
  * Copyright 2016 ForgeRock AS.
  * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.audit.handlers.elasticsearch;
@@ -29,6 +30,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -72,6 +74,7 @@ import org.mockito.stubbing.Answer;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class ElasticsearchAuditEventHandlerTest {
@@ -297,6 +300,61 @@ public class ElasticsearchAuditEventHandlerTest {
         assertThat(builder.toString()).isEqualTo(authEventBatchPayload);
     }
 
+    @Test
+    public void testAddFrozenEventToBatch() throws Exception {
+
+        // given
+        final Response response = new Response(Status.OK);
+
+        final Promise<Response, NeverThrowsException> promise = newResultPromise(response);
+
+        final ElasticsearchAuditEventHandlerConfiguration config = new ElasticsearchAuditEventHandlerConfiguration();
+        config.getBuffering().setEnabled(true);
+
+        final BatchConsumer batchHandler =
+                createElasticSearchAuditEventHandler(createClient(promise), config);
+        final JsonValue event = resourceAsJsonValue(RESOURCE_PATH + "authEventBeforeNormalization.json").freeze();
+        final StringBuilder builder = new StringBuilder();
+
+        // when
+        batchHandler.addToBatch("authentication", event, builder);
+
+        // then
+        assertThat(builder.toString()).isEqualTo(authEventBatchPayload);
+        assertThat(event.isDefined("_id")).isTrue();
+    }
+
+    @Test
+    public void testAddToBatchWithGenerator() throws Exception {
+
+        // given
+        final Response response = new Response(Status.OK);
+
+        final Promise<Response, NeverThrowsException> promise = newResultPromise(response);
+
+        final ElasticsearchAuditEventHandlerConfiguration config = new ElasticsearchAuditEventHandlerConfiguration();
+        config.getBuffering().setEnabled(true);
+
+        final ElasticsearchAuditEventHandler batchHandler =
+                createElasticSearchAuditEventHandler(createClient(promise), config);
+        final JsonValue event = resourceAsJsonValue(RESOURCE_PATH + "authEventBeforeNormalization.json");
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+
+        // when
+        try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(payload)) {
+            generator.setRootValueSeparator(null);
+            batchHandler.addToBatch("authentication", event, generator);
+        }
+
+        // then
+        final String[] lines = payload.toString("UTF-8").split("\n");
+        final String[] expectedLines = authEventBatchPayload.split("\n");
+        assertThat(lines).hasSameSizeAs(expectedLines);
+        for (int i = 0; i < lines.length; i++) {
+            assertThat(OBJECT_MAPPER.readTree(lines[i])).isEqualTo(OBJECT_MAPPER.readTree(expectedLines[i]));
+        }
+    }
+
     @Test
     public void testPublishBatchSuccess() throws Exception {
 
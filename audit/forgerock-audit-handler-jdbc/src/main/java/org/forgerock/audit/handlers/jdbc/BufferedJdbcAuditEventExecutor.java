@@ -13,6 +13,7 @@
  *
  * Copyright 2015-2016 ForgeRock AS.
  * Portions Copyright 2016 Nomura Research Institute, Ltd.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.audit.handlers.jdbc;
 
@@ -30,13 +31,14 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 
 import org.forgerock.audit.AuditException;
+import org.forgerock.audit.events.handlers.buffering.OverflowPolicy;
+import org.forgerock.audit.events.handlers.buffering.RingBuffer;
 import org.forgerock.util.Reject;
 import org.forgerock.util.time.Duration;
 import org.slf4j.Logger;
@@ -51,8 +53,8 @@ class BufferedJdbcAuditEventExecutor implements JdbcAuditEventExecutor {
     /** The wrapped {@link JdbcAuditEventExecutor}. */
     private final JdbcAuditEventExecutor delegate;
 
-    /** Queue to store unpublished events. */
-    private final LinkedBlockingQueue<JdbcAuditEvent> queue;
+    /** Queue to store unpublished events. Producers wait for room while it is full. */
+    private final RingBuffer<JdbcAuditEvent> queue;
 
     private volatile boolean stopRequested;
     private final ScheduledExecutorService queueWatcher;
@@ -64,19 +66,23 @@ class BufferedJdbcAuditEventExecutor implements JdbcAuditEventExecutor {
     /**
      * Created a BufferedJdbcAuditEventExecutor with a given queue capacity, and the {@link JdbcAuditEventExecutor}
      * to use.
+     * @param name The name of the audit event handler, used to name the buffered queue.
      * @param capacity The capacity of the buffered queue.
      * @param autoFlush Whether the queue needs to be auto flushed or not.
      * @param delegate The {@link JdbcAuditEventExecutor} to delegate the operations too.
      * @param writeInterval The interval to trigger write events.
      * @param threads The number of writer threads.
      */
-    public BufferedJdbcAuditEventExecutor(int capacity, boolean autoFlush, JdbcAuditEventExecutor delegate,
+    public BufferedJdbcAuditEventExecutor(String name, int capacity, boolean autoFlush, JdbcAuditEventExecutor delegate,
             Duration writeInterval, int threads, int maxBatchedEvents, final DataSource dataSource) {
         Reject.ifNull(delegate);
         this.autoFlush = autoFlush;
         this.delegate = delegate;
 
-        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.queue = RingBuffer.<JdbcAuditEvent>newBuilder(name)
+                .capacity(capacity)
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .build();
         this.stopRequested = false;
 
         this.dataSource = dataSource;
@@ -96,7 +102,7 @@ class BufferedJdbcAuditEventExecutor implements JdbcAuditEventExecutor {
                     workerPool.submit(new DatabaseWriterTask(events, dataSource));
                 } catch (RejectedExecutionException e) {
                     // unable to submit task put events back in queue.
-                    queue.addAll(events);
+                    requeue(events);
                 }
             }
         } catch (Exception e) {
@@ -114,6 +120,7 @@ class BufferedJdbcAuditEventExecutor implements JdbcAuditEventExecutor {
         if (autoFlush) {
             flush();
         }
+        queue.close();
         shutdownPool(queueWatcher);
         shutdownPool(workerPool);
         delegate.close();
@@ -121,11 +128,34 @@ class BufferedJdbcAuditEventExecutor implements JdbcAuditEventExecutor {
 
     @Override
     public void createAuditEvent(JdbcAuditEvent event) throws AuditException {
-        while (!stopRequested) {
-            // Put request on queue for writer
-            if (queue.offer(event)) {
-                break;
-            }
+        if (!stopRequested) {
+            // Put request on queue for writer, waiting for room until the queue is closed
+            queue.offer(event);
+        }
+    }
+
+    /**
+     * Returns the number of events waiting to be written.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of events dropped because the queue was closed while waiting for room.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        return queue.getDroppedCount();
+    }
+
+    private void requeue(final Collection<JdbcAuditEvent> events) {
+        // tasks are only rejected once the worker pool is shut down, after the queue is closed, so this never waits
+        for (final JdbcAuditEvent event : events) {
+            queue.offer(event);
         }
     }
 
@@ -158,7 +188,7 @@ class BufferedJdbcAuditEventExecutor implements JdbcAuditEventExecutor {
                     workerPool.submit(new DatabaseWriterTask(events, dataSource));
                 } catch (RejectedExecutionException e) {
                     // unable to submit task put events back in queue.
-                    queue.addAll(events);
+                    requeue(events);
                 }
             }
         }
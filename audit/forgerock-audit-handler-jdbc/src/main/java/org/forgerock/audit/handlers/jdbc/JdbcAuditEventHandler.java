@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.audit.handlers.jdbc;
 
@@ -111,6 +112,7 @@ public class JdbcAuditEventHandler extends AuditEventHandlerBase {
         final EventBufferingConfiguration bufferConfig = configuration.getBuffering();
         if (bufferConfig.isEnabled()) {
             this.jdbcAuditEventExecutor = new BufferedJdbcAuditEventExecutor(
+                    getName(),
                     bufferConfig.getMaxSize(),
                     bufferConfig.isAutoFlush(),
                     jdbcAuditEventExecutor,
@@ -207,6 +209,28 @@ public class JdbcAuditEventHandler extends AuditEventHandlerBase {
         return newResourceResponse(resourceId, null, result).asPromise();
     }
 
+    /**
+     * Returns the number of events buffered and waiting to be written to the database.
+     *
+     * @return the queue depth, or {@code 0} if buffering is disabled or the handler is not started
+     */
+    public int getQueueDepth() {
+        return jdbcAuditEventExecutor instanceof BufferedJdbcAuditEventExecutor
+                ? ((BufferedJdbcAuditEventExecutor) jdbcAuditEventExecutor).getQueueDepth()
+                : 0;
+    }
+
+    /**
+     * Returns the number of buffered events dropped because the handler was shut down while waiting for room.
+     *
+     * @return the number of dropped events, or {@code 0} if buffering is disabled or the handler is not started
+     */
+    public long getDroppedCount() {
+        return jdbcAuditEventExecutor instanceof BufferedJdbcAuditEventExecutor
+                ? ((BufferedJdbcAuditEventExecutor) jdbcAuditEventExecutor).getDroppedCount()
+                : 0;
+    }
+
     private TableMapping getTableMapping(final String auditEventTopic) throws AuditException {
         for (TableMapping tableMapping : configuration.getTableMappings()) {
             if (tableMapping.getEvent().equalsIgnoreCase(auditEventTopic)) {
@@ -0,0 +1,133 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.audit.handlers.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Reads newline-delimited lines of bytes from a range of a {@link FileChannel}, keeping track of the byte offset
+ * of each line. This class is not thread-safe.
+ */
+class FileLineReader {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int LINE_BUFFER_INITIAL_SIZE = 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private byte[] line = new byte[LINE_BUFFER_INITIAL_SIZE];
+    private int lineLength;
+    private long lineOffset;
+    private long position;
+    private long readPosition;
+    private long end;
+
+    /**
+     * Creates a {@code FileLineReader} for the given channel.
+     *
+     * @param channel File channel opened for reading
+     */
+    FileLineReader(final FileChannel channel) {
+        this.channel = channel;
+        readBuffer.flip();
+    }
+
+    /**
+     * Restricts reading to the given range of the file. The start offset must be at the beginning of a line.
+     *
+     * @param start Offset of the first byte to read
+     * @param end Offset following the last byte to read
+     */
+    void seek(final long start, final long end) {
+        this.position = start;
+        this.readPosition = start;
+        this.end = end;
+        readBuffer.clear();
+        readBuffer.flip();
+    }
+
+    /**
+     * Reads the next line, excluding its newline character.
+     *
+     * @return {@code true} if a line was read, or {@code false} if the end of the range was reached
+     * @throws IOException failed to read from the file
+     */
+    boolean readLine() throws IOException {
+        if (position >= end) {
+            return false;
+        }
+        lineOffset = position;
+        lineLength = 0;
+        while (true) {
+            if (!readBuffer.hasRemaining()) {
+                if (readPosition >= end) {
+                    break;
+                }
+                readBuffer.clear();
+                readBuffer.limit((int) Math.min(readBuffer.capacity(), end - readPosition));
+                final int n = channel.read(readBuffer, readPosition);
+                readBuffer.flip();
+                if (n <= 0) {
+                    break;
+                }
+                readPosition += n;
+            }
+            final byte b = readBuffer.get();
+            ++position;
+            if (b == '\n') {
+                return true;
+            }
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[lineLength++] = b;
+        }
+        // range ended without a trailing newline
+        position = end;
+        return lineLength > 0;
+    }
+
+    /**
+     * Gets the bytes of the last line read, which are only valid until the next call to {@link #readLine()}.
+     *
+     * @return Line buffer, of which only the first {@link #getLineLength()} bytes are used
+     */
+    byte[] getLine() {
+        return line;
+    }
+
+    /**
+     * Gets the number of bytes in the last line read.
+     *
+     * @return Line length in bytes
+     */
+    int getLineLength() {
+        return lineLength;
+    }
+
+    /**
+     * Gets the byte offset of the last line read.
+     *
+     * @return Line offset in bytes
+     */
+    long getLineOffset() {
+        return lineOffset;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.audit.handlers.json;
@@ -22,15 +23,13 @@ import static org.forgerock.json.resource.ResourceException.*;
 import static org.forgerock.json.resource.ResourceResponse.FIELD_CONTENT_ID;
 import static org.forgerock.json.resource.Responses.*;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.forgerock.audit.events.EventTopicsMetaData;
@@ -80,10 +79,6 @@ public class JsonAuditEventHandler extends AuditEventHandlerBase {
      */
     public static final String FLUSH_FILE_ACTION_NAME = "flush";
 
-    private static final String ID_FIELD_PATTERN_PREFIX = "\"" + FIELD_CONTENT_ID + "\"\\s*:\\s*\"";
-    private static final String EVENT_ID_FIELD_PATTERN_PREFIX = "\"" + EVENT_ID_FIELD + "\"\\s*:\\s*\"";
-    private static final String FIELD_PATTERN_SUFFIX = "\"";
-
     private final JsonFileWriter jsonFileWriter;
     private final boolean elasticsearchCompatible;
 
@@ -111,6 +106,24 @@ public class JsonAuditEventHandler extends AuditEventHandlerBase {
         jsonFileWriter.shutdown();
     }
 
+    /**
+     * Returns the number of events buffered and waiting to be written to file.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return jsonFileWriter.getQueueDepth();
+    }
+
+    /**
+     * Returns the number of buffered events dropped because the handler was shut down while waiting for room.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        return jsonFileWriter.getDroppedCount();
+    }
+
     @Override
     public Promise<ResourceResponse, ResourceException> publishEvent(final Context context, final String topic,
             final JsonValue event) {
@@ -129,20 +142,32 @@ public class JsonAuditEventHandler extends AuditEventHandlerBase {
         if (jsonFilePath == null) {
             return newResourceException(NOT_FOUND, "Topic not found: " + topic).asPromise();
         }
-        final String fieldPatternPrefix = elasticsearchCompatible
-                ? EVENT_ID_FIELD_PATTERN_PREFIX : ID_FIELD_PATTERN_PREFIX;
-        final Matcher idMatcher = Pattern.compile(fieldPatternPrefix + resourceId + FIELD_PATTERN_SUFFIX).matcher("");
-        String line;
-        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(
-                Files.newInputStream(jsonFilePath), StandardCharsets.UTF_8))) {
-            line = reader.readLine();
-            while (line != null) {
-                if (idMatcher.reset(line).find()) {
+        final String idField = elasticsearchCompatible ? EVENT_ID_FIELD : FIELD_CONTENT_ID;
+        final String[] idAndTimestamp = new String[2];
+        final JsonFileIndex index = jsonFileWriter.getTopicIndex(topic);
+        try (final FileChannel channel = FileChannel.open(jsonFilePath, StandardOpenOption.READ)) {
+            final long fileLength = channel.size();
+            final FileLineReader reader = new FileLineReader(channel);
+            if (index == jsonFileWriter.getTopicIndex(topic)) {
+                // the file has not been rotated while opening it, so the index can be trusted
+                final Long offset = index.getOffset(resourceId);
+                if (offset == null || offset >= fileLength) {
+                    return newResourceException(NOT_FOUND, "Resource not found with ID: " + resourceId).asPromise();
+                }
+                reader.seek(offset, fileLength);
+            } else {
+                reader.seek(0L, fileLength);
+            }
+            while (reader.readLine()) {
+                if (reader.getLineLength() == 0) {
+                    continue;
+                }
+                JsonFileIndex.readIdAndTimestamp(reader.getLine(), reader.getLineLength(), idField, idAndTimestamp);
+                if (resourceId.equals(idAndTimestamp[0])) {
                     final JsonValue event = denormalizeJsonEvent(new JsonValue(
-                            OBJECT_MAPPER.readValue(line, Map.class)));
+                            OBJECT_MAPPER.readValue(reader.getLine(), 0, reader.getLineLength(), Map.class)));
                     return newResourceResponse(resourceId, null, event).asPromise();
                 }
-                line = reader.readLine();
             }
             return newResourceException(NOT_FOUND, "Resource not found with ID: " + resourceId).asPromise();
         } catch (Exception e) {
@@ -158,22 +183,31 @@ public class JsonAuditEventHandler extends AuditEventHandlerBase {
             return newResourceException(NOT_FOUND, "Topic not found: " + topic).asPromise();
         }
         final QueryFilter<JsonPointer> queryFilter = query.getQueryFilter();
+        final JsonFileIndex index = jsonFileWriter.getTopicIndex(topic);
         int results = 0;
-        String line;
-        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(
-                Files.newInputStream(jsonFilePath), StandardCharsets.UTF_8))) {
-            line = reader.readLine();
-            while (line != null) {
-                final JsonValue event = denormalizeJsonEvent(new JsonValue(OBJECT_MAPPER.readValue(line, Map.class)));
-                if (queryFilter.accept(JSONVALUE_FILTER_VISITOR, event)) {
-                    ++results;
-                    final ResourceResponse resourceResponse =
-                            newResourceResponse(event.get(FIELD_CONTENT_ID).asString(), null, event);
-                    if (!handler.handleResource(resourceResponse)) {
-                        break;
+        try (final FileChannel channel = FileChannel.open(jsonFilePath, StandardOpenOption.READ)) {
+            final long fileLength = channel.size();
+            // the index can only be trusted if the file has not been rotated while opening it
+            final List<long[]> ranges = index == jsonFileWriter.getTopicIndex(topic)
+                    ? index.getScanRanges(queryFilter, fileLength)
+                    : Collections.singletonList(new long[] { 0L, fileLength });
+            final FileLineReader reader = new FileLineReader(channel);
+            boolean handleMore = true;
+            for (int i = 0; i < ranges.size() && handleMore; ++i) {
+                reader.seek(ranges.get(i)[0], ranges.get(i)[1]);
+                while (handleMore && reader.readLine()) {
+                    if (reader.getLineLength() == 0) {
+                        continue;
+                    }
+                    final JsonValue event = denormalizeJsonEvent(new JsonValue(
+                            OBJECT_MAPPER.readValue(reader.getLine(), 0, reader.getLineLength(), Map.class)));
+                    if (queryFilter.accept(JSONVALUE_FILTER_VISITOR, event)) {
+                        ++results;
+                        final ResourceResponse resourceResponse =
+                                newResourceResponse(event.get(FIELD_CONTENT_ID).asString(), null, event);
+                        handleMore = handler.handleResource(resourceResponse);
                     }
                 }
-                line = reader.readLine();
             }
         } catch (Exception e) {
             return newResourceException(INTERNAL_ERROR, "Failed to read json file: " + jsonFilePath, e).asPromise();
@@ -0,0 +1,559 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.audit.handlers.json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.forgerock.audit.events.AuditEventBuilder.TIMESTAMP;
+import static org.forgerock.audit.handlers.json.JsonAuditEventHandler.OBJECT_MAPPER;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.forgerock.json.JsonPointer;
+import org.forgerock.util.query.QueryFilter;
+import org.forgerock.util.query.QueryFilterVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of a JSON audit file, which maps event IDs to the byte offset of the line holding each event, and keeps
+ * the range of {@code timestamp} values found in each fixed-size block of the file, so that queries on the
+ * timestamp can skip the blocks which cannot match.
+ * <p>
+ * The index is persisted to a sidecar file next to the audit file, as an append-only log of tab-separated records:
+ * <ul>
+ *     <li>{@code i <offset> <id>} an event ID and the offset of its line, the backslash, tab, carriage return
+ *     and newline characters of the ID being escaped as {@code \\}, {@code \t}, {@code \r} and {@code \n}</li>
+ *     <li>{@code b <start> <end> [<minTimestamp> <maxTimestamp>]} a completed block of the audit file</li>
+ *     <li>{@code l <length>} length of the audit file covered by the preceding records</li>
+ * </ul>
+ * When the sidecar file is missing or does not match the audit file, the index is rebuilt by reading the audit file.
+ * <p>
+ * When several events have the same ID, the index keeps the offset of the first one.
+ * <p>
+ * The index is updated by the single thread writing the audit file, and may be read concurrently by other threads.
+ */
+class JsonFileIndex implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonFileIndex.class);
+
+    /** File-name suffix of the index sidecar files. */
+    static final String INDEX_FILE_NAME_SUFFIX = "audit.idx";
+
+    /** Approximate number of bytes of the audit file covered by each timestamp block. */
+    static final int BLOCK_SIZE = 64 * 1024;
+
+    private static final JsonPointer TIMESTAMP_POINTER = new JsonPointer(TIMESTAMP);
+    private static final char SEPARATOR = '\t';
+    private static final String ID_RECORD = "i";
+    private static final String BLOCK_RECORD = "b";
+    private static final String LENGTH_RECORD = "l";
+
+    private final Path indexFilePath;
+    private final String idField;
+    private final Map<String, Long> idOffsets = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, Block> blocks = new ConcurrentSkipListMap<>();
+    private BufferedWriter indexWriter;
+
+    /** Start offset of the current, incomplete, block. Events at or after this offset must always be read. */
+    private volatile long blockStart;
+    private boolean blockEmpty = true;
+    private boolean blockBounded = true;
+    private String blockMinTimestamp;
+    private String blockMaxTimestamp;
+
+    private JsonFileIndex(final Path indexFilePath, final String idField) {
+        this.indexFilePath = indexFilePath;
+        this.idField = idField;
+    }
+
+    /**
+     * Opens the index of an existing audit file, loading it from its sidecar file and indexing any events missing
+     * from the sidecar file, or rebuilding it from the audit file when the sidecar file is missing or invalid.
+     *
+     * @param filePath Audit file path
+     * @param indexFilePath Sidecar index file path
+     * @param idField Name of the event ID field, as written in the audit file
+     * @return Index of the audit file
+     * @throws IOException failed to read the audit file or to write the sidecar file
+     */
+    static JsonFileIndex open(final Path filePath, final Path indexFilePath, final String idField)
+            throws IOException {
+        final JsonFileIndex index = new JsonFileIndex(indexFilePath, idField);
+        final long fileLength = Files.exists(filePath) ? Files.size(filePath) : 0L;
+        final boolean loaded = index.load(fileLength);
+        if (!loaded) {
+            index.idOffsets.clear();
+            index.blocks.clear();
+            index.blockStart = 0L;
+        }
+        index.indexWriter = Files.newBufferedWriter(indexFilePath, UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, loaded ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+        if (index.blockStart < fileLength) {
+            if (!loaded && logger.isInfoEnabled()) {
+                logger.info("Rebuilding JSON audit file index {}", indexFilePath);
+            }
+            index.scan(filePath, index.blockStart, fileLength);
+        }
+        index.flushed(fileLength);
+        return index;
+    }
+
+    /**
+     * Creates an empty index for a new audit file, replacing any existing sidecar file.
+     *
+     * @param indexFilePath Sidecar index file path
+     * @param idField Name of the event ID field, as written in the audit file
+     * @return Empty index
+     * @throws IOException failed to write the sidecar file
+     */
+    static JsonFileIndex create(final Path indexFilePath, final String idField) throws IOException {
+        final JsonFileIndex index = new JsonFileIndex(indexFilePath, idField);
+        index.indexWriter = Files.newBufferedWriter(indexFilePath, UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return index;
+    }
+
+    /**
+     * Loads the sidecar file, keeping only the records which are consistent with the audit file.
+     *
+     * @param fileLength Length of the audit file
+     * @return {@code true} if the sidecar file was loaded, and {@code false} if it is missing or invalid
+     */
+    private boolean load(final long fileLength) {
+        if (Files.notExists(indexFilePath)) {
+            return false;
+        }
+        final Map<String, Long> ids = new HashMap<>();
+        final Map<Long, Block> loadedBlocks = new HashMap<>();
+        long coveredLength = -1L;
+        try (final BufferedReader reader = Files.newBufferedReader(indexFilePath, UTF_8)) {
+            String record;
+            while ((record = reader.readLine()) != null) {
+                final String[] fields = record.split(String.valueOf(SEPARATOR), -1);
+                switch (fields[0]) {
+                case ID_RECORD:
+                    ids.putIfAbsent(unescape(record.substring(record.indexOf(SEPARATOR, 2) + 1)),
+                            Long.valueOf(fields[1]));
+                    break;
+                case BLOCK_RECORD:
+                    final long start = Long.parseLong(fields[1]);
+                    final long end = Long.parseLong(fields[2]);
+                    loadedBlocks.put(start, fields.length == 5
+                            ? new Block(end, fields[3], fields[4]) : new Block(end, null, null));
+                    break;
+                case LENGTH_RECORD:
+                    coveredLength = Long.parseLong(fields[1]);
+                    break;
+                default:
+                    return false;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring invalid JSON audit file index {}", indexFilePath, e);
+            return false;
+        }
+        if (coveredLength < 0 || coveredLength > fileLength) {
+            return false;
+        }
+        // the current block was incomplete when the sidecar file was written, so it will be read again
+        long end = 0L;
+        for (final Map.Entry<Long, Block> entry : loadedBlocks.entrySet()) {
+            if (entry.getValue().end <= coveredLength) {
+                blocks.put(entry.getKey(), entry.getValue());
+                end = Math.max(end, entry.getValue().end);
+            }
+        }
+        for (final Map.Entry<String, Long> entry : ids.entrySet()) {
+            if (entry.getValue() < end) {
+                idOffsets.put(entry.getKey(), entry.getValue());
+            }
+        }
+        blockStart = end;
+        return true;
+    }
+
+    /**
+     * Indexes the events found in a range of the audit file.
+     */
+    private void scan(final Path filePath, final long start, final long end) throws IOException {
+        try (final FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            final FileLineReader reader = new FileLineReader(channel);
+            reader.seek(start, end);
+            final String[] idAndTimestamp = new String[2];
+            while (reader.readLine()) {
+                if (reader.getLineLength() != 0) {
+                    readIdAndTimestamp(reader.getLine(), reader.getLineLength(), idField, idAndTimestamp);
+                    add(reader.getLineOffset(), idAndTimestamp[0], idAndTimestamp[1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the top-level event ID and {@code timestamp} string fields of a JSON event.
+     *
+     * @param line JSON event bytes
+     * @param length Number of bytes to read
+     * @param idField Name of the event ID field
+     * @param idAndTimestamp Receives the event ID (or {@code null}) at index 0, and the timestamp (or {@code null})
+     * at index 1
+     * @throws IOException the JSON event could not be parsed
+     */
+    static void readIdAndTimestamp(final byte[] line, final int length, final String idField,
+            final String[] idAndTimestamp) throws IOException {
+        idAndTimestamp[0] = null;
+        idAndTimestamp[1] = null;
+        try (final JsonParser parser = OBJECT_MAPPER.getFactory().createParser(line, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                final JsonToken token = parser.nextToken();
+                if (token == JsonToken.VALUE_STRING && name.equals(idField)) {
+                    idAndTimestamp[0] = parser.getText();
+                } else if (token == JsonToken.VALUE_STRING && name.equals(TIMESTAMP)) {
+                    idAndTimestamp[1] = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an event to the index. Events must be added in the order they are written to the audit file.
+     *
+     * @param offset Byte offset of the line holding the event
+     * @param id Event ID, or {@code null} if the event does not have an ID
+     * @param timestamp Event timestamp, or {@code null} if the event does not have a timestamp string
+     * @throws IOException failed to write the sidecar file
+     */
+    void add(final long offset, final String id, final String timestamp) throws IOException {
+        if (!blockEmpty && offset - blockStart >= BLOCK_SIZE) {
+            completeBlock(offset);
+        }
+        blockEmpty = false;
+        if (timestamp == null || !isValidRecordField(timestamp)) {
+            blockBounded = false;
+        } else if (blockBounded) {
+            if (blockMinTimestamp == null || timestamp.compareToIgnoreCase(blockMinTimestamp) < 0) {
+                blockMinTimestamp = timestamp;
+            }
+            if (blockMaxTimestamp == null || timestamp.compareToIgnoreCase(blockMaxTimestamp) > 0) {
+                blockMaxTimestamp = timestamp;
+            }
+        }
+        if (id != null && idOffsets.putIfAbsent(id, offset) == null) {
+            indexWriter.append(ID_RECORD).append(SEPARATOR).append(Long.toString(offset)).append(SEPARATOR);
+            escape(id, indexWriter);
+            indexWriter.append('\n');
+        }
+    }
+
+    private void completeBlock(final long end) throws IOException {
+        final Block block = blockBounded
+                ? new Block(end, blockMinTimestamp, blockMaxTimestamp) : new Block(end, null, null);
+        indexWriter.append(BLOCK_RECORD).append(SEPARATOR).append(Long.toString(blockStart))
+                .append(SEPARATOR).append(Long.toString(end));
+        if (block.isBounded()) {
+            indexWriter.append(SEPARATOR).append(block.minTimestamp).append(SEPARATOR).append(block.maxTimestamp);
+        }
+        indexWriter.append('\n');
+        // publish the block before moving the start of the current block past it
+        blocks.put(blockStart, block);
+        blockStart = end;
+        blockEmpty = true;
+        blockBounded = true;
+        blockMinTimestamp = null;
+        blockMaxTimestamp = null;
+    }
+
+    /**
+     * Writes an event ID to a sidecar record, escaping the characters which would split the record.
+     */
+    private static void escape(final String id, final Appendable out) throws IOException {
+        for (int i = 0; i < id.length(); i++) {
+            final char c = id.charAt(i);
+            switch (c) {
+            case '\\':
+                out.append("\\\\");
+                break;
+            case SEPARATOR:
+                out.append("\\t");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            default:
+                out.append(c);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Reads an event ID escaped by {@link #escape(String, Appendable)}.
+     */
+    private static String unescape(final String escaped) {
+        if (escaped.indexOf('\\') < 0) {
+            return escaped;
+        }
+        final StringBuilder id = new StringBuilder(escaped.length());
+        for (int i = 0; i < escaped.length(); i++) {
+            final char c = escaped.charAt(i);
+            if (c != '\\') {
+                id.append(c);
+                continue;
+            }
+            switch (escaped.charAt(++i)) {
+            case '\\':
+                id.append('\\');
+                break;
+            case 't':
+                id.append(SEPARATOR);
+                break;
+            case 'n':
+                id.append('\n');
+                break;
+            case 'r':
+                id.append('\r');
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid escape sequence in event ID: " + escaped);
+            }
+        }
+        return id.toString();
+    }
+
+    private static boolean isValidRecordField(final String value) {
+        return value.indexOf(SEPARATOR) < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0;
+    }
+
+    /**
+     * Records that all events added so far have been written to the audit file, and flushes the sidecar file.
+     *
+     * @param fileLength Length of the audit file
+     * @throws IOException failed to write the sidecar file
+     */
+    void flushed(final long fileLength) throws IOException {
+        indexWriter.append(LENGTH_RECORD).append(SEPARATOR).append(Long.toString(fileLength)).append('\n');
+        indexWriter.flush();
+    }
+
+    /**
+     * Gets the byte offset of the line holding the event with the given ID.
+     *
+     * @param id Event ID
+     * @return Byte offset, or {@code null} if the event has not been indexed
+     */
+    Long getOffset(final String id) {
+        return idOffsets.get(id);
+    }
+
+    /**
+     * Gets the ranges of the audit file which may contain events matching the given query filter, merging adjacent
+     * ranges. Only filters on the {@code /timestamp} field can be used to skip parts of the file.
+     *
+     * @param queryFilter Query filter
+     * @param fileLength Length of the audit file
+     * @return Ordered list of {@code [start, end)} byte ranges
+     */
+    List<long[]> getScanRanges(final QueryFilter<JsonPointer> queryFilter, final long fileLength) {
+        final long tailStart = Math.min(blockStart, fileLength);
+        final List<long[]> ranges = new ArrayList<>();
+        long[] current = null;
+        for (final Map.Entry<Long, Block> entry : blocks.headMap(tailStart).entrySet()) {
+            final Block block = entry.getValue();
+            if (block.isBounded() && !queryFilter.accept(BLOCK_FILTER_VISITOR, block)) {
+                continue;
+            }
+            if (current != null && current[1] == entry.getKey()) {
+                current[1] = block.end;
+            } else {
+                current = new long[] { entry.getKey(), block.end };
+                ranges.add(current);
+            }
+        }
+        if (current != null && current[1] == tailStart) {
+            current[1] = fileLength;
+        } else if (tailStart < fileLength) {
+            ranges.add(new long[] { tailStart, fileLength });
+        }
+        return ranges.isEmpty() ? Collections.<long[]>emptyList() : ranges;
+    }
+
+    /**
+     * Gets the sidecar index file path.
+     *
+     * @return Sidecar index file path
+     */
+    Path getIndexFilePath() {
+        return indexFilePath;
+    }
+
+    @Override
+    public void close() throws IOException {
+        indexWriter.close();
+    }
+
+    /**
+     * A completed block of the audit file, with the lowest and highest {@code timestamp} of its events, compared
+     * ignoring case in the same way as query filters compare strings.
+     */
+    private static final class Block {
+        private final long end;
+        private final String minTimestamp;
+        private final String maxTimestamp;
+
+        private Block(final long end, final String minTimestamp, final String maxTimestamp) {
+            this.end = end;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+        }
+
+        /**
+         * Checks whether all events in this block have a string {@code timestamp}.
+         *
+         * @return {@code true} if the timestamp range of the block is known
+         */
+        boolean isBounded() {
+            return minTimestamp != null;
+        }
+    }
+
+    /**
+     * Determines whether a bounded {@link Block} may contain events matching a query filter. Filters which do not
+     * constrain the {@code /timestamp} field always return {@code true}.
+     */
+    private static final QueryFilterVisitor<Boolean, Block, JsonPointer> BLOCK_FILTER_VISITOR =
+            new QueryFilterVisitor<Boolean, Block, JsonPointer>() {
+
+                @Override
+                public Boolean visitAndFilter(final Block block, final List<QueryFilter<JsonPointer>> subFilters) {
+                    for (final QueryFilter<JsonPointer> subFilter : subFilters) {
+                        if (!subFilter.accept(this, block)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+
+                @Override
+                public Boolean visitOrFilter(final Block block, final List<QueryFilter<JsonPointer>> subFilters) {
+                    for (final QueryFilter<JsonPointer> subFilter : subFilters) {
+                        if (subFilter.accept(this, block)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+
+                @Override
+                public Boolean visitBooleanLiteralFilter(final Block block, final boolean value) {
+                    return value;
+                }
+
+                @Override
+                public Boolean visitEqualsFilter(final Block block, final JsonPointer field,
+                        final Object valueAssertion) {
+                    return !isTimestampBound(field, valueAssertion)
+                            || (block.minTimestamp.compareToIgnoreCase((String) valueAssertion) <= 0
+                                && block.maxTimestamp.compareToIgnoreCase((String) valueAssertion) >= 0);
+                }
+
+                @Override
+                public Boolean visitGreaterThanFilter(final Block block, final JsonPointer field,
+                        final Object valueAssertion) {
+                    return !isTimestampBound(field, valueAssertion)
+                            || block.maxTimestamp.compareToIgnoreCase((String) valueAssertion) > 0;
+                }
+
+                @Override
+                public Boolean visitGreaterThanOrEqualToFilter(final Block block, final JsonPointer field,
+                        final Object valueAssertion) {
+                    return !isTimestampBound(field, valueAssertion)
+                            || block.maxTimestamp.compareToIgnoreCase((String) valueAssertion) >= 0;
+                }
+
+                @Override
+                public Boolean visitLessThanFilter(final Block block, final JsonPointer field,
+                        final Object valueAssertion) {
+                    return !isTimestampBound(field, valueAssertion)
+                            || block.minTimestamp.compareToIgnoreCase((String) valueAssertion) < 0;
+                }
+
+                @Override
+                public Boolean visitLessThanOrEqualToFilter(final Block block, final JsonPointer field,
+                        final Object valueAssertion) {
+                    return !isTimestampBound(field, valueAssertion)
+                            || block.minTimestamp.compareToIgnoreCase((String) valueAssertion) <= 0;
+                }
+
+                @Override
+                public Boolean visitContainsFilter(final Block block, final JsonPointer field,
+                        final Object valueAssertion) {
+                    return true;
+                }
+
+                @Override
+                public Boolean visitExtendedMatchFilter(final Block block, final JsonPointer field,
+                        final String operator, final Object valueAssertion) {
+                    return true;
+                }
+
+                @Override
+                public Boolean visitNotFilter(final Block block, final QueryFilter<JsonPointer> subFilter) {
+                    return true;
+                }
+
+                @Override
+                public Boolean visitPresentFilter(final Block block, final JsonPointer field) {
+                    return true;
+                }
+
+                @Override
+                public Boolean visitStartsWithFilter(final Block block, final JsonPointer field,
+                        final Object valueAssertion) {
+                    return true;
+                }
+
+                private boolean isTimestampBound(final JsonPointer field, final Object valueAssertion) {
+                    return valueAssertion instanceof String && TIMESTAMP_POINTER.equals(field);
+                }
+            };
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.audit.handlers.json;
@@ -19,6 +20,7 @@ package org.forgerock.audit.handlers.json;
 import static java.lang.Math.max;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.forgerock.audit.batch.CommonAuditBatchConfiguration.POLLING_INTERVAL;
+import static org.forgerock.audit.events.AuditEventBuilder.TIMESTAMP;
 import static org.forgerock.audit.handlers.json.JsonAuditEventHandler.OBJECT_MAPPER;
 import static org.forgerock.audit.handlers.json.JsonAuditEventHandler.EVENT_ID_FIELD;
 import static org.forgerock.audit.util.ElasticsearchUtil.normalizeJson;
@@ -43,12 +45,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+import org.forgerock.audit.events.handlers.buffering.OverflowPolicy;
+import org.forgerock.audit.events.handlers.buffering.RingBuffer;
 import org.forgerock.audit.retention.FileNamingPolicy;
 import org.forgerock.audit.retention.RetentionPolicy;
 import org.forgerock.audit.rotation.RotatableObject;
@@ -74,7 +76,7 @@ class JsonFileWriter {
     static final String LOG_FILE_NAME_SUFFIX = "audit.json";
 
     private final boolean elasticsearchCompatible;
-    private final BlockingQueue<QueueEntry> queue;
+    private final RingBuffer<QueueEntry> queue;
     private final ScheduledExecutorService scheduler;
     private final QueueConsumer queueConsumer;
     private final Duration writeInterval;
@@ -91,7 +93,10 @@ class JsonFileWriter {
     JsonFileWriter(final Set<String> topics, final JsonAuditEventHandlerConfiguration configuration,
             final boolean autoFlush) {
         elasticsearchCompatible = configuration.isElasticsearchCompatible();
-        queue = new ArrayBlockingQueue<>(max(configuration.getBuffering().getMaxSize(), MIN_QUEUE_SIZE));
+        queue = RingBuffer.<QueueEntry>newBuilder(configuration.getName())
+                .capacity(max(configuration.getBuffering().getMaxSize(), MIN_QUEUE_SIZE))
+                .overflowPolicy(OverflowPolicy.BLOCK)
+                .build();
         scheduler = Executors.newScheduledThreadPool(1, Utils.newThreadFactory(null, "audit-json-%d", false));
         writeInterval = parseWriteInterval(configuration);
         // checking for events to write on disk happens at most once a second, since {@code run()}
@@ -141,22 +146,55 @@ class JsonFileWriter {
      * @throws IOException failed to serialize JSON
      */
     void put(final String topic, final JsonValue event) throws InterruptedException, IOException {
+        final JsonValue id = event.get(FIELD_CONTENT_ID);
+        final JsonValue timestamp = event.get(TIMESTAMP);
+        final String idString = id != null && id.isString() ? id.asString() : null;
+        final String timestampString = timestamp != null && timestamp.isString() ? timestamp.asString() : null;
         if (elasticsearchCompatible) {
             // rename _id field to be _eventId, because _id is reserved by ElasticSearch
             renameField(event, FIELD_CONTENT_ID, EVENT_ID_FIELD);
             try {
                 // apply ElasticSearch JSON normalization, if necessary
                 final byte[] bytes = normalizeJson(event).getBytes(UTF_8);
-                queue.put(new QueueEntry(topic, bytes));
+                put(new QueueEntry(topic, bytes, idString, timestampString));
             } finally {
                 // restore _id field, because original event is same instance as normalizedEvent
                 renameField(event, EVENT_ID_FIELD, FIELD_CONTENT_ID);
             }
         } else {
-            queue.put(new QueueEntry(topic, OBJECT_MAPPER.writeValueAsBytes(event.getObject())));
+            put(new QueueEntry(topic, OBJECT_MAPPER.writeValueAsBytes(event.getObject()), idString,
+                    timestampString));
         }
     }
 
+    /**
+     * Inserts the specified entry at the tail of this queue, and blocks if this queue is full. The entry is dropped
+     * if the writer is shut down while blocking.
+     */
+    private void put(final QueueEntry entry) throws InterruptedException {
+        if (!queue.offer(entry) && Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    /**
+     * Returns the number of events waiting to be written.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of events dropped because the writer was shut down.
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        return queue.getDroppedCount();
+    }
+
     /**
      * Requests an unscheduled rotation of the underlying JSON audit file.
      * <p>
@@ -169,7 +207,7 @@ class JsonFileWriter {
      */
     boolean rotateFile(final String topic) throws InterruptedException {
         if (queueConsumer.isRotationEnabled()) {
-            queue.put(new QueueEntry(topic, QueueEntry.ROTATE_FILE_ENTRY));
+            put(new QueueEntry(topic, QueueEntry.ROTATE_FILE_ENTRY));
             return true;
         }
         return false;
@@ -184,7 +222,7 @@ class JsonFileWriter {
      * @throws InterruptedException thread interrupted while blocking on a full queue
      */
     void flushFileBuffer(final String topic) throws InterruptedException {
-        queue.put(new QueueEntry(topic, QueueEntry.FLUSH_FILE_ENTRY));
+        put(new QueueEntry(topic, QueueEntry.FLUSH_FILE_ENTRY));
     }
 
     /**
@@ -198,6 +236,18 @@ class JsonFileWriter {
         return topicEntry == null ? null : topicEntry.filePath;
     }
 
+    /**
+     * Gets the index of the current log-file for the given topic. A new index is created each time the log-file is
+     * rotated, so callers should check that the index has not changed after opening the log-file.
+     *
+     * @param topic Topic name (case-sensitive)
+     * @return {@link JsonFileIndex} or {@code null} if topic is unrecognised
+     */
+    JsonFileIndex getTopicIndex(final String topic) {
+        final QueueConsumer.TopicEntry topicEntry = queueConsumer.topicEntryMap.get(topic);
+        return topicEntry == null ? null : topicEntry.index;
+    }
+
     /**
      * A single audit-event entry.
      */
@@ -208,6 +258,8 @@ class JsonFileWriter {
 
         private final String topic;
         private final byte[] event;
+        private final String id;
+        private final String timestamp;
 
         /**
          * Creates a new audit-event batch entry.
@@ -216,8 +268,22 @@ class JsonFileWriter {
          * @param event Event JSON payload
          */
         QueueEntry(final String topic, final byte[] event) {
+            this(topic, event, null, null);
+        }
+
+        /**
+         * Creates a new audit-event batch entry.
+         *
+         * @param topic Event topic
+         * @param event Event JSON payload
+         * @param id Event ID, or {@code null}
+         * @param timestamp Event timestamp, or {@code null}
+         */
+        QueueEntry(final String topic, final byte[] event, final String id, final String timestamp) {
             this.topic = checkNotNull(topic);
             this.event = checkNotNull(event);
+            this.id = id;
+            this.timestamp = timestamp;
         }
 
         boolean isRotateEntry() {
@@ -245,7 +311,7 @@ class JsonFileWriter {
         private final List<RotationPolicy> rotationPolicies;
         private final List<RetentionPolicy> retentionPolicies;
         private final Set<File> filesToDelete;
-        private final BlockingQueue<QueueEntry> queue;
+        private final RingBuffer<QueueEntry> queue;
         private final ScheduledExecutorService scheduler;
         private final Map<String, TopicEntry> topicEntryMap;
         private final List<QueueEntry> drainList;
@@ -267,7 +333,7 @@ class JsonFileWriter {
          */
         private QueueConsumer(final String fileNameSuffix, final Set<String> topics,
                 final JsonAuditEventHandlerConfiguration configuration, final boolean flushOnShutdown,
-                final BlockingQueue<QueueEntry> queue, final ScheduledExecutorService scheduler,
+                final RingBuffer<QueueEntry> queue, final ScheduledExecutorService scheduler,
                 final int iterationsBeforeFlush) {
             this.queue = queue;
             this.scheduler = scheduler;
@@ -285,7 +351,8 @@ class JsonFileWriter {
             final Map<String, TopicEntry> topicEntryMap = new HashMap<>();
             for (final String topic : topics) {
                 final String fileName = topic + '.' + fileNameSuffix;
-                topicEntryMap.put(topic, new TopicEntry(fileName, configuration));
+                final String indexFileName = topic + '.' + JsonFileIndex.INDEX_FILE_NAME_SUFFIX;
+                topicEntryMap.put(topic, new TopicEntry(fileName, indexFileName, configuration));
             }
             this.topicEntryMap = Collections.unmodifiableMap(topicEntryMap);
         }
@@ -337,6 +404,7 @@ class JsonFileWriter {
                         }
                     }
                 } finally {
+                    queue.close();
                     closeSilently(topicEntryMap.values());
                 }
             }
@@ -358,7 +426,7 @@ class JsonFileWriter {
                         } else if (entry.isFlushEntry()) {
                             topicEntry.flush();
                         } else {
-                            topicEntry.write(entry.event);
+                            topicEntry.write(entry);
                         }
                     }
                 }
@@ -398,14 +466,18 @@ class JsonFileWriter {
             private static final int FILE_BUFFER_THRESHOLD = 8 * 1024;
 
             private final Path filePath;
+            private final Path indexFilePath;
+            private final String idField;
             private final FileNamingPolicy fileNamingPolicy;
             private final ByteBufferOutputStream outputStream;
             private DateTime lastRotationTime;
             private FileChannel fileChannel;
             private long positionInFile;
             private int iterationsWithoutEventsCounter;
+            private volatile JsonFileIndex index;
 
-            TopicEntry(final String fileName, final JsonAuditEventHandlerConfiguration configuration) {
+            TopicEntry(final String fileName, final String indexFileName,
+                    final JsonAuditEventHandlerConfiguration configuration) {
                 try {
                     outputStream = new ByteBufferOutputStream(ByteBuffer.allocateDirect(OUTPUT_BUF_INITIAL_SIZE));
 
@@ -414,7 +486,10 @@ class JsonFileWriter {
                         Files.createDirectory(directoryPath);
                     }
                     filePath = directoryPath.resolve(fileName);
+                    indexFilePath = directoryPath.resolve(indexFileName);
+                    idField = configuration.isElasticsearchCompatible() ? EVENT_ID_FIELD : FIELD_CONTENT_ID;
                     openFileChannel();
+                    index = JsonFileIndex.open(filePath, indexFilePath, idField);
 
                     final File currentFile = filePath.toFile();
                     fileNamingPolicy = configuration.getFileRotation().buildTimeStampFileNamingPolicy(currentFile);
@@ -428,44 +503,48 @@ class JsonFileWriter {
                 }
             }
 
-            void write(final byte[] bytes) throws IOException {
+            void write(final QueueEntry entry) throws IOException {
+                // index the event at the offset it will have once the buffer is written to file
+                index.add(positionInFile + outputStream.byteBuffer().position(), entry.id, entry.timestamp);
                 // newline delimited JSON with UTF-8 character encoding
-                outputStream.write(bytes);
+                outputStream.write(entry.event);
                 outputStream.write(NEWLINE_UTF_8_BYTES);
                 if (outputStream.byteBuffer().position() >= FILE_BUFFER_THRESHOLD) {
-                    outputStream.byteBuffer().flip();
-                    try {
-                        if (Files.notExists(filePath)) {
-                            openFileChannel();
-                        }
-                        // write buffer to file
-                        positionInFile += fileChannel.write(outputStream.byteBuffer(), positionInFile);
-                    } finally {
-                        outputStream.clear();
-                    }
+                    writeBuffer();
                 }
                 iterationsWithoutEventsCounter = 0;
             }
 
             void flush() {
                 if (outputStream.byteBuffer().position() != 0) {
-                    // write buffer to file
-                    outputStream.byteBuffer().flip();
                     try {
-                        if (Files.notExists(filePath)) {
-                            openFileChannel();
-                        }
-                        // write buffer to file
-                        positionInFile += fileChannel.write(outputStream.byteBuffer(), positionInFile);
+                        writeBuffer();
                     } catch (IOException e) {
                         logger.error("Failed to flush file buffer", e);
-                    } finally {
-                        outputStream.clear();
                     }
                 }
                 iterationsWithoutEventsCounter = 0;
             }
 
+            private void writeBuffer() throws IOException {
+                outputStream.byteBuffer().flip();
+                try {
+                    if (Files.notExists(filePath)) {
+                        // file was removed, so the buffered events will start a new file with a new index
+                        openFileChannel();
+                        positionInFile += fileChannel.write(outputStream.byteBuffer(), positionInFile);
+                        closeSilently(index);
+                        index = JsonFileIndex.open(filePath, indexFilePath, idField);
+                    } else {
+                        // write buffer to file
+                        positionInFile += fileChannel.write(outputStream.byteBuffer(), positionInFile);
+                        index.flushed(positionInFile);
+                    }
+                } finally {
+                    outputStream.clear();
+                }
+            }
+
             @Override
             public long getBytesWritten() {
                 return positionInFile;
@@ -507,6 +586,12 @@ class JsonFileWriter {
              * @throws IOException error rotating file
              */
             void rotateNow() throws IOException {
+                // buffered events belong to the current file, as they have been indexed against it
+                flush();
+                // switch to the index of the new file before the current file is renamed, so that readers opening
+                // the new file never see the index of the archived file
+                closeSilently(index);
+                index = JsonFileIndex.create(indexFilePath, idField);
                 // close and rename current file
                 fileChannel.close();
                 final Path archivedFilePath = fileNamingPolicy.getNextName().toPath();
@@ -523,7 +608,11 @@ class JsonFileWriter {
 
             @Override
             public void close() throws IOException {
-                fileChannel.close();
+                try {
+                    fileChannel.close();
+                } finally {
+                    index.close();
+                }
             }
 
             @Override
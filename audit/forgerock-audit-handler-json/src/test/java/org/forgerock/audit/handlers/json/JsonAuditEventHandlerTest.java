@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.audit.handlers.json;
@@ -34,6 +35,7 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.forgerock.audit.events.EventTopicsMetaData;
@@ -43,6 +45,7 @@ import org.forgerock.json.resource.ActionRequest;
 import org.forgerock.json.resource.IdentifierQueryResourceHandler;
 import org.forgerock.json.resource.QueryFilters;
 import org.forgerock.json.resource.QueryRequest;
+import org.forgerock.json.resource.QueryResourceHandler;
 import org.forgerock.json.resource.QueryResponse;
 import org.forgerock.json.resource.Requests;
 import org.forgerock.json.resource.ResourceException;
@@ -92,6 +95,80 @@ public class JsonAuditEventHandlerTest {
         }
     }
 
+    @Test
+    public void testReadEventsAfterIndexRebuild() throws Exception {
+        final Path logDirectoryPath = Files.createTempDirectory(JsonAuditEventHandlerTest.class.getSimpleName());
+        AuditEventHandler handler = null;
+        try {
+            final JsonAuditEventHandlerConfiguration configuration = buildConfiguration(SMALL_EVENT_COUNT,
+                    logDirectoryPath);
+            handler = new JsonAuditEventHandler(configuration, getEventTopicsMetaData("/events.json"));
+            handler.startup();
+            final String[] identifiers = generateAndPublishEvents(SMALL_EVENT_COUNT, handler);
+            Thread.sleep(SLEEP_MILLIS);
+            handler.shutdown();
+
+            // remove the index, so that it gets rebuilt from the audit file on startup
+            final Path indexFilePath = logDirectoryPath.resolve(ACCESS + '.' + JsonFileIndex.INDEX_FILE_NAME_SUFFIX);
+            assertThat(Files.exists(indexFilePath)).isTrue();
+            Files.delete(indexFilePath);
+
+            handler = new JsonAuditEventHandler(configuration, getEventTopicsMetaData("/events.json"));
+            handler.startup();
+            assertThat(Files.exists(indexFilePath)).isTrue();
+            for (final String resourceId : identifiers) {
+                final Promise<ResourceResponse, ResourceException> response = handler.readEvent(null, ACCESS,
+                        resourceId);
+                assertThat(response.getOrThrow().getId()).isEqualTo(resourceId);
+            }
+        } finally {
+            try {
+                if (handler != null) {
+                    handler.shutdown();
+                }
+            } finally {
+                deleteRecursively(logDirectoryPath);
+            }
+        }
+    }
+
+    @Test
+    public void testQueryEventsByTimestampRange() throws Exception {
+        final Path logDirectoryPath = Files.createTempDirectory(JsonAuditEventHandlerTest.class.getSimpleName());
+        AuditEventHandler handler = null;
+        try {
+            final JsonAuditEventHandlerConfiguration configuration = buildConfiguration(LARGE_EVENT_COUNT,
+                    logDirectoryPath);
+            handler = new JsonAuditEventHandler(configuration, getEventTopicsMetaData("/events.json"));
+            handler.startup();
+            generateAndPublishEvents(LARGE_EVENT_COUNT, handler);
+            Thread.sleep(SLEEP_MILLIS);
+
+            final AtomicInteger count = new AtomicInteger();
+            final QueryRequest queryRequest = Requests.newQueryRequest(ACCESS).setQueryFilter(QueryFilters.parse(
+                    "/timestamp ge \"0000020000\" and /timestamp lt \"0000020100\""));
+            final QueryResponse queryResponse = handler.queryEvents(null, ACCESS, queryRequest,
+                    new QueryResourceHandler() {
+                        @Override
+                        public boolean handleResource(final ResourceResponse resource) {
+                            count.incrementAndGet();
+                            return true;
+                        }
+                    }).getOrThrow();
+
+            assertThat(queryResponse.getTotalPagedResults()).isEqualTo(100);
+            assertThat(count.get()).isEqualTo(100);
+        } finally {
+            try {
+                if (handler != null) {
+                    handler.shutdown();
+                }
+            } finally {
+                deleteRecursively(logDirectoryPath);
+            }
+        }
+    }
+
     @Test
     public void testWriteAndQueryEvents() throws Exception {
         // perform a normal query test
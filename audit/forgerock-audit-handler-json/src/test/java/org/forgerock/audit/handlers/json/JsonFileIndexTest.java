@@ -0,0 +1,112 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.audit.handlers.json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.audit.handlers.json.JsonAuditEventHandler.OBJECT_MAPPER;
+import static org.forgerock.util.test.FileUtils.deleteRecursively;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class JsonFileIndexTest {
+
+    private static final String ID_FIELD = "_id";
+    private static final String[] SPECIAL_IDS = { "tab\tid", "newline\nid", "return\rid", "backslash\\tid", "\\" };
+
+    private Path directory;
+    private Path filePath;
+    private Path indexFilePath;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory(JsonFileIndexTest.class.getSimpleName());
+        filePath = directory.resolve("access.audit.json");
+        indexFilePath = directory.resolve("access." + JsonFileIndex.INDEX_FILE_NAME_SUFFIX);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        deleteRecursively(directory);
+    }
+
+    @Test
+    public void shouldLoadIdsWithSeparatorsFromSidecarFile() throws Exception {
+        final Map<String, Long> offsets = writeEvents("dup");
+
+        try (JsonFileIndex index = JsonFileIndex.open(filePath, indexFilePath, ID_FIELD)) {
+            for (final String id : SPECIAL_IDS) {
+                assertThat(index.getOffset(id)).isEqualTo(offsets.get(id));
+            }
+            assertThat(index.getOffset("event-1999")).isEqualTo(offsets.get("event-1999"));
+        }
+    }
+
+    @Test
+    public void shouldKeepFirstOffsetOfDuplicateIds() throws Exception {
+        final Map<String, Long> offsets = writeEvents("dup");
+
+        try (JsonFileIndex index = JsonFileIndex.open(filePath, indexFilePath, ID_FIELD)) {
+            assertThat(index.getOffset("dup")).isEqualTo(offsets.get("dup"));
+        }
+        Files.delete(indexFilePath);
+        try (JsonFileIndex index = JsonFileIndex.open(filePath, indexFilePath, ID_FIELD)) {
+            assertThat(index.getOffset("dup")).isEqualTo(offsets.get("dup"));
+        }
+    }
+
+    /**
+     * Writes enough events to complete several index blocks, with the special IDs at the start of the file, and
+     * the duplicate ID both at the start and at the end, then returns the offset of the first event of each ID.
+     */
+    private Map<String, Long> writeEvents(final String duplicateId) throws Exception {
+        final Map<String, Long> offsets = new LinkedHashMap<>();
+        final StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            padding.append('x');
+        }
+        long offset = 0L;
+        try (OutputStream out = Files.newOutputStream(filePath);
+             JsonFileIndex index = JsonFileIndex.create(indexFilePath, ID_FIELD)) {
+            for (int i = -SPECIAL_IDS.length - 1; i < 2_001; i++) {
+                final String id = i < -1 ? SPECIAL_IDS[i + SPECIAL_IDS.length + 1]
+                        : i == -1 || i == 2_000 ? duplicateId : "event-" + i;
+                final Map<String, Object> event = new LinkedHashMap<>();
+                event.put(ID_FIELD, id);
+                event.put("timestamp", String.format("%010d", i + 100));
+                event.put("padding", padding.toString());
+                final byte[] line = (OBJECT_MAPPER.writeValueAsString(event) + '\n').getBytes(UTF_8);
+                out.write(line);
+                index.add(offset, id, (String) event.get("timestamp"));
+                if (!offsets.containsKey(id)) {
+                    offsets.put(id, offset);
+                }
+                offset += line.length;
+            }
+            index.flushed(offset);
+        }
+        return offsets;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.audit.handlers.splunk;
 
@@ -28,22 +29,28 @@ import java.util.UUID;
 import org.forgerock.audit.Audit;
 import org.forgerock.audit.events.EventTopicsMetaData;
 import org.forgerock.audit.events.handlers.AuditEventHandlerBase;
-import org.forgerock.audit.events.handlers.buffering.BatchConsumer;
 import org.forgerock.audit.events.handlers.buffering.BatchException;
+import org.forgerock.audit.events.handlers.buffering.BatchPayload;
 import org.forgerock.audit.events.handlers.buffering.BatchPublisher;
 import org.forgerock.audit.events.handlers.buffering.BatchPublisherFactory;
 import org.forgerock.audit.events.handlers.buffering.BatchPublisherFactoryImpl;
+import org.forgerock.audit.events.handlers.buffering.BufferedBatchPublisher;
+import org.forgerock.audit.events.handlers.buffering.StreamingBatchConsumer;
 import org.forgerock.audit.handlers.splunk.SplunkAuditEventHandlerConfiguration.BufferingConfiguration;
 import org.forgerock.audit.handlers.splunk.SplunkAuditEventHandlerConfiguration.ConnectionConfiguration;
 import org.forgerock.http.Client;
 import org.forgerock.http.HttpApplicationException;
 import org.forgerock.http.apache.async.AsyncHttpClientProvider;
 import org.forgerock.http.handler.HttpClientHandler;
+import org.forgerock.http.header.ContentEncodingHeader;
+import org.forgerock.http.header.ContentLengthHeader;
 import org.forgerock.http.header.ContentTypeHeader;
+import org.forgerock.http.io.IO;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Responses;
 import org.forgerock.http.spi.Loader;
+import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.resource.NotSupportedException;
 import org.forgerock.json.resource.QueryRequest;
@@ -58,13 +65,16 @@ import org.forgerock.util.Options;
 import org.forgerock.util.promise.Promise;
 import org.forgerock.util.time.Duration;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 /**
  * Audit event handler that writes out to Splunk's HTTP event collector RAW endpoint.
  */
-public final class SplunkAuditEventHandler extends AuditEventHandlerBase implements BatchConsumer {
+public final class SplunkAuditEventHandler extends AuditEventHandlerBase implements StreamingBatchConsumer {
 
     /*
      * Value is used to initialize the size of buffers, but if the value
@@ -83,6 +93,12 @@ public final class SplunkAuditEventHandler extends AuditEventHandlerBase impleme
      * as this is considered to produce more reliable json.
      */
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectWriter BATCH_EVENT_WRITER =
+            OBJECT_MAPPER.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private static final String TOPIC = "_topic";
+    /** Frozen events may be shared with other handlers, so the topic is added to a copy of them. */
+    private static final JsonPointer TOPIC_POINTER = JsonPointer.valueOf(TOPIC);
 
     private final SplunkAuditEventHandlerConfiguration configuration;
     private final Client client;
@@ -133,11 +149,13 @@ public final class SplunkAuditEventHandler extends AuditEventHandlerBase impleme
             publisherFactory = new BatchPublisherFactoryImpl();
         }
         batchPublisher = publisherFactory.newBufferedPublisher(this)
+                .name(getName())
                 .capacity(bufferingConfiguration.getMaxSize())
                 .writeInterval(writeInterval)
                 .maxBatchEvents(bufferingConfiguration.getMaxBatchedEvents())
                 .averagePerEventPayloadSize(BATCH_INDEX_AVERAGE_PER_EVENT_PAYLOAD_SIZE)
                 .autoFlush(ALWAYS_FLUSH_BATCH_QUEUE)
+                .compressBatches(bufferingConfiguration.isCompressBatches())
                 .build();
     }
 
@@ -159,6 +177,28 @@ public final class SplunkAuditEventHandler extends AuditEventHandlerBase impleme
         }
     }
 
+    /**
+     * Returns the number of events buffered and waiting to be sent to Splunk.
+     *
+     * @return the queue depth, or {@code 0} if the publisher is not a {@link BufferedBatchPublisher}
+     */
+    public int getQueueDepth() {
+        return batchPublisher instanceof BufferedBatchPublisher
+                ? ((BufferedBatchPublisher) batchPublisher).getQueueDepth()
+                : 0;
+    }
+
+    /**
+     * Returns the number of buffered events dropped because the buffer was full.
+     *
+     * @return the number of dropped events, or {@code 0} if the publisher is not a {@link BufferedBatchPublisher}
+     */
+    public long getDroppedCount() {
+        return batchPublisher instanceof BufferedBatchPublisher
+                ? ((BufferedBatchPublisher) batchPublisher).getDroppedCount()
+                : 0;
+    }
+
     @Override
     public Promise<ResourceResponse, ResourceException> publishEvent(final Context context,
             final String topic, final JsonValue event) {
@@ -189,34 +229,78 @@ public final class SplunkAuditEventHandler extends AuditEventHandlerBase impleme
     @Override
     public void addToBatch(final String topic, final JsonValue event,
             final StringBuilder payload) throws BatchException {
-        event.put("_topic", topic);
+        final boolean frozen = event.isFrozen();
+        final JsonValue batchEvent = frozen ? event.with(TOPIC_POINTER, topic) : event.put(TOPIC, topic);
 
         try {
-            final String eventJsonString = OBJECT_MAPPER.writeValueAsString(event.getObject());
+            final String eventJsonString = OBJECT_MAPPER.writeValueAsString(batchEvent.getObject());
             payload.append(eventJsonString).append('\n');
         } catch (final JsonProcessingException e) {
             throw new BatchException("Unable to parse event object to JSON", e);
         } finally {
-            event.remove("_topic");
+            if (!frozen) {
+                event.remove(TOPIC);
+            }
+        }
+    }
+
+    @Override
+    public void addToBatch(final String topic, final JsonValue event, final JsonGenerator payload)
+            throws BatchException {
+        final boolean frozen = event.isFrozen();
+        final JsonValue batchEvent = frozen ? event.with(TOPIC_POINTER, topic) : event.put(TOPIC, topic);
+
+        try {
+            BATCH_EVENT_WRITER.writeValue(payload, batchEvent.getObject());
+            payload.writeRaw('\n');
+        } catch (final IOException e) {
+            throw new BatchException("Unable to parse event object to JSON", e);
+        } finally {
+            if (!frozen) {
+                event.remove(TOPIC);
+            }
         }
     }
 
     @Override
     public Promise<Void, BatchException> publishBatch(final String payload) {
-        final Request request = new Request();
-        request.setMethod("POST");
+        final Request request;
+        try {
+            request = newBatchRequest();
+        } catch (URISyntaxException e) {
+            return newExceptionPromise(new BatchException("Incorrect URI " + serviceUrl, e));
+        }
+        request.setEntity(payload);
+        return sendBatch(request);
+    }
 
+    @Override
+    public Promise<Void, BatchException> publishBatch(final BatchPayload payload) {
+        final Request request;
         try {
-            request.setUri(serviceUrl);
+            request = newBatchRequest();
         } catch (URISyntaxException e) {
             return newExceptionPromise(new BatchException("Incorrect URI " + serviceUrl, e));
         }
+        if (payload.isCompressed()) {
+            request.getHeaders().put(ContentEncodingHeader.NAME, "gzip");
+        }
+        request.getHeaders().put(ContentLengthHeader.NAME, payload.getLength());
+        request.setEntity(IO.newBranchingInputStream(payload.getBytes(), 0, payload.getLength()));
+        return sendBatch(request);
+    }
 
+    private Request newBatchRequest() throws URISyntaxException {
+        final Request request = new Request();
+        request.setMethod("POST");
+        request.setUri(serviceUrl);
         request.getHeaders().put(ContentTypeHeader.NAME, "application/json; charset=UTF-8");
         request.getHeaders().put("Authorization", "Splunk " + configuration.getAuthzToken());
         request.getHeaders().put("X-Splunk-Request-Channel", channelId);
-        request.setEntity(payload);
+        return request;
+    }
 
+    private Promise<Void, BatchException> sendBatch(final Request request) {
         return client.send(request).then(
                 closeSilently(new Function<Response, Void, BatchException>() {
 
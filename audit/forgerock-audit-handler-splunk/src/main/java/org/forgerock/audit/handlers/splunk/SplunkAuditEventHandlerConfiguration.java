@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.audit.handlers.splunk;
 
@@ -188,6 +189,9 @@ public final class SplunkAuditEventHandlerConfiguration extends EventHandlerConf
         @JsonPropertyDescription("audit.handlers.splunk.buffering.maxBatchedEvents")
         private int maxBatchedEvents;
 
+        @JsonPropertyDescription("audit.handlers.splunk.buffering.compressBatches")
+        private boolean compressBatches;
+
         /**
          * Gets the buffer capacity, which are the maximum number of events that can be buffered.
          *
@@ -244,6 +248,25 @@ public final class SplunkAuditEventHandlerConfiguration extends EventHandlerConf
         public void setMaxBatchedEvents(final int maxBatchedEvents) {
             this.maxBatchedEvents = maxBatchedEvents;
         }
+
+        /**
+         * Indicates if batches are gzip compressed before being sent to Splunk.
+         *
+         * @return {@code true} if batches are compressed.
+         */
+        public boolean isCompressBatches() {
+            return compressBatches;
+        }
+
+        /**
+         * Sets whether batches are gzip compressed before being sent to Splunk.
+         *
+         * @param compressBatches
+         *         {@code true} if batches are compressed.
+         */
+        public void setCompressBatches(final boolean compressBatches) {
+            this.compressBatches = compressBatches;
+        }
     }
 
 }
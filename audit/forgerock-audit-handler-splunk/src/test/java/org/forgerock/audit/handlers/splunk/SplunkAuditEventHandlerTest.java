@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 
 package org.forgerock.audit.handlers.splunk;
@@ -28,6 +28,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.concurrent.TimeUnit;
@@ -59,6 +60,9 @@ import org.mockito.ArgumentCaptor;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
 /**
  * Unit test to exercise the {@link SplunkAuditEventHandler}.
  */
@@ -92,11 +96,13 @@ public final class SplunkAuditEventHandlerTest {
         EventTopicsMetaData topicsMetaData = new EventTopicsMetaData(Collections.<String, JsonValue>emptyMap());
 
         publisherBuilder = mock(BufferedBatchPublisher.Builder.class);
+        when(publisherBuilder.name("test")).thenReturn(publisherBuilder);
         when(publisherBuilder.capacity(1024)).thenReturn(publisherBuilder);
         when(publisherBuilder.writeInterval(duration(500, TimeUnit.MILLISECONDS))).thenReturn(publisherBuilder);
         when(publisherBuilder.maxBatchEvents(5)).thenReturn(publisherBuilder);
         when(publisherBuilder.averagePerEventPayloadSize(1280)).thenReturn(publisherBuilder);
         when(publisherBuilder.autoFlush(true)).thenReturn(publisherBuilder);
+        when(publisherBuilder.compressBatches(false)).thenReturn(publisherBuilder);
         publisher = mock(BatchPublisher.class);
         when(publisherBuilder.build()).thenReturn(publisher);
 
@@ -171,6 +177,25 @@ public final class SplunkAuditEventHandlerTest {
                 .containsPattern("^previousEvents\n.*\"_id\"\\s*:\\s*\"123\".*\"_topic\"\\s*:\\s*\"access\".*$");
     }
 
+    @Test
+    public void eventsSuccessfullyStreamedIntoBatch() throws Exception {
+        // Given
+        JsonValue event = json(object(field("_id", "123")));
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+
+        // When
+        try (JsonGenerator generator = new JsonFactory().createGenerator(payload)) {
+            generator.setRootValueSeparator(null);
+            splunkHandler.addToBatch("access", event, generator);
+            splunkHandler.addToBatch("activity", event, generator);
+        }
+
+        // Then
+        assertThat(payload.toString("UTF-8"))
+                .isEqualTo("{\"_id\":\"123\",\"_topic\":\"access\"}\n{\"_id\":\"123\",\"_topic\":\"activity\"}\n");
+        assertThat(event.isDefined("_topic")).isFalse();
+    }
+
     @Test
     public void batchPayloadSuccessfullyPostedToEndpoint() throws IOException, BatchException {
         // Given
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.jaspi.modules.session.jwt;
@@ -22,7 +23,6 @@ import static org.forgerock.caf.authentication.framework.AuthenticationFramework
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.security.Key;
-import java.security.KeyStore;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
@@ -52,8 +52,7 @@ import org.forgerock.json.jose.jws.handlers.HmacSigningHandler;
 import org.forgerock.json.jose.jws.handlers.SigningHandler;
 import org.forgerock.json.jose.jwt.Jwt;
 import org.forgerock.json.jose.jwt.JwtClaimsSet;
-import org.forgerock.security.keystore.KeyStoreBuilder;
-import org.forgerock.security.keystore.KeyStoreManager;
+import org.forgerock.security.keystore.KeyStoreCache;
 import org.forgerock.security.keystore.KeyStoreType;
 import org.forgerock.util.Utils;
 import org.forgerock.util.encode.Base64;
@@ -109,6 +108,8 @@ abstract class AbstractJwtSessionModule<C extends JwtSessionCookie> {
     private static final JwsAlgorithm SIGNING_ALGORITHM = JwsAlgorithm.HS256;
 
     private final JwtBuilderFactory jwtBuilderFactory;
+    /** Caches the keystore, which is reloaded only when the keystore file changes. */
+    private final KeyStoreCache keyStoreCache = new KeyStoreCache();
 
     private CallbackHandler handler;
 
@@ -339,14 +340,8 @@ abstract class AbstractJwtSessionModule<C extends JwtSessionCookie> {
      * @return The validated decrypted JWT.
      */
     private Jwt verifySessionJwt(String sessionJwt) throws FileNotFoundException {
-        final KeyStore keyStore = new KeyStoreBuilder()
-                .withKeyStoreFile(keystoreFile)
-                .withPassword(keystorePassword)
-                .withKeyStoreType(keystoreType)
-                .build();
-        final KeyStoreManager keyStoreManager = new KeyStoreManager(keyStore);
-
-        Key privateKey = keyStoreManager.getPrivateKey(keyAlias, privateKeyPassword);
+        Key privateKey = keyStoreCache.getPrivateKey(keystoreFile, keystoreType.toString(), keystorePassword,
+                keyAlias, privateKeyPassword);
 
         SignedEncryptedJwt jwt = jwtBuilderFactory.reconstruct(sessionJwt, SignedEncryptedJwt.class);
         if (!jwt.verify(signingHandler)) {
@@ -408,14 +403,7 @@ abstract class AbstractJwtSessionModule<C extends JwtSessionCookie> {
         jwt.getClaimsSet().setNotBeforeTime(nbf);
         jwt.getClaimsSet().setClaim(TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, tokenIdleTime.getTime() / 1000L);
 
-        final KeyStore keyStore = new KeyStoreBuilder()
-                .withKeyStoreFile(keystoreFile)
-                .withPassword(keystorePassword)
-                .withKeyStoreType(keystoreType)
-                .build();
-        final KeyStoreManager keyStoreManager = new KeyStoreManager(keyStore);
-
-        Key publicKey = keyStoreManager.getPublicKey(keyAlias);
+        Key publicKey = getPublicKey();
 
         String jwtString = rebuildEncryptedJwt(jwt, publicKey);
 
@@ -507,14 +495,7 @@ abstract class AbstractJwtSessionModule<C extends JwtSessionCookie> {
     private Collection<C> createSessionJwtCookies(Map<String, Object> jwtParameters)
             throws AuthenticationException, FileNotFoundException {
 
-        final KeyStore keyStore = new KeyStoreBuilder()
-                .withKeyStoreFile(keystoreFile)
-                .withPassword(keystorePassword)
-                .withKeyStoreType(keystoreType)
-                .build();
-        final KeyStoreManager keyStoreManager = new KeyStoreManager(keyStore);
-
-        Key publicKey = keyStoreManager.getPublicKey(keyAlias);
+        Key publicKey = getPublicKey();
 
         Calendar calendar = Calendar.getInstance();
         calendar.setTime(new Date());
@@ -543,6 +524,16 @@ abstract class AbstractJwtSessionModule<C extends JwtSessionCookie> {
         return createCookies(jwtString, getCookieMaxAge(now, exp), "/");
     }
 
+    /**
+     * Gets the public key used to encrypt the session JWTs.
+     *
+     * @return The public key.
+     * @throws FileNotFoundException If unable to load keystore.
+     */
+    private Key getPublicKey() throws FileNotFoundException {
+        return keyStoreCache.getPublicKey(keystoreFile, keystoreType.toString(), keystorePassword, keyAlias);
+    }
+
     private String buildJwtString(JwtClaimsSet claimsSet, Key publicKey) {
         return jwtBuilderFactory
                 .jwe(publicKey)
@@ -0,0 +1,213 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.jaspi.modules.session.jwt;
+
+import static org.forgerock.jaspi.modules.session.jwt.AbstractJwtSessionModule.TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.Key;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.security.auth.Subject;
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+import javax.security.auth.message.AuthStatus;
+import javax.security.auth.message.MessageInfo;
+
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.json.jose.builders.JwtBuilderFactory;
+import org.forgerock.json.jose.jwe.EncryptionMethod;
+import org.forgerock.json.jose.jwe.JweAlgorithm;
+import org.forgerock.json.jose.jws.JwsAlgorithm;
+import org.forgerock.json.jose.jws.handlers.HmacSigningHandler;
+import org.forgerock.json.jose.jwt.JwtClaimsSet;
+import org.forgerock.security.keystore.KeyStoreCache;
+import org.forgerock.util.encode.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the throughput of {@link JwtSessionModule#validateRequest(MessageInfo, Subject)} for a valid session
+ * JWT cookie. The keystore is normally loaded once and cached by the module. Touching the keystore file before
+ * each request forces the module to load it again, as it did on every request before the cache existed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+public class JwtSessionModuleBenchmark {
+
+    private static final String KEY_ALIAS = "jwt-test-ks";
+    private static final String PASSWORD = "password";
+    private static final String HMAC_KEY;
+    static {
+        byte[] keyValue = new byte[32];
+        Arrays.fill(keyValue, (byte) 42);
+        HMAC_KEY = Base64.encode(keyValue);
+    }
+
+    private static final CallbackHandler NO_OP_CALLBACK_HANDLER = new CallbackHandler() {
+        @Override
+        public void handle(Callback[] callbacks) {
+            // nothing to do
+        }
+    };
+
+    private final AtomicLong lastModified = new AtomicLong();
+    private File keystoreFile;
+    private JwtSessionModule module;
+    private String sessionCookie;
+
+    @Setup
+    public void setup() throws Exception {
+        keystoreFile = File.createTempFile("JwtSessionModuleBenchmark", ".jks");
+        try (InputStream keystore = getClass().getResourceAsStream("/keystore.jks")) {
+            Files.copy(keystore, keystoreFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        lastModified.set(keystoreFile.lastModified());
+
+        Map<String, Object> options = new HashMap<>();
+        options.put(AbstractJwtSessionModule.KEY_ALIAS_KEY, KEY_ALIAS);
+        options.put(AbstractJwtSessionModule.PRIVATE_KEY_PASSWORD_KEY, PASSWORD);
+        options.put(AbstractJwtSessionModule.KEYSTORE_TYPE_KEY, "JKS");
+        options.put(AbstractJwtSessionModule.KEYSTORE_FILE_KEY, keystoreFile.getPath());
+        options.put(AbstractJwtSessionModule.KEYSTORE_PASSWORD_KEY, PASSWORD);
+        options.put(AbstractJwtSessionModule.TOKEN_IDLE_TIME_IN_MINUTES_CLAIM_KEY, "60");
+        options.put(AbstractJwtSessionModule.MAX_TOKEN_LIFE_IN_MINUTES_KEY, "120");
+        options.put(AbstractJwtSessionModule.HMAC_SIGNING_KEY, HMAC_KEY);
+        module = new JwtSessionModule();
+        module.initialize(NO_OP_CALLBACK_HANDLER, options);
+
+        // issued now, so that the idle timeout is not reset while benchmarking
+        Date now = new Date();
+        Date exp = new Date(now.getTime() + TimeUnit.HOURS.toMillis(1));
+        JwtBuilderFactory jwtBuilderFactory = new JwtBuilderFactory();
+        JwtClaimsSet claimsSet = jwtBuilderFactory.claims()
+                .jti("jti")
+                .exp(exp)
+                .nbf(now)
+                .iat(now)
+                .claim(TOKEN_IDLE_TIME_IN_SECONDS_CLAIM_KEY, exp.getTime() / 1000L)
+                .claim("prn", "demo")
+                .claim("sessionId", "sessionId")
+                .build();
+        Key publicKey = new KeyStoreCache().getPublicKey(keystoreFile.getPath(), "JKS", PASSWORD, KEY_ALIAS);
+        String jwt = jwtBuilderFactory
+                .jwe(publicKey)
+                .headers()
+                .alg(JweAlgorithm.RSAES_PKCS1_V1_5)
+                .enc(EncryptionMethod.A128CBC_HS256)
+                .done()
+                .claims(claimsSet)
+                .sign(new HmacSigningHandler(Base64.decode(HMAC_KEY)), JwsAlgorithm.HS256)
+                .build();
+        sessionCookie = "session-jwt=" + jwt;
+    }
+
+    @TearDown
+    public void tearDown() {
+        keystoreFile.delete();
+    }
+
+    @Benchmark
+    public AuthStatus validateRequestWithCachedKeystore() throws Exception {
+        return module.validateRequest(newMessageInfo(), new Subject());
+    }
+
+    @Benchmark
+    public AuthStatus validateRequestWithReloadedKeystore() throws Exception {
+        keystoreFile.setLastModified(lastModified.addAndGet(1000L));
+        return module.validateRequest(newMessageInfo(), new Subject());
+    }
+
+    private MessageInfo newMessageInfo() {
+        Request request = new Request();
+        request.getHeaders().put("Cookie", sessionCookie);
+        return new BenchmarkMessageInfo(request, new Response());
+    }
+
+    /** A minimal message info holding a CHF request and response. */
+    private static final class BenchmarkMessageInfo implements MessageInfo {
+        private final Map<Object, Object> map = new HashMap<>();
+        private Object request;
+        private Object response;
+
+        private BenchmarkMessageInfo(Object request, Object response) {
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public Object getRequestMessage() {
+            return request;
+        }
+
+        @Override
+        public Object getResponseMessage() {
+            return response;
+        }
+
+        @Override
+        public void setRequestMessage(Object request) {
+            this.request = request;
+        }
+
+        @Override
+        public void setResponseMessage(Object response) {
+            this.response = response;
+        }
+
+        @Override
+        public Map getMap() {
+            return map;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(JwtSessionModuleBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
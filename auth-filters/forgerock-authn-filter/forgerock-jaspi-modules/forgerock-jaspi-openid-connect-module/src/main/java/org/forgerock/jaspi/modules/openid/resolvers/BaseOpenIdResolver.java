@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014-2016 ForgeRock AS.
+* Portions Copyright 2026 Wren Security.
 */
 package org.forgerock.jaspi.modules.openid.resolvers;
 
@@ -26,6 +27,7 @@ import org.forgerock.jaspi.modules.openid.exceptions.JwtExpiredException;
 import org.forgerock.jaspi.modules.openid.exceptions.OpenIdConnectVerificationException;
 import org.forgerock.json.jose.jws.SignedJwt;
 import org.forgerock.json.jose.jws.SigningManager;
+import org.forgerock.json.jose.jws.VerifiedJwtCache;
 import org.forgerock.json.jose.jws.handlers.SigningHandler;
 
 /**
@@ -42,13 +44,26 @@ public abstract class BaseOpenIdResolver implements OpenIdResolver {
 
     private final String issuer;
 
+    private final VerifiedJwtCache verifiedJwtCache;
+
     /**
      * Abstract constructor for setting the issuer's identity.
      *
      * @param issuer The issuer (provider) of the Open Id Connect id token
      */
     public BaseOpenIdResolver(final String issuer) {
+        this(issuer, null);
+    }
+
+    /**
+     * Abstract constructor for setting the issuer's identity and the cache of the verified id tokens.
+     *
+     * @param issuer The issuer (provider) of the Open Id Connect id token
+     * @param verifiedJwtCache The cache of the verified id tokens, or {@code null} to verify each id token each time
+     */
+    public BaseOpenIdResolver(final String issuer, final VerifiedJwtCache verifiedJwtCache) {
         this.issuer = issuer;
+        this.verifiedJwtCache = verifiedJwtCache;
     }
 
     /**
@@ -91,6 +106,21 @@ public abstract class BaseOpenIdResolver implements OpenIdResolver {
         verifyExpiration(idClaim.getClaimsSet().getExpirationTime());
     }
 
+    /**
+     * Verifies the signature of the JWS with the signing handler, unless it is found in the cache of the verified id
+     * tokens of this resolver.
+     *
+     * @param idClaim The JWS to verify
+     * @param signingHandler The signing handler, which should be the same instance for the same key so that the id
+     *                       tokens it has verified are found in the cache
+     * @return {@code true} if the signature is valid
+     */
+    protected boolean verify(final SignedJwt idClaim, final SigningHandler signingHandler) {
+        return verifiedJwtCache != null
+                ? verifiedJwtCache.verify(idClaim, signingHandler)
+                : idClaim.verify(signingHandler);
+    }
+
     /**
      * Determine an appropriate signing handler to use for verifying signatures using the given verification key.
      *
@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014-2017 ForgeRock AS.
+* Portions Copyright 2026 Wren Security.
 */
 
 package org.forgerock.jaspi.modules.openid.resolvers;
@@ -19,7 +20,9 @@ package org.forgerock.jaspi.modules.openid.resolvers;
 import static org.forgerock.caf.authentication.framework.AuthenticationFramework.LOG;
 
 import java.security.PublicKey;
-
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.forgerock.json.jose.exceptions.FailedToLoadJWKException;
 import org.forgerock.jaspi.modules.openid.exceptions.InvalidSignatureException;
@@ -30,6 +33,8 @@ import org.forgerock.json.jose.jwk.EcJWK;
 import org.forgerock.json.jose.jwk.RsaJWK;
 import org.forgerock.json.jose.jws.SignedJwt;
 import org.forgerock.json.jose.jws.SigningManager;
+import org.forgerock.json.jose.jws.VerifiedJwtCache;
+import org.forgerock.json.jose.jws.handlers.SigningHandler;
 import org.forgerock.json.jose.jwk.JWK;
 
 /**
@@ -50,6 +55,10 @@ public class JWKOpenIdResolverImpl extends BaseOpenIdResolver {
 
     private final JwksStore jwksStore;
 
+    /** The signing handler of each JWK, kept for as long as the JWK is held by the store. */
+    private final Map<JWK, SigningHandler> signingHandlers =
+            Collections.synchronizedMap(new WeakHashMap<JWK, SigningHandler>());
+
     /**
      * Constructor using provided timeout values to generate the
      * {@link SimpleHTTPClient} used for communicating over HTTP.
@@ -59,7 +68,19 @@ public class JWKOpenIdResolverImpl extends BaseOpenIdResolver {
      * @throws FailedToLoadJWKException if there were issues resolving or parsing the JWK
      */
     public JWKOpenIdResolverImpl(JwksStore jwksStore) throws FailedToLoadJWKException {
-        super(jwksStore.getUid());
+        this(jwksStore, null);
+    }
+
+    /**
+     * Constructor caching the id tokens it verifies.
+     *
+     * @param jwksStore The jwks store
+     * @param verifiedJwtCache The cache of the verified id tokens, or {@code null} to verify each id token each time
+     * @throws FailedToLoadJWKException if there were issues resolving or parsing the JWK
+     */
+    public JWKOpenIdResolverImpl(JwksStore jwksStore, VerifiedJwtCache verifiedJwtCache)
+            throws FailedToLoadJWKException {
+        super(jwksStore.getUid(), verifiedJwtCache);
         this.jwksStore = jwksStore;
         this.signingManager = new SigningManager();
     }
@@ -84,12 +105,21 @@ public class JWKOpenIdResolverImpl extends BaseOpenIdResolver {
     public void verifySignature(final SignedJwt idClaim) throws InvalidSignatureException,
             FailedToLoadJWKException {
         final JWK jwk = jwksStore.findJwk(idClaim.getHeader().getKeyId());
-        if (jwk == null || !idClaim.verify(createSigningHandlerForKey(signingManager, getPublicKeyFromJWK(jwk)))) {
+        if (jwk == null || !verify(idClaim, getSigningHandler(jwk))) {
             LOG.debug("JWS unable to be verified");
             throw new InvalidSignatureException("JWS unable to be verified");
         }
     }
 
+    private SigningHandler getSigningHandler(final JWK jwk) {
+        SigningHandler signingHandler = signingHandlers.get(jwk);
+        if (signingHandler == null) {
+            signingHandler = createSigningHandlerForKey(signingManager, getPublicKeyFromJWK(jwk));
+            signingHandlers.put(jwk, signingHandler);
+        }
+        return signingHandler;
+    }
+
     private PublicKey getPublicKeyFromJWK(org.forgerock.json.jose.jwk.JWK jwk) {
         switch (jwk.getKeyType()) {
         case RSA:
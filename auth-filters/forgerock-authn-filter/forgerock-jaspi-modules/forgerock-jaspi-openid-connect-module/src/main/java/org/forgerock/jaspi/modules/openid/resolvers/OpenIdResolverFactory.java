@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014-2017 ForgeRock AS.
+* Portions Copyright 2026 Wren Security.
 */
 package org.forgerock.jaspi.modules.openid.resolvers;
 
@@ -20,6 +21,7 @@ import java.security.PublicKey;
 import org.forgerock.json.jose.exceptions.FailedToLoadJWKException;
 import org.forgerock.json.jose.jwk.store.JwksStore;
 import org.forgerock.json.jose.jwk.store.JwksStoreService;
+import org.forgerock.json.jose.jws.VerifiedJwtCache;
 
 /**
  * For producing OpenId Resolvers.
@@ -28,6 +30,8 @@ public class OpenIdResolverFactory {
 
     private WellKnownOpenIdConfigurationFactory openIdConfigurationFactory;
 
+    private VerifiedJwtCache verifiedJwtCache;
+
     /**
      * For tests.
      *
@@ -48,6 +52,20 @@ public class OpenIdResolverFactory {
         openIdConfigurationFactory = new WellKnownOpenIdConfigurationFactory(readTimeout, connTimeout);
     }
 
+    /**
+     * For generating an OpenIDResolverFactory with the supplied timeouts, whose public key, shared secret and JWK
+     * resolvers share the supplied cache of the verified id tokens.
+     *
+     * @param readTimeout HTTP read timeout for produced resolvers
+     * @param connTimeout HTTP connection timeout for produced resolvers
+     * @param verifiedJwtCache the cache of the verified id tokens
+     */
+    public OpenIdResolverFactory(final int readTimeout, final int connTimeout,
+            final VerifiedJwtCache verifiedJwtCache) {
+        this(readTimeout, connTimeout);
+        this.verifiedJwtCache = verifiedJwtCache;
+    }
+
     /**
      * Creates a public key resolver for the supplied issuer.
      *
@@ -56,7 +74,7 @@ public class OpenIdResolverFactory {
      * @return a configured and usable PublicKeyOpenIdResolverImpl
      */
     public OpenIdResolver createPublicKeyResolver(String issuer, PublicKey key) {
-        return new PublicKeyOpenIdResolverImpl(issuer, key);
+        return new PublicKeyOpenIdResolverImpl(issuer, key, verifiedJwtCache);
     }
 
     /**
@@ -67,7 +85,7 @@ public class OpenIdResolverFactory {
      * @return a configured and usable SharedSecretOpenIdResolverImpl
      */
     public OpenIdResolver createSharedSecretResolver(String issuer, String sharedSecret) {
-        return new SharedSecretOpenIdResolverImpl(issuer, sharedSecret);
+        return new SharedSecretOpenIdResolverImpl(issuer, sharedSecret, verifiedJwtCache);
     }
 
     /**
@@ -102,7 +120,7 @@ public class OpenIdResolverFactory {
                 issuer,
                 JwksStoreService.JWKS_STORE_DEFAULT_CACHE_TIMEOUT_MS,
                 JwksStoreService.JWKS_STORE_DEFAULT_CACHE_MISS_CACHE_TIME_MS, jwkUrl);
-        return new JWKOpenIdResolverImpl(jwksStore);
+        return new JWKOpenIdResolverImpl(jwksStore, verifiedJwtCache);
     }
 
     /**
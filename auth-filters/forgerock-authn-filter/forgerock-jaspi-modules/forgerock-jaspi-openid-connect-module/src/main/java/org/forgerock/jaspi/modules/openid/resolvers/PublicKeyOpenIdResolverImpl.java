@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014-2016 ForgeRock AS.
+* Portions Copyright 2026 Wren Security.
 */
 
 package org.forgerock.jaspi.modules.openid.resolvers;
@@ -24,6 +25,8 @@ import org.forgerock.jaspi.modules.openid.exceptions.InvalidSignatureException;
 import org.forgerock.jaspi.modules.openid.exceptions.OpenIdConnectVerificationException;
 import org.forgerock.json.jose.jws.SignedJwt;
 import org.forgerock.json.jose.jws.SigningManager;
+import org.forgerock.json.jose.jws.VerifiedJwtCache;
+import org.forgerock.json.jose.jws.handlers.SigningHandler;
 
 /**
  * This class exists to allow functionality for those Open ID Connect providers which
@@ -33,9 +36,7 @@ import org.forgerock.json.jose.jws.SigningManager;
  */
 public class PublicKeyOpenIdResolverImpl extends BaseOpenIdResolver {
 
-    private final SigningManager signingManager;
-
-    private final PublicKey key;
+    private final SigningHandler signingHandler;
 
     /**
      * Constructor for PublicKeyOpenIdResolverImpl.
@@ -44,10 +45,20 @@ public class PublicKeyOpenIdResolverImpl extends BaseOpenIdResolver {
      * @param key The public key, used to verify a private-key signed signature
      */
     public PublicKeyOpenIdResolverImpl(String issuer, PublicKey key) {
-        super(issuer);
+        this(issuer, key, null);
+    }
+
+    /**
+     * Constructor for PublicKeyOpenIdResolverImpl caching the id tokens it verifies.
+     *
+     * @param issuer The issuer (provider) of the Open Id Connect id token
+     * @param key The public key, used to verify a private-key signed signature
+     * @param verifiedJwtCache The cache of the verified id tokens, or {@code null} to verify each id token each time
+     */
+    public PublicKeyOpenIdResolverImpl(String issuer, PublicKey key, VerifiedJwtCache verifiedJwtCache) {
+        super(issuer, verifiedJwtCache);
 
-        signingManager = new SigningManager();
-        this.key = key;
+        signingHandler = createSigningHandlerForKey(new SigningManager(), key);
     }
 
     /**
@@ -67,7 +78,7 @@ public class PublicKeyOpenIdResolverImpl extends BaseOpenIdResolver {
      * @throws InvalidSignatureException If the JWS supplied does not match the key for this resolver
      */
     public void verifySignature(final SignedJwt idClaim) throws InvalidSignatureException {
-        if (!idClaim.verify(createSigningHandlerForKey(signingManager, key))) {
+        if (!verify(idClaim, signingHandler)) {
             LOG.debug("JWS signature not signed with supplied key");
             throw new InvalidSignatureException("JWS signature not signed with supplied key");
         }
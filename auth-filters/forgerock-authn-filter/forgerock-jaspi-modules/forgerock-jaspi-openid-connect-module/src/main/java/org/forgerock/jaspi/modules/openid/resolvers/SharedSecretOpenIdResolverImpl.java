@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014-2015 ForgeRock AS.
+* Portions Copyright 2026 Wren Security.
 */
 
 package org.forgerock.jaspi.modules.openid.resolvers;
@@ -24,6 +25,8 @@ import org.forgerock.jaspi.modules.openid.exceptions.InvalidSignatureException;
 import org.forgerock.jaspi.modules.openid.exceptions.OpenIdConnectVerificationException;
 import org.forgerock.json.jose.jws.SignedJwt;
 import org.forgerock.json.jose.jws.SigningManager;
+import org.forgerock.json.jose.jws.VerifiedJwtCache;
+import org.forgerock.json.jose.jws.handlers.SigningHandler;
 
 /**
  * This class exists to allow functionality for those Open ID Connect providers which
@@ -34,9 +37,7 @@ import org.forgerock.json.jose.jws.SigningManager;
  */
 public class SharedSecretOpenIdResolverImpl extends BaseOpenIdResolver {
 
-    private final SigningManager signingManager;
-
-    private final String sharedSecret;
+    private final SigningHandler signingHandler;
 
     /**
      * Constructor for SharedSecretOpenIdResolverImpl.
@@ -46,14 +47,25 @@ public class SharedSecretOpenIdResolverImpl extends BaseOpenIdResolver {
      * @throws IllegalArgumentException if the sharedSecret is null
      */
     public SharedSecretOpenIdResolverImpl(String issuer, String sharedSecret) {
-        super(issuer);
+        this(issuer, sharedSecret, null);
+    }
+
+    /**
+     * Constructor for SharedSecretOpenIdResolverImpl caching the id tokens it verifies.
+     *
+     * @param issuer The issuer (provider) of the Open Id Connect id token
+     * @param sharedSecret The secret String, known to both provider and consumer
+     * @param verifiedJwtCache The cache of the verified id tokens, or {@code null} to verify each id token each time
+     * @throws IllegalArgumentException if the sharedSecret is null
+     */
+    public SharedSecretOpenIdResolverImpl(String issuer, String sharedSecret, VerifiedJwtCache verifiedJwtCache) {
+        super(issuer, verifiedJwtCache);
 
-        signingManager = new SigningManager();
         if (sharedSecret == null) {
             throw new IllegalArgumentException("sharedSecret must not be null.");
         }
 
-        this.sharedSecret = sharedSecret;
+        signingHandler = new SigningManager().newHmacSigningHandler(sharedSecret.getBytes(Charset.forName("UTF-8")));
     }
 
     /**
@@ -72,7 +84,7 @@ public class SharedSecretOpenIdResolverImpl extends BaseOpenIdResolver {
      * @throws InvalidSignatureException If the JWS supplied does not match the key for this resolver
      */
     public void verifySignature(final SignedJwt idClaim) throws InvalidSignatureException {
-        if (!idClaim.verify(signingManager.newHmacSigningHandler(sharedSecret.getBytes(Charset.forName("UTF-8"))))) {
+        if (!verify(idClaim, signingHandler)) {
             LOG.debug("JWS signature not signed with supplied key");
             throw new InvalidSignatureException("JWS signature not signed with supplied key");
         }
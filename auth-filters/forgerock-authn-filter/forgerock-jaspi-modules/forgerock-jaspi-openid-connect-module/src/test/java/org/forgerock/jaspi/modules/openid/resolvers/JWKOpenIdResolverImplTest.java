@@ -12,6 +12,7 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014-2017 ForgeRock AS.
+* Portions Copyright 2026 Wren Security.
 */
 package org.forgerock.jaspi.modules.openid.resolvers;
 
@@ -28,6 +29,7 @@ import org.forgerock.json.jose.jws.JwsAlgorithm;
 import org.forgerock.json.jose.jws.JwsHeader;
 import org.forgerock.json.jose.jws.SignedJwt;
 import org.forgerock.json.jose.jws.SigningManager;
+import org.forgerock.json.jose.jws.VerifiedJwtCache;
 import org.forgerock.json.jose.jws.handlers.SigningHandler;
 import org.forgerock.json.jose.jwt.JwtClaimsSet;
 import org.testng.annotations.BeforeMethod;
@@ -42,6 +44,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
@@ -63,6 +66,32 @@ public class JWKOpenIdResolverImplTest {
     public void testValidSignature() throws NoSuchAlgorithmException, FailedToLoadJWKException,
             InvalidSignatureException {
         //given
+        SignedJwt signedJwt = givenRsaSignedJwt();
+
+        //when
+        testResolver.verifySignature(signedJwt);
+
+        //Then expect no InvalidSignatureException exception
+    }
+
+    @Test
+    public void testCachedSignatureIsVerifiedOnce() throws NoSuchAlgorithmException, FailedToLoadJWKException,
+            InvalidSignatureException {
+        //given
+        VerifiedJwtCache cache = new VerifiedJwtCache(10);
+        testResolver = new JWKOpenIdResolverImpl(jwksStore, cache);
+        SignedJwt signedJwt = givenRsaSignedJwt();
+
+        //when
+        testResolver.verifySignature(signedJwt);
+        testResolver.verifySignature(signedJwt);
+
+        //then
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    private SignedJwt givenRsaSignedJwt() throws NoSuchAlgorithmException, FailedToLoadJWKException {
         KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
         keyPairGenerator.initialize(2048);
         KeyPair keyPair = keyPairGenerator.generateKeyPair();
@@ -83,11 +112,7 @@ public class JWKOpenIdResolverImplTest {
         SignedJwt signedJwt = new JwtReconstruction().reconstructJwt(jwt, SignedJwt.class);
 
         given(jwksStore.findJwk(signedJwt.getHeader().getKeyId())).willReturn(rsaJwk);
-
-        //when
-        testResolver.verifySignature(signedJwt);
-
-        //Then expect no InvalidSignatureException exception
+        return signedJwt;
     }
 
     @Test(expectedExceptions = InvalidSignatureException.class)
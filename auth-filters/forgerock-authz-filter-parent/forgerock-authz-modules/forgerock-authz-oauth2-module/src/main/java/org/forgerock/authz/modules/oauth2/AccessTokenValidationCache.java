@@ -12,26 +12,52 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.authz.modules.oauth2;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import static org.forgerock.util.promise.Promises.newResultPromise;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.forgerock.util.promise.ExceptionHandler;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
+import org.forgerock.util.promise.ResultHandler;
+import org.forgerock.util.promise.RuntimeExceptionHandler;
+import org.forgerock.util.time.TimeService;
 
 /**
  * <p>Cache for caching AccessToken validation results.</p>
  *
- * <p>The cache is created with a maximum size, which when reached the cache will remove the oldest entry.</p>
+ * <p>The cache is created with a maximum size, which when reached the cache will remove the oldest entry. Entries
+ * expire at the expiry time of their access token, and responses for access tokens which have already expired are
+ * not cached at all. Expired entries are not returned, and are replaced or evicted like any other entry.</p>
+ *
+ * <p>Lookups do not lock. Concurrent validations of the same access token through
+ * {@link #validate(String, OAuth2AccessTokenValidator)} are collapsed into a single call to the validator.</p>
  *
  * @since 1.4.0
  */
 class AccessTokenValidationCache {
 
-    private final Map<String, AccessTokenValidationResponse> cache;
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxSize;
+    private final TimeService timeService;
+    private final ConcurrentMap<String, Entry> cache = new ConcurrentHashMap<>();
+    /** The entries in insertion order. Entries are only removed from the cache in this order. */
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger insertionOrderSize = new AtomicInteger();
+    private final ConcurrentMap<String, Promise<AccessTokenValidationResponse, OAuth2Exception>> pendingValidations =
+            new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
 
     /**
      * Constructs a new instance of the AccessTokenValidationCache.
@@ -39,31 +65,47 @@ class AccessTokenValidationCache {
      * @param maxSize The maximum size of the cache.
      */
     AccessTokenValidationCache(final int maxSize) {
-        cache = new LinkedHashMap<String, AccessTokenValidationResponse>(maxSize) {
-            /**
-             * Serial Version UID.
-             */
-            public static final long serialVersionUID = -1L;
-
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, AccessTokenValidationResponse> eldestEntry) {
-                return size() > maxSize;
-            }
-        };
+        this(maxSize, TimeService.SYSTEM);
     }
 
     /**
-     * Adds an entry to the cache.
+     * Constructs a new instance of the AccessTokenValidationCache, with the given time service.
+     *
+     * @param maxSize The maximum size of the cache.
+     * @param timeService The time service used to expire the entries.
+     */
+    AccessTokenValidationCache(final int maxSize, final TimeService timeService) {
+        this.maxSize = maxSize;
+        this.timeService = timeService;
+    }
+
+    /**
+     * Adds an entry to the cache, unless the access token has already expired.
      *
      * @param accessToken The access token.
      * @param validationResponse The validation response.
      */
     void add(String accessToken, AccessTokenValidationResponse validationResponse) {
-        try {
-            lock.writeLock().lock();
-            cache.put(accessToken, validationResponse);
-        } finally {
-            lock.writeLock().unlock();
+        if (validationResponse == null || isExpired(validationResponse)) {
+            return;
+        }
+        final Entry entry = new Entry(accessToken, validationResponse);
+        final Entry existingEntry = cache.putIfAbsent(accessToken, entry);
+        if (existingEntry != null) {
+            existingEntry.validationResponse = validationResponse;
+            return;
+        }
+        insertionOrder.add(entry);
+        int size = insertionOrderSize.incrementAndGet();
+        while (size > maxSize) {
+            final Entry eldestEntry = insertionOrder.poll();
+            if (eldestEntry == null) {
+                break;
+            }
+            size = insertionOrderSize.decrementAndGet();
+            if (cache.remove(eldestEntry.accessToken, eldestEntry)) {
+                evictionCount.increment();
+            }
         }
     }
 
@@ -71,15 +113,77 @@ class AccessTokenValidationCache {
      * Retrieves an entry from the cache.
      *
      * @param accessToken The access token.
-     * @return The access tokens validation response.
+     * @return The access tokens validation response, or {@code null} if it is not cached or has expired.
      */
     AccessTokenValidationResponse get(String accessToken) {
+        final AccessTokenValidationResponse validationResponse = lookup(accessToken);
+        if (validationResponse != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+        }
+        return validationResponse;
+    }
+
+    /**
+     * Returns the cached validation response of the access token, or validates it with the given validator and
+     * caches the result. A validation of the same access token which is already in progress is shared rather than
+     * started again.
+     *
+     * @param accessToken The access token.
+     * @param validator The validator used when the access token is not cached.
+     * @return A promise of the access tokens validation response.
+     */
+    Promise<AccessTokenValidationResponse, OAuth2Exception> validate(final String accessToken,
+            final OAuth2AccessTokenValidator validator) {
+        final AccessTokenValidationResponse cached = get(accessToken);
+        if (cached != null) {
+            return newResultPromise(cached);
+        }
+        final PromiseImpl<AccessTokenValidationResponse, OAuth2Exception> promise = PromiseImpl.create();
+        final Promise<AccessTokenValidationResponse, OAuth2Exception> pending =
+                pendingValidations.putIfAbsent(accessToken, promise);
+        if (pending != null) {
+            return pending;
+        }
+        // Another validation may have completed between the lookup and the registration of this one
+        final AccessTokenValidationResponse completed = lookup(accessToken);
+        if (completed != null) {
+            pendingValidations.remove(accessToken, promise);
+            promise.handleResult(completed);
+            return promise;
+        }
+        final Promise<AccessTokenValidationResponse, OAuth2Exception> validation;
         try {
-            lock.readLock().lock();
-            return cache.get(accessToken);
-        } finally {
-            lock.readLock().unlock();
+            validation = validator.validate(accessToken);
+        } catch (RuntimeException e) {
+            pendingValidations.remove(accessToken, promise);
+            promise.handleRuntimeException(e);
+            return promise;
         }
+        validation
+                .thenOnResultOrException(new ResultHandler<AccessTokenValidationResponse>() {
+                    @Override
+                    public void handleResult(AccessTokenValidationResponse validationResponse) {
+                        add(accessToken, validationResponse);
+                        pendingValidations.remove(accessToken, promise);
+                        promise.handleResult(validationResponse);
+                    }
+                }, new ExceptionHandler<OAuth2Exception>() {
+                    @Override
+                    public void handleException(OAuth2Exception exception) {
+                        pendingValidations.remove(accessToken, promise);
+                        promise.handleException(exception);
+                    }
+                })
+                .thenOnRuntimeException(new RuntimeExceptionHandler() {
+                    @Override
+                    public void handleRuntimeException(RuntimeException exception) {
+                        pendingValidations.remove(accessToken, promise);
+                        promise.handleRuntimeException(exception);
+                    }
+                });
+        return promise;
     }
 
     /**
@@ -88,11 +192,58 @@ class AccessTokenValidationCache {
      * @return The cache size.
      */
     int size() {
-        try {
-            lock.readLock().lock();
-            return cache.size();
-        } finally {
-            lock.readLock().unlock();
+        return cache.size();
+    }
+
+    /**
+     * Returns the number of lookups which found a cached validation response.
+     *
+     * @return The hit count.
+     */
+    long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of lookups which did not find a cached validation response.
+     *
+     * @return The miss count.
+     */
+    long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of entries removed from the cache because it was full.
+     *
+     * @return The eviction count.
+     */
+    long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private AccessTokenValidationResponse lookup(String accessToken) {
+        final Entry entry = cache.get(accessToken);
+        if (entry == null) {
+            return null;
+        }
+        // Expired entries are left in place, to be replaced or evicted in insertion order
+        final AccessTokenValidationResponse validationResponse = entry.validationResponse;
+        return isExpired(validationResponse) ? null : validationResponse;
+    }
+
+    private boolean isExpired(AccessTokenValidationResponse validationResponse) {
+        return validationResponse.getExpiryTime() < timeService.now();
+    }
+
+    /** A cached validation response, updated in place when the access token is validated again. */
+    private static final class Entry {
+        private final String accessToken;
+        private volatile AccessTokenValidationResponse validationResponse;
+
+        private Entry(String accessToken, AccessTokenValidationResponse validationResponse) {
+            this.accessToken = accessToken;
+            this.validationResponse = validationResponse;
         }
     }
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.authz.modules.oauth2;
@@ -27,7 +28,6 @@ import org.forgerock.authz.filter.api.AuthorizationException;
 import org.forgerock.authz.filter.api.AuthorizationResult;
 import org.forgerock.util.Function;
 import org.forgerock.util.promise.Promise;
-import org.forgerock.util.promise.ResultHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -106,14 +106,9 @@ public class OAuth2Module {
             // Verify is valid and not expired
             final Promise<AccessTokenValidationResponse, OAuth2Exception> validationResponse;
             if (cacheEnabled) {
-                final AccessTokenValidationResponse entry = cache.get(accessToken);
-                if (entry != null) {
-                    validationResponse = newResultPromise(entry);
-                } else {
-                    validationResponse = validateAccessToken(accessToken);
-                }
+                validationResponse = cache.validate(accessToken, accessTokenValidator);
             } else {
-                validationResponse = validateAccessToken(accessToken);
+                validationResponse = accessTokenValidator.validate(accessToken);
             }
 
             return validationResponse
@@ -152,23 +147,30 @@ public class OAuth2Module {
     }
 
     /**
-     * Validates the access token and if the cache is enabled will store the result in the cache for subsequent
-     * requests.
+     * Returns the number of requests which were authorized with a cached access token validation response.
      *
-     * @param accessToken The access token to validate.
-     * @return An AccessTokenValidationResponse containing the result of the validation.
-     * @throws OAuth2Exception If the access token could not be validated.
+     * @return The cache hit count.
      */
-    private Promise<AccessTokenValidationResponse, OAuth2Exception> validateAccessToken(final String accessToken) {
-        return accessTokenValidator.validate(accessToken)
-                .thenOnResult(new ResultHandler<AccessTokenValidationResponse>() {
-                    @Override
-                    public void handleResult(AccessTokenValidationResponse validationResponse) {
-                        if (cacheEnabled) {
-                            cache.add(accessToken, validationResponse);
-                        }
-                    }
-                });
+    public long getCacheHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * Returns the number of requests for which the access token validation response was not cached.
+     *
+     * @return The cache miss count.
+     */
+    public long getCacheMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Returns the number of access token validation responses removed from the cache because it was full.
+     *
+     * @return The cache eviction count.
+     */
+    public long getCacheEvictionCount() {
+        return cache.getEvictionCount();
     }
 
     /**
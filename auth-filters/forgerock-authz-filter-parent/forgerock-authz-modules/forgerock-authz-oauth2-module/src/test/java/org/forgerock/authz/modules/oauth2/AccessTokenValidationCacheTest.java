@@ -12,26 +12,42 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.authz.modules.oauth2;
 
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
+import org.forgerock.util.time.TimeService;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 public class AccessTokenValidationCacheTest {
 
+    private static final long EXPIRY_TIME = 10_000L;
+
+    private TimeService timeService;
     private AccessTokenValidationCache cache;
 
     @BeforeMethod
     public void setUp() {
-        cache = new AccessTokenValidationCache(2);
+        timeService = mock(TimeService.class);
+        given(timeService.now()).willReturn(0L);
+        cache = new AccessTokenValidationCache(2, timeService);
     }
 
     @Test
@@ -39,7 +55,7 @@ public class AccessTokenValidationCacheTest {
 
         //Given
         String accessToken = "ACCESS_TOKEN";
-        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(0);
+        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(EXPIRY_TIME);
 
         //When
         cache.add(accessToken, validationResponse);
@@ -53,7 +69,7 @@ public class AccessTokenValidationCacheTest {
 
         //Given
         String accessToken = "ACCESS_TOKEN";
-        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(0);
+        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(EXPIRY_TIME);
 
         //When
         cache.add(accessToken, validationResponse);
@@ -70,9 +86,9 @@ public class AccessTokenValidationCacheTest {
         String accessToken1 = "ACCESS_TOKEN_1";
         String accessToken2 = "ACCESS_TOKEN_2";
         String accessToken3 = "ACCESS_TOKEN_3";
-        AccessTokenValidationResponse validationResponse1 = new AccessTokenValidationResponse(0);
-        AccessTokenValidationResponse validationResponse2 = new AccessTokenValidationResponse(0);
-        AccessTokenValidationResponse validationResponse3 = new AccessTokenValidationResponse(0);
+        AccessTokenValidationResponse validationResponse1 = new AccessTokenValidationResponse(EXPIRY_TIME);
+        AccessTokenValidationResponse validationResponse2 = new AccessTokenValidationResponse(EXPIRY_TIME);
+        AccessTokenValidationResponse validationResponse3 = new AccessTokenValidationResponse(EXPIRY_TIME);
 
         //When
         cache.add(accessToken1, validationResponse1);
@@ -90,7 +106,7 @@ public class AccessTokenValidationCacheTest {
 
         //Given
         String accessToken = "ACCESS_TOKEN";
-        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(0);
+        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(EXPIRY_TIME);
 
         //When
         cache.add(accessToken, validationResponse);
@@ -105,7 +121,7 @@ public class AccessTokenValidationCacheTest {
         //Given
         String accessToken1 = "ACCESS_TOKEN_1";
         String accessToken2 = "ACCESS_TOKEN_2";
-        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(0);
+        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(EXPIRY_TIME);
 
         //When
         cache.add(accessToken1, validationResponse);
@@ -114,6 +130,102 @@ public class AccessTokenValidationCacheTest {
         assertNull(cache.get(accessToken2));
     }
 
+    @Test
+    public void shouldExpireEntryWithAccessToken() {
+
+        //Given
+        String accessToken = "ACCESS_TOKEN";
+        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(EXPIRY_TIME);
+        cache.add(accessToken, validationResponse);
+
+        //When
+        given(timeService.now()).willReturn(EXPIRY_TIME + 1);
+
+        //Then
+        assertNull(cache.get(accessToken));
+        assertEquals(cache.getMissCount(), 1);
+    }
+
+    @Test
+    public void shouldNotAddExpiredEntry() {
+
+        //Given
+        String accessToken = "ACCESS_TOKEN";
+        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(0);
+        given(timeService.now()).willReturn(1L);
+
+        //When
+        cache.add(accessToken, validationResponse);
+
+        //Then
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void shouldCountHitsMissesAndEvictions() {
+
+        //Given
+        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(EXPIRY_TIME);
+
+        //When
+        cache.add("ACCESS_TOKEN_1", validationResponse);
+        cache.add("ACCESS_TOKEN_2", validationResponse);
+        cache.add("ACCESS_TOKEN_3", validationResponse);
+        cache.get("ACCESS_TOKEN_1");
+        cache.get("ACCESS_TOKEN_2");
+        cache.get("ACCESS_TOKEN_3");
+
+        //Then
+        assertEquals(cache.getHitCount(), 2);
+        assertEquals(cache.getMissCount(), 1);
+        assertEquals(cache.getEvictionCount(), 1);
+    }
+
+    @Test
+    public void shouldCollapseConcurrentValidationsOfSameAccessToken() throws Exception {
+
+        //Given
+        String accessToken = "ACCESS_TOKEN";
+        AccessTokenValidationResponse validationResponse = new AccessTokenValidationResponse(EXPIRY_TIME);
+        PromiseImpl<AccessTokenValidationResponse, OAuth2Exception> validation = PromiseImpl.create();
+        OAuth2AccessTokenValidator validator = mock(OAuth2AccessTokenValidator.class);
+        given(validator.validate(accessToken)).willReturn(validation);
+
+        //When
+        Promise<AccessTokenValidationResponse, OAuth2Exception> first = cache.validate(accessToken, validator);
+        Promise<AccessTokenValidationResponse, OAuth2Exception> second = cache.validate(accessToken, validator);
+        validation.handleResult(validationResponse);
+        Promise<AccessTokenValidationResponse, OAuth2Exception> third = cache.validate(accessToken, validator);
+
+        //Then
+        verify(validator, times(1)).validate(accessToken);
+        assertSame(first.getOrThrow(), validationResponse);
+        assertSame(second.getOrThrow(), validationResponse);
+        assertSame(third.getOrThrow(), validationResponse);
+        assertEquals(cache.getHitCount(), 1);
+    }
+
+    @Test
+    public void shouldValidateAgainAfterFailedValidation() throws Exception {
+
+        //Given
+        String accessToken = "ACCESS_TOKEN";
+        PromiseImpl<AccessTokenValidationResponse, OAuth2Exception> validation = PromiseImpl.create();
+        OAuth2AccessTokenValidator validator = mock(OAuth2AccessTokenValidator.class);
+        given(validator.validate(accessToken)).willReturn(validation);
+
+        //When
+        Promise<AccessTokenValidationResponse, OAuth2Exception> first = cache.validate(accessToken, validator);
+        validation.handleException(new OAuth2Exception("failed"));
+        Promise<AccessTokenValidationResponse, OAuth2Exception> second = cache.validate(accessToken, validator);
+
+        //Then
+        verify(validator, times(2)).validate(accessToken);
+        assertTrue(first.isDone());
+        assertFalse(second == first);
+        assertEquals(cache.size(), 0);
+    }
+
     @Test
     public void cacheShouldBeThreadSafe() throws InterruptedException {
 
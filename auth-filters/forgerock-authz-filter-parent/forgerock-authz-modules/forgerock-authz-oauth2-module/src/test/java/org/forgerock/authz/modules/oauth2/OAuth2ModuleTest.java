@@ -75,7 +75,8 @@ public class OAuth2ModuleTest {
         AccessTokenValidationResponse validationResponse = mock(AccessTokenValidationResponse.class);
 
         createOAuth2Module(true);
-        given(cache.get("ACCESS_TOKEN")).willReturn(validationResponse);
+        given(cache.validate("ACCESS_TOKEN", tokenValidator)).willReturn(
+                Promises.<AccessTokenValidationResponse, OAuth2Exception>newResultPromise(validationResponse));
         given(validationResponse.isTokenValid()).willReturn(true);
         given(validationResponse.getTokenScopes()).willReturn(Collections.singleton("SCOPE_A"));
 
@@ -95,7 +96,8 @@ public class OAuth2ModuleTest {
         AccessTokenValidationResponse validationResponse = mock(AccessTokenValidationResponse.class);
 
         createOAuth2Module(true);
-        given(cache.get("ACCESS_TOKEN")).willReturn(validationResponse);
+        given(cache.validate("ACCESS_TOKEN", tokenValidator)).willReturn(
+                Promises.<AccessTokenValidationResponse, OAuth2Exception>newResultPromise(validationResponse));
         given(validationResponse.isTokenValid()).willReturn(false);
         given(validationResponse.getTokenScopes()).willReturn(Collections.singleton("SCOPE_A"));
 
@@ -115,7 +117,8 @@ public class OAuth2ModuleTest {
         AccessTokenValidationResponse validationResponse = mock(AccessTokenValidationResponse.class);
 
         createOAuth2Module(true, "SCOPE_A", "SCOPE_B");
-        given(cache.get("ACCESS_TOKEN")).willReturn(validationResponse);
+        given(cache.validate("ACCESS_TOKEN", tokenValidator)).willReturn(
+                Promises.<AccessTokenValidationResponse, OAuth2Exception>newResultPromise(validationResponse));
         given(validationResponse.isTokenValid()).willReturn(true);
         given(validationResponse.getTokenScopes()).willReturn(Collections.singleton("SCOPE_A"));
 
@@ -134,10 +137,11 @@ public class OAuth2ModuleTest {
         AuthorizationContext context = mock(AuthorizationContext.class);
         AccessTokenValidationResponse validationResponse = mock(AccessTokenValidationResponse.class);
 
+        given(cacheFactory.getCache(anyInt())).willReturn(new AccessTokenValidationCache(10));
         createOAuth2Module(true);
-        given(cache.get("ACCESS_TOKEN")).willReturn(null);
         given(tokenValidator.validate("ACCESS_TOKEN")).willReturn(
                 Promises.<AccessTokenValidationResponse, OAuth2Exception>newResultPromise(validationResponse));
+        given(validationResponse.getExpiryTime()).willReturn(Long.MAX_VALUE);
         given(validationResponse.isTokenValid()).willReturn(true);
         given(validationResponse.getTokenScopes()).willReturn(Collections.singleton("SCOPE_A"));
 
@@ -159,11 +163,10 @@ public class OAuth2ModuleTest {
         Promise<AccessTokenValidationResponse, OAuth2Exception> validationResponsePromise =
                 newResultPromise(validationResponse);
 
+        given(cacheFactory.getCache(anyInt())).willReturn(new AccessTokenValidationCache(10));
         createOAuth2Module(true);
-        given(cache.get("ACCESS_TOKEN"))
-                .willReturn(null)
-                .willReturn(validationResponse);
         given(tokenValidator.validate("ACCESS_TOKEN")).willReturn(validationResponsePromise);
+        given(validationResponse.getExpiryTime()).willReturn(Long.MAX_VALUE);
         given(validationResponse.isTokenValid()).willReturn(true);
         given(validationResponse.getTokenScopes()).willReturn(Collections.singleton("SCOPE_A"));
 
@@ -174,7 +177,8 @@ public class OAuth2ModuleTest {
 
         //Then
         verify(tokenValidator, times(1)).validate("ACCESS_TOKEN");
-        verify(cache, times(2)).get("ACCESS_TOKEN");
+        assertThat(oAuth2Module.getCacheHitCount()).isEqualTo(1);
+        assertThat(oAuth2Module.getCacheMissCount()).isEqualTo(1);
     }
 
     @Test
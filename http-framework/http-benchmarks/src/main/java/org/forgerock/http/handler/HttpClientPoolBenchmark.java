@@ -0,0 +1,161 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.handler;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_CONNECTION_REQUEST_TIMEOUT;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_IDLE_CONNECTION_TIMEOUT;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_LOADER;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_MAX_CONNECTIONS;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_MAX_CONNECTIONS_PER_ROUTE;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.http.HttpApplicationException;
+import org.forgerock.http.apache.async.AsyncHttpClientProvider;
+import org.forgerock.http.apache.sync.SyncHttpClientProvider;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.spi.HttpClientProvider;
+import org.forgerock.http.spi.Loader;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.util.Options;
+import org.forgerock.util.time.Duration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Compares the HTTP client implementations, and the sizes of their connection pools per route, sending small
+ * requests to a local stub server from more threads than the smallest pools have connections. The pool state and
+ * the latencies reported by {@link HttpClientHandler#getMetrics()} are logged at the end of each trial.
+ * <p>
+ * HTTP/2 is out of scope: the Apache providers only speak HTTP/1.1, and no HTTP/2 client provider exists yet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(16)
+public class HttpClientPoolBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientPoolBenchmark.class);
+
+    private static final byte[] PONG = "{\"pong\":true}".getBytes();
+
+    @Param({ "sync", "async" })
+    private String client;
+
+    @Param({ "2", "8", "32" })
+    private int maxConnectionsPerRoute;
+
+    private ExecutorService executor;
+    private HttpServer server;
+    private HttpClientHandler handler;
+    private String uri;
+
+    @Setup
+    public void setUp() throws IOException, HttpApplicationException {
+        executor = Executors.newFixedThreadPool(32);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, PONG.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(PONG);
+                }
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+        uri = "http://127.0.0.1:" + server.getAddress().getPort() + "/ping";
+
+        final HttpClientProvider provider = "async".equals(client)
+                ? new AsyncHttpClientProvider()
+                : new SyncHttpClientProvider();
+        handler = new HttpClientHandler(Options.defaultOptions()
+                .set(OPTION_MAX_CONNECTIONS, 64)
+                .set(OPTION_MAX_CONNECTIONS_PER_ROUTE, maxConnectionsPerRoute)
+                .set(OPTION_CONNECTION_REQUEST_TIMEOUT, Duration.duration("10 seconds"))
+                .set(OPTION_IDLE_CONNECTION_TIMEOUT, Duration.duration("30 seconds"))
+                .set(OPTION_LOADER, new Loader() {
+                    @Override
+                    public <S> S load(final Class<S> service, final Options options) {
+                        return service.cast(provider);
+                    }
+                }));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        final HttpClientMetrics metrics = handler.getMetrics();
+        logger.info("{} client, {} connections per route, pool: {}",
+                client, maxConnectionsPerRoute, metrics.getTotalStats());
+        for (final Map.Entry<String, LatencyHistogram> latency : metrics.getLatencies().entrySet()) {
+            logger.info("Route {}: {} p99.9: {}us", latency.getKey(), latency.getValue(),
+                    latency.getValue().getPercentile(99.9, MICROSECONDS));
+        }
+        handler.close();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int ping() throws Exception {
+        final Request request = new Request();
+        request.setMethod("GET");
+        request.setUri(uri);
+        try (Response response = handler.handle(new RootContext(), request).get()) {
+            return response.getEntity().getBytes().length;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HttpClientPoolBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
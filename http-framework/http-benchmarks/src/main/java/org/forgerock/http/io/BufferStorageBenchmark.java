@@ -0,0 +1,104 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.util.Factory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the buffers of the temporary storage with the pooled buffers, buffering then reading entities of the
+ * sizes of medium JSON bodies, as a server does for each request. Run with the GC profiler to compare the
+ * allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(8)
+public class BufferStorageBenchmark {
+
+    @Param({ "20480", "204800" })
+    private int entitySize;
+
+    private final Factory<Buffer> temporaryStorage = IO.newTemporaryStorage();
+    private final Factory<Buffer> pooledStorage = IO.newPooledStorage();
+
+    /** The entity is appended, then read, in the chunks used to stream it. */
+    private final byte[] chunk = new byte[8 * 1024];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) ('a' + i % 26);
+        }
+    }
+
+    @Benchmark
+    public int temporaryStorage() throws IOException {
+        return bufferAndRead(temporaryStorage);
+    }
+
+    @Benchmark
+    public int pooledStorage() throws IOException {
+        return bufferAndRead(pooledStorage);
+    }
+
+    private int bufferAndRead(final Factory<Buffer> storage) throws IOException {
+        final byte[] read = new byte[chunk.length];
+        try (Buffer buffer = storage.newInstance()) {
+            for (int appended = 0; appended < entitySize; appended += chunk.length) {
+                buffer.append(chunk, 0, Math.min(chunk.length, entitySize - appended));
+            }
+            int sum = 0;
+            int n;
+            for (int pos = 0; (n = buffer.read(pos, read, 0, read.length)) > 0; pos += n) {
+                sum += read[n - 1];
+            }
+            return sum;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BufferStorageBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.routing;
+
+import static org.forgerock.http.routing.RouteMatchers.requestUriMatcher;
+import static org.forgerock.http.routing.RoutingMode.EQUALS;
+import static org.forgerock.http.routing.RoutingMode.STARTS_WITH;
+
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.http.Handler;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.services.routing.DelegatingRouteMatcher;
+import org.forgerock.services.routing.RouteMatcher;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares route dispatch using the router's path index with a linear scan of
+ * all the routes. Wrapping the URI route matchers in a
+ * {@link DelegatingRouteMatcher} hides their URI template from the router,
+ * which then has to evaluate every route as it did before the index existed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+public class RouterBenchmark {
+
+    private static final Promise<Response, NeverThrowsException> OK_RESPONSE =
+            Response.newResponsePromise(new Response(Status.OK));
+
+    private static final Handler OK_HANDLER = new Handler() {
+        @Override
+        public Promise<Response, NeverThrowsException> handle(final Context context, final Request request) {
+            return OK_RESPONSE;
+        }
+    };
+
+    @Param({ "10", "100", "1000" })
+    private int routes;
+
+    private final Router indexedRouter = new Router();
+    private final Router linearRouter = new Router();
+    private final Context context = new RootContext();
+    private final Request collectionRequest = new Request();
+    private final Request instanceRequest = new Request();
+
+    @Setup
+    public void setup() throws Exception {
+        for (int i = 0; i < routes; i++) {
+            addRoute(requestUriMatcher(STARTS_WITH, "resource" + i));
+            addRoute(requestUriMatcher(EQUALS, "resource" + i + "/{id}"));
+        }
+        // Requests for the last registered routes.
+        collectionRequest.setUri("http://localhost:8080/resource" + (routes - 1) + "/1234/subresource");
+        instanceRequest.setUri("http://localhost:8080/resource" + (routes - 1) + "/1234");
+    }
+
+    private void addRoute(RouteMatcher<Request> matcher) {
+        indexedRouter.addRoute(matcher, OK_HANDLER);
+        linearRouter.addRoute(new DelegatingRouteMatcher<>(matcher), OK_HANDLER);
+    }
+
+    @Benchmark
+    public Promise<Response, NeverThrowsException> indexedStartsWith() {
+        return indexedRouter.handle(context, collectionRequest);
+    }
+
+    @Benchmark
+    public Promise<Response, NeverThrowsException> linearStartsWith() {
+        return linearRouter.handle(context, collectionRequest);
+    }
+
+    @Benchmark
+    public Promise<Response, NeverThrowsException> indexedEquals() {
+        return indexedRouter.handle(context, instanceRequest);
+    }
+
+    @Benchmark
+    public Promise<Response, NeverThrowsException> linearEquals() {
+        return linearRouter.handle(context, instanceRequest);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(RouterBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
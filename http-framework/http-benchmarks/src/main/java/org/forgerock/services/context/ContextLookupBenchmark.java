@@ -0,0 +1,152 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.services.context;
+
+import static org.forgerock.http.routing.UriRouterContext.uriRouterContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.http.routing.UriRouterContext;
+import org.forgerock.services.TransactionId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Builds the chain of contexts of a request going through a CHF server and the routers and request handlers of a
+ * CREST application, with the filters at each level looking up the contexts they need, as
+ * {@link Context#asContext} does and as walking the parent chain did.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ContextLookupBenchmark {
+
+    /** The contexts looked up by the filters at each level of the chain. */
+    private static final List<Class<? extends Context>> LOOKED_UP = Arrays.<Class<? extends Context>>asList(
+            TransactionIdContext.class, ClientContext.class, AttributesContext.class,
+            SecurityContext.class, UriRouterContext.class);
+
+    /** The number of contexts added to the root context. */
+    private static final int CHAIN_LENGTH = 14;
+
+    @Benchmark
+    public void asContext(Blackhole blackhole) {
+        Context context = new RootContext();
+        for (int level = 0; level < CHAIN_LENGTH; level++) {
+            context = child(context, level);
+            for (Class<? extends Context> type : LOOKED_UP) {
+                if (context.containsContext(type)) {
+                    blackhole.consume(context.asContext(type));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void walkParents(Blackhole blackhole) {
+        Context context = new RootContext();
+        for (int level = 0; level < CHAIN_LENGTH; level++) {
+            context = child(context, level);
+            for (Class<? extends Context> type : LOOKED_UP) {
+                if (walk(context, type) != null) {
+                    blackhole.consume(walk(context, type));
+                }
+            }
+        }
+    }
+
+    /** Creates the context added at the given level by the CHF server, filters and CREST routers. */
+    private static Context child(Context parent, int level) {
+        switch (level) {
+        case 0:
+            return new TransactionIdContext(parent, new TransactionId());
+        case 1:
+            return new RequestAuditContext(parent);
+        case 2:
+            return ClientContext.buildExternalClientContext(parent)
+                    .remoteAddress("192.0.2.1")
+                    .remotePort(443)
+                    .secure(true)
+                    .build();
+        case 3:
+            return new AttributesContext(parent);
+        case 4:
+            return uriRouterContext(parent).matchedUri("openidm").remainingUri("managed/user/0").build();
+        case 5:
+            return new SecurityContext(parent, "bjensen", Collections.<String, Object>singletonMap("id", "0"));
+        case 6:
+            return new ResourceContext(parent, "http");
+        case 7:
+            return uriRouterContext(parent).matchedUri("managed").remainingUri("user/0").build();
+        case 8:
+            return new ResourceContext(parent, "advice");
+        case 9:
+            return uriRouterContext(parent).matchedUri("user").remainingUri("0").build();
+        case 10:
+            return new ResourceContext(parent, "managedObject");
+        case 11:
+            return new AttributesContext(parent);
+        case 12:
+            return new ResourceContext(parent, "internal");
+        default:
+            return uriRouterContext(parent).matchedUri("0").remainingUri("").build();
+        }
+    }
+
+    /** Finds the nearest context of the type by walking the parent chain, as each lookup used to. */
+    private static Context walk(Context context, Class<? extends Context> type) {
+        for (Context c = context; c != null; c = c.getParent()) {
+            if (type.isAssignableFrom(c.getClass())) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    /** Stands for the contexts added by CREST, such as its HTTP and advice contexts. */
+    private static final class ResourceContext extends AbstractContext {
+        ResourceContext(Context parent, String name) {
+            super(parent, name);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ContextLookupBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.apache.async;
@@ -30,17 +31,21 @@ import org.apache.http.HttpException;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
 import org.apache.http.nio.ContentDecoder;
 import org.apache.http.nio.IOControl;
 import org.apache.http.nio.client.methods.HttpAsyncMethods;
 import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
 import org.apache.http.protocol.HttpContext;
 import org.forgerock.http.apache.AbstractHttpClient;
+import org.forgerock.http.apache.ConnectionPools;
 import org.forgerock.http.io.Buffer;
 import org.forgerock.http.io.PipeBufferedStream;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Status;
+import org.forgerock.http.spi.ConnectionPoolMonitor;
+import org.forgerock.http.spi.ConnectionPoolStats;
 import org.forgerock.util.Factory;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
@@ -52,21 +57,36 @@ import org.slf4j.MDC;
 /**
  * Apache HTTP Async Client based implementation.
  */
-public class AsyncHttpClient extends AbstractHttpClient {
+public class AsyncHttpClient extends AbstractHttpClient implements ConnectionPoolMonitor {
 
     private static final Logger logger = LoggerFactory.getLogger(AsyncHttpClient.class);
 
     private final CloseableHttpAsyncClient client;
+    private final PoolingNHttpClientConnectionManager manager;
+    private final IdleConnectionEvictor evictor;
     private final Factory<Buffer> storage;
     private final CloseableBufferFactory<ByteBuffer> bufferFactory;
 
-    AsyncHttpClient(final CloseableHttpAsyncClient client, final Factory<Buffer> storage, final int threadCount) {
+    AsyncHttpClient(final CloseableHttpAsyncClient client, final PoolingNHttpClientConnectionManager manager,
+            final IdleConnectionEvictor evictor, final Factory<Buffer> storage, final int threadCount) {
         // Client should already be started
         this.client = client;
+        this.manager = manager;
+        this.evictor = evictor;
         this.storage = storage;
         this.bufferFactory = closeableByteBufferFactory(threadCount, 8 * 1_024);
     }
 
+    @Override
+    public ConnectionPoolStats getTotalStats() {
+        return ConnectionPools.getTotalStats(manager);
+    }
+
+    @Override
+    public Map<String, ConnectionPoolStats> getRouteStats() {
+        return ConnectionPools.getRouteStats(manager, manager.getRoutes());
+    }
+
     @Override
     public Promise<Response, NeverThrowsException> sendAsync(final Request request) {
 
@@ -93,6 +113,9 @@ public class AsyncHttpClient extends AbstractHttpClient {
 
     @Override
     public void close() throws IOException {
+        if (evictor != null) {
+            evictor.close();
+        }
         client.close();
     }
 
@@ -12,15 +12,18 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.apache.async;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_CONNECTION_REQUEST_TIMEOUT;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_CONNECTION_TIME_TO_LIVE;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_CONNECT_TIMEOUT;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_HOSTNAME_VERIFIER;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_IDLE_CONNECTION_TIMEOUT;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_KEY_MANAGERS;
-import static org.forgerock.http.handler.HttpClientHandler.OPTION_MAX_CONNECTIONS;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_REUSE_CONNECTIONS;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_SO_TIMEOUT;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_SSLCONTEXT_ALGORITHM;
@@ -40,6 +43,7 @@ import org.apache.http.HttpRequest;
 import org.apache.http.HttpResponse;
 import org.apache.http.ProtocolException;
 import org.apache.http.client.RedirectStrategy;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
@@ -59,6 +63,7 @@ import org.apache.http.nio.reactor.ConnectingIOReactor;
 import org.apache.http.nio.reactor.IOReactorException;
 import org.apache.http.protocol.HttpContext;
 import org.forgerock.http.HttpApplicationException;
+import org.forgerock.http.apache.ConnectionPools;
 import org.forgerock.http.apache.NoAuthenticationStrategy;
 import org.forgerock.http.io.Buffer;
 import org.forgerock.http.spi.HttpClient;
@@ -134,7 +139,7 @@ public class AsyncHttpClientProvider implements HttpClientProvider {
         // Timeouts
         final Duration soTimeout = options.get(OPTION_SO_TIMEOUT);
         final Duration connectTimeout = options.get(OPTION_CONNECT_TIMEOUT);
-        // FIXME GSA Can we support requestConnectTimeout ?
+        final Duration connectionRequestTimeout = options.get(OPTION_CONNECTION_REQUEST_TIMEOUT);
 
         // Create I/O reactor configuration
         IOReactorConfig.Builder reactorBuilder = IOReactorConfig.custom();
@@ -160,12 +165,12 @@ public class AsyncHttpClientProvider implements HttpClientProvider {
         }
 
         // Create a connection manager with custom configuration.
-        PoolingNHttpClientConnectionManager manager = new PoolingNHttpClientConnectionManager(reactor, registry);
+        final Duration timeToLive = options.get(OPTION_CONNECTION_TIME_TO_LIVE);
+        PoolingNHttpClientConnectionManager manager = new PoolingNHttpClientConnectionManager(reactor, null,
+                registry, null, null, timeToLive.isUnlimited() ? -1 : timeToLive.to(MILLISECONDS), MILLISECONDS);
 
         // Connection pooling
-        final int maxConnections = options.get(OPTION_MAX_CONNECTIONS);
-        manager.setMaxTotal(maxConnections);
-        manager.setDefaultMaxPerRoute(maxConnections);
+        ConnectionPools.setLimits(manager, options);
 
         // FIXME GSA Couldn't find how to configure retries in async http client
         //if (!options.get(OPTION_RETRY_REQUESTS)) {
@@ -178,6 +183,11 @@ public class AsyncHttpClientProvider implements HttpClientProvider {
         if (!options.get(OPTION_REUSE_CONNECTIONS)) {
             builder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE);
         }
+        builder.setKeepAliveStrategy(ConnectionPools.newKeepAliveStrategy(options));
+        builder.setDefaultRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(connectionRequestTimeout.isUnlimited() ? 0
+                        : (int) connectionRequestTimeout.to(MILLISECONDS))
+                .build());
 
         // TODO Uncomment when we'll have a user-agent Option
         // builder.setUserAgent("CHF/1.0");
@@ -189,6 +199,14 @@ public class AsyncHttpClientProvider implements HttpClientProvider {
                 .setProxyAuthenticationStrategy(NoAuthenticationStrategy.INSTANCE)
                 .build();
         client.start();
-        return new AsyncHttpClient(client, storage, ioReactorConfig.getIoThreadCount());
+
+        // The async client has no built-in eviction of the idle connections
+        IdleConnectionEvictor evictor = null;
+        final Duration idleTimeout = options.get(OPTION_IDLE_CONNECTION_TIMEOUT);
+        if (!idleTimeout.isUnlimited()) {
+            evictor = new IdleConnectionEvictor(manager, idleTimeout.to(MILLISECONDS));
+            evictor.start();
+        }
+        return new AsyncHttpClient(client, manager, evictor, storage, ioReactorConfig.getIoThreadCount());
     }
 }
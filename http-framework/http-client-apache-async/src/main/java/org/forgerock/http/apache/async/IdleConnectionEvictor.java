@@ -0,0 +1,85 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.apache.async;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Periodically closes the expired connections of a pool, and those idle for
+ * longer than a maximum time, as the synchronous client builder does with
+ * {@code evictIdleConnections}.
+ */
+final class IdleConnectionEvictor implements Runnable, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdleConnectionEvictor.class);
+
+    private final PoolingNHttpClientConnectionManager manager;
+    private final long maxIdleTime;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Creates an evictor of the connections of the provided pool.
+     *
+     * @param manager
+     *            The connection pool.
+     * @param maxIdleTime
+     *            The time in milliseconds after which an idle connection is
+     *            closed.
+     */
+    IdleConnectionEvictor(final PoolingNHttpClientConnectionManager manager, final long maxIdleTime) {
+        this.manager = manager;
+        this.maxIdleTime = maxIdleTime;
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                final Thread thread = new Thread(runnable, "CHF idle connection evictor");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /** Starts checking the connections, at the maximum idle time interval. */
+    void start() {
+        executor.scheduleWithFixedDelay(this, maxIdleTime, maxIdleTime, MILLISECONDS);
+    }
+
+    @Override
+    public void run() {
+        try {
+            manager.closeExpiredConnections();
+            manager.closeIdleConnections(maxIdleTime, MILLISECONDS);
+        } catch (RuntimeException e) {
+            // Keep the task scheduled
+            logger.warn("Unable to close the idle connections", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
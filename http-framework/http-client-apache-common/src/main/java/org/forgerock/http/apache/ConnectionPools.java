@@ -0,0 +1,142 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.apache;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_KEEP_ALIVE_TIMEOUT;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_MAX_CONNECTIONS;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_MAX_CONNECTIONS_BY_ROUTE;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_MAX_CONNECTIONS_PER_ROUTE;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.forgerock.http.spi.ConnectionPoolStats;
+import org.forgerock.util.Options;
+import org.forgerock.util.time.Duration;
+
+/**
+ * Configures the connection pools of the Apache HttpClient (synchronous and
+ * asynchronous) implementations from the
+ * {@link org.forgerock.http.handler.HttpClientHandler} options, and reads
+ * their state back for {@link org.forgerock.http.spi.ConnectionPoolMonitor}.
+ */
+public final class ConnectionPools {
+
+    private ConnectionPools() {
+        // Utility class
+    }
+
+    /**
+     * Sets the maximum number of connections of the pool, in total and by
+     * route, as specified by the options.
+     *
+     * @param pool
+     *            The connection pool to configure.
+     * @param options
+     *            The options of the client.
+     */
+    public static void setLimits(final ConnPoolControl<HttpRoute> pool, final Options options) {
+        final int maxConnections = options.get(OPTION_MAX_CONNECTIONS);
+        final Integer maxConnectionsPerRoute = options.get(OPTION_MAX_CONNECTIONS_PER_ROUTE);
+        pool.setMaxTotal(maxConnections);
+        pool.setDefaultMaxPerRoute(maxConnectionsPerRoute != null ? maxConnectionsPerRoute : maxConnections);
+        for (final Map.Entry<String, Integer> route : options.get(OPTION_MAX_CONNECTIONS_BY_ROUTE).entrySet()) {
+            pool.setMaxPerRoute(toRoute(route.getKey()), route.getValue());
+        }
+    }
+
+    /**
+     * Returns the strategy keeping connections alive as long as the server
+     * advertises, within the limit specified by the options.
+     *
+     * @param options
+     *            The options of the client.
+     * @return The keep-alive strategy.
+     */
+    public static ConnectionKeepAliveStrategy newKeepAliveStrategy(final Options options) {
+        final Duration keepAliveTimeout = options.get(OPTION_KEEP_ALIVE_TIMEOUT);
+        if (keepAliveTimeout.isUnlimited()) {
+            return DefaultConnectionKeepAliveStrategy.INSTANCE;
+        }
+        final long maxKeepAlive = keepAliveTimeout.to(MILLISECONDS);
+        return new ConnectionKeepAliveStrategy() {
+            @Override
+            public long getKeepAliveDuration(final HttpResponse response, final HttpContext context) {
+                // A negative duration means that the server does not limit it
+                final long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response,
+                        context);
+                return keepAlive >= 0 ? Math.min(keepAlive, maxKeepAlive) : maxKeepAlive;
+            }
+        };
+    }
+
+    /**
+     * Returns the state of all the connections of the pool.
+     *
+     * @param pool
+     *            The connection pool.
+     * @return The state of the pool.
+     */
+    public static ConnectionPoolStats getTotalStats(final ConnPoolControl<HttpRoute> pool) {
+        return toStats(pool.getTotalStats());
+    }
+
+    /**
+     * Returns the state of the connections of the pool to each of the routes.
+     *
+     * @param pool
+     *            The connection pool.
+     * @param routes
+     *            The routes of the connections of the pool.
+     * @return The state of the connections to each route, keyed by route.
+     */
+    public static Map<String, ConnectionPoolStats> getRouteStats(final ConnPoolControl<HttpRoute> pool,
+            final Set<HttpRoute> routes) {
+        final Map<String, ConnectionPoolStats> stats = new TreeMap<>();
+        for (final HttpRoute route : routes) {
+            stats.put(toKey(route), toStats(pool.getStats(route)));
+        }
+        return stats;
+    }
+
+    /** Returns the direct route to the target specified by its URI, such as {@code "https://idp.example.com"}. */
+    static HttpRoute toRoute(final String target) {
+        final HttpHost host = HttpHost.create(target);
+        return new HttpRoute(host, null, "https".equalsIgnoreCase(host.getSchemeName()));
+    }
+
+    /** Returns the key of the route, such as {@code "https://idp.example.com:443"}. */
+    static String toKey(final HttpRoute route) {
+        final HttpHost target = route.getTargetHost();
+        return target.getSchemeName() + "://" + target.getHostName().toLowerCase(Locale.ROOT) + ":" + target.getPort();
+    }
+
+    private static ConnectionPoolStats toStats(final PoolStats stats) {
+        return new ConnectionPoolStats(stats.getLeased(), stats.getPending(), stats.getAvailable(), stats.getMax());
+    }
+}
@@ -14,6 +14,7 @@
  * Copyright 2009 Sun Microsystems Inc.
  * Portions Copyright 2010–2011 ApexIdentity Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.apache.sync;
@@ -22,15 +23,20 @@ import static org.forgerock.http.io.IO.newBranchingInputStream;
 import static org.forgerock.util.promise.Promises.newResultPromise;
 
 import java.io.IOException;
+import java.util.Map;
 
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.forgerock.http.apache.AbstractHttpClient;
+import org.forgerock.http.apache.ConnectionPools;
 import org.forgerock.http.io.Buffer;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Status;
+import org.forgerock.http.spi.ConnectionPoolMonitor;
+import org.forgerock.http.spi.ConnectionPoolStats;
 import org.forgerock.util.Factory;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
@@ -40,19 +46,32 @@ import org.slf4j.LoggerFactory;
 /**
  * Apache HTTP Client implementation.
  */
-final class SyncHttpClient extends AbstractHttpClient {
+final class SyncHttpClient extends AbstractHttpClient implements ConnectionPoolMonitor {
 
     private static final Logger logger = LoggerFactory.getLogger(SyncHttpClient.class);
 
     /** The Apache HTTP client to transmit requests through. */
     private final CloseableHttpClient httpClient;
+    private final PoolingHttpClientConnectionManager manager;
     private final Factory<Buffer> storage;
 
-    SyncHttpClient(final CloseableHttpClient httpClient, final Factory<Buffer> storage) {
+    SyncHttpClient(final CloseableHttpClient httpClient, final PoolingHttpClientConnectionManager manager,
+            final Factory<Buffer> storage) {
         this.httpClient = httpClient;
+        this.manager = manager;
         this.storage = storage;
     }
 
+    @Override
+    public ConnectionPoolStats getTotalStats() {
+        return ConnectionPools.getTotalStats(manager);
+    }
+
+    @Override
+    public Map<String, ConnectionPoolStats> getRouteStats() {
+        return ConnectionPools.getRouteStats(manager, manager.getRoutes());
+    }
+
     @Override
     public void close() throws IOException {
         httpClient.close();
@@ -14,15 +14,18 @@
  * Copyright 2009 Sun Microsystems Inc.
  * Portions Copyright 2010–2011 ApexIdentity Inc.
  * Portions Copyright 2011-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.apache.sync;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_CONNECTION_REQUEST_TIMEOUT;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_CONNECTION_TIME_TO_LIVE;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_CONNECT_TIMEOUT;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_HOSTNAME_VERIFIER;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_KEY_MANAGERS;
-import static org.forgerock.http.handler.HttpClientHandler.OPTION_MAX_CONNECTIONS;
+import static org.forgerock.http.handler.HttpClientHandler.OPTION_IDLE_CONNECTION_TIMEOUT;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_RETRY_REQUESTS;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_REUSE_CONNECTIONS;
 import static org.forgerock.http.handler.HttpClientHandler.OPTION_SO_TIMEOUT;
@@ -40,12 +43,18 @@ import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.SSLContext;
 
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.impl.NoConnectionReuseStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.forgerock.http.HttpApplicationException;
+import org.forgerock.http.apache.ConnectionPools;
 import org.forgerock.http.apache.NoAuthenticationStrategy;
 import org.forgerock.http.io.Buffer;
 import org.forgerock.http.spi.HttpClient;
@@ -65,13 +74,10 @@ public final class SyncHttpClientProvider implements HttpClientProvider {
 
         final HttpClientBuilder builder = HttpClientBuilder.create();
 
-        // Connection pooling.
-        final int maxConnections = options.get(OPTION_MAX_CONNECTIONS);
-        builder.setMaxConnTotal(maxConnections);
-        builder.setMaxConnPerRoute(maxConnections);
         if (!options.get(OPTION_REUSE_CONNECTIONS)) {
             builder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE);
         }
+        builder.setKeepAliveStrategy(ConnectionPools.newKeepAliveStrategy(options));
         if (!options.get(OPTION_RETRY_REQUESTS)) {
             builder.disableAutomaticRetries();
         }
@@ -84,6 +90,9 @@ public final class SyncHttpClientProvider implements HttpClientProvider {
         final Duration connectTimeout = options.get(OPTION_CONNECT_TIMEOUT);
         requestConfigBuilder.setConnectTimeout(connectTimeout.isUnlimited() ? 0
                 : (int) connectTimeout.to(MILLISECONDS));
+        final Duration connectionRequestTimeout = options.get(OPTION_CONNECTION_REQUEST_TIMEOUT);
+        requestConfigBuilder.setConnectionRequestTimeout(connectionRequestTimeout.isUnlimited() ? 0
+                : (int) connectionRequestTimeout.to(MILLISECONDS));
         builder.setDefaultRequestConfig(requestConfigBuilder.build());
 
         // FIXME: where is this setting in HttpClient 4.x?
@@ -113,14 +122,30 @@ public final class SyncHttpClientProvider implements HttpClientProvider {
         List<String> protocols = options.get(OPTION_SSL_ENABLED_PROTOCOLS);
         List<String> ciphers = options.get(OPTION_SSL_CIPHER_SUITES);
 
-        builder.setSSLSocketFactory(new SSLConnectionSocketFactory(context, asArrayOrNull(protocols),
-                asArrayOrNull(ciphers), hostnameVerifier));
+        final Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", new SSLConnectionSocketFactory(context, asArrayOrNull(protocols),
+                        asArrayOrNull(ciphers), hostnameVerifier))
+                .build();
+
+        // Connection pooling.
+        final Duration timeToLive = options.get(OPTION_CONNECTION_TIME_TO_LIVE);
+        final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry, null,
+                null, null, timeToLive.isUnlimited() ? -1 : timeToLive.to(MILLISECONDS), MILLISECONDS);
+        ConnectionPools.setLimits(manager, options);
+        builder.setConnectionManager(manager);
+        final Duration idleTimeout = options.get(OPTION_IDLE_CONNECTION_TIMEOUT);
+        if (!idleTimeout.isUnlimited()) {
+            // Closes the idle and expired connections in the background
+            builder.evictIdleConnections(idleTimeout.to(MILLISECONDS), MILLISECONDS);
+            builder.evictExpiredConnections();
+        }
 
         // FIXME: is this equivalent to original OpenIG config?
         builder.disableCookieManagement();
         builder.setProxyAuthenticationStrategy(NoAuthenticationStrategy.INSTANCE);
         builder.setTargetAuthenticationStrategy(NoAuthenticationStrategy.INSTANCE);
 
-        return new SyncHttpClient(builder.build(), storage);
+        return new SyncHttpClient(builder.build(), manager, storage);
     }
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.handler;
@@ -28,6 +29,8 @@ import static com.xebialabs.restito.semantics.Condition.withPostBodyContaining;
 import static java.lang.String.format;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.concurrent.TimeUnit;
+
 import org.forgerock.http.HttpApplicationException;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
@@ -153,6 +156,32 @@ public abstract class HttpClientHandlerTest {
         }
     }
 
+    /**
+     * Ensure that the latencies of the requests and the state of the connection pool are exposed.
+     * @throws Exception In case of failure.
+     */
+    @Test
+    public void shouldExposeMetrics() throws Exception {
+        whenHttp(server).match(post("/ping"))
+                .then(composite(ok(), stringContent("Pong")));
+
+        try (HttpClientHandler handler = buildHttpClientHandler()) {
+            Request request = new Request();
+            request.setMethod("POST");
+            request.setUri(format("http://localhost:%d/ping", server.getPort()));
+            Response response = handler.handle(new RootContext(), request).get();
+            assertThat(response.getEntity().getString()).isEqualTo("Pong");
+
+            final String route = format("http://localhost:%d", server.getPort());
+            final HttpClientMetrics metrics = handler.getMetrics();
+            assertThat(metrics.getLatencies()).containsOnlyKeys(route);
+            assertThat(metrics.getLatencies().get(route).getCount()).isEqualTo(1);
+            assertThat(metrics.getLatencies().get(route).getMean(TimeUnit.NANOSECONDS)).isPositive();
+            assertThat(metrics.getTotalStats()).isNotNull();
+            assertThat(metrics.getRouteStats()).containsKey(route);
+        }
+    }
+
     /**
      *  Instantiates the expected HttpClientHandler to test.
      *  @return the expected HttpClientHandler to test.
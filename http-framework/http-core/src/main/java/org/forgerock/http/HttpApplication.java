@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.http;
 
@@ -46,7 +47,9 @@ public interface HttpApplication {
      * {@link Buffer}s to handle the processing of requests.
      *
      * <p>May return {@code null} indicating that the container should provide
-     * a default buffer factory.</p>
+     * a default buffer factory. Applications handling many requests with
+     * medium-sized entities may return {@link org.forgerock.http.io.IO#newPooledStorage()}
+     * to reuse the memory of the buffers across requests.</p>
      *
      * @return A {@code Buffer} {@code Factory} or {@code null}.
      */
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.filter;
@@ -70,6 +71,17 @@ public final class Filters {
         return new SessionFilter(sessionManager);
     }
 
+    /**
+     * Creates a {@link Filter} which serves byte ranges of the file entities
+     * of the responses to GET requests.
+     *
+     * @return A range {@code Filter}.
+     * @see RangeFilter
+     */
+    public static Filter newRangeFilter() {
+        return new RangeFilter();
+    }
+
     /**
      * Creates a {@link Filter} which encapsulates the provided {@literal filters}
      * into a single {@code Filter}.
@@ -0,0 +1,139 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.filter;
+
+import static org.forgerock.http.header.HeaderUtil.parseDate;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+import org.forgerock.http.Filter;
+import org.forgerock.http.Handler;
+import org.forgerock.http.header.ContentLengthHeader;
+import org.forgerock.http.header.ContentRangeHeader;
+import org.forgerock.http.header.RangeHeader;
+import org.forgerock.http.header.RangeHeader.ByteRange;
+import org.forgerock.http.io.FileBranchingStream;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.Function;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link Filter} which serves byte ranges of the file entities of the
+ * responses to GET requests, as specified in
+ * <a href="https://tools.ietf.org/html/rfc7233">RFC 7233</a>.
+ * <p>
+ * The filter only applies to successful responses whose entity was set with
+ * {@link org.forgerock.http.protocol.Entity#setFile(java.io.File)}: such a
+ * response advertises {@code Accept-Ranges: bytes}, and a request for a
+ * single satisfiable byte range receives a {@link Status#PARTIAL_CONTENT}
+ * response enclosing that region of the file, which the server adapters
+ * still send without copying it through the heap. Requests for several ranges
+ * are answered with the whole representation, rather than a
+ * {@code multipart/byteranges} payload, as RFC 7233 allows.
+ */
+public final class RangeFilter implements Filter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RangeFilter.class);
+
+    /** The name of the header advertising the support of range requests. */
+    public static final String ACCEPT_RANGES = "Accept-Ranges";
+
+    /** The name of the header making a range request conditional. */
+    public static final String IF_RANGE = "If-Range";
+
+    RangeFilter() {
+        // Use Filters.newRangeFilter()
+    }
+
+    @Override
+    public Promise<Response, NeverThrowsException> filter(final Context context, final Request request,
+            final Handler next) {
+        if (!"GET".equals(request.getMethod())) {
+            return next.handle(context, request);
+        }
+        final RangeHeader range = RangeHeader.valueOf(request);
+        final String ifRange = request.getHeaders().getFirst(IF_RANGE);
+        return next.handle(context, request).then(new Function<Response, Response, NeverThrowsException>() {
+            @Override
+            public Response apply(final Response response) {
+                if (!Status.OK.equals(response.getStatus())
+                        || !(response.getEntity().getRawContentInputStream() instanceof FileBranchingStream)) {
+                    return response;
+                }
+                response.getHeaders().put(ACCEPT_RANGES, RangeHeader.BYTES);
+                final List<ByteRange> ranges = range.getRanges();
+                if (ranges.size() != 1 || !isCurrent(ifRange, response)) {
+                    return response;
+                }
+                return serveRange(response, ranges.get(0));
+            }
+        });
+    }
+
+    private static Response serveRange(final Response response, final ByteRange range) {
+        final FileBranchingStream content = (FileBranchingStream) response.getEntity().getRawContentInputStream();
+        final long length = content.getRemaining();
+        if (!range.isSatisfiable(length)) {
+            response.getEntity().setEmpty();
+            response.getHeaders().put(ContentLengthHeader.NAME, 0);
+            response.setStatus(Status.RANGE_NOT_SATISFIABLE);
+            response.getHeaders().put(new ContentRangeHeader(length));
+            return response;
+        }
+        final long first = range.getFirst(length);
+        final long last = range.getLast(length);
+        try {
+            response.getEntity().setFile(content.getFile(), content.getPosition() + first, last - first + 1);
+        } catch (IOException e) {
+            logger.debug("Unable to open the range of {}, serving the whole file", content.getFile(), e);
+            return response;
+        }
+        response.setStatus(Status.PARTIAL_CONTENT);
+        response.getHeaders().put(new ContentRangeHeader(first, last, length));
+        return response;
+    }
+
+    /**
+     * Returns {@code true} if the representation matches the validator of the
+     * {@code If-Range} header, or if there is no such header: a strong entity
+     * tag must be the same as the {@code ETag} of the response, and a date the
+     * same as its {@code Last-Modified} date.
+     */
+    private static boolean isCurrent(final String ifRange, final Response response) {
+        if (ifRange == null) {
+            return true;
+        }
+        final String validator = ifRange.trim();
+        if (validator.startsWith("\"")) {
+            return validator.equals(response.getHeaders().getFirst("ETag"));
+        } else if (validator.startsWith("W/")) {
+            // Weak entity tags never match for If-Range
+            return false;
+        }
+        final Date date = parseDate(validator);
+        final String lastModified = response.getHeaders().getFirst("Last-Modified");
+        return date != null && lastModified != null && date.equals(parseDate(lastModified));
+    }
+}
@@ -12,16 +12,19 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.handler;
 
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.forgerock.util.time.Duration.duration;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.TrustManager;
@@ -33,6 +36,7 @@ import org.forgerock.http.io.Buffer;
 import org.forgerock.http.io.IO;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
+import org.forgerock.http.spi.ConnectionPoolMonitor;
 import org.forgerock.http.spi.HttpClient;
 import org.forgerock.http.spi.HttpClientProvider;
 import org.forgerock.http.spi.Loader;
@@ -42,6 +46,7 @@ import org.forgerock.util.Options;
 import org.forgerock.util.Reject;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.ResultHandler;
 import org.forgerock.util.time.Duration;
 
 /**
@@ -94,9 +99,61 @@ public final class HttpClientHandler implements Handler, Closeable {
      */
     public static final Option<Integer> OPTION_MAX_CONNECTIONS = Option.withDefault(64);
 
+    /**
+     * Specifies the maximum number of connections that should be pooled by the
+     * HTTP client for each route, that is each target scheme, host and port.
+     * By default a single route may use all of the
+     * {@link #OPTION_MAX_CONNECTIONS maximum number of connections}.
+     */
+    public static final Option<Integer> OPTION_MAX_CONNECTIONS_PER_ROUTE = Option.of(Integer.class, null);
+
+    /**
+     * Specifies the maximum number of connections that should be pooled by the
+     * HTTP client for specific routes, overriding
+     * {@link #OPTION_MAX_CONNECTIONS_PER_ROUTE}, so that the requests to a
+     * slow server cannot lease all the connections of the pool. The routes are
+     * keyed by their target, such as {@code "https://idp.example.com:443"}:
+     * the port may be omitted when it is the default port of the scheme.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static final Option<Map<String, Integer>> OPTION_MAX_CONNECTIONS_BY_ROUTE = (Option) Option.of(
+            Map.class, Collections.<String, Integer>emptyMap());
+
+    /**
+     * Specifies how long a request may wait for a connection to be leased from
+     * the pool, when all the connections it may use are executing requests,
+     * before it fails. By default requests wait indefinitely.
+     */
+    public static final Option<Duration> OPTION_CONNECTION_REQUEST_TIMEOUT = Option.withDefault(Duration.UNLIMITED);
+
+    /**
+     * Specifies the maximum lifetime of the pooled connections, after which
+     * they are no longer reused, for instance so that the changes of the
+     * addresses of a server behind a load balancer are picked up. By default
+     * the lifetime of connections is unlimited.
+     */
+    public static final Option<Duration> OPTION_CONNECTION_TIME_TO_LIVE = Option.withDefault(Duration.UNLIMITED);
+
+    /**
+     * Specifies how long an idle connection is kept alive for reuse when the
+     * server does not advertise a shorter {@code Keep-Alive} timeout. By
+     * default connections are kept alive until the server closes them.
+     */
+    public static final Option<Duration> OPTION_KEEP_ALIVE_TIMEOUT = Option.withDefault(Duration.UNLIMITED);
+
+    /**
+     * Specifies how long a connection may stay idle in the pool before it is
+     * closed by a background task, which also closes the expired connections.
+     * By default idle connections are only closed, once expired, when they
+     * would have been leased.
+     */
+    public static final Option<Duration> OPTION_IDLE_CONNECTION_TIMEOUT = Option.withDefault(Duration.UNLIMITED);
+
     /**
      * Specifies the temporary storage that should be used for storing HTTP
-     * responses. By default {@link IO#newTemporaryStorage()} is used.
+     * responses. By default {@link IO#newTemporaryStorage()} is used:
+     * {@link IO#newPooledStorage()} may be used instead to reuse the memory of
+     * the buffers across responses.
      */
     @SuppressWarnings({ "unchecked", "rawtypes" })
     public static final Option<Factory<Buffer>> OPTION_TEMPORARY_STORAGE = (Option) Option.of(
@@ -111,6 +168,9 @@ public final class HttpClientHandler implements Handler, Closeable {
     /** The client implementation. */
     private final HttpClient httpClient;
 
+    /** The metrics of the client. */
+    private final HttpClientMetrics metrics;
+
     /**
      * SSL host name verification policies.
      */
@@ -192,6 +252,18 @@ public final class HttpClientHandler implements Handler, Closeable {
             throw new HttpApplicationException("No HTTP client provider found");
         }
         this.httpClient = factory.newHttpClient(options);
+        this.metrics = new HttpClientMetrics(
+                httpClient instanceof ConnectionPoolMonitor ? (ConnectionPoolMonitor) httpClient : null);
+    }
+
+    /**
+     * Returns the metrics of this client: the state of its connection pool,
+     * and the latencies of its requests by route.
+     *
+     * @return The metrics of this client.
+     */
+    public HttpClientMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -214,6 +286,13 @@ public final class HttpClientHandler implements Handler, Closeable {
      */
     @Override
     public Promise<Response, NeverThrowsException> handle(Context context, Request request) {
-        return httpClient.sendAsync(request);
+        final LatencyHistogram latency = metrics.latency(request.getUri());
+        final long start = System.nanoTime();
+        return httpClient.sendAsync(request).thenOnResult(new ResultHandler<Response>() {
+            @Override
+            public void handleResult(Response response) {
+                latency.record(System.nanoTime() - start, NANOSECONDS);
+            }
+        });
     }
 }
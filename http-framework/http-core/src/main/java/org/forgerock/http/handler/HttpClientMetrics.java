@@ -0,0 +1,120 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.handler;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.forgerock.http.MutableUri;
+import org.forgerock.http.spi.ConnectionPoolMonitor;
+import org.forgerock.http.spi.ConnectionPoolStats;
+
+/**
+ * The metrics of an {@link HttpClientHandler}: the state of its connection
+ * pool, when its client implementation exposes it, and the latencies of its
+ * requests by route.
+ * <p>
+ * Routes are identified by the scheme, host name in lower case and port of
+ * their target: {@code "https://idp.example.com:443"}. The latencies of the
+ * requests to many different routes are tracked separately for the first 256
+ * routes only, then together under {@link #OTHER_ROUTES}.
+ */
+public final class HttpClientMetrics {
+
+    /**
+     * The route under which the latencies of the requests to further routes
+     * are recorded, once {@link #MAX_ROUTES} routes are tracked.
+     */
+    public static final String OTHER_ROUTES = "*";
+
+    /** The maximum number of routes whose latencies are tracked separately. */
+    private static final int MAX_ROUTES = 256;
+
+    private final ConnectionPoolMonitor monitor;
+    private final ConcurrentMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    HttpClientMetrics(final ConnectionPoolMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    /**
+     * Returns the state of all the connections of the pool, or {@code null}
+     * if the client implementation does not expose its connection pool.
+     *
+     * @return The state of the pool, or {@code null}.
+     */
+    public ConnectionPoolStats getTotalStats() {
+        return monitor != null ? monitor.getTotalStats() : null;
+    }
+
+    /**
+     * Returns the state of the connections of the pool to each route which
+     * has been used, or an empty map if the client implementation does not
+     * expose its connection pool.
+     *
+     * @return The state of the connections to each route, keyed by route.
+     */
+    public Map<String, ConnectionPoolStats> getRouteStats() {
+        return monitor != null ? monitor.getRouteStats() : Collections.<String, ConnectionPoolStats>emptyMap();
+    }
+
+    /**
+     * Returns the latencies of the requests to each route, from the time they
+     * are sent to the time their response is received.
+     *
+     * @return An unmodifiable view of the latencies of the requests, keyed by
+     *         route.
+     */
+    public Map<String, LatencyHistogram> getLatencies() {
+        return Collections.unmodifiableMap(latencies);
+    }
+
+    /**
+     * Returns the histogram of the latencies of the requests to the route of
+     * the specified URI, creating it for the first request to that route.
+     */
+    LatencyHistogram latency(final MutableUri uri) {
+        String route = route(uri);
+        LatencyHistogram latency = latencies.get(route);
+        if (latency != null) {
+            return latency;
+        }
+        if (latencies.size() >= MAX_ROUTES) {
+            route = OTHER_ROUTES;
+            latency = latencies.get(route);
+            if (latency != null) {
+                return latency;
+            }
+        }
+        final LatencyHistogram created = new LatencyHistogram();
+        final LatencyHistogram existing = latencies.putIfAbsent(route, created);
+        return existing != null ? existing : created;
+    }
+
+    private static String route(final MutableUri uri) {
+        final String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "http";
+        final String host = uri.getHost() != null ? uri.getHost().toLowerCase(Locale.ROOT) : "";
+        int port = uri.getPort();
+        if (port < 0) {
+            port = "https".equals(scheme) ? 443 : 80;
+        }
+        return scheme + "://" + host + ":" + port;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.handler;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.forgerock.util.Reject;
+
+/**
+ * A histogram of latencies, counted in buckets whose bounds double from one
+ * microsecond: percentiles are estimated by the upper bound of their bucket,
+ * so within a factor of two, which is enough to tell a saturated route from a
+ * healthy one at a constant cost per recording.
+ * <p>
+ * This class is thread-safe, and recording does not lock.
+ */
+public final class LatencyHistogram {
+
+    /** Bucket {@code i > 0} counts the latencies of {@code 2^(i-1)} to {@code 2^i - 1} microseconds. */
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param latency
+     *            The latency, which must not be negative.
+     * @param unit
+     *            The unit of the latency.
+     */
+    public void record(final long latency, final TimeUnit unit) {
+        final long micros = unit.toMicros(latency);
+        Reject.ifTrue(micros < 0, "The latency must not be negative");
+        counts.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+        totalMicros.addAndGet(micros);
+        count.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     *
+     * @return The number of latencies recorded.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the mean of the latencies recorded, or 0 if none has been.
+     *
+     * @param unit
+     *            The unit of the mean returned.
+     * @return The mean latency.
+     */
+    public long getMean(final TimeUnit unit) {
+        final long n = count.get();
+        return n == 0 ? 0 : unit.convert(totalMicros.get() / n, MICROSECONDS);
+    }
+
+    /**
+     * Returns an upper bound of the given percentile of the latencies
+     * recorded, or 0 if none has been: the upper bound of the bucket in which
+     * the percentile falls.
+     *
+     * @param percentile
+     *            The percentile, between 0 excluded and 100 included, for
+     *            instance 99 for the latency that 99% of the requests do not
+     *            exceed.
+     * @param unit
+     *            The unit of the latency returned.
+     * @return The upper bound of the percentile.
+     */
+    public long getPercentile(final double percentile, final TimeUnit unit) {
+        Reject.ifTrue(percentile <= 0 || percentile > 100, "The percentile must be in ]0, 100]");
+        final long[] snapshot = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        final long rank = (long) Math.ceil(n * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && seen > 0) {
+                return unit.convert(upperBound(i), NANOSECONDS);
+            }
+        }
+        return 0;
+    }
+
+    /** Returns the upper bound, in nanoseconds, of the latencies counted in the specified bucket. */
+    private static long upperBound(final int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : MICROSECONDS.toNanos((1L << bucket) - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "[count: " + getCount()
+                + "; mean: " + getMean(MICROSECONDS) + "us"
+                + "; p50: " + getPercentile(50, MICROSECONDS) + "us"
+                + "; p99: " + getPercentile(99, MICROSECONDS) + "us]";
+    }
+}
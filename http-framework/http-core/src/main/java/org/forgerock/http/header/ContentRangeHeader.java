@@ -0,0 +1,210 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.header;
+
+import static java.util.Collections.*;
+import static org.forgerock.http.header.HeaderUtil.*;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.forgerock.http.protocol.Header;
+import org.forgerock.http.protocol.Message;
+
+/**
+ * Processes the <strong>{@code Content-Range}</strong> response header. For
+ * more information, see <a href="https://tools.ietf.org/html/rfc7233">RFC
+ * 7233</a> §4.2.
+ * <p>
+ * Only the {@code bytes} range unit is supported: the header either describes
+ * the range of bytes enclosed in a partial response, or, when no range was
+ * satisfiable, the complete length of the representation.
+ */
+public final class ContentRangeHeader extends Header {
+
+    /**
+     * Constructs a new header, initialized from the specified message.
+     *
+     * @param message
+     *            The message to initialize the header from.
+     * @return The parsed header.
+     */
+    public static ContentRangeHeader valueOf(final Message message) {
+        return valueOf(parseSingleValuedHeader(message, NAME));
+    }
+
+    /**
+     * Constructs a new header, initialized from the specified string value.
+     *
+     * @param string
+     *            The value to initialize the header from.
+     * @return The parsed header.
+     */
+    public static ContentRangeHeader valueOf(final String string) {
+        final ContentRangeHeader header = parse(string);
+        return header != null ? header : new ContentRangeHeader();
+    }
+
+    /** The name of this header. */
+    public static final String NAME = "Content-Range";
+
+    /** The position of the first byte enclosed, or {@code -1} if none. */
+    private final long first;
+
+    /** The position of the last byte enclosed, or {@code -1} if none. */
+    private final long last;
+
+    /** The complete length of the representation, or {@code -1} if unknown. */
+    private final long completeLength;
+
+    /**
+     * Constructs a new empty header.
+     */
+    public ContentRangeHeader() {
+        this(-1, -1, -1);
+    }
+
+    /**
+     * Constructs a new header for a response where no range was satisfiable.
+     *
+     * @param completeLength
+     *            The complete length of the representation.
+     */
+    public ContentRangeHeader(final long completeLength) {
+        this(-1, -1, completeLength);
+    }
+
+    /**
+     * Constructs a new header with the provided range of bytes.
+     *
+     * @param first
+     *            The position of the first byte enclosed.
+     * @param last
+     *            The position of the last byte enclosed, inclusive.
+     * @param completeLength
+     *            The complete length of the representation, or {@code -1} if
+     *            unknown.
+     */
+    public ContentRangeHeader(final long first, final long last, final long completeLength) {
+        if (last < first) {
+            throw new IllegalArgumentException("The last byte position must not precede the first one");
+        }
+        this.first = first;
+        this.last = last;
+        this.completeLength = completeLength;
+    }
+
+    /**
+     * Returns the position of the first byte enclosed, or {@code -1} if no
+     * range was satisfiable.
+     *
+     * @return The position of the first byte enclosed, or {@code -1}.
+     */
+    public long getFirst() {
+        return first;
+    }
+
+    /**
+     * Returns the position of the last byte enclosed, inclusive, or
+     * {@code -1} if no range was satisfiable.
+     *
+     * @return The position of the last byte enclosed, or {@code -1}.
+     */
+    public long getLast() {
+        return last;
+    }
+
+    /**
+     * Returns the complete length of the representation, or {@code -1} if
+     * unknown.
+     *
+     * @return The complete length of the representation, or {@code -1}.
+     */
+    public long getCompleteLength() {
+        return completeLength;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<String> getValues() {
+        if (first < 0 && completeLength < 0) {
+            return Collections.<String>emptyList();
+        }
+        final StringBuilder value = new StringBuilder(RangeHeader.BYTES).append(' ');
+        if (first < 0) {
+            value.append('*');
+        } else {
+            value.append(first).append('-').append(last);
+        }
+        value.append('/');
+        if (completeLength < 0) {
+            value.append('*');
+        } else {
+            value.append(completeLength);
+        }
+        return singletonList(value.toString());
+    }
+
+    /**
+     * Parses a {@code bytes} content range, returning {@code null} if it is
+     * malformed.
+     */
+    private static ContentRangeHeader parse(final String string) {
+        if (string == null) {
+            return null;
+        }
+        final String value = string.trim();
+        final int space = value.indexOf(' ');
+        final int slash = value.indexOf('/');
+        if (space < 0 || slash < space || !RangeHeader.BYTES.equalsIgnoreCase(value.substring(0, space))) {
+            return null;
+        }
+        final String range = value.substring(space + 1, slash).trim();
+        final String length = value.substring(slash + 1).trim();
+        try {
+            final long completeLength = "*".equals(length) ? -1 : Long.parseLong(length);
+            if ("*".equals(range)) {
+                return completeLength >= 0 ? new ContentRangeHeader(completeLength) : null;
+            }
+            final int dash = range.indexOf('-');
+            final long first = Long.parseLong(range.substring(0, dash));
+            final long last = Long.parseLong(range.substring(dash + 1));
+            if (first < 0 || (completeLength >= 0 && last >= completeLength)) {
+                return null;
+            }
+            return new ContentRangeHeader(first, last, completeLength);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    static class Factory extends AbstractSingleValuedHeaderFactory<ContentRangeHeader> {
+
+        @Override
+        public ContentRangeHeader parse(String value) throws MalformedHeaderException {
+            final ContentRangeHeader header = ContentRangeHeader.parse(value);
+            if (header == null) {
+                throw new MalformedHeaderException("Not a bytes content range: " + value);
+            }
+            return header;
+        }
+    }
+}
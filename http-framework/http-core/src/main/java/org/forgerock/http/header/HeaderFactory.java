@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.header;
@@ -45,9 +46,11 @@ public abstract class HeaderFactory<H extends Header> {
                     put(ContentApiVersionHeader.class, ContentApiVersionHeader.NAME);
                     put(ContentEncodingHeader.class, ContentEncodingHeader.NAME);
                     put(ContentLengthHeader.class, ContentLengthHeader.NAME);
+                    put(ContentRangeHeader.class, ContentRangeHeader.NAME);
                     put(ContentTypeHeader.class, ContentTypeHeader.NAME);
                     put(CookieHeader.class, CookieHeader.NAME);
                     put(LocationHeader.class, LocationHeader.NAME);
+                    put(RangeHeader.class, RangeHeader.NAME);
                     put(SetCookieHeader.class, SetCookieHeader.NAME);
                     put(TransactionIdHeader.class, TransactionIdHeader.NAME);
                     put(WarningHeader.class, WarningHeader.NAME);
@@ -66,9 +69,11 @@ public abstract class HeaderFactory<H extends Header> {
                     put(ContentApiVersionHeader.NAME, new ContentApiVersionHeader.Factory());
                     put(ContentEncodingHeader.NAME, new ContentEncodingHeader.Factory());
                     put(ContentLengthHeader.NAME, new ContentLengthHeader.Factory());
+                    put(ContentRangeHeader.NAME, new ContentRangeHeader.Factory());
                     put(ContentTypeHeader.NAME, new ContentTypeHeader.Factory());
                     put(CookieHeader.NAME, new CookieHeader.Factory());
                     put(LocationHeader.NAME, new LocationHeader.Factory());
+                    put(RangeHeader.NAME, new RangeHeader.Factory());
                     put(SetCookieHeader.NAME, new SetCookieHeader.Factory());
                     put(TransactionIdHeader.NAME, new TransactionIdHeader.Factory());
                     put(WarningHeader.NAME, new WarningHeader.Factory());
@@ -0,0 +1,287 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.header;
+
+import static java.util.Collections.*;
+import static org.forgerock.http.header.HeaderUtil.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.forgerock.http.protocol.Header;
+import org.forgerock.http.protocol.Message;
+
+/**
+ * Processes the <strong>{@code Range}</strong> request header. For more
+ * information, see <a href="https://tools.ietf.org/html/rfc7233">RFC 7233</a>
+ * §3.1.
+ * <p>
+ * Only the {@code bytes} range unit is supported: a header with any other
+ * unit, or with a malformed byte range set, has no ranges and must be ignored.
+ */
+public final class RangeHeader extends Header {
+
+    /**
+     * Constructs a new header, initialized from the specified message.
+     *
+     * @param message
+     *            The message to initialize the header from.
+     * @return The parsed header.
+     */
+    public static RangeHeader valueOf(final Message message) {
+        return valueOf(parseSingleValuedHeader(message, NAME));
+    }
+
+    /**
+     * Constructs a new header, initialized from the specified string value.
+     *
+     * @param string
+     *            The value to initialize the header from.
+     * @return The parsed header.
+     */
+    public static RangeHeader valueOf(final String string) {
+        final List<ByteRange> ranges = parseByteRangeSet(string);
+        return ranges != null ? new RangeHeader(ranges) : new RangeHeader();
+    }
+
+    /** The name of this header. */
+    public static final String NAME = "Range";
+
+    /** The {@code bytes} range unit. */
+    public static final String BYTES = "bytes";
+
+    /** The byte ranges requested, in the order of the header. */
+    private final List<ByteRange> ranges;
+
+    /**
+     * Constructs a new empty header, without any range.
+     */
+    public RangeHeader() {
+        this(Collections.<ByteRange>emptyList());
+    }
+
+    /**
+     * Constructs a new header with the provided byte ranges.
+     *
+     * @param ranges
+     *            The byte ranges requested.
+     */
+    public RangeHeader(final List<ByteRange> ranges) {
+        this.ranges = unmodifiableList(new ArrayList<>(ranges));
+    }
+
+    /**
+     * Returns the byte ranges requested, in the order of the header, or an
+     * empty list if the header is absent or malformed.
+     *
+     * @return The byte ranges requested.
+     */
+    public List<ByteRange> getRanges() {
+        return ranges;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<String> getValues() {
+        if (ranges.isEmpty()) {
+            return emptyList();
+        }
+        final StringBuilder value = new StringBuilder(BYTES).append('=');
+        for (int i = 0; i < ranges.size(); i++) {
+            if (i > 0) {
+                value.append(',');
+            }
+            value.append(ranges.get(i));
+        }
+        return singletonList(value.toString());
+    }
+
+    /**
+     * Parses a {@code bytes} range set, returning {@code null} if it is
+     * malformed.
+     */
+    private static List<ByteRange> parseByteRangeSet(final String string) {
+        if (string == null) {
+            return null;
+        }
+        final int equals = string.indexOf('=');
+        if (equals < 0 || !BYTES.equalsIgnoreCase(string.substring(0, equals).trim())) {
+            return null;
+        }
+        final List<ByteRange> ranges = new ArrayList<>();
+        for (final String spec : split(string.substring(equals + 1), ',')) {
+            if (spec.isEmpty()) {
+                // Empty list elements are allowed by the list syntax
+                continue;
+            }
+            final ByteRange range = ByteRange.valueOf(spec);
+            if (range == null) {
+                return null;
+            }
+            ranges.add(range);
+        }
+        return ranges.isEmpty() ? null : ranges;
+    }
+
+    /**
+     * A byte range of a {@code Range} header: either the positions of its
+     * first and last bytes, the last one being optional, or the length of a
+     * suffix of the representation.
+     */
+    public static final class ByteRange {
+
+        /**
+         * Returns the byte range of the specified specification, or
+         * {@code null} if it is malformed.
+         */
+        private static ByteRange valueOf(final String spec) {
+            final int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            try {
+                final String first = spec.substring(0, dash).trim();
+                final String last = spec.substring(dash + 1).trim();
+                if (first.isEmpty()) {
+                    return last.isEmpty() ? null : suffix(parsePosition(last));
+                }
+                return new ByteRange(parsePosition(first), last.isEmpty() ? -1 : parsePosition(last));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private static long parsePosition(final String position) {
+            for (int i = 0; i < position.length(); i++) {
+                if (position.charAt(i) < '0' || position.charAt(i) > '9') {
+                    throw new NumberFormatException(position);
+                }
+            }
+            return Long.parseLong(position);
+        }
+
+        /**
+         * Returns the byte range of the last bytes of a representation.
+         *
+         * @param length
+         *            The number of bytes of the suffix.
+         * @return The byte range of the suffix.
+         */
+        public static ByteRange suffix(final long length) {
+            if (length < 0) {
+                throw new IllegalArgumentException("The suffix length must not be negative");
+            }
+            return new ByteRange(length);
+        }
+
+        /** The first byte position, or {@code -1} for a suffix range. */
+        private final long first;
+
+        /**
+         * The last byte position, {@code -1} if open-ended, or the suffix
+         * length for a suffix range.
+         */
+        private final long last;
+
+        /**
+         * Constructs a byte range from its first and last byte positions.
+         *
+         * @param first
+         *            The position of the first byte of the range.
+         * @param last
+         *            The position of the last byte of the range, inclusive,
+         *            or {@code -1} if the range extends to the end of the
+         *            representation.
+         */
+        public ByteRange(final long first, final long last) {
+            if (first < 0) {
+                throw new IllegalArgumentException("The first byte position must not be negative");
+            }
+            if (last >= 0 && last < first) {
+                throw new IllegalArgumentException("The last byte position must not precede the first one");
+            }
+            this.first = first;
+            this.last = last;
+        }
+
+        private ByteRange(final long suffixLength) {
+            this.first = -1;
+            this.last = suffixLength;
+        }
+
+        /**
+         * Returns {@code true} if this range overlaps a representation of the
+         * specified length.
+         *
+         * @param length
+         *            The length of the representation.
+         * @return {@code true} if this range overlaps the representation.
+         */
+        public boolean isSatisfiable(final long length) {
+            return first < 0 ? last > 0 && length > 0 : first < length;
+        }
+
+        /**
+         * Returns the position of the first byte of this range in a
+         * representation of the specified length.
+         *
+         * @param length
+         *            The length of the representation.
+         * @return The position of the first byte of the range.
+         */
+        public long getFirst(final long length) {
+            return first < 0 ? Math.max(0, length - last) : first;
+        }
+
+        /**
+         * Returns the position of the last byte of this range, inclusive, in a
+         * representation of the specified length.
+         *
+         * @param length
+         *            The length of the representation.
+         * @return The position of the last byte of the range.
+         */
+        public long getLast(final long length) {
+            return first < 0 || last < 0 ? length - 1 : Math.min(last, length - 1);
+        }
+
+        @Override
+        public String toString() {
+            if (first < 0) {
+                return "-" + last;
+            }
+            return last < 0 ? first + "-" : first + "-" + last;
+        }
+    }
+
+    static class Factory extends AbstractSingleValuedHeaderFactory<RangeHeader> {
+
+        @Override
+        public RangeHeader parse(String value) throws MalformedHeaderException {
+            final List<ByteRange> ranges = parseByteRangeSet(value);
+            if (ranges == null) {
+                throw new MalformedHeaderException("Not a bytes range set: " + value);
+            }
+            return new RangeHeader(ranges);
+        }
+    }
+}
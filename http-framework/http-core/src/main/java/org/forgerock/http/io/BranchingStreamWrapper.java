@@ -13,6 +13,7 @@
  *
  * Copyright 2010–2011 ApexIdentity Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.io;
@@ -82,6 +83,12 @@ final class BranchingStreamWrapper extends BranchingInputStream {
         return trunk == null;
     }
 
+    /** Returns the input stream wrapped by the branches, or {@code null} once this branch is closed. */
+    InputStream getWrappedStream() {
+        final Trunk t = trunk;
+        return t != null ? t.in : null;
+    }
+
     @Override
     public int read() throws IOException {
         byte[] b = new byte[1];
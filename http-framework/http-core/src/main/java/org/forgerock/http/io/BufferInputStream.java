@@ -0,0 +1,65 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the content of a {@link Buffer} from its start, and closes the buffer when it is closed.
+ */
+final class BufferInputStream extends InputStream {
+
+    private final Buffer buffer;
+    private int position = 0;
+
+    BufferInputStream(final Buffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return position < buffer.length() ? buffer.read(position++) & 0xff : -1;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (position >= buffer.length()) {
+            return -1;
+        }
+        final int n = buffer.read(position, b, off, len);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        final int skipped = (int) Math.max(0L, Math.min(n, buffer.length() - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return buffer.length() - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.close();
+    }
+}
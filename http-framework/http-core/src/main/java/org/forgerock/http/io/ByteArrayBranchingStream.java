@@ -13,6 +13,7 @@
  *
  * Copyright 2010–2011 ApexIdentity Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.io;
@@ -20,7 +21,7 @@ package org.forgerock.http.io;
 import java.io.IOException;
 
 /**
- * Wraps a byte array with a stream that can branch to perform divergent reads.
+ * Wraps a byte array, or a range of it, with a stream that can branch to perform divergent reads.
  */
 final class ByteArrayBranchingStream extends BranchingInputStream {
     /** The index of the next byte to read from the byte array. */
@@ -32,33 +33,46 @@ final class ByteArrayBranchingStream extends BranchingInputStream {
     /** The byte array to expose as the input stream. */
     private byte[] data;
 
+    /** The index following the last byte of the byte array to expose. */
+    private final int limit;
+
     ByteArrayBranchingStream(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    ByteArrayBranchingStream(byte[] data, int offset, int length) {
         super(null);
+        if (offset < 0 || length < 0 || length > data.length - offset) {
+            throw new IndexOutOfBoundsException();
+        }
         this.data = data;
+        this.position = offset;
+        this.limit = offset + length;
     }
 
-    private ByteArrayBranchingStream(byte[] data, BranchingInputStream parent) {
+    private ByteArrayBranchingStream(byte[] data, int limit, BranchingInputStream parent) {
         super(parent);
         this.data = data;
+        this.limit = limit;
     }
 
     @Override
     public ByteArrayBranchingStream branch() {
-        ByteArrayBranchingStream branch = new ByteArrayBranchingStream(data, this);
+        ByteArrayBranchingStream branch = new ByteArrayBranchingStream(data, limit, this);
         branch.position = this.position;
         return branch;
     }
 
     @Override
     public ByteArrayBranchingStream copy() throws IOException {
-        ByteArrayBranchingStream branch = new ByteArrayBranchingStream(data, this.parent());
+        ByteArrayBranchingStream branch = new ByteArrayBranchingStream(data, limit, this.parent());
         branch.position = this.position;
         return branch;
     }
 
     @Override
     public synchronized int read() {
-        return (position < data.length ? data[position++] & 0xff : -1);
+        return (position < limit ? data[position++] & 0xff : -1);
     }
 
     @Override
@@ -71,11 +85,11 @@ final class ByteArrayBranchingStream extends BranchingInputStream {
         if (off < 0 || len < 0 || len > b.length - off) {
             throw new IndexOutOfBoundsException();
         }
-        if (position >= data.length) {
+        if (position >= limit) {
             // end of stream has been reached
             return -1;
         }
-        len = Math.min(len, data.length - position);
+        len = Math.min(len, limit - position);
         System.arraycopy(data, position, b, off, len);
         position += len;
         return len;
@@ -86,14 +100,14 @@ final class ByteArrayBranchingStream extends BranchingInputStream {
         if (n <= 0) {
             return 0;
         }
-        n = Math.min(n, data.length - position);
+        n = Math.min(n, limit - position);
         position += n;
         return n;
     }
 
     @Override
     public synchronized int available() {
-        return data.length - position;
+        return limit - position;
     }
 
     @Override
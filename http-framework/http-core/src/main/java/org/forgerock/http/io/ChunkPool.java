@@ -0,0 +1,124 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.forgerock.util.Reject;
+
+/**
+ * A pool of {@link ByteBuffer} chunks, shared by the {@link PooledBuffer}s of
+ * a storage. The chunks are sized in classes, from the minimum chunk size
+ * doubling up to the maximum chunk size, and each class is pooled separately.
+ * The pool retains chunks up to its limit in bytes: chunks released beyond
+ * that limit are left to the garbage collector.
+ * <p>
+ * This class is thread-safe.
+ */
+final class ChunkPool {
+
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long limit;
+    private final boolean direct;
+
+    /** The pooled chunks, by size class. */
+    private final Queue<ByteBuffer>[] chunks;
+
+    /** The number of bytes held by the pooled chunks. */
+    private final AtomicLong pooled = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    ChunkPool(final int minChunkSize, final int maxChunkSize, final long limit, final boolean direct) {
+        Reject.ifFalse(minChunkSize > 0 && Integer.bitCount(minChunkSize) == 1,
+                "The minimum chunk size must be a power of two");
+        Reject.ifFalse(maxChunkSize >= minChunkSize && Integer.bitCount(maxChunkSize) == 1,
+                "The maximum chunk size must be a power of two, at least the minimum chunk size");
+        Reject.ifTrue(limit < 0, "The limit must not be negative");
+        this.minChunkSize = minChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.limit = limit;
+        this.direct = direct;
+        this.chunks = new Queue[sizeClass(maxChunkSize) + 1];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Returns the size of the chunk at the given index of a buffer: the chunks
+     * double in size, so that a buffer grows with few chunks, up to the
+     * maximum chunk size.
+     *
+     * @param index
+     *            the index of the chunk in the buffer.
+     * @return the size of the chunk.
+     */
+    int chunkSize(final int index) {
+        return index >= sizeClass(maxChunkSize) ? maxChunkSize : minChunkSize << index;
+    }
+
+    /**
+     * Returns a cleared chunk of the given size, from the pool if it has one,
+     * or newly allocated otherwise.
+     *
+     * @param size
+     *            the size of the chunk, as returned by {@link #chunkSize(int)}.
+     * @return the chunk.
+     */
+    ByteBuffer acquire(final int size) {
+        final ByteBuffer chunk = chunks[sizeClass(size)].poll();
+        if (chunk == null) {
+            return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        }
+        pooled.addAndGet(-size);
+        return chunk;
+    }
+
+    /**
+     * Returns the chunk to the pool, unless the pool is full.
+     *
+     * @param chunk
+     *            the chunk acquired from this pool, which must no longer be
+     *            used.
+     */
+    void release(final ByteBuffer chunk) {
+        final int size = chunk.capacity();
+        if (pooled.addAndGet(size) <= limit) {
+            chunk.clear();
+            chunks[sizeClass(size)].offer(chunk);
+        } else {
+            pooled.addAndGet(-size);
+        }
+    }
+
+    /**
+     * Returns the number of bytes held by the pooled chunks.
+     *
+     * @return the number of bytes pooled.
+     */
+    long getPooledBytes() {
+        return pooled.get();
+    }
+
+    private int sizeClass(final int size) {
+        return Integer.numberOfTrailingZeros(size) - Integer.numberOfTrailingZeros(minChunkSize);
+    }
+}
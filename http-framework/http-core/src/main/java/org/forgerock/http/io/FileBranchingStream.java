@@ -12,32 +12,54 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.io;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.forgerock.util.Reject;
 
 /**
- * A {@link BranchingInputStream} for reading from files. Uses a {@code FileInputStream} to read from the file, but
- * tracks the position read to so that branches can skip to the same location.
+ * A {@link BranchingInputStream} for reading from files. Uses a {@code FileChannel} to read from the file, or from a
+ * region of the file, and tracks the position read to so that branches can start from the same location.
  * <p>
  *     This stream would be most suited for when a large file is expected to piped straight to output, without
  *     modification and minimal branching. If the stream is not a large file, is going to be modified by filters, or is
  *     going to have substantial branching, a wrapper {@code BranchingInputStream} could be considered instead.
  * </p>
+ * <p>
+ *     The server adapters recognise an entity whose content is this stream, and send the rest of the file region
+ *     without copying it through the heap: with {@link #transferTo(WritableByteChannel)}, or with the file-send
+ *     support of the container.
+ * </p>
  * @see IO#newBranchingInputStream(java.io.InputStream, org.forgerock.util.Factory)
  */
 public final class FileBranchingStream extends BranchingInputStream {
 
-    private final InputStream input;
+    /** Size of the buffer used to read the file a few bytes at a time. */
+    private static final int BUF_SIZE = 8 * 1_024;
+
     private final File file;
-    private long position = 0;
+    private final FileChannel channel;
+
+    /** The position in the file following the last byte of the region. */
+    private final long end;
+
+    /** The position in the file of the next byte to read. */
+    private long position;
+
+    /** Bytes read ahead of the position, when reading a few bytes at a time. */
+    private byte[] buffer;
+    private int bufferPos = 0;
+    private int bufferLimit = 0;
 
     /**
      * Creates a new stream for the specified file.
@@ -45,42 +67,173 @@ public final class FileBranchingStream extends BranchingInputStream {
      * @throws FileNotFoundException If the file does not exist.
      */
     public FileBranchingStream(File file) throws FileNotFoundException {
+        this(file, 0L, -1L);
+    }
+
+    /**
+     * Creates a new stream for a region of the specified file.
+     * @param file The file to read from.
+     * @param offset The position in the file of the first byte of the region.
+     * @param length The number of bytes of the region, or {@code -1} for the rest of the file.
+     * @throws FileNotFoundException If the file does not exist.
+     */
+    public FileBranchingStream(File file, long offset, long length) throws FileNotFoundException {
         super(null);
+        Reject.ifTrue(offset < 0 || length < -1, "The region must have a positive offset and length");
         this.file = file;
-        input = new BufferedInputStream(new FileInputStream(file));
+        this.channel = new FileInputStream(file).getChannel();
+        this.position = offset;
+        this.end = length == -1L ? Math.max(offset, file.length()) : offset + length;
     }
 
-    private FileBranchingStream(File file, long position, BranchingInputStream parent) throws IOException {
+    private FileBranchingStream(File file, long position, long end, BranchingInputStream parent)
+            throws FileNotFoundException {
         super(parent);
         this.file = file;
-        input = new FileInputStream(file);
-        long skipBytes = position;
-        while (this.position < position) {
-            long skipped = input.skip(skipBytes);
-            this.position += skipped;
-            skipBytes -= skipped;
+        this.channel = new FileInputStream(file).getChannel();
+        this.position = position;
+        this.end = end;
+    }
+
+    /**
+     * Returns the file read by this stream.
+     * @return The file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the position in the file of the next byte read by this stream.
+     * @return The position in the file.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Returns the number of bytes remaining in the file region read by this stream.
+     * @return The number of bytes remaining.
+     */
+    public long getRemaining() {
+        return Math.max(0L, end - position);
+    }
+
+    /**
+     * Transfers the rest of the file region to the target channel, with {@link FileChannel#transferTo} so that the
+     * operating system can send the bytes without copying them into the heap, then leaves the stream at its end.
+     * @param target The blocking channel to transfer the bytes to.
+     * @return The number of bytes transferred.
+     * @throws IOException If an I/O exception occurs.
+     */
+    public long transferTo(WritableByteChannel target) throws IOException {
+        bufferPos = bufferLimit;
+        final long start = position;
+        while (position < end) {
+            final long n = channel.transferTo(position, end - position, target);
+            if (n <= 0) {
+                // The file is shorter than the region
+                break;
+            }
+            position += n;
         }
+        return position - start;
     }
 
     @Override
     public BranchingInputStream branch() throws IOException {
-        return new FileBranchingStream(file, position, this);
+        return new FileBranchingStream(file, position, end, this);
     }
 
     @Override
     public BranchingInputStream copy() throws IOException {
-        return new FileBranchingStream(file, position, parent());
+        return new FileBranchingStream(file, position, end, parent());
     }
 
     @Override
     public int read() throws IOException {
+        if (bufferPos == bufferLimit && fill() == -1) {
+            return -1;
+        }
         position++;
-        return input.read();
+        return buffer[bufferPos++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+        int n;
+        if (bufferPos < bufferLimit) {
+            n = Math.min(len, bufferLimit - bufferPos);
+            System.arraycopy(buffer, bufferPos, b, off, n);
+            bufferPos += n;
+        } else if (len < BUF_SIZE) {
+            if (fill() == -1) {
+                return -1;
+            }
+            n = Math.min(len, bufferLimit);
+            System.arraycopy(buffer, 0, b, off, n);
+            bufferPos = n;
+        } else {
+            n = readFile(ByteBuffer.wrap(b, off, len));
+            if (n == -1) {
+                return -1;
+            }
+        }
+        position += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long skipped = Math.max(0L, Math.min(n, end - position));
+        if (skipped <= bufferLimit - bufferPos) {
+            bufferPos += (int) skipped;
+        } else {
+            bufferPos = bufferLimit;
+        }
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(Integer.MAX_VALUE, getRemaining());
     }
 
     @Override
     public void close() throws IOException {
-        input.close();
+        channel.close();
+    }
+
+    /** Reads the bytes following the position into the buffer, and returns their number, or -1 at the end. */
+    private int fill() throws IOException {
+        if (buffer == null) {
+            buffer = new byte[BUF_SIZE];
+        }
+        bufferPos = 0;
+        bufferLimit = 0;
+        final int n = readFile(ByteBuffer.wrap(buffer));
+        if (n > 0) {
+            bufferLimit = n;
+        }
+        return n;
     }
 
+    /** Reads the bytes following the position, without moving it, and returns their number, or -1 at the end. */
+    private int readFile(ByteBuffer target) throws IOException {
+        final long remaining = end - position;
+        if (remaining <= 0) {
+            return -1;
+        }
+        if (target.remaining() > remaining) {
+            target.limit(target.position() + (int) remaining);
+        }
+        final int n = channel.read(target, position);
+        return n == 0 ? -1 : n;
+    }
 }
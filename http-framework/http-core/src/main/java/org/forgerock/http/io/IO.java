@@ -14,6 +14,7 @@
  * Copyright 2009 Sun Microsystems Inc.
  * Portions Copyright 2010–2011 ApexIdentity Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.io;
@@ -45,6 +46,12 @@ public final class IO {
     /** 1 GiB. */
     public static final int DEFAULT_TMP_FILE_LIMIT = 1 * 1_024 * 1_024 * 1_024;
 
+    /** 256 KiB. */
+    public static final int DEFAULT_POOLED_MEMORY_LIMIT = 256 * 1_024;
+
+    /** 32 MiB. */
+    public static final long DEFAULT_POOL_LIMIT = 32L * 1_024 * 1_024;
+
     /** Size of buffer to use during streaming. */
     private static final int BUF_SIZE = 8 * 1_024;
 
@@ -92,6 +99,26 @@ public final class IO {
         return new ByteArrayBranchingStream(bytes);
     }
 
+    /**
+     * Creates a new branching input stream that wraps a range of a byte array,
+     * without copying it. The range must not be modified while the stream is
+     * in use.
+     *
+     * @param bytes
+     *            byte array to wrap with the branching input stream.
+     * @param offset
+     *            the index of the first byte of the range.
+     * @param length
+     *            the number of bytes of the range.
+     * @return The branching input stream.
+     * @throws IndexOutOfBoundsException
+     *             if the range is not within the byte array.
+     */
+    public static BranchingInputStream newBranchingInputStream(final byte[] bytes, final int offset,
+            final int length) {
+        return new ByteArrayBranchingStream(bytes, offset, length);
+    }
+
     /**
      * Creates a new branching input stream to wrap another input stream. All
      * divergence between branches is maintained in a temporary buffer.
@@ -115,6 +142,26 @@ public final class IO {
         return new BranchingStreamWrapper(in, bufferFactory);
     }
 
+    /**
+     * Creates a new branching input stream reading the content of the provided
+     * buffer, which has usually been fed as the content was received. The
+     * buffer is closed when the stream is closed.
+     * <p>
+     * <strong>Note:</strong> This stream and any branches it creates are not
+     * safe for use by multiple concurrent threads.
+     *
+     * @param buffer
+     *            the buffer holding the content of the stream.
+     * @param bufferFactory
+     *            an object that can create new temporary buffers (e.g. {@link
+     *            TemporaryStorage}).
+     * @return The branching input stream.
+     */
+    public static BranchingInputStream newBranchingInputStream(final Buffer buffer,
+            final Factory<Buffer> bufferFactory) {
+        return new BranchingStreamWrapper(new BufferInputStream(buffer), bufferFactory);
+    }
+
     /**
      * Creates a new file buffer that uses a local file for data storage.
      * <p>
@@ -239,6 +286,63 @@ public final class IO {
         };
     }
 
+    /**
+     * Creates a new storage of pooled buffers using the system dependent
+     * default temporary directory, default sizes and direct memory.
+     * Equivalent to call
+     * {@code newPooledStorage(null, DEFAULT_POOLED_MEMORY_LIMIT, DEFAULT_TMP_FILE_LIMIT, DEFAULT_POOL_LIMIT, true)}.
+     *
+     * @return The pooled storage.
+     */
+    public static Factory<Buffer> newPooledStorage() {
+        return newPooledStorage(null, DEFAULT_POOLED_MEMORY_LIMIT, DEFAULT_TMP_FILE_LIMIT, DEFAULT_POOL_LIMIT,
+                true);
+    }
+
+    /**
+     * Builds a storage of pooled buffers using the given directory (may be
+     * {@literal null}) and provided sizes.
+     * <p>
+     * Unlike the buffers of a {@link #newTemporaryStorage(File, int, int, int)
+     * temporary storage}, which grow by copying their byte array, the buffers
+     * of this storage grow by adding chunks of memory, from
+     * {@link #DEFAULT_TMP_INIT_LENGTH 8 KiB} doubling up to
+     * {@link #DEFAULT_TMP_MEMORY_LIMIT 64 KiB}, which return to a pool shared
+     * by the buffers of the storage when the buffers are closed. Once the
+     * memory limit is reached, the data appended to a buffer spills to a
+     * temporary file. The buffers must therefore be closed, as
+     * the entities holding them are, for the storage to reuse their memory.
+     *
+     * @param directory
+     *            The directory where temporary files are created. If
+     *            {@code null}, then the system-dependent default temporary
+     *            directory will be used.
+     * @param memoryLimit
+     *            The length limit of the memory chunks of a buffer. Attempts
+     *            to exceed this limit will result in spilling the data to a
+     *            temporary file.
+     * @param fileLimit
+     *            The length limit of a buffer. Attempts to exceed this limit
+     *            will result in an {@link OverflowException} being thrown.
+     * @param poolLimit
+     *            The number of bytes of memory chunks retained by the pool
+     *            while they are not used by buffers.
+     * @param direct
+     *            {@code true} to allocate the memory chunks outside of the
+     *            heap, or {@code false} to allocate them on the heap.
+     * @return The pooled storage.
+     */
+    public static Factory<Buffer> newPooledStorage(final File directory, final int memoryLimit,
+            final int fileLimit, final long poolLimit, final boolean direct) {
+        final ChunkPool pool = new ChunkPool(DEFAULT_TMP_INIT_LENGTH, DEFAULT_TMP_MEMORY_LIMIT, poolLimit, direct);
+        return new Factory<Buffer>() {
+            @Override
+            public Buffer newInstance() {
+                return new PooledBuffer(pool, memoryLimit, fileLimit, directory);
+            }
+        };
+    }
+
     /**
      * Returns an input stream that holds no data.
      *
@@ -282,6 +386,37 @@ public final class IO {
         }
     }
 
+    /**
+     * Streams all data from an input stream to an output stream, flushing the
+     * output stream whenever no more data can be read from the input stream
+     * without blocking. The data then reaches its destination as soon as it is
+     * produced, rather than once enough of it has been buffered.
+     *
+     * @param in
+     *            the input stream to stream the data from.
+     * @param out
+     *            the output stream to stream the data to.
+     * @throws IOException
+     *             if an I/O exception occurs.
+     */
+    public static void streamAndFlush(final InputStream in, final OutputStream out) throws IOException {
+        byte[] buf = BYTE_BUF_POOL.poll();
+        if (buf == null) {
+            buf = new byte[BUF_SIZE];
+        }
+        try {
+            int n;
+            while ((n = in.read(buf, 0, BUF_SIZE)) != -1) {
+                out.write(buf, 0, n);
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } finally {
+            BYTE_BUF_POOL.add(buf);
+        }
+    }
+
     /**
      * Streams data from an input stream to an output stream, up to a specified
      * length.
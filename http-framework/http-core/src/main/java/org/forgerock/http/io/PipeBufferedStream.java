@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Portions Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.io;
@@ -31,6 +32,7 @@ import org.forgerock.util.Factory;
  * This class is not thread-safe : the buffer has to be fully filled before reading from it : if the consumers reads
  * faster than the producer writes into it, then the consumer will get to the end of the buffer and that will be
  * interpreted an end-of-stream.
+ * Use a {@link StreamingPipe} to read the bytes while they are being written.
  */
 public final class PipeBufferedStream {
     private final OutputStream outputStream;
@@ -0,0 +1,272 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A buffer that first uses chunks of memory from a {@link ChunkPool}, then a
+ * temporary file for data storage.
+ * <p>
+ * The buffer grows by adding chunks, each twice the size of the previous one
+ * up to the maximum chunk size of the pool, so that the data appended is never
+ * copied. Once the chunks would exceed the memory limit, the buffer keeps them
+ * and spills the rest of the data to a temporary file, which is read and
+ * written at explicit positions of its channel. The file is not mapped into
+ * memory: a mapped region could only be released once garbage collected, long
+ * after the buffer has been closed. The chunks are returned to the pool, and
+ * the file is deleted, when the buffer is closed.
+ * <p>
+ * <strong>Note:</strong> This implementation is not synchronized. If multiple
+ * threads access a buffer concurrently, threads that append to the buffer
+ * should synchronize on the instance of this object.
+ */
+final class PooledBuffer implements Buffer {
+
+    private final ChunkPool pool;
+    private final int memoryLimit;
+    private final int fileLimit;
+    private final File directory;
+
+    /** The chunks storing the beginning of the buffer data. */
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+
+    /** The position in the buffer of the first byte of each chunk. */
+    private int[] starts = new int[8];
+
+    /** The capacity of the chunks, which is the position in the buffer of the first byte of the file. */
+    private int memoryCapacity = 0;
+
+    /** Current length of the buffer. */
+    private int length = 0;
+
+    /** File used for temporary storage, once the memory limit has been reached. */
+    private File file = null;
+
+    /** The channel reading and writing the temporary file. */
+    private FileChannel channel = null;
+
+    private boolean closed = false;
+
+    PooledBuffer(final ChunkPool pool, final int memoryLimit, final int fileLimit, final File directory) {
+        this.pool = pool;
+        this.memoryLimit = memoryLimit;
+        this.fileLimit = fileLimit;
+        this.directory = directory;
+    }
+
+    @Override
+    public byte read(final int pos) throws IOException {
+        notClosed();
+        if (pos < 0 || pos >= length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (pos >= memoryCapacity) {
+            final ByteBuffer b = ByteBuffer.allocate(1);
+            readFile(b, pos);
+            return b.get(0);
+        }
+        final int index = chunkIndex(pos);
+        return chunks.get(index).get(pos - starts[index]);
+    }
+
+    @Override
+    public int read(final int pos, final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        notClosed();
+        if (pos >= length) {
+            return 0;
+        }
+        final int n = Math.min(len, length - pos);
+        int copied = 0;
+        if (pos < memoryCapacity) {
+            final int inMemory = Math.min(n, memoryCapacity - pos);
+            int index = chunkIndex(pos);
+            while (copied < inMemory) {
+                final ByteBuffer chunk = chunks.get(index);
+                final int offset = pos + copied - starts[index];
+                final int count = Math.min(inMemory - copied, chunk.capacity() - offset);
+                chunk.position(offset);
+                chunk.get(b, off + copied, count);
+                copied += count;
+                index++;
+            }
+        }
+        if (copied < n) {
+            readFile(ByteBuffer.wrap(b, off + copied, n - copied), pos + copied);
+        }
+        return n;
+    }
+
+    @Override
+    public void append(final byte b) throws IOException {
+        notClosed();
+        if (length + 1 > fileLimit) {
+            throw new OverflowException();
+        }
+        if (length == memoryCapacity && (channel != null || !growChunks())) {
+            writeFile(ByteBuffer.wrap(new byte[] { b }));
+        } else {
+            final int index = chunks.size() - 1;
+            chunks.get(index).put(length - starts[index], b);
+        }
+        length++;
+    }
+
+    @Override
+    public void append(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        notClosed();
+        if ((long) length + len > fileLimit) {
+            throw new OverflowException();
+        }
+        int appended = 0;
+        while (appended < len) {
+            if (length == memoryCapacity && (channel != null || !growChunks())) {
+                writeFile(ByteBuffer.wrap(b, off + appended, len - appended));
+                length += len - appended;
+                return;
+            }
+            final int index = chunks.size() - 1;
+            final ByteBuffer chunk = chunks.get(index);
+            final int offset = length - starts[index];
+            final int count = Math.min(len - appended, chunk.capacity() - offset);
+            chunk.position(offset);
+            chunk.put(b, off + appended, count);
+            appended += count;
+            length += count;
+        }
+    }
+
+    @Override
+    public int length() throws IOException {
+        notClosed();
+        return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            for (final ByteBuffer chunk : chunks) {
+                pool.release(chunk);
+            }
+            chunks.clear();
+            if (channel != null) {
+                channel.close();
+            }
+        } finally {
+            channel = null;
+            if (file != null) {
+                file.delete();
+            }
+            file = null;
+        }
+    }
+
+    /**
+     * Adds a chunk, unless the chunks would then exceed the memory limit.
+     *
+     * @return {@code true} if a chunk has been added.
+     */
+    private boolean growChunks() {
+        final int chunkSize = pool.chunkSize(chunks.size());
+        if ((long) memoryCapacity + chunkSize > memoryLimit) {
+            return false;
+        }
+        if (chunks.size() == starts.length) {
+            starts = Arrays.copyOf(starts, starts.length << 1);
+        }
+        starts[chunks.size()] = memoryCapacity;
+        chunks.add(pool.acquire(chunkSize));
+        memoryCapacity += chunkSize;
+        return true;
+    }
+
+    /**
+     * Writes the bytes at the end of the temporary file, which is created
+     * first if needed.
+     */
+    private void writeFile(final ByteBuffer bytes) throws IOException {
+        if (channel == null) {
+            file = File.createTempFile("buf", null, directory);
+            channel = FileChannel.open(file.toPath(), READ, WRITE);
+        }
+        long position = length - memoryCapacity;
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+
+    /**
+     * Reads the bytes of the temporary file from the given position in the
+     * buffer, until the byte buffer is full.
+     */
+    private void readFile(final ByteBuffer bytes, final int pos) throws IOException {
+        long position = pos - memoryCapacity;
+        while (bytes.hasRemaining()) {
+            final int n = channel.read(bytes, position);
+            if (n == -1) {
+                throw new EOFException("The temporary file " + file + " has been truncated");
+            }
+            position += n;
+        }
+    }
+
+    /**
+     * Returns the index of the chunk holding the byte at the given position.
+     */
+    private int chunkIndex(final int pos) {
+        int low = 0;
+        int high = chunks.size() - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (starts[middle] <= pos) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Throws an {@link IOException} if the buffer is closed.
+     */
+    private void notClosed() throws IOException {
+        if (closed) {
+            throw new IOException("buffer is closed");
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.forgerock.http.io.IO.newBranchingInputStream;
+import static org.forgerock.util.time.Duration.duration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+import org.forgerock.util.Factory;
+import org.forgerock.util.Reject;
+import org.forgerock.util.time.Duration;
+
+/**
+ * Represents a bounded pipe for streaming bytes from an {@link OutputStream}, written by a producer thread, to a
+ * {@link BranchingInputStream}, read by a consumer thread.
+ * <p>
+ * Unlike {@link PipeBufferedStream}, the bytes can be read while they are being written: a read blocks until bytes
+ * are available, and only returns end-of-stream once the output stream has been closed. The pipe holds at most its
+ * capacity in bytes: a write blocks while the pipe is full, so that the producer is held back to the pace of the
+ * consumer rather than filling the memory. A write fails with an {@link IOException}:
+ * <ul>
+ *     <li>once the input stream has been closed, because the consumer is gone;</li>
+ *     <li>when no byte could be written for the write timeout, because the consumer is too slow: the pipe is then
+ *     broken and the consumer will fail to read the rest of the stream too.</li>
+ * </ul>
+ * The producer and the consumer must run in distinct threads: a thread reading from the pipe while it has to write
+ * into it blocks forever, or until the write timeout.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class StreamingPipe {
+
+    /** The default capacity of the pipe: 64 KiB. */
+    public static final int DEFAULT_CAPACITY = IO.DEFAULT_TMP_MEMORY_LIMIT;
+
+    /** The default write timeout: 1 minute. */
+    public static final Duration DEFAULT_WRITE_TIMEOUT = duration(1L, MINUTES);
+
+    private final OutputStream outputStream;
+    private final BranchingInputStream inputStream;
+    private final long writeTimeoutMillis;
+
+    /* Circular buffer holding the bytes written but not read yet, guarded by "this". */
+    private final byte[] buffer;
+    private int readIndex;
+    private int count;
+    private boolean outputClosed;
+    private boolean inputClosed;
+    private boolean broken;
+
+    /**
+     * Constructs a new {@link StreamingPipe} with the default capacity and write timeout, and a default
+     * {@link Factory<Buffer>}.
+     */
+    public StreamingPipe() {
+        this(DEFAULT_CAPACITY, DEFAULT_WRITE_TIMEOUT, IO.newTemporaryStorage());
+    }
+
+    /**
+     * Constructs a new {@link StreamingPipe}.
+     *
+     * @param capacity The maximum number of bytes held by the pipe
+     * @param writeTimeout The time for which a write waits for the consumer to read from a full pipe, or
+     *                     {@link Duration#UNLIMITED} to wait until it does
+     * @param bufferFactory The buffer factory to use to create the branches of the {@link BranchingInputStream}
+     */
+    public StreamingPipe(final int capacity, final Duration writeTimeout, final Factory<Buffer> bufferFactory) {
+        Reject.ifTrue(capacity <= 0, "The capacity must be positive");
+        Reject.ifNull(writeTimeout, bufferFactory);
+        this.buffer = new byte[capacity];
+        this.writeTimeoutMillis = writeTimeout.isUnlimited() ? 0L : Math.max(1L, writeTimeout.to(MILLISECONDS));
+        this.outputStream = new PipeOutputStream();
+        this.inputStream = newBranchingInputStream(new PipeInputStream(), bufferFactory);
+    }
+
+    /**
+     * Returns whether the stream reads from a streaming pipe, as the {@link #getOut() input stream} of a pipe or one
+     * of its branches do. The bytes of such a stream are produced while they are read, so they should be flushed to
+     * their destination as they are read, rather than once all of them have been.
+     *
+     * @param in The input stream.
+     * @return {@code true} if the stream reads from a streaming pipe.
+     */
+    public static boolean isPipeInput(final InputStream in) {
+        return in instanceof BranchingStreamWrapper
+                && ((BranchingStreamWrapper) in).getWrappedStream() instanceof PipeInputStream;
+    }
+
+    /**
+     * Returns the output stream which writes to the pipe.
+     *
+     * @return The output stream.
+     */
+    public OutputStream getIn() {
+        return outputStream;
+    }
+
+    /**
+     * Returns the input stream which reads from the pipe.
+     *
+     * @return The input stream.
+     */
+    public BranchingInputStream getOut() {
+        return inputStream;
+    }
+
+    private synchronized void write(final byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            awaitSpace();
+            final int writeIndex = (readIndex + count) % buffer.length;
+            final int chunk = Math.min(Math.min(len, buffer.length - count), buffer.length - writeIndex);
+            System.arraycopy(b, off, buffer, writeIndex, chunk);
+            count += chunk;
+            off += chunk;
+            len -= chunk;
+            notifyAll();
+        }
+    }
+
+    private void awaitSpace() throws IOException {
+        final long deadline = writeTimeoutMillis == 0L ? 0L : System.currentTimeMillis() + writeTimeoutMillis;
+        while (true) {
+            checkWritable();
+            if (count < buffer.length) {
+                return;
+            }
+            final long remaining = deadline == 0L ? 0L : deadline - System.currentTimeMillis();
+            if (deadline != 0L && remaining <= 0L) {
+                broken = true;
+                notifyAll();
+                throw new IOException("Timed out writing to the pipe: its reader is too slow");
+            }
+            awaitSignal(remaining);
+        }
+    }
+
+    private void checkWritable() throws IOException {
+        if (outputClosed) {
+            throw new IOException("The pipe has been closed by its writer");
+        } else if (inputClosed) {
+            throw new IOException("The pipe has been closed by its reader");
+        } else if (broken) {
+            throw new IOException("The pipe is broken");
+        }
+    }
+
+    private synchronized int read(final byte[] b, final int off, final int len) throws IOException {
+        while (true) {
+            if (inputClosed) {
+                throw new IOException("The pipe has been closed by its reader");
+            } else if (broken) {
+                throw new IOException("The pipe is broken: its writer timed out");
+            } else if (len == 0) {
+                return 0;
+            } else if (count > 0) {
+                final int chunk = Math.min(Math.min(len, count), buffer.length - readIndex);
+                System.arraycopy(buffer, readIndex, b, off, chunk);
+                readIndex = (readIndex + chunk) % buffer.length;
+                count -= chunk;
+                notifyAll();
+                return chunk;
+            } else if (outputClosed) {
+                return -1;
+            }
+            awaitSignal(0L);
+        }
+    }
+
+    private void awaitSignal(final long timeoutMillis) throws InterruptedIOException {
+        try {
+            wait(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting on the pipe");
+        }
+    }
+
+    private synchronized int available() {
+        return count;
+    }
+
+    private synchronized void closeOutput() {
+        outputClosed = true;
+        notifyAll();
+    }
+
+    private synchronized void closeInput() {
+        inputClosed = true;
+        count = 0;
+        notifyAll();
+    }
+
+    private class PipeOutputStream extends OutputStream {
+        @Override
+        public void write(final int i) throws IOException {
+            StreamingPipe.this.write(new byte[] { (byte) i }, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            StreamingPipe.this.write(b, off, len);
+        }
+
+        @Override
+        public void close() {
+            closeOutput();
+        }
+    }
+
+    private class PipeInputStream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return StreamingPipe.this.read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            return StreamingPipe.this.read(b, off, len);
+        }
+
+        @Override
+        public int available() {
+            return StreamingPipe.this.available();
+        }
+
+        @Override
+        public void close() {
+            closeInput();
+        }
+    }
+}
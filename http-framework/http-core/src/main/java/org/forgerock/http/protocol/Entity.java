@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.protocol;
@@ -25,6 +26,7 @@ import static org.forgerock.util.Utils.closeSilently;
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -32,13 +34,16 @@ import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 
 import org.forgerock.http.header.ContentEncodingHeader;
 import org.forgerock.http.header.ContentLengthHeader;
 import org.forgerock.http.header.ContentTypeHeader;
 import org.forgerock.http.io.BranchingInputStream;
+import org.forgerock.http.io.FileBranchingStream;
 import org.forgerock.http.io.IO;
+import org.forgerock.http.io.StreamingPipe;
 
 /**
  * Message content. An entity wraps a BranchingInputStream and provides various
@@ -183,7 +188,14 @@ public final class Entity implements Closeable {
      * Copies the raw content of this entity to the provided output stream.
      * After the method returns it will no longer be possible to read data from
      * this entity. This method does not push or pop branches nor does it
-     * perform any decoding of the raw data.
+     * perform any decoding of the raw data. If the content is read from a
+     * {@link StreamingPipe}, the output stream is flushed whenever no more
+     * content can be read without blocking, so that the content reaches the
+     * destination as it is produced. If the content is a
+     * {@link FileBranchingStream} and the output stream is also a
+     * {@link WritableByteChannel}, as are the output streams of some
+     * containers, the file is transferred to the channel without copying the
+     * bytes through the heap.
      *
      * @param out
      *            The destination output stream.
@@ -191,7 +203,13 @@ public final class Entity implements Closeable {
      *             If an IO error occurred while copying the raw content.
      */
     public void copyRawContentTo(final OutputStream out) throws IOException {
-        IO.stream(head, out);
+        if (head instanceof FileBranchingStream && out instanceof WritableByteChannel) {
+            ((FileBranchingStream) head).transferTo((WritableByteChannel) out);
+        } else if (StreamingPipe.isPipeInput(head)) {
+            IO.streamAndFlush(head, out);
+        } else {
+            IO.stream(head, out);
+        }
         out.flush();
     }
 
@@ -387,6 +405,48 @@ public final class Entity implements Closeable {
         }
     }
 
+    /**
+     * Sets the content of this entity to the content of the provided file.
+     * Calling this method will close any existing streams associated with the
+     * entity. Also sets the {@code Content-Length} header, overwriting any
+     * existing header.
+     * <p>
+     * The content is a {@link FileBranchingStream}, which the server adapters
+     * send without copying the bytes through the heap.
+     *
+     * @param file
+     *            The file whose content is to be stored in this entity.
+     * @throws IOException
+     *             If the file cannot be opened for reading.
+     */
+    public void setFile(final File file) throws IOException {
+        setFile(file, 0L, file.length());
+    }
+
+    /**
+     * Sets the content of this entity to the content of a region of the
+     * provided file. Calling this method will close any existing streams
+     * associated with the entity. Also sets the {@code Content-Length} header,
+     * overwriting any existing header.
+     * <p>
+     * The content is a {@link FileBranchingStream}, which the server adapters
+     * send without copying the bytes through the heap.
+     *
+     * @param file
+     *            The file whose content is to be stored in this entity.
+     * @param offset
+     *            The position in the file of the first byte of the region.
+     * @param length
+     *            The number of bytes of the region.
+     * @throws IOException
+     *             If the file cannot be opened for reading.
+     */
+    public void setFile(final File file, final long offset, final long length) throws IOException {
+        final FileBranchingStream content = new FileBranchingStream(file, offset, length);
+        message.getHeaders().put(ContentLengthHeader.NAME, length);
+        setRawContentInputStream(content);
+    }
+
     /**
      * Sets the content of this entity to the JSON representation of the
      * provided object. Calling this method will close any existing streams
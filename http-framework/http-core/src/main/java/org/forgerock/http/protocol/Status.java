@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.protocol;
@@ -545,6 +546,20 @@ public final class Status {
      */
     public static final Status RESET_CONTENT = newStatus(205, "Reset Content");
 
+    /**
+     * The 206 (Partial Content) status code indicates that the server is
+     * successfully fulfilling a range request for the target resource by
+     * transferring one or more parts of the selected representation that
+     * correspond to the satisfiable ranges found in the request's Range
+     * header field (RFC 7233 Section 3.1).
+     *
+     * A server generating a 206 response to a request with a single range
+     * MUST generate a Content-Range header field describing what range of
+     * the selected representation is enclosed, and a payload consisting of
+     * the range.
+     */
+    public static final Status PARTIAL_CONTENT = newStatus(206, "Partial Content");
+
     /**
      * The 300 (Multiple Choices) status code indicates that the target
      * resource has more than one representation, each with its own more
@@ -898,6 +913,20 @@ public final class Status {
      */
     public static final Status UNSUPPORTED_MEDIA_TYPE = newStatus(415, "Unsupported Media Type");
 
+    /**
+     * The 416 (Range Not Satisfiable) status code indicates that none of
+     * the ranges in the request's Range header field (RFC 7233 Section 3.1)
+     * overlap the current extent of the selected resource.
+     *
+     * For byte ranges, failing to overlap the current extent means that the
+     * first-byte-pos of all of the byte-range-spec values were greater than
+     * the current length of the selected representation. When this status
+     * code is generated in response to a byte-range request, the sender
+     * SHOULD generate a Content-Range header field specifying the current
+     * length of the selected representation.
+     */
+    public static final Status RANGE_NOT_SATISFIABLE = newStatus(416, "Range Not Satisfiable");
+
     /**
      * The 417 (Expectation Failed) status code indicates that the
      * expectation given in the request's Expect header field
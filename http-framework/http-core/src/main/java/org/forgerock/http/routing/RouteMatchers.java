@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.routing;
@@ -29,6 +30,7 @@ import org.forgerock.services.context.Context;
 import org.forgerock.services.routing.IncomparableRouteMatchException;
 import org.forgerock.services.routing.RouteMatch;
 import org.forgerock.services.routing.RouteMatcher;
+import org.forgerock.services.routing.UriTemplateRouteMatcher;
 
 /**
  * A utility class that contains methods for creating route matchers.
@@ -63,8 +65,7 @@ public final class RouteMatchers {
      * @return A {@code RouteMatcher} instance.
      */
     public static RouteMatcher<Request> requestUriMatcher(RoutingMode mode, String template) {
-        RouteMatcher<List<String>> delegate = uriMatcher(mode, template);
-        return new RequestUriRouteMatcher(delegate);
+        return new RequestUriRouteMatcher(new UriRouteMatcher(mode, template));
     }
 
     /**
@@ -129,11 +130,12 @@ public final class RouteMatchers {
      * from a {@code Request} and passes it as a {@code ResourcePath} to the
      * common {@code ResourcePath} route matcher.
      */
-    private static final class RequestUriRouteMatcher extends RouteMatcher<Request> {
+    private static final class RequestUriRouteMatcher extends RouteMatcher<Request>
+            implements UriTemplateRouteMatcher {
 
-        private final RouteMatcher<List<String>> delegate;
+        private final UriRouteMatcher delegate;
 
-        private RequestUriRouteMatcher(RouteMatcher<List<String>> delegate) {
+        private RequestUriRouteMatcher(UriRouteMatcher delegate) {
             this.delegate = delegate;
         }
 
@@ -142,6 +144,16 @@ public final class RouteMatchers {
             return delegate.evaluate(context, getRemainingRequestUri(context, request));
         }
 
+        @Override
+        public RoutingMode getRoutingMode() {
+            return delegate.getRoutingMode();
+        }
+
+        @Override
+        public String getUriTemplate() {
+            return delegate.getUriTemplate();
+        }
+
         @Override
         public String toString() {
             return delegate.toString();
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.http.routing;
 
@@ -20,6 +21,8 @@ import static org.forgerock.http.routing.RouteMatchers.getRemainingRequestUri;
 import static org.forgerock.http.routing.RouteMatchers.selfApiMatcher;
 import static org.forgerock.util.promise.Promises.newResultPromise;
 
+import java.util.List;
+
 import org.forgerock.http.ApiProducer;
 import org.forgerock.http.Handler;
 import org.forgerock.http.handler.DescribableHandler;
@@ -95,6 +98,11 @@ public final class Router extends AbstractRouter<Router, Request, Handler, Swagg
         return RouteMatchers.requestUriMatcher(mode, pattern);
     }
 
+    @Override
+    protected List<String> getRoutablePath(Context context, Request request) {
+        return getRemainingRequestUri(context, request);
+    }
+
     @Override
     protected Pair<RouteMatcher<Request>, Handler> getSelfApiHandler() {
         return Pair.of(selfApiMatcher(), selfApiHandler);
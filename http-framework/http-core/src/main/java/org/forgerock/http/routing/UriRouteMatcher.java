@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.routing;
@@ -32,6 +33,7 @@ import org.forgerock.services.context.Context;
 import org.forgerock.services.routing.IncomparableRouteMatchException;
 import org.forgerock.services.routing.RouteMatch;
 import org.forgerock.services.routing.RouteMatcher;
+import org.forgerock.services.routing.UriTemplateRouteMatcher;
 
 /**
  * A {@link RouteMatcher} which routes requests using URI template matching
@@ -71,7 +73,7 @@ import org.forgerock.services.routing.RouteMatcher;
  * <b>NOTE:</b> for simplicity this implementation only supports a small
  * sub-set of the functionality described in RFC 6570.
  */
-class UriRouteMatcher extends RouteMatcher<List<String>> {
+class UriRouteMatcher extends RouteMatcher<List<String>> implements UriTemplateRouteMatcher {
 
     private final RoutingMode mode;
     private final Pattern regex;
@@ -119,6 +121,16 @@ class UriRouteMatcher extends RouteMatcher<List<String>> {
         return new UriRouteMatch(matcher.group(1), remaining, variableMap, mode);
     }
 
+    @Override
+    public RoutingMode getRoutingMode() {
+        return mode;
+    }
+
+    @Override
+    public String getUriTemplate() {
+        return uriTemplate;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
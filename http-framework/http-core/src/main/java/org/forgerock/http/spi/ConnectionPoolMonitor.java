@@ -0,0 +1,45 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.spi;
+
+import java.util.Map;
+
+/**
+ * Implemented by the {@link HttpClient}s pooling their connections, in order
+ * to expose the state of their pool through
+ * {@link org.forgerock.http.handler.HttpClientHandler#getMetrics()}.
+ * <p>
+ * Routes are identified by the scheme, host name in lower case and port of
+ * their target: {@code "https://idp.example.com:443"}.
+ */
+public interface ConnectionPoolMonitor {
+
+    /**
+     * Returns the state of all the connections of the pool.
+     *
+     * @return The state of the pool.
+     */
+    ConnectionPoolStats getTotalStats();
+
+    /**
+     * Returns the state of the connections of the pool to each route which
+     * has been used.
+     *
+     * @return The state of the connections to each route, keyed by route.
+     */
+    Map<String, ConnectionPoolStats> getRouteStats();
+}
@@ -0,0 +1,90 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.spi;
+
+/**
+ * A snapshot of the state of the connections of a pool, or of the connections
+ * of a pool to a single route.
+ */
+public final class ConnectionPoolStats {
+
+    private final int leased;
+    private final int pending;
+    private final int available;
+    private final int max;
+
+    /**
+     * Creates a snapshot of the state of the connections of a pool.
+     *
+     * @param leased
+     *            The number of connections executing a request.
+     * @param pending
+     *            The number of requests waiting for a connection.
+     * @param available
+     *            The number of idle connections, kept alive for reuse.
+     * @param max
+     *            The maximum number of connections.
+     */
+    public ConnectionPoolStats(final int leased, final int pending, final int available, final int max) {
+        this.leased = leased;
+        this.pending = pending;
+        this.available = available;
+        this.max = max;
+    }
+
+    /**
+     * Returns the number of connections executing a request.
+     *
+     * @return The number of leased connections.
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * Returns the number of requests waiting for a connection: a pool is
+     * saturated when requests are pending.
+     *
+     * @return The number of pending requests.
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * Returns the number of idle connections, kept alive for reuse.
+     *
+     * @return The number of available connections.
+     */
+    public int getAvailable() {
+        return available;
+    }
+
+    /**
+     * Returns the maximum number of connections.
+     *
+     * @return The maximum number of connections.
+     */
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "[leased: " + leased + "; pending: " + pending + "; available: " + available + "; max: " + max + "]";
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.services.context;
@@ -46,6 +47,10 @@ import org.forgerock.util.Reject;
  *   }
  * }
  * </pre>
+ * <p>
+ * The contexts found by {@link #asContext}, {@link #containsContext} and {@link #getContext} are remembered by each
+ * context, and looked up in the parent context when not found, so that the whole chain of contexts is only walked
+ * once for each context type or name, however many times and at whatever depth the lookup is repeated.
  */
 public abstract class AbstractContext implements Context {
 
@@ -55,6 +60,9 @@ public abstract class AbstractContext implements Context {
     private static final String ATTR_NAME = "name";
     private static final String ATTR_PARENT = "parent";
 
+    /** The number of lookups remembered by each context, a power of two. */
+    private static final int LOOKUPS = 8;
+
     /**
      * The parent Context.
      */
@@ -65,6 +73,16 @@ public abstract class AbstractContext implements Context {
      */
     protected final JsonValue data;
 
+    /**
+     * The name of this context, also held in the data.
+     */
+    private final String name;
+
+    /**
+     * The last lookups of a context type or name in this context, created on first use.
+     */
+    private volatile Lookup[] lookups;
+
     /**
      * Constructs a new {@code AbstractContext} with a {@code null} {@code id}.
      *
@@ -89,6 +107,7 @@ public abstract class AbstractContext implements Context {
             data.put(ATTR_ID, id);
         }
         data.put(ATTR_NAME, name);
+        this.name = name;
         this.parent = parent;
     }
 
@@ -127,6 +146,7 @@ public abstract class AbstractContext implements Context {
         final JsonValue savedParentContext = savedContext.get(ATTR_PARENT);
         savedContext.remove(ATTR_PARENT);
         data = savedContext.copy();
+        this.name = data.get(ATTR_NAME).asString();
         this.parent = savedParentContext.isNull() ? null : load0(savedParentContext, classLoader);
     }
 
@@ -147,7 +167,7 @@ public abstract class AbstractContext implements Context {
 
     @Override
     public final String getContextName() {
-        return data.get(ATTR_NAME).asString();
+        return name;
     }
 
     @Override
@@ -214,13 +234,7 @@ public abstract class AbstractContext implements Context {
 
     private <T extends Context> T asContext0(final Class<T> clazz) {
         try {
-            for (Context context = this; context != null; context = context.getParent()) {
-                final Class<?> contextClass = context.getClass();
-                if (clazz.isAssignableFrom(contextClass)) {
-                    return contextClass.asSubclass(clazz).cast(context);
-                }
-            }
-            return null;
+            return clazz.cast(lookup(clazz));
         } catch (final Exception e) {
             throw new IllegalArgumentException(
                     "Unable to instantiate Context implementation class '" + clazz.getName() + "'", e);
@@ -228,12 +242,66 @@ public abstract class AbstractContext implements Context {
     }
 
     private Context getContext0(final String contextName) {
-        for (Context context = this; context != null; context = context.getParent()) {
-            if (context.getContextName().equals(contextName)) {
+        return contextName != null ? lookup(contextName) : null;
+    }
+
+    /**
+     * Returns the nearest context, starting from this one, which is an instance of the given class or has the given
+     * name, remembering it for subsequent lookups.
+     */
+    private Context lookup(final Object key) {
+        Lookup[] lookups = this.lookups;
+        if (lookups == null) {
+            lookups = new Lookup[LOOKUPS];
+            this.lookups = lookups;
+        }
+        final int hash = key.hashCode();
+        int slot = hash & (LOOKUPS - 1);
+        for (int probe = 0; probe < LOOKUPS; probe++) {
+            final Lookup lookup = lookups[(hash + probe) & (LOOKUPS - 1)];
+            if (lookup == null) {
+                slot = (hash + probe) & (LOOKUPS - 1);
+                break;
+            } else if (lookup.key == key || lookup.key.equals(key)) {
+                return lookup.context;
+            }
+        }
+        final Context context = find(key);
+        // lookups are immutable, so that a racing thread sees either a whole lookup or none
+        lookups[slot] = new Lookup(key, context);
+        return context;
+    }
+
+    private Context find(final Object key) {
+        if (matches(this, key)) {
+            return this;
+        }
+        for (Context context = parent; context != null; context = context.getParent()) {
+            if (context instanceof AbstractContext) {
+                return ((AbstractContext) context).lookup(key);
+            } else if (matches(context, key)) {
                 return context;
             }
         }
         return null;
     }
 
+    private static boolean matches(final Context context, final Object key) {
+        return key instanceof Class
+                ? ((Class<?>) key).isInstance(context)
+                : key.equals(context.getContextName());
+    }
+
+    /**
+     * The context found for a context type or name.
+     */
+    private static final class Lookup {
+        private final Object key;
+        private final Context context;
+
+        private Lookup(final Object key, final Context context) {
+            this.key = key;
+            this.context = context;
+        }
+    }
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.services.routing;
 
@@ -26,6 +27,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.forgerock.http.ApiProducer;
 import org.forgerock.http.routing.RoutingMode;
+import org.forgerock.http.util.Paths;
 import org.forgerock.services.context.Context;
 import org.forgerock.services.descriptor.Describable;
 import org.forgerock.util.Pair;
@@ -52,6 +54,8 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
         implements Describable<D, R>, Describable.Listener {
 
     private final Map<RouteMatcher<R>, H> routes = new ConcurrentHashMap<>();
+    /** Compiled dispatch index of {@link #routes}, rebuilt whenever the routes change. */
+    private volatile RouteIndex<R, H> routeIndex = RouteIndex.build(routes);
     /** Matches the current route. */
     protected final RouteMatcher<R> thisRouterUriMatcher = uriMatcher(EQUALS, "");
     private volatile H defaultRoute;
@@ -109,6 +113,7 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
                 H handler = route.getValue();
                 descriptorChanged |= updateApiDescriptor(routes.put(route.getKey(), handler), handler);
             }
+            rebuildRouteIndex();
             if (descriptorChanged) {
                 notifyDescriptorChange();
             }
@@ -129,7 +134,9 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
      * @return This router instance.
      */
     public final T addRoute(RouteMatcher<R> matcher, H handler) {
-        return updateApiDescriptorAndNotify(routes.put(matcher, handler), handler);
+        H oldHandler = routes.put(matcher, handler);
+        rebuildRouteIndex();
+        return updateApiDescriptorAndNotify(oldHandler, handler);
     }
 
     private boolean updateApiDescriptor(H oldHandler, H newHandler) {
@@ -182,6 +189,7 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
      */
     public final T removeAllRoutes() {
         routes.clear();
+        rebuildRouteIndex();
         api = null;
         return getThis();
     }
@@ -202,6 +210,9 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
             isModified |= removed != null;
             apiDescriptorModified |= updateApiDescriptor(removed, null);
         }
+        if (isModified) {
+            rebuildRouteIndex();
+        }
         if (apiDescriptorModified) {
             notifyDescriptorChange();
         }
@@ -262,16 +273,47 @@ public abstract class AbstractRouter<T extends AbstractRouter<T, R, H, D>, R, H,
     }
 
     private Pair<RouteMatch, H> getBestRouteMatch(Context context, R request) throws IncomparableRouteMatchException {
-        Pair<RouteMatch, H> bestMatch = Pair.of(null, null);
-        for (Map.Entry<RouteMatcher<R>, H> route : routes.entrySet()) {
-            RouteMatch result = route.getKey().evaluate(context, request);
+        final RouteIndex<R, H> index = routeIndex;
+        String path = null;
+        if (index.hasIndexedRoutes()) {
+            List<String> pathElements = getRoutablePath(context, request);
+            if (pathElements != null) {
+                path = Paths.joinPath(pathElements);
+            }
+        }
+        RouteMatch bestRouteMatch = null;
+        H bestHandler = null;
+        for (RouteIndex.Route<R, H> route : index.candidates(path)) {
+            RouteMatch result = route.matcher.evaluate(context, request);
             if (result != null) {
-                if (result.isBetterMatchThan(bestMatch.getFirst())) {
-                    bestMatch = Pair.of(result, route.getValue());
+                if (result.isBetterMatchThan(bestRouteMatch)) {
+                    bestRouteMatch = result;
+                    bestHandler = route.handler;
                 }
             }
         }
-        return bestMatch;
+        return Pair.of(bestRouteMatch, bestHandler);
+    }
+
+    /**
+     * Returns the path of the request that {@link UriTemplateRouteMatcher}s
+     * registered with this router are matched against. Routers which return a
+     * non-{@code null} path have their {@code UriTemplateRouteMatcher} routes
+     * indexed by path segment, so that only the routes which may match the
+     * request are evaluated. The default implementation returns {@code null},
+     * which means that every route is evaluated for every request.
+     *
+     * @param context The request context.
+     * @param request The request.
+     * @return The routable path elements of the request, or {@code null} if
+     * routes should not be indexed by path.
+     */
+    protected List<String> getRoutablePath(Context context, R request) {
+        return null;
+    }
+
+    private synchronized void rebuildRouteIndex() {
+        routeIndex = RouteIndex.build(routes);
     }
 
     /**
@@ -0,0 +1,203 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.services.routing;
+
+import static java.util.Collections.emptyList;
+import static org.forgerock.http.routing.RoutingMode.EQUALS;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * An immutable path-segment trie of the routes registered with an
+ * {@link AbstractRouter}. Routes whose matcher is a
+ * {@link UriTemplateRouteMatcher} with a known template are stored under the
+ * literal segments of their URI template, variable segments being stored as
+ * wildcard edges. All other routes are kept aside and must always be
+ * evaluated.
+ *
+ * <p>Looking up a path returns a superset of the routes which can match it,
+ * so evaluating the candidates and keeping the best match gives the same
+ * result as evaluating every registered route.</p>
+ *
+ * <p>The index is never modified once built: routers build a new index each
+ * time their routing table changes.</p>
+ *
+ * @param <R> The type of the request.
+ * @param <H> The type of the handler.
+ */
+final class RouteIndex<R, H> {
+
+    private static final Pattern SEGMENT_SPLIT_PATTERN = Pattern.compile("/");
+
+    /**
+     * Builds a new index of the provided routes.
+     *
+     * @param routes The routes to be indexed.
+     * @param <R> The type of the request.
+     * @param <H> The type of the handler.
+     * @return The new index.
+     */
+    static <R, H> RouteIndex<R, H> build(Map<RouteMatcher<R>, H> routes) {
+        Node<R, H> root = new Node<>();
+        List<Route<R, H>> all = new ArrayList<>(routes.size());
+        List<Route<R, H>> unindexed = new ArrayList<>();
+        for (Map.Entry<RouteMatcher<R>, H> entry : routes.entrySet()) {
+            Route<R, H> route = new Route<>(entry.getKey(), entry.getValue());
+            all.add(route);
+            if (route.matcher instanceof UriTemplateRouteMatcher
+                    && ((UriTemplateRouteMatcher) route.matcher).getUriTemplate() != null) {
+                UriTemplateRouteMatcher matcher = (UriTemplateRouteMatcher) route.matcher;
+                Node<R, H> node = root;
+                for (String segment : templateSegments(matcher.getUriTemplate())) {
+                    node = node.child(segment);
+                }
+                if (matcher.getRoutingMode() == EQUALS) {
+                    node.equalsRoutes.add(route);
+                } else {
+                    node.startsWithRoutes.add(route);
+                }
+            } else {
+                unindexed.add(route);
+            }
+        }
+        return new RouteIndex<>(root, all, unindexed);
+    }
+
+    private final Node<R, H> root;
+    private final List<Route<R, H>> all;
+    private final List<Route<R, H>> unindexed;
+
+    private RouteIndex(Node<R, H> root, List<Route<R, H>> all, List<Route<R, H>> unindexed) {
+        this.root = root;
+        this.all = all;
+        this.unindexed = unindexed;
+    }
+
+    /**
+     * Returns {@code true} if at least one route has been indexed by path, in
+     * which case callers should compute the routable path of the request.
+     *
+     * @return {@code true} if at least one route has been indexed by path.
+     */
+    boolean hasIndexedRoutes() {
+        return unindexed.size() < all.size();
+    }
+
+    /**
+     * Returns the routes which must be evaluated for a request with the
+     * provided URL-encoded routable path.
+     *
+     * @param path The URL-encoded routable path of the request, or
+     *             {@code null} if the path is not known, in which case all of
+     *             the routes are returned.
+     * @return The routes which may match the request.
+     */
+    List<Route<R, H>> candidates(String path) {
+        if (path == null) {
+            return all;
+        }
+        String[] segments = path.isEmpty() ? new String[0] : SEGMENT_SPLIT_PATTERN.split(path, -1);
+        List<Route<R, H>> candidates = new ArrayList<>(unindexed);
+        collect(root, segments, 0, candidates);
+        return candidates;
+    }
+
+    private static <R, H> void collect(Node<R, H> node, String[] segments, int depth, List<Route<R, H>> candidates) {
+        candidates.addAll(node.startsWithRoutes);
+        if (depth == segments.length) {
+            candidates.addAll(node.equalsRoutes);
+            return;
+        }
+        if (node.literals != null) {
+            Node<R, H> literal = node.literals.get(segments[depth]);
+            if (literal != null) {
+                collect(literal, segments, depth + 1, candidates);
+            }
+        }
+        if (node.wildcard != null) {
+            collect(node.wildcard, segments, depth + 1, candidates);
+        }
+    }
+
+    /**
+     * Splits a URI template into its path segments, in the same way as the
+     * URI template is interpreted when matching request paths.
+     */
+    private static List<String> templateSegments(String uriTemplate) {
+        String t = uriTemplate;
+        if (t.startsWith("/")) {
+            t = t.substring(1);
+        }
+        if (t.endsWith("/")) {
+            t = t.substring(0, t.length() - 1);
+        }
+        if (t.isEmpty()) {
+            return emptyList();
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : SEGMENT_SPLIT_PATTERN.split(t, -1)) {
+            // Any segment containing a template variable is treated as a wildcard.
+            segments.add(segment.indexOf('{') >= 0 ? null : segment);
+        }
+        return segments;
+    }
+
+    /**
+     * A registered route.
+     *
+     * @param <R> The type of the request.
+     * @param <H> The type of the handler.
+     */
+    static final class Route<R, H> {
+        final RouteMatcher<R> matcher;
+        final H handler;
+
+        private Route(RouteMatcher<R> matcher, H handler) {
+            this.matcher = matcher;
+            this.handler = handler;
+        }
+    }
+
+    private static final class Node<R, H> {
+        private Map<String, Node<R, H>> literals;
+        private Node<R, H> wildcard;
+        private final List<Route<R, H>> equalsRoutes = new ArrayList<>(0);
+        private final List<Route<R, H>> startsWithRoutes = new ArrayList<>(0);
+
+        private Node<R, H> child(String segment) {
+            if (segment == null) {
+                if (wildcard == null) {
+                    wildcard = new Node<>();
+                }
+                return wildcard;
+            }
+            if (literals == null) {
+                literals = new HashMap<>();
+            }
+            Node<R, H> child = literals.get(segment);
+            if (child == null) {
+                child = new Node<>();
+                literals.put(segment, child);
+            }
+            return child;
+        }
+    }
+}
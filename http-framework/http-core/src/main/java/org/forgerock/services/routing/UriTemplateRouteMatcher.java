@@ -0,0 +1,49 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.services.routing;
+
+import org.forgerock.http.routing.RoutingMode;
+
+/**
+ * Implemented by {@link RouteMatcher}s which only match requests whose
+ * routable path matches a fixed URI template. Routers use this information to
+ * index their routes by literal path segment so that only the route matchers
+ * which could possibly match a request need to be evaluated.
+ *
+ * <p>A route matcher implementing this interface must never match a request
+ * whose routable path, as returned by
+ * {@link AbstractRouter#getRoutablePath(org.forgerock.services.context.Context, Object)},
+ * does not match its URI template.</p>
+ */
+public interface UriTemplateRouteMatcher {
+
+    /**
+     * Returns the routing mode used to match the URI template.
+     *
+     * @return The routing mode.
+     */
+    RoutingMode getRoutingMode();
+
+    /**
+     * Returns the URI template matched by this route matcher, or {@code null}
+     * if it is not known, in which case the route is not indexed and is
+     * evaluated for every request.
+     *
+     * @return The URI template, or {@code null}.
+     */
+    String getUriTemplate();
+}
@@ -0,0 +1,163 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.filter;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.http.protocol.Response.newResponsePromise;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.forgerock.http.Filter;
+import org.forgerock.http.Handler;
+import org.forgerock.http.io.FileBranchingStream;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class RangeFilterTest {
+
+    private static final String ETAG = "\"xyzzy\"";
+
+    private File file;
+
+    private final Handler fileHandler = new Handler() {
+        @Override
+        public Promise<Response, NeverThrowsException> handle(final Context context, final Request request) {
+            final Response response = new Response(Status.OK);
+            try {
+                response.getEntity().setFile(file);
+            } catch (IOException e) {
+                return newResponsePromise(new Response(Status.INTERNAL_SERVER_ERROR));
+            }
+            response.getHeaders().put("ETag", ETAG);
+            return newResponsePromise(response);
+        }
+    };
+
+    @BeforeClass
+    public void setUp() throws Exception {
+        file = File.createTempFile("range.", ".test");
+        Files.write(file.toPath(), "0123456789".getBytes(UTF_8));
+    }
+
+    @AfterClass
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void shouldServeSingleRangeOfFile() throws Exception {
+        final Response response = filter(request("bytes=2-5"));
+
+        assertThat(response.getStatus()).isEqualTo(Status.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst("Content-Range")).isEqualTo("bytes 2-5/10");
+        assertThat(response.getHeaders().getFirst("Content-Length")).isEqualTo("4");
+        assertThat(response.getEntity().getRawContentInputStream()).isInstanceOf(FileBranchingStream.class);
+        assertThat(response.getEntity().getString()).isEqualTo("2345");
+    }
+
+    @Test
+    public void shouldServeSuffixOfFile() throws Exception {
+        final Response response = filter(request("bytes=-3"));
+
+        assertThat(response.getStatus()).isEqualTo(Status.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst("Content-Range")).isEqualTo("bytes 7-9/10");
+        assertThat(response.getEntity().getString()).isEqualTo("789");
+    }
+
+    @Test
+    public void shouldRejectUnsatisfiableRange() throws Exception {
+        final Response response = filter(request("bytes=10-"));
+
+        assertThat(response.getStatus()).isEqualTo(Status.RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeaders().getFirst("Content-Range")).isEqualTo("bytes */10");
+        assertThat(response.getHeaders().getFirst("Content-Length")).isEqualTo("0");
+        assertThat(response.getEntity().getString()).isEmpty();
+    }
+
+    @Test
+    public void shouldServeWholeFileForSeveralRanges() throws Exception {
+        final Response response = filter(request("bytes=0-1,5-6"));
+
+        assertThat(response.getStatus()).isEqualTo(Status.OK);
+        assertThat(response.getHeaders().getFirst(RangeFilter.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getEntity().getString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    public void shouldServeRangeWhenIfRangeMatches() throws Exception {
+        final Request request = request("bytes=0-0");
+        request.getHeaders().put(RangeFilter.IF_RANGE, ETAG);
+
+        assertThat(filter(request).getStatus()).isEqualTo(Status.PARTIAL_CONTENT);
+    }
+
+    @Test
+    public void shouldServeWholeFileWhenIfRangeDoesNotMatch() throws Exception {
+        final Request request = request("bytes=0-0");
+        request.getHeaders().put(RangeFilter.IF_RANGE, "\"other\"");
+
+        final Response response = filter(request);
+        assertThat(response.getStatus()).isEqualTo(Status.OK);
+        assertThat(response.getEntity().getString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    public void shouldIgnoreRangeOfOtherMethods() throws Exception {
+        final Request request = request("bytes=0-0").setMethod("HEAD");
+
+        final Response response = filter(request);
+        assertThat(response.getStatus()).isEqualTo(Status.OK);
+        assertThat(response.getHeaders().containsKey(RangeFilter.ACCEPT_RANGES)).isFalse();
+    }
+
+    @Test
+    public void shouldIgnoreEntitiesOtherThanFiles() throws Exception {
+        final Response response = Filters.newRangeFilter().filter(new RootContext(), request("bytes=0-0"),
+                new Handler() {
+                    @Override
+                    public Promise<Response, NeverThrowsException> handle(Context context, Request request) {
+                        return newResponsePromise(new Response(Status.OK).setEntity("0123456789"));
+                    }
+                }).get();
+
+        assertThat(response.getStatus()).isEqualTo(Status.OK);
+        assertThat(response.getHeaders().containsKey(RangeFilter.ACCEPT_RANGES)).isFalse();
+    }
+
+    private Response filter(final Request request) throws Exception {
+        final Filter filter = Filters.newRangeFilter();
+        return filter.filter(new RootContext(), request, fileHandler).get();
+    }
+
+    private static Request request(final String range) {
+        final Request request = new Request().setMethod("GET");
+        request.getHeaders().put("Range", range);
+        return request;
+    }
+}
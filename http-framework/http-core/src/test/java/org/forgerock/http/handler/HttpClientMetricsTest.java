@@ -0,0 +1,81 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.handler;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.forgerock.http.MutableUri;
+import org.forgerock.http.spi.ConnectionPoolMonitor;
+import org.forgerock.http.spi.ConnectionPoolStats;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class HttpClientMetricsTest {
+
+    @Test
+    public void shouldKeyTheLatenciesByRoute() throws Exception {
+        final HttpClientMetrics metrics = new HttpClientMetrics(null);
+        metrics.latency(new MutableUri("https://IdP.example.com/oauth2/token")).record(5, MILLISECONDS);
+        metrics.latency(new MutableUri("https://idp.example.com:443/json/sessions")).record(7, MILLISECONDS);
+        metrics.latency(new MutableUri("http://localhost:8080/")).record(1, MILLISECONDS);
+
+        assertThat(metrics.getLatencies()).hasSize(2);
+        assertThat(metrics.getLatencies().get("https://idp.example.com:443").getCount()).isEqualTo(2);
+        assertThat(metrics.getLatencies().get("http://localhost:8080").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldGroupTheLatenciesOfTooManyRoutes() throws Exception {
+        final HttpClientMetrics metrics = new HttpClientMetrics(null);
+        for (int i = 0; i < 300; i++) {
+            metrics.latency(new MutableUri("http://host" + i + ".example.com/")).record(1, MILLISECONDS);
+        }
+        assertThat(metrics.getLatencies()).hasSize(257);
+        assertThat(metrics.getLatencies().get(HttpClientMetrics.OTHER_ROUTES).getCount()).isEqualTo(44);
+    }
+
+    @Test
+    public void shouldReportNoPoolStatsWithoutMonitor() {
+        final HttpClientMetrics metrics = new HttpClientMetrics(null);
+        assertThat(metrics.getTotalStats()).isNull();
+        assertThat(metrics.getRouteStats()).isEmpty();
+    }
+
+    @Test
+    public void shouldReportThePoolStatsOfTheMonitor() {
+        final ConnectionPoolStats stats = new ConnectionPoolStats(1, 2, 3, 10);
+        final ConnectionPoolMonitor monitor = new ConnectionPoolMonitor() {
+            @Override
+            public ConnectionPoolStats getTotalStats() {
+                return stats;
+            }
+
+            @Override
+            public Map<String, ConnectionPoolStats> getRouteStats() {
+                return Collections.singletonMap("http://localhost:80", stats);
+            }
+        };
+
+        final HttpClientMetrics metrics = new HttpClientMetrics(monitor);
+        assertThat(metrics.getTotalStats()).isSameAs(stats);
+        assertThat(metrics.getRouteStats()).containsOnlyKeys("http://localhost:80");
+    }
+}
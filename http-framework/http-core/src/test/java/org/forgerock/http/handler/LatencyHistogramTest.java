@@ -0,0 +1,82 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.handler;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldBeEmptyInitially() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getCount()).isEqualTo(0);
+        assertThat(histogram.getMean(MICROSECONDS)).isEqualTo(0);
+        assertThat(histogram.getPercentile(99, MICROSECONDS)).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldComputeTheMean() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10, MILLISECONDS);
+        histogram.record(30, MILLISECONDS);
+        assertThat(histogram.getCount()).isEqualTo(2);
+        assertThat(histogram.getMean(MILLISECONDS)).isEqualTo(20);
+    }
+
+    @Test
+    public void shouldBoundThePercentilesByTheirBucket() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100, MICROSECONDS);
+        }
+        histogram.record(5_000, MICROSECONDS);
+        // 100us falls in [64, 127], 5000us in [4096, 8191]
+        assertThat(histogram.getPercentile(50, MICROSECONDS)).isEqualTo(127);
+        assertThat(histogram.getPercentile(99, MICROSECONDS)).isEqualTo(127);
+        assertThat(histogram.getPercentile(100, MICROSECONDS)).isEqualTo(8_191);
+    }
+
+    @Test
+    public void shouldCountZeroLatencies() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(0, MICROSECONDS);
+        assertThat(histogram.getCount()).isEqualTo(1);
+        assertThat(histogram.getPercentile(100, MICROSECONDS)).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldCapTheLongestLatencies() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE, MICROSECONDS);
+        assertThat(histogram.getPercentile(100, MICROSECONDS)).isEqualTo(Long.MAX_VALUE / 1_000);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectNegativeLatencies() {
+        new LatencyHistogram().record(-1, MILLISECONDS);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectInvalidPercentiles() {
+        new LatencyHistogram().getPercentile(0, MILLISECONDS);
+    }
+}
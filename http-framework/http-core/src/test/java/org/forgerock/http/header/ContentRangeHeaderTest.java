@@ -0,0 +1,90 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.header;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.http.header.ContentRangeHeader.NAME;
+
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the content range header class.
+ * <p>
+ * See <link>https://tools.ietf.org/html/rfc7233</link>
+ * </p>. Header field example :
+ * <pre>
+ * Content-Range: bytes 42-1233/1234
+ * </pre>
+ */
+@SuppressWarnings("javadoc")
+public class ContentRangeHeaderTest {
+
+    @DataProvider
+    private Object[][] contentRangeProvider() {
+        return new Object[][] {
+            // Content range, first byte, last byte, complete length
+            { "bytes 42-1233/1234", 42L, 1233L, 1234L },
+            { "bytes 0-0/*", 0L, 0L, -1L },
+            { "bytes */1234", -1L, -1L, 1234L }
+        };
+    }
+
+    @DataProvider
+    private Object[][] malformedContentRangeProvider() {
+        return new Object[][] {
+            { "bytes" },
+            { "bytes */*" },
+            { "bytes 42/1234" },
+            { "bytes 42-41/1234" },
+            { "bytes 0-1234/1234" },
+            { "items 0-1/2" }
+        };
+    }
+
+    @Test(dataProvider = "contentRangeProvider")
+    public void testContentRangeHeaderFromString(final String contentRange, final long first, final long last,
+            final long completeLength) {
+        final ContentRangeHeader header = ContentRangeHeader.valueOf(contentRange);
+        assertThat(header.getFirst()).isEqualTo(first);
+        assertThat(header.getLast()).isEqualTo(last);
+        assertThat(header.getCompleteLength()).isEqualTo(completeLength);
+        assertThat(header.getValues()).containsOnly(contentRange);
+    }
+
+    @Test(dataProvider = "malformedContentRangeProvider")
+    public void testContentRangeHeaderIgnoresMalformedValue(final String contentRange) {
+        assertThat(ContentRangeHeader.valueOf(contentRange).getValues()).isEmpty();
+    }
+
+    @Test(dataProvider = "nullOrEmptyDataProvider", dataProviderClass = StaticProvider.class)
+    public void testContentRangeHeaderAllowsNullOrEmptyString(final String contentRange) {
+        assertThat(ContentRangeHeader.valueOf(contentRange).getValues()).isEmpty();
+    }
+
+    @Test
+    public void testContentRangeHeaderToMessage() {
+        final Response response = new Response(Status.PARTIAL_CONTENT);
+        response.getHeaders().put(new ContentRangeHeader(500L, 999L, 10000L));
+        assertThat(response.getHeaders().get(NAME).getValues()).containsOnly("bytes 500-999/10000");
+
+        response.getHeaders().put(new ContentRangeHeader(10000L));
+        assertThat(response.getHeaders().get(NAME).getValues()).containsOnly("bytes */10000");
+    }
+}
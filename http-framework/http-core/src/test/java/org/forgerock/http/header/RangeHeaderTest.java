@@ -0,0 +1,121 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.header;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.http.header.RangeHeader.NAME;
+
+import org.forgerock.http.header.RangeHeader.ByteRange;
+import org.forgerock.http.protocol.Request;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the range header class.
+ * <p>
+ * See <link>https://tools.ietf.org/html/rfc7233</link>
+ * </p>. Header field example :
+ * <pre>
+ * Range: bytes=500-999
+ * </pre>
+ */
+@SuppressWarnings("javadoc")
+public class RangeHeaderTest {
+
+    @DataProvider
+    private Object[][] byteRangeProvider() {
+        return new Object[][] {
+            // Range, length of the representation, first byte, last byte
+            { "bytes=0-499", 10000L, 0L, 499L },
+            { "bytes=500-999", 10000L, 500L, 999L },
+            { "bytes=9500-", 10000L, 9500L, 9999L },
+            { "bytes=-500", 10000L, 9500L, 9999L },
+            { "bytes=-20000", 10000L, 0L, 9999L },
+            { "bytes=9000-20000", 10000L, 9000L, 9999L },
+            { "Bytes = 0-0", 10000L, 0L, 0L }
+        };
+    }
+
+    @DataProvider
+    private Object[][] malformedRangeProvider() {
+        return new Object[][] {
+            { "bytes" },
+            { "bytes=" },
+            { "bytes=-" },
+            { "bytes=500" },
+            { "bytes=999-500" },
+            { "bytes=a-b" },
+            { "bytes=+1-2" },
+            { "items=0-10" }
+        };
+    }
+
+    @Test(dataProvider = "byteRangeProvider")
+    public void testRangeHeaderResolvesRangeAgainstLength(final String range, final long length,
+            final long first, final long last) {
+        final RangeHeader header = RangeHeader.valueOf(range);
+        assertThat(header.getRanges()).hasSize(1);
+        final ByteRange byteRange = header.getRanges().get(0);
+        assertThat(byteRange.isSatisfiable(length)).isTrue();
+        assertThat(byteRange.getFirst(length)).isEqualTo(first);
+        assertThat(byteRange.getLast(length)).isEqualTo(last);
+    }
+
+    @Test(dataProvider = "malformedRangeProvider")
+    public void testRangeHeaderIgnoresMalformedRange(final String range) {
+        assertThat(RangeHeader.valueOf(range).getRanges()).isEmpty();
+        assertThat(RangeHeader.valueOf(range).getValues()).isEmpty();
+    }
+
+    @Test(dataProvider = "nullOrEmptyDataProvider", dataProviderClass = StaticProvider.class)
+    public void testRangeHeaderAllowsNullOrEmptyString(final String range) {
+        assertThat(RangeHeader.valueOf(range).getRanges()).isEmpty();
+    }
+
+    @Test
+    public void testRangeHeaderParsesSeveralRanges() {
+        final RangeHeader header = RangeHeader.valueOf("bytes=0-0, -1,,10-");
+        assertThat(header.getRanges()).hasSize(3);
+        assertThat(header.getValues()).containsOnly("bytes=0-0,-1,10-");
+    }
+
+    @Test
+    public void testRangeNotSatisfiable() {
+        assertThat(RangeHeader.valueOf("bytes=10000-").getRanges().get(0).isSatisfiable(10000L)).isFalse();
+        assertThat(RangeHeader.valueOf("bytes=-0").getRanges().get(0).isSatisfiable(10000L)).isFalse();
+        assertThat(RangeHeader.valueOf("bytes=-1").getRanges().get(0).isSatisfiable(0L)).isFalse();
+    }
+
+    @Test
+    public void testRangeHeaderFromMessage() {
+        final Request request = new Request();
+        request.getHeaders().put(NAME, "bytes=500-999");
+
+        final RangeHeader header = RangeHeader.valueOf(request);
+        assertThat(header.getValues()).containsOnly("bytes=500-999");
+        assertThat(request.getHeaders().get(NAME)).isInstanceOf(RangeHeader.class);
+    }
+
+    @Test
+    public void testMalformedRangeHeaderInMessageIsKeptVerbatim() {
+        final Request request = new Request();
+        request.getHeaders().put(NAME, "lines=1-2");
+
+        assertThat(request.getHeaders().get(NAME)).isInstanceOf(GenericHeader.class);
+        assertThat(RangeHeader.valueOf(request).getRanges()).isEmpty();
+    }
+}
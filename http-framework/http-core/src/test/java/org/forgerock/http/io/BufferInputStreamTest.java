@@ -0,0 +1,87 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test reading a {@link Buffer} from a {@link BufferInputStream}.
+ */
+public class BufferInputStreamTest {
+
+    @Test
+    public void shouldReadContentAppendedToBuffer() throws IOException {
+        // Given
+        Buffer buffer = new MemoryBuffer(2, 64);
+        buffer.append("{\"_id\":".getBytes(UTF_8), 0, 7);
+        buffer.append("\"bjensen\"}".getBytes(UTF_8), 0, 10);
+
+        // When
+        try (BranchingInputStream in = IO.newBranchingInputStream(buffer, IO.newTemporaryStorage())) {
+            BranchingInputStream branch = in.branch();
+            String content = read(in);
+
+            // Then
+            assertThat(content).isEqualTo("{\"_id\":\"bjensen\"}");
+            assertThat(read(branch)).isEqualTo(content);
+        }
+    }
+
+    @Test
+    public void shouldSkipAndCountAvailableBytes() throws IOException {
+        // Given
+        Buffer buffer = new MemoryBuffer(2, 64);
+        buffer.append(new byte[] { 1, 2, 3, 4 }, 0, 4);
+
+        // When
+        try (BufferInputStream in = new BufferInputStream(buffer)) {
+            long skipped = in.skip(3L);
+
+            // Then
+            assertThat(skipped).isEqualTo(3L);
+            assertThat(in.available()).isEqualTo(1);
+            assertThat(in.read()).isEqualTo(4);
+            assertThat(in.read()).isEqualTo(-1);
+            assertThat(in.skip(1L)).isEqualTo(0L);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldCloseBufferWhenClosed() throws IOException {
+        // Given
+        Buffer buffer = new MemoryBuffer(2, 64);
+        buffer.append((byte) 1);
+
+        // When
+        new BufferInputStream(buffer).close();
+
+        // Then
+        buffer.append((byte) 2);
+    }
+
+    private static String read(BranchingInputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IO.stream(in, out);
+        return new String(out.toByteArray(), UTF_8);
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.io;
@@ -19,7 +20,9 @@ package org.forgerock.http.io;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 
@@ -67,4 +70,49 @@ public class FileBranchingStreamTest {
             }
         }
     }
+
+    @Test
+    public void testReadRegion() throws Exception {
+        try (FileBranchingStream stream = new FileBranchingStream(file, 2L, 4L)) {
+            byte[] bytes = new byte[16];
+            assertThat(stream.available()).isEqualTo(4);
+            assertThat(stream.read(bytes)).isEqualTo(4);
+            assertThat(new String(bytes, 0, 4, StandardCharsets.UTF_8)).isEqualTo("test");
+            assertThat(stream.read()).isEqualTo(-1);
+            assertThat(stream.getPosition()).isEqualTo(6L);
+        }
+    }
+
+    @Test
+    public void testSkipWithinRegion() throws Exception {
+        try (FileBranchingStream stream = new FileBranchingStream(file, 2L, 4L)) {
+            assertThat(stream.read()).isEqualTo('t');
+            assertThat(stream.skip(2L)).isEqualTo(2L);
+            assertThat(stream.read()).isEqualTo('t');
+            assertThat(stream.skip(1L)).isEqualTo(0L);
+        }
+    }
+
+    @Test
+    public void testTransferRestOfRegion() throws Exception {
+        try (FileBranchingStream stream = new FileBranchingStream(file, 2L, -1L)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertThat(stream.read()).isEqualTo('t');
+            assertThat(stream.transferTo(Channels.newChannel(out))).isEqualTo(8L);
+            assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("est file");
+            assertThat(stream.getRemaining()).isEqualTo(0L);
+            assertThat(stream.read()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    public void testBranchReadsSameRegion() throws Exception {
+        try (FileBranchingStream stream = new FileBranchingStream(file, 7L, 4L)) {
+            try (BranchingInputStream child = stream.branch()) {
+                assertThat(child).isInstanceOf(FileBranchingStream.class);
+                assertThat(((FileBranchingStream) child).getRemaining()).isEqualTo(4L);
+                assertThat(child.read()).isEqualTo(stream.read()).isEqualTo('f');
+            }
+        }
+    }
 }
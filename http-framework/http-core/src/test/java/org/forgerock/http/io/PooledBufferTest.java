@@ -0,0 +1,139 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.forgerock.util.test.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Test the pooling and the spilling to a file of {@link PooledBuffer}.
+ */
+public class PooledBufferTest {
+
+    private Path tempDir;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory(PooledBufferTest.class.getSimpleName());
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        FileUtils.deleteRecursively(tempDir);
+    }
+
+    @Test
+    public void shouldReadContentAcrossChunksAndFile() throws IOException {
+        // Given chunks of 4 and 8 bytes, then a file
+        ChunkPool pool = new ChunkPool(4, 16, 1024, true);
+        byte[] content = new byte[100];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        try (PooledBuffer buffer = new PooledBuffer(pool, 24, 1024, tempDir.toFile())) {
+            // When
+            buffer.append(content, 0, 10);
+            buffer.append(content[10]);
+            buffer.append(content, 11, 89);
+
+            // Then
+            assertThat(buffer.length()).isEqualTo(100);
+            assertThat(tempDir.toFile().list()).hasSize(1);
+            byte[] read = new byte[100];
+            assertThat(buffer.read(0, read, 0, 100)).isEqualTo(100);
+            assertThat(read).isEqualTo(content);
+            assertThat(buffer.read(3, read, 0, 20)).isEqualTo(20);
+            assertThat(read[0]).isEqualTo((byte) 3);
+            assertThat(read[19]).isEqualTo((byte) 22);
+            assertThat(buffer.read(95, read, 0, 20)).isEqualTo(5);
+            assertThat(buffer.read(11)).isEqualTo((byte) 11);
+            assertThat(buffer.read(99)).isEqualTo((byte) 99);
+        }
+    }
+
+    @Test
+    public void shouldReturnChunksToPoolAndDeleteFileWhenClosed() throws IOException {
+        // Given
+        ChunkPool pool = new ChunkPool(4, 16, 1024, false);
+        PooledBuffer buffer = new PooledBuffer(pool, 12, 1024, tempDir.toFile());
+        buffer.append(new byte[20], 0, 20);
+
+        // When
+        buffer.close();
+
+        // Then
+        assertThat(pool.getPooledBytes()).isEqualTo(12L);
+        assertThat(tempDir.toFile().list()).isEmpty();
+    }
+
+    @Test
+    public void shouldReuseChunksOfClosedBuffers() throws IOException {
+        // Given
+        ChunkPool pool = new ChunkPool(4, 16, 1024, false);
+        try (PooledBuffer buffer = new PooledBuffer(pool, 64, 1024, tempDir.toFile())) {
+            buffer.append(new byte[28], 0, 28);
+        }
+
+        // When
+        try (PooledBuffer buffer = new PooledBuffer(pool, 64, 1024, tempDir.toFile())) {
+            buffer.append(new byte[5], 0, 5);
+
+            // Then the chunks of 4 and 8 bytes are reused
+            assertThat(pool.getPooledBytes()).isEqualTo(16L);
+        }
+        assertThat(pool.getPooledBytes()).isEqualTo(28L);
+    }
+
+    @Test
+    public void shouldNotRetainChunksBeyondPoolLimit() throws IOException {
+        // Given
+        ChunkPool pool = new ChunkPool(4, 16, 8, false);
+        PooledBuffer buffer = new PooledBuffer(pool, 64, 1024, tempDir.toFile());
+        buffer.append(new byte[28], 0, 28);
+
+        // When
+        buffer.close();
+
+        // Then only the chunk of 4 bytes fits in the pool, the chunks of 8 and 16 bytes do not
+        assertThat(pool.getPooledBytes()).isEqualTo(4L);
+    }
+
+    @Test(expectedExceptions = OverflowException.class)
+    public void shouldFailToAppendBeyondFileLimit() throws IOException {
+        try (PooledBuffer buffer = new PooledBuffer(new ChunkPool(4, 16, 1024, false), 8, 16,
+                tempDir.toFile())) {
+            buffer.append(new byte[17], 0, 17);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldFailToReadOnceClosed() throws IOException {
+        PooledBuffer buffer = new PooledBuffer(new ChunkPool(4, 16, 1024, false), 8, 16, new File("."));
+        buffer.close();
+        buffer.length();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.io;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.util.time.Duration.duration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class StreamingPipeTest {
+
+    private ExecutorService executor;
+
+    @BeforeMethod
+    public void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldReadBytesWhileTheyAreWritten() throws Exception {
+        // Given
+        StreamingPipe pipe = new StreamingPipe(16, duration(10L, SECONDS), IO.newTemporaryStorage());
+        OutputStream out = pipe.getIn();
+        byte[] read = new byte[16];
+
+        // When
+        out.write("{\"result\":[".getBytes(UTF_8));
+        int length = pipe.getOut().read(read);
+
+        // Then
+        assertThat(new String(read, 0, length, UTF_8)).isEqualTo("{\"result\":[");
+        assertThat(pipe.getOut().available()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRecogniseInputOfPipeAndOfItsBranches() throws Exception {
+        StreamingPipe pipe = new StreamingPipe();
+
+        assertThat(StreamingPipe.isPipeInput(pipe.getOut())).isTrue();
+        assertThat(StreamingPipe.isPipeInput(pipe.getOut().branch())).isTrue();
+        assertThat(StreamingPipe.isPipeInput(new PipeBufferedStream().getOut())).isFalse();
+        assertThat(StreamingPipe.isPipeInput(IO.newBranchingInputStream(new byte[0]))).isFalse();
+    }
+
+    @Test
+    public void shouldHoldBackWriterToPaceOfReader() throws Exception {
+        // Given
+        final StreamingPipe pipe = new StreamingPipe(8, duration(10L, SECONDS), IO.newTemporaryStorage());
+        final byte[] content = "{\"result\":[{\"_id\":\"bjensen\"},{\"_id\":\"scarter\"}],\"resultCount\":2}"
+                .getBytes(UTF_8);
+        Future<byte[]> reader = executor.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws Exception {
+                ByteArrayOutputStream received = new ByteArrayOutputStream();
+                IO.stream(pipe.getOut(), received);
+                return received.toByteArray();
+            }
+        });
+
+        // When
+        try (OutputStream out = pipe.getIn()) {
+            out.write(content);
+        }
+
+        // Then
+        assertThat(reader.get(10L, SECONDS)).isEqualTo(content);
+    }
+
+    @Test
+    public void shouldReturnEndOfStreamOnceWriterClosedAndBytesRead() throws Exception {
+        // Given
+        StreamingPipe pipe = new StreamingPipe(16, duration(10L, SECONDS), IO.newTemporaryStorage());
+        pipe.getIn().write(42);
+        pipe.getIn().close();
+
+        // When
+        int first = pipe.getOut().read();
+        int second = pipe.getOut().read();
+
+        // Then
+        assertThat(first).isEqualTo(42);
+        assertThat(second).isEqualTo(-1);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldFailToWriteOnceReaderClosed() throws Exception {
+        // Given
+        StreamingPipe pipe = new StreamingPipe(16, duration(10L, SECONDS), IO.newTemporaryStorage());
+        pipe.getOut().close();
+
+        // When
+        pipe.getIn().write(42);
+    }
+
+    @Test
+    public void shouldBreakPipeWhenReaderTooSlow() throws Exception {
+        // Given
+        StreamingPipe pipe = new StreamingPipe(4, duration(50L, MILLISECONDS), IO.newTemporaryStorage());
+        pipe.getIn().write(new byte[4]);
+
+        // When
+        IOException writeFailure = null;
+        try {
+            pipe.getIn().write(42);
+        } catch (IOException e) {
+            writeFailure = e;
+        }
+        IOException readFailure = null;
+        try {
+            pipe.getOut().read();
+        } catch (IOException e) {
+            readFailure = e;
+        }
+
+        // Then
+        assertThat(writeFailure).hasMessageContaining("too slow");
+        assertThat(readFailure).isNotNull();
+    }
+
+    @Test
+    public void shouldUnblockWriterWhenReaderCloses() throws Exception {
+        // Given
+        final StreamingPipe pipe = new StreamingPipe(4, duration(10L, SECONDS), IO.newTemporaryStorage());
+        Future<IOException> writer = executor.submit(new Callable<IOException>() {
+            @Override
+            public IOException call() {
+                try {
+                    pipe.getIn().write(new byte[8]);
+                    return null;
+                } catch (IOException e) {
+                    return e;
+                }
+            }
+        });
+
+        // When
+        while (pipe.getOut().available() < 4) {
+            Thread.sleep(1L);
+        }
+        pipe.getOut().close();
+
+        // Then
+        assertThat(writer.get(10L, SECONDS)).hasMessageContaining("closed by its reader");
+    }
+}
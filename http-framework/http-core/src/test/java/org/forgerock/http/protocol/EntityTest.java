@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2014-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.protocol;
@@ -26,8 +27,14 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -340,6 +347,24 @@ public class EntityTest {
         assertThat(entity.getString()).isEqualTo("Hello");
     }
 
+    @Test
+    public void shouldTransferFileContentToChannelCapableOutputStream() throws Exception {
+        File file = File.createTempFile("entity", null);
+        try {
+            Files.write(file.toPath(), bytes("Hello World"));
+            entity.setFile(file, 6, 5);
+            ChannelOutputStream out = new ChannelOutputStream();
+
+            entity.copyRawContentTo(out);
+
+            assertThat(out.transferred.toByteArray()).isEqualTo(bytes("World"));
+            assertThat(out.written.size()).isEqualTo(0);
+        } finally {
+            entity.close();
+            file.delete();
+        }
+    }
+
     private static BranchingInputStream branchingStream(final byte[] bytes) throws UnsupportedEncodingException {
         return IO.newBranchingInputStream(new ByteArrayInputStream(bytes), IO.newTemporaryStorage());
     }
@@ -409,6 +434,31 @@ public class EntityTest {
         return mockContent(content.getBytes("UTF-8"));
     }
 
+    /** An output stream which is also a channel, as are the output streams of some containers. */
+    private static final class ChannelOutputStream extends OutputStream implements WritableByteChannel {
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream transferred = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) {
+            written.write(b);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            while (src.hasRemaining()) {
+                transferred.write(src.get());
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+    }
+
     /** Remove single quotes from a string. */
     private static String singleQuotesToDouble(final String value) {
         return value.replace('\'', '\"');
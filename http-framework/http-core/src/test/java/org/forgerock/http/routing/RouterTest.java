@@ -12,7 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
- * Portions Copyright 2018 Wren Security.
+ * Portions Copyright 2018-2026 Wren Security.
  */
 
 package org.forgerock.http.routing;
@@ -24,19 +24,26 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.forgerock.http.routing.RouteMatchers.requestUriMatcher;
+import static org.forgerock.http.routing.RoutingMode.EQUALS;
+import static org.forgerock.http.routing.RoutingMode.STARTS_WITH;
 
+import org.forgerock.http.ApiProducer;
 import org.forgerock.http.Handler;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Status;
 import org.forgerock.services.context.Context;
+import org.forgerock.services.routing.DelegatingRouteMatcher;
 import org.forgerock.services.routing.IncomparableRouteMatchException;
 import org.forgerock.services.routing.RouteMatch;
 import org.forgerock.services.routing.RouteMatcher;
+import org.forgerock.services.routing.UriTemplateRouteMatcher;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
 import org.forgerock.util.promise.Promises;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 public class RouterTest {
@@ -107,4 +114,152 @@ public class RouterTest {
         Response response = promise.getOrThrowUninterruptibly();
         assertThat(response.getStatus()).isEqualTo(Status.INTERNAL_SERVER_ERROR);
     }
+
+    @DataProvider
+    public Object[][] indexedRoutes() {
+        return new Object[][] {
+            { "users", "equals(users)" },
+            { "users/", "startsWith(users)" },
+            { "users/bjensen", "equals(users/{userId})" },
+            { "users/admin", "equals(users/admin)" },
+            { "users/bjensen/devices", "startsWith(users/{userId}/devices)" },
+            { "users/bjensen/devices/1", "startsWith(users/{userId}/devices)" },
+            { "users/admin/devices/1", "startsWith(users/{userId}/devices)" },
+            { "users/bjensen/groups", "startsWith(users)" },
+            { "groups", "startsWith()" },
+            { "user-bjensen", "equals(user-{userId})" },
+            { "", "equals()" },
+        };
+    }
+
+    @Test(dataProvider = "indexedRoutes")
+    public void indexedRoutesShouldMatchSameRouteAsLinearScan(String path, String expectedRoute) throws Exception {
+
+        //Given
+        String[][] routes = {
+            { "EQUALS", "" },
+            { "STARTS_WITH", "" },
+            { "EQUALS", "users" },
+            { "STARTS_WITH", "users" },
+            { "EQUALS", "users/{userId}" },
+            { "EQUALS", "users/admin" },
+            { "STARTS_WITH", "users/{userId}/devices" },
+            { "EQUALS", "user-{userId}" },
+        };
+        Router linearRouter = new Router();
+        for (String[] route : routes) {
+            RouteMatcher<Request> matcher = requestUriMatcher("EQUALS".equals(route[0]) ? EQUALS : STARTS_WITH,
+                    route[1]);
+            router.addRoute(matcher, new NamedHandler(matcher.toString()));
+            linearRouter.addRoute(new DelegatingRouteMatcher<>(matcher), new NamedHandler(matcher.toString()));
+        }
+        request.setUri("http://example.com:8080/" + path);
+
+        //When
+        Response indexed = router.handle(context, request).getOrThrowUninterruptibly();
+        Response linear = linearRouter.handle(context, request).getOrThrowUninterruptibly();
+
+        //Then
+        assertThat(indexed.getEntity().getString()).isEqualTo(expectedRoute);
+        assertThat(linear.getEntity().getString()).isEqualTo(expectedRoute);
+    }
+
+    @Test
+    public void removedRouteShouldNoLongerBeMatched() throws Exception {
+
+        //Given
+        RouteMatcher<Request> matcher = requestUriMatcher(EQUALS, "users/{userId}");
+        router.addRoute(matcher, new NamedHandler("users"));
+        request.setUri("http://example.com:8080/users/bjensen");
+
+        //When
+        router.removeRoute(matcher);
+
+        //Then
+        Response response = router.handle(context, request).getOrThrowUninterruptibly();
+        assertThat(response.getStatus()).isEqualTo(Status.NOT_FOUND);
+    }
+
+    @Test
+    public void routeWithoutKnownTemplateShouldNotBeIndexed() throws Exception {
+
+        //Given
+        router.addRoute(requestUriMatcher(EQUALS, "users/{userId}"), new NamedHandler("users"));
+        router.addRoute(new AnyRouteMatcher(), new NamedHandler("any"));
+        request.setUri("http://example.com:8080/groups/admins");
+
+        //When
+        Response response = router.handle(context, request).getOrThrowUninterruptibly();
+
+        //Then
+        assertThat(response.getEntity().getString()).isEqualTo("any");
+    }
+
+    /** A URI template route matcher which does not know its template, and matches any request. */
+    private static final class AnyRouteMatcher extends RouteMatcher<Request> implements UriTemplateRouteMatcher {
+
+        @Override
+        public RouteMatch evaluate(Context context, Request request) {
+            return new RouteMatch() {
+                @Override
+                public boolean isBetterMatchThan(RouteMatch result) {
+                    return result == null;
+                }
+
+                @Override
+                public Context decorateContext(Context context) {
+                    return context;
+                }
+            };
+        }
+
+        @Override
+        public RoutingMode getRoutingMode() {
+            return null;
+        }
+
+        @Override
+        public String getUriTemplate() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return "any";
+        }
+
+        @Override
+        public String idFragment() {
+            return "any";
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof AnyRouteMatcher;
+        }
+
+        @Override
+        public <D> D transformApi(D descriptor, ApiProducer<D> producer) {
+            return descriptor;
+        }
+    }
+
+    private static final class NamedHandler implements Handler {
+
+        private final String name;
+
+        private NamedHandler(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Promise<Response, NeverThrowsException> handle(Context context, Request request) {
+            return Promises.newResultPromise(new Response(Status.OK).setEntity(name));
+        }
+    }
 }
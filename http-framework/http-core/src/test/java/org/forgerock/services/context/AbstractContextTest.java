@@ -0,0 +1,102 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.services.context;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.testng.annotations.Test;
+
+public class AbstractContextTest {
+
+    @Test
+    public void shouldFindNearestContextOfType() {
+        RootContext root = new RootContext();
+        AttributesContext first = new AttributesContext(root);
+        SecurityContext security = new SecurityContext(first, "bjensen", Collections.<String, Object>emptyMap());
+        AttributesContext second = new AttributesContext(security);
+
+        assertThat(second.asContext(AttributesContext.class)).isSameAs(second);
+        assertThat(second.asContext(SecurityContext.class)).isSameAs(security);
+        assertThat(security.asContext(AttributesContext.class)).isSameAs(first);
+        assertThat(second.asContext(RootContext.class)).isSameAs(root);
+        // repeated lookups are remembered
+        assertThat(second.asContext(SecurityContext.class)).isSameAs(security);
+    }
+
+    @Test
+    public void shouldFindContextBySuperType() {
+        RootContext root = new RootContext();
+        AttributesContext attributes = new AttributesContext(root);
+
+        assertThat(attributes.asContext(AbstractContext.class)).isSameAs(attributes);
+        assertThat(attributes.asContext(Context.class)).isSameAs(attributes);
+    }
+
+    @Test
+    public void shouldFindNearestContextByName() {
+        RootContext root = new RootContext();
+        AttributesContext first = new AttributesContext(root);
+        AttributesContext second = new AttributesContext(first);
+
+        assertThat(second.getContext("attributes")).isSameAs(second);
+        assertThat(first.getContext("attributes")).isSameAs(first);
+        assertThat(second.getContext("root")).isSameAs(root);
+        assertThat(second.containsContext("security")).isFalse();
+        assertThat(second.containsContext((String) null)).isFalse();
+    }
+
+    @Test
+    public void shouldNotFindMissingContext() {
+        AttributesContext attributes = new AttributesContext(new RootContext());
+
+        assertThat(attributes.containsContext(SecurityContext.class)).isFalse();
+        assertThat(attributes.containsContext(SecurityContext.class)).isFalse();
+        assertThat(attributes.containsContext(AttributesContext.class)).isTrue();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldFailToFindMissingContextOfType() {
+        new AttributesContext(new RootContext()).asContext(SecurityContext.class);
+    }
+
+    @Test
+    public void shouldWalkThroughOtherContextImplementations() {
+        RootContext root = new RootContext();
+        Context other = mock(Context.class);
+        when(other.getContextName()).thenReturn("other");
+        when(other.getParent()).thenReturn(root);
+        AttributesContext attributes = new AttributesContext(other);
+
+        assertThat(attributes.asContext(Context.class)).isSameAs(attributes);
+        assertThat(attributes.getContext("other")).isSameAs(other);
+        assertThat(attributes.asContext(RootContext.class)).isSameAs(root);
+    }
+
+    @Test
+    public void shouldKeepContextNameWhenRestored() {
+        AttributesContext attributes = new AttributesContext(new RootContext());
+
+        AttributesContext restored = new AttributesContext(attributes.toJsonValue(), getClass().getClassLoader());
+
+        assertThat(restored.getContextName()).isEqualTo("attributes");
+        assertThat(restored.getContext("root").getContextName()).isEqualTo("root");
+    }
+}
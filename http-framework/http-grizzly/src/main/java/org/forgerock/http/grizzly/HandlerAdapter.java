@@ -12,6 +12,7 @@
  * information: "Portions Copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.http.grizzly;
 
@@ -23,9 +24,11 @@ import static org.forgerock.http.io.IO.newTemporaryStorage;
 import static org.forgerock.http.protocol.Responses.newInternalServerError;
 import static org.forgerock.http.routing.UriRouterContext.uriRouterContext;
 import static org.forgerock.util.Utils.closeSilently;
+import static org.forgerock.util.promise.Promises.newResultPromise;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
@@ -39,7 +42,8 @@ import org.forgerock.http.HttpApplicationException;
 import org.forgerock.http.filter.TransactionIdInboundFilter;
 import org.forgerock.http.handler.DescribableHandler;
 import org.forgerock.http.io.Buffer;
-import org.forgerock.http.io.IO;
+import org.forgerock.http.io.FileBranchingStream;
+import org.forgerock.http.protocol.Status;
 import org.forgerock.http.routing.UriRouterContext;
 import org.forgerock.http.session.SessionContext;
 import org.forgerock.http.util.CaseInsensitiveSet;
@@ -49,9 +53,20 @@ import org.forgerock.services.context.ClientContext;
 import org.forgerock.services.context.Context;
 import org.forgerock.services.context.RequestAuditContext;
 import org.forgerock.services.context.RootContext;
+import org.forgerock.util.AsyncFunction;
 import org.forgerock.util.Factory;
+import org.forgerock.util.promise.ExceptionHandler;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
 import org.forgerock.util.promise.ResultHandler;
 import org.forgerock.util.promise.RuntimeExceptionHandler;
+import org.glassfish.grizzly.EmptyCompletionHandler;
+import org.glassfish.grizzly.ReadHandler;
+import org.glassfish.grizzly.WriteHandler;
+import org.glassfish.grizzly.WriteResult;
+import org.glassfish.grizzly.http.io.NIOInputStream;
+import org.glassfish.grizzly.http.io.NIOOutputStream;
 import org.glassfish.grizzly.http.server.HttpHandler;
 import org.glassfish.grizzly.http.server.Request;
 import org.glassfish.grizzly.http.server.Response;
@@ -63,12 +78,21 @@ import io.swagger.models.Swagger;
 
 /**
  * A Grizzly implementation which provides integration between the Grizzly API and the common HTTP Framework.
+ * <p>
+ * The entities are read and written with the non-blocking IO of Grizzly: the request entity is fed into a buffer as
+ * its bytes are received, and the request is only handled once it has been received in full, while the response
+ * entity is only written while Grizzly can accept bytes without queueing more than its configured limit. Clients
+ * sending their requests, or reading their responses, slowly do not hold the worker threads. Reading a streamed
+ * response entity may still block while its producer has not written the next bytes.
  *
  * @see HttpApplication
  * @see Handler
  */
 final class HandlerAdapter extends HttpHandler {
 
+    /** The size of the chunks read from, and written to, Grizzly. */
+    private static final int CHUNK_SIZE = 8 * 1024;
+
     /** Methods that should not include an entity body. */
     private static final CaseInsensitiveSet NON_ENTITY_METHODS = new CaseInsensitiveSet(
             Arrays.asList("GET", "HEAD", "TRACE"));
@@ -119,8 +143,24 @@ final class HandlerAdapter extends HttpHandler {
         final AttributesContext attributesContext = new AttributesContext(new RequestAuditContext(uriRouterContext));
         final ClientContext context = createClientContext(attributesContext, request);
 
+        // The response is resumed once its entity has been written
         response.suspend();
-        describedHandler.handle(context, chfRequest)
+        readEntity(request, chfRequest)
+                .thenAsync(new AsyncFunction<org.forgerock.http.protocol.Request,
+                        org.forgerock.http.protocol.Response, NeverThrowsException>() {
+                    @Override
+                    public Promise<org.forgerock.http.protocol.Response, NeverThrowsException> apply(
+                            org.forgerock.http.protocol.Request requestWithEntity) {
+                        return describedHandler.handle(context, requestWithEntity);
+                    }
+                }, new AsyncFunction<IOException, org.forgerock.http.protocol.Response, NeverThrowsException>() {
+                    @Override
+                    public Promise<org.forgerock.http.protocol.Response, NeverThrowsException> apply(
+                            IOException e) {
+                        LOGGER.trace("Failed to read the request entity", e);
+                        return newResultPromise(new org.forgerock.http.protocol.Response(Status.BAD_REQUEST));
+                    }
+                })
                 .thenOnResult(new ResultHandler<org.forgerock.http.protocol.Response>() {
                     @Override
                     public void handleResult(org.forgerock.http.protocol.Response chfResponse) {
@@ -135,17 +175,24 @@ final class HandlerAdapter extends HttpHandler {
                                 newInternalServerError(e),
                                 response, sessionContext);
                     }
-                })
-                .thenAlways(new Runnable() {
-                    @Override
-                    public void run() {
-                        response.resume();
-                    }
                 });
     }
 
+    private Promise<org.forgerock.http.protocol.Request, IOException> readEntity(final Request request,
+            final org.forgerock.http.protocol.Request chfRequest) {
+        // include request entity if appears to be provided with request
+        if ((request.getContentLength() > 0 || request.getHeader("Transfer-Encoding") != null)
+                && !NON_ENTITY_METHODS.contains(chfRequest.getMethod())) {
+            final EntityReader reader = new EntityReader(request.getNIOInputStream(), chfRequest, storage);
+            reader.start();
+            return reader.promise;
+        }
+        return newResultPromise(chfRequest);
+    }
+
     private void writeResponse(final org.forgerock.http.protocol.Response chfResponse, final Response grizzlyResponse,
             final SessionContext sessionContext) {
+        Promise<Void, IOException> written = newResultPromise(null);
         try {
             grizzlyResponse.setStatus(chfResponse.getStatus().getCode());
             sessionContext.getSession().save(chfResponse);
@@ -158,14 +205,60 @@ final class HandlerAdapter extends HttpHandler {
                     }
                 }
             }
-            IO.stream(chfResponse.getEntity().getRawContentInputStream(), grizzlyResponse.getOutputStream());
+            final InputStream content = chfResponse.getEntity().getRawContentInputStream();
+            if (content instanceof FileBranchingStream && grizzlyResponse.isSendFileEnabled()
+                    && !grizzlyResponse.getRequest().isSecure()) {
+                written = sendFile((FileBranchingStream) content, grizzlyResponse);
+            } else {
+                final EntityWriter writer = new EntityWriter(content, grizzlyResponse.getNIOOutputStream());
+                writer.start();
+                written = writer.promise;
+            }
         } catch (IOException e) {
             LOGGER.trace("Failed to write response", e);
         } finally {
-            closeSilently(chfResponse);
+            written.thenOnException(new ExceptionHandler<IOException>() {
+                @Override
+                public void handleException(IOException e) {
+                    LOGGER.trace("Failed to write response", e);
+                }
+            }).thenAlways(new Runnable() {
+                @Override
+                public void run() {
+                    closeSilently(chfResponse);
+                    grizzlyResponse.resume();
+                }
+            });
         }
     }
 
+    /**
+     * Sends a file entity with the {@code sendfile} system call: the content of the file goes from the file system
+     * cache to the socket without being copied through the heap.
+     */
+    private static Promise<Void, IOException> sendFile(final FileBranchingStream content,
+            final Response grizzlyResponse) {
+        final PromiseImpl<Void, IOException> promise = PromiseImpl.create();
+        grizzlyResponse.getOutputBuffer().sendfile(content.getFile(), content.getPosition(), content.getRemaining(),
+                new EmptyCompletionHandler<WriteResult>() {
+                    @Override
+                    public void completed(WriteResult result) {
+                        promise.handleResult(null);
+                    }
+
+                    @Override
+                    public void failed(Throwable t) {
+                        promise.handleException(t instanceof IOException ? (IOException) t : new IOException(t));
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        promise.handleException(new IOException("Sending " + content.getFile() + " was cancelled"));
+                    }
+                });
+        return promise;
+    }
+
     private org.forgerock.http.protocol.Request toChfRequest(Request req) throws URISyntaxException {
         // populate request
         org.forgerock.http.protocol.Request request = new org.forgerock.http.protocol.Request();
@@ -187,12 +280,6 @@ final class HandlerAdapter extends HttpHandler {
             request.getHeaders().add(e, values);
         }
 
-        // include request entity if appears to be provided with request
-        if ((req.getContentLength() > 0 || req.getHeader("Transfer-Encoding") != null)
-                && !NON_ENTITY_METHODS.contains(request.getMethod())) {
-            request.setEntity(newBranchingInputStream(req.getInputStream(), storage));
-        }
-
         return request;
     }
 
@@ -215,4 +302,107 @@ final class HandlerAdapter extends HttpHandler {
                             .build();
     }
 
+    /**
+     * Feeds the request entity into a buffer each time Grizzly notifies that bytes can be read without blocking.
+     */
+    private static final class EntityReader implements ReadHandler {
+        private final PromiseImpl<org.forgerock.http.protocol.Request, IOException> promise = PromiseImpl.create();
+        private final NIOInputStream in;
+        private final org.forgerock.http.protocol.Request chfRequest;
+        private final Factory<Buffer> storage;
+        private final Buffer buffer;
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+
+        private EntityReader(NIOInputStream in, org.forgerock.http.protocol.Request chfRequest,
+                Factory<Buffer> storage) {
+            this.in = in;
+            this.chfRequest = chfRequest;
+            this.storage = storage;
+            this.buffer = storage.newInstance();
+        }
+
+        private void start() {
+            in.notifyAvailable(this);
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            readAvailable();
+            in.notifyAvailable(this);
+        }
+
+        @Override
+        public void onAllDataRead() throws IOException {
+            readAvailable();
+            chfRequest.setEntity(newBranchingInputStream(buffer, storage));
+            promise.handleResult(chfRequest);
+        }
+
+        private void readAvailable() throws IOException {
+            while (in.isReady()) {
+                final int n = in.read(chunk, 0, Math.min(chunk.length, in.readyData()));
+                if (n == -1) {
+                    return;
+                }
+                buffer.append(chunk, 0, n);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            closeSilently(buffer);
+            promise.handleException(t instanceof IOException ? (IOException) t : new IOException(t));
+        }
+    }
+
+    /**
+     * Writes the response entity each time Grizzly notifies that bytes can be written without queueing more than its
+     * configured limit.
+     */
+    private static final class EntityWriter implements WriteHandler {
+        private final PromiseImpl<Void, IOException> promise = PromiseImpl.create();
+        private final InputStream in;
+        private final NIOOutputStream out;
+
+        private EntityWriter(InputStream in, NIOOutputStream out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        private void start() {
+            try {
+                onWritePossible();
+            } catch (IOException e) {
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (true) {
+                // A new chunk each time, as Grizzly may queue the bytes written rather than copy them
+                final byte[] chunk = new byte[CHUNK_SIZE];
+                final int n = in.read(chunk);
+                if (n == -1) {
+                    promise.handleResult(null);
+                    return;
+                }
+                out.write(chunk, 0, n);
+                if (in.available() == 0) {
+                    // Flushed when the entity has no more bytes to read yet, so that a streamed entity reaches the
+                    // client as it is produced
+                    out.flush();
+                }
+                if (!out.canWrite()) {
+                    out.notifyCanWrite(this);
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            promise.handleException(t instanceof IOException ? (IOException) t : new IOException(t));
+        }
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.http.grizzly;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.http.Applications.simpleHttpApplication;
+import static org.forgerock.http.grizzly.GrizzlySupport.newGrizzlyHttpHandler;
+import static org.forgerock.util.promise.Promises.newResultPromise;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.forgerock.http.Handler;
+import org.forgerock.http.io.IO;
+import org.forgerock.http.protocol.Request;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.services.context.Context;
+import org.forgerock.util.promise.NeverThrowsException;
+import org.forgerock.util.promise.Promise;
+import org.glassfish.grizzly.PortRange;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.http.server.NetworkListener;
+import org.glassfish.grizzly.threadpool.ThreadPoolConfig;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Load test checking that clients sending their requests, or reading their responses, slowly do not hold the worker
+ * threads of the server: while many clients stall, none of the worker threads is busy with their requests, a fast
+ * client is still served, and the number of threads of the server stays flat as the number of stalled clients grows.
+ * The worker pool may grow beyond the number of stalled clients, so that it would grow if their requests held
+ * worker threads.
+ */
+public class GrizzlySlowClientTest {
+
+    private static final String WORKER_POOL_NAME = "slow-client-test-worker";
+    private static final int WORKER_THREADS = 4;
+    private static final int MAX_WORKER_THREADS = 64;
+    private static final int[] STALLED_CLIENTS = { 0, 8, 32 };
+    private static final int THREAD_COUNT_SLACK = 4;
+    private static final int TIMEOUT_MILLIS = 10000;
+    private static final byte[] LARGE_CONTENT = new byte[2 * 1024 * 1024];
+
+    private HttpServer server;
+    private int port;
+    private final List<Socket> stalledClients = new ArrayList<>();
+
+    @BeforeMethod
+    public void startServer() throws Exception {
+        server = HttpServer.createSimpleServer(null, new PortRange(6000, 7000));
+        final NetworkListener listener = server.getListeners().iterator().next();
+        listener.getTransport().setWorkerThreadPoolConfig(ThreadPoolConfig.defaultConfig()
+                .setPoolName(WORKER_POOL_NAME)
+                .setCorePoolSize(WORKER_THREADS)
+                .setMaxPoolSize(MAX_WORKER_THREADS));
+        server.getServerConfiguration().addHttpHandler(
+                newGrizzlyHttpHandler(simpleHttpApplication(new Handler() {
+                    @Override
+                    public Promise<Response, NeverThrowsException> handle(Context context, Request request) {
+                        final Object content = "/large".equals(request.getUri().getPath()) ? LARGE_CONTENT : "ok";
+                        return newResultPromise(new Response(Status.OK).setEntity(content));
+                    }
+                }, null)));
+        server.start();
+        port = listener.getPort();
+    }
+
+    @AfterMethod
+    public void stopServer() throws Exception {
+        for (Socket client : stalledClients) {
+            client.close();
+        }
+        stalledClients.clear();
+        server.shutdownNow();
+    }
+
+    @Test
+    public void shouldNotHoldWorkerThreadsWhileClientsStallReadingResponses() throws Exception {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assertThat(fastRequest()).isEqualTo("ok");
+        final int baseline = threads.getThreadCount();
+
+        for (int stalled : STALLED_CLIENTS) {
+            while (stalledClients.size() < stalled) {
+                // A small receive buffer, never read: the response cannot be written in full
+                final Socket client = new Socket();
+                client.setReceiveBufferSize(1024);
+                client.connect(new InetSocketAddress("localhost", port));
+                client.getOutputStream().write("GET /large HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(US_ASCII));
+                stalledClients.add(client);
+            }
+            Thread.sleep(500L);
+
+            assertThat(busyWorkerThreads(threads)).isZero();
+            assertThat(fastRequest()).isEqualTo("ok");
+            assertThat(threads.getThreadCount()).isLessThanOrEqualTo(baseline + THREAD_COUNT_SLACK);
+        }
+    }
+
+    @Test
+    public void shouldNotHoldWorkerThreadsWhileClientsStallSendingRequests() throws Exception {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assertThat(fastRequest()).isEqualTo("ok");
+        final int baseline = threads.getThreadCount();
+
+        for (int stalled : STALLED_CLIENTS) {
+            while (stalledClients.size() < stalled) {
+                // Announces an entity of 1 MiB, but only sends its first KiB
+                final Socket client = new Socket("localhost", port);
+                client.getOutputStream().write(("POST /upload HTTP/1.1\r\nHost: localhost\r\n"
+                        + "Content-Length: 1048576\r\n\r\n").getBytes(US_ASCII));
+                client.getOutputStream().write(new byte[1024]);
+                stalledClients.add(client);
+            }
+            Thread.sleep(500L);
+
+            assertThat(busyWorkerThreads(threads)).isZero();
+            assertThat(fastRequest()).isEqualTo("ok");
+            assertThat(threads.getThreadCount()).isLessThanOrEqualTo(baseline + THREAD_COUNT_SLACK);
+        }
+    }
+
+    /**
+     * Returns the number of worker threads processing a request, which an idle worker thread is not: its stack only
+     * holds the frames of the thread pool, whether it waits for a task or not.
+     */
+    private static int busyWorkerThreads(final ThreadMXBean threads) {
+        int busy = 0;
+        for (ThreadInfo thread : threads.dumpAllThreads(false, false)) {
+            if (thread != null && thread.getThreadName().startsWith(WORKER_POOL_NAME)) {
+                for (StackTraceElement frame : thread.getStackTrace()) {
+                    if (frame.getClassName().startsWith("org.glassfish.grizzly.http.")
+                            || frame.getClassName().startsWith("org.forgerock.")) {
+                        busy++;
+                        break;
+                    }
+                }
+            }
+        }
+        return busy;
+    }
+
+    private String fastRequest() throws IOException {
+        final HttpURLConnection connection =
+                (HttpURLConnection) new URL("http://localhost:" + port + "/fast").openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        try (InputStream in = connection.getInputStream()) {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            IO.stream(in, content);
+            return new String(content.toByteArray(), UTF_8);
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -13,6 +13,7 @@
  *
  * Copyright 2010-2011 ApexIdentity Inc.
  * Portions Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.http.servlet;
 
@@ -20,14 +21,15 @@ import static java.util.Collections.list;
 import static org.forgerock.http.handler.Handlers.asDescribableHandler;
 import static org.forgerock.http.handler.Handlers.chainOf;
 import static org.forgerock.http.handler.Handlers.internalServerErrorHandler;
-import static org.forgerock.http.io.IO.newBranchingInputStream;
 import static org.forgerock.http.io.IO.newTemporaryStorage;
 import static org.forgerock.http.protocol.Responses.newInternalServerError;
 import static org.forgerock.http.routing.UriRouterContext.uriRouterContext;
 import static org.forgerock.util.Utils.closeSilently;
+import static org.forgerock.util.promise.Promises.newResultPromise;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.security.cert.X509Certificate;
 import java.util.Arrays;
@@ -47,7 +49,9 @@ import org.forgerock.http.HttpApplication;
 import org.forgerock.http.HttpApplicationException;
 import org.forgerock.http.filter.TransactionIdInboundFilter;
 import org.forgerock.http.handler.DescribableHandler;
+import org.forgerock.http.io.BranchingInputStream;
 import org.forgerock.http.io.Buffer;
+import org.forgerock.http.io.FileBranchingStream;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Status;
@@ -61,7 +65,10 @@ import org.forgerock.services.context.ClientContext;
 import org.forgerock.services.context.Context;
 import org.forgerock.services.context.RequestAuditContext;
 import org.forgerock.services.context.RootContext;
+import org.forgerock.util.AsyncFunction;
 import org.forgerock.util.Factory;
+import org.forgerock.util.Function;
+import org.forgerock.util.promise.ExceptionHandler;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
 import org.forgerock.util.promise.ResultHandler;
@@ -91,6 +98,12 @@ public final class HttpFrameworkServlet extends HttpServlet {
     /** Standard specified request attribute name for retrieving X509 Certificates. */
     private static final String SERVLET_REQUEST_X509_ATTRIBUTE = "javax.servlet.request.X509Certificate";
 
+    /** Request attributes with which Tomcat, and the containers embedding it, send files. */
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
     /** Methods that should not include an entity body. */
     private static final CaseInsensitiveSet NON_ENTITY_METHODS = new CaseInsensitiveSet(
             Arrays.asList("GET", "HEAD", "TRACE"));
@@ -159,8 +172,10 @@ public final class HttpFrameworkServlet extends HttpServlet {
                     + servletContext.getMajorVersion());
         case 2:
             return new Servlet2Adapter();
+        case 3:
+            return servletContext.getMinorVersion() == 0 ? new Servlet3Adapter() : new Servlet31Adapter();
         default:
-            return new Servlet3Adapter();
+            return new Servlet31Adapter();
         }
     }
 
@@ -228,24 +243,37 @@ public final class HttpFrameworkServlet extends HttpServlet {
         attributesContext.getAttributes().put(HttpServletRequest.class.getName(), req);
         attributesContext.getAttributes().put(HttpServletResponse.class.getName(), resp);
 
-        Context context = createClientContext(attributesContext, req);
+        final Context context = createClientContext(attributesContext, req);
 
-        // handle request
+        // handle request, once its entity has been read when the container reads it without blocking
         final ServletSynchronizer sync = adapter.createServletSynchronizer(req, resp);
         try {
             final Promise<Response, NeverThrowsException> promise =
-                    handler.handle(context, request)
+                    readEntity(req, request)
+                            .thenAsync(new AsyncFunction<Request, Response, NeverThrowsException>() {
+                                @Override
+                                public Promise<Response, NeverThrowsException> apply(Request requestWithEntity) {
+                                    return handler.handle(context, requestWithEntity);
+                                }
+                            }, new AsyncFunction<IOException, Response, NeverThrowsException>() {
+                                @Override
+                                public Promise<Response, NeverThrowsException> apply(IOException e) {
+                                    logger.debug("Failed to read the request entity", e);
+                                    return newResultPromise(new Response(Status.BAD_REQUEST));
+                                }
+                            })
                             .thenOnResult(new ResultHandler<Response>() {
                                 @Override
                                 public void handleResult(Response response) {
-                                    writeResponse(request, response, resp, sessionContext, sync);
+                                    writeResponse(request, response, req, resp, sessionContext, sync);
                                 }
                             })
                             .thenOnRuntimeException(new RuntimeExceptionHandler() {
                                 @Override
                                 public void handleRuntimeException(RuntimeException e) {
                                     logger.error("RuntimeException caught", e);
-                                    writeResponse(request, newInternalServerError(), resp, sessionContext, sync);
+                                    writeResponse(request, newInternalServerError(), req, resp, sessionContext,
+                                            sync);
                                 }
                             });
 
@@ -261,7 +289,7 @@ public final class HttpFrameworkServlet extends HttpServlet {
             // Servlet specification indicates that it's the responsibility of the Servlet implementer to call
             // AsyncContext.complete()
             logger.error("Throwable caught", throwable);
-            writeResponse(request, newInternalServerError(), resp, sessionContext, sync);
+            writeResponse(request, newInternalServerError(), req, resp, sessionContext, sync);
         }
 
         try {
@@ -271,7 +299,7 @@ public final class HttpFrameworkServlet extends HttpServlet {
         }
     }
 
-    private Request createRequest(HttpServletRequest req) throws IOException, URISyntaxException {
+    private Request createRequest(HttpServletRequest req) throws URISyntaxException {
         // populate request
         Request request = new Request();
         request.setMethod(req.getMethod());
@@ -292,13 +320,23 @@ public final class HttpFrameworkServlet extends HttpServlet {
             request.getHeaders().add(name, list(req.getHeaders(name)));
         }
 
+        return request;
+    }
+
+    private Promise<Request, IOException> readEntity(HttpServletRequest req, final Request request) {
         // include request entity if appears to be provided with request
         if ((req.getContentLength() > 0 || req.getHeader("Transfer-Encoding") != null)
                 && !NON_ENTITY_METHODS.contains(request.getMethod())) {
-            request.setEntity(newBranchingInputStream(req.getInputStream(), storage));
+            return adapter.readEntity(req, storage)
+                    .then(new Function<BranchingInputStream, Request, IOException>() {
+                        @Override
+                        public Request apply(BranchingInputStream entity) {
+                            request.setEntity(entity);
+                            return request;
+                        }
+                    });
         }
-
-        return request;
+        return newResultPromise(request);
     }
 
     private ClientContext createClientContext(Context parent, HttpServletRequest req) {
@@ -323,18 +361,10 @@ public final class HttpFrameworkServlet extends HttpServlet {
                 .originalUri(request.getUri().asURI()).build();
     }
 
-    private void writeResponse(Request request, Response response, HttpServletResponse servletResponse,
-            SessionContext sessionContext, ServletSynchronizer synchronizer) {
-        try {
-            writeResponse(response, servletResponse, sessionContext);
-        } finally {
-            closeSilently(request);
-            synchronizer.signalAndComplete();
-        }
-    }
-
-    private void writeResponse(final Response response, final HttpServletResponse servletResponse,
-            final SessionContext sessionContext) {
+    private void writeResponse(final Request request, final Response response,
+            final HttpServletRequest servletRequest, final HttpServletResponse servletResponse,
+            final SessionContext sessionContext, final ServletSynchronizer synchronizer) {
+        Promise<Void, IOException> written = newResultPromise(null);
         try {
             /*
              * Support for OPENIG-94/95 - The wrapped servlet may have already
@@ -342,31 +372,81 @@ public final class HttpFrameworkServlet extends HttpServlet {
              * the exchange.
              */
             if (response != null) {
-                // response status-code (reason-phrase deprecated in Servlet API)
-                servletResponse.setStatus(response.getStatus().getCode());
-
-                // ensure that the session has been written back to the response
-                sessionContext.getSession().save(response);
-
-                // response headers
-                for (String name : response.getHeaders().keySet()) {
-                    for (String value : response.getHeaders().get(name).getValues()) {
-                        if (value != null && value.length() > 0) {
-                            servletResponse.addHeader(name, value);
-                        }
-                    }
+                writeResponseHead(response, servletResponse, sessionContext);
+                if (!sendFile(servletRequest, response.getEntity().getRawContentInputStream())) {
+                    // response entity (if applicable), written without blocking when the container supports it
+                    written = adapter.writeEntity(servletRequest, servletResponse, response.getEntity());
                 }
-                // response entity (if applicable)
-                // TODO does this also set content length?
-                response.getEntity().copyRawContentTo(servletResponse.getOutputStream());
             }
         } catch (IOException e) {
             logger.error("Failed to write response", e);
+        } finally {
+            written.thenOnException(new ExceptionHandler<IOException>() {
+                @Override
+                public void handleException(IOException e) {
+                    logger.error("Failed to write response", e);
+                }
+            }).thenAlways(new Runnable() {
+                @Override
+                public void run() {
+                    closeSilently(response);
+                    closeSilently(request);
+                    synchronizer.signalAndComplete();
+                }
+            });
+        }
+    }
+
+    /**
+     * Hands a file entity over to the container, if it supports sending files
+     * with the {@code sendfile} system call once the servlet has returned: the
+     * content of the file then goes from the file system cache to the socket
+     * without being copied through the heap. Package private for testing.
+     */
+    static boolean sendFile(final HttpServletRequest servletRequest, final InputStream content) {
+        if (!(content instanceof FileBranchingStream)
+                || !Boolean.TRUE.equals(servletRequest.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            return false;
+        }
+        final FileBranchingStream file = (FileBranchingStream) content;
+        servletRequest.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getFile().getAbsolutePath());
+        servletRequest.setAttribute(SENDFILE_START_ATTRIBUTE, file.getPosition());
+        servletRequest.setAttribute(SENDFILE_END_ATTRIBUTE, file.getPosition() + file.getRemaining());
+        return true;
+    }
+
+    private void writeResponse(final Response response, final HttpServletResponse servletResponse,
+            final SessionContext sessionContext) {
+        try {
+            writeResponseHead(response, servletResponse, sessionContext);
+            // response entity (if applicable)
+            // TODO does this also set content length?
+            response.getEntity().copyRawContentTo(servletResponse.getOutputStream());
+        } catch (IOException e) {
+            logger.error("Failed to write response", e);
         } finally {
             closeSilently(response);
         }
     }
 
+    private void writeResponseHead(final Response response, final HttpServletResponse servletResponse,
+            final SessionContext sessionContext) throws IOException {
+        // response status-code (reason-phrase deprecated in Servlet API)
+        servletResponse.setStatus(response.getStatus().getCode());
+
+        // ensure that the session has been written back to the response
+        sessionContext.getSession().save(response);
+
+        // response headers
+        for (String name : response.getHeaders().keySet()) {
+            for (String value : response.getHeaders().get(name).getValues()) {
+                if (value != null && value.length() > 0) {
+                    servletResponse.addHeader(name, value);
+                }
+            }
+        }
+    }
+
     @Override
     public void destroy() {
         application.stop();
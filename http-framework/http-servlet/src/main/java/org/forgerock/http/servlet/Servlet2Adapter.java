@@ -12,14 +12,27 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.servlet;
 
+import static org.forgerock.http.io.IO.newBranchingInputStream;
+import static org.forgerock.util.promise.Promises.newExceptionPromise;
+import static org.forgerock.util.promise.Promises.newResultPromise;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
 import java.util.concurrent.CountDownLatch;
 
+import org.forgerock.http.io.BranchingInputStream;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.protocol.Entity;
+import org.forgerock.util.Factory;
+import org.forgerock.util.promise.Promise;
+
 /**
  * An adapter for use in Servlet 2.x containers.
  */
@@ -65,4 +78,44 @@ final class Servlet2Adapter implements ServletVersionAdapter {
             HttpServletResponse httpResponse) {
         return new Servlet2Synchronizer();
     }
+
+    @Override
+    public Promise<BranchingInputStream, IOException> readEntity(HttpServletRequest httpRequest,
+            Factory<Buffer> storage) {
+        return readEntityBlocking(httpRequest, storage);
+    }
+
+    @Override
+    public Promise<Void, IOException> writeEntity(HttpServletRequest httpRequest, HttpServletResponse httpResponse,
+            Entity entity) {
+        return writeEntityBlocking(httpResponse, entity);
+    }
+
+    /**
+     * Reads the entity as it is received, blocking the reading thread until
+     * the client sends it. Package private because it is also used in Servlet
+     * 3 and as the fall-back implementation in Servlet 3.1.
+     */
+    static Promise<BranchingInputStream, IOException> readEntityBlocking(HttpServletRequest httpRequest,
+            Factory<Buffer> storage) {
+        try {
+            return newResultPromise(newBranchingInputStream(httpRequest.getInputStream(), storage));
+        } catch (IOException e) {
+            return newExceptionPromise(e);
+        }
+    }
+
+    /**
+     * Writes the entity, blocking the current thread until the client has
+     * received it. Package private because it is also used in Servlet 3 and as
+     * the fall-back implementation in Servlet 3.1.
+     */
+    static Promise<Void, IOException> writeEntityBlocking(HttpServletResponse httpResponse, Entity entity) {
+        try {
+            entity.copyRawContentTo(httpResponse.getOutputStream());
+            return newResultPromise(null);
+        } catch (IOException e) {
+            return newExceptionPromise(e);
+        }
+    }
 }
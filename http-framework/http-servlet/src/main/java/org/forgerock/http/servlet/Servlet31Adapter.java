@@ -0,0 +1,182 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.servlet;
+
+import static org.forgerock.http.io.IO.newBranchingInputStream;
+import static org.forgerock.util.Utils.closeSilently;
+import static org.forgerock.util.promise.Promises.newExceptionPromise;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.forgerock.http.io.BranchingInputStream;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.protocol.Entity;
+import org.forgerock.util.Factory;
+import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
+
+/**
+ * Servlet 3.1 adapter, which reads and writes the entities with the
+ * non-blocking IO of the container once the request is asynchronous.
+ * <p>
+ * The request entity is fed into a buffer as the container notifies that its
+ * bytes are available, and the request is only handled once it has been
+ * received in full: a client sending its request slowly does not hold a thread
+ * of the container. Likewise, the response entity is only written while the
+ * container can accept bytes without blocking, so that a client reading its
+ * response slowly does not hold a thread either. Reading a streamed response
+ * entity may still block while its producer has not written the next bytes.
+ */
+final class Servlet31Adapter implements ServletVersionAdapter {
+
+    /** The size of the chunks read from, and written to, the container. */
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final Servlet3Adapter servlet3Adapter = new Servlet3Adapter();
+
+    Servlet31Adapter() {
+        // Nothing to do.
+    }
+
+    @Override
+    public ServletSynchronizer createServletSynchronizer(HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+        return servlet3Adapter.createServletSynchronizer(httpRequest, httpResponse);
+    }
+
+    @Override
+    public Promise<BranchingInputStream, IOException> readEntity(HttpServletRequest httpRequest,
+            Factory<Buffer> storage) {
+        if (!httpRequest.isAsyncStarted()) {
+            // Fall-back to blocking IO: the read listener can only be set on asynchronous requests.
+            return Servlet2Adapter.readEntityBlocking(httpRequest, storage);
+        }
+        final ServletInputStream in;
+        try {
+            in = httpRequest.getInputStream();
+        } catch (IOException e) {
+            return newExceptionPromise(e);
+        }
+        final EntityReader reader = new EntityReader(in, storage);
+        in.setReadListener(reader);
+        return reader.promise;
+    }
+
+    @Override
+    public Promise<Void, IOException> writeEntity(HttpServletRequest httpRequest, HttpServletResponse httpResponse,
+            Entity entity) {
+        if (!httpRequest.isAsyncStarted()) {
+            // Fall-back to blocking IO: the write listener can only be set on asynchronous requests.
+            return Servlet2Adapter.writeEntityBlocking(httpResponse, entity);
+        }
+        final ServletOutputStream out;
+        try {
+            out = httpResponse.getOutputStream();
+        } catch (IOException e) {
+            return newExceptionPromise(e);
+        }
+        final EntityWriter writer = new EntityWriter(entity.getRawContentInputStream(), out);
+        out.setWriteListener(writer);
+        return writer.promise;
+    }
+
+    /**
+     * Feeds the request entity into a buffer each time the container notifies
+     * that bytes can be read without blocking.
+     */
+    private static final class EntityReader implements ReadListener {
+        private final PromiseImpl<BranchingInputStream, IOException> promise = PromiseImpl.create();
+        private final ServletInputStream in;
+        private final Factory<Buffer> storage;
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+        private final Buffer buffer;
+
+        private EntityReader(ServletInputStream in, Factory<Buffer> storage) {
+            this.in = in;
+            this.storage = storage;
+            this.buffer = storage.newInstance();
+        }
+
+        @Override
+        public void onDataAvailable() {
+            try {
+                int n;
+                while (in.isReady() && (n = in.read(chunk)) != -1) {
+                    buffer.append(chunk, 0, n);
+                }
+            } catch (IOException e) {
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onAllDataRead() {
+            promise.handleResult(newBranchingInputStream(buffer, storage));
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            closeSilently(buffer);
+            promise.handleException(t instanceof IOException ? (IOException) t : new IOException(t));
+        }
+    }
+
+    /**
+     * Writes the response entity each time the container notifies that bytes
+     * can be written without blocking.
+     */
+    private static final class EntityWriter implements WriteListener {
+        private final PromiseImpl<Void, IOException> promise = PromiseImpl.create();
+        private final InputStream in;
+        private final ServletOutputStream out;
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+
+        private EntityWriter(InputStream in, ServletOutputStream out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public void onWritePossible() {
+            try {
+                while (out.isReady()) {
+                    final int n = in.read(chunk);
+                    if (n == -1) {
+                        promise.handleResult(null);
+                        return;
+                    }
+                    out.write(chunk, 0, n);
+                }
+            } catch (IOException e) {
+                onError(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            promise.handleException(t instanceof IOException ? (IOException) t : new IOException(t));
+        }
+    }
+}
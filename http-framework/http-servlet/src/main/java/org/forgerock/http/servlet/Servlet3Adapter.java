@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.servlet;
@@ -24,7 +25,12 @@ import javax.servlet.AsyncListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.forgerock.http.io.BranchingInputStream;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.protocol.Entity;
 import org.forgerock.http.servlet.Servlet2Adapter.Servlet2Synchronizer;
+import org.forgerock.util.Factory;
+import org.forgerock.util.promise.Promise;
 
 /**
  * An adapter for use in Servlet 3.x containers.
@@ -100,4 +106,16 @@ final class Servlet3Adapter implements ServletVersionAdapter {
             return new Servlet2Synchronizer();
         }
     }
+
+    @Override
+    public Promise<BranchingInputStream, IOException> readEntity(HttpServletRequest httpRequest,
+            Factory<Buffer> storage) {
+        return Servlet2Adapter.readEntityBlocking(httpRequest, storage);
+    }
+
+    @Override
+    public Promise<Void, IOException> writeEntity(HttpServletRequest httpRequest, HttpServletResponse httpResponse,
+            Entity entity) {
+        return Servlet2Adapter.writeEntityBlocking(httpResponse, entity);
+    }
 }
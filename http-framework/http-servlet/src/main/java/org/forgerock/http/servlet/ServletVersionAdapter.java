@@ -12,19 +12,29 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.http.servlet;
 
+import java.io.IOException;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.forgerock.http.io.BranchingInputStream;
+import org.forgerock.http.io.Buffer;
+import org.forgerock.http.protocol.Entity;
+import org.forgerock.util.Factory;
+import org.forgerock.util.promise.Promise;
+
 /**
  * A Servlet API version adapter provides an abstraction which allows Servlet
  * and Filter implementations to interact with the Servlet container
- * independently of the Servlet API version. At the moment the adapter only
- * provides an abstraction for performing asynchronous processing, but other API
- * features could be added in future (such as async IO).
+ * independently of the Servlet API version. The adapter provides an
+ * abstraction for performing asynchronous processing, and for reading and
+ * writing the entities, without blocking when the container supports
+ * asynchronous IO.
  */
 interface ServletVersionAdapter {
 
@@ -38,4 +48,33 @@ interface ServletVersionAdapter {
      * @return Returns a new synchronizer appropriate for the HTTP request.
      */
     ServletSynchronizer createServletSynchronizer(HttpServletRequest httpRequest, HttpServletResponse httpResponse);
+
+    /**
+     * Reads the entity of the provided HTTP request. The returned promise is
+     * completed once the entity can be read without blocking on the client,
+     * or straight away when the entity is to be read as it is received.
+     *
+     * @param httpRequest
+     *            The HTTP request, whose synchronizer has been created.
+     * @param storage
+     *            The factory of the buffers holding the entity.
+     * @return A promise of the entity content.
+     */
+    Promise<BranchingInputStream, IOException> readEntity(HttpServletRequest httpRequest, Factory<Buffer> storage);
+
+    /**
+     * Writes the provided entity to the HTTP response, whose status and
+     * headers have been set. The returned promise is completed once the
+     * entity has been written.
+     *
+     * @param httpRequest
+     *            The HTTP request, whose synchronizer has been created.
+     * @param httpResponse
+     *            The HTTP response.
+     * @param entity
+     *            The entity to write.
+     * @return A promise completed once the entity has been written.
+     */
+    Promise<Void, IOException> writeEntity(HttpServletRequest httpRequest, HttpServletResponse httpResponse,
+            Entity entity);
 }
@@ -0,0 +1,86 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.servlet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.forgerock.http.io.FileBranchingStream;
+import org.forgerock.http.io.IO;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class HttpFrameworkServletTest {
+
+    private File file;
+    private HttpServletRequest servletRequest;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        file = File.createTempFile(HttpFrameworkServletTest.class.getSimpleName(), null);
+        Files.write(file.toPath(), "Hello World".getBytes(UTF_8));
+        servletRequest = mock(HttpServletRequest.class);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void shouldHandFileRegionOverToContainerSupportingSendFile() throws Exception {
+        // Given
+        given(servletRequest.getAttribute("org.apache.tomcat.sendfile.support")).willReturn(Boolean.TRUE);
+
+        // When
+        try (FileBranchingStream content = new FileBranchingStream(file, 6L, 5L)) {
+            assertThat(HttpFrameworkServlet.sendFile(servletRequest, content)).isTrue();
+        }
+
+        // Then
+        verify(servletRequest).setAttribute("org.apache.tomcat.sendfile.filename", file.getAbsolutePath());
+        verify(servletRequest).setAttribute("org.apache.tomcat.sendfile.start", 6L);
+        verify(servletRequest).setAttribute("org.apache.tomcat.sendfile.end", 11L);
+    }
+
+    @Test
+    public void shouldNotSendFileWhenContainerDoesNotSupportIt() throws Exception {
+        try (FileBranchingStream content = new FileBranchingStream(file)) {
+            assertThat(HttpFrameworkServlet.sendFile(servletRequest, content)).isFalse();
+        }
+    }
+
+    @Test
+    public void shouldNotSendContentWhichIsNotAFile() throws Exception {
+        // Given
+        given(servletRequest.getAttribute("org.apache.tomcat.sendfile.support")).willReturn(Boolean.TRUE);
+
+        // Then
+        assertThat(HttpFrameworkServlet.sendFile(servletRequest, IO.newBranchingInputStream(new byte[0])))
+                .isFalse();
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.http.servlet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.forgerock.http.io.BranchingInputStream;
+import org.forgerock.http.io.IO;
+import org.forgerock.http.protocol.Entity;
+import org.forgerock.http.protocol.Response;
+import org.forgerock.http.protocol.Status;
+import org.forgerock.util.promise.Promise;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class Servlet31AdapterTest {
+
+    private static final byte[] CONTENT = "{\"_id\":\"bjensen\",\"mail\":\"bjensen@example.com\"}".getBytes(UTF_8);
+
+    private Servlet31Adapter adapter;
+    private HttpServletRequest httpRequest;
+    private HttpServletResponse httpResponse;
+
+    @BeforeMethod
+    public void setUp() {
+        adapter = new Servlet31Adapter();
+        httpRequest = mock(HttpServletRequest.class);
+        httpResponse = mock(HttpServletResponse.class);
+        given(httpRequest.isAsyncStarted()).willReturn(true);
+    }
+
+    @Test
+    public void shouldReadEntityAsItBecomesAvailable() throws Exception {
+        // Given
+        FakeServletInputStream in = new FakeServletInputStream(CONTENT);
+        given(httpRequest.getInputStream()).willReturn(in);
+        Promise<BranchingInputStream, IOException> promise = adapter.readEntity(httpRequest,
+                IO.newTemporaryStorage());
+
+        // When
+        in.makeReadable(10);
+        in.listener.onDataAvailable();
+        in.makeReadable(CONTENT.length);
+        in.listener.onDataAvailable();
+
+        // Then
+        assertThat(promise.isDone()).isFalse();
+        in.listener.onAllDataRead();
+        assertThat(read(promise.getOrThrow())).isEqualTo(CONTENT);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldFailToReadEntityWhenContainerReportsError() throws Exception {
+        // Given
+        FakeServletInputStream in = new FakeServletInputStream(CONTENT);
+        given(httpRequest.getInputStream()).willReturn(in);
+        Promise<BranchingInputStream, IOException> promise = adapter.readEntity(httpRequest,
+                IO.newTemporaryStorage());
+
+        // When
+        in.listener.onError(new IllegalStateException("Client gone"));
+
+        // Then
+        promise.getOrThrow();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldFailToReadEntityWhenReadFails() throws Exception {
+        // Given
+        FakeServletInputStream in = new FakeServletInputStream(CONTENT);
+        given(httpRequest.getInputStream()).willReturn(in);
+        Promise<BranchingInputStream, IOException> promise = adapter.readEntity(httpRequest,
+                IO.newTemporaryStorage());
+
+        // When
+        in.failure = new IOException("Connection reset");
+        in.makeReadable(CONTENT.length);
+        in.listener.onDataAvailable();
+
+        // Then
+        promise.getOrThrow();
+    }
+
+    @Test
+    public void shouldReadEntityBlockingWhenRequestIsNotAsynchronous() throws Exception {
+        // Given
+        given(httpRequest.isAsyncStarted()).willReturn(false);
+        FakeServletInputStream in = new FakeServletInputStream(CONTENT);
+        in.makeReadable(CONTENT.length);
+        given(httpRequest.getInputStream()).willReturn(in);
+
+        // When
+        Promise<BranchingInputStream, IOException> promise = adapter.readEntity(httpRequest,
+                IO.newTemporaryStorage());
+
+        // Then
+        assertThat(in.listener).isNull();
+        assertThat(read(promise.getOrThrow())).isEqualTo(CONTENT);
+    }
+
+    @Test
+    public void shouldWriteEntityOnlyWhileOutputIsReady() throws Exception {
+        // Given
+        byte[] content = new byte[20 * 1024];
+        Arrays.fill(content, (byte) 'x');
+        FakeServletOutputStream out = new FakeServletOutputStream();
+        given(httpResponse.getOutputStream()).willReturn(out);
+        Promise<Void, IOException> promise = adapter.writeEntity(httpRequest, httpResponse, entity(content));
+
+        // When
+        out.writesBeforeBlocking = 1;
+        out.listener.onWritePossible();
+
+        // Then
+        assertThat(promise.isDone()).isFalse();
+        assertThat(out.written.size()).isGreaterThan(0).isLessThan(content.length);
+
+        // When
+        out.writesBeforeBlocking = Integer.MAX_VALUE;
+        out.listener.onWritePossible();
+
+        // Then
+        promise.getOrThrow();
+        assertThat(out.written.toByteArray()).isEqualTo(content);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldFailToWriteEntityWhenContainerReportsError() throws Exception {
+        // Given
+        FakeServletOutputStream out = new FakeServletOutputStream();
+        given(httpResponse.getOutputStream()).willReturn(out);
+        Promise<Void, IOException> promise = adapter.writeEntity(httpRequest, httpResponse, entity(CONTENT));
+
+        // When
+        out.listener.onError(new IllegalStateException("Client gone"));
+
+        // Then
+        promise.getOrThrow();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldFailToWriteEntityWhenWriteFails() throws Exception {
+        // Given
+        FakeServletOutputStream out = new FakeServletOutputStream();
+        given(httpResponse.getOutputStream()).willReturn(out);
+        Promise<Void, IOException> promise = adapter.writeEntity(httpRequest, httpResponse, entity(CONTENT));
+
+        // When
+        out.failure = new IOException("Broken pipe");
+        out.writesBeforeBlocking = Integer.MAX_VALUE;
+        out.listener.onWritePossible();
+
+        // Then
+        promise.getOrThrow();
+    }
+
+    private static Entity entity(byte[] content) {
+        Response response = new Response(Status.OK);
+        response.setEntity(content);
+        return response.getEntity();
+    }
+
+    private static byte[] read(BranchingInputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IO.stream(in, out);
+        return out.toByteArray();
+    }
+
+    /** Makes its content readable a few bytes at a time, as the container receives them. */
+    private static final class FakeServletInputStream extends ServletInputStream {
+        private final byte[] content;
+        private int position;
+        private int readable;
+        private IOException failure;
+        private ReadListener listener;
+
+        private FakeServletInputStream(byte[] content) {
+            this.content = content;
+        }
+
+        private void makeReadable(int length) {
+            readable = Math.min(readable + length, content.length - position);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return position == content.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return readable > 0;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            if (isFinished()) {
+                return -1;
+            }
+            int n = Math.min(len, readable);
+            System.arraycopy(content, position, b, off, n);
+            position += n;
+            readable -= n;
+            return n;
+        }
+    }
+
+    /** Accepts a given number of writes before it would block, as the container sends them. */
+    private static final class FakeServletOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private int writesBeforeBlocking;
+        private IOException failure;
+        private WriteListener listener;
+
+        @Override
+        public boolean isReady() {
+            return writesBeforeBlocking > 0;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            written.write(b, off, len);
+            writesBeforeBlocking--;
+        }
+    }
+}
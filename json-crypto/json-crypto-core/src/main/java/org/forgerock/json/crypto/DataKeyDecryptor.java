@@ -0,0 +1,34 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyrighted [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.crypto;
+
+/**
+ * A decryptor able to decrypt several values encrypted under a single data key, which is unwrapped only once for
+ * all of them.
+ */
+public interface DataKeyDecryptor extends JsonDecryptor {
+
+    /**
+     * Returns a decryptor remembering the data keys it unwraps and derives, so that the values encrypted under the
+     * same data key, such as the fields of a document encrypted by {@link JsonBulkEncryptor}, only unwrap it once.
+     * The decryptor returned is thread-safe, and should only be used for a limited number of values, such as those
+     * of one document, since it holds the data keys in memory.
+     *
+     * @return the decryptor of the values sharing data keys.
+     */
+    JsonDecryptor newDataKeyDecryptor();
+}
@@ -0,0 +1,33 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyrighted [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.crypto;
+
+/**
+ * An encryptor able to encrypt several values under a single data key, which is generated, and wrapped if needed,
+ * only once for all of them.
+ */
+public interface DataKeyEncryptor extends JsonEncryptor {
+
+    /**
+     * Returns an encryptor encrypting all the values given to it under a new data key. Each value is encrypted with
+     * its own initialisation vector, and can be decrypted on its own, as if encrypted by this encryptor.
+     *
+     * @return the encryptor of the values sharing the data key.
+     * @throws JsonCryptoException if the data key cannot be generated or wrapped.
+     */
+    JsonEncryptor newDataKeyEncryptor() throws JsonCryptoException;
+}
@@ -0,0 +1,223 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyrighted [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.crypto;
+
+import static org.forgerock.util.Reject.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.util.Reject;
+
+/**
+ * Decrypts all the {@code $crypto} JSON objects of JSON documents, replacing each of them with its decrypted value.
+ * <p>
+ * If the decryptor is a {@link DataKeyDecryptor}, the values of a document encrypted under a single data key, as by
+ * {@link JsonBulkEncryptor}, only unwrap it once. Given an executor, the values of the documents holding at least the
+ * given number of encrypted values are decrypted in parallel by the executor and the calling thread, which may itself
+ * be a thread of the executor.
+ * <p>
+ * As with {@link JsonDecryptFunction}, only the {@code $crypto} objects of the type of the decryptor are decrypted,
+ * and the decrypted values may themselves contain encrypted values, which are decrypted too.
+ */
+public class JsonBulkDecryptor {
+
+    /** Decryptor to apply to the encrypted values. */
+    private final JsonDecryptor decryptor;
+
+    /** Executor decrypting the values in parallel, or {@code null} to decrypt them in the calling thread. */
+    private final ExecutorService executor;
+
+    /** Number of encrypted values from which a document is decrypted in parallel. */
+    private final int parallelThreshold;
+
+    /**
+     * Constructs a bulk decryptor decrypting the values in the calling thread.
+     *
+     * @param decryptor the decryptor to apply to the encrypted values.
+     * @throws NullPointerException if {@code decryptor} is {@code null}.
+     */
+    public JsonBulkDecryptor(JsonDecryptor decryptor) {
+        this.decryptor = checkNotNull(decryptor);
+        this.executor = null;
+        this.parallelThreshold = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Constructs a bulk decryptor decrypting the values of large documents in parallel.
+     *
+     * @param decryptor the decryptor to apply to the encrypted values, which must be thread-safe.
+     * @param executor the executor decrypting the values in parallel.
+     * @param parallelThreshold the number of encrypted values from which a document is decrypted in parallel.
+     * @throws NullPointerException if {@code decryptor} or {@code executor} is {@code null}.
+     */
+    public JsonBulkDecryptor(JsonDecryptor decryptor, ExecutorService executor, int parallelThreshold) {
+        Reject.ifTrue(parallelThreshold < 1, "The parallel threshold must be positive");
+        this.decryptor = checkNotNull(decryptor);
+        this.executor = checkNotNull(executor);
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Returns a copy of the document whose encrypted values are decrypted.
+     *
+     * @param document the JSON document whose values are to be decrypted.
+     * @return the decrypted document.
+     * @throws JsonCryptoException if a value cannot be decrypted.
+     */
+    public JsonValue decrypt(JsonValue document) throws JsonCryptoException {
+        final JsonDecryptor valueDecryptor = decryptor instanceof DataKeyDecryptor
+                ? ((DataKeyDecryptor) decryptor).newDataKeyDecryptor()
+                : decryptor;
+        // decrypted values are put back by their pointers, which must be relative to the copy
+        final JsonValue decrypted = decrypt(new JsonValue(document.copy().getObject()), valueDecryptor);
+        return new JsonValue(decrypted.getObject(), document.getPointer());
+    }
+
+    private JsonValue decrypt(JsonValue document, JsonDecryptor valueDecryptor) throws JsonCryptoException {
+        if (isEncrypted(document)) {
+            return decrypt(new JsonValue(decryptValue(document, valueDecryptor).getObject()), valueDecryptor);
+        }
+        final List<JsonValue> encryptedValues = new ArrayList<>();
+        collectEncryptedValues(document, encryptedValues);
+        final List<JsonValue> decryptedValues = encryptedValues.size() >= parallelThreshold
+                ? decryptInParallel(encryptedValues, valueDecryptor)
+                : decryptInSequence(encryptedValues, valueDecryptor);
+        for (int i = 0; i < encryptedValues.size(); i++) {
+            // the decrypted value may contain encrypted values too
+            final JsonValue decrypted = decrypt(new JsonValue(decryptedValues.get(i).getObject()), valueDecryptor);
+            document.put(encryptedValues.get(i).getPointer(), decrypted.getObject());
+        }
+        return document;
+    }
+
+    private boolean isEncrypted(JsonValue value) {
+        return JsonCrypto.isJsonCrypto(value) && new JsonCrypto(value).getType().equals(decryptor.getType());
+    }
+
+    /** Collects the encrypted values of the document, which are not searched for nested encrypted values. */
+    private void collectEncryptedValues(JsonValue value, List<JsonValue> encryptedValues) {
+        if (isEncrypted(value)) {
+            encryptedValues.add(value);
+        } else if (value.isMap() || value.isList()) {
+            for (JsonValue child : value) {
+                collectEncryptedValues(child, encryptedValues);
+            }
+        }
+    }
+
+    private static List<JsonValue> decryptInSequence(List<JsonValue> encryptedValues,
+            JsonDecryptor valueDecryptor) throws JsonCryptoException {
+        final List<JsonValue> decryptedValues = new ArrayList<>(encryptedValues.size());
+        for (JsonValue encrypted : encryptedValues) {
+            decryptedValues.add(decryptValue(encrypted, valueDecryptor));
+        }
+        return decryptedValues;
+    }
+
+    /**
+     * Decrypts the values with the threads of the executor and the calling thread, which decrypts values too rather
+     * than only waiting for the executor, so that it never waits for a task which has not started: decrypting from a
+     * thread of the executor itself cannot deadlock, even when no other thread of the executor is available.
+     */
+    private List<JsonValue> decryptInParallel(List<JsonValue> encryptedValues, JsonDecryptor valueDecryptor)
+            throws JsonCryptoException {
+        final ParallelDecryption decryption = new ParallelDecryption(encryptedValues, valueDecryptor);
+        final int helpers = Math.min(encryptedValues.size() - 1, Runtime.getRuntime().availableProcessors());
+        final List<Future<?>> futures = new ArrayList<>(helpers);
+        try {
+            for (int i = 0; i < helpers; i++) {
+                futures.add(executor.submit(decryption));
+            }
+        } catch (RejectedExecutionException e) {
+            // the calling thread decrypts the values which the executor does not
+        }
+        try {
+            decryption.run();
+            return decryption.await();
+        } finally {
+            for (Future<?> future : futures) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private static JsonValue decryptValue(JsonValue encrypted, JsonDecryptor valueDecryptor)
+            throws JsonCryptoException {
+        return valueDecryptor.decrypt(new JsonCrypto(encrypted).getValue());
+    }
+
+    /**
+     * Decrypts the values claimed one at a time by each of the threads running it, and counts down the values once
+     * decrypted, or skipped once a value has failed to be decrypted.
+     */
+    private static final class ParallelDecryption implements Runnable {
+
+        private final List<JsonValue> encryptedValues;
+        private final JsonDecryptor valueDecryptor;
+        private final JsonValue[] decryptedValues;
+        private final AtomicInteger next = new AtomicInteger();
+        private final CountDownLatch remaining;
+        private volatile Exception failure;
+
+        private ParallelDecryption(List<JsonValue> encryptedValues, JsonDecryptor valueDecryptor) {
+            this.encryptedValues = encryptedValues;
+            this.valueDecryptor = valueDecryptor;
+            this.decryptedValues = new JsonValue[encryptedValues.size()];
+            this.remaining = new CountDownLatch(encryptedValues.size());
+        }
+
+        @Override
+        public void run() {
+            int i;
+            while ((i = next.getAndIncrement()) < decryptedValues.length) {
+                try {
+                    if (failure == null) {
+                        decryptedValues[i] = decryptValue(encryptedValues.get(i), valueDecryptor);
+                    }
+                } catch (JsonCryptoException | RuntimeException e) {
+                    failure = e;
+                } finally {
+                    remaining.countDown();
+                }
+            }
+        }
+
+        /** Waits for the values claimed by the other threads, once the calling thread has no value left to claim. */
+        private List<JsonValue> await() throws JsonCryptoException {
+            try {
+                remaining.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JsonCryptoException("Interrupted while decrypting", e);
+            }
+            if (failure instanceof JsonCryptoException) {
+                throw (JsonCryptoException) failure;
+            } else if (failure != null) {
+                throw new JsonCryptoException(failure);
+            }
+            return Arrays.asList(decryptedValues);
+        }
+    }
+}
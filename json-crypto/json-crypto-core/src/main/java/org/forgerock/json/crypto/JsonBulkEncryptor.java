@@ -0,0 +1,87 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyrighted [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.crypto;
+
+import static org.forgerock.util.Reject.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+
+/**
+ * Encrypts the marked fields of JSON documents, replacing each of them with a {@code $crypto} JSON object, in one
+ * pass over each document.
+ * <p>
+ * If the encryptor is a {@link DataKeyEncryptor}, all the fields of a document are encrypted under a single data key,
+ * so that encrypting a document with an asymmetric key, for example, only wraps one data key, instead of one per
+ * field. Otherwise, each field is encrypted on its own, as by {@link JsonEncryptFunction}. Either way, each field can
+ * be decrypted on its own, by {@link JsonDecryptFunction} or {@link JsonBulkDecryptor}.
+ */
+public class JsonBulkEncryptor {
+
+    /** Encryptor to apply to the fields. */
+    private final JsonEncryptor encryptor;
+
+    /** Pointers to the fields to encrypt. */
+    private final List<JsonPointer> fields;
+
+    /**
+     * Constructs a bulk encryptor encrypting the specified fields.
+     *
+     * @param encryptor the encryptor to apply to the fields.
+     * @param fields the pointers to the fields to encrypt, relative to the documents.
+     * @throws NullPointerException if {@code encryptor} or {@code fields} is {@code null}.
+     */
+    public JsonBulkEncryptor(JsonEncryptor encryptor, Collection<JsonPointer> fields) {
+        this.encryptor = checkNotNull(encryptor);
+        this.fields = new ArrayList<>(checkNotNull(fields));
+    }
+
+    /**
+     * Returns a copy of the document whose marked fields are encrypted. The fields missing from the document, or
+     * {@code null}, and those already encrypted, are left unchanged.
+     *
+     * @param document the JSON document whose fields are to be encrypted.
+     * @return the document with its fields encrypted.
+     * @throws JsonCryptoException if a field cannot be encrypted.
+     */
+    public JsonValue encrypt(JsonValue document) throws JsonCryptoException {
+        final JsonValue result = document.copy();
+        JsonEncryptor fieldEncryptor = null;
+        for (JsonPointer field : fields) {
+            final JsonValue value = result.get(field);
+            if (value == null || value.isNull() || JsonCrypto.isJsonCrypto(value)) {
+                continue;
+            }
+            if (fieldEncryptor == null) {
+                fieldEncryptor = encryptor instanceof DataKeyEncryptor
+                        ? ((DataKeyEncryptor) encryptor).newDataKeyEncryptor()
+                        : encryptor;
+            }
+            final JsonValue encrypted = new JsonCrypto(encryptor.getType(), fieldEncryptor.encrypt(value))
+                    .toJsonValue();
+            if (field.isEmpty()) {
+                return encrypted;
+            }
+            result.put(field, encrypted.getObject());
+        }
+        return result;
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2011-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.crypto.simple;
@@ -22,6 +23,7 @@ import java.security.Key;
 import java.security.MessageDigest;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,8 +33,10 @@ import javax.crypto.spec.SecretKeySpec;
 
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.JsonValueException;
+import org.forgerock.json.crypto.DataKeyDecryptor;
 import org.forgerock.json.crypto.JsonCryptoException;
 import org.forgerock.json.crypto.JsonDecryptor;
+import org.forgerock.util.crypto.CryptoPrimitives;
 import org.forgerock.util.encode.Base64;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -41,14 +45,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * Decrypts a {@code $crypto} JSON object value encrypted with the
  * {@code x-simple-encryption} type.
  */
-public class SimpleDecryptor implements JsonDecryptor {
+public class SimpleDecryptor implements DataKeyDecryptor {
     private static final Logger logger = Logger.getLogger(SimpleDecryptor.class.getName());
 
     /** The type of cryptographic representation that this decryptor supports. */
     public static final String TYPE = "x-simple-encryption";
 
-    /** Converts between JSON constructs and Java objects. */
-    private final ObjectMapper mapper = new ObjectMapper();
+    /** Converts between JSON constructs and Java objects, and is shared since it is thread-safe. */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
     /** TODO: Description. */
     private final SimpleKeySelector selector;
@@ -77,49 +81,124 @@ public class SimpleDecryptor implements JsonDecryptor {
 
     @Override
     public JsonValue decrypt(JsonValue value) throws JsonCryptoException {
+        return decrypt(value, null);
+    }
+
+    @Override
+    public JsonDecryptor newDataKeyDecryptor() {
+        final Map<String, DerivedKeys> derivedKeys = new ConcurrentHashMap<>();
+        return new JsonDecryptor() {
+            @Override
+            public String getType() {
+                return TYPE;
+            }
+
+            @Override
+            public JsonValue decrypt(JsonValue value) throws JsonCryptoException {
+                return SimpleDecryptor.this.decrypt(value, derivedKeys);
+            }
+        };
+    }
+
+    /**
+     * Decrypts the value, with the keys derived from its data key, which are looked up in, or added to, the given
+     * derived keys if not {@code null}.
+     */
+    private JsonValue decrypt(JsonValue value, Map<String, DerivedKeys> derivedKeys) throws JsonCryptoException {
         try {
-            JsonValue key = value.get("key").required();
             String cipher = value.get("cipher").required().asString();
-            Key symmetricKey;
-            if (key.isString()) {
-                symmetricKey = select(key.asString());
+            DerivedKeys keys;
+            if (derivedKeys == null) {
+                keys = deriveKeys(value, cipher);
             } else {
-                Key privateKey = select(key.get("key").required().asString());
-                Cipher asymmetric = Cipher.getInstance(key.get("cipher").required().asString());
-                asymmetric.init(Cipher.DECRYPT_MODE, privateKey);
-                byte[] ciphertext = Base64.decode(key.get("data").required().asString());
-                symmetricKey = new SecretKeySpec(asymmetric.doFinal(ciphertext), cipher.split("/", 2)[0]);
+                String dataKeyId = dataKeyId(value, cipher);
+                keys = derivedKeys.get(dataKeyId);
+                if (keys == null) {
+                    keys = deriveKeys(value, cipher);
+                    derivedKeys.put(dataKeyId, keys);
+                }
             }
 
-            if (value.isDefined("salt")) {
+            if (keys.macKey != null) {
                 final byte[] macTag = Base64.decode(value.get("mac").required().asString());
-                HKDFKeyGenerator.HKDFMasterKey masterKey = HKDFKeyGenerator.extractMasterKey(symmetricKey.getEncoded(),
-                        Base64.decode(value.get("salt").required().asString()));
-
-                Key macKey = HKDFKeyGenerator.expandKey(masterKey, SimpleEncryptor.MAC_ALGORITHM,
-                        SimpleEncryptor.MAC_KEY_SIZE);
                 final Map<String, Object> map = new TreeMap<>(value.asMap());
                 map.remove("mac");
-                final byte[] computedMacTag = SimpleEncryptor.mac(map, macKey);
+                final byte[] computedMacTag = SimpleEncryptor.mac(map, keys.macKey);
                 if (!MessageDigest.isEqual(macTag, computedMacTag)) {
                     throw new GeneralSecurityException("Invalid tag");
                 }
-
-                symmetricKey = HKDFKeyGenerator.expandKey(masterKey, symmetricKey.getAlgorithm(),
-                        SimpleEncryptor.ASYMMETRIC_AES_KEY_SIZE);
             }
 
-            Cipher symmetric = Cipher.getInstance(cipher);
+            Cipher symmetric = CryptoPrimitives.cipher(cipher);
             String iv = value.get("iv").asString();
 
             IvParameterSpec ivps = (iv == null ? null : new IvParameterSpec(Base64.decode(iv)));
-            symmetric.init(Cipher.DECRYPT_MODE, symmetricKey, ivps);
+            symmetric.init(Cipher.DECRYPT_MODE, keys.symmetricKey, ivps);
             byte[] plaintext = symmetric.doFinal(Base64.decode(value.get("data").required().asString()));
-            return new JsonValue(mapper.readValue(plaintext, Object.class));
+            return new JsonValue(MAPPER.readValue(plaintext, Object.class));
         } catch (GeneralSecurityException | IOException | JsonValueException e) {
             logger.log(Level.FINE, "SimpleDecryptor: decryption failure", e);
             throw new JsonCryptoException("Decryption failed");
         }
     }
 
+    /**
+     * Selects, or unwraps, the data key of the value, and derives the keys decrypting it and checking its MAC.
+     */
+    private DerivedKeys deriveKeys(JsonValue value, String cipher)
+            throws GeneralSecurityException, JsonCryptoException {
+        JsonValue key = value.get("key").required();
+        Key symmetricKey;
+        if (key.isString()) {
+            symmetricKey = select(key.asString());
+        } else {
+            Key privateKey = select(key.get("key").required().asString());
+            Cipher asymmetric = CryptoPrimitives.cipher(key.get("cipher").required().asString());
+            asymmetric.init(Cipher.DECRYPT_MODE, privateKey);
+            byte[] ciphertext = Base64.decode(key.get("data").required().asString());
+            symmetricKey = new SecretKeySpec(asymmetric.doFinal(ciphertext), cipher.split("/", 2)[0]);
+        }
+
+        Key macKey = null;
+        if (value.isDefined("salt")) {
+            HKDFKeyGenerator.HKDFMasterKey masterKey = HKDFKeyGenerator.extractMasterKey(symmetricKey.getEncoded(),
+                    Base64.decode(value.get("salt").required().asString()));
+
+            macKey = HKDFKeyGenerator.expandKey(masterKey, SimpleEncryptor.MAC_ALGORITHM,
+                    SimpleEncryptor.MAC_KEY_SIZE);
+            symmetricKey = HKDFKeyGenerator.expandKey(masterKey, symmetricKey.getAlgorithm(),
+                    SimpleEncryptor.ASYMMETRIC_AES_KEY_SIZE);
+        }
+        return new DerivedKeys(symmetricKey, macKey);
+    }
+
+    /**
+     * Returns what identifies the data key of the value and the keys derived from it: the cipher, the alias or the
+     * wrapped data key, and the salt.
+     */
+    private static String dataKeyId(JsonValue value, String cipher) {
+        JsonValue key = value.get("key").required();
+        StringBuilder id = new StringBuilder(cipher).append('|');
+        if (key.isString()) {
+            id.append(key.asString());
+        } else {
+            id.append(key.get("cipher").asString()).append('|')
+                    .append(key.get("key").asString()).append('|')
+                    .append(key.get("data").asString());
+        }
+        return id.append('|').append(value.get("salt").asString()).toString();
+    }
+
+    /**
+     * The key decrypting a value, and the key checking its MAC, if it has one.
+     */
+    private static final class DerivedKeys {
+        private final Key symmetricKey;
+        private final Key macKey;
+
+        private DerivedKeys(Key symmetricKey, Key macKey) {
+            this.symmetricKey = symmetricKey;
+            this.macKey = macKey;
+        }
+    }
 }
@@ -12,6 +12,7 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.crypto.simple;
@@ -31,16 +32,23 @@ import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 
 import org.forgerock.json.JsonValue;
+import org.forgerock.json.crypto.DataKeyEncryptor;
 import org.forgerock.json.crypto.JsonCryptoException;
 import org.forgerock.json.crypto.JsonEncryptor;
+import org.forgerock.util.crypto.CryptoPrimitives;
 import org.forgerock.util.encode.Base64;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Encrypts a JSON value into an {@code x-simple-encryption} type {@code $crypto} JSON object.
+ * <p>
+ * Each value is encrypted under a data key: the key of this encryptor if it is a secret key, or else a new random
+ * key, wrapped with the key of this encryptor. The encryption and MAC keys are derived from the data key with a
+ * random salt. {@link #newDataKeyEncryptor()} returns an encryptor encrypting several values under a single data key,
+ * which is only generated, wrapped and derived once.
  */
-public class SimpleEncryptor implements JsonEncryptor {
+public class SimpleEncryptor implements DataKeyEncryptor {
 
     /** The type of cryptographic representation that this encryptor supports. */
     public static final String TYPE = "x-simple-encryption";
@@ -50,8 +58,11 @@ public class SimpleEncryptor implements JsonEncryptor {
 
     static final int ASYMMETRIC_AES_KEY_SIZE = 128 / 8;
 
-    /** Converts between Java objects and JSON constructs. */
-    private final ObjectMapper mapper = new ObjectMapper();
+    /** The symmetric cipher encrypting the values under a wrapped data key. */
+    private static final String ASYMMETRIC_SYMMETRIC_CIPHER = "AES/CBC/PKCS5Padding";
+
+    /** Converts between Java objects and JSON constructs, and is shared since it is thread-safe. */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
     /** The cipher to encrypt with. */
     private String cipher;
@@ -81,99 +92,66 @@ public class SimpleEncryptor implements JsonEncryptor {
     }
 
     /**
-     * Encrypts with a symmetric cipher.
+     * Returns the data key of a symmetric cipher, which is the key of this encryptor.
      *
-     * @param object the value to be encrypted.
-     * @return the encrypted value.
-     * @throws GeneralSecurityException if a cryptographic operation failed.
-     * @throws IOException if an I/O exception occurred.
+     * @return the data key.
      */
-    private Object symmetric(Object object) throws GeneralSecurityException, IOException {
-        Cipher symmetric = Cipher.getInstance(cipher);
-
+    private DataKey symmetric() {
         HKDFKeyGenerator.HKDFMasterKey masterKey = HKDFKeyGenerator.extractMasterKey(key.getEncoded());
         Key encryptionKey = HKDFKeyGenerator.expandKey(masterKey, "AES", key.getEncoded().length);
         Key macKey = HKDFKeyGenerator.expandKey(masterKey, MAC_ALGORITHM, MAC_KEY_SIZE);
-
-        symmetric.init(Cipher.ENCRYPT_MODE, encryptionKey);
-        String data = Base64.encode(symmetric.doFinal(mapper.writeValueAsBytes(object)));
-        byte[] iv = symmetric.getIV();
-        byte[] salt = masterKey.getSalt();
-        HashMap<String, Object> result = new HashMap<>();
-        result.put("cipher", this.cipher);
-        result.put("key", this.alias);
-        result.put("data", data);
-        if (iv != null) {
-            result.put("iv", Base64.encode(iv));
-        }
-        if (salt != null) {
-            result.put("salt", Base64.encode(salt));
-        }
-        result.put("mac", Base64.encode(mac(result, macKey)));
-        return result;
+        return new DataKey(this.cipher, this.alias, encryptionKey, macKey, masterKey.getSalt());
     }
 
     /**
-     * Encrypts using an asymmetric cipher.
+     * Returns a new data key, wrapped with an asymmetric cipher.
      *
-     * @param object the value to be encrypted.
-     * @return the encrypted value.
+     * @return the data key.
      * @throws GeneralSecurityException if a cryptographic operation failed.
-     * @throws IOException if an I/O exception occurred.
      */
-    private Object asymmetric(Object object) throws GeneralSecurityException, IOException {
-        String symmetricCipher = "AES/CBC/PKCS5Padding";
+    private DataKey asymmetric() throws GeneralSecurityException {
         KeyGenerator generator = KeyGenerator.getInstance(HKDFKeyGenerator.HMAC_ALGORITHM);
         generator.init(HKDFKeyGenerator.HASH_LEN * 8);
         SecretKey sessionKey = generator.generateKey();
 
         HKDFKeyGenerator.HKDFMasterKey masterKey = HKDFKeyGenerator.extractMasterKey(sessionKey.getEncoded());
-        final byte[] salt = masterKey.getSalt();
-
         final Key encryptionKey = HKDFKeyGenerator.expandKey(masterKey, "AES", ASYMMETRIC_AES_KEY_SIZE);
         final Key macKey = HKDFKeyGenerator.expandKey(masterKey, MAC_ALGORITHM, MAC_KEY_SIZE);
 
-        Cipher symmetric = Cipher.getInstance(symmetricCipher);
-        symmetric.init(Cipher.ENCRYPT_MODE, encryptionKey);
-        byte[] iv = symmetric.getIV();
-        String data = Base64.encode(symmetric.doFinal(mapper.writeValueAsBytes(object)));
-
-        Cipher asymmetric = Cipher.getInstance(cipher);
+        Cipher asymmetric = CryptoPrimitives.cipher(cipher);
         asymmetric.init(Cipher.ENCRYPT_MODE, key);
         HashMap<String, Object> keyObject = new HashMap<>();
         keyObject.put("cipher", this.cipher);
         keyObject.put("key", this.alias);
         keyObject.put("data", Base64.encode(asymmetric.doFinal(sessionKey.getEncoded())));
+        return new DataKey(ASYMMETRIC_SYMMETRIC_CIPHER, keyObject, encryptionKey, macKey, masterKey.getSalt());
+    }
 
-        HashMap<String, Object> result = new HashMap<>();
-        result.put("cipher", symmetricCipher);
-        result.put("key", keyObject);
-        result.put("data", data);
-        if (iv != null) {
-            result.put("iv", Base64.encode(iv));
-        }
-        if (salt != null) {
-            result.put("salt", Base64.encode(salt));
-        }
-
-        result.put("mac", Base64.encode(mac(result, macKey)));
-        return result;
+    private DataKey newDataKey() throws GeneralSecurityException {
+        return key instanceof SecretKey ? symmetric() : asymmetric();
     }
 
     @Override
     public JsonValue encrypt(JsonValue value) throws JsonCryptoException {
-        Object object = value.getObject();
         try {
-            return new JsonValue((key instanceof SecretKey ? symmetric(object) : asymmetric(object)));
-        } catch (GeneralSecurityException | IOException e) {
+            return newDataKey().encrypt(value);
+        } catch (GeneralSecurityException e) {
+            throw new JsonCryptoException(e);
+        }
+    }
+
+    @Override
+    public JsonEncryptor newDataKeyEncryptor() throws JsonCryptoException {
+        try {
+            return newDataKey();
+        } catch (GeneralSecurityException e) {
             throw new JsonCryptoException(e);
         }
     }
 
     static byte[] mac(final Map<String, Object> input, final Key macKey) {
         try {
-            Mac mac = Mac.getInstance(MAC_ALGORITHM);
-            mac.init(macKey);
+            Mac mac = CryptoPrimitives.mac(MAC_ALGORITHM, macKey);
             updateMac(mac, input);
             // Truncate the MAC to half size
             return Arrays.copyOfRange(mac.doFinal(), 0, MAC_KEY_SIZE / 2);
@@ -193,4 +171,61 @@ public class SimpleEncryptor implements JsonEncryptor {
             }
         }
     }
+
+    /**
+     * A data key, with the keys derived from it, encrypting values with a new initialisation vector each.
+     */
+    private final class DataKey implements JsonEncryptor {
+
+        /** The symmetric cipher to encrypt with. */
+        private final String symmetricCipher;
+
+        /** The alias of the data key, or the wrapped data key, to list in the encrypted objects. */
+        private final Object keyObject;
+
+        private final Key encryptionKey;
+        private final Key macKey;
+        private final byte[] salt;
+
+        private DataKey(String symmetricCipher, Object keyObject, Key encryptionKey, Key macKey, byte[] salt) {
+            this.symmetricCipher = symmetricCipher;
+            this.keyObject = keyObject;
+            this.encryptionKey = encryptionKey;
+            this.macKey = macKey;
+            this.salt = salt;
+        }
+
+        @Override
+        public String getType() {
+            return TYPE;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public JsonValue encrypt(JsonValue value) throws JsonCryptoException {
+            try {
+                Cipher symmetric = CryptoPrimitives.cipher(symmetricCipher);
+                symmetric.init(Cipher.ENCRYPT_MODE, encryptionKey);
+                byte[] iv = symmetric.getIV();
+                String data = Base64.encode(symmetric.doFinal(MAPPER.writeValueAsBytes(value.getObject())));
+                HashMap<String, Object> result = new HashMap<>();
+                result.put("cipher", symmetricCipher);
+                // each encrypted object has its own copy of the wrapped data key, which may be modified
+                result.put("key", keyObject instanceof Map
+                        ? new HashMap<>((Map<String, Object>) keyObject)
+                        : keyObject);
+                result.put("data", data);
+                if (iv != null) {
+                    result.put("iv", Base64.encode(iv));
+                }
+                if (salt != null) {
+                    result.put("salt", Base64.encode(salt));
+                }
+                result.put("mac", Base64.encode(mac(result, macKey)));
+                return new JsonValue(result);
+            } catch (GeneralSecurityException | IOException e) {
+                throw new JsonCryptoException(e);
+            }
+        }
+    }
 }
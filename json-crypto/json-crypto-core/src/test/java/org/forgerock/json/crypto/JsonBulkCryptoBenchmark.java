@@ -0,0 +1,160 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyrighted [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.crypto;
+
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.crypto.simple.SimpleDecryptor;
+import org.forgerock.json.crypto.simple.SimpleEncryptor;
+import org.forgerock.json.crypto.simple.SimpleKeySelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares encrypting and decrypting the fields of a document with an RSA key, one field at a time as with
+ * {@link JsonEncryptFunction} and {@link JsonDecryptFunction}, which wrap and unwrap a data key per field, and with
+ * {@link JsonBulkEncryptor} and {@link JsonBulkDecryptor}, which wrap and unwrap a single data key per document, the
+ * latter both in the calling thread and in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class JsonBulkCryptoBenchmark {
+
+    private static final String ASYMMETRIC_CIPHER = "RSA/ECB/OAEPWithSHA1AndMGF1Padding";
+
+    private static final String PLAINTEXT = "Lorem ipsum dolor sit amet, consectetur adipiscing elit.";
+
+    @Param({ "4", "64" })
+    private int fieldCount;
+
+    private JsonValue document;
+    private List<JsonPointer> fields;
+    private JsonEncryptFunction encryptFunction;
+    private JsonDecryptFunction decryptFunction;
+    private JsonBulkEncryptor bulkEncryptor;
+    private JsonBulkDecryptor bulkDecryptor;
+    private JsonBulkDecryptor parallelBulkDecryptor;
+    private ExecutorService executor;
+    private JsonValue encryptedFieldByField;
+    private JsonValue bulkEncrypted;
+
+    @Setup
+    public void setup() throws GeneralSecurityException, JsonCryptoException {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA");
+        kpg.initialize(2048);
+        KeyPair kp = kpg.genKeyPair();
+        final PrivateKey privateKey = kp.getPrivate();
+        SimpleEncryptor encryptor = new SimpleEncryptor(ASYMMETRIC_CIPHER, kp.getPublic(), "privateKey");
+        SimpleDecryptor decryptor = new SimpleDecryptor(new SimpleKeySelector() {
+            @Override
+            public Key select(String key) {
+                return privateKey;
+            }
+        });
+
+        document = json(object());
+        fields = new ArrayList<>();
+        for (int i = 0; i < fieldCount; i++) {
+            document.put("field" + i, PLAINTEXT);
+            fields.add(new JsonPointer("/field" + i));
+        }
+
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        encryptFunction = new JsonEncryptFunction(encryptor);
+        decryptFunction = new JsonDecryptFunction(decryptor);
+        bulkEncryptor = new JsonBulkEncryptor(encryptor, fields);
+        bulkDecryptor = new JsonBulkDecryptor(decryptor);
+        parallelBulkDecryptor = new JsonBulkDecryptor(decryptor, executor, 2);
+
+        encryptedFieldByField = encryptFieldByField();
+        bulkEncrypted = bulkEncrypt();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public JsonValue encryptFieldByField() throws JsonCryptoException {
+        JsonValue result = document.copy();
+        for (JsonPointer field : fields) {
+            result.put(field, encryptFunction.apply(result.get(field)).getObject());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public JsonValue bulkEncrypt() throws JsonCryptoException {
+        return bulkEncryptor.encrypt(document);
+    }
+
+    @Benchmark
+    public JsonValue decryptFieldByField() {
+        return encryptedFieldByField.as(decryptFunction);
+    }
+
+    @Benchmark
+    public JsonValue bulkDecrypt() throws JsonCryptoException {
+        return bulkDecryptor.decrypt(bulkEncrypted);
+    }
+
+    @Benchmark
+    public JsonValue parallelBulkDecrypt() throws JsonCryptoException {
+        return parallelBulkDecryptor.decrypt(bulkEncrypted);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(JsonBulkCryptoBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
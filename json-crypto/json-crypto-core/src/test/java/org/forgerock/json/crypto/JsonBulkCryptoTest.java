@@ -0,0 +1,220 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyrighted [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.crypto;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.json.JsonValue;
+import org.forgerock.json.crypto.simple.SimpleDecryptor;
+import org.forgerock.json.crypto.simple.SimpleEncryptor;
+import org.forgerock.json.crypto.simple.SimpleKeySelector;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class JsonBulkCryptoTest {
+
+    private static final String SYMMETRIC_CIPHER = "AES/CBC/PKCS5Padding";
+
+    private static final String ASYMMETRIC_CIPHER = "RSA/ECB/OAEPWithSHA1AndMGF1Padding";
+
+    private static final List<JsonPointer> FIELDS = asList(new JsonPointer("/password"),
+            new JsonPointer("/address/street"), new JsonPointer("/missing"), new JsonPointer("/nothing"));
+
+    private SecretKey secretKey;
+
+    private PublicKey publicKey;
+
+    private PrivateKey privateKey;
+
+    private int privateKeySelections;
+
+    private ExecutorService executor;
+
+    private SimpleKeySelector selector = new SimpleKeySelector() {
+        @Override public Key select(String key) {
+            if (key.equals("secretKey")) {
+                return secretKey;
+            } else if (key.equals("privateKey")) {
+                privateKeySelections++;
+                return privateKey;
+            } else {
+                return null;
+            }
+        }
+    };
+
+    // ----- initialization ----------
+
+    @BeforeClass
+    public void beforeClass() throws GeneralSecurityException {
+        KeyGenerator kg = KeyGenerator.getInstance("AES");
+        kg.init(128);
+        secretKey = kg.generateKey();
+
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA");
+        kpg.initialize(1024);
+        KeyPair kp = kpg.genKeyPair();
+        publicKey = kp.getPublic();
+        privateKey = kp.getPrivate();
+
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterClass
+    public void afterClass() {
+        executor.shutdownNow();
+    }
+
+    // ----- happy path ----------
+
+    @Test
+    public void testSymmetricBulkEncryption() throws JsonCryptoException {
+        JsonValue document = document();
+        JsonValue encrypted = new JsonBulkEncryptor(new SimpleEncryptor(SYMMETRIC_CIPHER, secretKey, "secretKey"),
+                FIELDS).encrypt(document);
+
+        assertThat(JsonCrypto.isJsonCrypto(encrypted.get("password"))).isTrue();
+        assertThat(JsonCrypto.isJsonCrypto(encrypted.get(new JsonPointer("/address/street")))).isTrue();
+        assertThat(encrypted.get("name").getObject()).isEqualTo("bjensen");
+        assertThat(encrypted.isDefined("missing")).isFalse();
+        assertThat(encrypted.get("nothing").isNull()).isTrue();
+        assertThat(document.get("password").getObject()).isEqualTo("P@55W0RD");
+
+        JsonValue decrypted = new JsonBulkDecryptor(new SimpleDecryptor(selector)).decrypt(encrypted);
+        assertThat(decrypted.getObject()).isEqualTo(document.getObject());
+    }
+
+    @Test
+    public void testAsymmetricBulkEncryptionWrapsSingleDataKey() throws JsonCryptoException {
+        JsonValue encrypted = new JsonBulkEncryptor(new SimpleEncryptor(ASYMMETRIC_CIPHER, publicKey, "privateKey"),
+                FIELDS).encrypt(document());
+
+        JsonValue passwordKey = new JsonCrypto(encrypted.get("password")).getValue().get("key");
+        JsonValue streetKey = new JsonCrypto(encrypted.get(new JsonPointer("/address/street"))).getValue().get("key");
+        assertThat(passwordKey.getObject()).isEqualTo(streetKey.getObject());
+        assertThat(passwordKey.getObject()).isNotSameAs(streetKey.getObject());
+
+        privateKeySelections = 0;
+        JsonValue decrypted = new JsonBulkDecryptor(new SimpleDecryptor(selector)).decrypt(encrypted);
+        assertThat(decrypted.getObject()).isEqualTo(document().getObject());
+        assertThat(privateKeySelections).isEqualTo(1);
+    }
+
+    @Test
+    public void testBulkEncryptedFieldsDecryptOnTheirOwn() throws JsonCryptoException {
+        JsonValue encrypted = new JsonBulkEncryptor(new SimpleEncryptor(ASYMMETRIC_CIPHER, publicKey, "privateKey"),
+                FIELDS).encrypt(document());
+
+        JsonValue decrypted = encrypted.as(new JsonDecryptFunction(new SimpleDecryptor(selector)));
+        assertThat(decrypted.getObject()).isEqualTo(document().getObject());
+    }
+
+    @Test
+    public void testParallelBulkDecryption() throws JsonCryptoException {
+        JsonValue document = json(object());
+        List<JsonPointer> fields = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            document.put("field" + i, "value" + i);
+            fields.add(new JsonPointer("/field" + i));
+        }
+        JsonValue encrypted = new JsonBulkEncryptor(new SimpleEncryptor(ASYMMETRIC_CIPHER, publicKey, "privateKey"),
+                fields).encrypt(document);
+
+        JsonValue decrypted = new JsonBulkDecryptor(new SimpleDecryptor(selector), executor, 10).decrypt(encrypted);
+        assertThat(decrypted.getObject()).isEqualTo(document.getObject());
+    }
+
+    @Test
+    public void testParallelBulkDecryptionFromThreadOfExecutor() throws Exception {
+        JsonValue document = json(object());
+        List<JsonPointer> fields = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            document.put("field" + i, "value" + i);
+            fields.add(new JsonPointer("/field" + i));
+        }
+        final JsonValue encrypted = new JsonBulkEncryptor(new SimpleEncryptor(SYMMETRIC_CIPHER, secretKey,
+                "secretKey"), fields).encrypt(document);
+        final ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        try {
+            final JsonBulkDecryptor bulkDecryptor = new JsonBulkDecryptor(new SimpleDecryptor(selector),
+                    singleThread, 2);
+            JsonValue decrypted = singleThread.submit(new Callable<JsonValue>() {
+                @Override
+                public JsonValue call() throws JsonCryptoException {
+                    return bulkDecryptor.decrypt(encrypted);
+                }
+            }).get(10, TimeUnit.SECONDS);
+            assertThat(decrypted.getObject()).isEqualTo(document.getObject());
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBulkDecryptionOfNestedEncryptedValues() throws JsonCryptoException {
+        SimpleEncryptor encryptor = new SimpleEncryptor(SYMMETRIC_CIPHER, secretKey, "secretKey");
+        JsonValue inner = new JsonBulkEncryptor(encryptor, asList(new JsonPointer("/street"))).encrypt(
+                document().get("address"));
+        JsonValue document = json(object(field("address", inner.getObject())));
+        JsonValue encrypted = new JsonBulkEncryptor(encryptor, asList(new JsonPointer("/address")))
+                .encrypt(document);
+
+        JsonValue decrypted = new JsonBulkDecryptor(new SimpleDecryptor(selector)).decrypt(encrypted);
+        assertThat(decrypted.get(new JsonPointer("/address/street")).getObject()).isEqualTo("1 Main Street");
+    }
+
+    // ----- exceptions ----------
+
+    @Test(expectedExceptions = JsonCryptoException.class)
+    public void testParallelBulkDecryptionWithUnknownKey() throws JsonCryptoException {
+        JsonValue encrypted = new JsonBulkEncryptor(new SimpleEncryptor(SYMMETRIC_CIPHER, secretKey, "secretKey"),
+                FIELDS).encrypt(document());
+        new JsonCrypto(encrypted.get("password")).getValue().put("key", "somethingCompletelyDifferent");
+
+        new JsonBulkDecryptor(new SimpleDecryptor(selector), executor, 1).decrypt(encrypted);
+    }
+
+    private static JsonValue document() {
+        return json(object(
+                field("name", "bjensen"),
+                field("password", "P@55W0RD"),
+                field("nothing", null),
+                field("address", object(field("street", "1 Main Street"), field("city", "Springfield")))));
+    }
+}
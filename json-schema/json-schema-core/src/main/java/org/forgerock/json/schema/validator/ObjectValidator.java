@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.schema.validator;
@@ -25,7 +26,8 @@ import java.util.Map;
  * <p/>
  * The validators was designed to keep in the memory or other cache and validate multiple instances.
  * This implementation creates a new {@link Validator} each time
- * and uses the {@link FailFastErrorHandler} to validate the instance object.
+ * and uses the {@link FailFastErrorHandler} to validate the instance object: a {@link ValidatorCache} keeps the
+ * validators of the schemas used repeatedly.
  */
 public final class ObjectValidator {
     /**
@@ -12,6 +12,7 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.schema.validator;
@@ -19,7 +20,6 @@ package org.forgerock.json.schema.validator;
 import static org.forgerock.json.schema.validator.Constants.*;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,20 +41,6 @@ import org.forgerock.json.schema.validator.validators.Validator;
 @SuppressWarnings("deprecation")
 public final class ObjectValidatorFactory {
 
-    private static final Map<String, Class<? extends Validator>> VALIDATORS;
-
-    static {
-        VALIDATORS = new HashMap<>(8);
-        VALIDATORS.put(TYPE_STRING, StringTypeValidator.class);
-        VALIDATORS.put(TYPE_NUMBER, NumberTypeValidator.class);
-        VALIDATORS.put(TYPE_INTEGER, IntegerTypeValidator.class);
-        VALIDATORS.put(TYPE_BOOLEAN, BooleanTypeValidator.class);
-        VALIDATORS.put(TYPE_OBJECT, ObjectTypeValidator.class);
-        VALIDATORS.put(TYPE_ARRAY, ArrayTypeValidator.class);
-        VALIDATORS.put(TYPE_NULL, NullTypeValidator.class);
-        VALIDATORS.put(TYPE_ANY, AnyTypeValidator.class);
-    }
-
     private ObjectValidatorFactory() {
         // hide ctor of utility class
     }
@@ -117,18 +103,27 @@ public final class ObjectValidatorFactory {
      * @throws RuntimeException when the validators in the <code>schema</code> is not supported.
      */
     public static Validator getTypeValidator(String type, Map<String, Object> schema, List<String> jsonPointer) {
-        Class<? extends Validator> clazz = findClass(type);
-        if (null != clazz) {
-            try {
-                return clazz.getConstructor(Map.class, List.class).newInstance(schema, jsonPointer);
-            } catch (Exception ex) {
-                throw new RuntimeException("Failed to initialize the new Validator instance");
-            }
+        // Validators are built for each schema and for each of its sub-schemas: creating them directly rather than
+        // through reflection keeps the cost of compiling a large schema down to parsing its keywords.
+        switch (type) {
+        case TYPE_STRING:
+            return new StringTypeValidator(schema, jsonPointer);
+        case TYPE_NUMBER:
+            return new NumberTypeValidator(schema, jsonPointer);
+        case TYPE_INTEGER:
+            return new IntegerTypeValidator(schema, jsonPointer);
+        case TYPE_BOOLEAN:
+            return new BooleanTypeValidator(schema, jsonPointer);
+        case TYPE_OBJECT:
+            return new ObjectTypeValidator(schema, jsonPointer);
+        case TYPE_ARRAY:
+            return new ArrayTypeValidator(schema, jsonPointer);
+        case TYPE_NULL:
+            return new NullTypeValidator(schema, jsonPointer);
+        case TYPE_ANY:
+            return new AnyTypeValidator(schema, jsonPointer);
+        default:
+            throw new RuntimeException("Unsupported validators exception {}");
         }
-        throw new RuntimeException("Unsupported validators exception {}");
-    }
-
-    private static Class<? extends Validator> findClass(String type) {
-        return VALIDATORS.get(type);
     }
 }
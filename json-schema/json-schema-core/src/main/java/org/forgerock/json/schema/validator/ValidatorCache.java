@@ -0,0 +1,129 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyrighted [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.schema.validator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.forgerock.json.schema.validator.validators.Validator;
+
+/**
+ * ValidatorCache keeps the validators compiled for the schemas most recently used, so that a schema is parsed, its
+ * patterns compiled and its references resolved once, rather than once for each instance validated.
+ * <p/>
+ * The schemas are looked up by identity rather than by equality, so that finding the validator of a schema costs
+ * neither hashing nor comparing its content: a schema must therefore not be modified once its validator has been
+ * compiled. When the cache is full, the validator of the least recently used schema is evicted.
+ * <p/>
+ * The validators returned are shared by all the callers, and may be used concurrently as they hold no state of the
+ * validations.
+ */
+public final class ValidatorCache {
+
+    private final Map<SchemaKey, Validator> validators;
+
+    /**
+     * Creates a cache keeping the validators of at most <code>maximumSize</code> schemas.
+     *
+     * @param maximumSize the maximum number of validators kept
+     * @throws IllegalArgumentException when the <code>maximumSize</code> is not positive.
+     */
+    public ValidatorCache(final int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive: " + maximumSize);
+        }
+        this.validators = new LinkedHashMap<SchemaKey, Validator>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SchemaKey, Validator> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the validator of the schema, compiling it with {@link ObjectValidatorFactory#getTypeValidator(Map)}
+     * when the schema is not in the cache.
+     *
+     * @param schema JSON Schema Draft-03 object
+     * @return Pre-configured {@link Validator} instance.
+     * @throws NullPointerException when the <code>schema</code> is null.
+     * @throws RuntimeException     when the validators in the <code>schema</code> is not supported.
+     */
+    public Validator getValidator(Map<String, Object> schema) {
+        final SchemaKey key = new SchemaKey(schema);
+        synchronized (validators) {
+            final Validator validator = validators.get(key);
+            if (validator != null) {
+                return validator;
+            }
+        }
+        // Compile outside of the lock: two threads may compile the same schema, and the first one wins.
+        final Validator validator = ObjectValidatorFactory.getTypeValidator(schema);
+        synchronized (validators) {
+            final Validator existing = validators.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            validators.put(key, validator);
+            return validator;
+        }
+    }
+
+    /**
+     * Returns the number of validators in the cache.
+     *
+     * @return the number of validators in the cache
+     */
+    public int size() {
+        synchronized (validators) {
+            return validators.size();
+        }
+    }
+
+    /**
+     * Removes all the validators from the cache.
+     */
+    public void clear() {
+        synchronized (validators) {
+            validators.clear();
+        }
+    }
+
+    /** Identifies a schema by its identity. */
+    private static final class SchemaKey {
+        private final Map<String, Object> schema;
+
+        private SchemaKey(Map<String, Object> schema) {
+            if (schema == null) {
+                throw new NullPointerException("schema");
+            }
+            this.schema = schema;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SchemaKey && ((SchemaKey) o).schema == schema;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(schema);
+        }
+    }
+}
@@ -12,12 +12,14 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2011-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.schema.validator.validators;
 
 import static org.forgerock.json.schema.validator.Constants.*;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -30,6 +32,9 @@ import org.forgerock.json.schema.validator.ErrorHandler;
 import org.forgerock.json.schema.validator.ObjectValidatorFactory;
 import org.forgerock.json.schema.validator.exceptions.ValidationException;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
 /**
  * ArrayTypeValidator applies all the constraints of a <code>array</code> type.
  * <p/>
@@ -190,6 +195,35 @@ public class ArrayTypeValidator extends Validator {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The items are validated as they are read, unless the schema requires unique items or defines a tuple of
+     * items, which are checked against the array as a whole.
+     */
+    @Override
+    public void validateTokens(JsonParser parser, JsonPointer at, ErrorHandler handler) throws IOException {
+        if (JsonTokens.firstToken(parser) != JsonToken.START_ARRAY || uniqueItems || null != tupleValidators) {
+            super.validateTokens(parser, at, handler);
+            return;
+        }
+        int size = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (null != singleValidator) {
+                singleValidator.validateTokens(parser, getPath(at, Integer.toString(size)), handler);
+            } else {
+                parser.skipChildren();
+            }
+            size++;
+        }
+        if (minItems > -1 && size < minItems) {
+            handler.error(new ValidationException(("minItems error")));
+        }
+        if (maxItems > -1 && size > maxItems) {
+            handler.error(new ValidationException(("maxItems error")));
+        }
+    }
+
     private void checkUniqueItems(List<Object> nodeValue, JsonPointer at, ErrorHandler handler) {
         if (uniqueItems && nodeValue.size() > 1) {
             Set<Object> set = new HashSet<>(nodeValue);
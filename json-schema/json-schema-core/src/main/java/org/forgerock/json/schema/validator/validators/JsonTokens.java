@@ -0,0 +1,104 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyrighted [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.schema.validator.validators;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads JSON values from the tokens of a {@link JsonParser}, for the validators which cannot validate a value as
+ * its tokens are read, with the same representation as the JSON parsers used to build the values validated by
+ * {@link Validator#validate(Object, org.forgerock.json.JsonPointer, org.forgerock.json.schema.validator.ErrorHandler)}:
+ * objects are {@link Map}s, arrays are {@link List}s, integers are {@link Long}s, as expected by
+ * {@link IntegerTypeValidator}, or {@link java.math.BigInteger}s when they do not fit in a long, and other numbers are
+ * {@link Double}s.
+ */
+final class JsonTokens {
+
+    private JsonTokens() {
+        // hide ctor of utility class
+    }
+
+    /**
+     * Moves the parser to the first token of the next value, if it is not positioned on a token yet.
+     *
+     * @param parser the parser
+     * @return the first token of the value
+     * @throws IOException if the tokens cannot be read
+     */
+    static JsonToken firstToken(JsonParser parser) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == null) {
+            token = parser.nextToken();
+            if (token == null) {
+                throw new JsonParseException(parser, "Expected a JSON value");
+            }
+        }
+        return token;
+    }
+
+    /**
+     * Reads the value whose first token is the current token of the parser, leaving the parser on its last token.
+     *
+     * @param parser the parser
+     * @return the value read
+     * @throws IOException if the tokens cannot be read
+     */
+    static Object readValue(JsonParser parser) throws IOException {
+        final JsonToken token = firstToken(parser);
+        switch (token) {
+        case START_OBJECT:
+            final Map<String, Object> object = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                parser.nextToken();
+                object.put(name, readValue(parser));
+            }
+            return object;
+        case START_ARRAY:
+            final List<Object> array = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                array.add(readValue(parser));
+            }
+            return array;
+        case VALUE_STRING:
+            return parser.getText();
+        case VALUE_NUMBER_INT:
+            if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                return parser.getBigIntegerValue();
+            }
+            return parser.getLongValue();
+        case VALUE_NUMBER_FLOAT:
+            return parser.getDoubleValue();
+        case VALUE_TRUE:
+            return Boolean.TRUE;
+        case VALUE_FALSE:
+            return Boolean.FALSE;
+        case VALUE_NULL:
+            return null;
+        default:
+            throw new JsonParseException(parser, "Unexpected token " + token);
+        }
+    }
+}
@@ -12,18 +12,21 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.schema.validator.validators;
 
 import static org.forgerock.json.schema.validator.Constants.*;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -37,6 +40,9 @@ import org.forgerock.json.schema.validator.ErrorHandler;
 import org.forgerock.json.schema.validator.ObjectValidatorFactory;
 import org.forgerock.json.schema.validator.exceptions.ValidationException;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
 /**
  * ObjectTypeValidator applies all the constraints of a <code>object</code> type.
  * <p/>
@@ -161,7 +167,7 @@ public class ObjectTypeValidator extends Validator {
             } else if (PATTERNPROPERTIES.equals(e.getKey())) {
                 if (e.getValue() instanceof Map) {
                     Map<String, Object> properties = (Map<String, Object>) e.getValue();
-                    patternPropertyValidators = new HashMap<>(properties.size());
+                    patternPropertyValidators = new LinkedHashMap<>(properties.size());
 
                     for (Map.Entry<String, Object> entry : properties.entrySet()) {
                         try {
@@ -251,16 +257,10 @@ public class ObjectTypeValidator extends Validator {
             @SuppressWarnings("unchecked")
             Map<String, Object> mapValue = (Map<String, Object>) value;
 
-            if (!mapValue.keySet().containsAll(requiredPropertyNames)) {
-                Set<String> missingRequiredProperties = new HashSet<>(requiredPropertyNames);
-                missingRequiredProperties.removeAll(mapValue.keySet());
-                // @TODO: Add exception message: Missing required property names
-                handler.error(new ValidationException(
-                        "Missing required property names: " + missingRequiredProperties, getPath(at, null)));
-            }
+            checkRequiredPropertyNames(mapValue.keySet(), at, handler);
 
-            Set<String> additionalPropertyNames = new HashSet<>(mapValue.keySet());
             Set<String> instancePropertyKeySet = Collections.unmodifiableSet(mapValue.keySet());
+            int schemaPropertyCount = 0;
 
             for (Map.Entry<String, PropertyValidatorBag> schemaProperty : propertyValidators.entrySet()) {
                 final String propertyName = schemaProperty.getKey();
@@ -270,7 +270,7 @@ public class ObjectTypeValidator extends Validator {
                 if (mapValue.containsKey(propertyName)) {
                     final Object entryValue = mapValue.get(propertyName);
                     propertyValue.validate(entryValue, instancePropertyKeySet, getPath(at, propertyName), handler);
-                    additionalPropertyNames.remove(propertyName);
+                    schemaPropertyCount++;
                 } else if (propertyValue.isRequired()) {
                     // @TODO: Add exception message: Required property value is null
                     handler.error(new ValidationException(
@@ -278,34 +278,18 @@ public class ObjectTypeValidator extends Validator {
                 }
             }
 
-            for (Iterator<String> iter = additionalPropertyNames.iterator(); iter.hasNext();) {
-                String additionalPropertyName = iter.next();
-                Object propertyValue = mapValue.get(additionalPropertyName);
-
-                if (null != additionalPropertyValidator) {
-                    additionalPropertyValidator.validate(propertyValue, getPath(at, additionalPropertyName), handler);
-                }
-
-                // @TODO: Implement Dependency check
-                Validator dependencyPropertyValidator = null != dependenciesValidators
-                        ? dependenciesValidators.get(additionalPropertyName) : null;
-                if (null != dependencyPropertyValidator) {
-                    dependencyPropertyValidator.validate(propertyValue, getPath(at, additionalPropertyName), handler);
-                }
-
-                if (null != patternPropertyValidators) {
-                    for (Map.Entry<Pattern, Validator> v : patternPropertyValidators.entrySet()) {
-                        Matcher matcher = v.getKey().matcher(additionalPropertyName);
-                        // Quoting "3.3 Regular expressions":
-                        // http://tools.ietf.org/html/draft-fge-json-schema-validation-00#section-3.3
-                        // "Finally, implementations MUST NOT consider that regular expressions
-                        // are anchored, neither at the beginning nor at the end.  This means,
-                        // for instance, that "es" matches "expression"."
-                        if (matcher.find()) {
-                            iter.remove();
-                            v.getValue().validate(propertyValue, getPath(at, additionalPropertyName), handler);
-                            break;
+            // The names of the additional properties are only collected when the object has some, so that objects
+            // holding nothing but the properties defined by the schema are validated without copying their names.
+            Set<String> additionalPropertyNames = null;
+            if (mapValue.size() > schemaPropertyCount) {
+                for (Map.Entry<String, Object> property : mapValue.entrySet()) {
+                    final String propertyName = property.getKey();
+                    if (!propertyValidators.containsKey(propertyName)
+                            && validateAdditionalProperty(propertyName, property.getValue(), at, handler)) {
+                        if (null == additionalPropertyNames) {
+                            additionalPropertyNames = new LinkedHashSet<>();
                         }
+                        additionalPropertyNames.add(propertyName);
                     }
                 }
             }
@@ -321,7 +305,9 @@ public class ObjectTypeValidator extends Validator {
                     }
                 }
                 if (oneIsvalid) {
-                    additionalPropertyNames.remove(mapValue.keySet().iterator().next());
+                    if (null != additionalPropertyNames) {
+                        additionalPropertyNames.remove(mapValue.keySet().iterator().next());
+                    }
                 } else {
                     // @TODO: Add exception message
                     handler.error(new ValidationException(
@@ -329,11 +315,7 @@ public class ObjectTypeValidator extends Validator {
                 }
             }
 
-            if (!allowAdditionalProperties && !additionalPropertyNames.isEmpty()) {
-                // @TODO: Add exception message: Additional Properties not allowed
-                handler.error(new ValidationException(
-                        "Error: Additional Properties not allowed: " + additionalPropertyNames, getPath(at, null)));
-            }
+            checkAdditionalPropertyNames(additionalPropertyNames, at, handler);
         } else if (null != value) {
             handler.error(new ValidationException(ERROR_MSG_TYPE_MISMATCH, getPath(at, null)));
         } else if (required) {
@@ -341,6 +323,128 @@ public class ObjectTypeValidator extends Validator {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The value of each property is validated as it is read, and only the values of the properties which must be
+     * matched against the <code>patternProperties</code> of the schema, or validated against a schema dependency,
+     * are built. An object is read whole when the schema has a <code>oneOf</code> constraint, which applies to the
+     * object itself.
+     */
+    @Override
+    public void validateTokens(JsonParser parser, JsonPointer at, ErrorHandler handler) throws IOException {
+        if (JsonTokens.firstToken(parser) != JsonToken.START_OBJECT || null != oneOfValidators) {
+            super.validateTokens(parser, at, handler);
+            return;
+        }
+        final Set<String> propertyNames = new HashSet<>();
+        Set<String> additionalPropertyNames = null;
+        List<String> dependentPropertyNames = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String propertyName = parser.getCurrentName();
+            parser.nextToken();
+            propertyNames.add(propertyName);
+            final PropertyValidatorBag propertyValue = propertyValidators.get(propertyName);
+            if (null != propertyValue) {
+                propertyValue.validateTokens(parser, getPath(at, propertyName), handler);
+                if (propertyValue.hasRequiredProperties()) {
+                    if (null == dependentPropertyNames) {
+                        dependentPropertyNames = new ArrayList<>();
+                    }
+                    dependentPropertyNames.add(propertyName);
+                }
+                continue;
+            }
+            final boolean additional;
+            if (null == patternPropertyValidators && null == dependenciesValidators) {
+                if (null != additionalPropertyValidator) {
+                    additionalPropertyValidator.validateTokens(parser, getPath(at, propertyName), handler);
+                } else {
+                    parser.skipChildren();
+                }
+                additional = true;
+            } else {
+                additional = validateAdditionalProperty(propertyName, JsonTokens.readValue(parser), at, handler);
+            }
+            if (additional) {
+                if (null == additionalPropertyNames) {
+                    additionalPropertyNames = new LinkedHashSet<>();
+                }
+                additionalPropertyNames.add(propertyName);
+            }
+        }
+
+        checkRequiredPropertyNames(propertyNames, at, handler);
+        for (Map.Entry<String, PropertyValidatorBag> schemaProperty : propertyValidators.entrySet()) {
+            if (!propertyNames.contains(schemaProperty.getKey()) && schemaProperty.getValue().isRequired()) {
+                handler.error(new ValidationException(
+                        "Required property value is null", getPath(at, schemaProperty.getKey())));
+            }
+        }
+        if (null != dependentPropertyNames) {
+            for (String propertyName : dependentPropertyNames) {
+                propertyValidators.get(propertyName)
+                        .checkRequiredProperties(propertyNames, getPath(at, propertyName), handler);
+            }
+        }
+        checkAdditionalPropertyNames(additionalPropertyNames, at, handler);
+    }
+
+    private void checkRequiredPropertyNames(Set<String> propertyNames, JsonPointer at, ErrorHandler handler) {
+        if (!requiredPropertyNames.isEmpty() && !propertyNames.containsAll(requiredPropertyNames)) {
+            Set<String> missingRequiredProperties = new HashSet<>(requiredPropertyNames);
+            missingRequiredProperties.removeAll(propertyNames);
+            // @TODO: Add exception message: Missing required property names
+            handler.error(new ValidationException(
+                    "Missing required property names: " + missingRequiredProperties, getPath(at, null)));
+        }
+    }
+
+    /**
+     * Validates the value of a property not defined in the <code>properties</code> of the schema.
+     *
+     * @return false if the property name matches one of the <code>patternProperties</code>, true if the property
+     *         is an additional property
+     */
+    private boolean validateAdditionalProperty(String additionalPropertyName, Object propertyValue, JsonPointer at,
+            ErrorHandler handler) {
+        if (null != additionalPropertyValidator) {
+            additionalPropertyValidator.validate(propertyValue, getPath(at, additionalPropertyName), handler);
+        }
+
+        // @TODO: Implement Dependency check
+        Validator dependencyPropertyValidator = null != dependenciesValidators
+                ? dependenciesValidators.get(additionalPropertyName) : null;
+        if (null != dependencyPropertyValidator) {
+            dependencyPropertyValidator.validate(propertyValue, getPath(at, additionalPropertyName), handler);
+        }
+
+        if (null != patternPropertyValidators) {
+            for (Map.Entry<Pattern, Validator> v : patternPropertyValidators.entrySet()) {
+                Matcher matcher = v.getKey().matcher(additionalPropertyName);
+                // Quoting "3.3 Regular expressions":
+                // http://tools.ietf.org/html/draft-fge-json-schema-validation-00#section-3.3
+                // "Finally, implementations MUST NOT consider that regular expressions
+                // are anchored, neither at the beginning nor at the end.  This means,
+                // for instance, that "es" matches "expression"."
+                if (matcher.find()) {
+                    v.getValue().validate(propertyValue, getPath(at, additionalPropertyName), handler);
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void checkAdditionalPropertyNames(Set<String> additionalPropertyNames, JsonPointer at,
+            ErrorHandler handler) {
+        if (!allowAdditionalProperties && null != additionalPropertyNames && !additionalPropertyNames.isEmpty()) {
+            // @TODO: Add exception message: Additional Properties not allowed
+            handler.error(new ValidationException(
+                    "Error: Additional Properties not allowed: " + additionalPropertyNames, getPath(at, null)));
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void collectAllValidators(Collection<Validator> results) {
@@ -402,10 +506,26 @@ public class ObjectTypeValidator extends Validator {
         }
 
         public void validate(Object value, Set<String> propertyKeySet, JsonPointer at, ErrorHandler handler) {
+            checkRequiredProperties(propertyKeySet, at, handler);
+            validate(value, at, handler);
+        }
+
+        private void validateTokens(JsonParser parser, JsonPointer at, ErrorHandler handler) throws IOException {
+            if (null != dependencyValidator) {
+                validate(JsonTokens.readValue(parser), at, handler);
+            } else {
+                propertyValidator.validateTokens(parser, at, handler);
+            }
+        }
+
+        private boolean hasRequiredProperties() {
+            return null != requiredProperties;
+        }
+
+        private void checkRequiredProperties(Set<String> propertyKeySet, JsonPointer at, ErrorHandler handler) {
             if (null != requiredProperties && !propertyKeySet.containsAll(requiredProperties)) {
                 handler.error(new ValidationException("Dependency ERROR: Missing properties", at));
             }
-            validate(value, at, handler);
         }
     }
 
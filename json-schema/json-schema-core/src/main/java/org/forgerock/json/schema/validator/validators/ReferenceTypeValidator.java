@@ -12,10 +12,12 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.schema.validator.validators;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +26,8 @@ import org.forgerock.json.JsonValue;
 import org.forgerock.json.schema.validator.ErrorHandler;
 import org.forgerock.json.schema.validator.exceptions.SchemaException;
 
+import com.fasterxml.jackson.core.JsonParser;
+
 /**
  * ReferenceTypeValidator holds a reference to another validator. The reference
  * must be resolved by calling {@link Validator#resolveSchemaReferences()} after
@@ -59,6 +63,16 @@ public class ReferenceTypeValidator extends Validator {
         referenceValidator.validate(node, getPath(at, null), handler);
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void validateTokens(JsonParser parser, JsonPointer at, ErrorHandler handler) throws IOException {
+        if (referenceValidator == null) {
+            throw new SchemaException(new JsonValue(null, getJsonPointer()),
+                    "Could not dereference JSON reference " + reference);
+        }
+        referenceValidator.validateTokens(parser, getPath(at, null), handler);
+    }
+
     /**
      * Returns the reference to the pointed schema.
      *
@@ -12,12 +12,14 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2011-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.schema.validator.validators;
 
 import static org.forgerock.json.schema.validator.Constants.*;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -27,8 +29,11 @@ import java.util.Map;
 import org.forgerock.json.JsonPointer;
 import org.forgerock.json.JsonValue;
 import org.forgerock.json.schema.validator.Constants;
+import org.forgerock.json.schema.validator.ErrorHandler;
 import org.forgerock.json.schema.validator.exceptions.SchemaException;
 
+import com.fasterxml.jackson.core.JsonParser;
+
 /**
  * Validator is the abstract base class of all typed validator.
  * <p>
@@ -58,6 +63,27 @@ public abstract class Validator implements SimpleValidator<Object> {
         }
     }
 
+    /**
+     * Validates the JSON value read from the tokens of the <code>parser</code>, without first building the
+     * {@link Map}s and {@link List}s which {@link #validate(Object, JsonPointer, ErrorHandler)} validates.
+     * <p/>
+     * The parser must either be positioned on the first token of the value, or not be positioned on any token yet,
+     * in which case the value starts at its next token. The parser is left on the last token of the value.
+     * <p/>
+     * This implementation reads the whole value and validates it with
+     * {@link #validate(Object, JsonPointer, ErrorHandler)}: the validators of objects and arrays override it to
+     * validate their members as they are read, so that only the values needed as a whole by a constraint are built.
+     *
+     * @param parser    parser positioned on the value to validate
+     * @param at        JSONPath of the node. null means it's the root node
+     * @param handler   customised error handler like {@link org.forgerock.json.schema.validator.FailFastErrorHandler}
+     * @throws IOException when the value cannot be read from the <code>parser</code>
+     * @throws SchemaException when the value violates with the schema
+     */
+    public void validateTokens(JsonParser parser, JsonPointer at, ErrorHandler handler) throws IOException {
+        validate(JsonTokens.readValue(parser), at, handler);
+    }
+
     /**
      * Gets the valid JSONPath of the node or the given property.
      * <p/>
@@ -0,0 +1,140 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyrighted [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.schema.validator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.json.schema.validator.validators.Validator;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+/**
+ * Compares validating a user document against a schema with {@link ObjectValidator}, which compiles the schema for
+ * each document, with a validator from a {@link ValidatorCache}, and with the same validator reading the document
+ * from its tokens rather than from the {@link Map} built by a JSON parser.
+ * <p>
+ * The benchmarks are run with the GC profiler: its {@code gc.alloc.rate.norm} result is the number of bytes
+ * allocated by each operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    private static final String SCHEMA = "{"
+            + "\"type\": \"object\","
+            + "\"required\": [\"userName\", \"mail\"],"
+            + "\"additionalProperties\": false,"
+            + "\"properties\": {"
+            + "  \"userName\": { \"type\": \"string\", \"minLength\": 1, \"maxLength\": 64 },"
+            + "  \"mail\": { \"type\": \"string\", \"pattern\": \"^[^@]+@[^@]+$\" },"
+            + "  \"age\": { \"type\": \"integer\", \"minimum\": 0 },"
+            + "  \"active\": { \"type\": \"boolean\" },"
+            + "  \"address\": { \"$ref\": \"#/definitions/address\" },"
+            + "  \"roles\": { \"type\": \"array\", \"items\": { \"type\": \"string\" } }"
+            + "},"
+            + "\"patternProperties\": { \"^x-\": { \"type\": \"string\" } },"
+            + "\"definitions\": {"
+            + "  \"address\": {"
+            + "    \"type\": \"object\","
+            + "    \"properties\": {"
+            + "      \"street\": { \"type\": \"string\" },"
+            + "      \"city\": { \"type\": \"string\" },"
+            + "      \"postalCode\": { \"type\": \"string\", \"pattern\": \"^[0-9]{5}$\" }"
+            + "    }"
+            + "  }"
+            + "}"
+            + "}";
+
+    private static final String DOCUMENT = "{"
+            + "\"userName\": \"bjensen\","
+            + "\"mail\": \"bjensen@example.com\","
+            + "\"age\": 42,"
+            + "\"active\": true,"
+            + "\"address\": { \"street\": \"1 Main Street\", \"city\": \"Springfield\", \"postalCode\": \"12345\" },"
+            + "\"roles\": [\"admin\", \"user\", \"auditor\"],"
+            + "\"x-department\": \"Engineering\""
+            + "}";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ValidatorCache cache = new ValidatorCache(16);
+    private Map<String, Object> schema;
+    private byte[] document;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws ParseException {
+        schema = (Map<String, Object>) new JSONParser().parse(SCHEMA);
+        document = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public boolean compileAndValidate() throws ParseException {
+        return ObjectValidator.validate(new JSONParser().parse(DOCUMENT), schema);
+    }
+
+    @Benchmark
+    public boolean cachedValidate() throws ParseException {
+        Validator validator = cache.getValidator(schema);
+        ErrorHandler handler = new CollectErrorsHandler();
+        validator.validate(new JSONParser().parse(DOCUMENT), null, handler);
+        return handler.hasError();
+    }
+
+    @Benchmark
+    public boolean cachedValidateTokens() throws IOException {
+        Validator validator = cache.getValidator(schema);
+        ErrorHandler handler = new CollectErrorsHandler();
+        try (JsonParser parser = jsonFactory.createParser(document)) {
+            validator.validateTokens(parser, null, handler);
+        }
+        return handler.hasError();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(ValidatorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
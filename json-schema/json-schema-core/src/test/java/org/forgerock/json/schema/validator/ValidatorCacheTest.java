@@ -0,0 +1,79 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyrighted [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.schema.validator;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.forgerock.json.schema.validator.validators.StringTypeValidator;
+import org.forgerock.json.schema.validator.validators.Validator;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class ValidatorCacheTest {
+
+    @Test
+    public void returnsTheValidatorCompiledForTheSameSchema() {
+        ValidatorCache cache = new ValidatorCache(10);
+        Map<String, Object> schema = schema(Constants.TYPE_STRING);
+
+        Validator validator = cache.getValidator(schema);
+
+        assertThat(validator).isInstanceOf(StringTypeValidator.class);
+        assertThat(cache.getValidator(schema)).isSameAs(validator);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void looksUpSchemasByIdentity() {
+        ValidatorCache cache = new ValidatorCache(10);
+
+        Validator validator = cache.getValidator(schema(Constants.TYPE_STRING));
+
+        assertThat(cache.getValidator(schema(Constants.TYPE_STRING))).isNotSameAs(validator);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsedSchema() {
+        ValidatorCache cache = new ValidatorCache(2);
+        Map<String, Object> first = schema(Constants.TYPE_STRING);
+        Map<String, Object> second = schema(Constants.TYPE_NUMBER);
+        Validator firstValidator = cache.getValidator(first);
+        Validator secondValidator = cache.getValidator(second);
+
+        cache.getValidator(first);
+        cache.getValidator(schema(Constants.TYPE_BOOLEAN));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getValidator(first)).isSameAs(firstValidator);
+        assertThat(cache.getValidator(second)).isNotSameAs(secondValidator);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsEmptyCache() {
+        new ValidatorCache(0);
+    }
+
+    private static Map<String, Object> schema(String type) {
+        Map<String, Object> schema = new HashMap<>();
+        schema.put(Constants.TYPE, type);
+        return schema;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions Copyrighted [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.schema.validator.validators;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.json.schema.validator.CollectErrorsHandler;
+import org.forgerock.json.schema.validator.ObjectValidatorFactory;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+@SuppressWarnings("javadoc")
+public class StreamingValidationTest {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @DataProvider
+    public Object[][] instances() throws Exception {
+        List<Object[]> tests = new ArrayList<>();
+        for (String testFile : new String[] { "/objectTests.json", "/arrayTests.json", "/stringTests.json",
+            "/integerTests.json", "/numberTests.json" }) {
+            try (InputStream is = getClass().getResourceAsStream(testFile);
+                 JsonParser parser = JSON_FACTORY.createParser(is)) {
+                for (Object s : (List<?>) JsonTokens.readValue(parser)) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> schema = (Map<String, Object>) ((Map<?, ?>) s).get("schema");
+                    Validator validator = ObjectValidatorFactory.getTypeValidator(schema);
+                    for (Object i : (List<?>) ((Map<?, ?>) s).get("valid")) {
+                        tests.add(new Object[] { validator, i, true });
+                    }
+                    for (Object i : (List<?>) ((Map<?, ?>) s).get("invalid")) {
+                        tests.add(new Object[] { validator, i, false });
+                    }
+                }
+            }
+        }
+        return tests.toArray(new Object[tests.size()][]);
+    }
+
+    @Test(dataProvider = "instances")
+    public void validatesTokensAsTheirValue(Validator validator, Object instance, boolean valid) throws Exception {
+        CollectErrorsHandler valueErrors = new CollectErrorsHandler();
+        validator.validate(instance, null, valueErrors);
+
+        CollectErrorsHandler tokenErrors = new CollectErrorsHandler();
+        String json = toJson(instance);
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            validator.validateTokens(parser, null, tokenErrors);
+            assertThat(parser.nextToken()).as("tokens left after " + json).isNull();
+        }
+
+        assertThat(valueErrors.hasError()).as(json).isEqualTo(!valid);
+        assertThat(tokenErrors.hasError()).as(json + " " + tokenErrors.getExceptions()).isEqualTo(!valid);
+    }
+
+    @Test
+    public void validatesPropertiesAsTheyAreRead() throws Exception {
+        Validator validator = ObjectValidatorFactory.getTypeValidator(schema("{"
+                + "\"type\": \"object\","
+                + "\"properties\": {"
+                + "  \"name\": { \"type\": \"string\", \"required\": true },"
+                + "  \"tags\": { \"type\": \"array\", \"items\": { \"$ref\": \"#/definitions/tag\" } }"
+                + "},"
+                + "\"additionalProperties\": false,"
+                + "\"definitions\": { \"tag\": { \"type\": \"string\", \"maxLength\": 3 } }"
+                + "}"));
+
+        CollectErrorsHandler handler = new CollectErrorsHandler();
+        try (JsonParser parser = JSON_FACTORY.createParser("{\"tags\": [\"a\", \"long\"], \"extra\": {\"x\": 1}}")) {
+            validator.validateTokens(parser, null, handler);
+        }
+
+        assertThat(handler.getExceptions()).hasSize(3);
+        assertThat(handler.getExceptions().get(0).getMessage()).isEqualTo("/tags/1: maxLength error");
+        assertThat(handler.getExceptions().get(1).getMessage()).isEqualTo("/name: Required property value is null");
+        assertThat(handler.getExceptions().get(2).getMessage())
+                .isEqualTo("/: Error: Additional Properties not allowed: [extra]");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> schema(String json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            return (Map<String, Object>) JsonTokens.readValue(parser);
+        }
+    }
+
+    private static String toJson(Object value) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            write(generator, value);
+        }
+        return writer.toString();
+    }
+
+    private static void write(JsonGenerator generator, Object value) throws IOException {
+        if (value instanceof Map) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                generator.writeFieldName((String) entry.getKey());
+                write(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof List) {
+            generator.writeStartArray();
+            for (Object item : (List<?>) value) {
+                write(generator, item);
+            }
+            generator.writeEndArray();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Double) {
+            generator.writeNumber((Double) value);
+        } else if (value instanceof Number) {
+            generator.writeNumber(value.toString());
+        } else {
+            generator.writeNull();
+        }
+    }
+}
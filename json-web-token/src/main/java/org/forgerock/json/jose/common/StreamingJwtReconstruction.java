@@ -0,0 +1,431 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.Key;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterOutputStream;
+
+import org.forgerock.json.jose.exceptions.InvalidJwtException;
+import org.forgerock.json.jose.exceptions.JwsVerifyingException;
+import org.forgerock.json.jose.jwe.CompressionAlgorithm;
+import org.forgerock.json.jose.jwe.EncryptionManager;
+import org.forgerock.json.jose.jwe.JweHeader;
+import org.forgerock.json.jose.jwe.handlers.encryption.ContentDecryptor;
+import org.forgerock.json.jose.jwe.handlers.encryption.EncryptionHandler;
+import org.forgerock.json.jose.jws.JwsHeader;
+import org.forgerock.json.jose.jws.handlers.SignatureVerifier;
+import org.forgerock.json.jose.jws.handlers.SigningHandler;
+import org.forgerock.json.jose.utils.Base64urlDecodedCharSequence;
+import org.forgerock.json.jose.utils.Base64urlDecodingOutputStream;
+import org.forgerock.json.jose.utils.Utils;
+
+/**
+ * Verifies and decrypts JWTs given as a character sequence or an input stream, writing their payload to an output
+ * stream, so that large JWTs can be processed without being split into strings, nor their payload decoded into
+ * arrays, as {@link JwtReconstruction} does.
+ * <p>
+ * The segments of the compact serialisation are located without being copied. The payload of a JWS and the
+ * ciphertext of a JWE are base64url-decoded in chunks, which are given to the {@link SignatureVerifier} or to the
+ * {@link ContentDecryptor} as they are decoded, and the payload or the plaintext is written to the output stream,
+ * decompressed if needed.
+ * <p>
+ * The payload of a JWS given as a character sequence is only written once its signature has been verified. In all
+ * other cases, the JWT is read once and its payload is written before the signature or authentication tag, which
+ * follow it, are verified: if an exception is thrown, whatever has been written to the output stream must be
+ * discarded.
+ * <p>
+ * The signatures are verified with the {@link SigningHandler} given, and the Content Encryption Key is decrypted
+ * with the {@link EncryptionHandler} of the JWE algorithm. The output stream is not closed.
+ */
+public class StreamingJwtReconstruction {
+
+    private static final int JWS_NUM_PARTS = 3;
+    private static final int JWE_NUM_PARTS = 5;
+
+    /** The maximum length of a segment of a JWT read from an input stream, other than its payload or ciphertext. */
+    private static final int MAX_SEGMENT_LENGTH = 64 * 1024;
+    private static final int CHUNK_SIZE = 4 * 1024;
+
+    private final EncryptionManager encryptionManager = new EncryptionManager();
+
+    /**
+     * Verifies the signature of a JWS, then writes its payload to the output stream.
+     *
+     * @param jwt The compact serialisation of the JWS.
+     * @param signingHandler The signing handler verifying the signature.
+     * @param payload The stream to write the payload to.
+     * @return The header of the JWS.
+     * @throws IOException If the payload cannot be written.
+     * @throws InvalidJwtException If the JWS is malformed.
+     * @throws JwsVerifyingException If the signature is not valid.
+     */
+    public JwsHeader verifySignedJwt(final CharSequence jwt, final SigningHandler signingHandler,
+            final OutputStream payload) throws IOException {
+        final int[] dots = findDots(jwt, JWS_NUM_PARTS);
+        final JwsHeader header = new JwsHeader(parseHeader(ascii(jwt, 0, dots[0])));
+        verifySignature(jwt, dots, header, signingHandler);
+        final OutputStream decompressed = decompressing(header.getCompressionAlgorithm(), payload);
+        final Base64urlDecodingOutputStream decoder = new Base64urlDecodingOutputStream(decompressed);
+        writeAscii(jwt, dots[0] + 1, dots[1], decoder);
+        decoder.finish();
+        finishDecompressing(decompressed);
+        return header;
+    }
+
+    /**
+     * Reads a JWS from the input stream, writing its payload to the output stream, then verifies its signature.
+     *
+     * @param jwt The stream of the compact serialisation of the JWS, which is read until its end.
+     * @param signingHandler The signing handler verifying the signature.
+     * @param payload The stream to write the payload to, whose content must be discarded if an exception is thrown.
+     * @return The header of the JWS.
+     * @throws IOException If the JWS cannot be read or the payload cannot be written.
+     * @throws InvalidJwtException If the JWS is malformed.
+     * @throws JwsVerifyingException If the signature is not valid.
+     */
+    public JwsHeader verifySignedJwt(final InputStream jwt, final SigningHandler signingHandler,
+            final OutputStream payload) throws IOException {
+        final SegmentReader reader = new SegmentReader(jwt);
+        final byte[] encodedHeader = reader.readSegment(false);
+        final JwsHeader header = new JwsHeader(parseHeader(encodedHeader));
+        final SignatureVerifier verifier = SignatureVerifier.newInstance(signingHandler, header.getAlgorithm());
+        verifier.write(encodedHeader);
+        verifier.write('.');
+        final OutputStream decompressed = decompressing(header.getCompressionAlgorithm(), payload);
+        final Base64urlDecodingOutputStream decoder = new Base64urlDecodingOutputStream(decompressed);
+        reader.copySegment(new TeeOutputStream(verifier, decoder));
+        decoder.finish();
+        finishDecompressing(decompressed);
+        if (!verifier.verify(decode(reader.readSegment(true)))) {
+            throw new JwsVerifyingException("Invalid JWS signature");
+        }
+        return header;
+    }
+
+    /**
+     * Decrypts a JWE, writing its plaintext to the output stream.
+     *
+     * @param jwt The compact serialisation of the JWE.
+     * @param key The private key pair to the public key that encrypted the JWE.
+     * @param plaintext The stream to write the plaintext to, whose content must be discarded if an exception is
+     *                  thrown.
+     * @return The header of the JWE.
+     * @throws IOException If the plaintext cannot be written.
+     * @throws InvalidJwtException If the JWE is malformed.
+     * @throws org.forgerock.json.jose.exceptions.JweDecryptionException If the JWE cannot be decrypted.
+     */
+    public JweHeader decryptEncryptedJwt(final CharSequence jwt, final Key key, final OutputStream plaintext)
+            throws IOException {
+        final int[] dots = findDots(jwt, JWE_NUM_PARTS);
+        final byte[] encodedHeader = ascii(jwt, 0, dots[0]);
+        final JweHeader header = new JweHeader(parseHeader(encodedHeader));
+        final OutputStream decompressed = decompressing(header.getCompressionAlgorithm(), plaintext);
+        final ContentDecryptor decryptor = newDecryptor(header, key, encodedHeader,
+                decode(jwt, dots[0] + 1, dots[1]), decode(jwt, dots[1] + 1, dots[2]), decompressed);
+        final Base64urlDecodingOutputStream decoder = new Base64urlDecodingOutputStream(decryptor);
+        writeAscii(jwt, dots[2] + 1, dots[3], decoder);
+        decoder.finish();
+        decryptor.finish(decode(jwt, dots[3] + 1, jwt.length()));
+        finishDecompressing(decompressed);
+        return header;
+    }
+
+    /**
+     * Reads a JWE from the input stream, writing its plaintext to the output stream.
+     *
+     * @param jwt The stream of the compact serialisation of the JWE, which is read until its end.
+     * @param key The private key pair to the public key that encrypted the JWE.
+     * @param plaintext The stream to write the plaintext to, whose content must be discarded if an exception is
+     *                  thrown.
+     * @return The header of the JWE.
+     * @throws IOException If the JWE cannot be read or the plaintext cannot be written.
+     * @throws InvalidJwtException If the JWE is malformed.
+     * @throws org.forgerock.json.jose.exceptions.JweDecryptionException If the JWE cannot be decrypted.
+     */
+    public JweHeader decryptEncryptedJwt(final InputStream jwt, final Key key, final OutputStream plaintext)
+            throws IOException {
+        final SegmentReader reader = new SegmentReader(jwt);
+        final byte[] encodedHeader = reader.readSegment(false);
+        final JweHeader header = new JweHeader(parseHeader(encodedHeader));
+        final byte[] encryptedKey = decode(reader.readSegment(false));
+        final byte[] initialisationVector = decode(reader.readSegment(false));
+        final OutputStream decompressed = decompressing(header.getCompressionAlgorithm(), plaintext);
+        final ContentDecryptor decryptor = newDecryptor(header, key, encodedHeader, encryptedKey,
+                initialisationVector, decompressed);
+        final Base64urlDecodingOutputStream decoder = new Base64urlDecodingOutputStream(decryptor);
+        reader.copySegment(decoder);
+        decoder.finish();
+        decryptor.finish(decode(reader.readSegment(true)));
+        finishDecompressing(decompressed);
+        return header;
+    }
+
+    /**
+     * Verifies the signature of a JWS whose payload is a JWE, as built by
+     * {@link org.forgerock.json.jose.builders.EncryptedThenSignedJwtBuilder}, then decrypts the JWE, writing its
+     * plaintext to the output stream. The JWE is decoded from the payload of the JWS as it is decrypted, unless the
+     * payload is compressed, in which case it is decompressed first.
+     *
+     * @param jwt The compact serialisation of the JWS.
+     * @param signingHandler The signing handler verifying the signature.
+     * @param key The private key pair to the public key that encrypted the JWE.
+     * @param plaintext The stream to write the plaintext to, whose content must be discarded if an exception is
+     *                  thrown.
+     * @return The header of the JWE.
+     * @throws IOException If the plaintext cannot be written.
+     * @throws InvalidJwtException If the JWS or the JWE is malformed.
+     * @throws JwsVerifyingException If the signature is not valid.
+     * @throws org.forgerock.json.jose.exceptions.JweDecryptionException If the JWE cannot be decrypted.
+     */
+    public JweHeader verifyAndDecryptSignedEncryptedJwt(final CharSequence jwt, final SigningHandler signingHandler,
+            final Key key, final OutputStream plaintext) throws IOException {
+        final int[] dots = findDots(jwt, JWS_NUM_PARTS);
+        final JwsHeader header = new JwsHeader(parseHeader(ascii(jwt, 0, dots[0])));
+        verifySignature(jwt, dots, header, signingHandler);
+        final CharSequence encryptedJwt;
+        if (header.getCompressionAlgorithm() == CompressionAlgorithm.DEF) {
+            final ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+            final OutputStream decompressed = decompressing(CompressionAlgorithm.DEF, inflated);
+            final Base64urlDecodingOutputStream decoder = new Base64urlDecodingOutputStream(decompressed);
+            writeAscii(jwt, dots[0] + 1, dots[1], decoder);
+            decoder.finish();
+            finishDecompressing(decompressed);
+            encryptedJwt = new String(inflated.toByteArray(), Utils.CHARSET);
+        } else {
+            encryptedJwt = new Base64urlDecodedCharSequence(jwt, dots[0] + 1, dots[1]);
+        }
+        return decryptEncryptedJwt(encryptedJwt, key, plaintext);
+    }
+
+    private void verifySignature(final CharSequence jwt, final int[] dots, final JwsHeader header,
+            final SigningHandler signingHandler) throws IOException {
+        final SignatureVerifier verifier = SignatureVerifier.newInstance(signingHandler, header.getAlgorithm());
+        writeAscii(jwt, 0, dots[1], verifier);
+        if (!verifier.verify(decode(jwt, dots[1] + 1, jwt.length()))) {
+            throw new JwsVerifyingException("Invalid JWS signature");
+        }
+    }
+
+    private ContentDecryptor newDecryptor(final JweHeader header, final Key key, final byte[] encodedHeader,
+            final byte[] encryptedKey, final byte[] initialisationVector, final OutputStream plaintext) {
+        final EncryptionHandler encryptionHandler = encryptionManager.getEncryptionHandler(header);
+        final Key contentEncryptionKey = encryptionHandler.decryptContentEncryptionKey(key, encryptedKey);
+        return ContentDecryptor.newInstance(header.getEncryptionMethod(), contentEncryptionKey, initialisationVector,
+                encodedHeader, plaintext);
+    }
+
+    /**
+     * Returns the indexes of the dots separating the parts of a JWT.
+     */
+    private static int[] findDots(final CharSequence jwt, final int parts) {
+        final int[] dots = new int[parts - 1];
+        int count = 0;
+        for (int i = 0; i < jwt.length(); i++) {
+            if (jwt.charAt(i) == '.') {
+                if (count == dots.length) {
+                    throw new InvalidJwtException("not right number of dots, more than " + parts);
+                }
+                dots[count++] = i;
+            }
+        }
+        if (count != dots.length) {
+            throw new InvalidJwtException("not right number of dots, " + (count + 1));
+        }
+        return dots;
+    }
+
+    private static Map<String, Object> parseHeader(final byte[] encodedHeader) throws IOException {
+        return Utils.parseJson(new String(decode(encodedHeader), Utils.CHARSET));
+    }
+
+    private static byte[] ascii(final CharSequence jwt, final int start, final int end) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(end - start);
+        writeAscii(jwt, start, end, bytes);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes the characters of the JWT between the given indexes as ASCII bytes, in chunks.
+     */
+    private static void writeAscii(final CharSequence jwt, final int start, final int end, final OutputStream out)
+            throws IOException {
+        final byte[] chunk = new byte[Math.min(CHUNK_SIZE, end - start)];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            final char c = jwt.charAt(i);
+            if (c > 0x7F) {
+                throw new InvalidJwtException("Invalid JWT character, " + c);
+            }
+            chunk[length++] = (byte) c;
+            if (length == chunk.length) {
+                out.write(chunk, 0, length);
+                length = 0;
+            }
+        }
+        if (length > 0) {
+            out.write(chunk, 0, length);
+        }
+    }
+
+    private static byte[] decode(final CharSequence jwt, final int start, final int end) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Base64urlDecodingOutputStream decoder = new Base64urlDecodingOutputStream(bytes);
+        writeAscii(jwt, start, end, decoder);
+        decoder.finish();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] decode(final byte[] encoded) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Base64urlDecodingOutputStream decoder = new Base64urlDecodingOutputStream(bytes);
+        decoder.write(encoded);
+        decoder.finish();
+        return bytes.toByteArray();
+    }
+
+    private static OutputStream decompressing(final CompressionAlgorithm compressionAlgorithm,
+            final OutputStream out) {
+        if (compressionAlgorithm == CompressionAlgorithm.DEF) {
+            return new InflatingOutputStream(out);
+        }
+        return out;
+    }
+
+    private static void finishDecompressing(final OutputStream decompressed) throws IOException {
+        if (decompressed instanceof InflatingOutputStream) {
+            ((InflatingOutputStream) decompressed).finish();
+        }
+    }
+
+    /**
+     * Inflates raw DEFLATE data, as compressed by the {@link CompressionAlgorithm#DEF} algorithm, and releases its
+     * inflater once finished.
+     */
+    private static final class InflatingOutputStream extends InflaterOutputStream {
+
+        private InflatingOutputStream(final OutputStream out) {
+            super(out, new Inflater(true));
+        }
+
+        @Override
+        public void finish() throws IOException {
+            try {
+                super.finish();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+
+    /**
+     * Reads the segments of a JWT from an input stream.
+     */
+    private static final class SegmentReader {
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+        private int position;
+        private int limit;
+
+        private SegmentReader(final InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads the next segment, which must be the last one or not, and must not be longer than
+         * {@link #MAX_SEGMENT_LENGTH}.
+         */
+        private byte[] readSegment(final boolean last) throws IOException {
+            final ByteArrayOutputStream segment = new ByteArrayOutputStream();
+            if (copy(segment, MAX_SEGMENT_LENGTH) == last) {
+                throw new InvalidJwtException("not right number of dots");
+            }
+            return segment.toByteArray();
+        }
+
+        /**
+         * Copies the next segment, which must not be the last one, to the output stream in chunks.
+         */
+        private void copySegment(final OutputStream out) throws IOException {
+            if (!copy(out, Long.MAX_VALUE)) {
+                throw new InvalidJwtException("not right number of dots");
+            }
+        }
+
+        /**
+         * Copies the bytes up to the next dot or the end of the stream, and returns whether a dot was found.
+         */
+        private boolean copy(final OutputStream out, final long maxLength) throws IOException {
+            long length = 0;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer);
+                    position = 0;
+                    if (limit < 0) {
+                        limit = 0;
+                        return false;
+                    }
+                }
+                final int start = position;
+                while (position < limit && buffer[position] != '.') {
+                    position++;
+                }
+                length += position - start;
+                if (length > maxLength) {
+                    throw new InvalidJwtException("JWT segment longer than " + maxLength);
+                }
+                out.write(buffer, start, position - start);
+                if (position < limit) {
+                    position++;
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes to two output streams.
+     */
+    private static final class TeeOutputStream extends OutputStream {
+
+        private final OutputStream first;
+        private final OutputStream second;
+
+        private TeeOutputStream(final OutputStream first, final OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+    }
+}
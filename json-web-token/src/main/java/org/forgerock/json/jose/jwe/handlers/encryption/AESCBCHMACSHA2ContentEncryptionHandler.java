@@ -12,10 +12,13 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.jwe.handlers.encryption;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.security.GeneralSecurityException;
@@ -37,6 +40,7 @@ import org.forgerock.json.jose.exceptions.JweEncryptionException;
 import org.forgerock.json.jose.jwe.EncryptionMethod;
 import org.forgerock.json.jose.jwe.JweEncryption;
 import org.forgerock.json.jose.utils.Utils;
+import org.forgerock.util.crypto.CryptoPrimitives;
 
 /**
  * Encrypts using AES in CBC mode with PKCS#5 padding and uses a separate HMAC-SHA2 tag to authenticate.
@@ -57,15 +61,14 @@ final class AESCBCHMACSHA2ContentEncryptionHandler extends ContentEncryptionHand
         final Key encryptionKey = encKey(key, method);
 
         try {
-            final Cipher cipher = Cipher.getInstance(method.getTransformation());
+            final Cipher cipher = CryptoPrimitives.cipher(method.getTransformation());
             cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new IvParameterSpec(iv));
             final byte[] cipherText = cipher.doFinal(plainText);
 
             long alLength = additionalData.length * 8L;
             byte[] al = ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN).putLong(alLength).array();
 
-            final Mac mac = Mac.getInstance(method.getMacAlgorithm());
-            mac.init(macKey);
+            final Mac mac = CryptoPrimitives.mac(method.getMacAlgorithm(), macKey);
             mac.update(additionalData);
             mac.update(iv);
             mac.update(cipherText);
@@ -88,8 +91,7 @@ final class AESCBCHMACSHA2ContentEncryptionHandler extends ContentEncryptionHand
         byte[] al = ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN).putLong(alLength).array();
 
         try {
-            final Mac mac = Mac.getInstance(method.getMacAlgorithm());
-            mac.init(macKey);
+            final Mac mac = CryptoPrimitives.mac(method.getMacAlgorithm(), macKey);
             mac.update(additionalData);
             mac.update(iv);
             mac.update(cipherText.getCiphertext());
@@ -99,7 +101,7 @@ final class AESCBCHMACSHA2ContentEncryptionHandler extends ContentEncryptionHand
 
             final boolean macValid = Utils.constantEquals(tag, cipherText.getAuthenticationTag());
 
-            final Cipher cipher = Cipher.getInstance(method.getTransformation());
+            final Cipher cipher = CryptoPrimitives.cipher(method.getTransformation());
             cipher.init(Cipher.DECRYPT_MODE, encKey, new IvParameterSpec(iv));
             final byte[] plainText = cipher.doFinal(cipherText.getCiphertext());
 
@@ -117,6 +119,75 @@ final class AESCBCHMACSHA2ContentEncryptionHandler extends ContentEncryptionHand
         }
     }
 
+    @Override
+    ContentDecryptor newDecryptor(final Key key, final byte[] iv, final byte[] additionalData,
+            final OutputStream plaintext) {
+        final long alLength = additionalData.length * 8L;
+        final byte[] al = ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN).putLong(alLength).array();
+        final Mac mac;
+        final Cipher cipher;
+        try {
+            // The decryptor outlives this call and writes to a caller's stream, which may use the thread's pooled
+            // instances: it has instances of its own.
+            mac = Mac.getInstance(method.getMacAlgorithm());
+            mac.init(macKey(key, method));
+            mac.update(additionalData);
+            mac.update(iv);
+            cipher = Cipher.getInstance(method.getTransformation());
+            cipher.init(Cipher.DECRYPT_MODE, encKey(key, method), new IvParameterSpec(iv));
+        } catch (GeneralSecurityException ex) {
+            throw decryptionFailure(ex);
+        }
+        return new ContentDecryptor(plaintext) {
+            // reused for each chunk, so that decrypting does not allocate as much as the ciphertext
+            private byte[] plainText = new byte[0];
+
+            @Override
+            public void write(final byte[] cipherText, final int off, final int len) throws IOException {
+                mac.update(cipherText, off, len);
+                ensureCapacity(cipher.getOutputSize(len));
+                final int length;
+                try {
+                    length = cipher.update(cipherText, off, len, plainText);
+                } catch (GeneralSecurityException ex) {
+                    throw decryptionFailure(ex);
+                }
+                plaintext.write(plainText, 0, length);
+            }
+
+            @Override
+            public void finish(final byte[] authenticationTag) throws IOException {
+                mac.update(al);
+                final byte[] tag = Arrays.copyOf(mac.doFinal(), method.getKeyOffset());
+                final boolean macValid = Utils.constantEquals(tag, authenticationTag);
+                ensureCapacity(cipher.getOutputSize(0));
+                final int length;
+                try {
+                    length = cipher.doFinal(plainText, 0);
+                    if (!macValid) {
+                        throw new GeneralSecurityException("MAC verification failed");
+                    }
+                } catch (GeneralSecurityException ex) {
+                    throw decryptionFailure(ex);
+                }
+                plaintext.write(plainText, 0, length);
+            }
+
+            private void ensureCapacity(final int capacity) {
+                if (plainText.length < capacity) {
+                    plainText = new byte[capacity];
+                }
+            }
+        };
+    }
+
+    private static JweDecryptionException decryptionFailure(final GeneralSecurityException ex) {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Decryption failed: " + ex, ex);
+        }
+        return new JweDecryptionException();
+    }
+
     @Override
     Key generateEncryptionKey() {
         // We need to generate a CEK sufficiently large to supply the key for the AES block cipher and the HMAC. As
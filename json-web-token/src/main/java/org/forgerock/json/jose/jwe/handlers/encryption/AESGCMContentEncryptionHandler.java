@@ -12,10 +12,13 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.jwe.handlers.encryption;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.security.GeneralSecurityException;
 import java.security.Key;
 import java.security.NoSuchAlgorithmException;
@@ -31,6 +34,7 @@ import org.forgerock.json.jose.exceptions.JweDecryptionException;
 import org.forgerock.json.jose.exceptions.JweEncryptionException;
 import org.forgerock.json.jose.jwe.EncryptionMethod;
 import org.forgerock.json.jose.jwe.JweEncryption;
+import org.forgerock.util.crypto.CryptoPrimitives;
 
 /**
  * Encrypts content using Galois Counter Mode (GCM), an efficient authenticated encryption with associated data
@@ -52,7 +56,7 @@ final class AESGCMContentEncryptionHandler extends ContentEncryptionHandler {
     @Override
     JweEncryption encrypt(final Key key, final byte[] iv, final byte[] plainText, final byte[] additionalData) {
         try {
-            final Cipher cipher = Cipher.getInstance(encryptionMethod.getTransformation());
+            final Cipher cipher = CryptoPrimitives.cipher(encryptionMethod.getTransformation());
             cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
             cipher.updateAAD(additionalData);
             final byte[] cipherText = cipher.doFinal(plainText);
@@ -68,7 +72,7 @@ final class AESGCMContentEncryptionHandler extends ContentEncryptionHandler {
     @Override
     byte[] decrypt(final Key key, final byte[] iv, final JweEncryption cipherText, final byte[] additionalData) {
         try {
-            final Cipher cipher = Cipher.getInstance(encryptionMethod.getTransformation());
+            final Cipher cipher = CryptoPrimitives.cipher(encryptionMethod.getTransformation());
             cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
             cipher.updateAAD(additionalData);
             cipher.update(cipherText.getCiphertext());
@@ -81,6 +85,48 @@ final class AESGCMContentEncryptionHandler extends ContentEncryptionHandler {
         }
     }
 
+    @Override
+    ContentDecryptor newDecryptor(final Key key, final byte[] iv, final byte[] additionalData,
+            final OutputStream plaintext) {
+        final Cipher cipher;
+        try {
+            // The decryptor outlives this call and writes to a caller's stream, which may use the thread's pooled
+            // cipher: it has a cipher of its own.
+            cipher = Cipher.getInstance(encryptionMethod.getTransformation());
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
+            cipher.updateAAD(additionalData);
+        } catch (GeneralSecurityException ex) {
+            throw decryptionFailure(ex);
+        }
+        return new ContentDecryptor(plaintext) {
+            @Override
+            public void write(final byte[] cipherText, final int off, final int len) throws IOException {
+                final byte[] plainText = cipher.update(cipherText, off, len);
+                if (plainText != null) {
+                    plaintext.write(plainText);
+                }
+            }
+
+            @Override
+            public void finish(final byte[] authenticationTag) throws IOException {
+                final byte[] plainText;
+                try {
+                    plainText = cipher.doFinal(authenticationTag);
+                } catch (GeneralSecurityException ex) {
+                    throw decryptionFailure(ex);
+                }
+                plaintext.write(plainText);
+            }
+        };
+    }
+
+    private static JweDecryptionException decryptionFailure(final GeneralSecurityException ex) {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.log(Level.FINE, "Decryption failed: " + ex, ex);
+        }
+        return new JweDecryptionException();
+    }
+
     @Override
     Key generateEncryptionKey() {
         try {
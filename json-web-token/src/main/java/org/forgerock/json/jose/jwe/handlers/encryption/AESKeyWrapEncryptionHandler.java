@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.jwe.handlers.encryption;
@@ -25,11 +26,13 @@ import org.forgerock.json.jose.exceptions.JweDecryptionException;
 import org.forgerock.json.jose.exceptions.JweEncryptionException;
 import org.forgerock.json.jose.jwe.EncryptionMethod;
 import org.forgerock.json.jose.jwe.JweEncryption;
+import org.forgerock.util.crypto.CryptoPrimitives;
 
 /**
  * Provides JWE key encapsulation using the AES KeyWrap algorithm.
  */
 public final class AESKeyWrapEncryptionHandler implements EncryptionHandler {
+    private static final String KEY_WRAP_ALGORITHM = "AESWrap";
     private final ContentEncryptionHandler contentEncryptionHandler;
     private final EncryptionMethod encryptionMethod;
 
@@ -51,7 +54,7 @@ public final class AESKeyWrapEncryptionHandler implements EncryptionHandler {
     @Override
     public byte[] generateJWEEncryptedKey(final Key key, final Key contentEncryptionKey) {
         try {
-            final Cipher cipher = Cipher.getInstance("AESWrap");
+            final Cipher cipher = CryptoPrimitives.cipher(KEY_WRAP_ALGORITHM);
             cipher.init(Cipher.WRAP_MODE, key);
             return cipher.wrap(contentEncryptionKey);
         } catch (GeneralSecurityException e) {
@@ -75,7 +78,7 @@ public final class AESKeyWrapEncryptionHandler implements EncryptionHandler {
     @Override
     public Key decryptContentEncryptionKey(final Key key, final byte[] encryptedContentEncryptionKey) {
         try {
-            final Cipher cipher = Cipher.getInstance("AESWrap");
+            final Cipher cipher = CryptoPrimitives.cipher(KEY_WRAP_ALGORITHM);
             cipher.init(Cipher.UNWRAP_MODE, key);
             return cipher.unwrap(encryptedContentEncryptionKey, encryptionMethod.getEncryptionAlgorithm(),
                     Cipher.SECRET_KEY);
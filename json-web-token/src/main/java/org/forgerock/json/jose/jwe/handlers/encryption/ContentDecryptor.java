@@ -0,0 +1,81 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose.jwe.handlers.encryption;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.Key;
+
+import org.forgerock.json.jose.exceptions.JweDecryptionException;
+import org.forgerock.json.jose.jwe.EncryptionMethod;
+
+/**
+ * Decrypts the ciphertext of a JWE written to it in chunks, and writes the plaintext to another output stream, so
+ * that neither the ciphertext nor the plaintext of a large JWE need to be held in memory as a whole.
+ * <p>
+ * The plaintext is written as the ciphertext is decrypted, before the authentication tag is verified by
+ * {@link #finish(byte[])}: if that method throws an exception, the plaintext written must be discarded. Note that
+ * the AES/GCM ciphers of the JDK do not write any plaintext before the tag is verified, and therefore buffer the
+ * whole ciphertext themselves.
+ * <p>
+ * A decryptor must only be used by the thread which created it, and must not be used once the same thread has
+ * encrypted or decrypted other content with the same encryption method.
+ */
+public abstract class ContentDecryptor extends OutputStream {
+
+    /** The stream to write the plaintext to. */
+    final OutputStream plaintext;
+
+    ContentDecryptor(final OutputStream plaintext) {
+        this.plaintext = plaintext;
+    }
+
+    /**
+     * Returns a decryptor of content encrypted with the given encryption method.
+     *
+     * @param method The encryption method.
+     * @param contentEncryptionKey The Content Encryption Key.
+     * @param initialisationVector The Initialisation Vector.
+     * @param additionalAuthenticatedData An array of bytes representing the additional authenticated data.
+     * @param plaintext The stream to write the plaintext to.
+     * @return The decryptor.
+     * @throws JweDecryptionException If the decryptor cannot be initialised with the key.
+     */
+    public static ContentDecryptor newInstance(final EncryptionMethod method, final Key contentEncryptionKey,
+            final byte[] initialisationVector, final byte[] additionalAuthenticatedData,
+            final OutputStream plaintext) {
+        return ContentEncryptionHandler.getInstance(method)
+                .newDecryptor(contentEncryptionKey, initialisationVector, additionalAuthenticatedData, plaintext);
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public abstract void write(byte[] ciphertext, int off, int len) throws IOException;
+
+    /**
+     * Verifies the authentication tag of the ciphertext written, and writes the rest of the plaintext.
+     *
+     * @param authenticationTag The authentication tag.
+     * @throws IOException If the plaintext cannot be written.
+     * @throws JweDecryptionException If the ciphertext cannot be decrypted or the authentication tag is not valid.
+     */
+    public abstract void finish(byte[] authenticationTag) throws IOException;
+}
@@ -12,18 +12,20 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.jwe.handlers.encryption;
 
+import java.io.OutputStream;
 import java.security.Key;
 import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
 
 import org.forgerock.json.jose.exceptions.JweEncryptionException;
 import org.forgerock.json.jose.jwe.EncryptionMethod;
 import org.forgerock.json.jose.jwe.JweEncryption;
 import org.forgerock.util.Reject;
+import org.forgerock.util.crypto.CryptoPrimitives;
 
 /**
  * Handles the underlying {@link EncryptionMethod}.
@@ -57,15 +59,24 @@ abstract class ContentEncryptionHandler {
 
     abstract byte[] decrypt(Key key, byte[] iv, JweEncryption cipherText, byte[] additionalData);
 
+    /**
+     * Returns a decryptor of content given in chunks, whose plaintext is written to the given stream.
+     *
+     * @param key the content encryption key.
+     * @param iv the initialisation vector.
+     * @param additionalData the additional authenticated data.
+     * @param plaintext the stream to write the plaintext to.
+     * @return the decryptor.
+     */
+    abstract ContentDecryptor newDecryptor(Key key, byte[] iv, byte[] additionalData, OutputStream plaintext);
+
     abstract Key generateEncryptionKey();
 
     byte[] generateInitialisationVector() {
         try {
             final int ivByteLength = getIVByteLength();
-            SecureRandom randomGen = SecureRandom.getInstance(INITIALISATION_VECTOR_ALGORITHM);
-
             byte[] bytes = new byte[ivByteLength];
-            randomGen.nextBytes(bytes);
+            CryptoPrimitives.secureRandom(INITIALISATION_VECTOR_ALGORITHM).nextBytes(bytes);
             return bytes;
         } catch (NoSuchAlgorithmException e) {
             throw new JweEncryptionException("Unsupported Algorithm, " + INITIALISATION_VECTOR_ALGORITHM, e);
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.jwe.handlers.encryption;
@@ -36,6 +37,7 @@ import org.forgerock.json.jose.jwe.EncryptionMethod;
 import org.forgerock.json.jose.jwe.JweAlgorithm;
 import org.forgerock.json.jose.jwe.JweEncryption;
 import org.forgerock.util.Reject;
+import org.forgerock.util.crypto.CryptoPrimitives;
 
 /**
  * Abstract base class for implementations of the RSAES-PKCS1-v1_5 and RSA-OAEP encryption schemes.
@@ -133,7 +135,7 @@ public final class RSAEncryptionHandler implements EncryptionHandler {
     @Override
     public Key decryptContentEncryptionKey(Key key, byte[] encryptedContentEncryptionKey) {
         try {
-            final Cipher cipher = Cipher.getInstance(jweAlgorithm.getAlgorithm());
+            final Cipher cipher = CryptoPrimitives.cipher(jweAlgorithm.getAlgorithm());
             cipher.init(Cipher.UNWRAP_MODE, key, parameterSpec);
             return cipher.unwrap(encryptedContentEncryptionKey, encryptionMethod.getEncryptionAlgorithm(),
                     Cipher.SECRET_KEY);
@@ -154,7 +156,7 @@ public final class RSAEncryptionHandler implements EncryptionHandler {
 
     private byte[] encryptKey(final RSAPublicKey keyEncryptionKey, final Key contentKey) {
         try {
-            final Cipher cipher = Cipher.getInstance(jweAlgorithm.getAlgorithm());
+            final Cipher cipher = CryptoPrimitives.cipher(jweAlgorithm.getAlgorithm());
             cipher.init(Cipher.WRAP_MODE, keyEncryptionKey, parameterSpec);
             return cipher.wrap(contentKey);
         } catch (GeneralSecurityException e) {
@@ -12,6 +12,7 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2013-2017 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.jwk;
@@ -19,9 +20,11 @@ package org.forgerock.json.jose.jwk;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import org.forgerock.json.JsonException;
@@ -35,11 +38,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Holds a Set of JWKs.
+ * <p>
+ * The JWKs are indexed by key ID and by algorithm and key usage on the first search, and the index is rebuilt when
+ * the keys are replaced.
  */
 public class JWKSet extends JWObject {
 
     private static final Logger logger = LoggerFactory.getLogger(JWKSet.class);
 
+    private volatile JwkIndex index;
+
     /**
      * Constructs an empty JWKSet.
      */
@@ -152,6 +160,12 @@ public class JWKSet extends JWObject {
         return super.toString();
     }
 
+    @Override
+    public void put(String key, Object value) {
+        super.put(key, value);
+        index = null;
+    }
+
     /**
      * Search for a JWK that matches the algorithm and the key usage.
      *
@@ -161,20 +175,15 @@ public class JWKSet extends JWObject {
      * without key usage defined. If still no JWK found, then returns null.
      */
     public JWK findJwk(Algorithm algorithm, KeyUse keyUse) {
-        //First, we try to find a JWK that matches the keyUse
-        for (JWK jwk : getJWKsAsList()) {
-            try {
-                if (algorithm.getJwaAlgorithmName().equalsIgnoreCase(jwk.getAlgorithm()) && (keyUse == jwk.getUse())) {
-                    return jwk;
-                }
-            } catch (IllegalArgumentException e) {
-                // We raise a warning as the JWKs could be the client one, with some non-compliant JWK.
-                logger.warn("Can't load JWK with kid'" + jwk.getKeyId() + "'", e);
-            }
+        final Map<KeyUse, JWK> jwksByUse =
+                getIndex().jwksByAlgorithmAndUse.get(toIndexKey(algorithm.getJwaAlgorithmName()));
+        if (jwksByUse == null) {
+            return null;
         }
-
-        //At this point, no jwk was found. We can try to find a JWK without a keyUse now
-        return keyUse != null ? findJwk(algorithm, null) :  null;
+        //First, we try to find a JWK that matches the keyUse
+        final JWK jwk = jwksByUse.get(keyUse);
+        //At this point, if no jwk was found, we can try to find a JWK without a keyUse now
+        return jwk == null && keyUse != null ? jwksByUse.get(null) : jwk;
     }
 
     /**
@@ -184,11 +193,65 @@ public class JWKSet extends JWObject {
      * @return A jwk that matches the kid. If no JWK found, returns null
      */
     public JWK findJwk(String kid) {
-        for (JWK jwk : getJWKsAsList()) {
-            if (kid.equals(jwk.getKeyId())) {
-                return jwk;
+        return getIndex().jwksByKid.get(kid);
+    }
+
+    private JwkIndex getIndex() {
+        final Object keys = get("keys").getObject();
+        JwkIndex current = index;
+        if (current == null || !current.isIndexOf(keys)) {
+            current = new JwkIndex(keys, getJWKsAsList());
+            index = current;
+        }
+        return current;
+    }
+
+    private static String toIndexKey(String algorithm) {
+        return algorithm.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The JWKs of the set indexed by key ID, and by algorithm and key usage. The first JWK of the set wins when
+     * several of them share the same index key.
+     */
+    private static final class JwkIndex {
+        private final Object keys;
+        private final int size;
+        private final Map<String, JWK> jwksByKid = new HashMap<>();
+        private final Map<String, Map<KeyUse, JWK>> jwksByAlgorithmAndUse = new HashMap<>();
+
+        private JwkIndex(Object keys, List<JWK> jwks) {
+            this.keys = keys;
+            this.size = jwks.size();
+            for (JWK jwk : jwks) {
+                final String kid = jwk.getKeyId();
+                if (kid != null && !jwksByKid.containsKey(kid)) {
+                    jwksByKid.put(kid, jwk);
+                }
+                try {
+                    final String algorithm = jwk.getAlgorithm();
+                    if (algorithm == null) {
+                        continue;
+                    }
+                    final String algorithmKey = toIndexKey(algorithm);
+                    Map<KeyUse, JWK> jwksByUse = jwksByAlgorithmAndUse.get(algorithmKey);
+                    if (jwksByUse == null) {
+                        jwksByUse = new HashMap<>();
+                        jwksByAlgorithmAndUse.put(algorithmKey, jwksByUse);
+                    }
+                    final KeyUse keyUse = jwk.getUse();
+                    if (!jwksByUse.containsKey(keyUse)) {
+                        jwksByUse.put(keyUse, jwk);
+                    }
+                } catch (IllegalArgumentException | JsonException e) {
+                    // We raise a warning as the JWKs could be the client one, with some non-compliant JWK.
+                    logger.warn("Can't load JWK with kid'" + kid + "'", e);
+                }
             }
         }
-        return null;
+
+        private boolean isIndexOf(Object keys) {
+            return this.keys == keys && keys instanceof List && ((List<?>) keys).size() == size;
+        }
     }
 }
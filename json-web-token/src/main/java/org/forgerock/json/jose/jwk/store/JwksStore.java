@@ -12,12 +12,18 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2014-2017 ForgeRock AS.
+* Portions Copyright 2026 Wren Security.
 */
 package org.forgerock.json.jose.jwk.store;
 
 
 import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.forgerock.json.jose.exceptions.FailedToLoadJWKException;
 import org.forgerock.json.jose.jwk.JWK;
@@ -31,20 +37,43 @@ import org.forgerock.util.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Store JWKs into a jwkSet from a JWKs_URI and refresh the jwkSet when necessary. */
+/**
+ * Store JWKs into a jwkSet from a JWKs_URI and refresh the jwkSet when necessary.
+ * <p>
+ * Lookups never wait for a reload of the JWKs which is not needed to answer them: the previous jwkSet is used until
+ * the new one has been loaded. Concurrent reloads are collapsed into a single download, and key IDs which could not
+ * be found after a reload are not searched again before the cache miss cache time has elapsed.
+ * <p>
+ * When a refresh executor is provided, the jwkSet is also reloaded in the background before the cache timeout
+ * expires, so that lookups do not have to reload it themselves.
+ */
 public class JwksStore {
     private static final Logger logger = LoggerFactory.getLogger(JwksStore.class);
 
+    /** The part of the cache timeout after which the jwkSet is refreshed in the background. */
+    private static final double REFRESH_AHEAD_FACTOR = 0.8;
+
+    /** The maximum number of unknown key IDs remembered, to bound the memory used by a flood of them. */
+    private static final int MAX_UNKNOWN_KIDS = 1024;
+
     private final String uid;
     private final JWKSetParser jwkParser;
+    private final ScheduledExecutorService refreshExecutor;
 
     /** To prevent attackers reloading the cache too often. */
-    private long cacheMissCacheTimeInMs;
-    private long cacheTimeoutInMs;
-    private URL jwkUrl;
+    private volatile long cacheMissCacheTimeInMs;
+    private volatile long cacheTimeoutInMs;
+    private volatile URL jwkUrl;
 
-    private JWKSet jwksSet;
-    private long lastReloadJwksSet;
+    private volatile JWKSet jwksSet;
+    private volatile long lastReloadJwksSet;
+    /** Incremented on each reload, so that a thread can tell whether another one reloaded the jwkSet. */
+    private volatile long reloadCount;
+
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    /** The unknown key IDs, with the time of the reload after which they could not be found. */
+    private final ConcurrentMap<String, Long> unknownKids = new ConcurrentHashMap<>();
+    private ScheduledFuture<?> scheduledRefresh;
 
     /**
      * Create a new JWKs store.
@@ -75,11 +104,31 @@ public class JwksStore {
      */
     JwksStore(final String uid, final Duration cacheTimeout, final Duration cacheMissCacheTime,
             final URL jwkUrl, JWKSetParser jwkSetParser) throws FailedToLoadJWKException {
+        this(uid, cacheTimeout, cacheMissCacheTime, jwkUrl, jwkSetParser, null);
+    }
+
+    /**
+     * Create a new JWKs store, which refreshes its jwkSet in the background.
+     *
+     * @param uid the unique identifier for this store
+     * @param cacheTimeout a cache timeout to avoid reloading the cache all the time when doing encryption
+     * @param cacheMissCacheTime the cache time before reload the cache in case of a cache miss.
+     *                           This avoid polling the client application too often.
+     * @param jwkUrl the jwk url  of the JWKs hosted by the client application
+     * @param jwkSetParser the jwks set parser
+     * @param refreshExecutor the executor refreshing the jwkSet before the cache timeout expires, or {@code null}
+     *                        if the jwkSet should only be reloaded when it is searched
+     * @throws FailedToLoadJWKException if the jwks can't be reloaded.
+     */
+    JwksStore(final String uid, final Duration cacheTimeout, final Duration cacheMissCacheTime,
+            final URL jwkUrl, JWKSetParser jwkSetParser, ScheduledExecutorService refreshExecutor)
+            throws FailedToLoadJWKException {
         this.uid = uid;
         this.cacheTimeoutInMs = cacheTimeout.to(TimeUnit.MILLISECONDS);
         this.cacheMissCacheTimeInMs = cacheMissCacheTime.to(TimeUnit.MILLISECONDS);
         this.jwkUrl = jwkUrl;
         this.jwkParser = jwkSetParser;
+        this.refreshExecutor = refreshExecutor;
 
         try {
             reloadJwks();
@@ -94,9 +143,89 @@ public class JwksStore {
      *
      * @throws FailedToLoadJWKException if there were issues parsing the supplied URL
      */
-    private synchronized void reloadJwks() throws FailedToLoadJWKException {
+    private void reloadJwks() throws FailedToLoadJWKException {
+        reloadLock.lock();
+        try {
+            doReloadJwks();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Reloads the JWKs, unless they have been reloaded by another thread since the caller looked at them.
+     *
+     * @param seenReloadCount the reload count seen by the caller
+     * @param wait {@code false} if the reload should be skipped when another one is in progress
+     * @throws FailedToLoadJWKException if there were issues parsing the supplied URL
+     */
+    private void reloadJwksIfNotReloadedSince(long seenReloadCount, boolean wait) throws FailedToLoadJWKException {
+        if (wait) {
+            reloadLock.lock();
+        } else if (!reloadLock.tryLock()) {
+            return;
+        }
+        try {
+            if (reloadCount == seenReloadCount) {
+                doReloadJwks();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void doReloadJwks() throws FailedToLoadJWKException {
         jwksSet = jwkParser.jwkSet(jwkUrl);
         lastReloadJwksSet = System.currentTimeMillis();
+        reloadCount++;
+        scheduleRefresh(cacheRefreshDelayInMs());
+    }
+
+    private long cacheRefreshDelayInMs() {
+        return (long) (cacheTimeoutInMs * REFRESH_AHEAD_FACTOR);
+    }
+
+    /** Must be called with the reload lock held. */
+    private void scheduleRefresh(long delayInMs) {
+        if (refreshExecutor == null) {
+            return;
+        }
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        scheduledRefresh = refreshExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                refreshJwks();
+            }
+        }, delayInMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void refreshJwks() {
+        reloadLock.lock();
+        try {
+            doReloadJwks();
+        } catch (FailedToLoadJWKException | RuntimeException e) {
+            logger.warn("Unable to refresh the JWKs of the store '" + uid + "' from " + jwkUrl, e);
+            scheduleRefresh(Math.max(cacheMissCacheTimeInMs, 1L));
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Stops refreshing the jwkSet in the background.
+     */
+    void stopRefresh() {
+        reloadLock.lock();
+        try {
+            if (scheduledRefresh != null) {
+                scheduledRefresh.cancel(false);
+                scheduledRefresh = null;
+            }
+        } finally {
+            reloadLock.unlock();
+        }
     }
 
     /**
@@ -109,13 +238,16 @@ public class JwksStore {
      * @throws FailedToLoadJWKException if the jwks can't be reloaded.
      */
     public JWK findJwk(Algorithm algorithm, KeyUse keyUse) throws FailedToLoadJWKException {
+        long seenReloadCount = reloadCount;
         if (keyUse == KeyUse.ENC && hasJwksCacheTimedOut()) {
-            reloadJwks();
+            // a reload in progress will provide the new keys soon enough, so use the current ones meanwhile
+            reloadJwksIfNotReloadedSince(seenReloadCount, false);
+            seenReloadCount = reloadCount;
         }
 
         JWK jwk = jwksSet.findJwk(algorithm, keyUse);
         if (jwk == null && isCacheMissCacheTimeExpired()) {
-            reloadJwks();
+            reloadJwksIfNotReloadedSince(seenReloadCount, true);
             return jwksSet.findJwk(algorithm, keyUse);
         }
         return jwk;
@@ -129,14 +261,37 @@ public class JwksStore {
      * @throws FailedToLoadJWKException if the jwks can't be reloaded.
      */
     public JWK findJwk(String kid) throws FailedToLoadJWKException {
+        final long seenReloadCount = reloadCount;
         JWK jwk = jwksSet.findJwk(kid);
-        if (jwk == null && isCacheMissCacheTimeExpired()) {
-            reloadJwks();
-            return jwksSet.findJwk(kid);
+        if (jwk == null && !isKnownToBeUnknown(kid) && isCacheMissCacheTimeExpired()) {
+            reloadJwksIfNotReloadedSince(seenReloadCount, true);
+            jwk = jwksSet.findJwk(kid);
+            if (jwk == null) {
+                rememberUnknownKid(kid);
+            }
         }
         return jwk;
     }
 
+    private boolean isKnownToBeUnknown(String kid) {
+        final Long unknownSince = unknownKids.get(kid);
+        if (unknownSince == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - unknownSince < cacheMissCacheTimeInMs) {
+            return true;
+        }
+        unknownKids.remove(kid, unknownSince);
+        return false;
+    }
+
+    private void rememberUnknownKid(String kid) {
+        if (unknownKids.size() >= MAX_UNKNOWN_KIDS) {
+            unknownKids.clear();
+        }
+        unknownKids.put(kid, lastReloadJwksSet);
+    }
+
     /**
      * Get the UID.
      * @return the uid.
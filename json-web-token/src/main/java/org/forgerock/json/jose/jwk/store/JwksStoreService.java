@@ -12,15 +12,18 @@
 * information: "Portions copyright [year] [name of copyright owner]".
 *
 * Copyright 2017 ForgeRock AS.
+* Portions Copyright 2026 Wren Security.
 */
 package org.forgerock.json.jose.jwk.store;
 
 import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.forgerock.json.jose.exceptions.FailedToLoadJWKException;
+import org.forgerock.json.jose.jwk.JWKSetParser;
 import org.forgerock.util.SimpleHTTPClient;
 import org.forgerock.util.time.Duration;
 
@@ -36,6 +39,7 @@ public class JwksStoreService {
     public final static Duration JWKS_STORE_DEFAULT_CACHE_MISS_CACHE_TIME_MS = Duration.duration(1L, TimeUnit.MINUTES);
 
     private final SimpleHTTPClient simpleHTTPClient;
+    private final ScheduledExecutorService refreshExecutor;
 
     private final Map<String, JwksStore> jwksStoreByUID = new HashMap<>();
 
@@ -60,7 +64,20 @@ public class JwksStoreService {
      * @param simpleHTTPClient the HTTP client
      */
     public JwksStoreService(SimpleHTTPClient simpleHTTPClient) {
+        this(simpleHTTPClient, null);
+    }
+
+    /**
+     * Constructor with a HTTP client, that will be used to connect to the JWKS_URI, and an executor refreshing the
+     * JWKs of the stores in the background before their cache timeout expires.
+     *
+     * @param simpleHTTPClient the HTTP client
+     * @param refreshExecutor the executor refreshing the JWKs, or {@code null} if the JWKs should only be reloaded
+     *                        when they are searched
+     */
+    public JwksStoreService(SimpleHTTPClient simpleHTTPClient, ScheduledExecutorService refreshExecutor) {
         this.simpleHTTPClient = simpleHTTPClient;
+        this.refreshExecutor = refreshExecutor;
     }
 
     /**
@@ -93,18 +110,22 @@ public class JwksStoreService {
             jwksStore.setJwkUrl(jwkUrl);
             return jwksStore;
         } else {
-            jwksStore = new JwksStore(uid, cacheTimeout, cacheMissCacheTime, jwkUrl, simpleHTTPClient);
+            jwksStore = new JwksStore(uid, cacheTimeout, cacheMissCacheTime, jwkUrl,
+                    new JWKSetParser(simpleHTTPClient), refreshExecutor);
             jwksStoreByUID.put(uid, jwksStore);
             return jwksStore;
         }
     }
 
     /**
-     * Remove the corresponding jwks store if exist.
+     * Remove the corresponding jwks store if exist, and stop refreshing it.
      *
      * @param uid the uid. Note that the uid check isn't case sensitive
      */
     public synchronized void removeJwksStore(String uid) {
-        jwksStoreByUID.remove(uid.toLowerCase());
+        JwksStore jwksStore = jwksStoreByUID.remove(uid.toLowerCase());
+        if (jwksStore != null) {
+            jwksStore.stopRefresh();
+        }
     }
 }
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.jws;
@@ -170,6 +171,24 @@ public class SignedJwt implements Jwt, Payload {
         return signingInput + "." + Base64url.encode(signature);
     }
 
+    /**
+     * Gets the signing input of a reconstructed JWS.
+     *
+     * @return The signing input, or {@code null} if the JWS was not reconstructed.
+     */
+    byte[] getSigningInput() {
+        return signingInput;
+    }
+
+    /**
+     * Gets the signature of a reconstructed JWS.
+     *
+     * @return The signature, or {@code null} if the JWS was not reconstructed.
+     */
+    byte[] getSignature() {
+        return signature;
+    }
+
     /**
      * Verifies that the JWS signature is valid for the contents of its payload.
      * <p>
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.jws;
@@ -25,7 +26,6 @@ import org.forgerock.json.jose.jws.handlers.HmacSigningHandler;
 import org.forgerock.json.jose.jws.handlers.NOPSigningHandler;
 import org.forgerock.json.jose.jws.handlers.RSASigningHandler;
 import org.forgerock.json.jose.jws.handlers.SigningHandler;
-import org.forgerock.util.SignatureUtil;
 
 /**
  * A service to get the appropriate SigningHandler for a specific Java Cryptographic signing algorithm.
@@ -36,8 +36,6 @@ import org.forgerock.util.SignatureUtil;
  */
 public class SigningManager {
 
-    private final SignatureUtil signatureUtil = SignatureUtil.getInstance();
-
     /**
      * Constructs an implementation of the SigningHandler which does not perform
      * any signing or verifying.
@@ -61,16 +59,14 @@ public class SigningManager {
     }
 
     /**
-     * Constructs a new RSASigningHandler, with a SignatureUtil instance to
-     * delegate the signing and verifying calls to.
+     * Constructs a new RSASigningHandler.
      *
      * @param key
      *            The key used to sign and verify the signature.
-     * @return a new RSASigningHandler, with a SignatureUtil instance to
-     *         delegate the signing and verifying calls to.
+     * @return a new RSASigningHandler.
      */
     public SigningHandler newRsaSigningHandler(Key key) {
-        return new RSASigningHandler(key, signatureUtil);
+        return new RSASigningHandler(key);
     }
 
     /**
@@ -0,0 +1,333 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose.jws;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.forgerock.util.Reject.checkNotNull;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.forgerock.json.jose.exceptions.JwtRuntimeException;
+import org.forgerock.json.jose.jws.handlers.SigningHandler;
+import org.forgerock.json.jose.jwt.JwtClaimsSet;
+import org.forgerock.json.jose.utils.Utils;
+import org.forgerock.util.Function;
+import org.forgerock.util.Reject;
+import org.forgerock.util.crypto.CryptoPrimitives;
+import org.forgerock.util.encode.Base64url;
+import org.forgerock.util.time.Duration;
+import org.forgerock.util.time.TimeService;
+
+/**
+ * A bounded cache of the JWTs which have been verified, so that a JWT presented again is neither parsed, decrypted
+ * nor verified again.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the compact serialisation of the JWT, rather than by the JWT itself,
+ * and by the {@link SigningHandler} which verified it, so that a JWT verified with one key is not trusted when
+ * verified with another. Only successful verifications are cached: a JWT which fails to verify is verified again
+ * each time it is presented.
+ * <p>
+ * An entry is evicted once the expiration time ({@literal exp}) of its JWT has passed, or once it is older than
+ * the maximum age of the cache. When the cache is full, the least recently used entry is evicted.
+ * <p>
+ * The number of hits and misses, the number of entries evicted, and the time spent verifying the JWTs which were
+ * found in the cache instead, are counted so that the benefit of the cache can be measured.
+ * <p>
+ * This class is thread-safe. The claims returned are copies of the cached claims, which the callers may modify.
+ */
+public final class VerifiedJwtCache {
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final int maximumSize;
+    private final long maximumAgeMillis;
+    private final TimeService timeService;
+    /** The entries, in access order, guarded by synchronizing on the map itself. */
+    private final Map<Key, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder timeSavedNanos = new LongAdder();
+
+    /**
+     * Constructs a cache holding at most the given number of JWTs, each until it expires.
+     *
+     * @param maximumSize The maximum number of entries of the cache.
+     */
+    public VerifiedJwtCache(final int maximumSize) {
+        this(maximumSize, Duration.UNLIMITED, TimeService.SYSTEM);
+    }
+
+    /**
+     * Constructs a cache holding at most the given number of JWTs, each until it expires or reaches the given age.
+     *
+     * @param maximumSize The maximum number of entries of the cache.
+     * @param maximumAge The maximum time for which a JWT is cached, or {@link Duration#UNLIMITED} to cache JWTs
+     *                   until they expire. JWTs with no expiration time are cached for this time.
+     * @param timeService The time service giving the current time.
+     */
+    public VerifiedJwtCache(final int maximumSize, final Duration maximumAge, final TimeService timeService) {
+        Reject.ifTrue(maximumSize <= 0, "The maximum size must be positive");
+        this.maximumSize = maximumSize;
+        this.maximumAgeMillis = maximumAge.isUnlimited() ? Long.MAX_VALUE : maximumAge.to(MILLISECONDS);
+        this.timeService = checkNotNull(timeService);
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                if (size() > maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the claims of the JWT, which are either found in the cache, if the JWT has already been verified with
+     * the signing handler, or obtained from the verifier and then cached.
+     * <p>
+     * The verifier parses, decrypts if needed and verifies the signature of the JWT with the signing handler, and
+     * returns its claims, or throws an exception if the JWT is not valid.
+     *
+     * @param jwt The compact serialisation of the JWT.
+     * @param signingHandler The signing handler verifying the JWT.
+     * @param verifier The function verifying the JWT and returning its claims.
+     * @param <E> The type of the exception thrown when the JWT is not valid.
+     * @return The claims of the verified JWT.
+     * @throws E If the JWT is not valid.
+     */
+    public <E extends Exception> JwtClaimsSet verify(final String jwt, final SigningHandler signingHandler,
+            final Function<String, JwtClaimsSet, E> verifier) throws E {
+        final MessageDigest digest = newDigest();
+        digest.update(jwt.getBytes(Utils.CHARSET));
+        final Key key = new Key(digest.digest(), signingHandler);
+        final Entry entry = get(key);
+        if (entry != null) {
+            return copyOf(entry.claims);
+        }
+        final long start = System.nanoTime();
+        final JwtClaimsSet claims = verifier.apply(jwt);
+        put(key, new Entry(copyOf(claims), expiresAt(claims), System.nanoTime() - start));
+        return claims;
+    }
+
+    /**
+     * Returns whether the signature of the JWS is valid, which is either found in the cache, if the JWS has already
+     * been verified with the signing handler, or verified with {@link SignedJwt#verify(SigningHandler)} and then
+     * cached if valid.
+     * <p>
+     * Only the JWSs reconstructed from their compact serialisation are cached, others are always verified.
+     *
+     * @param jwt The JWS.
+     * @param signingHandler The signing handler verifying the JWS.
+     * @return {@code true} if the signature of the JWS is valid.
+     */
+    public boolean verify(final SignedJwt jwt, final SigningHandler signingHandler) {
+        final byte[] signingInput = jwt.getSigningInput();
+        final byte[] signature = jwt.getSignature();
+        if (signingInput == null || signature == null) {
+            return jwt.verify(signingHandler);
+        }
+        final MessageDigest digest = newDigest();
+        digest.update(signingInput);
+        digest.update((byte) '.');
+        digest.update(Base64url.encode(signature).getBytes(US_ASCII));
+        final Key key = new Key(digest.digest(), signingHandler);
+        if (get(key) != null) {
+            return true;
+        }
+        final long start = System.nanoTime();
+        if (!jwt.verify(signingHandler)) {
+            return false;
+        }
+        final JwtClaimsSet claims = jwt.getPayload() instanceof JwtClaimsSet ? jwt.getClaimsSet() : null;
+        put(key, new Entry(null, expiresAt(claims), System.nanoTime() - start));
+        return true;
+    }
+
+    private Entry get(final Key key) {
+        synchronized (entries) {
+            final Entry entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.expiresAt <= timeService.now()) {
+                entries.remove(key);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            timeSavedNanos.add(entry.verificationNanos);
+            return entry;
+        }
+    }
+
+    private void put(final Key key, final Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Returns a deep copy of the claims, which the caller may modify, nested claims included, without affecting the
+     * cache.
+     */
+    private static JwtClaimsSet copyOf(final JwtClaimsSet claims) {
+        if (claims == null) {
+            return null;
+        }
+        final JwtClaimsSet copy = new JwtClaimsSet();
+        // toJsonValue() returns a deep copy of the claims: the nested objects and arrays are copied too
+        for (final Map.Entry<String, Object> claim : claims.toJsonValue().asMap().entrySet()) {
+            copy.put(claim.getKey(), claim.getValue());
+        }
+        return copy;
+    }
+
+    private long expiresAt(final JwtClaimsSet claims) {
+        final long now = timeService.now();
+        final long maximum = maximumAgeMillis == Long.MAX_VALUE ? Long.MAX_VALUE : now + maximumAgeMillis;
+        final Date expirationTime = claims != null ? claims.getExpirationTime() : null;
+        return expirationTime != null ? Math.min(expirationTime.getTime(), maximum) : maximum;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return CryptoPrimitives.messageDigest(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new JwtRuntimeException("Unsupported digest algorithm " + DIGEST_ALGORITHM, e);
+        }
+    }
+
+    /**
+     * Evicts all the entries of the cache. The counters are not reset.
+     */
+    public void clear() {
+        synchronized (entries) {
+            evictions.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of entries of the cache, including those which have expired but have not been evicted yet.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the number of JWTs found in the cache.
+     *
+     * @return The number of hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of JWTs which were not found in the cache, and were verified.
+     *
+     * @return The number of misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted because they had expired or to make room for new entries.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the time, in nanoseconds, which verifying the JWTs found in the cache took when they were first
+     * verified, and which the cache has therefore saved.
+     *
+     * @return The time saved, in nanoseconds.
+     */
+    public long getTimeSavedNanos() {
+        return timeSavedNanos.sum();
+    }
+
+    /**
+     * The digest of a JWT and the signing handler which verified it.
+     */
+    private static final class Key {
+        private final byte[] digest;
+        private final SigningHandler signingHandler;
+        private final int hashCode;
+
+        private Key(final byte[] digest, final SigningHandler signingHandler) {
+            this.digest = digest;
+            this.signingHandler = checkNotNull(signingHandler);
+            this.hashCode = 31 * Arrays.hashCode(digest) + System.identityHashCode(signingHandler);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return signingHandler == other.signingHandler && Arrays.equals(digest, other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * The claims of a verified JWT, the time at which it expires and the time it took to verify.
+     */
+    private static final class Entry {
+        private final JwtClaimsSet claims;
+        private final long expiresAt;
+        private final long verificationNanos;
+
+        private Entry(final JwtClaimsSet claims, final long expiresAt, final long verificationNanos) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+            this.verificationNanos = verificationNanos;
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.jws.handlers;
@@ -28,17 +29,19 @@ import java.util.Arrays;
 
 import org.forgerock.json.jose.exceptions.JwsException;
 import org.forgerock.json.jose.exceptions.JwsSigningException;
+import org.forgerock.json.jose.exceptions.JwsVerifyingException;
 import org.forgerock.json.jose.jws.JwsAlgorithm;
 import org.forgerock.json.jose.jws.JwsAlgorithmType;
 import org.forgerock.json.jose.jws.SupportedEllipticCurve;
 import org.forgerock.json.jose.utils.DerUtils;
 import org.forgerock.json.jose.utils.Utils;
 import org.forgerock.util.Reject;
+import org.forgerock.util.crypto.CryptoPrimitives;
 
 /**
  * Elliptic Curve Digital Signature Algorithm (ECDSA) signing and verification.
  */
-public class ECDSASigningHandler implements SigningHandler {
+public class ECDSASigningHandler implements StreamingSigningHandler {
     private final ECPrivateKey signingKey;
     private final ECPublicKey verificationKey;
     private final SupportedEllipticCurve curve;
@@ -75,8 +78,7 @@ public class ECDSASigningHandler implements SigningHandler {
         validateAlgorithm(algorithm);
 
         try {
-            final Signature signature = Signature.getInstance(algorithm.getAlgorithm());
-            signature.initSign(signingKey);
+            final Signature signature = CryptoPrimitives.signer(algorithm.getAlgorithm(), signingKey);
             signature.update(data);
             return derDecode(signature.sign(), curve.getSignatureSize());
         } catch (SignatureException | InvalidKeyException e) {
@@ -91,8 +93,7 @@ public class ECDSASigningHandler implements SigningHandler {
         validateAlgorithm(algorithm);
 
         try {
-            final Signature validator = Signature.getInstance(algorithm.getAlgorithm());
-            validator.initVerify(verificationKey);
+            final Signature validator = CryptoPrimitives.verifier(algorithm.getAlgorithm(), verificationKey);
             validator.update(data);
             return validator.verify(derEncode(signature));
         } catch (SignatureException | InvalidKeyException e) {
@@ -102,6 +103,26 @@ public class ECDSASigningHandler implements SigningHandler {
         }
     }
 
+    @Override
+    public SignatureVerifier newSignatureVerifier(final JwsAlgorithm algorithm) {
+        validateAlgorithm(algorithm);
+        try {
+            // The verifier outlives this call, while the thread's pooled signature may be used by the caller in between
+            final Signature verifier = Signature.getInstance(algorithm.getAlgorithm());
+            verifier.initVerify(verificationKey);
+            return new SignatureBasedVerifier(verifier) {
+                @Override
+                public boolean verify(final byte[] signature) {
+                    return super.verify(derEncode(signature));
+                }
+            };
+        } catch (InvalidKeyException e) {
+            throw new JwsVerifyingException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new JwsVerifyingException("Unsupported Signing Algorithm, " + algorithm.getAlgorithm(), e);
+        }
+    }
+
     private void validateAlgorithm(JwsAlgorithm algorithm) {
         Reject.ifNull(algorithm, "Algorithm must not be null.");
         Reject.ifTrue(algorithm.getAlgorithmType() != JwsAlgorithmType.ECDSA, "Not an ECDSA algorithm.");
@@ -12,18 +12,24 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.jws.handlers;
 
 import org.forgerock.json.jose.exceptions.JwsSigningException;
+import org.forgerock.json.jose.exceptions.JwsVerifyingException;
 import org.forgerock.json.jose.jws.JwsAlgorithm;
+import org.forgerock.json.jose.jws.JwsAlgorithmType;
 import org.forgerock.json.jose.utils.Utils;
 import org.forgerock.util.Reject;
+import org.forgerock.util.crypto.CryptoPrimitives;
 
 import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.Map;
 import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
@@ -33,9 +39,11 @@ import javax.crypto.spec.SecretKeySpec;
  *
  * @since 2.0.0
  */
-public class HmacSigningHandler implements SigningHandler {
+public class HmacSigningHandler implements StreamingSigningHandler {
 
     private final byte[] sharedSecret;
+    /** The shared secret as a key of each HMAC algorithm, so that a key is not created for each MAC. */
+    private final Map<JwsAlgorithm, SecretKey> secretKeys = new EnumMap<>(JwsAlgorithm.class);
 
     /**
      * Constructs a new HmacSigningHandler.
@@ -45,6 +53,11 @@ public class HmacSigningHandler implements SigningHandler {
     public HmacSigningHandler(byte[] sharedSecret) {
         Reject.ifNull(sharedSecret, "Shared secret cannot be null.");
         this.sharedSecret = sharedSecret.clone();
+        for (JwsAlgorithm algorithm : JwsAlgorithm.values()) {
+            if (algorithm.getAlgorithmType() == JwsAlgorithmType.HMAC) {
+                secretKeys.put(algorithm, secretKey(algorithm.getAlgorithm()));
+            }
+        }
     }
 
     /**
@@ -52,7 +65,7 @@ public class HmacSigningHandler implements SigningHandler {
      */
     @Override
     public byte[] sign(JwsAlgorithm algorithm, String data) {
-        return signWithHMAC(algorithm.getAlgorithm(), sharedSecret, data.getBytes(Utils.CHARSET));
+        return signWithHMAC(algorithm, data.getBytes(Utils.CHARSET));
     }
 
     /**
@@ -60,30 +73,39 @@ public class HmacSigningHandler implements SigningHandler {
      */
     @Override
     public byte[] sign(final JwsAlgorithm algorithm, final byte[] data) {
-        return signWithHMAC(algorithm.getAlgorithm(), sharedSecret, data);
+        return signWithHMAC(algorithm, data);
     }
 
     /**
-     * Performs the creation of the MAC for the data using the given Java Cryptographic algorithm.
+     * Performs the creation of the MAC for the data using the Java Cryptographic algorithm of the JwsAlgorithm.
      *
-     * @param algorithm The Java Cryptographic algorithm.
-     * @param sharedSecret The shared secret to use to sign the data.
+     * @param algorithm The JwsAlgorithm defining the Java Cryptographic algorithm.
      * @param data The data to sign.
      * @return A byte array of the signature.
      */
-    private byte[] signWithHMAC(String algorithm, byte[] sharedSecret, byte[] data) {
+    private byte[] signWithHMAC(JwsAlgorithm algorithm, byte[] data) {
         try {
-            Mac mac = Mac.getInstance(algorithm);
-            SecretKey secretKey = new SecretKeySpec(sharedSecret, algorithm.toUpperCase());
-            mac.init(secretKey);
-            return mac.doFinal(data);
+            return mac(algorithm).doFinal(data);
         } catch (NoSuchAlgorithmException e) {
-            throw new JwsSigningException("Unsupported Signing Algorithm, " + algorithm, e);
+            throw new JwsSigningException("Unsupported Signing Algorithm, " + algorithm.getAlgorithm(), e);
         } catch (InvalidKeyException e) {
             throw new JwsSigningException(e);
         }
     }
 
+    private Mac mac(JwsAlgorithm algorithm) throws NoSuchAlgorithmException, InvalidKeyException {
+        return CryptoPrimitives.mac(algorithm.getAlgorithm(), secretKey(algorithm));
+    }
+
+    private SecretKey secretKey(JwsAlgorithm algorithm) {
+        final SecretKey secretKey = secretKeys.get(algorithm);
+        return secretKey != null ? secretKey : secretKey(algorithm.getAlgorithm());
+    }
+
+    private SecretKey secretKey(String algorithm) {
+        return new SecretKeySpec(sharedSecret, algorithm.toUpperCase());
+    }
+
     /**
      * Verifies that the given signature is valid for the given data.
      * <p>
@@ -101,7 +123,37 @@ public class HmacSigningHandler implements SigningHandler {
      */
     @Override
     public boolean verify(JwsAlgorithm algorithm, byte[] data, byte[] signature) {
-        byte[] signed = signWithHMAC(algorithm.getAlgorithm(), sharedSecret, data);
+        byte[] signed = signWithHMAC(algorithm, data);
         return MessageDigest.isEqual(signed, signature);
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The signature is compared in constant time, as in {@link #verify(JwsAlgorithm, byte[], byte[])}.
+     */
+    @Override
+    public SignatureVerifier newSignatureVerifier(JwsAlgorithm algorithm) {
+        final Mac mac;
+        try {
+            // The verifier outlives this call, while the thread's pooled MAC may be used by the caller in between
+            mac = Mac.getInstance(algorithm.getAlgorithm());
+            mac.init(secretKey(algorithm));
+        } catch (NoSuchAlgorithmException e) {
+            throw new JwsVerifyingException("Unsupported Signing Algorithm, " + algorithm.getAlgorithm(), e);
+        } catch (InvalidKeyException e) {
+            throw new JwsVerifyingException(e);
+        }
+        return new SignatureVerifier() {
+            @Override
+            public void write(byte[] b, int off, int len) {
+                mac.update(b, off, len);
+            }
+
+            @Override
+            public boolean verify(byte[] signature) {
+                return MessageDigest.isEqual(mac.doFinal(), signature);
+            }
+        };
+    }
 }
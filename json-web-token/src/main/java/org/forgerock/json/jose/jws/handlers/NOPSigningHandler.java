@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.jws.handlers;
@@ -24,7 +25,7 @@ import org.forgerock.json.jose.utils.Utils;
  *
  * @since 2.0.0
  */
-public class NOPSigningHandler implements SigningHandler {
+public class NOPSigningHandler implements StreamingSigningHandler {
 
     /**
      * Simply returns a byte array of a UTF-8 empty string.
@@ -62,4 +63,25 @@ public class NOPSigningHandler implements SigningHandler {
     public boolean verify(JwsAlgorithm algorithm, byte[] data, byte[] signature) {
         return signature.length == 0;
     }
+
+    /**
+     * Returns a verifier ignoring the data, which verifies that the signature length is zero.
+     *
+     * @param algorithm {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public SignatureVerifier newSignatureVerifier(JwsAlgorithm algorithm) {
+        return new SignatureVerifier() {
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // the data is not signed
+            }
+
+            @Override
+            public boolean verify(byte[] signature) {
+                return signature.length == 0;
+            }
+        };
+    }
 }
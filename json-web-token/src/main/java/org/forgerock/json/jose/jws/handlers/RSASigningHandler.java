@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.jws.handlers;
@@ -23,6 +24,7 @@ import org.forgerock.json.jose.jws.JwsAlgorithmType;
 import org.forgerock.json.jose.utils.Utils;
 import org.forgerock.util.Reject;
 import org.forgerock.util.SignatureUtil;
+import org.forgerock.util.crypto.CryptoPrimitives;
 
 import java.security.InvalidKeyException;
 import java.security.Key;
@@ -37,20 +39,29 @@ import java.security.SignatureException;
  *
  * @since 2.0.0
  */
-public class RSASigningHandler implements SigningHandler {
+public class RSASigningHandler implements StreamingSigningHandler {
 
-    private final SignatureUtil signatureUtil;
     private final Key key;
 
     /**
-     * Constructs a new RSASigningHandler, with a SignatureUtil instance to delegate the signing and verifying calls to.
+     * Constructs a new RSASigningHandler.
      *
      * @param key The key used to sign and verify the signature.
-     * @param signatureUtil An instance of the SignatureUtil.
      */
-    public RSASigningHandler(Key key, SignatureUtil signatureUtil) {
+    public RSASigningHandler(Key key) {
         this.key = key;
-        this.signatureUtil = signatureUtil;
+    }
+
+    /**
+     * Constructs a new RSASigningHandler.
+     *
+     * @param key The key used to sign and verify the signature.
+     * @param signatureUtil Ignored, signatures are made with the {@link CryptoPrimitives} of the calling thread.
+     * @deprecated Use {@link #RSASigningHandler(Key)} instead.
+     */
+    @Deprecated
+    public RSASigningHandler(Key key, SignatureUtil signatureUtil) {
+        this(key);
     }
 
     /**
@@ -58,16 +69,7 @@ public class RSASigningHandler implements SigningHandler {
      */
     @Override
     public byte[] sign(JwsAlgorithm algorithm, String data) {
-        validateAlgorithm(algorithm);
-        try {
-            Reject.ifFalse(key instanceof PrivateKey, "RSA requires private key for signing.");
-            return signatureUtil.sign((PrivateKey) key, algorithm.getAlgorithm(), data);
-        } catch (SignatureException e) {
-            if (e.getCause() != null && e.getCause().getClass().isAssignableFrom(NoSuchAlgorithmException.class)) {
-                throw new JwsSigningException("Unsupported Signing Algorithm, " + algorithm.getAlgorithm(), e);
-            }
-            throw new JwsSigningException(e);
-        }
+        return sign(algorithm, data.getBytes(Utils.CHARSET));
     }
 
     /**
@@ -78,8 +80,7 @@ public class RSASigningHandler implements SigningHandler {
         validateAlgorithm(algorithm);
         try {
             Reject.ifFalse(key instanceof PrivateKey, "RSA requires private key for signing.");
-            Signature signature = Signature.getInstance(algorithm.getAlgorithm());
-            signature.initSign((PrivateKey) key);
+            Signature signature = CryptoPrimitives.signer(algorithm.getAlgorithm(), (PrivateKey) key);
             signature.update(data);
             return signature.sign();
         } catch (SignatureException | InvalidKeyException e) {
@@ -97,13 +98,32 @@ public class RSASigningHandler implements SigningHandler {
         validateAlgorithm(algorithm);
         try {
             Reject.ifFalse(key instanceof PublicKey, "RSA requires public key for signature verification.");
-            return signatureUtil.verify((PublicKey) key, algorithm.getAlgorithm(),
-                    new String(data, Utils.CHARSET), signature);
-        } catch (SignatureException e) {
-            if (e.getCause() != null && e.getCause().getClass().isAssignableFrom(NoSuchAlgorithmException.class)) {
-                throw new JwsVerifyingException("Unsupported Signing Algorithm, " + algorithm.getAlgorithm(), e);
-            }
+            Signature verifier = CryptoPrimitives.verifier(algorithm.getAlgorithm(), (PublicKey) key);
+            verifier.update(data);
+            return verifier.verify(signature);
+        } catch (SignatureException | InvalidKeyException e) {
             throw new JwsVerifyingException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new JwsVerifyingException("Unsupported Signing Algorithm, " + algorithm.getAlgorithm(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SignatureVerifier newSignatureVerifier(JwsAlgorithm algorithm) {
+        validateAlgorithm(algorithm);
+        Reject.ifFalse(key instanceof PublicKey, "RSA requires public key for signature verification.");
+        try {
+            // The verifier outlives this call, while the thread's pooled signature may be used by the caller in between
+            final Signature verifier = Signature.getInstance(algorithm.getAlgorithm());
+            verifier.initVerify((PublicKey) key);
+            return new SignatureBasedVerifier(verifier);
+        } catch (InvalidKeyException e) {
+            throw new JwsVerifyingException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new JwsVerifyingException("Unsupported Signing Algorithm, " + algorithm.getAlgorithm(), e);
         }
     }
 
@@ -0,0 +1,52 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose.jws.handlers;
+
+import java.security.Signature;
+import java.security.SignatureException;
+
+import org.forgerock.json.jose.exceptions.JwsVerifyingException;
+
+/**
+ * A {@link SignatureVerifier} updating a {@link Signature} initialised for verification.
+ */
+class SignatureBasedVerifier extends SignatureVerifier {
+
+    private final Signature signature;
+
+    SignatureBasedVerifier(final Signature signature) {
+        this.signature = signature;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+        try {
+            signature.update(b, off, len);
+        } catch (SignatureException e) {
+            throw new JwsVerifyingException(e);
+        }
+    }
+
+    @Override
+    public boolean verify(final byte[] signatureBytes) {
+        try {
+            return signature.verify(signatureBytes);
+        } catch (SignatureException e) {
+            throw new JwsVerifyingException(e);
+        }
+    }
+}
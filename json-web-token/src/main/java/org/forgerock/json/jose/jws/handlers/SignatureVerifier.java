@@ -0,0 +1,77 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose.jws.handlers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+
+import org.forgerock.json.jose.jws.JwsAlgorithm;
+
+/**
+ * Verifies the signature of data written to it in chunks, so that the signing input of a large JWS does not need to
+ * be held in memory as a whole.
+ * <p>
+ * A verifier must only be used by the thread which created it, and must not be used once the same thread has
+ * signed or verified other data with the same algorithm.
+ *
+ * @see StreamingSigningHandler
+ */
+public abstract class SignatureVerifier extends OutputStream {
+
+    /**
+     * Returns a verifier of signatures created with the given algorithm for the signing handler. If the signing
+     * handler is not a {@link StreamingSigningHandler}, the data written is buffered and verified as a whole.
+     *
+     * @param signingHandler The signing handler.
+     * @param algorithm The JwsAlgorithm defining the Java Cryptographic algorithm.
+     * @return A verifier.
+     */
+    public static SignatureVerifier newInstance(final SigningHandler signingHandler, final JwsAlgorithm algorithm) {
+        if (signingHandler instanceof StreamingSigningHandler) {
+            return ((StreamingSigningHandler) signingHandler).newSignatureVerifier(algorithm);
+        }
+        return new SignatureVerifier() {
+            private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                data.write(b, off, len);
+            }
+
+            @Override
+            public boolean verify(final byte[] signature) {
+                return signingHandler.verify(algorithm, data.toByteArray(), signature);
+            }
+        };
+    }
+
+    @Override
+    public void write(final int b) {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public abstract void write(byte[] b, int off, int len);
+
+    /**
+     * Verifies that the given signature is valid for the data written.
+     *
+     * @param signature The signature of the data.
+     * @return <code>true</code> if the signature is a valid signature of the data.
+     */
+    public abstract boolean verify(byte[] signature);
+}
@@ -0,0 +1,33 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose.jws.handlers;
+
+import org.forgerock.json.jose.jws.JwsAlgorithm;
+
+/**
+ * A {@link SigningHandler} which can also verify signatures of data given in chunks.
+ */
+public interface StreamingSigningHandler extends SigningHandler {
+
+    /**
+     * Returns a verifier of signatures created with the given algorithm, to which the signed data is written.
+     *
+     * @param algorithm The JwsAlgorithm defining the Java Cryptographic algorithm.
+     * @return A verifier, which must only be used by the calling thread.
+     */
+    SignatureVerifier newSignatureVerifier(JwsAlgorithm algorithm);
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2017 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.jose.tokenhandler;
@@ -31,12 +32,14 @@ import org.forgerock.json.jose.jwe.EncryptionMethod;
 import org.forgerock.json.jose.jwe.JweAlgorithm;
 import org.forgerock.json.jose.jws.JwsAlgorithm;
 import org.forgerock.json.jose.jws.SignedEncryptedJwt;
+import org.forgerock.json.jose.jws.VerifiedJwtCache;
 import org.forgerock.json.jose.jws.handlers.SigningHandler;
 import org.forgerock.json.jose.jwt.JwtClaimsSet;
 import org.forgerock.tokenhandler.ExpiredTokenException;
 import org.forgerock.tokenhandler.InvalidTokenException;
 import org.forgerock.tokenhandler.TokenHandler;
 import org.forgerock.tokenhandler.TokenHandlerException;
+import org.forgerock.util.Function;
 import org.forgerock.util.Reject;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -55,6 +58,23 @@ public final class JwtTokenHandler implements TokenHandler {
     private final JwsAlgorithm jwsAlgorithm;
     private final SigningHandler jwsHandler;
     private final Optional<Long> tokenLifeTimeInSeconds;
+    private final VerifiedJwtCache verifiedJwtCache;
+
+    private final Function<String, JwtClaimsSet, InvalidTokenException> verifyAndDecrypt =
+            new Function<String, JwtClaimsSet, InvalidTokenException>() {
+                @Override
+                public JwtClaimsSet apply(String snapshotToken) throws InvalidTokenException {
+                    SignedEncryptedJwt signedEncryptedJwt = jwtBuilderFactory
+                            .reconstruct(snapshotToken, SignedEncryptedJwt.class);
+
+                    if (!signedEncryptedJwt.verify(jwsHandler)) {
+                        throw new InvalidTokenException("Invalid token");
+                    }
+
+                    signedEncryptedJwt.decrypt(jweKeyPair.getPrivate());
+                    return signedEncryptedJwt.getClaimsSet();
+                }
+            };
 
     /**
      * Constructs a new JWT token handler that never expires.
@@ -93,6 +113,31 @@ public final class JwtTokenHandler implements TokenHandler {
      */
     public JwtTokenHandler(JweAlgorithm jweAlgorithm, EncryptionMethod jweMethod, KeyPair jweKeyPair,
             JwsAlgorithm jwsAlgorithm, SigningHandler jwsHandler, Optional<Long> tokenLifeTimeInSeconds) {
+        this(jweAlgorithm, jweMethod, jweKeyPair, jwsAlgorithm, jwsHandler, tokenLifeTimeInSeconds, null);
+    }
+
+    /**
+     * Constructs a new JWT token handler, which caches the tokens it validates so that a token validated again is
+     * neither verified nor decrypted again.
+     *
+     * @param jweAlgorithm
+     *         the JWE algorithm use to construct the key pair
+     * @param jweMethod
+     *         the encryption method to use
+     * @param jweKeyPair
+     *         key pair for the purpose of encryption
+     * @param jwsAlgorithm
+     *         the JWS algorithm to use
+     * @param jwsHandler
+     *         the signing handler
+     * @param tokenLifeTimeInSeconds
+     *         token life time in seconds
+     * @param verifiedJwtCache
+     *         the cache of the validated tokens, or {@code null} to validate each token each time
+     */
+    public JwtTokenHandler(JweAlgorithm jweAlgorithm, EncryptionMethod jweMethod, KeyPair jweKeyPair,
+            JwsAlgorithm jwsAlgorithm, SigningHandler jwsHandler, Optional<Long> tokenLifeTimeInSeconds,
+            VerifiedJwtCache verifiedJwtCache) {
         Reject.ifNull(jweAlgorithm, jweMethod, jweKeyPair, jwsAlgorithm, jwsHandler);
         Reject.ifTrue(tokenLifeTimeInSeconds.isPresent() && tokenLifeTimeInSeconds.get() <= 0);
         jwtBuilderFactory = new JwtBuilderFactory();
@@ -102,6 +147,7 @@ public final class JwtTokenHandler implements TokenHandler {
         this.jwsAlgorithm = jwsAlgorithm;
         this.jwsHandler = jwsHandler;
         this.tokenLifeTimeInSeconds = tokenLifeTimeInSeconds;
+        this.verifiedJwtCache = verifiedJwtCache;
     }
 
     @Override
@@ -157,16 +203,9 @@ public final class JwtTokenHandler implements TokenHandler {
 
     private JwtClaimsSet validateAndExtractClaims(String snapshotToken) throws TokenHandlerException {
         try {
-            SignedEncryptedJwt signedEncryptedJwt = jwtBuilderFactory
-                    .reconstruct(snapshotToken, SignedEncryptedJwt.class);
-
-            if (!signedEncryptedJwt.verify(jwsHandler)) {
-                throw new InvalidTokenException("Invalid token");
-            }
-
-            signedEncryptedJwt.decrypt(jweKeyPair.getPrivate());
-
-            JwtClaimsSet claimsSet = signedEncryptedJwt.getClaimsSet();
+            JwtClaimsSet claimsSet = verifiedJwtCache != null
+                    ? verifiedJwtCache.verify(snapshotToken, jwsHandler, verifyAndDecrypt)
+                    : verifyAndDecrypt.apply(snapshotToken);
             Date expirationTime = claimsSet.getExpirationTime();
 
             if (expirationTime != null && expirationTime.before(new Date())) {
@@ -0,0 +1,99 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose.utils;
+
+import org.forgerock.json.jose.exceptions.InvalidJwtException;
+
+/**
+ * A view of the ASCII text encoded in a base64url segment of a character sequence, decoded as it is read, so that
+ * a JWT nested in another one can be read without being decoded in memory first.
+ * <p>
+ * Each character of the view is the byte at the same index of the decoded segment. Reading the characters in order
+ * decodes each group of four base64url characters once. This class is not thread-safe.
+ */
+public final class Base64urlDecodedCharSequence implements CharSequence {
+
+    private final CharSequence encoded;
+    private final int start;
+    private final int end;
+    private final int length;
+    private final byte[] group = new byte[3];
+    private int groupIndex = -1;
+
+    /**
+     * Constructs a view of the base64url characters between the given indexes of a character sequence.
+     *
+     * @param encoded The character sequence.
+     * @param start The index of the first base64url character.
+     * @param end The index following the last base64url character.
+     */
+    public Base64urlDecodedCharSequence(final CharSequence encoded, final int start, final int end) {
+        final int encodedLength = end - start;
+        if (encodedLength % 4 == 1) {
+            throw new InvalidJwtException("Truncated base64url value");
+        }
+        this.encoded = encoded;
+        this.start = start;
+        this.end = end;
+        this.length = encodedLength / 4 * 3 + Math.max(encodedLength % 4 - 1, 0);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        final int groupOfIndex = index / 3;
+        if (groupOfIndex != groupIndex) {
+            decodeGroup(groupOfIndex);
+        }
+        return (char) (group[index % 3] & 0xFF);
+    }
+
+    private void decodeGroup(final int index) {
+        final int groupStart = start + index * 4;
+        final int groupEnd = Math.min(groupStart + 4, end);
+        int bits = 0;
+        for (int i = groupStart; i < groupEnd; i++) {
+            bits = (bits << 6) | Base64urlDecodingOutputStream.valueOf(encoded.charAt(i));
+        }
+        bits <<= 6 * (4 - (groupEnd - groupStart));
+        group[0] = (byte) (bits >> 16);
+        group[1] = (byte) (bits >> 8);
+        group[2] = (byte) bits;
+        groupIndex = index;
+    }
+
+    @Override
+    public CharSequence subSequence(final int subStart, final int subEnd) {
+        return toString().substring(subStart, subEnd);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(charAt(i));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose.utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.forgerock.json.jose.exceptions.InvalidJwtException;
+
+/**
+ * An output stream decoding the base64url characters written to it, as ASCII bytes, and writing the decoded bytes to
+ * another output stream, so that a base64url segment of a JWT can be decoded in chunks rather than as a whole.
+ * <p>
+ * The characters may be written in chunks of any size: the bits of a chunk not making a whole byte are kept until
+ * the next chunk is written. Padding characters are not allowed, as in the compact serialisation of a JWT.
+ * {@link #finish()} must be called once all the characters have been written.
+ */
+public final class Base64urlDecodingOutputStream extends OutputStream {
+
+    private static final int BUFFER_SIZE = 3 * 1024;
+
+    /** The 6-bit value of each base64url character, or -1 for the other characters. */
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        for (int i = 0; i < VALUES.length; i++) {
+            VALUES[i] = -1;
+        }
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int length;
+    private int bits;
+    private int bitCount;
+
+    /**
+     * Constructs a stream writing the decoded bytes to the given stream.
+     *
+     * @param out The stream to write the decoded bytes to.
+     */
+    public Base64urlDecodingOutputStream(final OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        decode(b);
+        if (length == BUFFER_SIZE) {
+            flushBuffer();
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            decode(b[i]);
+            if (length == BUFFER_SIZE) {
+                flushBuffer();
+            }
+        }
+    }
+
+    private void decode(final int b) {
+        bits = (bits << 6) | valueOf(b & 0xFF);
+        bitCount += 6;
+        if (bitCount >= 8) {
+            bitCount -= 8;
+            buffer[length++] = (byte) (bits >> bitCount);
+            bits &= (1 << bitCount) - 1;
+        }
+    }
+
+    /**
+     * Returns the 6-bit value of a base64url character.
+     *
+     * @param c The character.
+     * @return The value of the character.
+     * @throws InvalidJwtException If the character is not a base64url character.
+     */
+    static int valueOf(final int c) {
+        final int value = c < VALUES.length ? VALUES[c] : -1;
+        if (value < 0) {
+            throw new InvalidJwtException("Invalid base64url character, " + (char) c);
+        }
+        return value;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (length > 0) {
+            out.write(buffer, 0, length);
+            length = 0;
+        }
+    }
+
+    /**
+     * Writes the bytes decoded so far to the underlying stream, and checks that the characters written make whole
+     * bytes, without closing the underlying stream. The stream may be used again afterwards to decode another
+     * base64url value.
+     *
+     * @throws IOException If the decoded bytes cannot be written.
+     * @throws InvalidJwtException If the characters written do not make whole bytes.
+     */
+    public void finish() throws IOException {
+        final int remainingBitCount = bitCount;
+        bits = 0;
+        bitCount = 0;
+        if (remainingBitCount >= 6) {
+            length = 0;
+            throw new InvalidJwtException("Truncated base64url value");
+        }
+        flushBuffer();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.forgerock.json.jose.jwe.EncryptionMethod;
+import org.forgerock.json.jose.jwe.JweEncryption;
+import org.forgerock.json.jose.jwe.handlers.encryption.DirectEncryptionHandler;
+import org.forgerock.json.jose.jws.JwsAlgorithm;
+import org.forgerock.json.jose.jws.handlers.ECDSASigningHandler;
+import org.forgerock.json.jose.jws.handlers.HmacSigningHandler;
+import org.forgerock.json.jose.jws.handlers.RSASigningHandler;
+import org.forgerock.json.jose.jws.handlers.SigningHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures signing and verifying the signing input of a typical JWT with HS256, RS256 and ES256, and encrypting and
+ * decrypting its claims with A128GCM and A256CBC-HS512. {@link #hs256SignWithNewMac} signs as each JWT was before
+ * the crypto primitives were reused, for comparison with {@link #hs256Sign}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class JoseCryptoBenchmark {
+
+    private static final byte[] SECRET = new byte[32];
+    private static final byte[] SIGNING_INPUT = ("eyJ0eXAiOiJKV1QiLCJhbGciOiJIUzI1NiJ9."
+            + "eyJzdWIiOiJiamVuc2VuIiwiaXNzIjoiaHR0cHM6Ly9vcGVuYW0uZXhhbXBsZS5jb20iLCJleHAiOjE4OTM0NTYwMDB9")
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CLAIMS = "{\"sub\":\"bjensen\",\"iss\":\"https://openam.example.com\"}"
+            .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] AAD = "eyJhbGciOiJkaXIiLCJlbmMiOiJBMTI4R0NNIn0".getBytes(StandardCharsets.US_ASCII);
+
+    private SigningHandler hmac;
+    private byte[] hs256Signature;
+    private SigningHandler rsaSigner;
+    private SigningHandler rsaVerifier;
+    private byte[] rs256Signature;
+    private SigningHandler ecSigner;
+    private SigningHandler ecVerifier;
+    private byte[] es256Signature;
+    private Encryption a128gcm;
+    private Encryption a256cbcHs512;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        hmac = new HmacSigningHandler(SECRET);
+        hs256Signature = hmac.sign(JwsAlgorithm.HS256, SIGNING_INPUT);
+
+        KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaGenerator.initialize(2048);
+        KeyPair rsaKeyPair = rsaGenerator.generateKeyPair();
+        rsaSigner = new RSASigningHandler(rsaKeyPair.getPrivate());
+        rsaVerifier = new RSASigningHandler(rsaKeyPair.getPublic());
+        rs256Signature = rsaSigner.sign(JwsAlgorithm.RS256, SIGNING_INPUT);
+
+        KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+        ecGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair ecKeyPair = ecGenerator.generateKeyPair();
+        ecSigner = new ECDSASigningHandler((ECPrivateKey) ecKeyPair.getPrivate());
+        ecVerifier = new ECDSASigningHandler((ECPublicKey) ecKeyPair.getPublic());
+        es256Signature = ecSigner.sign(JwsAlgorithm.ES256, SIGNING_INPUT);
+
+        a128gcm = new Encryption(EncryptionMethod.A128GCM);
+        a256cbcHs512 = new Encryption(EncryptionMethod.A256CBC_HS512);
+    }
+
+    @Benchmark
+    public byte[] hs256Sign() {
+        return hmac.sign(JwsAlgorithm.HS256, SIGNING_INPUT);
+    }
+
+    @Benchmark
+    public byte[] hs256SignWithNewMac() throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET, "HMACSHA256"));
+        return mac.doFinal(SIGNING_INPUT);
+    }
+
+    @Benchmark
+    public boolean hs256Verify() {
+        return hmac.verify(JwsAlgorithm.HS256, SIGNING_INPUT, hs256Signature);
+    }
+
+    @Benchmark
+    public byte[] rs256Sign() {
+        return rsaSigner.sign(JwsAlgorithm.RS256, SIGNING_INPUT);
+    }
+
+    @Benchmark
+    public boolean rs256Verify() {
+        return rsaVerifier.verify(JwsAlgorithm.RS256, SIGNING_INPUT, rs256Signature);
+    }
+
+    @Benchmark
+    public byte[] es256Sign() {
+        return ecSigner.sign(JwsAlgorithm.ES256, SIGNING_INPUT);
+    }
+
+    @Benchmark
+    public boolean es256Verify() {
+        return ecVerifier.verify(JwsAlgorithm.ES256, SIGNING_INPUT, es256Signature);
+    }
+
+    @Benchmark
+    public JweEncryption a128gcmEncrypt() {
+        return a128gcm.encrypt();
+    }
+
+    @Benchmark
+    public byte[] a128gcmDecrypt() {
+        return a128gcm.decrypt();
+    }
+
+    @Benchmark
+    public JweEncryption a256cbcHs512Encrypt() {
+        return a256cbcHs512.encrypt();
+    }
+
+    @Benchmark
+    public byte[] a256cbcHs512Decrypt() {
+        return a256cbcHs512.decrypt();
+    }
+
+    /** Encrypts the claims with a content encryption method, and decrypts them once encrypted. */
+    private static final class Encryption {
+        private final DirectEncryptionHandler handler;
+        private final Key key;
+        private final byte[] iv;
+        private final JweEncryption encrypted;
+
+        private Encryption(EncryptionMethod method) {
+            handler = new DirectEncryptionHandler(method);
+            key = new SecretKeySpec(new byte[method.getKeySize() / 8], method.getEncryptionAlgorithm());
+            iv = handler.generateInitialisationVector();
+            encrypted = handler.encryptPlaintext(key, iv, CLAIMS, AAD);
+        }
+
+        private JweEncryption encrypt() {
+            // a new IV each time, as GCM refuses to encrypt twice with the same key and IV
+            return handler.encryptPlaintext(key, handler.generateInitialisationVector(), CLAIMS, AAD);
+        }
+
+        private byte[] decrypt() {
+            return handler.decryptCiphertext(key, iv, encrypted.getCiphertext(), encrypted.getAuthenticationTag(),
+                    AAD);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(JoseCryptoBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.forgerock.json.jose.builders.JwtBuilderFactory;
+import org.forgerock.json.jose.common.JwtReconstruction;
+import org.forgerock.json.jose.common.StreamingJwtReconstruction;
+import org.forgerock.json.jose.jwe.EncryptedJwt;
+import org.forgerock.json.jose.jwe.EncryptionMethod;
+import org.forgerock.json.jose.jwe.JweAlgorithm;
+import org.forgerock.json.jose.jwe.JweHeader;
+import org.forgerock.json.jose.jws.JwsAlgorithm;
+import org.forgerock.json.jose.jws.JwsHeader;
+import org.forgerock.json.jose.jws.SignedJwt;
+import org.forgerock.json.jose.jws.handlers.HmacSigningHandler;
+import org.forgerock.json.jose.jws.handlers.SigningHandler;
+import org.forgerock.json.jose.jwt.JwtClaimsSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares verifying an HS256 JWS, and decrypting a dir/A128CBC-HS256 JWE, whose claims are 1 KB, 100 KB and 1 MB
+ * long, with {@link JwtReconstruction}, which holds each segment, its decoded bytes and the claims in memory, and
+ * with {@link StreamingJwtReconstruction}, writing the payload to a stream discarding it.
+ * <p>
+ * The benchmarks are run with the GC profiler: its {@code gc.alloc.rate.norm} result is the number of bytes
+ * allocated by each operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class StreamingJwtBenchmark {
+
+    private static final byte[] SECRET = new byte[32];
+
+    /** Discards the payload written to it. */
+    private static final OutputStream DISCARD = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    @Param({ "1024", "102400", "1048576" })
+    private int claimsSize;
+
+    private SigningHandler signingHandler;
+    private Key key;
+    private String jws;
+    private byte[] jwsBytes;
+    private String jwe;
+    private StreamingJwtReconstruction streamingReconstruction;
+
+    @Setup
+    public void setup() {
+        char[] value = new char[claimsSize];
+        Arrays.fill(value, 'x');
+        JwtBuilderFactory jwtBuilderFactory = new JwtBuilderFactory();
+        JwtClaimsSet claims = jwtBuilderFactory.claims().claim("data", new String(value)).build();
+
+        signingHandler = new HmacSigningHandler(SECRET);
+        jws = jwtBuilderFactory.jws(signingHandler)
+                .headers()
+                    .alg(JwsAlgorithm.HS256)
+                .done()
+                .claims(claims)
+                .build();
+        jwsBytes = jws.getBytes(StandardCharsets.US_ASCII);
+
+        key = new SecretKeySpec(new byte[32], "AES");
+        jwe = jwtBuilderFactory.jwe(key)
+                .headers()
+                    .alg(JweAlgorithm.DIRECT)
+                    .enc(EncryptionMethod.A128CBC_HS256)
+                .done()
+                .claims(claims)
+                .build();
+
+        streamingReconstruction = new StreamingJwtReconstruction();
+    }
+
+    @Benchmark
+    public JwtClaimsSet jwsReconstructAndVerify() {
+        SignedJwt signedJwt = new JwtReconstruction().reconstructJwt(jws, SignedJwt.class);
+        if (!signedJwt.verify(signingHandler)) {
+            throw new IllegalStateException("Invalid signature");
+        }
+        return signedJwt.getClaimsSet();
+    }
+
+    @Benchmark
+    public JwsHeader jwsStreamingVerify() throws IOException {
+        return streamingReconstruction.verifySignedJwt(jws, signingHandler, DISCARD);
+    }
+
+    @Benchmark
+    public JwsHeader jwsStreamingVerifyFromStream() throws IOException {
+        return streamingReconstruction.verifySignedJwt(new ByteArrayInputStream(jwsBytes), signingHandler, DISCARD);
+    }
+
+    @Benchmark
+    public JwtClaimsSet jweReconstructAndDecrypt() {
+        EncryptedJwt encryptedJwt = new JwtReconstruction().reconstructJwt(jwe, EncryptedJwt.class);
+        encryptedJwt.decrypt(key);
+        return encryptedJwt.getClaimsSet();
+    }
+
+    @Benchmark
+    public JweHeader jweStreamingDecrypt() throws IOException {
+        return streamingReconstruction.decryptEncryptedJwt(jwe, key, DISCARD);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(StreamingJwtBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
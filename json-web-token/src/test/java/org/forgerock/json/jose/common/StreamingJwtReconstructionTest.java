@@ -0,0 +1,292 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.util.Arrays;
+
+import org.forgerock.json.jose.builders.JwtBuilderFactory;
+import org.forgerock.json.jose.exceptions.InvalidJwtException;
+import org.forgerock.json.jose.exceptions.JweDecryptionException;
+import org.forgerock.json.jose.exceptions.JwsVerifyingException;
+import org.forgerock.json.jose.helper.KeysHelper;
+import org.forgerock.json.jose.jwe.CompressionAlgorithm;
+import org.forgerock.json.jose.jwe.EncryptionMethod;
+import org.forgerock.json.jose.jwe.JweAlgorithm;
+import org.forgerock.json.jose.jwe.JweHeader;
+import org.forgerock.json.jose.jws.JwsAlgorithm;
+import org.forgerock.json.jose.jws.JwsHeader;
+import org.forgerock.json.jose.jws.SigningManager;
+import org.forgerock.json.jose.jws.handlers.SigningHandler;
+import org.forgerock.json.jose.jwt.JwtClaimsSet;
+import org.forgerock.json.jose.utils.Utils;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class StreamingJwtReconstructionTest {
+
+    private static final String CLAIM_KEY = "claim-key";
+
+    private JwtBuilderFactory jwtBuilderFactory;
+    private StreamingJwtReconstruction reconstruction;
+    private JwtClaimsSet claims;
+
+    @BeforeClass
+    public void setUp() {
+        jwtBuilderFactory = new JwtBuilderFactory();
+        reconstruction = new StreamingJwtReconstruction();
+        char[] value = new char[20000];
+        Arrays.fill(value, 'x');
+        claims = jwtBuilderFactory.claims().claim(CLAIM_KEY, new String(value)).build();
+    }
+
+    @DataProvider
+    public Object[][] signingAlgorithms() throws Exception {
+        SigningManager signingManager = new SigningManager();
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(256);
+        KeyPair ecKeyPair = generator.generateKeyPair();
+        return new Object[][] {
+            { JwsAlgorithm.HS256, signingManager.newHmacSigningHandler(new byte[32]),
+                signingManager.newHmacSigningHandler(new byte[32]) },
+            { JwsAlgorithm.RS256, signingManager.newRsaSigningHandler(KeysHelper.getRSAPrivateKey()),
+                signingManager.newRsaSigningHandler(KeysHelper.getRSAPublicKey()) },
+            { JwsAlgorithm.ES256, signingManager.newEcdsaSigningHandler((ECPrivateKey) ecKeyPair.getPrivate()),
+                signingManager.newEcdsaVerificationHandler((ECPublicKey) ecKeyPair.getPublic()) },
+        };
+    }
+
+    @Test(dataProvider = "signingAlgorithms")
+    public void canVerifySignedJwt(JwsAlgorithm algorithm, SigningHandler signingHandler,
+            SigningHandler verificationHandler) throws Exception {
+        // Given
+        String jwt = signedJwt(algorithm, signingHandler, CompressionAlgorithm.NONE);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+
+        // When
+        JwsHeader header = reconstruction.verifySignedJwt(jwt, verificationHandler, payload);
+
+        // Then
+        assertThat(header.getAlgorithm()).isEqualTo(algorithm);
+        assertThat(claimOf(payload)).isEqualTo(claims.getClaim(CLAIM_KEY));
+    }
+
+    @Test(dataProvider = "signingAlgorithms")
+    public void canVerifySignedJwtFromStream(JwsAlgorithm algorithm, SigningHandler signingHandler,
+            SigningHandler verificationHandler) throws Exception {
+        // Given
+        String jwt = signedJwt(algorithm, signingHandler, CompressionAlgorithm.NONE);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+
+        // When
+        reconstruction.verifySignedJwt(streamOf(jwt), verificationHandler, payload);
+
+        // Then
+        assertThat(claimOf(payload)).isEqualTo(claims.getClaim(CLAIM_KEY));
+    }
+
+    @Test
+    public void canVerifyCompressedSignedJwt() throws Exception {
+        // Given
+        SigningHandler signingHandler = new SigningManager().newHmacSigningHandler(new byte[32]);
+        String jwt = signedJwt(JwsAlgorithm.HS256, signingHandler, CompressionAlgorithm.DEF);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        ByteArrayOutputStream streamedPayload = new ByteArrayOutputStream();
+
+        // When
+        reconstruction.verifySignedJwt(jwt, signingHandler, payload);
+        reconstruction.verifySignedJwt(streamOf(jwt), signingHandler, streamedPayload);
+
+        // Then
+        assertThat(claimOf(payload)).isEqualTo(claims.getClaim(CLAIM_KEY));
+        assertThat(claimOf(streamedPayload)).isEqualTo(claims.getClaim(CLAIM_KEY));
+    }
+
+    @Test
+    public void shouldNotWritePayloadOfSignedJwtWithInvalidSignature() throws Exception {
+        // Given
+        String jwt = signedJwt(JwsAlgorithm.HS256, new SigningManager().newHmacSigningHandler(new byte[32]),
+                CompressionAlgorithm.NONE);
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+
+        // When
+        try {
+            reconstruction.verifySignedJwt(jwt, new SigningManager().newHmacSigningHandler(new byte[] { 1 }),
+                    payload);
+            throw new AssertionError("Expected the signature to be invalid");
+        } catch (JwsVerifyingException e) {
+            // Then
+            assertThat(payload.size()).isZero();
+        }
+    }
+
+    @Test(expectedExceptions = JwsVerifyingException.class)
+    public void shouldRejectSignedJwtFromStreamWithInvalidSignature() throws Exception {
+        String jwt = signedJwt(JwsAlgorithm.HS256, new SigningManager().newHmacSigningHandler(new byte[32]),
+                CompressionAlgorithm.NONE);
+
+        reconstruction.verifySignedJwt(streamOf(jwt), new SigningManager().newHmacSigningHandler(new byte[] { 1 }),
+                new ByteArrayOutputStream());
+    }
+
+    @Test(expectedExceptions = InvalidJwtException.class)
+    public void shouldRejectSignedJwtWithWrongNumberOfParts() throws Exception {
+        reconstruction.verifySignedJwt("a.b.c.d", new SigningManager().newNopSigningHandler(),
+                new ByteArrayOutputStream());
+    }
+
+    @DataProvider
+    public Object[][] encryptionMethods() {
+        return new Object[][] {
+            { JweAlgorithm.RSAES_PKCS1_V1_5, EncryptionMethod.A128CBC_HS256 },
+            { JweAlgorithm.RSA_OAEP, EncryptionMethod.A256CBC_HS512 },
+            { JweAlgorithm.RSA_OAEP_256, EncryptionMethod.A128GCM },
+        };
+    }
+
+    @Test(dataProvider = "encryptionMethods")
+    public void canDecryptEncryptedJwt(JweAlgorithm algorithm, EncryptionMethod method) throws Exception {
+        // Given
+        String jwt = encryptedJwt(algorithm, method, CompressionAlgorithm.NONE);
+        ByteArrayOutputStream plaintext = new ByteArrayOutputStream();
+        ByteArrayOutputStream streamedPlaintext = new ByteArrayOutputStream();
+
+        // When
+        JweHeader header = reconstruction.decryptEncryptedJwt(jwt, KeysHelper.getRSAPrivateKey(), plaintext);
+        reconstruction.decryptEncryptedJwt(streamOf(jwt), KeysHelper.getRSAPrivateKey(), streamedPlaintext);
+
+        // Then
+        assertThat(header.getEncryptionMethod()).isEqualTo(method);
+        assertThat(claimOf(plaintext)).isEqualTo(claims.getClaim(CLAIM_KEY));
+        assertThat(claimOf(streamedPlaintext)).isEqualTo(claims.getClaim(CLAIM_KEY));
+    }
+
+    @Test
+    public void canDecryptCompressedEncryptedJwt() throws Exception {
+        // Given
+        String jwt = encryptedJwt(JweAlgorithm.RSA_OAEP, EncryptionMethod.A128GCM, CompressionAlgorithm.DEF);
+        ByteArrayOutputStream plaintext = new ByteArrayOutputStream();
+
+        // When
+        reconstruction.decryptEncryptedJwt(streamOf(jwt), KeysHelper.getRSAPrivateKey(), plaintext);
+
+        // Then
+        assertThat(claimOf(plaintext)).isEqualTo(claims.getClaim(CLAIM_KEY));
+    }
+
+    @Test(dataProvider = "encryptionMethods", expectedExceptions = JweDecryptionException.class)
+    public void shouldRejectEncryptedJwtWithInvalidAuthenticationTag(JweAlgorithm algorithm,
+            EncryptionMethod method) throws Exception {
+        String jwt = encryptedJwt(algorithm, method, CompressionAlgorithm.NONE);
+        int tag = jwt.lastIndexOf('.') + 1;
+        String tampered = jwt.substring(0, tag) + (jwt.charAt(tag) == 'A' ? 'B' : 'A') + jwt.substring(tag + 1);
+
+        reconstruction.decryptEncryptedJwt(tampered, KeysHelper.getRSAPrivateKey(), new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void canDecryptEncryptedJwtIntoStreamUsingSameEncryptionMethod() throws Exception {
+        // Given
+        String jwt = encryptedJwt(JweAlgorithm.RSA_OAEP, EncryptionMethod.A128CBC_HS256, CompressionAlgorithm.NONE);
+        final ByteArrayOutputStream plaintext = new ByteArrayOutputStream();
+        OutputStream encryptingPlaintext = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // uses the MAC and cipher of A128CBC-HS256 while the JWE is being decrypted
+                encryptedJwt(JweAlgorithm.RSA_OAEP, EncryptionMethod.A128CBC_HS256, CompressionAlgorithm.NONE);
+                plaintext.write(b, off, len);
+            }
+        };
+
+        // When
+        reconstruction.decryptEncryptedJwt(streamOf(jwt), KeysHelper.getRSAPrivateKey(), encryptingPlaintext);
+
+        // Then
+        assertThat(claimOf(plaintext)).isEqualTo(claims.getClaim(CLAIM_KEY));
+    }
+
+    @Test
+    public void canVerifyAndDecryptSignedEncryptedJwt() throws Exception {
+        // Given
+        SigningHandler signingHandler = new SigningManager().newRsaSigningHandler(KeysHelper.getRSAPrivateKey());
+        SigningHandler verificationHandler = new SigningManager().newRsaSigningHandler(KeysHelper.getRSAPublicKey());
+        String jwt = jwtBuilderFactory.jwe(KeysHelper.getRSAPublicKey())
+                .headers()
+                    .alg(JweAlgorithm.RSA_OAEP)
+                    .enc(EncryptionMethod.A128CBC_HS256)
+                .done()
+                .claims(claims)
+                .signedWith(signingHandler, JwsAlgorithm.RS256)
+                .build();
+        ByteArrayOutputStream plaintext = new ByteArrayOutputStream();
+
+        // When
+        JweHeader header = reconstruction.verifyAndDecryptSignedEncryptedJwt(jwt, verificationHandler,
+                KeysHelper.getRSAPrivateKey(), plaintext);
+
+        // Then
+        assertThat(header.getAlgorithm()).isEqualTo(JweAlgorithm.RSA_OAEP);
+        assertThat(claimOf(plaintext)).isEqualTo(claims.getClaim(CLAIM_KEY));
+    }
+
+    private String signedJwt(JwsAlgorithm algorithm, SigningHandler signingHandler,
+            CompressionAlgorithm compressionAlgorithm) {
+        return jwtBuilderFactory.jws(signingHandler)
+                .headers()
+                    .alg(algorithm)
+                    .zip(compressionAlgorithm)
+                .done()
+                .claims(claims)
+                .build();
+    }
+
+    private String encryptedJwt(JweAlgorithm algorithm, EncryptionMethod method,
+            CompressionAlgorithm compressionAlgorithm) {
+        return jwtBuilderFactory.jwe(KeysHelper.getRSAPublicKey())
+                .headers()
+                    .alg(algorithm)
+                    .enc(method)
+                    .zip(compressionAlgorithm)
+                .done()
+                .claims(claims)
+                .build();
+    }
+
+    private static InputStream streamOf(String jwt) {
+        return new ByteArrayInputStream(jwt.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Object claimOf(ByteArrayOutputStream payload) {
+        return Utils.parseJson(new String(payload.toByteArray(), Utils.CHARSET)).get(CLAIM_KEY);
+    }
+}
@@ -143,6 +143,20 @@ public class JWKSetTest  implements ITest {
         }
     }
 
+    @Test
+    public void testFindJWKByKidAfterReplacingTheKeys() {
+        //Given
+        JWKSet jwkSet = JWKSet.parse(jwkSetJson);
+        JWK jwk = jwksMapByKid.get("rsaJwk0");
+        assertThat(jwkSet.findJwk(jwk.getKeyId())).isNotNull();
+
+        //When
+        jwkSet.put("keys", new ArrayList<>());
+
+        //Then
+        assertThat(jwkSet.findJwk(jwk.getKeyId())).isNull();
+    }
+
     @DataProvider
     private Object[][] jwks() throws NoSuchAlgorithmException {
         final List<Object[]> results = new ArrayList<>();
@@ -34,6 +34,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.forgerock.json.jose.exceptions.FailedToLoadJWKException;
@@ -45,6 +51,8 @@ import org.forgerock.json.jose.jwk.KeyUse;
 import org.forgerock.json.jose.jwk.RsaJWK;
 import org.forgerock.json.jose.jws.JwsAlgorithm;
 import org.forgerock.util.time.Duration;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -174,4 +182,81 @@ public class JwksStoreTest {
         assertThat(jwkFound).isNotNull();
         verify(jwkSetParser, times(2)).jwkSet(jwkUrl);
     }
+
+    @Test
+    public void testConcurrentUnknownKidsAreLoadedOnce() throws Exception {
+        //Given
+        given(jwkSetParser.jwkSet(jwkUrl)).willReturn(jwkSet);
+        final JwksStore jwksStore = new JwksStore(jwksStoreID, JwksStoreService.JWKS_STORE_DEFAULT_CACHE_TIMEOUT_MS,
+                Duration.duration(0L, TimeUnit.MILLISECONDS), jwkUrl, jwkSetParser);
+        List<JWK> jwks = new ArrayList<>(jwksMapByKid.values());
+        jwks.add(extraJWK);
+        final JWKSet updatedJwkSet = new JWKSet(jwks);
+        final CountDownLatch reloading = new CountDownLatch(1);
+        final CountDownLatch lookupsStarted = new CountDownLatch(1);
+        given(jwkSetParser.jwkSet(jwkUrl)).willAnswer(new Answer<JWKSet>() {
+            @Override
+            public JWKSet answer(InvocationOnMock invocation) throws Throwable {
+                reloading.countDown();
+                lookupsStarted.await(10, TimeUnit.SECONDS);
+                return updatedJwkSet;
+            }
+        });
+
+        //When
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<JWK>> jwksFound = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                jwksFound.add(executor.submit(new Callable<JWK>() {
+                    @Override
+                    public JWK call() throws Exception {
+                        return jwksStore.findJwk(extraJWK.getKeyId());
+                    }
+                }));
+                if (i == 0) {
+                    reloading.await(10, TimeUnit.SECONDS);
+                }
+            }
+            lookupsStarted.countDown();
+
+            //then
+            for (Future<JWK> jwkFound : jwksFound) {
+                assertThat(jwkFound.get(10, TimeUnit.SECONDS).getKeyId()).isEqualTo(extraJWK.getKeyId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(jwkSetParser, times(2)).jwkSet(jwkUrl);
+    }
+
+    @Test
+    public void testRefreshAheadReloadsJwksInBackground() throws Exception {
+        //Given
+        given(jwkSetParser.jwkSet(jwkUrl)).willReturn(jwkSet);
+        ScheduledExecutorService refreshExecutor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            JwksStore jwksStore = new JwksStore(jwksStoreID, Duration.duration(100L, TimeUnit.MILLISECONDS),
+                    JwksStoreService.JWKS_STORE_DEFAULT_CACHE_MISS_CACHE_TIME_MS, jwkUrl, jwkSetParser,
+                    refreshExecutor);
+
+            //When
+            List<JWK> jwks = new ArrayList<>(jwksMapByKid.values());
+            jwks.add(extraJWK);
+            given(jwkSetParser.jwkSet(jwkUrl)).willReturn(new JWKSet(jwks));
+
+            //then
+            JWK jwkFound = null;
+            long deadline = System.currentTimeMillis() + 10_000L;
+            while (jwkFound == null && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20L);
+                jwkFound = jwksStore.findJwk(extraJWK.getKeyId());
+            }
+            assertThat(jwkFound).isNotNull();
+            jwksStore.stopRefresh();
+        } finally {
+            refreshExecutor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,237 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.jose.jws;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.util.time.Duration.duration;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.json.jose.builders.JwtBuilderFactory;
+import org.forgerock.json.jose.common.JwtReconstruction;
+import org.forgerock.json.jose.exceptions.JwsException;
+import org.forgerock.json.jose.jws.handlers.HmacSigningHandler;
+import org.forgerock.json.jose.jws.handlers.SigningHandler;
+import org.forgerock.json.jose.jwt.JwtClaimsSet;
+import org.forgerock.util.Function;
+import org.forgerock.util.time.Duration;
+import org.forgerock.util.time.TimeService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class VerifiedJwtCacheTest {
+
+    private static final long NOW = 1000000000000L;
+
+    private TimeService timeService;
+    private SigningHandler signingHandler;
+    private CountingVerifier verifier;
+    private VerifiedJwtCache cache;
+
+    @BeforeMethod
+    public void setUp() {
+        timeService = mock(TimeService.class);
+        given(timeService.now()).willReturn(NOW);
+        signingHandler = new HmacSigningHandler(new byte[32]);
+        verifier = new CountingVerifier(signingHandler);
+        cache = new VerifiedJwtCache(2, Duration.UNLIMITED, timeService);
+    }
+
+    @Test
+    public void shouldVerifyJwtOnlyOnce() {
+        String jwt = signedJwt("alice", NOW + 60000L);
+
+        JwtClaimsSet first = cache.verify(jwt, signingHandler, verifier);
+        JwtClaimsSet second = cache.verify(jwt, signingHandler, verifier);
+
+        assertThat(first.getSubject()).isEqualTo("alice");
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getSubject()).isEqualTo("alice");
+        assertThat(verifier.count).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getTimeSavedNanos()).isPositive();
+    }
+
+    @Test
+    public void shouldNotShareCachedClaimsWithCallers() {
+        String jwt = signedJwt("alice", NOW + 60000L);
+
+        cache.verify(jwt, signingHandler, verifier).setSubject("mallory");
+        cache.verify(jwt, signingHandler, verifier).setSubject("mallory");
+
+        assertThat(cache.verify(jwt, signingHandler, verifier).getSubject()).isEqualTo("alice");
+        assertThat(verifier.count).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldNotShareNestedCachedClaimsWithCallers() {
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setSubject("alice");
+        claims.setClaim("roles", object(field("app", array("read"))));
+        String jwt = new JwtBuilderFactory().jws(signingHandler).headers().alg(JwsAlgorithm.HS256).done()
+                .claims(claims).build();
+
+        for (int i = 0; i < 2; i++) {
+            Map<String, Object> roles = cache.verify(jwt, signingHandler, verifier).getClaim("roles", Map.class);
+            ((List<Object>) roles.get("app")).add("admin");
+            roles.put("other", "admin");
+        }
+
+        Map<String, Object> roles = cache.verify(jwt, signingHandler, verifier).getClaim("roles", Map.class);
+        assertThat(roles).containsOnlyKeys("app");
+        assertThat((List<Object>) roles.get("app")).containsExactly("read");
+        assertThat(verifier.count).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldVerifyJwtAgainWithAnotherSigningHandler() {
+        String jwt = signedJwt("alice", NOW + 60000L);
+        SigningHandler otherHandler = new HmacSigningHandler(new byte[32]);
+
+        cache.verify(jwt, signingHandler, verifier);
+        cache.verify(jwt, otherHandler, verifier);
+
+        assertThat(verifier.count).isEqualTo(2);
+        assertThat(cache.getHitCount()).isZero();
+    }
+
+    @Test
+    public void shouldNotCacheJwtWhichFailsToVerify() {
+        String jwt = signedJwt("alice", NOW + 60000L);
+        CountingVerifier failingVerifier = new CountingVerifier(new HmacSigningHandler(new byte[] { 1 }));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.verify(jwt, signingHandler, failingVerifier);
+            } catch (JwsException e) {
+                // expected
+            }
+        }
+
+        assertThat(failingVerifier.count).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void shouldEvictJwtOnceExpired() {
+        String jwt = signedJwt("alice", NOW + 60000L);
+        cache.verify(jwt, signingHandler, verifier);
+
+        given(timeService.now()).willReturn(NOW + 60000L);
+        cache.verify(jwt, signingHandler, verifier);
+
+        assertThat(verifier.count).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictJwtWithoutExpirationOnceOlderThanMaximumAge() {
+        cache = new VerifiedJwtCache(2, duration(1, MINUTES), timeService);
+        String jwt = signedJwt("alice", null);
+        cache.verify(jwt, signingHandler, verifier);
+
+        given(timeService.now()).willReturn(NOW + 59999L);
+        cache.verify(jwt, signingHandler, verifier);
+        given(timeService.now()).willReturn(NOW + 60000L);
+        cache.verify(jwt, signingHandler, verifier);
+
+        assertThat(verifier.count).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        String alice = signedJwt("alice", NOW + 60000L);
+        String bob = signedJwt("bob", NOW + 60000L);
+        cache.verify(alice, signingHandler, verifier);
+        cache.verify(bob, signingHandler, verifier);
+        cache.verify(alice, signingHandler, verifier);
+
+        cache.verify(signedJwt("carol", NOW + 60000L), signingHandler, verifier);
+        cache.verify(alice, signingHandler, verifier);
+        cache.verify(bob, signingHandler, verifier);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(verifier.count).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldNotGrowBeyondMaximumSize() {
+        for (int i = 0; i < 10; i++) {
+            cache.verify(signedJwt("user" + i, NOW + 60000L), signingHandler, verifier);
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(8);
+    }
+
+    @Test
+    public void shouldCacheSignatureOfReconstructedJws() {
+        String jwt = signedJwt("alice", NOW + 60000L);
+        SignedJwt first = new JwtReconstruction().reconstructJwt(jwt, SignedJwt.class);
+        SignedJwt second = new JwtReconstruction().reconstructJwt(jwt, SignedJwt.class);
+
+        assertThat(cache.verify(first, signingHandler)).isTrue();
+        assertThat(cache.verify(second, signingHandler)).isTrue();
+
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.verify(second, new HmacSigningHandler(new byte[] { 1 }))).isFalse();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    private String signedJwt(String subject, Long expirationTime) {
+        JwtClaimsSet claims = new JwtClaimsSet();
+        claims.setSubject(subject);
+        if (expirationTime != null) {
+            claims.setExpirationTime(new Date(expirationTime));
+        }
+        return new JwtBuilderFactory().jws(signingHandler).headers().alg(JwsAlgorithm.HS256).done()
+                .claims(claims).build();
+    }
+
+    /** Verifies JWTs with a signing handler and counts the verifications. */
+    private static final class CountingVerifier implements Function<String, JwtClaimsSet, JwsException> {
+
+        private final SigningHandler signingHandler;
+        private int count;
+
+        private CountingVerifier(SigningHandler signingHandler) {
+            this.signingHandler = signingHandler;
+        }
+
+        @Override
+        public JwtClaimsSet apply(String jwt) {
+            count++;
+            SignedJwt signedJwt = new JwtReconstruction().reconstructJwt(jwt, SignedJwt.class);
+            if (!signedJwt.verify(signingHandler)) {
+                throw new JwsException("Invalid signature");
+            }
+            return signedJwt.getClaimsSet();
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.resource.http;
@@ -19,6 +20,7 @@ package org.forgerock.json.resource.http;
 import static org.forgerock.json.resource.http.HttpUtils.*;
 
 import java.net.URI;
+import java.util.concurrent.Executor;
 
 import org.forgerock.json.resource.CrestApplication;
 import org.forgerock.services.context.Context;
@@ -137,6 +139,26 @@ public final class CrestHttp {
         return Handlers.chainOf(new HttpAdapter(application, factory), newOptionsFilter());
     }
 
+    /**
+     * Creates a new JSON resource HTTP handler with the provided CREST request handler, which streams the responses
+     * to queries: each query runs from the provided executor, and its response is sent from another task of the
+     * executor as soon as the first result has been written to it, the results then written to it being sent as they
+     * are produced. The executor must be able to run these two tasks at once, as a cached thread pool does. A query
+     * is held back while its results are produced faster than they are sent, and is cancelled, by returning
+     * {@code false} from {@link org.forgerock.json.resource.QueryResourceHandler#handleResource}, when the client is
+     * gone or too slow to receive them.
+     *
+     * @param application The application.
+     * @param factory A factory for creating parent HTTP Contexts, or {@code null} to use the default factory.
+     * @param queryResponseExecutor The executor from which the queries run and their responses are sent.
+     * @return The handler
+     */
+    public static Handler newHttpHandler(CrestApplication application, HttpContextFactory factory,
+            Executor queryResponseExecutor) {
+        Reject.ifNull(application, queryResponseExecutor);
+        return Handlers.chainOf(new HttpAdapter(application, factory, queryResponseExecutor), newOptionsFilter());
+    }
+
     /**
      * Creates a new JSON resource HTTP handler with the provided CREST request handler.
      *
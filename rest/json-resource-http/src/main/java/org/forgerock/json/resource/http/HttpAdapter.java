@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.json.resource.http;
 
@@ -75,6 +76,7 @@ import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 import org.forgerock.api.CrestApiProducer;
 import org.forgerock.api.jackson.PathsModule;
@@ -182,6 +184,7 @@ final class HttpAdapter implements Handler, Describable<Swagger, org.forgerock.h
     private final HttpContextFactory contextFactory;
     private final String apiId;
     private final String apiVersion;
+    private final Executor queryResponseExecutor;
     private final List<Describable.Listener> apiListeners = new CopyOnWriteArrayList<>();
     private ApiProducer<Swagger> apiProducer;
     private LoadingCache<String, Optional<Swagger>> descriptorCache;
@@ -245,13 +248,36 @@ final class HttpAdapter implements Handler, Describable<Swagger, org.forgerock.h
      *            context of each request context, or {@code null} if the
      *            {@link SecurityContextFactory} should be used.
      */
-    @SuppressWarnings("deprecation")
     public HttpAdapter(CrestApplication application, HttpContextFactory contextFactory) {
+        this(application, contextFactory, null);
+    }
+
+    /**
+     * Creates a new HTTP adapter with the provided connection factory,
+     * context factory and executor streaming the responses to queries.
+     *
+     * @param application
+     *            The CREST application.
+     * @param contextFactory
+     *            The context factory which will be used to obtain the parent
+     *            context of each request context, or {@code null} if the
+     *            {@link SecurityContextFactory} should be used.
+     * @param queryResponseExecutor
+     *            The executor from which a query runs and its response is
+     *            sent, while the query results are written to it, or
+     *            {@code null} if the query should run from the calling
+     *            thread and its response only be sent once all the results
+     *            have been written.
+     */
+    @SuppressWarnings("deprecation")
+    public HttpAdapter(CrestApplication application, HttpContextFactory contextFactory,
+            Executor queryResponseExecutor) {
         this.contextFactory = contextFactory != null ? contextFactory : SecurityContextFactory
                 .getHttpServletContextFactory();
         this.connectionFactory = checkNotNull(application.getConnectionFactory());
         this.apiId = application.getApiId();
         this.apiVersion = application.getApiVersion();
+        this.queryResponseExecutor = queryResponseExecutor;
 
         try {
             Optional<Describable<ApiDescription, Request>> describable = getDescribableConnection();
@@ -717,7 +743,7 @@ final class HttpAdapter implements Handler, Describable<Swagger, org.forgerock.h
     private Promise<Response, NeverThrowsException> doRequest(Context context, org.forgerock.http.protocol.Request req,
             Response resp, Request request) throws Exception {
         Context ctx = prepareRequest(context, req, request);
-        final RequestRunner runner = new RequestRunner(ctx, request, req, resp);
+        final RequestRunner runner = new RequestRunner(ctx, request, req, resp, queryResponseExecutor);
         return connectionFactory.getConnectionAsync()
                 .thenAsync(new AsyncFunction<Connection, Response, NeverThrowsException>() {
                     @Override
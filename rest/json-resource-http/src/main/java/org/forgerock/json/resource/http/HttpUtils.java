@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.resource.http;
@@ -49,6 +50,7 @@ import org.forgerock.http.header.AcceptApiVersionHeader;
 import org.forgerock.http.header.ContentTypeHeader;
 import org.forgerock.http.header.MalformedHeaderException;
 import org.forgerock.http.io.PipeBufferedStream;
+import org.forgerock.http.io.StreamingPipe;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Status;
 import org.forgerock.http.routing.Version;
@@ -570,9 +572,36 @@ public final class HttpUtils {
 
         PipeBufferedStream pipeStream = new PipeBufferedStream();
         resp.setEntity(pipeStream.getOut());
+        return newJsonGenerator(req, pipeStream.getIn());
+    }
+
+    /**
+     * Creates a JSON generator which can be used for streaming JSON content in
+     * HTTP responses: the content can be sent while it is being written, and
+     * the generator blocks while it is written faster than it is sent. The
+     * response must therefore be sent from another thread than the one
+     * writing its content.
+     *
+     * @param req
+     *            The HTTP request.
+     * @param resp
+     *            The HTTP response.
+     * @return A JSON generator which can be used to write out a JSON response.
+     * @throws IOException
+     *             If an error occurred while obtaining an output stream.
+     * @see StreamingPipe
+     */
+    static JsonGenerator getStreamingJsonGenerator(org.forgerock.http.protocol.Request req,
+            Response resp) throws IOException {
+
+        StreamingPipe pipe = new StreamingPipe();
+        resp.setEntity(pipe.getOut());
+        return newJsonGenerator(req, pipe.getIn());
+    }
 
-        final JsonGenerator writer =
-                JSON_MAPPER.getFactory().createGenerator(pipeStream.getIn());
+    private static JsonGenerator newJsonGenerator(org.forgerock.http.protocol.Request req, OutputStream out)
+            throws IOException {
+        final JsonGenerator writer = JSON_MAPPER.getFactory().createGenerator(out);
 
         // Need to have the JsonGenerator close the stream so that it is
         // properly released.
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2017 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.resource.http;
@@ -39,12 +40,15 @@ import static org.forgerock.json.resource.http.HttpUtils.fail;
 import static org.forgerock.json.resource.http.HttpUtils.getIfNoneMatch;
 import static org.forgerock.json.resource.http.HttpUtils.getJsonGenerator;
 import static org.forgerock.json.resource.http.HttpUtils.getRequestedProtocolVersion;
+import static org.forgerock.json.resource.http.HttpUtils.getStreamingJsonGenerator;
 import static org.forgerock.util.Utils.closeSilently;
 import static org.forgerock.util.promise.Promises.newResultPromise;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -77,6 +81,7 @@ import org.forgerock.json.resource.Request;
 import org.forgerock.json.resource.RequestVisitor;
 import org.forgerock.json.resource.ResourceException;
 import org.forgerock.json.resource.ResourceResponse;
+import org.forgerock.json.resource.ServiceUnavailableException;
 import org.forgerock.json.resource.UpdateRequest;
 import org.forgerock.services.context.Context;
 import org.forgerock.util.AsyncFunction;
@@ -84,16 +89,27 @@ import org.forgerock.util.encode.Base64url;
 import org.forgerock.util.promise.ExceptionHandler;
 import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
+import org.forgerock.util.promise.PromiseImpl;
 import org.forgerock.util.promise.ResultHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * Common request processing.
+ * <p>
+ * When the runner is given an executor, the response to a query is streamed: the query runs from the executor, and
+ * its response is sent from another task of the executor as soon as its headers are known, that is once the first
+ * result has been received, the query results being then written to it while it is being sent. The executor must
+ * therefore be able to run both tasks at once. The query is held back while its results are received faster than
+ * they are sent, and is cancelled if the client is gone or is too slow to receive them.
  */
 final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrowsException>, Void> {
 
+    private static final Logger logger = LoggerFactory.getLogger(RequestRunner.class);
+
     // Connection set on handleResult(Connection).
     private Connection connection = null;
     private final Context context;
@@ -102,16 +118,29 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
     private final Version protocolVersion;
     private final Request request;
     private final JsonGenerator jsonGenerator;
+    // Executor sending the streamed response to a query, or null if the response is not streamed.
+    private final Executor queryResponseExecutor;
 
     RequestRunner(Context context, Request request, org.forgerock.http.protocol.Request httpRequest,
             Response httpResponse) throws Exception {
+        this(context, request, httpRequest, httpResponse, null);
+    }
+
+    RequestRunner(Context context, Request request, org.forgerock.http.protocol.Request httpRequest,
+            Response httpResponse, Executor queryResponseExecutor) throws Exception {
         this.context = context;
         this.request = request;
         this.httpRequest = httpRequest;
         this.httpResponse = httpResponse;
         // cache the request's protocol version to avoid repeated BadRequestExceptions at call-sites
         this.protocolVersion = getRequestedProtocolVersion(httpRequest);
-        this.jsonGenerator = getJsonGenerator(httpRequest, httpResponse);
+        if (queryResponseExecutor != null && request instanceof QueryRequest) {
+            this.queryResponseExecutor = queryResponseExecutor;
+            this.jsonGenerator = getStreamingJsonGenerator(httpRequest, httpResponse);
+        } else {
+            this.queryResponseExecutor = null;
+            this.jsonGenerator = getJsonGenerator(httpRequest, httpResponse);
+        }
     }
 
     /**
@@ -257,6 +286,39 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
      */
     @Override
     public final Promise<Response, NeverThrowsException> visitQueryRequest(final Void p, final QueryRequest request) {
+        if (queryResponseExecutor == null) {
+            return query(request, null);
+        }
+        // The query runs from the executor, so that the caller can start sending the response as soon as its headers
+        // are known, even if the query handler produces all its results synchronously.
+        final StreamedResponse streamedResponse = new StreamedResponse();
+        try {
+            queryResponseExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    Promise<Response, NeverThrowsException> response;
+                    try {
+                        response = query(request, streamedResponse);
+                    } catch (RuntimeException e) {
+                        response = handleError(adapt(e));
+                    }
+                    // The response has not been sent yet if the query completed before returning its first result
+                    response.thenOnResult(new ResultHandler<Response>() {
+                        @Override
+                        public void handleResult(Response response) {
+                            streamedResponse.complete(response);
+                        }
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return handleError(new ServiceUnavailableException("Unable to run the query", e));
+        }
+        return streamedResponse.promise;
+    }
+
+    private Promise<Response, NeverThrowsException> query(final QueryRequest request,
+            final StreamedResponse streamedResponse) {
         final AtomicBoolean isFirstResult = new AtomicBoolean(true);
         final AtomicInteger resultCount = new AtomicInteger(0);
         return connection.queryAsync(context, request, new QueryResourceHandler() {
@@ -264,11 +326,20 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
             public boolean handleResource(final ResourceResponse resource) {
                 try {
                     writeHeader(resource, isFirstResult);
+                    if (streamedResponse != null) {
+                        streamedResponse.send();
+                    }
                     writeResourceJsonContent(resource);
                     resultCount.incrementAndGet();
                     return true;
                 } catch (final Exception e) {
-                    handleError(adapt(e));
+                    if (streamedResponse != null && streamedResponse.isSent()) {
+                        // The client is gone or too slow: cancel the query, the response cannot be completed.
+                        logger.debug("Failed to stream the query results", e);
+                        streamedResponse.cancel();
+                    } else {
+                        handleError(adapt(e));
+                    }
                     return false;
                 }
             }
@@ -289,6 +360,9 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
                     onSuccess();
                 } catch (final Exception e) {
                     onError(e);
+                    if (streamedResponse != null) {
+                        streamedResponse.cancel();
+                    }
                 }
             }
         }).thenOnException(new ExceptionHandler<ResourceException>() {
@@ -306,6 +380,9 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
                         onSuccess();
                     } catch (final Exception e) {
                         onError(e);
+                        if (streamedResponse != null) {
+                            streamedResponse.cancel();
+                        }
                     }
                 }
             }
@@ -317,6 +394,10 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
         }, new AsyncFunction<ResourceException, Response, NeverThrowsException>() {
             @Override
             public Promise<Response, NeverThrowsException> apply(ResourceException e) {
+                if (streamedResponse != null && streamedResponse.isSent()) {
+                    // The partial results and the error have been written to the response already sent.
+                    return newResultPromise(httpResponse);
+                }
                 return handleError(e);
             }
         });
@@ -547,4 +628,62 @@ final class RequestRunner implements RequestVisitor<Promise<Response, NeverThrow
             }
         }
     }
+
+    /**
+     * The streamed response to a query, sent from the executor as soon as the first result is written to it.
+     */
+    private final class StreamedResponse {
+        private final PromiseImpl<Response, NeverThrowsException> promise = PromiseImpl.create();
+        private final AtomicBoolean sent = new AtomicBoolean();
+
+        /**
+         * Sends the response from the executor, so that the results can be written to it while it is being sent.
+         * The headers of the response must be complete.
+         */
+        private void send() throws ResourceException {
+            if (!sent.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                queryResponseExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        promise.handleResult(httpResponse);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                fail(httpRequest, null, new ServiceUnavailableException("Unable to send the query response", e))
+                        .thenOnResult(new ResultHandler<Response>() {
+                            @Override
+                            public void handleResult(Response response) {
+                                promise.handleResult(response);
+                            }
+                        });
+                throw new ServiceUnavailableException("Unable to send the query response", e);
+            }
+        }
+
+        private boolean isSent() {
+            return sent.get();
+        }
+
+        /**
+         * Sends the response from the current thread, unless it has been sent already: the response is then
+         * complete and holds no more than a few bytes.
+         */
+        private void complete(Response response) {
+            if (sent.compareAndSet(false, true)) {
+                promise.handleResult(response);
+            }
+        }
+
+        /**
+         * Ends the response without completing its content, which is left malformed so that the client does not
+         * mistake the results received for all the results.
+         */
+        private void cancel() {
+            jsonGenerator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            closeSilently(jsonGenerator);
+        }
+    }
 }
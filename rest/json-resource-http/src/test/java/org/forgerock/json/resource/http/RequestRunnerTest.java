@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 package org.forgerock.json.resource.http;
 
@@ -35,7 +36,15 @@ import static org.testng.Assert.assertEquals;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import org.forgerock.http.io.StreamingPipe;
 import org.forgerock.http.protocol.Request;
 import org.forgerock.http.protocol.Response;
 import org.forgerock.http.protocol.Status;
@@ -51,6 +60,7 @@ import org.forgerock.json.resource.ResourceResponse;
 import org.forgerock.services.context.Context;
 import org.forgerock.services.context.RootContext;
 import org.forgerock.util.i18n.LocalizableString;
+import org.forgerock.util.promise.NeverThrowsException;
 import org.forgerock.util.promise.Promise;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
@@ -127,6 +137,135 @@ public class RequestRunnerTest {
         assertEquals(getResponseContent(response), "{\"code\":404,\"reason\":\"Not Found\",\"message\":\"Not Found\"}");
     }
 
+    @Test
+    public void testStreamedQueryRunsFromExecutorAndItsResponseIsSentOnFirstResource() throws Exception {
+        // given
+        final List<Runnable> tasks = new ArrayList<>();
+        Executor executor = queueingExecutor(tasks);
+
+        // when
+        Promise<Response, NeverThrowsException> promise = runAnonymousQueryResourceHandler(executor, QUERY_RESULT,
+                newResourceResponse("id", "rev", json(object(field("intField", 42)))));
+
+        // then
+        assertThat(tasks).hasSize(1);
+        tasks.get(0).run();
+        assertThat(promise.isDone()).isFalse();
+        assertThat(tasks).hasSize(2);
+        tasks.get(1).run();
+        assertEquals(getResponseContent(promise.getOrThrow()), "{" + "\"result\":["
+                + "{\"_id\":\"id\",\"_rev\":\"rev\",\"intField\":42}],"
+                + "\"resultCount\":1,\"pagedResultsCookie\":null,\"totalPagedResultsPolicy\":\"NONE\","
+                + "\"totalPagedResults\":-1,\"remainingPagedResults\":-1}");
+    }
+
+    @Test
+    public void testStreamedQueryResponseWithoutResourceIsSentOnCompletion() throws Exception {
+        // given
+        final List<Runnable> tasks = new ArrayList<>();
+
+        // when
+        Promise<Response, NeverThrowsException> promise =
+                runAnonymousQueryResourceHandler(queueingExecutor(tasks), QUERY_RESULT);
+        tasks.remove(0).run();
+
+        // then
+        assertThat(tasks).isEmpty();
+        assertEquals(getResponseContent(promise.getOrThrow()), "{" + "\"result\":[],"
+                + "\"resultCount\":0,\"pagedResultsCookie\":null,\"totalPagedResultsPolicy\":\"NONE\","
+                + "\"totalPagedResults\":-1,\"remainingPagedResults\":-1}");
+    }
+
+    @Test
+    public void testStreamedQueryResponseWithErrorBeforeFirstResource() throws Exception {
+        // given
+        final List<Runnable> tasks = new ArrayList<>();
+
+        // when
+        Promise<Response, NeverThrowsException> promise =
+                runAnonymousQueryResourceHandler(queueingExecutor(tasks), RESOURCE_EXCEPTION);
+        tasks.remove(0).run();
+
+        // then
+        assertThat(tasks).isEmpty();
+        Response response = promise.getOrThrow();
+        assertThat(response.getStatus()).isEqualTo(Status.NOT_FOUND);
+        assertEquals(getResponseContent(response), "{\"code\":404,\"reason\":\"Not Found\",\"message\":\"Not Found\"}");
+    }
+
+    @Test
+    public void testStreamedQueryResponseWithErrorAfterFirstResourceHoldsPartialResults() throws Exception {
+        // when
+        Promise<Response, NeverThrowsException> promise = runAnonymousQueryResourceHandler(directExecutor(),
+                RESOURCE_EXCEPTION, newResourceResponse("id", "rev", json(object(field("intField", 42)))));
+
+        // then
+        Response response = promise.getOrThrow();
+        assertThat(response.getStatus()).isEqualTo(Status.OK);
+        assertEquals(getResponseContent(response), "{" + "\"result\":["
+                + "{\"_id\":\"id\",\"_rev\":\"rev\",\"intField\":42}],\"resultCount\":1,"
+                + "\"error\":{\"code\":404,\"reason\":\"Not Found\",\"message\":\"Not Found\"}}");
+    }
+
+    @Test
+    public void testStreamedQueryResponseLargerThanPipeIsSentWhileSynchronousQueryRuns() throws Exception {
+        // given
+        final char[] padding = new char[1024];
+        Arrays.fill(padding, 'x');
+        ResourceResponse[] resources = new ResourceResponse[128];
+        for (int i = 0; i < resources.length; i++) {
+            resources[i] = newResourceResponse("id" + i, "rev", json(object(field("padding", new String(padding)))));
+        }
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            // when
+            Promise<Response, NeverThrowsException> promise =
+                    runAnonymousQueryResourceHandler(executor, QUERY_RESULT, resources);
+
+            // then, as the server adapters do, the response is only read once the query has been handed over
+            String content = getResponseContent(promise.getOrThrow(10, TimeUnit.SECONDS));
+            assertThat(content.length()).isGreaterThan(StreamingPipe.DEFAULT_CAPACITY);
+            assertThat(content).endsWith("\"resultCount\":128,\"pagedResultsCookie\":null,"
+                    + "\"totalPagedResultsPolicy\":\"NONE\",\"totalPagedResults\":-1,\"remainingPagedResults\":-1}");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStreamedQueryIsCancelledWhenClientIsGone() throws Exception {
+        // given
+        Context context = mock(Context.class);
+        QueryRequest request = Requests.newQueryRequest("");
+        final Response httpResponse = new Response(Status.OK);
+        Connection connection = mock(Connection.class);
+        final char[] padding = new char[16 * 1024];
+        Arrays.fill(padding, 'x');
+        final List<Boolean> handled = new ArrayList<>();
+        when(connection.queryAsync(eq(context), eq(request), any(QueryResourceHandler.class)))
+                .thenAnswer(new Answer<Promise<QueryResponse, ResourceException>>() {
+                    @Override
+                    public Promise<QueryResponse, ResourceException> answer(InvocationOnMock invocationOnMock) {
+                        QueryResourceHandler handler = (QueryResourceHandler) invocationOnMock.getArguments()[2];
+                        ResourceResponse resource =
+                                newResourceResponse("id", "rev", json(object(field("padding", new String(padding)))));
+                        handled.add(handler.handleResource(resource));
+                        // the client disconnects
+                        httpResponse.getEntity().close();
+                        handled.add(handler.handleResource(resource));
+                        return QUERY_RESULT;
+                    }
+                });
+        RequestRunner requestRunner =
+                new RequestRunner(context, request, newRequest(), httpResponse, directExecutor());
+
+        // when
+        requestRunner.handleResult(connection);
+
+        // then
+        assertThat(handled).containsExactly(true, false);
+    }
+
     @Test
     public void testLocationIsCorrectWhenCreatingResourceWithUserProvidedResourceId() throws Exception {
         // given
@@ -226,6 +365,47 @@ public class RequestRunnerTest {
         return requestRunner.handleResult(connection).getOrThrowUninterruptibly();
     }
 
+    private Promise<Response, NeverThrowsException> runAnonymousQueryResourceHandler(final Executor executor,
+            final Promise<QueryResponse, ResourceException> queryPromise, final ResourceResponse... resources)
+            throws Exception {
+        Context context = mock(Context.class);
+        QueryRequest request = Requests.newQueryRequest("");
+        Response httpResponse = new Response(Status.OK);
+        Connection connection = mock(Connection.class);
+        when(connection.queryAsync(eq(context), eq(request), any(QueryResourceHandler.class)))
+                .thenAnswer(new Answer<Promise<QueryResponse, ResourceException>>() {
+                    @Override
+                    public Promise<QueryResponse, ResourceException> answer(InvocationOnMock invocationOnMock) {
+                        QueryResourceHandler handler = (QueryResourceHandler) invocationOnMock.getArguments()[2];
+                        for (ResourceResponse resource : resources) {
+                            handler.handleResource(resource);
+                        }
+                        return queryPromise;
+                    }
+                });
+
+        RequestRunner requestRunner = new RequestRunner(context, request, newRequest(), httpResponse, executor);
+        return requestRunner.handleResult(connection);
+    }
+
+    private static Executor directExecutor() {
+        return new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                task.run();
+            }
+        };
+    }
+
+    private static Executor queueingExecutor(final List<Runnable> tasks) {
+        return new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                tasks.add(task);
+            }
+        };
+    }
+
     private Request newRequest() {
         Request request = new Request();
         request.setUri(URI.create(""));
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.resource;
@@ -22,14 +23,21 @@ import static org.forgerock.util.promise.Promises.newExceptionPromise;
 import static org.forgerock.util.promise.Promises.newResultPromise;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.forgerock.services.context.Context;
@@ -45,6 +53,12 @@ import org.forgerock.util.query.QueryFilterVisitor;
  * A simple in-memory collection resource provider which uses a {@code Map} to
  * store resources. This resource provider is intended for testing purposes only
  * and there are no performance guarantees.
+ * <p>
+ * Fields may be indexed when the backend is created, so that queries with
+ * filters on these fields do not have to evaluate the filter against every
+ * resource. Each indexed field supports equality, ordering, starts with and
+ * presence assertions. Sorted queries which are paged only retain the
+ * resources up to the end of the requested page.
  */
 public final class MemoryBackend implements CollectionResourceProvider {
     private enum FilterResult {
@@ -107,58 +121,257 @@ public final class MemoryBackend implements CollectionResourceProvider {
         }
     }
 
-    private static final class ResourceComparator implements Comparator<ResourceResponse> {
+    /**
+     * A matching resource with the values of its sort keys, which are extracted once rather than on each comparison.
+     */
+    private static final class SortedResource {
+        private final ResourceResponse resource;
+        private final Object[] sortValues;
+        /** The position of the resource among the matching resources, which keeps ties in that order. */
+        private final int position;
+
+        private SortedResource(final ResourceResponse resource, final List<SortKey> sortKeys, final int position) {
+            this.resource = resource;
+            this.position = position;
+            this.sortValues = new Object[sortKeys.size()];
+            for (int i = 0; i < sortValues.length; i++) {
+                sortValues[i] = getFirstSortedValue(resource, sortKeys.get(i).getField());
+            }
+        }
+
+        private static Object getFirstSortedValue(final ResourceResponse resource, final JsonPointer field) {
+            final JsonValue value = resource.getContent().get(field);
+            if (value == null) {
+                return null;
+            } else if (value.isList()) {
+                Object first = null;
+                for (final Object v : value.asList()) {
+                    if (v != null && (first == null || compareValues(v, first) < 0)) {
+                        first = v;
+                    }
+                }
+                return first;
+            } else {
+                return value.getObject();
+            }
+        }
+    }
+
+    private static final class SortedResourceComparator implements Comparator<SortedResource> {
         private final List<SortKey> sortKeys;
 
-        private ResourceComparator(final List<SortKey> sortKeys) {
+        private SortedResourceComparator(final List<SortKey> sortKeys) {
             this.sortKeys = sortKeys;
         }
 
         @Override
-        public int compare(final ResourceResponse r1, final ResourceResponse r2) {
-            for (final SortKey sortKey : sortKeys) {
-                final int result = compare(r1, r2, sortKey);
+        public int compare(final SortedResource r1, final SortedResource r2) {
+            for (int i = 0; i < sortKeys.size(); i++) {
+                final int result = compare(r1.sortValues[i], r2.sortValues[i], sortKeys.get(i));
                 if (result != 0) {
                     return result;
                 }
             }
-            return 0;
+            return Integer.compare(r1.position, r2.position);
         }
 
-        private int compare(final ResourceResponse r1, final ResourceResponse r2, final SortKey sortKey) {
-            final List<Object> vs1 = getValuesSorted(r1, sortKey.getField());
-            final List<Object> vs2 = getValuesSorted(r2, sortKey.getField());
-            if (vs1.isEmpty() && vs2.isEmpty()) {
+        private int compare(final Object v1, final Object v2, final SortKey sortKey) {
+            if (v1 == null && v2 == null) {
                 return 0;
-            } else if (vs1.isEmpty()) {
+            } else if (v1 == null) {
                 // Sort resources with missing attributes last.
                 return 1;
-            } else if (vs2.isEmpty()) {
+            } else if (v2 == null) {
                 // Sort resources with missing attributes last.
                 return -1;
             } else {
                 // Compare first values only (consistent with LDAP sort control).
-                final Object v1 = vs1.get(0);
-                final Object v2 = vs2.get(0);
                 return sortKey.isAscendingOrder() ? compareValues(v1, v2) : -compareValues(v1, v2);
             }
         }
+    }
 
-        private List<Object> getValuesSorted(final ResourceResponse resource, final JsonPointer field) {
+    /**
+     * The indexes of a field: a hash index for equality assertions, ordered indexes for ordering and starts with
+     * assertions, and the set of resources in which the field is present. Only string, number and boolean values
+     * are indexed, since the other values never match an assertion. The indexes are updated while holding the write
+     * lock, and may be read concurrently.
+     */
+    private static final class FieldIndex {
+        private final JsonPointer field;
+        /** Resource IDs by value: case folded strings, numbers as doubles, and booleans. */
+        private final Map<Object, Set<String>> valueIndex = new ConcurrentHashMap<>();
+        private final NavigableMap<String, Set<String>> stringOrderingIndex = new ConcurrentSkipListMap<>();
+        private final NavigableMap<Double, Set<String>> numberOrderingIndex = new ConcurrentSkipListMap<>();
+        /** Resource IDs by lower case string, as compared by starts with assertions. */
+        private final NavigableMap<String, Set<String>> prefixIndex = new ConcurrentSkipListMap<>();
+        private final Set<String> presenceIndex = ConcurrentHashMap.newKeySet();
+        /**
+         * The values indexed for each resource ID, so that a resource is removed from the indexes under the values
+         * it was indexed with, even if its content has been modified since.
+         */
+        private final Map<String, List<Object>> indexedValues = new HashMap<>();
+
+        private FieldIndex(final JsonPointer field) {
+            this.field = field;
+        }
+
+        private void add(final ResourceResponse resource) {
             final JsonValue value = resource.getContent().get(field);
             if (value == null) {
-                return Collections.emptyList();
-            } else if (value.isList()) {
-                List<Object> results = value.asList();
-                if (results.size() > 1) {
-                    results = new ArrayList<>(results);
-                    Collections.sort(results, VALUE_COMPARATOR);
+                return;
+            }
+            final String id = resource.getId();
+            final List<Object> values = new ArrayList<>();
+            for (final Object v : getValues(value)) {
+                if (v instanceof String || v instanceof Boolean) {
+                    values.add(v);
+                } else if (v instanceof Number) {
+                    values.add(((Number) v).doubleValue());
+                }
+            }
+            indexedValues.put(id, values);
+            presenceIndex.add(id);
+            for (final Object v : values) {
+                if (v instanceof String) {
+                    final String folded = foldCase((String) v);
+                    addId(valueIndex, folded, id);
+                    addId(stringOrderingIndex, folded, id);
+                    addId(prefixIndex, ((String) v).toLowerCase(Locale.ENGLISH), id);
+                } else if (v instanceof Double) {
+                    addId(valueIndex, v, id);
+                    addId(numberOrderingIndex, (Double) v, id);
+                } else {
+                    addId(valueIndex, v, id);
                 }
-                return results;
+            }
+        }
+
+        private void remove(final String id) {
+            final List<Object> values = indexedValues.remove(id);
+            if (values == null) {
+                return;
+            }
+            presenceIndex.remove(id);
+            for (final Object v : values) {
+                if (v instanceof String) {
+                    final String folded = foldCase((String) v);
+                    removeId(valueIndex, folded, id);
+                    removeId(stringOrderingIndex, folded, id);
+                    removeId(prefixIndex, ((String) v).toLowerCase(Locale.ENGLISH), id);
+                } else if (v instanceof Double) {
+                    removeId(valueIndex, v, id);
+                    removeId(numberOrderingIndex, (Double) v, id);
+                } else {
+                    removeId(valueIndex, v, id);
+                }
+            }
+        }
+
+        private void clear() {
+            indexedValues.clear();
+            valueIndex.clear();
+            stringOrderingIndex.clear();
+            numberOrderingIndex.clear();
+            prefixIndex.clear();
+            presenceIndex.clear();
+        }
+
+        private Set<String> equalTo(final Object valueAssertion) {
+            final Object key;
+            if (valueAssertion instanceof String) {
+                key = foldCase((String) valueAssertion);
+            } else if (valueAssertion instanceof Number) {
+                key = ((Number) valueAssertion).doubleValue();
+            } else if (valueAssertion instanceof Boolean) {
+                key = valueAssertion;
+            } else {
+                return Collections.emptySet();
+            }
+            final Set<String> ids = valueIndex.get(key);
+            return ids != null ? ids : Collections.<String>emptySet();
+        }
+
+        /**
+         * Returns the IDs of the resources with a value greater (or lower) than the assertion, or {@code null} if
+         * they are not indexed.
+         */
+        private Set<String> compareTo(final Object valueAssertion, final boolean greater, final boolean inclusive) {
+            if (valueAssertion instanceof String) {
+                final String key = foldCase((String) valueAssertion);
+                return union(greater
+                        ? stringOrderingIndex.tailMap(key, inclusive)
+                        : stringOrderingIndex.headMap(key, inclusive));
+            } else if (valueAssertion instanceof Number) {
+                final Double key = ((Number) valueAssertion).doubleValue();
+                return union(greater
+                        ? numberOrderingIndex.tailMap(key, inclusive)
+                        : numberOrderingIndex.headMap(key, inclusive));
+            } else if (valueAssertion instanceof Boolean) {
+                return null;
             } else {
-                return Collections.singletonList(value.getObject());
+                return Collections.emptySet();
+            }
+        }
+
+        private Set<String> startsWith(final Object valueAssertion) {
+            if (!(valueAssertion instanceof String)) {
+                // Use equality matching for numbers and booleans.
+                return equalTo(valueAssertion);
+            }
+            final String prefix = ((String) valueAssertion).toLowerCase(Locale.ENGLISH);
+            final Set<String> ids = new HashSet<>();
+            for (final Map.Entry<String, Set<String>> entry : prefixIndex.tailMap(prefix, true).entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) {
+                    break;
+                }
+                ids.addAll(entry.getValue());
+            }
+            return ids;
+        }
+
+        private Set<String> present() {
+            return presenceIndex;
+        }
+
+        private static <K> void addId(final Map<K, Set<String>> index, final K key, final String id) {
+            Set<String> ids = index.get(key);
+            if (ids == null) {
+                ids = ConcurrentHashMap.newKeySet();
+                index.put(key, ids);
+            }
+            ids.add(id);
+        }
+
+        private static <K> void removeId(final Map<K, Set<String>> index, final K key, final String id) {
+            final Set<String> ids = index.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    index.remove(key);
+                }
             }
         }
+
+        private static Set<String> union(final Map<?, Set<String>> index) {
+            final Set<String> ids = new HashSet<>();
+            for (final Set<String> values : index.values()) {
+                ids.addAll(values);
+            }
+            return ids;
+        }
+
+        /**
+         * Folds the case of a string, so that two strings are equal, or ordered, once folded exactly as they are
+         * by {@link String#compareToIgnoreCase(String)}.
+         */
+        private static String foldCase(final String s) {
+            final char[] chars = s.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+            }
+            return new String(chars);
+        }
     }
 
     private static final QueryFilterVisitor<FilterResult, ResourceResponse, JsonPointer> RESOURCE_FILTER =
@@ -336,17 +549,19 @@ public final class MemoryBackend implements CollectionResourceProvider {
 
             private List<Object> getValues(final ResourceResponse resource, final JsonPointer field) {
                 final JsonValue value = resource.getContent().get(field);
-                if (value == null) {
-                    return Collections.emptyList();
-                } else if (value.isList()) {
-                    return value.asList();
-                } else {
-                    return Collections.singletonList(value.getObject());
-                }
+                return value == null ? Collections.emptyList() : MemoryBackend.getValues(value);
             }
 
         };
 
+    private static List<Object> getValues(final JsonValue value) {
+        if (value.isList()) {
+            return value.asList();
+        } else {
+            return Collections.singletonList(value.getObject());
+        }
+    }
+
     private static final Comparator<Object> VALUE_COMPARATOR = new Comparator<Object>() {
         @Override
         public int compare(final Object o1, final Object o2) {
@@ -383,12 +598,133 @@ public final class MemoryBackend implements CollectionResourceProvider {
     private final AtomicLong nextResourceId = new AtomicLong();
     private final Map<String, ResourceResponse> resources = new ConcurrentHashMap<>();
     private final Object writeLock = new Object();
+    private final Map<JsonPointer, FieldIndex> indexes = new HashMap<>();
+
+    /**
+     * Selects the IDs of the resources which may match a filter using the indexes, or returns {@code null} if
+     * all of the resources have to be evaluated. The selected resources still have to be evaluated against the
+     * filter.
+     */
+    private final QueryFilterVisitor<Set<String>, Void, JsonPointer> queryPlanner =
+            new QueryFilterVisitor<Set<String>, Void, JsonPointer>() {
+
+            @Override
+            public Set<String> visitAndFilter(final Void p,
+                    final List<org.forgerock.util.query.QueryFilter<JsonPointer>> subFilters) {
+                // Evaluating the smallest candidate set is cheaper than intersecting them.
+                Set<String> result = null;
+                for (final org.forgerock.util.query.QueryFilter<JsonPointer> subFilter : subFilters) {
+                    final Set<String> ids = subFilter.accept(this, p);
+                    if (ids != null && (result == null || ids.size() < result.size())) {
+                        result = ids;
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            public Set<String> visitBooleanLiteralFilter(final Void p, final boolean value) {
+                return value ? null : Collections.<String>emptySet();
+            }
+
+            @Override
+            public Set<String> visitContainsFilter(final Void p, final JsonPointer field,
+                    final Object valueAssertion) {
+                return null;
+            }
+
+            @Override
+            public Set<String> visitEqualsFilter(final Void p, final JsonPointer field,
+                    final Object valueAssertion) {
+                final FieldIndex index = indexes.get(field);
+                return index != null ? index.equalTo(valueAssertion) : null;
+            }
+
+            @Override
+            public Set<String> visitExtendedMatchFilter(final Void p, final JsonPointer field,
+                    final String matchingRuleId, final Object valueAssertion) {
+                return null;
+            }
+
+            @Override
+            public Set<String> visitGreaterThanFilter(final Void p, final JsonPointer field,
+                    final Object valueAssertion) {
+                final FieldIndex index = indexes.get(field);
+                return index != null ? index.compareTo(valueAssertion, true, false) : null;
+            }
+
+            @Override
+            public Set<String> visitGreaterThanOrEqualToFilter(final Void p, final JsonPointer field,
+                    final Object valueAssertion) {
+                final FieldIndex index = indexes.get(field);
+                return index != null ? index.compareTo(valueAssertion, true, true) : null;
+            }
+
+            @Override
+            public Set<String> visitLessThanFilter(final Void p, final JsonPointer field,
+                    final Object valueAssertion) {
+                final FieldIndex index = indexes.get(field);
+                return index != null ? index.compareTo(valueAssertion, false, false) : null;
+            }
+
+            @Override
+            public Set<String> visitLessThanOrEqualToFilter(final Void p, final JsonPointer field,
+                    final Object valueAssertion) {
+                final FieldIndex index = indexes.get(field);
+                return index != null ? index.compareTo(valueAssertion, false, true) : null;
+            }
+
+            @Override
+            public Set<String> visitNotFilter(final Void p,
+                    final org.forgerock.util.query.QueryFilter<JsonPointer> subFilter) {
+                return null;
+            }
+
+            @Override
+            public Set<String> visitOrFilter(final Void p,
+                    final List<org.forgerock.util.query.QueryFilter<JsonPointer>> subFilters) {
+                final Set<String> result = new HashSet<>();
+                for (final org.forgerock.util.query.QueryFilter<JsonPointer> subFilter : subFilters) {
+                    final Set<String> ids = subFilter.accept(this, p);
+                    if (ids == null) {
+                        return null;
+                    }
+                    result.addAll(ids);
+                }
+                return result;
+            }
+
+            @Override
+            public Set<String> visitPresentFilter(final Void p, final JsonPointer field) {
+                final FieldIndex index = indexes.get(field);
+                return index != null ? index.present() : null;
+            }
+
+            @Override
+            public Set<String> visitStartsWithFilter(final Void p, final JsonPointer field,
+                    final Object valueAssertion) {
+                final FieldIndex index = indexes.get(field);
+                return index != null ? index.startsWith(valueAssertion) : null;
+            }
+        };
 
     /**
      * Creates a new in-memory collection containing no resources.
      */
     public MemoryBackend() {
-        // No implementation required.
+        this(Collections.<JsonPointer>emptySet());
+    }
+
+    /**
+     * Creates a new in-memory collection containing no resources, which indexes the given fields.
+     *
+     * @param indexedFields
+     *            The fields to index, for the filters of the queries.
+     */
+    public MemoryBackend(final Collection<JsonPointer> indexedFields) {
+        for (final JsonPointer field : indexedFields) {
+            indexes.put(field, new FieldIndex(field));
+        }
     }
 
     /**
@@ -403,6 +739,9 @@ public final class MemoryBackend implements CollectionResourceProvider {
                 synchronized (writeLock) {
                     size = resources.size();
                     resources.clear();
+                    for (final FieldIndex index : indexes.values()) {
+                        index.clear();
+                    }
                 }
                 final JsonValue result = new JsonValue(new LinkedHashMap<>(1));
                 result.put("cleared", size);
@@ -457,6 +796,7 @@ public final class MemoryBackend implements CollectionResourceProvider {
                     } else {
                         // Add succeeded.
                         addIdAndRevision(tmp);
+                        index(tmp);
                         resource = tmp;
                         break;
                     }
@@ -480,6 +820,7 @@ public final class MemoryBackend implements CollectionResourceProvider {
             synchronized (writeLock) {
                 resource = getResourceForUpdate(id, rev);
                 resources.remove(id);
+                unindex(resource);
             }
             return newResultPromise(resource);
         } catch (final ResourceException e) {
@@ -562,6 +903,8 @@ public final class MemoryBackend implements CollectionResourceProvider {
                 resource = newResourceResponse(id, newRev, newContent);
                 addIdAndRevision(resource);
                 resources.put(id, resource);
+                unindex(existingResource);
+                index(resource);
             }
             return newResultPromise(resource);
         } catch (final ResourceException e) {
@@ -610,11 +953,12 @@ public final class MemoryBackend implements CollectionResourceProvider {
 
             // Select, filter, and return the results. These can be streamed if server
             // side sorting has not been requested.
+            final Collection<ResourceResponse> candidates = getCandidates(filter);
             int resultIndex = 0;
             int resultCount;
             if (sortKeys.isEmpty()) {
                 // No sorting so stream the results.
-                for (final ResourceResponse resource : resources.values()) {
+                for (final ResourceResponse resource : candidates) {
                     if (filter == null || filter.accept(RESOURCE_FILTER, resource).toBoolean()) {
                         if (resultIndex >= firstResultIndex && resultIndex < lastResultIndex) {
                             handler.handleResource(resource);
@@ -625,18 +969,38 @@ public final class MemoryBackend implements CollectionResourceProvider {
 
                 resultCount = resources.values().size();
             } else {
-                // Server side sorting: aggregate the result set then sort. A robust implementation
-                // would need to impose administrative limits in order to control memory utilization.
-                final List<ResourceResponse> results = new ArrayList<>();
-                for (final ResourceResponse resource : resources.values()) {
-                    if (filter == null || filter.accept(RESOURCE_FILTER, resource).toBoolean()) {
-                        results.add(resource);
+                // Server side sorting: aggregate the result set then sort. When paged results are requested,
+                // only the results up to the end of the page are retained, in a heap whose head is the last of them.
+                final Comparator<SortedResource> comparator = new SortedResourceComparator(sortKeys);
+                final List<SortedResource> results;
+                int matchCount = 0;
+                if (lastResultIndex == Integer.MAX_VALUE) {
+                    results = new ArrayList<>();
+                    for (final ResourceResponse resource : candidates) {
+                        if (filter == null || filter.accept(RESOURCE_FILTER, resource).toBoolean()) {
+                            results.add(new SortedResource(resource, sortKeys, matchCount++));
+                        }
                     }
+                } else {
+                    final PriorityQueue<SortedResource> heap =
+                            new PriorityQueue<>(Collections.reverseOrder(comparator));
+                    for (final ResourceResponse resource : candidates) {
+                        if (filter == null || filter.accept(RESOURCE_FILTER, resource).toBoolean()) {
+                            final SortedResource result = new SortedResource(resource, sortKeys, matchCount++);
+                            if (heap.size() < lastResultIndex) {
+                                heap.add(result);
+                            } else if (comparator.compare(result, heap.peek()) < 0) {
+                                heap.poll();
+                                heap.add(result);
+                            }
+                        }
+                    }
+                    results = new ArrayList<>(heap);
                 }
-                Collections.sort(results, new ResourceComparator(sortKeys));
-                for (final ResourceResponse resource : results) {
+                Collections.sort(results, comparator);
+                for (final SortedResource result : results) {
                     if (resultIndex >= firstResultIndex && resultIndex < lastResultIndex) {
-                        handler.handleResource(resource);
+                        handler.handleResource(result.resource);
                     }
 
                     if (resultIndex < lastResultIndex) {
@@ -646,7 +1010,7 @@ public final class MemoryBackend implements CollectionResourceProvider {
                     }
                 }
 
-                resultCount = results.size();
+                resultCount = matchCount;
             }
 
             if (pagedResultsRequested) {
@@ -703,6 +1067,8 @@ public final class MemoryBackend implements CollectionResourceProvider {
                 resource = newResourceResponse(id, newRev, request.getContent());
                 addIdAndRevision(resource);
                 resources.put(id, resource);
+                unindex(existingResource);
+                index(resource);
             }
             return newResultPromise(resource);
         } catch (final ResourceException e) {
@@ -710,6 +1076,40 @@ public final class MemoryBackend implements CollectionResourceProvider {
         }
     }
 
+    /*
+     * Returns the resources which may match the filter, as selected by the
+     * indexes, or all of the resources if the indexes cannot select them.
+     */
+    private Collection<ResourceResponse> getCandidates(final QueryFilter<JsonPointer> filter) {
+        if (filter == null || indexes.isEmpty()) {
+            return resources.values();
+        }
+        final Set<String> ids = filter.accept(queryPlanner, null);
+        if (ids == null) {
+            return resources.values();
+        }
+        final List<ResourceResponse> candidates = new ArrayList<>(ids.size());
+        for (final String id : ids) {
+            final ResourceResponse resource = resources.get(id);
+            if (resource != null) {
+                candidates.add(resource);
+            }
+        }
+        return candidates;
+    }
+
+    private void index(final ResourceResponse resource) {
+        for (final FieldIndex index : indexes.values()) {
+            index.add(resource);
+        }
+    }
+
+    private void unindex(final ResourceResponse resource) {
+        for (final FieldIndex index : indexes.values()) {
+            index.remove(resource.getId());
+        }
+    }
+
     /*
      * Add the ID and revision to the JSON content so that they are included
      * with subsequent responses. We shouldn't really update the passed in
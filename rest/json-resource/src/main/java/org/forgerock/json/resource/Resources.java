@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2012-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.resource;
@@ -118,10 +119,11 @@ public final class Resources {
                     filtered.putAll(resource.asMap());
                 } else {
                     // FIXME: what should we do if the field refers to an array element?
-                    final JsonValue value = resource.get(field);
-                    if (value != null) {
+                    // Only wrap the field when needed to tell null from undefined.
+                    final Object value = resource.getObject(field);
+                    if (value != null || resource.get(field) != null) {
                         final String key = field.leaf();
-                        filtered.put(key, value.getObject());
+                        filtered.put(key, value);
                     }
                 }
             }
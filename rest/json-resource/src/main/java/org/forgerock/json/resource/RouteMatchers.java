@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.resource;
@@ -30,6 +31,7 @@ import org.forgerock.services.context.Context;
 import org.forgerock.services.routing.IncomparableRouteMatchException;
 import org.forgerock.services.routing.RouteMatch;
 import org.forgerock.services.routing.RouteMatcher;
+import org.forgerock.services.routing.UriTemplateRouteMatcher;
 
 /**
  * A utility class that contains methods for creating route matchers.
@@ -99,12 +101,27 @@ public final class RouteMatchers {
         return SELF_API_MATCHER;
     }
 
+    /**
+     * Returns the elements of the resource path of the provided request.
+     *
+     * @param request The request.
+     * @return The resource path elements.
+     */
+    static List<String> getPathElements(Request request) {
+        final List<String> pathElements = new ArrayList<>(request.getResourcePathObject().size());
+        for (String pathElement : request.getResourcePathObject()) {
+            pathElements.add(pathElement);
+        }
+        return pathElements;
+    }
+
     /**
      * A CREST specific {@code RouteMatcher} which extracts the requests
      * resource name from a {@code Request} and passes it as a
      * {@code ResourcePath} to the common {@code ResourcePath} route predicate.
      */
-    private static final class RequestUriRouteMatcher extends RouteMatcher<Request> {
+    private static final class RequestUriRouteMatcher extends RouteMatcher<Request>
+            implements UriTemplateRouteMatcher {
 
         private final RouteMatcher<List<String>> delegate;
 
@@ -114,11 +131,22 @@ public final class RouteMatchers {
 
         @Override
         public RouteMatch evaluate(Context context, Request request) {
-            final List<String> pathElements = new ArrayList<>(request.getResourcePathObject().size());
-            for (String pathElement : request.getResourcePathObject()) {
-                pathElements.add(pathElement);
-            }
-            return delegate.evaluate(context, pathElements);
+            return delegate.evaluate(context, getPathElements(request));
+        }
+
+        @Override
+        public RoutingMode getRoutingMode() {
+            return delegate instanceof UriTemplateRouteMatcher
+                    ? ((UriTemplateRouteMatcher) delegate).getRoutingMode()
+                    : null;
+        }
+
+        @Override
+        public String getUriTemplate() {
+            // Without a template the route is not indexed, and evaluated for every request
+            return delegate instanceof UriTemplateRouteMatcher
+                    ? ((UriTemplateRouteMatcher) delegate).getUriTemplate()
+                    : null;
         }
 
         @Override
@@ -0,0 +1,132 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json.resource;
+
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+import static org.forgerock.json.resource.Requests.newCreateRequest;
+import static org.forgerock.json.resource.Requests.newQueryRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.forgerock.json.JsonPointer;
+import org.forgerock.services.context.Context;
+import org.forgerock.services.context.RootContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the latency of filtered and sorted queries against a {@link MemoryBackend}, with and without indexes on
+ * the filtered fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class MemoryBackendBenchmark {
+
+    private static final int RESOURCE_COUNT = 100_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({ "false", "true" })
+    private boolean indexed;
+
+    private final Context context = new RootContext();
+    private MemoryBackend backend;
+
+    @Setup
+    public void setup() throws Exception {
+        backend = indexed
+                ? new MemoryBackend(Arrays.asList(new JsonPointer("uid"), new JsonPointer("age")))
+                : new MemoryBackend(Collections.<JsonPointer>emptySet());
+        for (int i = 0; i < RESOURCE_COUNT; i++) {
+            backend.createInstance(context, newCreateRequest("users", json(object(
+                    field("uid", String.format("user.%06d", i)),
+                    field("age", i % 100),
+                    field("department", "dept-" + (i % 10)))))).getOrThrow();
+        }
+    }
+
+    /** Selects one resource by equality. */
+    @Benchmark
+    public int queryByEquality() throws Exception {
+        return query(newQueryRequest("users")
+                .setQueryFilter(QueryFilters.parse("/uid eq \"user.054321\"")));
+    }
+
+    /** Selects a thousand resources by prefix. */
+    @Benchmark
+    public int queryByPrefix() throws Exception {
+        return query(newQueryRequest("users")
+                .setQueryFilter(QueryFilters.parse("/uid sw \"user.054\"")));
+    }
+
+    /** Selects a range of resources, and returns the first page of them sorted. */
+    @Benchmark
+    public int queryRangeSortedFirstPage() throws Exception {
+        return query(newQueryRequest("users")
+                .setQueryFilter(QueryFilters.parse("/age ge 10 and /age lt 20"))
+                .addSortKey("-/uid")
+                .setPageSize(PAGE_SIZE));
+    }
+
+    /** Returns the first page of all of the resources sorted. */
+    @Benchmark
+    public int querySortedFirstPage() throws Exception {
+        return query(newQueryRequest("users")
+                .addSortKey("+/department", "-/uid")
+                .setPageSize(PAGE_SIZE));
+    }
+
+    private int query(final QueryRequest request) throws Exception {
+        final int[] count = new int[1];
+        backend.queryCollection(context, request, new QueryResourceHandler() {
+            @Override
+            public boolean handleResource(final ResourceResponse resource) {
+                count[0]++;
+                return true;
+            }
+        }).getOrThrow();
+        return count[0];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(MemoryBackendBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2013-2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json.resource;
@@ -34,6 +35,7 @@ import org.forgerock.util.query.QueryFilter;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -269,6 +271,68 @@ public final class MemoryBackendTest {
         assertThat(resource.getContent().getObject()).isEqualTo(object(field("_id", "0")));
     }
 
+    @Test
+    public void testQueryCollectionWithIndexedFilters() throws Exception {
+        final Connection connection = getIndexedConnection();
+        connection.create(ctx(), newCreateRequest("users", jsonUser("Alice", 20, "sales")));
+        connection.create(ctx(), newCreateRequest("users", jsonUser("alan", 25, "it")));
+        connection.create(ctx(), newCreateRequest("users", jsonUser("bob", 30, "it")));
+        connection.create(ctx(), newCreateRequest("users", content(object(field("name", "carol")))));
+
+        assertThat(queryNames(connection, "/name eq \"alice\"")).containsExactly("Alice");
+        assertThat(queryNames(connection, "/name sw \"al\"")).containsExactly("alan", "Alice");
+        assertThat(queryNames(connection, "/name gt \"alice\"")).containsExactly("bob", "carol");
+        assertThat(queryNames(connection, "/age ge 25")).containsExactly("alan", "bob");
+        assertThat(queryNames(connection, "/age lt 25.5")).containsExactly("alan", "Alice");
+        assertThat(queryNames(connection, "/age pr")).containsExactly("alan", "Alice", "bob");
+        assertThat(queryNames(connection, "/age ge 25 and /role eq \"it\"")).containsExactly("alan", "bob");
+        assertThat(queryNames(connection, "/age eq 20 or /name eq \"bob\"")).containsExactly("Alice", "bob");
+        assertThat(queryNames(connection, "!(/age pr)")).containsExactly("carol");
+        assertThat(queryNames(connection, "/age eq \"20\"")).isEmpty();
+    }
+
+    @Test
+    public void testQueryCollectionWithIndexedFiltersAfterUpdates() throws Exception {
+        final Connection connection = getIndexedConnection();
+        connection.create(ctx(), newCreateRequest("users", userAlice()));
+        connection.create(ctx(), newCreateRequest("users", userBob()));
+
+        connection.update(ctx(), newUpdateRequest("users/0", jsonUser("alice", 40, "sales")));
+        connection.patch(ctx(), newPatchRequest("users/1", replace("name", "robert")));
+
+        assertThat(queryNames(connection, "/age eq 20")).isEmpty();
+        assertThat(queryNames(connection, "/age eq 40")).containsExactly("alice");
+        assertThat(queryNames(connection, "/name eq \"bob\"")).isEmpty();
+        assertThat(queryNames(connection, "/name eq \"robert\"")).containsExactly("robert");
+
+        connection.delete(ctx(), newDeleteRequest("users/0"));
+        assertThat(queryNames(connection, "/age pr")).containsExactly("robert");
+
+        connection.action(ctx(), newActionRequest("users", "clear"));
+        assertThat(queryNames(connection, "/age pr")).isEmpty();
+    }
+
+    @Test
+    public void testQueryCollectionWithMultipleSortKeysAndOffset() throws Exception {
+        final Connection connection = getConnection();
+        for (int i = 0; i < 10; i++) {
+            connection.create(ctx(), newCreateRequest("users", jsonUser("foo" + i, 30 + i % 3, "it")));
+        }
+
+        final QueryRequest request = newQueryRequest("users")
+                .addSortKey("-/age", "+/name")
+                .setPageSize(3)
+                .setPagedResultsOffset(3);
+        final List<ResourceResponse> results = new ArrayList<>();
+        final QueryResponse result = connection.query(ctx(), request, results);
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).getContent().get("name").asString()).isEqualTo("foo1");
+        assertThat(results.get(1).getContent().get("name").asString()).isEqualTo("foo4");
+        assertThat(results.get(2).getContent().get("name").asString()).isEqualTo("foo7");
+        assertThat(result.getPagedResultsCookie()).isNotNull();
+    }
+
     @Test(expectedExceptions = BadRequestException.class)
     public void testQueryInstance() throws Exception {
         final Connection connection = getConnectionWithAliceAndBob();
@@ -408,6 +472,25 @@ public final class MemoryBackendTest {
         return newInternalConnection(router);
     }
 
+    private Connection getIndexedConnection() {
+        final MemoryBackend users = new MemoryBackend(
+                Arrays.asList(new JsonPointer("name"), new JsonPointer("age"), new JsonPointer("role")));
+        final Router router = new Router();
+        router.addRoute(uriTemplate("users"), users);
+        return newInternalConnection(router);
+    }
+
+    private List<String> queryNames(final Connection connection, final String filter) throws Exception {
+        final List<ResourceResponse> results = new ArrayList<>();
+        connection.query(ctx(), newQueryRequest("users").setQueryFilter(QueryFilters.parse(filter))
+                .addSortKey("+/name"), results);
+        final List<String> names = new ArrayList<>();
+        for (final ResourceResponse resource : results) {
+            names.add(resource.getContent().get("name").asString());
+        }
+        return names;
+    }
+
     private Connection getConnectionWithAliceAndBob() throws Exception {
         final Connection connection = getConnection();
 
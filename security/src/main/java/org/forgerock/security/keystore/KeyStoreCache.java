@@ -0,0 +1,236 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.security.keystore;
+
+import static org.forgerock.util.Utils.isBlank;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A cache of key stores loaded from files, and of the keys resolved from them.
+ * <p>
+ * Key stores are cached by file, type and password, and keys by alias (and password, for private keys). A key
+ * store is loaded again, and its cached keys discarded, as soon as the last modification time or the length of its
+ * file changes. Key stores which are not loaded from a file (for instance when the file name is "NONE") are never
+ * reloaded.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class KeyStoreCache {
+
+    private static final String NONE = "none";
+
+    private final ConcurrentMap<KeyStoreId, CachedKeyStore> keyStores = new ConcurrentHashMap<>();
+
+    /**
+     * Gets a {@link KeyStoreManager} for the key store loaded from the given file.
+     *
+     * @param keyStoreFile the name of the key store file, as accepted by
+     *                     {@link KeyStoreBuilder#withKeyStoreFile(String)}.
+     * @param keyStoreType the type of the key store. May not be null.
+     * @param keyStorePassword the password of the key store. May not be null.
+     * @return the key store manager.
+     * @throws FileNotFoundException if the file does not exist, is not a file, or cannot be read.
+     */
+    public KeyStoreManager getKeyStoreManager(final String keyStoreFile, final String keyStoreType,
+            final String keyStorePassword) throws FileNotFoundException {
+        return getCachedKeyStore(keyStoreFile, keyStoreType, keyStorePassword).keyStoreManager;
+    }
+
+    /**
+     * Gets the public key with the given alias from the key store loaded from the given file.
+     *
+     * @param keyStoreFile the name of the key store file, as accepted by
+     *                     {@link KeyStoreBuilder#withKeyStoreFile(String)}.
+     * @param keyStoreType the type of the key store. May not be null.
+     * @param keyStorePassword the password of the key store. May not be null.
+     * @param keyAlias the public key alias.
+     * @return the public key, or {@code null} if the alias is null or empty.
+     * @throws FileNotFoundException if the file does not exist, is not a file, or cannot be read.
+     * @see KeyStoreManager#getPublicKey(String)
+     */
+    public PublicKey getPublicKey(final String keyStoreFile, final String keyStoreType,
+            final String keyStorePassword, final String keyAlias) throws FileNotFoundException {
+        if (keyAlias == null || keyAlias.isEmpty()) {
+            return null;
+        }
+        final CachedKeyStore keyStore = getCachedKeyStore(keyStoreFile, keyStoreType, keyStorePassword);
+        PublicKey publicKey = keyStore.publicKeys.get(keyAlias);
+        if (publicKey == null) {
+            publicKey = keyStore.keyStoreManager.getPublicKey(keyAlias);
+            if (publicKey != null) {
+                keyStore.publicKeys.put(keyAlias, publicKey);
+            }
+        }
+        return publicKey;
+    }
+
+    /**
+     * Gets the private key with the given alias from the key store loaded from the given file.
+     *
+     * @param keyStoreFile the name of the key store file, as accepted by
+     *                     {@link KeyStoreBuilder#withKeyStoreFile(String)}.
+     * @param keyStoreType the type of the key store. May not be null.
+     * @param keyStorePassword the password of the key store. May not be null.
+     * @param keyAlias the private key alias.
+     * @param privateKeyPassword the private key password.
+     * @return the private key, or {@code null} if the alias is null or empty.
+     * @throws FileNotFoundException if the file does not exist, is not a file, or cannot be read.
+     * @see KeyStoreManager#getPrivateKey(String, String)
+     */
+    public PrivateKey getPrivateKey(final String keyStoreFile, final String keyStoreType,
+            final String keyStorePassword, final String keyAlias, final String privateKeyPassword)
+            throws FileNotFoundException {
+        if (keyAlias == null || keyAlias.isEmpty()) {
+            return null;
+        }
+        final CachedKeyStore keyStore = getCachedKeyStore(keyStoreFile, keyStoreType, keyStorePassword);
+        final PrivateKeyId privateKeyId = new PrivateKeyId(keyAlias, privateKeyPassword);
+        PrivateKey privateKey = keyStore.privateKeys.get(privateKeyId);
+        if (privateKey == null) {
+            privateKey = keyStore.keyStoreManager.getPrivateKey(keyAlias, privateKeyPassword);
+            if (privateKey != null) {
+                keyStore.privateKeys.put(privateKeyId, privateKey);
+            }
+        }
+        return privateKey;
+    }
+
+    /**
+     * Discards all of the cached key stores and keys.
+     */
+    public void clear() {
+        keyStores.clear();
+    }
+
+    private CachedKeyStore getCachedKeyStore(final String keyStoreFile, final String keyStoreType,
+            final String keyStorePassword) throws FileNotFoundException {
+        final KeyStoreId keyStoreId = new KeyStoreId(keyStoreFile, keyStoreType, keyStorePassword);
+        final File file = isBlank(keyStoreFile) || NONE.equals(keyStoreFile.toLowerCase(Locale.ROOT))
+                ? null
+                : new File(keyStoreFile);
+        // read the file attributes before loading it, so that a concurrent update leads to a later reload
+        final long lastModified = file != null ? file.lastModified() : 0L;
+        final long length = file != null ? file.length() : 0L;
+        CachedKeyStore cached = keyStores.get(keyStoreId);
+        if (cached == null || !cached.isUpToDate(lastModified, length)) {
+            synchronized (keyStores) {
+                cached = keyStores.get(keyStoreId);
+                if (cached == null || !cached.isUpToDate(lastModified, length)) {
+                    final KeyStore keyStore = new KeyStoreBuilder()
+                            .withKeyStoreFile(keyStoreFile)
+                            .withKeyStoreType(keyStoreType)
+                            .withPassword(keyStorePassword)
+                            .build();
+                    cached = new CachedKeyStore(new KeyStoreManager(keyStore), lastModified, length);
+                    keyStores.put(keyStoreId, cached);
+                }
+            }
+        }
+        return cached;
+    }
+
+    /** A loaded key store, with the keys resolved from it so far. */
+    private static final class CachedKeyStore {
+        private final KeyStoreManager keyStoreManager;
+        private final long lastModified;
+        private final long length;
+        private final ConcurrentMap<String, PublicKey> publicKeys = new ConcurrentHashMap<>();
+        private final ConcurrentMap<PrivateKeyId, PrivateKey> privateKeys = new ConcurrentHashMap<>();
+
+        private CachedKeyStore(final KeyStoreManager keyStoreManager, final long lastModified, final long length) {
+            this.keyStoreManager = keyStoreManager;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        private boolean isUpToDate(final long lastModified, final long length) {
+            return this.lastModified == lastModified && this.length == length;
+        }
+    }
+
+    /** Identifies a key store by its file, type and password. */
+    private static final class KeyStoreId {
+        private final String file;
+        private final String type;
+        private final String password;
+
+        private KeyStoreId(final String file, final String type, final String password) {
+            this.file = file;
+            this.type = type;
+            this.password = password;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof KeyStoreId)) {
+                return false;
+            }
+            final KeyStoreId that = (KeyStoreId) o;
+            return Objects.equals(file, that.file)
+                    && Objects.equals(type, that.type)
+                    && Objects.equals(password, that.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(file, type, password);
+        }
+    }
+
+    /**
+     * Identifies a private key by its alias and password, so that a cached key is never returned for a wrong
+     * password.
+     */
+    private static final class PrivateKeyId {
+        private final String alias;
+        private final String password;
+
+        private PrivateKeyId(final String alias, final String password) {
+            this.alias = alias;
+            this.password = password;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PrivateKeyId)) {
+                return false;
+            }
+            final PrivateKeyId that = (PrivateKeyId) o;
+            return Objects.equals(alias, that.alias) && Objects.equals(password, that.password);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(alias, password);
+        }
+    }
+}
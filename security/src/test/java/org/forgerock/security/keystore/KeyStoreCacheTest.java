@@ -0,0 +1,121 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.security.keystore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("javadoc")
+public class KeyStoreCacheTest {
+    private static final String KEY_STORE_PASSWORD = "Passw0rd1";
+    private static final String KEY_ALIAS = "key";
+
+    private File keyStoreFile;
+    private KeyStoreCache cache;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        keyStoreFile = File.createTempFile("KeyStoreCacheTest", ".jks");
+        copyKeyStore();
+        cache = new KeyStoreCache();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        keyStoreFile.delete();
+    }
+
+    @Test
+    public void shouldReturnCachedKeyStoreAndKeys() throws Exception {
+        // given
+        final KeyStoreManager keyStoreManager = getKeyStoreManager();
+        final PublicKey publicKey = getPublicKey();
+        final PrivateKey privateKey = getPrivateKey();
+
+        // when
+
+        // then
+        assertThat(publicKey).isNotNull();
+        assertThat(privateKey).isNotNull();
+        assertThat(getKeyStoreManager()).isSameAs(keyStoreManager);
+        assertThat(getPublicKey()).isSameAs(publicKey);
+        assertThat(getPrivateKey()).isSameAs(privateKey);
+    }
+
+    @Test
+    public void shouldReloadKeyStoreWhenFileIsModified() throws Exception {
+        // given
+        final KeyStoreManager keyStoreManager = getKeyStoreManager();
+        final PublicKey publicKey = getPublicKey();
+
+        // when
+        copyKeyStore();
+        keyStoreFile.setLastModified(keyStoreFile.lastModified() - 10_000L);
+
+        // then
+        assertThat(getKeyStoreManager()).isNotSameAs(keyStoreManager);
+        assertThat(getPublicKey()).isEqualTo(publicKey);
+    }
+
+    @Test(expectedExceptions = KeystoreManagerException.class)
+    public void shouldNotReturnCachedPrivateKeyForWrongPassword() throws Exception {
+        // given
+        getPrivateKey();
+
+        // when
+        cache.getPrivateKey(keyStoreFile.getPath(), "JKS", KEY_STORE_PASSWORD, KEY_ALIAS, "wrong");
+    }
+
+    @Test(expectedExceptions = FileNotFoundException.class)
+    public void shouldFailWhenFileIsDeleted() throws Exception {
+        // given
+        getKeyStoreManager();
+
+        // when
+        keyStoreFile.delete();
+        getKeyStoreManager();
+    }
+
+    private KeyStoreManager getKeyStoreManager() throws FileNotFoundException {
+        return cache.getKeyStoreManager(keyStoreFile.getPath(), "JKS", KEY_STORE_PASSWORD);
+    }
+
+    private PublicKey getPublicKey() throws FileNotFoundException {
+        return cache.getPublicKey(keyStoreFile.getPath(), "JKS", KEY_STORE_PASSWORD, KEY_ALIAS);
+    }
+
+    private PrivateKey getPrivateKey() throws FileNotFoundException {
+        return cache.getPrivateKey(keyStoreFile.getPath(), "JKS", KEY_STORE_PASSWORD, KEY_ALIAS, KEY_STORE_PASSWORD);
+    }
+
+    private void copyKeyStore() throws Exception {
+        try (InputStream keyStore = getClass().getResourceAsStream("/keystore.jks")) {
+            Files.copy(keyStore, keyStoreFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
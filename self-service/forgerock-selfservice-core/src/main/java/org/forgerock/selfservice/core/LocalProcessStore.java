@@ -0,0 +1,208 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.selfservice.core;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.forgerock.util.Reject.checkNotNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.util.Reject;
+import org.forgerock.util.time.Duration;
+import org.forgerock.util.time.TimeService;
+
+/**
+ * Bounded process store, local to the server, for the processes which are {@link StorageType#LOCAL}.
+ * <p>
+ * Each state is kept until it is removed, when the process moves on to its next stage, or until its time to live
+ * has elapsed, so that the processes abandoned by their users do not hold memory forever. The time to live should
+ * be the lifetime of the snapshot tokens keying the states: once a token has expired, its state cannot be
+ * retrieved anyway. When the store is full, the oldest states are evicted to make room for new ones.
+ * <p>
+ * The states are stored in the compact form of their JSON representation rather than as the {@link JsonValue}s
+ * captured, and must therefore only hold JSON values. The state returned by {@link #remove(String)} is a new
+ * {@link JsonValue} decoded from that form.
+ * <p>
+ * The number of states stored, and of those which expired or were evicted before being retrieved, are counted so
+ * that the bounds of the store can be tuned.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @since 22.1.0
+ */
+public final class LocalProcessStore implements ProcessStore {
+
+    private final int maximumSize;
+    private final long timeToLiveMillis;
+    private final TimeService timeService;
+
+    /*
+     * All states have the same time to live, so that the states, in the order in which they were added, are also
+     * in the order in which they expire: the expired states are always found at the head of the map.
+     */
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * Creates a store holding at most the given number of states, each for the given time.
+     *
+     * @param maximumSize
+     *         the maximum number of states held
+     * @param timeToLive
+     *         the time for which a state is held, usually the lifetime of the snapshot tokens, or
+     *         {@link Duration#UNLIMITED} to hold states until they are removed or evicted
+     */
+    public LocalProcessStore(int maximumSize, Duration timeToLive) {
+        this(maximumSize, timeToLive, TimeService.SYSTEM);
+    }
+
+    /**
+     * Creates a store holding at most the given number of states, each for the given time.
+     *
+     * @param maximumSize
+     *         the maximum number of states held
+     * @param timeToLive
+     *         the time for which a state is held, usually the lifetime of the snapshot tokens, or
+     *         {@link Duration#UNLIMITED} to hold states until they are removed or evicted
+     * @param timeService
+     *         the time service giving the current time
+     */
+    public LocalProcessStore(int maximumSize, Duration timeToLive, TimeService timeService) {
+        Reject.ifTrue(maximumSize <= 0, "The maximum size must be positive");
+        Reject.ifNull(timeToLive);
+        this.maximumSize = maximumSize;
+        this.timeToLiveMillis = timeToLive.isUnlimited() ? Long.MAX_VALUE : timeToLive.to(MILLISECONDS);
+        this.timeService = checkNotNull(timeService);
+    }
+
+    @Override
+    public void add(String key, JsonValue state) {
+        Reject.ifNull(key, state);
+        byte[] encodedState = ProcessStateCodec.encode(state);
+        long now = timeService.now();
+        long expiresAt = timeToLiveMillis == Long.MAX_VALUE ? Long.MAX_VALUE : now + timeToLiveMillis;
+
+        synchronized (entries) {
+            removeExpired(now);
+            // Re-adding a key moves its state to the tail, so that the states stay ordered by expiry
+            entries.remove(key);
+            Iterator<Entry> oldest = entries.values().iterator();
+            while (entries.size() >= maximumSize && oldest.hasNext()) {
+                oldest.next();
+                oldest.remove();
+                evicted.increment();
+            }
+            entries.put(key, new Entry(encodedState, expiresAt));
+        }
+        stored.increment();
+    }
+
+    @Override
+    public JsonValue remove(String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.remove(key);
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= timeService.now()) {
+            expired.increment();
+            return null;
+        }
+        return ProcessStateCodec.decode(entry.encodedState);
+    }
+
+    /**
+     * Removes the states which have expired. This is done each time a state is added, and may also be scheduled to
+     * release the memory held by expired states while no process is started.
+     */
+    public void removeExpired() {
+        long now = timeService.now();
+        synchronized (entries) {
+            removeExpired(now);
+        }
+    }
+
+    private void removeExpired(long now) {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (oldest.hasNext() && oldest.next().expiresAt <= now) {
+            oldest.remove();
+            expired.increment();
+        }
+    }
+
+    /**
+     * Returns the number of states held, including those which have expired but have not been removed yet.
+     *
+     * @return the number of states
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the number of states added to the store.
+     *
+     * @return the number of states stored
+     */
+    public long getStoredCount() {
+        return stored.sum();
+    }
+
+    /**
+     * Returns the number of states which expired before being removed, each belonging to an abandoned process.
+     *
+     * @return the number of states expired
+     */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    /**
+     * Returns the number of states evicted, before they expired, to make room for new states. States being evicted
+     * mean that the store is too small for the number of processes in progress.
+     *
+     * @return the number of states evicted
+     */
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    /*
+     * The encoded state of a process and the time at which it expires.
+     */
+    private static final class Entry {
+        private final byte[] encodedState;
+        private final long expiresAt;
+
+        private Entry(byte[] encodedState, long expiresAt) {
+            this.encodedState = encodedState;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.selfservice.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.forgerock.json.JsonValue;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Encodes the state of a process, as returned by {@link ProcessContextImpl#toJson()}, into the UTF-8 bytes of its
+ * JSON representation, and decodes it back.
+ * <p>
+ * The encoded state takes a fraction of the memory of the maps, lists and boxed values it is made of, and is
+ * detached from the {@link JsonValue} captured, so that the stages can neither modify nor retain a stored state.
+ * The state must only hold JSON values, as it must already when the process is {@link StorageType#STATELESS}, and
+ * its numbers are decoded as they are from a stateless snapshot token: integers as {@link Integer}s, or as
+ * {@link Long}s or {@link BigInteger}s when they do not fit, and decimal numbers as {@link Double}s.
+ *
+ * @since 22.1.0
+ */
+final class ProcessStateCodec {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private ProcessStateCodec() {
+        // Utility class.
+    }
+
+    /**
+     * Encodes the state.
+     *
+     * @param state
+     *         the state
+     *
+     * @return the encoded state
+     *
+     * @throws IllegalArgumentException
+     *         if the state holds values which are not JSON values
+     */
+    static byte[] encode(JsonValue state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(bytes)) {
+            write(generator, state.getObject());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to encode the process state", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes the state.
+     *
+     * @param encodedState
+     *         the encoded state
+     *
+     * @return the state
+     *
+     * @throws IllegalArgumentException
+     *         if the encoded state is malformed
+     */
+    static JsonValue decode(byte[] encodedState) {
+        try (JsonParser parser = JSON_FACTORY.createParser(encodedState)) {
+            parser.nextToken();
+            return new JsonValue(read(parser));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unable to decode the process state", e);
+        }
+    }
+
+    private static void write(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            generator.writeNumber((Long) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            generator.writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof Map) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> field : ((Map<?, ?>) value).entrySet()) {
+                generator.writeFieldName(String.valueOf(field.getKey()));
+                write(generator, field.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof List) {
+            generator.writeStartArray();
+            for (Object element : (List<?>) value) {
+                write(generator, element);
+            }
+            generator.writeEndArray();
+        } else if (value instanceof JsonValue) {
+            write(generator, ((JsonValue) value).getObject());
+        } else {
+            throw new IllegalArgumentException("The process state holds a value which is not JSON: "
+                    + value.getClass().getName());
+        }
+    }
+
+    private static Object read(JsonParser parser) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == null) {
+            throw new IOException("Unexpected end of the process state");
+        }
+        switch (token) {
+        case START_OBJECT:
+            Map<String, Object> object = new LinkedHashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                object.put(name, read(parser));
+            }
+            return object;
+        case START_ARRAY:
+            List<Object> array = new ArrayList<>();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                array.add(read(parser));
+            }
+            return array;
+        case VALUE_STRING:
+            return parser.getText();
+        case VALUE_NUMBER_INT:
+        case VALUE_NUMBER_FLOAT:
+            return parser.getNumberValue();
+        case VALUE_TRUE:
+            return Boolean.TRUE;
+        case VALUE_FALSE:
+            return Boolean.FALSE;
+        case VALUE_NULL:
+            return null;
+        default:
+            throw new IOException("Unexpected token in the process state: " + token);
+        }
+    }
+}
@@ -12,6 +12,7 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015-2017 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.selfservice.core;
@@ -38,7 +39,8 @@ import org.forgerock.tokenhandler.TokenHandlerException;
 public enum StorageType {
 
     /**
-     * State should be preserved locally.
+     * State should be preserved locally, in the {@link ProcessStore} of the service, such as a
+     * {@link LocalProcessStore}.
      */
     LOCAL(new SnapshotAuthorFactory() {
 
@@ -0,0 +1,160 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+package org.forgerock.selfservice.core;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.forgerock.json.JsonValue.*;
+import static org.forgerock.util.time.Duration.duration;
+
+import org.forgerock.json.JsonValue;
+import org.forgerock.util.time.TimeService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link LocalProcessStore}.
+ *
+ * @since 22.1.0
+ */
+public final class LocalProcessStoreTest {
+
+    private long now;
+    private TimeService timeService;
+
+    @BeforeMethod
+    public void setUp() {
+        now = 1000000L;
+        timeService = new TimeService() {
+            @Override
+            public long now() {
+                return now;
+            }
+
+            @Override
+            public long since(long past) {
+                return now - past;
+            }
+        };
+    }
+
+    @Test
+    public void shouldReturnStateOnce() {
+        // Given
+        LocalProcessStore store = new LocalProcessStore(10, duration(180L, SECONDS), timeService);
+        JsonValue state = state(2, "emailValidation");
+        store.add("token", state);
+
+        // When
+        JsonValue retrieved = store.remove("token");
+
+        // Then
+        assertThat(retrieved).isNotSameAs(state);
+        assertThat(retrieved.getObject()).isEqualTo(state.getObject());
+        assertThat(store.remove("token")).isNull();
+        assertThat(store.getStoredCount()).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldDetachStoredStateFromCapturedState() {
+        // Given
+        LocalProcessStore store = new LocalProcessStore(10, duration(180L, SECONDS), timeService);
+        JsonValue state = state(0, "initial");
+        store.add("token", state);
+
+        // When
+        state.get("processState").put("mail", "changed@example.com");
+
+        // Then
+        assertThat(store.remove("token").get("processState").get("mail").asString())
+                .isEqualTo("bjensen@example.com");
+    }
+
+    @Test
+    public void shouldExpireStateAfterTimeToLive() {
+        // Given
+        LocalProcessStore store = new LocalProcessStore(10, duration(180L, SECONDS), timeService);
+        store.add("token", state(1, "initial"));
+
+        // When
+        now += 180000L;
+
+        // Then
+        assertThat(store.remove("token")).isNull();
+        assertThat(store.getExpiredCount()).isEqualTo(1L);
+        assertThat(store.getEvictedCount()).isEqualTo(0L);
+    }
+
+    @Test
+    public void shouldRemoveExpiredStatesWhenAdding() {
+        // Given
+        LocalProcessStore store = new LocalProcessStore(10, duration(180L, SECONDS), timeService);
+        store.add("abandoned1", state(1, "initial"));
+        store.add("abandoned2", state(1, "initial"));
+        now += 60000L;
+        store.add("recent", state(1, "initial"));
+
+        // When
+        now += 150000L;
+        store.add("new", state(0, "initial"));
+
+        // Then
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.getExpiredCount()).isEqualTo(2L);
+        assertThat(store.remove("recent")).isNotNull();
+    }
+
+    @Test
+    public void shouldEvictOldestStatesWhenFull() {
+        // Given
+        LocalProcessStore store = new LocalProcessStore(2, duration(180L, SECONDS), timeService);
+        store.add("first", state(1, "initial"));
+        store.add("second", state(1, "initial"));
+
+        // When
+        store.add("third", state(1, "initial"));
+
+        // Then
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.getEvictedCount()).isEqualTo(1L);
+        assertThat(store.remove("first")).isNull();
+        assertThat(store.remove("second")).isNotNull();
+        assertThat(store.remove("third")).isNotNull();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectStateWhichIsNotJson() {
+        // Given
+        LocalProcessStore store = new LocalProcessStore(10, duration(180L, SECONDS), timeService);
+
+        // When
+        store.add("token", json(object(field("value", new Object()))));
+    }
+
+    private static JsonValue state(int stageIndex, String stageTag) {
+        return json(object(
+                field("stageIndex", stageIndex),
+                field("versionKey", 3),
+                field("stageTag", stageTag),
+                field("processState", object(
+                        field("mail", "bjensen@example.com"),
+                        field("verified", true),
+                        field("attempts", 2),
+                        field("score", 0.5),
+                        field("questions", array("pet", "employer")),
+                        field("_successAdditions", null)))));
+    }
+}
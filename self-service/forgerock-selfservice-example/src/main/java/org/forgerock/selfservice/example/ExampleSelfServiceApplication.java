@@ -12,14 +12,17 @@
  * information: "Portions copyright [year] [name of copyright owner]".
  *
  * Copyright 2015 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.selfservice.example;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.forgerock.http.routing.RouteMatchers.requestUriMatcher;
 import static org.forgerock.json.resource.ResourcePath.resourcePath;
 import static org.forgerock.json.resource.Resources.newInternalConnectionFactory;
 import static org.forgerock.json.resource.Router.uriTemplate;
+import static org.forgerock.util.time.Duration.duration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.forgerock.http.Client;
@@ -38,6 +41,7 @@ import org.forgerock.json.resource.ResourceException;
 import org.forgerock.json.resource.Resources;
 import org.forgerock.json.resource.Router;
 import org.forgerock.json.resource.http.CrestHttp;
+import org.forgerock.selfservice.core.LocalProcessStore;
 import org.forgerock.selfservice.core.UserUpdateService;
 import org.forgerock.selfservice.json.JsonAnonymousProcessServiceBuilder;
 import org.forgerock.util.Factory;
@@ -51,6 +55,11 @@ import java.util.Map;
  */
 public final class ExampleSelfServiceApplication implements HttpApplication {
 
+    private static final int MAX_PROCESSES_IN_PROGRESS = 10000;
+
+    /** Lifetime, in seconds, of the processes in progress when the snapshot token sets no expiry. */
+    private static final long DEFAULT_PROCESS_EXPIRY = 180L;
+
     private ConnectionFactory crestConnectionFactory;
     private Router crestRouter;
     private JsonValue appConfig;
@@ -95,7 +104,9 @@ public final class ExampleSelfServiceApplication implements HttpApplication {
                 .withJsonConfig(json)
                 .withProgressStageProvider(new ExampleProgressStageProvider(crestConnectionFactory, httpClient))
                 .withTokenHandlerFactory(new ExampleTokenHandlerFactory())
-                .withProcessStore(new SimpleInMemoryStore())
+                .withProcessStore(new LocalProcessStore(MAX_PROCESSES_IN_PROGRESS,
+                        duration(json.get("snapshotToken").get("tokenExpiry")
+                                .defaultTo(DEFAULT_PROCESS_EXPIRY).asLong(), SECONDS)))
                 .build();
 
         return CrestHttp.newHttpHandler(Resources.newInternalConnectionFactory(service));
@@ -0,0 +1,87 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable JSON array, whose elements are themselves frozen. Updates return a new list, which shares the
+ * elements of this list rather than copying them.
+ *
+ * @see JsonValue#freeze()
+ */
+final class FrozenList extends AbstractList<Object> implements RandomAccess {
+
+    /** The elements of the list, which are never modified once the list is constructed. */
+    private final Object[] elements;
+
+    /**
+     * Constructs a new frozen list.
+     *
+     * @param elements the frozen elements of the list, which must not be modified afterwards.
+     */
+    FrozenList(final Object[] elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Returns a copy of this list with the element at the specified index replaced, or appended if the index is the
+     * size of the list.
+     *
+     * @param index the index of the element, between 0 and the size of the list.
+     * @param element the frozen element.
+     * @return a copy of this list with the element set.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    FrozenList with(final int index, final Object element) {
+        if (index < 0 || index > elements.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.length);
+        }
+        final Object[] copy = Arrays.copyOf(elements, Math.max(elements.length, index + 1));
+        copy[index] = element;
+        return new FrozenList(copy);
+    }
+
+    /**
+     * Returns a copy of this list without the element at the specified index.
+     *
+     * @param index the index of the element.
+     * @return a copy of this list without the element.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    FrozenList without(final int index) {
+        if (index < 0 || index >= elements.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.length);
+        }
+        final Object[] copy = new Object[elements.length - 1];
+        System.arraycopy(elements, 0, copy, 0, index);
+        System.arraycopy(elements, index + 1, copy, index, elements.length - index - 1);
+        return new FrozenList(copy);
+    }
+
+    @Override
+    public Object get(final int index) {
+        return elements[index];
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+}
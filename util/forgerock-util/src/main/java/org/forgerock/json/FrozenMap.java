@@ -0,0 +1,97 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable JSON object, whose values are themselves frozen. Updates return a new map, which shares the values
+ * of this map rather than copying them.
+ *
+ * @see JsonValue#freeze()
+ */
+final class FrozenMap extends AbstractMap<String, Object> {
+
+    /** The members of the map, which are never modified once the map is constructed. */
+    private final Map<String, Object> members;
+
+    /**
+     * Constructs a new frozen map.
+     *
+     * @param members the frozen members of the map, which must not be modified afterwards.
+     */
+    FrozenMap(final Map<String, Object> members) {
+        this.members = members;
+    }
+
+    /**
+     * Returns a copy of this map with the specified member set.
+     *
+     * @param key the key of the member.
+     * @param value the frozen value of the member.
+     * @return a copy of this map with the specified member set.
+     */
+    FrozenMap with(final String key, final Object value) {
+        final Map<String, Object> copy = new LinkedHashMap<>(members);
+        copy.put(key, value);
+        return new FrozenMap(copy);
+    }
+
+    /**
+     * Returns a copy of this map without the specified member, or this map if it does not contain the member.
+     *
+     * @param key the key of the member.
+     * @return a copy of this map without the specified member.
+     */
+    FrozenMap without(final String key) {
+        if (!members.containsKey(key)) {
+            return this;
+        }
+        final Map<String, Object> copy = new LinkedHashMap<>(members);
+        copy.remove(key);
+        return new FrozenMap(copy);
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return members.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return members.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return members.size();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(members.keySet());
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return Collections.unmodifiableMap(members).entrySet();
+    }
+}
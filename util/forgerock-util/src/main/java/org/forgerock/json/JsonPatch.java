@@ -12,6 +12,7 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json;
@@ -19,9 +20,12 @@ package org.forgerock.json;
 import static org.forgerock.json.JsonValueFunctions.pointer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import org.forgerock.util.Reject;
 
@@ -38,18 +42,18 @@ public final class JsonPatch {
     /**
      * Path to the "op" attribute of a patch entry. Required.
      */
-    public static final JsonPointer OP_PTR = new JsonPointer("/op");
+    public static final JsonPointer OP_PTR = JsonPointer.valueOf("/op");
 
     /**
      * Path to the "path" attribute of a patch entry. Required.
      */
-    public static final JsonPointer PATH_PTR = new JsonPointer("/path");
+    public static final JsonPointer PATH_PTR = JsonPointer.valueOf("/path");
 
     /**
      * Path to the "from" attribute of a patch entry. Required only for "move" and "copy"
      * operations. Ignored for all others.
      */
-    public static final JsonPointer FROM_PTR = new JsonPointer("/from");
+    public static final JsonPointer FROM_PTR = JsonPointer.valueOf("/from");
 
     /**
      * Path to the "value" attribute of a patch entry. Required for "add", "replace" and
@@ -57,7 +61,19 @@ public final class JsonPatch {
      *
      * This is public to allow for alternate implementations of {@link JsonPatchValueTransformer}.
      */
-    public static final JsonPointer VALUE_PTR = new JsonPointer("/value");
+    public static final JsonPointer VALUE_PTR = JsonPointer.valueOf("/value");
+
+    /**
+     * The maximum number of elements added to and removed from a list by a diff, beyond which the list is
+     * replaced as a whole: the cost of finding the smallest set of additions and removals grows with the square
+     * of their number.
+     */
+    private static final int MAX_LIST_EDITS = 1000;
+
+    /** Edit script steps of a list diff. */
+    private static final byte KEEP = 0;
+    private static final byte REMOVE = 1;
+    private static final byte ADD = 2;
 
     /**
      * Default transform for patch values; Conforms to RFC6902.
@@ -84,45 +100,184 @@ public final class JsonPatch {
      */
     public static JsonValue diff(JsonValue original, JsonValue target) {
         final List<Object> result = new ArrayList<>();
+        diff(original.getPointer(), original.getObject(), target.getObject(), result);
+        return new JsonValue(result);
+    }
+
+    /**
+     * Compares two raw JSON values, and adds the operations necessary to modify the original value to arrive at
+     * the target value to the result.
+     */
+    private static void diff(JsonPointer pointer, Object original, Object target, List<Object> result) {
         if (differentTypes(original, target)) { // different types cause a replace
-            result.add(op("replace", original.getPointer(), target));
-        } else if (original.isMap()) {
-            for (String key : original.keys()) {
-                if (target.isDefined(key)) { // target also has the property
-                    JsonValue diff = diff(original.get(key), target.get(key)); // recursively compare properties
-                    if (diff.size() > 0) {
-                        result.addAll(diff.asList()); // add diff results
-                    }
+            result.add(op("replace", pointer, new JsonValue(target)));
+        } else if (original instanceof Map) {
+            final Map<?, ?> originalMap = (Map<?, ?>) original;
+            final Map<?, ?> targetMap = (Map<?, ?>) target;
+            for (Map.Entry<?, ?> entry : originalMap.entrySet()) {
+                final String key = (String) entry.getKey();
+                if (targetMap.containsKey(key)) { // target also has the property
+                    // recursively compare properties
+                    diff(pointer.child(key), unwrap(entry.getValue()), unwrap(targetMap.get(key)), result);
                 } else { // property is missing in target
-                    result.add(op("remove", original.getPointer().child(key), null));
+                    result.add(op("remove", pointer.child(key), null));
                 }
             }
-            for (String key : target.keys()) {
-                if (!original.isDefined(key)) { // property is in target, not in original
-                    result.add(op("add", original.getPointer().child(key), target.get(key)));
+            for (Map.Entry<?, ?> entry : targetMap.entrySet()) {
+                if (!originalMap.containsKey(entry.getKey())) { // property is in target, not in original
+                    result.add(op("add", pointer.child((String) entry.getKey()), new JsonValue(entry.getValue())));
                 }
             }
-        } else if (original.isList()) {
-            boolean replace = false;
-            if (original.size() != target.size()) {
-                replace = true;
-            } else {
-                Iterator<JsonValue> i1 = original.iterator();
-                Iterator<JsonValue> i2 = target.iterator();
-                while (i1.hasNext() && i2.hasNext()) {
-                    if (diff(i1.next(), i2.next()).size() > 0) { // recursively compare elements
-                        replace = true;
-                        break;
-                    }
+        } else if (original instanceof List) {
+            diffLists(pointer, (List<?>) original, (List<?>) target, result);
+        } else if (original != null && !original.equals(target)) { // simple value comparison
+            result.add(op("replace", pointer, new JsonValue(target)));
+        }
+    }
+
+    /**
+     * Compares two raw JSON lists, and adds the operations necessary to modify the original list to arrive at the
+     * target list to the result. Elements are only added or removed where the lists differ, as per the shortest
+     * edit script between the lists, and an element removed at the same index as another is added is compared to
+     * it instead.
+     */
+    private static void diffLists(JsonPointer pointer, List<?> original, List<?> target, List<Object> result) {
+        final Object[] a = unwrapAll(original);
+        final Object[] b = unwrapAll(target);
+        int start = 0;
+        while (start < a.length && start < b.length && Objects.equals(a[start], b[start])) {
+            start++;
+        }
+        int endA = a.length;
+        int endB = b.length;
+        while (endA > start && endB > start && Objects.equals(a[endA - 1], b[endB - 1])) {
+            endA--;
+            endB--;
+        }
+        final byte[] script = shortestEditScript(a, start, endA, b, start, endB);
+        if (script == null) { // too many differences, replace list entirely
+            result.add(op("replace", pointer, new JsonValue(target)));
+            return;
+        }
+        int indexA = start;
+        int indexB = start; // the index in the list being patched, whose elements before it match the target
+        int step = 0;
+        while (step < script.length) {
+            if (script[step] == KEEP) {
+                indexA++;
+                indexB++;
+                step++;
+                continue;
+            }
+            int removed = 0;
+            int added = 0;
+            for (; step < script.length && script[step] != KEEP; step++) {
+                if (script[step] == REMOVE) {
+                    removed++;
+                } else {
+                    added++;
                 }
             }
-            if (replace) { // replace list entirely
-                result.add(op("replace", original.getPointer(), target));
+            final int replaced = Math.min(removed, added);
+            for (int n = 0; n < replaced; n++) { // recursively compare elements at the same index
+                diff(pointer.child(indexB + n), a[indexA + n], b[indexB + n], result);
+            }
+            for (int n = replaced; n < removed; n++) {
+                result.add(op("remove", pointer.child(indexB + replaced), null));
             }
-        } else if (!original.isNull() && !original.getObject().equals(target.getObject())) { // simple value comparison
-            result.add(op("replace", original.getPointer(), target));
+            for (int n = replaced; n < added; n++) {
+                result.add(op("add", pointer.child(indexB + n), new JsonValue(b[indexB + n])));
+            }
+            indexA += removed;
+            indexB += added;
         }
-        return new JsonValue(result);
+    }
+
+    /**
+     * Returns the shortest sequence of steps keeping, removing and adding elements which turns a range of the
+     * original elements into a range of the target elements, as per Myers' O(ND) difference algorithm, or
+     * {@code null} if the ranges differ by more than {@link #MAX_LIST_EDITS} elements.
+     */
+    private static byte[] shortestEditScript(Object[] a, int startA, int endA, Object[] b, int startB, int endB) {
+        final int n = endA - startA;
+        final int m = endB - startB;
+        final int[] hashesA = hashCodes(a, startA, endA);
+        final int[] hashesB = hashCodes(b, startB, endB);
+        final int max = Math.min(n + m, MAX_LIST_EDITS);
+        final int offset = max + 1;
+        // v[offset + k] is the furthest index in a reached on the diagonal k = x - y
+        final int[] v = new int[2 * max + 3];
+        final List<int[]> trace = new ArrayList<>();
+        for (int d = 0; d <= max; d++) {
+            trace.add(Arrays.copyOfRange(v, offset - d - 1, offset + d + 2));
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])
+                        ? v[offset + k + 1]
+                        : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && hashesA[x] == hashesB[y]
+                        && Objects.equals(a[startA + x], b[startB + y])) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    return backtrack(trace, d, n, m);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Rebuilds the edit script found after {@code d} additions and removals from the furthest indexes reached on
+     * each diagonal before each of them.
+     */
+    private static byte[] backtrack(List<int[]> trace, int d, int n, int m) {
+        final byte[] script = new byte[(n + m + d) / 2];
+        int step = script.length;
+        int x = n;
+        int y = m;
+        for (; d > 0; d--) {
+            final int[] v = trace.get(d);
+            final int offset = d + 1;
+            final int k = x - y;
+            final int previousK = k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]) ? k + 1 : k - 1;
+            final int previousX = v[offset + previousK];
+            final int previousY = previousX - previousK;
+            while (x > previousX && y > previousY) {
+                script[--step] = KEEP;
+                x--;
+                y--;
+            }
+            script[--step] = x == previousX ? ADD : REMOVE;
+            x = previousX;
+            y = previousY;
+        }
+        while (step > 0) {
+            script[--step] = KEEP;
+        }
+        return script;
+    }
+
+    private static int[] hashCodes(Object[] elements, int start, int end) {
+        final int[] hashCodes = new int[end - start];
+        for (int i = start; i < end; i++) {
+            hashCodes[i - start] = Objects.hashCode(elements[i]);
+        }
+        return hashCodes;
+    }
+
+    private static Object[] unwrapAll(List<?> list) {
+        final Object[] elements = list.toArray();
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = unwrap(elements[i]);
+        }
+        return elements;
+    }
+
+    private static Object unwrap(Object object) {
+        return object instanceof JsonValue ? ((JsonValue) object).getObject() : object;
     }
 
     /**
@@ -138,7 +293,7 @@ public final class JsonPatch {
     public static boolean isEqual(JsonValue value, JsonValue other) {
         Reject.ifFalse(isJsonPrimitive(value) && isJsonPrimitive(other),
                 "JsonPatch#isEqual only supports recognizable JSON primitives");
-        if (differentTypes(value, other)) {
+        if (differentTypes(value.getObject(), other.getObject())) {
             return false;
         }
         if (value.size() != other.size()) {
@@ -172,19 +327,19 @@ public final class JsonPatch {
     }
 
     /**
-     * Returns {@code true} if the type contained by {@code v1} is different than the type
-     * contained by {@code v2}.
+     * Returns {@code true} if the type of the raw JSON value {@code v1} is different than the type
+     * of {@code v2}.
      * <p>
      * Note: If an unexpected (non-JSON) type is encountered, this method returns
      * {@code true}, triggering a change in the resulting patch.
      */
-    private static boolean differentTypes(JsonValue v1, JsonValue v2) {
-        return !(v1.isNull() && v2.isNull())
-                && !(v1.isMap() && v2.isMap())
-                && !(v1.isList() && v2.isList())
-                && !(v1.isString() && v2.isString())
-                && !(v1.isNumber() && v2.isNumber())
-                && !(v1.isBoolean() && v2.isBoolean());
+    private static boolean differentTypes(Object v1, Object v2) {
+        return !(v1 == null && v2 == null)
+                && !(v1 instanceof Map && v2 instanceof Map)
+                && !(v1 instanceof List && v2 instanceof List)
+                && !(v1 instanceof String && v2 instanceof String)
+                && !(v1 instanceof Number && v2 instanceof Number)
+                && !(v1 instanceof Boolean && v2 instanceof Boolean);
     }
 
     private static HashMap<String, Object> op(String op, JsonPointer pointer, JsonValue value) {
@@ -221,6 +376,7 @@ public final class JsonPatch {
      * @throws JsonValueException if application of the patch failed.
      */
     public static void patch(JsonValue original, JsonValue patch, JsonPatchValueTransformer transform) {
+        final Parents parents = new Parents();
         for (JsonValue operation : patch.required().expect(List.class)) {
             if (!operation.isDefined("op")) {
                 throw new JsonValueException(operation, "op not specified");
@@ -229,7 +385,7 @@ public final class JsonPatch {
             if (op == null) {
                 throw new JsonValueException(operation, "invalid op specified");
             }
-            op.execute(original, operation, transform);
+            op.execute(original, operation, transform, parents);
         }
     }
 
@@ -237,15 +393,17 @@ public final class JsonPatch {
         ADD {
             // http://tools.ietf.org/html/rfc6902#section-4.1
             @Override
-            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
+            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform,
+                    Parents parents) {
                 JsonPointer modifyPath = operation.get(PATH_PTR).expect(String.class).as(pointer());
-                JsonValue parent = parentValue(modifyPath, original);
+                JsonValue parent = parents.parentOf(modifyPath, original);
                 if (parent == null) {
                     // patch specifies a new root object
                     if (original.getObject() != null) {
                         throw new JsonValueException(operation, "root value already exists");
                     }
                     original.setObject(transform.getTransformedValue(original, operation));
+                    parents.clear();
                 } else {
                     try {
                         if (parent.isList()) {
@@ -257,9 +415,9 @@ public final class JsonPatch {
                                 // leaf is not an array index, replace value
                                 parent.add(modifyPath.leaf(), transform.getTransformedValue(original, operation));
                             }
-                        } else if (original.get(modifyPath) != null && original.get(modifyPath).isList()) {
+                        } else if (parent.get(modifyPath.leaf()) != null && parent.get(modifyPath.leaf()).isList()) {
                             // modifyPath does not indicate an index, use the whole object
-                            JsonValue target = original.get(modifyPath);
+                            JsonValue target = parent.get(modifyPath.leaf());
                             target.asList().add(transform.getTransformedValue(original, operation));
                         } else {
                             // this will replace the value even if present
@@ -274,13 +432,15 @@ public final class JsonPatch {
         REMOVE {
             //http://tools.ietf.org/html/rfc6902#section-4.2
             @Override
-            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
+            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform,
+                    Parents parents) {
                 JsonPointer modifyPath = operation.get(PATH_PTR).expect(String.class).as(pointer());
-                JsonValue parent = parentValue(modifyPath, original);
+                JsonValue parent = parents.parentOf(modifyPath, original);
                 String leaf = modifyPath.leaf();
                 if (parent == null) {
                     // patch specifies root object
                     original.setObject(null);
+                    parents.clear();
                 } else {
                     if (!parent.isDefined(leaf)) {
                         throw new JsonValueException(operation, "value to remove not found");
@@ -296,9 +456,10 @@ public final class JsonPatch {
         REPLACE {
             //http://tools.ietf.org/html/rfc6902#section-4.3
             @Override
-            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
+            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform,
+                    Parents parents) {
                 JsonPointer modifyPath = operation.get(PATH_PTR).expect(String.class).as(pointer());
-                JsonValue parent = parentValue(modifyPath, original);
+                JsonValue parent = parents.parentOf(modifyPath, original);
                 if (parent != null) {
                     // replacing a child
                     String leaf = modifyPath.leaf();
@@ -309,13 +470,15 @@ public final class JsonPatch {
                 } else {
                     // replacing the root value itself
                     original.setObject(transform.getTransformedValue(original, operation));
+                    parents.clear();
                 }
             }
         },
         MOVE {
             // http://tools.ietf.org/html/rfc6902#section-4.4
             @Override
-            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
+            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform,
+                    Parents parents) {
                 JsonPointer sourcePath = operation.get(FROM_PTR).expect(String.class).as(pointer());
                 JsonPointer destPath = operation.get(PATH_PTR).expect(String.class).as(pointer());
                 JsonValue sourceParent = parentValue(sourcePath, original);
@@ -331,12 +494,14 @@ public final class JsonPatch {
                     sourceParent.remove(sourcePath.leaf());
                     destParent.put(destPath.leaf(), object);
                 }
+                parents.clear();
             }
         },
         COPY {
             // http://tools.ietf.org/html/rfc6902#section-4.5
             @Override
-            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
+            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform,
+                    Parents parents) {
                 JsonPointer sourcePath = operation.get(FROM_PTR).expect(String.class).as(pointer());
                 JsonPointer destPath = operation.get(PATH_PTR).expect(String.class).as(pointer());
                 JsonValue sourceParent = parentValue(sourcePath, original);
@@ -348,14 +513,16 @@ public final class JsonPatch {
                 } else {
                     destParent.put(destPath.leaf(), object);
                 }
+                parents.clear();
             }
         },
         TEST {
             // http://tools.ietf.org/html/rfc6902#section-4.6
             @Override
-            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
+            void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform,
+                    Parents parents) {
                 JsonPointer testPath = operation.get(PATH_PTR).expect(String.class).as(pointer());
-                JsonValue testTarget = parentValue(testPath, original).get(testPath.leaf());
+                JsonValue testTarget = parents.parentOf(testPath, original).get(testPath.leaf());
                 JsonValue testValue = new JsonValue(transform.getTransformedValue(original, operation));
 
                 if (diff(testTarget, testValue).asList().size() > 0) {
@@ -364,7 +531,8 @@ public final class JsonPatch {
             }
         };
 
-        void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform) {
+        void execute(JsonValue original, JsonValue operation, JsonPatchValueTransformer transform,
+                Parents parents) {
             throw new JsonValueException(original, "unsupported operation");
         }
 
@@ -393,6 +561,43 @@ public final class JsonPatch {
         return result;
     }
 
+    /**
+     * Resolves the parent values of the values modified by the operations of a patch, remembering the last one so
+     * that consecutive operations on the same object or array, such as those produced by {@link #diff}, resolve it
+     * only once. Operations which may replace the remembered value, or a value containing it, must {@link #clear}
+     * it.
+     */
+    private static final class Parents {
+
+        private JsonPointer pointer;
+        private JsonValue value;
+
+        /**
+         * Returns the parent value of the value identified by the JSON pointer.
+         *
+         * @param pointer the pointer to the value whose parent value is to be returned.
+         * @param target the JSON value against which to resolve the JSON pointer.
+         * @return the parent value of the value identified by the JSON pointer.
+         * @throws JsonException if the parent value could not be found.
+         */
+        JsonValue parentOf(JsonPointer pointer, JsonValue target) {
+            JsonPointer parent = pointer.parent();
+            if (parent == null) {
+                return null;
+            }
+            if (!parent.equals(this.pointer)) {
+                this.value = parentValue(pointer, target);
+                this.pointer = parent;
+            }
+            return value;
+        }
+
+        void clear() {
+            pointer = null;
+            value = null;
+        }
+    }
+
     // prevent construction
     private JsonPatch() {
     }
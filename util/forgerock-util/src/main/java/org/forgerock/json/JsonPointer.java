@@ -12,6 +12,7 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json;
@@ -22,21 +23,45 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Identifies a specific value within a JSON structure. Conforms with
  * <a href="http://tools.ietf.org/html/draft-pbryan-zyp-json-pointer-02">draft-pbryan-zip-json-pointer-02</a>.
+ * <p>
+ * JSON pointers are immutable. A pointer returned by {@link #child(String)} shares the reference tokens of its
+ * parent, and only copies them into an array of its own when they are first needed.
  */
 public class JsonPointer implements Iterable<String> {
 
-    /** The reference tokens that make-up the JSON pointer. */
-    private String[] tokens = new String[0];
+    /** The maximum number of pointers cached by {@link #valueOf(String)}. */
+    private static final int MAX_CACHED_POINTERS = 1024;
+
+    /** The punctuation which may appear unescaped in a URI fragment, as per RFC 2396. */
+    private static final String UNESCAPED_PUNCTUATION = "-_.!~*'();?:@&=+$,";
+
+    /** The pointers parsed by {@link #valueOf(String)}, keyed by their string value. */
+    private static final ConcurrentMap<String, JsonPointer> CACHE = new ConcurrentHashMap<>();
+
+    /** The pointer this pointer is a child of, or {@code null} if its tokens were provided on construction. */
+    private final JsonPointer parent;
+
+    /** The last reference token of the pointer, or {@code null} if the pointer references document root. */
+    private final String leaf;
+
+    /** The number of reference tokens in the pointer. */
+    private final int size;
+
+    /** The reference tokens that make-up the JSON pointer, or {@code null} until a child pointer needs them. */
+    private volatile String[] tokens;
 
     /**
      * Constructs a JSON pointer, identifying the root value of a JSON structure.
      */
     public JsonPointer() {
         // empty tokens represents pointer to root value
+        this(null, null, new String[0]);
     }
 
     /**
@@ -46,19 +71,7 @@ public class JsonPointer implements Iterable<String> {
      * @throws JsonException if the pointer is malformed.
      */
     public JsonPointer(String pointer) {
-        String[] split = pointer.split("/", -1);
-        int length = split.length;
-        ArrayList<String> list = new ArrayList<>(length);
-        for (int n = 0; n < length; n++) {
-            if (n == 0 && split[n].length() == 0) {
-                continue; // leading slash ignored
-            } else if (n == length - 1 && split[n].length() == 0) {
-                continue; // trailing slash ignored
-            } else {
-                list.add(decode(split[n]));
-            }
-        }
-        tokens = list.toArray(tokens);
+        this(null, null, parse(pointer));
     }
 
     /**
@@ -67,7 +80,7 @@ public class JsonPointer implements Iterable<String> {
      * @param tokens an array of string reference tokens.
      */
     public JsonPointer(String... tokens) {
-        this.tokens = Arrays.copyOf(tokens, tokens.length);
+        this(null, null, Arrays.copyOf(tokens, tokens.length));
     }
 
     /**
@@ -76,11 +89,50 @@ public class JsonPointer implements Iterable<String> {
      * @param iterable an iterable collection of reference tokens.
      */
     public JsonPointer(Iterable<String> iterable) {
+        this(null, null, toArray(iterable));
+    }
+
+    /**
+     * Constructs a JSON pointer either from its reference tokens, or from the pointer it is a child of.
+     *
+     * @param parent the parent pointer, or {@code null} if {@code tokens} is provided.
+     * @param leaf the last reference token, ignored if {@code tokens} is provided.
+     * @param tokens the reference tokens, which must not be shared, or {@code null} if {@code parent} is provided.
+     */
+    private JsonPointer(JsonPointer parent, String leaf, String[] tokens) {
+        this.parent = parent;
+        this.tokens = tokens;
+        if (tokens != null) {
+            this.size = tokens.length;
+            this.leaf = size > 0 ? tokens[size - 1] : null;
+        } else {
+            this.size = parent.size + 1;
+            this.leaf = leaf;
+        }
+    }
+
+    private static String[] parse(String pointer) {
+        String[] split = pointer.split("/", -1);
+        int length = split.length;
+        ArrayList<String> list = new ArrayList<>(length);
+        for (int n = 0; n < length; n++) {
+            if (n == 0 && split[n].length() == 0) {
+                continue; // leading slash ignored
+            } else if (n == length - 1 && split[n].length() == 0) {
+                continue; // trailing slash ignored
+            } else {
+                list.add(decode(split[n]));
+            }
+        }
+        return list.toArray(new String[list.size()]);
+    }
+
+    private static String[] toArray(Iterable<String> iterable) {
         ArrayList<String> list = new ArrayList<>();
         for (String element : iterable) {
             list.add(element);
         }
-        tokens = list.toArray(tokens);
+        return list.toArray(new String[list.size()]);
     }
 
     /**
@@ -114,6 +166,31 @@ public class JsonPointer implements Iterable<String> {
         return new JsonPointer(iterable);
     }
 
+    /**
+     * Returns a JSON pointer identifying the specified pointer value, which may be shared with other callers.
+     * Parsed pointers are cached, so this method should be preferred over {@link #ptr(String)} for pointers
+     * parsed from a small, fixed set of strings, such as constants. The cache is bounded and never evicts, so
+     * pointers parsed from strings provided by clients, such as request fields, sort keys or patch paths, must
+     * be constructed with {@link #JsonPointer(String)} instead, lest they fill the cache.
+     *
+     * @param pointer a string containing the JSON pointer of the value to identify.
+     * @return The JSON pointer
+     * @throws JsonException if the pointer is malformed.
+     */
+    public static JsonPointer valueOf(final String pointer) {
+        JsonPointer result = CACHE.get(pointer);
+        if (result == null) {
+            result = new JsonPointer(pointer);
+            if (CACHE.size() < MAX_CACHED_POINTERS) {
+                final JsonPointer cached = CACHE.putIfAbsent(pointer, result);
+                if (cached != null) {
+                    result = cached;
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Encodes a reference token into a string value suitable to expressing in a JSON
      * pointer string value.
@@ -136,7 +213,10 @@ public class JsonPointer implements Iterable<String> {
      * @return the decoded reference token value.
      * @throws JsonException if the reference token value is malformed.
      */
-    private String decode(String value) {
+    private static String decode(String value) {
+        if (isUnescaped(value)) {
+            return value;
+        }
         try {
             return new URI("#" + value).getFragment();
         } catch (URISyntaxException use) {
@@ -144,13 +224,31 @@ public class JsonPointer implements Iterable<String> {
         }
     }
 
+    /**
+     * Returns {@code true} if the reference token value only contains characters which may appear unescaped
+     * in a URI fragment, in which case decoding it would return it unchanged.
+     *
+     * @param value the reference token value.
+     * @return {@code true} if the reference token value does not need to be decoded.
+     */
+    private static boolean isUnescaped(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                    || UNESCAPED_PUNCTUATION.indexOf(c) >= 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns the number of reference tokens in the pointer.
      *
      * @return the number of reference tokens in the pointer.
      */
     public int size() {
-        return tokens.length;
+        return size;
     }
 
     /**
@@ -161,10 +259,10 @@ public class JsonPointer implements Iterable<String> {
      * @throws IndexOutOfBoundsException if the index is out of range.
      */
     public String get(int index) {
-        if (index < 0 || index >= tokens.length) {
+        if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException();
         }
-        return tokens[index];
+        return index == size - 1 ? leaf : tokens()[index];
     }
 
     /**
@@ -175,7 +273,7 @@ public class JsonPointer implements Iterable<String> {
      * @return a newly allocated array of strings, containing the pointer's reference tokens.
      */
     public String[] toArray() {
-        return Arrays.copyOf(tokens, tokens.length);
+        return Arrays.copyOf(tokens(), size);
     }
 
     /**
@@ -185,12 +283,12 @@ public class JsonPointer implements Iterable<String> {
      * @return a pointer to the parent of of this JSON pointer. Can be null.
      */
     public JsonPointer parent() {
-        JsonPointer parent = null;
-        if (this.tokens.length > 0) {
-            parent = new JsonPointer();
-            parent.tokens = Arrays.copyOf(this.tokens, this.tokens.length - 1);
+        if (parent != null) {
+            return parent;
+        } else if (size > 0) {
+            return new JsonPointer(null, null, Arrays.copyOf(tokens(), size - 1));
         }
-        return parent;
+        return null;
     }
 
     /**
@@ -227,7 +325,7 @@ public class JsonPointer implements Iterable<String> {
      *         in this pointer.
      */
     public JsonPointer relativePointer() {
-        return tokens.length > 0 ? relativePointer(tokens.length - 1) : this;
+        return size > 0 ? relativePointer(size - 1) : this;
     }
 
     /**
@@ -272,7 +370,7 @@ public class JsonPointer implements Iterable<String> {
      *             If {@code sz} is negative or greater than {@code size()}.
      */
     public JsonPointer relativePointer(int sz) {
-        int length = tokens.length;
+        int length = size;
         if (sz < 0 || sz > length) {
             throw new IndexOutOfBoundsException();
         } else if (sz == length) {
@@ -280,9 +378,7 @@ public class JsonPointer implements Iterable<String> {
         } else if (sz == 0) {
             return new JsonPointer();
         } else {
-            JsonPointer relativePointer = new JsonPointer();
-            relativePointer.tokens = Arrays.copyOfRange(tokens, length - sz, length);
-            return relativePointer;
+            return new JsonPointer(null, null, Arrays.copyOfRange(tokens(), length - sz, length));
         }
     }
 
@@ -293,7 +389,7 @@ public class JsonPointer implements Iterable<String> {
      * @return the last (leaf) reference token of the JSON pointer if it exists, {@code null} otherwise
      */
     public String leaf() {
-        return tokens.length > 0 ? tokens[tokens.length - 1] : null;
+        return leaf;
     }
 
     /**
@@ -308,10 +404,7 @@ public class JsonPointer implements Iterable<String> {
         if (child == null) {
             throw new NullPointerException();
         }
-        JsonPointer pointer = new JsonPointer();
-        pointer.tokens = Arrays.copyOf(this.tokens, this.tokens.length + 1);
-        pointer.tokens[pointer.tokens.length - 1] = child;
-        return pointer;
+        return new JsonPointer(this, child, null);
     }
 
     /**
@@ -348,6 +441,7 @@ public class JsonPointer implements Iterable<String> {
      */
     @Override
     public Iterator<String> iterator() {
+        final String[] tokens = tokens();
         return new Iterator<String>() {
             int cursor = 0;
             @Override
@@ -376,7 +470,7 @@ public class JsonPointer implements Iterable<String> {
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder();
-        for (String token : tokens) {
+        for (String token : tokens()) {
             sb.append('/').append(encode(token));
         }
         if (sb.length() == 0) {
@@ -395,9 +489,10 @@ public class JsonPointer implements Iterable<String> {
      */
     @Override
     public boolean equals(Object o) {
-        return o instanceof JsonPointer
+        return o == this
+                || o instanceof JsonPointer
                 && ((JsonPointer) o).size() == size()
-                && Arrays.equals(tokens, ((JsonPointer) o).tokens);
+                && Arrays.equals(tokens(), ((JsonPointer) o).tokens());
     }
 
     /**
@@ -407,6 +502,22 @@ public class JsonPointer implements Iterable<String> {
      */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(tokens);
+        return Arrays.hashCode(tokens());
+    }
+
+    /**
+     * Returns the reference tokens of the pointer, copying them from the parent pointer if this is the first time
+     * they are needed. The returned array must not be modified.
+     *
+     * @return the reference tokens of the pointer.
+     */
+    private String[] tokens() {
+        String[] result = tokens;
+        if (result == null) {
+            result = Arrays.copyOf(parent.tokens(), size);
+            result[size - 1] = leaf;
+            tokens = result;
+        }
+        return result;
     }
 }
@@ -13,6 +13,7 @@
  *
  * Copyright © 2010–2011 ApexIdentity Inc. All rights reserved.
  * Portions Copyrighted 2011-2017 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json;
@@ -39,6 +40,9 @@ import org.forgerock.util.RangeSet;
  */
 public class JsonValue implements Cloneable, Iterable<JsonValue> {
 
+    /** Marks a child value which is not defined, as opposed to one defined as {@code null}. */
+    private static final Object UNDEFINED = new Object();
+
     /**
      * Returns a mutable JSON array containing the provided objects. This method
      * is provided as a convenience method for constructing JSON arrays. Example
@@ -208,6 +212,82 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
                 : object;
     }
 
+    /**
+     * Returns the raw value of the specified child of a raw {@link Map} or {@link List}, without wrapping it in a
+     * JSON value.
+     *
+     * @param parent the raw parent value.
+     * @param key the {@code Map} key or {@code List} index identifying the child.
+     * @return the unwrapped child value, or {@link #UNDEFINED} if no such child exists.
+     */
+    private static Object getChild(final Object parent, final String key) {
+        if (parent instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) parent;
+            final Object child = map.get(key);
+            return child != null || map.containsKey(key) ? unwrap(child) : UNDEFINED;
+        } else if (parent instanceof List) {
+            final List<?> list = (List<?>) parent;
+            final int index = toIndex(key);
+            return index >= 0 && index < list.size() ? unwrap(list.get(index)) : UNDEFINED;
+        }
+        return UNDEFINED;
+    }
+
+    /**
+     * Returns a deep copy of a raw JSON value.
+     *
+     * @param object the raw value to copy.
+     * @return a deep copy of the raw value.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object copyObject(final Object object) {
+        if (object instanceof Map) {
+            final Map<String, Object> map = (Map<String, Object>) object;
+            final Map<String, Object> copy = object(map.size());
+            for (final Map.Entry<String, Object> entry : map.entrySet()) {
+                copy.put(entry.getKey(), copyObject(unwrap(entry.getValue()))); // recursion
+            }
+            return copy;
+        } else if (object instanceof List) {
+            final List<Object> list = (List<Object>) object;
+            final ArrayList<Object> copy = new ArrayList<>(list.size());
+            for (final Object element : list) {
+                copy.add(copyObject(unwrap(element))); // recursion
+            }
+            return copy;
+        }
+        return object;
+    }
+
+    /**
+     * Returns an immutable copy of a raw JSON value, sharing the values which are already frozen.
+     *
+     * @param object the raw value to freeze.
+     * @return the frozen value.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object freezeObject(final Object object) {
+        if (object instanceof FrozenMap || object instanceof FrozenList) {
+            return object;
+        } else if (object instanceof Map) {
+            final Map<String, Object> map = (Map<String, Object>) object;
+            final Map<String, Object> members = object(map.size());
+            for (final Map.Entry<String, Object> entry : map.entrySet()) {
+                members.put(entry.getKey(), freezeObject(unwrap(entry.getValue()))); // recursion
+            }
+            return new FrozenMap(members);
+        } else if (object instanceof List) {
+            final List<Object> list = (List<Object>) object;
+            final Object[] elements = new Object[list.size()];
+            int n = 0;
+            for (final Object element : list) {
+                elements[n++] = freezeObject(unwrap(element)); // recursion
+            }
+            return new FrozenList(elements);
+        }
+        return object;
+    }
+
     /** The Java object representing this JSON value. */
     private Object object;
 
@@ -717,21 +797,7 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      */
     public JsonValue copy() {
         // TODO: track original values to resolve cyclic references
-        final JsonValue result = new JsonValue(object, pointer); // start with shallow copy
-        if (this.isMap()) {
-            final Map<String, Object> map = object(size());
-            for (final String key : keys()) {
-                map.put(key, this.get(key).copy().getObject()); // recursion
-            }
-            result.object = map;
-        } else if (isList()) {
-            final ArrayList<Object> list = new ArrayList<>(size());
-            for (final JsonValue element : this) {
-                list.add(element.copy().getObject()); // recursion
-            }
-            result.object = list;
-        }
-        return result;
+        return new JsonValue(copyObject(object), pointer);
     }
 
     /**
@@ -763,6 +829,28 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
         return this;
     }
 
+    /**
+     * Returns an immutable snapshot of this JSON value, which may be shared
+     * between threads and readers without copying it. The snapshot is a JSON
+     * value like any other, except that its maps and lists cannot be modified:
+     * use {@link #with(JsonPointer, Object)} and {@link #without(JsonPointer)}
+     * to derive modified snapshots, or {@link #copy()} to obtain a mutable
+     * copy.
+     * <p>
+     * Freezing a mutable value deep copies its maps and lists, which takes time
+     * and memory proportional to its size, since the caller may go on modifying
+     * them. Freezing a value which is already frozen returns it without copying
+     * it, and the frozen parts of a value are shared rather than copied, so a
+     * value which is shared or modified repeatedly should be frozen once and
+     * then derived with {@link #with(JsonPointer, Object)} and
+     * {@link #without(JsonPointer)}, which only copy the modified path.
+     *
+     * @return an immutable snapshot of this JSON value.
+     */
+    public JsonValue freeze() {
+        return isFrozen() ? this : new JsonValue(freezeObject(object), pointer);
+    }
+
     /**
      * Returns the specified child value. If this JSON value is not a
      * {@link List} or if no such child exists, then a JSON value containing a
@@ -798,15 +886,14 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
      * @return the child value, or {@code null} if no such value exists.
      */
     public JsonValue get(final JsonPointer pointer) {
-        JsonValue result = this;
-        for (final String token : pointer) {
-            final JsonValue member = result.get(token);
-            if (member.isNull() && !result.isDefined(token)) {
-                return null; // undefined value yields null, not a JSON value containing null
-            }
-            result = member;
+        if (pointer.isEmpty()) {
+            return this;
         }
-        return result;
+        final Object result = getObject(pointer, pointer.size());
+        if (result == UNDEFINED) {
+            return null; // undefined value yields null, not a JSON value containing null
+        }
+        return new JsonValue(result, childPointer(pointer, pointer.size()));
     }
 
     /**
@@ -841,6 +928,36 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
         return object;
     }
 
+    /**
+     * Returns the raw Java object representing the specified item value,
+     * without wrapping it in a JSON value. If no such member value exists,
+     * then {@code null} is returned.
+     *
+     * @param key
+     *            the {@code Map} key or {@code List} index identifying the item
+     *            to return.
+     * @return the raw Java object representing the item value, or {@code null}.
+     */
+    public Object getObject(final String key) {
+        final Object result = getChild(object, key);
+        return result != UNDEFINED ? result : null;
+    }
+
+    /**
+     * Returns the raw Java object representing the specified child value with a
+     * pointer, relative to this value as root, without wrapping it or any of the
+     * values on its path in JSON values. If the specified child value does not
+     * exist, then {@code null} is returned.
+     *
+     * @param pointer
+     *            the JSON pointer identifying the child value to return.
+     * @return the raw Java object representing the child value, or {@code null}.
+     */
+    public Object getObject(final JsonPointer pointer) {
+        final Object result = getObject(pointer, pointer.size());
+        return result != UNDEFINED ? result : null;
+    }
+
     /**
      * Returns the pointer of the JSON value in its JSON structure.
      *
@@ -879,6 +996,18 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
         return result;
     }
 
+    /**
+     * Returns {@code true} if the JSON value is immutable, either because it
+     * is a snapshot returned by {@link #freeze()}, or because it is neither a
+     * {@link Map} nor a {@link List}.
+     *
+     * @return {@code true} if the JSON value is immutable.
+     */
+    public boolean isFrozen() {
+        return !(object instanceof Map || object instanceof List)
+                || object instanceof FrozenMap || object instanceof FrozenList;
+    }
+
     /**
      * Returns {@code true} if the JSON value is a {@link Collection}.
      *
@@ -1243,6 +1372,49 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
         }
     }
 
+    /**
+     * Returns a frozen copy of this JSON value, with the value identified by
+     * the specified pointer set as per {@link #put(JsonPointer, Object)}. Only
+     * the values on the path to the value are copied: the others are shared
+     * with this value, which is frozen first if it is not already.
+     *
+     * @param pointer
+     *            identifies the child value to set.
+     * @param object
+     *            the Java object value to set.
+     * @return a frozen copy of this JSON value with the child value set.
+     * @throws JsonValueException
+     *             if the specified pointer is invalid.
+     * @see #freeze()
+     */
+    public JsonValue with(final JsonPointer pointer, final Object object) {
+        if (pointer.isEmpty()) {
+            return new JsonValue(freezeObject(unwrap(object)), this.pointer);
+        }
+        final JsonValue frozen = freeze();
+        return new JsonValue(frozen.update(frozen.object, pointer, 0, freezeObject(unwrap(object)), false),
+                this.pointer);
+    }
+
+    /**
+     * Returns a frozen copy of this JSON value, without the value identified
+     * by the specified pointer. Only the values on the path to the value are
+     * copied: the others are shared with this value, which is frozen first if
+     * it is not already.
+     *
+     * @param pointer
+     *            the JSON pointer identifying the child value to remove.
+     * @return a frozen copy of this JSON value without the child value.
+     * @see #freeze()
+     */
+    public JsonValue without(final JsonPointer pointer) {
+        final JsonValue frozen = freeze();
+        if (pointer.isEmpty()) {
+            return frozen;
+        }
+        return new JsonValue(frozen.update(frozen.object, pointer, 0, null, true), this.pointer);
+    }
+
     /**
      * Returns a string representation of the JSON value. The result
      * resembles—but is not guaranteed to conform to—JSON syntax. This method
@@ -1375,15 +1547,96 @@ public class JsonValue implements Cloneable, Iterable<JsonValue> {
     }
 
     private JsonValue navigateToParentOf(final JsonPointer pointer) {
-        JsonValue jv = this;
         final int size = pointer.size();
-        for (int n = 0; n < size - 1; n++) {
-            jv = jv.get(pointer.get(n));
-            if (jv.isNull()) {
+        Object parent = object;
+        int n = 0;
+        while (n < size - 1) {
+            parent = getChild(parent, pointer.get(n++));
+            if (parent == UNDEFINED || parent == null) {
+                parent = null;
                 break;
             }
         }
-        return jv;
+        return n == 0 ? this : new JsonValue(parent, childPointer(pointer, n));
+    }
+
+    /**
+     * Returns the raw value identified by the first reference tokens of a pointer, relative to this value as root.
+     *
+     * @param pointer the pointer identifying the value.
+     * @param size the number of reference tokens of the pointer to follow.
+     * @return the raw value, or {@link #UNDEFINED} if no such value exists.
+     */
+    private Object getObject(final JsonPointer pointer, final int size) {
+        Object result = object;
+        for (int n = 0; n < size && result != UNDEFINED; n++) {
+            result = getChild(result, pointer.get(n));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a copy of a frozen value, with the value identified by the reference tokens of a pointer from the
+     * specified index set or removed. Only the values on the path are copied.
+     *
+     * @param parent the frozen value identified by the reference tokens before the index.
+     * @param pointer the pointer, relative to this value, identifying the value to set or remove.
+     * @param n the index of the reference token identifying a child of the parent.
+     * @param value the frozen value to set.
+     * @param remove whether to remove the value rather than set it.
+     * @return a copy of the parent value, or the parent value itself if there is nothing to remove.
+     * @throws JsonValueException if the value cannot be set.
+     */
+    private Object update(final Object parent, final JsonPointer pointer, final int n, final Object value,
+            final boolean remove) {
+        final String token = pointer.get(n);
+        if (n < pointer.size() - 1) {
+            final Object child = getChild(parent, token);
+            if (child == UNDEFINED || child == null) {
+                if (remove) {
+                    return parent;
+                }
+                throw new JsonValueException(new JsonValue(null, childPointer(pointer, n + 1)), "Expecting a value");
+            }
+            final Object updated = update(child, pointer, n + 1, value, remove); // recursion
+            if (updated == child) {
+                return parent;
+            }
+            return parent instanceof FrozenMap
+                    ? ((FrozenMap) parent).with(token, updated)
+                    : ((FrozenList) parent).with(toIndex(token), updated);
+        } else if (parent instanceof FrozenMap) {
+            return remove ? ((FrozenMap) parent).without(token) : ((FrozenMap) parent).with(token, value);
+        } else if (parent instanceof FrozenList) {
+            final FrozenList list = (FrozenList) parent;
+            final int index = isEndOfListToken(token) && !remove ? list.size() : toIndex(token);
+            if (remove) {
+                return index >= 0 && index < list.size() ? list.without(index) : list;
+            } else if (index < 0 || index > list.size()) {
+                throw new JsonValueException(new JsonValue(list, childPointer(pointer, n)),
+                        "List index out of range: " + index);
+            }
+            return list.with(index, value);
+        } else if (remove) {
+            return parent;
+        }
+        throw new JsonValueException(new JsonValue(parent, childPointer(pointer, n)), "Expecting a Map or List");
+    }
+
+    /**
+     * Returns the pointer of the value identified by the first reference tokens of a pointer, relative to this
+     * value as root.
+     *
+     * @param relative the pointer relative to this value.
+     * @param size the number of reference tokens of the relative pointer to follow.
+     * @return the pointer of the value in the JSON structure of this value.
+     */
+    private JsonPointer childPointer(final JsonPointer relative, final int size) {
+        JsonPointer result = pointer;
+        for (int n = 0; n < size; n++) {
+            result = result.child(relative.get(n));
+        }
+        return result;
     }
 
     private JsonValue navigateToParentOfPermissive(final JsonPointer pointer) {
@@ -0,0 +1,209 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.util.crypto;
+
+import java.security.InvalidKeyException;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.NoSuchPaddingException;
+
+/**
+ * Provides the {@link Mac}, {@link Signature}, {@link Cipher}, {@link MessageDigest} and {@link SecureRandom}
+ * instances used by the Commons libraries to sign, verify, encrypt, decrypt and digest, so that each thread looks up
+ * the provider of an algorithm and creates its instance only once, instead of once per operation. This class is an
+ * implementation detail of those libraries, and is not intended to be used by applications.
+ * <p>
+ * Each thread holds one instance per algorithm. A {@link Mac} and a {@link Signature} are initialised with their key
+ * each time they are returned, and a {@link Cipher} must be initialised by the caller. Instances are cached by
+ * algorithm only: they keep the key material of their last use until they are next initialised, and
+ * {@link #clear()} discards the instances of the calling thread.
+ * <p>
+ * The thread local values only reference classes of the Java platform, so that they do not keep the class loader
+ * of an application from being collected once it has been undeployed, unless the providers of the instances were
+ * loaded by that class loader.
+ * <p>
+ * The instances returned must only be used by the calling thread, and must not be used once another instance of the
+ * same algorithm has been requested by that thread. They therefore suit one-shot operations only: an object which
+ * keeps an instance while calling other code, such as a streaming decryptor or verifier writing to a caller's
+ * stream, must create an instance of its own.
+ */
+public final class CryptoPrimitives {
+
+    private static final int MACS = 0;
+    private static final int SIGNATURES = 1;
+    private static final int CIPHERS = 2;
+    private static final int DIGESTS = 3;
+    private static final int RANDOMS = 4;
+
+    /** The instances of each thread, as one map per type of instance, keyed by algorithm. */
+    private static final ThreadLocal<Map<String, Object>[]> PRIMITIVES = new ThreadLocal<>();
+
+    private CryptoPrimitives() {
+        // Prevent instantiation.
+    }
+
+    /**
+     * Returns the calling thread's {@link Mac} for the algorithm, initialised with the key and ready to use.
+     *
+     * @param algorithm The Java Cryptographic MAC algorithm.
+     * @param key The key of the MAC.
+     * @return The initialised MAC.
+     * @throws NoSuchAlgorithmException If the algorithm is not supported.
+     * @throws InvalidKeyException If the key is not valid for the algorithm.
+     */
+    public static Mac mac(final String algorithm, final Key key) throws NoSuchAlgorithmException,
+            InvalidKeyException {
+        final Map<String, Object> macs = primitives(MACS);
+        Mac mac = (Mac) macs.get(algorithm);
+        if (mac == null) {
+            mac = Mac.getInstance(algorithm);
+            macs.put(algorithm, mac);
+        }
+        // also discards any data left by a previous use which did not complete
+        mac.init(key);
+        return mac;
+    }
+
+    /**
+     * Returns the calling thread's {@link Signature} for the algorithm, initialised for signing with the key.
+     *
+     * @param algorithm The Java Cryptographic signature algorithm.
+     * @param key The private key to sign with.
+     * @return The initialised signature.
+     * @throws NoSuchAlgorithmException If the algorithm is not supported.
+     * @throws InvalidKeyException If the key is not valid for the algorithm.
+     */
+    public static Signature signer(final String algorithm, final PrivateKey key) throws NoSuchAlgorithmException,
+            InvalidKeyException {
+        final Signature signature = signature(algorithm);
+        signature.initSign(key);
+        return signature;
+    }
+
+    /**
+     * Returns the calling thread's {@link Signature} for the algorithm, initialised for verification with the key.
+     *
+     * @param algorithm The Java Cryptographic signature algorithm.
+     * @param key The public key to verify with.
+     * @return The initialised signature.
+     * @throws NoSuchAlgorithmException If the algorithm is not supported.
+     * @throws InvalidKeyException If the key is not valid for the algorithm.
+     */
+    public static Signature verifier(final String algorithm, final PublicKey key) throws NoSuchAlgorithmException,
+            InvalidKeyException {
+        final Signature signature = signature(algorithm);
+        signature.initVerify(key);
+        return signature;
+    }
+
+    private static Signature signature(final String algorithm) throws NoSuchAlgorithmException {
+        final Map<String, Object> signatures = primitives(SIGNATURES);
+        Signature signature = (Signature) signatures.get(algorithm);
+        if (signature == null) {
+            signature = Signature.getInstance(algorithm);
+            signatures.put(algorithm, signature);
+        }
+        return signature;
+    }
+
+    /**
+     * Returns the calling thread's {@link Cipher} for the transformation, which must be initialised before use.
+     *
+     * @param transformation The Java Cryptographic cipher transformation.
+     * @return The cipher.
+     * @throws NoSuchAlgorithmException If the transformation is not supported.
+     * @throws NoSuchPaddingException If the padding of the transformation is not supported.
+     */
+    public static Cipher cipher(final String transformation) throws NoSuchAlgorithmException,
+            NoSuchPaddingException {
+        final Map<String, Object> ciphers = primitives(CIPHERS);
+        Cipher cipher = (Cipher) ciphers.get(transformation);
+        if (cipher == null) {
+            cipher = Cipher.getInstance(transformation);
+            ciphers.put(transformation, cipher);
+        }
+        return cipher;
+    }
+
+    /**
+     * Returns the calling thread's {@link MessageDigest} for the algorithm, reset and ready to use.
+     *
+     * @param algorithm The Java Cryptographic message digest algorithm.
+     * @return The message digest.
+     * @throws NoSuchAlgorithmException If the algorithm is not supported.
+     */
+    public static MessageDigest messageDigest(final String algorithm) throws NoSuchAlgorithmException {
+        final Map<String, Object> digests = primitives(DIGESTS);
+        MessageDigest digest = (MessageDigest) digests.get(algorithm);
+        if (digest == null) {
+            digest = MessageDigest.getInstance(algorithm);
+            digests.put(algorithm, digest);
+        } else {
+            digest.reset();
+        }
+        return digest;
+    }
+
+    /**
+     * Returns the calling thread's {@link SecureRandom} for the algorithm, which is seeded once, when first used.
+     *
+     * @param algorithm The Java Cryptographic random number generation algorithm.
+     * @return The random number generator.
+     * @throws NoSuchAlgorithmException If the algorithm is not supported.
+     */
+    public static SecureRandom secureRandom(final String algorithm) throws NoSuchAlgorithmException {
+        final Map<String, Object> randoms = primitives(RANDOMS);
+        SecureRandom random = (SecureRandom) randoms.get(algorithm);
+        if (random == null) {
+            random = SecureRandom.getInstance(algorithm);
+            randoms.put(algorithm, random);
+        }
+        return random;
+    }
+
+    /**
+     * Discards the instances of the calling thread, along with the key material they hold. This may be called by
+     * threads which outlive the application using the instances, such as the threads of a container pool, once
+     * they no longer need them.
+     */
+    public static void clear() {
+        PRIMITIVES.remove();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> primitives(final int type) {
+        Map<String, Object>[] primitives = PRIMITIVES.get();
+        if (primitives == null) {
+            primitives = new Map[RANDOMS + 1];
+            for (int i = 0; i < primitives.length; i++) {
+                primitives[i] = new HashMap<>();
+            }
+            PRIMITIVES.set(primitives);
+        }
+        return primitives[type];
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json;
+
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures diffing a group with 10,000 members against a copy with 1% of its members removed, added or changed,
+ * and applying the resulting patch in a single call or one operation at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class JsonPatchBenchmark {
+
+    private static final int MEMBERS = 10_000;
+
+    private JsonValue original;
+    private JsonValue target;
+    private JsonValue patch;
+    private List<JsonValue> operations;
+    private JsonValue document;
+
+    @Setup
+    public void setup() {
+        final List<Object> members = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            members.add(object(field("_ref", "managed/user/" + i), field("_refProperties", object())));
+        }
+        original = json(object(field("_id", "group.0"), field("members", members)));
+        target = original.copy();
+        final JsonValue targetMembers = target.get("members");
+        for (int i = 0; i < MEMBERS / 100; i++) {
+            switch (i % 3) {
+            case 0:
+                targetMembers.remove(i * 97);
+                break;
+            case 1:
+                targetMembers.add(i * 97, object(field("_ref", "managed/user/new" + i)));
+                break;
+            default:
+                targetMembers.get(i * 97).put("_refProperties", object(field("temporal", true)));
+                break;
+            }
+        }
+        patch = JsonPatch.diff(original, target);
+        operations = new ArrayList<>();
+        for (JsonValue operation : patch) {
+            operations.add(json(array(operation.getObject())));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copyDocument() {
+        document = original.copy();
+    }
+
+    /** Computes the operations turning the original group into the target group. */
+    @Benchmark
+    public JsonValue diff() {
+        return JsonPatch.diff(original, target);
+    }
+
+    /** Applies all the operations in a single patch. */
+    @Benchmark
+    public JsonValue patch() {
+        JsonPatch.patch(document, patch);
+        return document;
+    }
+
+    /** Applies the operations one patch at a time. */
+    @Benchmark
+    public JsonValue patchEachOperation() {
+        for (JsonValue operation : operations) {
+            JsonPatch.patch(document, operation);
+        }
+        return document;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(JsonPatchBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
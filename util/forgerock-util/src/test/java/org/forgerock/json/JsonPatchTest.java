@@ -12,6 +12,7 @@
  * information: "Portions Copyrighted [year] [name of copyright owner]".
  *
  * Copyright 2011-2016 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json;
@@ -19,6 +20,10 @@ package org.forgerock.json;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.forgerock.json.JsonValue.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
@@ -301,6 +306,74 @@ public class JsonPatchTest {
         assertThat(v1.get("a").asString()).isEqualTo("bxformed");
     }
 
+    @Test
+    public void listDiffOnlyAddsAndRemovesChangedElements() {
+        List<Object> members = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            members.add("member" + i);
+        }
+        v1 = json(object(field("members", members)));
+        v2 = v1.copy();
+        v2.get("members").remove(5000);
+        v2.get("members").add(100, "new");
+        diff = JsonPatch.diff(v1, v2);
+        assertThat(diff.getObject()).isEqualTo(array(
+                object(field("op", "add"), field("path", "/members/100"), field("value", "new")),
+                object(field("op", "remove"), field("path", "/members/5001"))));
+
+        JsonPatch.patch(v1, diff);
+        assertThat(JsonPatch.isEqual(v1, v2)).isTrue();
+    }
+
+    @Test
+    public void listDiffComparesElementsAtTheSameIndex() {
+        v1 = json(array(
+                object(field("_ref", "a"), field("temporal", false)),
+                object(field("_ref", "b"), field("temporal", false))
+        ));
+        v2 = json(array(
+                object(field("_ref", "a"), field("temporal", false)),
+                object(field("_ref", "b"), field("temporal", true)),
+                object(field("_ref", "c"))
+        ));
+        diff = JsonPatch.diff(v1, v2);
+        assertThat(diff.getObject()).isEqualTo(array(
+                object(field("op", "replace"), field("path", "/1/temporal"), field("value", true)),
+                object(field("op", "add"), field("path", "/2"), field("value", object(field("_ref", "c"))))));
+
+        JsonPatch.patch(v1, diff);
+        assertThat(JsonPatch.isEqual(v1, v2)).isTrue();
+    }
+
+    @Test
+    public void listDiffReplacesListWithTooManyDifferences() {
+        List<Object> elements = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            elements.add(i);
+        }
+        v1 = json(elements);
+        v2 = v1.copy();
+        Collections.reverse(v2.asList());
+        diff = JsonPatch.diff(v1, v2);
+        assertThat(diff.size()).isEqualTo(1);
+        assertThat(diff.get(0).get("op").asString()).isEqualTo("replace");
+
+        JsonPatch.patch(v1, diff);
+        assertThat(JsonPatch.isEqual(v1, v2)).isTrue();
+    }
+
+    @Test
+    public void patchResolvesParentAgainAfterItIsReplaced() {
+        v1 = json(object(field("a", object())));
+        diff = json(array(
+                object(field("op", "add"), field("path", "/a/x"), field("value", 1)),
+                object(field("op", "replace"), field("path", ""), field("value", object(field("a", object())))),
+                object(field("op", "add"), field("path", "/a/y"), field("value", 2))
+        ));
+        JsonPatch.patch(v1, diff);
+        assertThat(v1.getObject()).isEqualTo(object(field("a", object(field("y", 2)))));
+    }
+
     // ----- exception unit tests ----------
 
     @Test(expectedExceptions = JsonValueException.class)
@@ -191,6 +191,29 @@ public class JsonPointerTest {
         assertThat(p.toString()).isEqualTo(pointer.replace("%2f", "%2F"));
     }
 
+    @Test
+    public void childPointerEquality() {
+        JsonPointer parent = new JsonPointer("/a").child("b");
+        JsonPointer child = parent.child(0);
+        assertThat((Object) child).isEqualTo(new JsonPointer("/a/b/0"));
+        assertThat(child.hashCode()).isEqualTo(new JsonPointer("/a/b/0").hashCode());
+        assertThat(child.toString()).isEqualTo("/a/b/0");
+        assertThat(child.toArray()).containsExactly("a", "b", "0");
+        assertThat(child.size()).isEqualTo(3);
+        assertThat(child.leaf()).isEqualTo("0");
+        assertThat(child.get(1)).isEqualTo("b");
+        assertThat(child.parent()).isSameAs(parent);
+        assertThat((Object) child.relativePointer()).isEqualTo(new JsonPointer("/b/0"));
+    }
+
+    @Test
+    public void valueOfShouldReturnCachedPointer() {
+        JsonPointer p1 = JsonPointer.valueOf("/a/b/c");
+        JsonPointer p2 = JsonPointer.valueOf("/a/b/c");
+        assertThat(p1).isSameAs(p2);
+        assertThat((Object) p1).isEqualTo(new JsonPointer("/a/b/c"));
+    }
+
     // ----- exception unit tests ----------
 
     @Test(expectedExceptions = JsonException.class)
@@ -0,0 +1,121 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.json;
+
+import static org.forgerock.json.JsonValue.array;
+import static org.forgerock.json.JsonValue.field;
+import static org.forgerock.json.JsonValue.json;
+import static org.forgerock.json.JsonValue.object;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures navigating, updating and copying a {@link JsonValue} shaped like a typical resource, and parsing
+ * {@link JsonPointer}s. Run with {@code -prof gc} to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class JsonValueBenchmark {
+
+    private static final String POINTER = "/contact/addresses/0/postalCode";
+
+    private final JsonPointer pointer = new JsonPointer(POINTER);
+    private JsonValue resource;
+
+    @Setup
+    public void setup() {
+        resource = json(object(
+                field("_id", "user.0"),
+                field("_rev", "1"),
+                field("userName", "bjensen"),
+                field("roles", array("admin", "user")),
+                field("contact", object(
+                        field("email", "bjensen@example.com"),
+                        field("addresses", array(
+                                object(field("street", "1 Main Street"), field("postalCode", "10001")),
+                                object(field("street", "2 High Street"), field("postalCode", "20002"))))))));
+    }
+
+    /** Navigates to a nested value one member at a time. */
+    @Benchmark
+    public Object getByKey() {
+        return resource.get("contact").get("addresses").get(0).get("postalCode").getObject();
+    }
+
+    /** Navigates to a nested value with a pointer. */
+    @Benchmark
+    public Object getByPointer() {
+        return resource.get(pointer).getObject();
+    }
+
+    /** Reads a nested raw value with a pointer, without wrapping it. */
+    @Benchmark
+    public Object getObjectByPointer() {
+        return resource.getObject(pointer);
+    }
+
+    /** Replaces a nested value with a pointer. */
+    @Benchmark
+    public JsonValue putByPointer() {
+        return resource.put(pointer, "10001");
+    }
+
+    /** Deep copies the resource. */
+    @Benchmark
+    public JsonValue copy() {
+        return resource.copy();
+    }
+
+    /** Parses a pointer each time. */
+    @Benchmark
+    public JsonPointer parsePointer() {
+        return new JsonPointer(POINTER);
+    }
+
+    /** Looks up a cached parsed pointer. */
+    @Benchmark
+    public JsonPointer parseCachedPointer() {
+        return JsonPointer.valueOf(POINTER);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(JsonValueBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
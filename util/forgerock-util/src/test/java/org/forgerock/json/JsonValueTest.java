@@ -13,6 +13,7 @@
  *
  * Copyright © 2010–2011 ApexIdentity Inc. All rights reserved.
  * Portions Copyrighted 2011-2017 ForgeRock AS.
+ * Portions Copyright 2026 Wren Security.
  */
 
 package org.forgerock.json;
@@ -329,6 +330,94 @@ public class JsonValueTest {
         assertThat(mapValue.get(new JsonPointer("/a/1/1")).getObject()).isEqualTo("a11");
     }
 
+    @Test
+    public void testGetPointerOfNestedValue() {
+        final JsonValue value = json(object(field("a", array(object(field("b", "c")))))).get("a");
+        assertThat(value.get(new JsonPointer("/0/b")).getPointer()).isEqualTo(new JsonPointer("/a/0/b"));
+        assertThat(value.get(0).get("b").getPointer()).isEqualTo(new JsonPointer("/a/0/b"));
+    }
+
+    @Test
+    public void testGetObject() {
+        final JsonValue value = json(object(field("a", array(object(field("b", "c"), field("d", null))))));
+        assertThat(value.getObject("a")).isInstanceOf(List.class);
+        assertThat(value.getObject("x")).isNull();
+        assertThat(value.getObject(new JsonPointer("/a/0/b"))).isEqualTo("c");
+        assertThat(value.getObject(new JsonPointer("/a/1/b"))).isNull();
+        assertThat(value.getObject(new JsonPointer("/a/0/b/c"))).isNull();
+        assertThat(value.get(new JsonPointer("/a/0/d")).isNull()).isTrue();
+        assertThat(value.get(new JsonPointer("/a/0/e"))).isNull();
+    }
+
+    @Test
+    public void testCopyIsDeep() {
+        final JsonValue value = json(object(field("a", array(object(field("b", "c"))))));
+        final JsonValue copy = value.copy();
+        value.get(new JsonPointer("/a/0")).put("b", "x");
+        assertThat(copy.isEqualTo(json(object(field("a", array(object(field("b", "c")))))))).isTrue();
+        assertThat(copy.get("a").getObject()).isNotSameAs(value.get("a").getObject());
+    }
+
+    @Test
+    public void testFreeze() {
+        final JsonValue value = json(object(field("a", array(object(field("b", "c"))))));
+        final JsonValue frozen = value.freeze();
+        value.get("a").get(0).put("b", "x");
+        assertThat(frozen.isFrozen()).isTrue();
+        assertThat(value.isFrozen()).isFalse();
+        assertThat(frozen.freeze()).isSameAs(frozen);
+        assertThat(frozen.get(new JsonPointer("/a/0/b")).asString()).isEqualTo("c");
+        assertThat(frozen.isEqualTo(json(object(field("a", array(object(field("b", "c")))))))).isTrue();
+    }
+
+    @Test
+    public void testFreezeSharesFrozenValues() {
+        final JsonValue frozenChild = json(object(field("b", array("c")))).freeze();
+        final JsonValue value = json(object(field("a", frozenChild), field("d", array("e"))));
+        final JsonValue frozen = value.freeze();
+        assertThat(frozen.get("a").getObject()).isSameAs(frozenChild.getObject());
+        assertThat(frozen.get("d").getObject()).isNotSameAs(value.get("d").getObject());
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testFrozenValueCannotBeModified() {
+        json(object(field("a", array("b")))).freeze().get("a").add("c");
+    }
+
+    @Test
+    public void testCopyOfFrozenValueIsMutable() {
+        final JsonValue copy = json(object(field("a", array("b")))).freeze().copy();
+        copy.get("a").add("c");
+        assertThat(copy.isFrozen()).isFalse();
+        assertThat(copy.get("a").asList()).containsExactly("b", "c");
+    }
+
+    @Test
+    public void testWithOnlyCopiesModifiedPath() {
+        final JsonValue frozen = json(object(
+                field("a", object(field("b", array("c", "d")))),
+                field("e", object(field("f", "g"))))).freeze();
+        final JsonValue updated = frozen.with(new JsonPointer("/a/b/1"), "x").with(new JsonPointer("/a/b/-"), "y");
+        assertThat(updated.get(new JsonPointer("/a/b")).asList()).containsExactly("c", "x", "y");
+        assertThat(frozen.get(new JsonPointer("/a/b")).asList()).containsExactly("c", "d");
+        assertThat(updated.get("e").getObject()).isSameAs(frozen.get("e").getObject());
+        assertThat(updated.isFrozen()).isTrue();
+    }
+
+    @Test(expectedExceptions = JsonValueException.class)
+    public void testWithMissingParent() {
+        json(object()).freeze().with(new JsonPointer("/a/b"), "c");
+    }
+
+    @Test
+    public void testWithout() {
+        final JsonValue frozen = json(object(field("a", array("b", "c")), field("d", "e"))).freeze();
+        assertThat(frozen.without(new JsonPointer("/a/0")).get("a").asList()).containsExactly("c");
+        assertThat(frozen.without(new JsonPointer("/d")).isDefined("d")).isFalse();
+        assertThat(frozen.without(new JsonPointer("/x/y")).getObject()).isSameAs(frozen.getObject());
+        assertThat(frozen.isDefined("d")).isTrue();
+    }
+
     /**
      * Check {@link JsonValue#getObject()} hash code stability - see CREST-52.
      */
@@ -0,0 +1,129 @@
+/*
+ * The contents of this file are subject to the terms of the Common Development and
+ * Distribution License (the License). You may not use this file except in compliance with the
+ * License.
+ *
+ * You can obtain a copy of the License at legal/CDDLv1.0.txt. See the License for the
+ * specific language governing permission and limitations under the License.
+ *
+ * When distributing Covered Software, include this CDDL Header Notice in each file and include
+ * the License file at legal/CDDLv1.0.txt. If applicable, add the following below the CDDL
+ * Header, with the fields enclosed by brackets [] replaced by your own identifying
+ * information: "Portions copyright [year] [name of copyright owner]".
+ *
+ * Copyright 2026 Wren Security.
+ */
+
+package org.forgerock.util.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.testng.annotations.Test;
+
+public class CryptoPrimitivesTest {
+
+    private static final byte[] DATA = "header.payload".getBytes(StandardCharsets.UTF_8);
+    private static final SecretKeySpec KEY = new SecretKeySpec(new byte[32], "HmacSHA256");
+    private static final SecretKeySpec OTHER_KEY = new SecretKeySpec(new byte[] { 1, 2, 3 }, "HmacSHA256");
+
+    @Test
+    public void shouldReuseMacOfTheSameAlgorithm() throws Exception {
+        Mac mac = CryptoPrimitives.mac("HmacSHA256", KEY);
+
+        assertThat(CryptoPrimitives.mac("HmacSHA256", OTHER_KEY)).isSameAs(mac);
+        assertThat(CryptoPrimitives.mac("HmacSHA512", KEY)).isNotSameAs(mac);
+    }
+
+    @Test
+    public void shouldInitialiseMacWithTheGivenKey() throws Exception {
+        byte[] expected = newMac(KEY).doFinal(DATA);
+        byte[] expectedWithOtherKey = newMac(OTHER_KEY).doFinal(DATA);
+
+        assertThat(CryptoPrimitives.mac("HmacSHA256", KEY).doFinal(DATA)).isEqualTo(expected);
+        assertThat(CryptoPrimitives.mac("HmacSHA256", OTHER_KEY).doFinal(DATA)).isEqualTo(expectedWithOtherKey);
+        assertThat(CryptoPrimitives.mac("HmacSHA256", new SecretKeySpec(new byte[32], "HmacSHA256")).doFinal(DATA))
+                .isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldDiscardDataOfIncompleteMac() throws Exception {
+        CryptoPrimitives.mac("HmacSHA256", KEY).update(DATA);
+
+        assertThat(CryptoPrimitives.mac("HmacSHA256", KEY).doFinal(DATA)).isEqualTo(newMac(KEY).doFinal(DATA));
+    }
+
+    @Test
+    public void shouldNotShareInstancesBetweenThreads() throws Exception {
+        final Mac mac = CryptoPrimitives.mac("HmacSHA256", KEY);
+        final Cipher cipher = CryptoPrimitives.cipher("AES/GCM/NoPadding");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Object[] others = executor.submit(new Callable<Object[]>() {
+                @Override
+                public Object[] call() throws Exception {
+                    return new Object[] {
+                        CryptoPrimitives.mac("HmacSHA256", KEY), CryptoPrimitives.cipher("AES/GCM/NoPadding")
+                    };
+                }
+            }).get();
+
+            assertThat(others[0]).isNotSameAs(mac);
+            assertThat(others[1]).isNotSameAs(cipher);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldCreateNewInstancesOnceCleared() throws Exception {
+        Mac mac = CryptoPrimitives.mac("HmacSHA256", KEY);
+        Cipher cipher = CryptoPrimitives.cipher("AES/GCM/NoPadding");
+
+        CryptoPrimitives.clear();
+
+        assertThat(CryptoPrimitives.mac("HmacSHA256", KEY)).isNotSameAs(mac);
+        assertThat(CryptoPrimitives.cipher("AES/GCM/NoPadding")).isNotSameAs(cipher);
+    }
+
+    @Test
+    public void shouldReuseCipherOfTheSameTransformation() throws Exception {
+        Cipher cipher = CryptoPrimitives.cipher("AES/GCM/NoPadding");
+
+        assertThat(CryptoPrimitives.cipher("AES/GCM/NoPadding")).isSameAs(cipher);
+        assertThat(CryptoPrimitives.cipher("AES/CBC/PKCS5Padding")).isNotSameAs(cipher);
+    }
+
+    @Test
+    public void shouldInitialiseSignatureForSigningThenVerifying() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        Signature signer = CryptoPrimitives.signer("SHA256withRSA", keyPair.getPrivate());
+        signer.update(DATA);
+        byte[] signature = signer.sign();
+        Signature verifier = CryptoPrimitives.verifier("SHA256withRSA", keyPair.getPublic());
+        verifier.update(DATA);
+
+        assertThat(verifier).isSameAs(signer);
+        assertThat(verifier.verify(signature)).isTrue();
+    }
+
+    private static Mac newMac(SecretKeySpec key) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(key);
+        return mac;
+    }
+}